@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.lock;
+
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_table;
+import static org.neo4j.lock.ResourceType.NODE;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings.LockTableImplementation;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.kernel.impl.locking.forseti.ForsetiLockManager;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.time.Clocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Acquire and release round trips on {@code ForsetiClient}. Every benchmark thread owns one client, and all clients lock
+ * node resources out of a pool of {@link #resources} ids, so a small pool means high contention on the same lock entries.
+ * Each combination runs with every {@link LockTableImplementation} to compare the global lock tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ForsetiBenchmark {
+    @Param({"1", "1000", "1000000"})
+    public long resources;
+
+    @Param({"CONCURRENT_HASH_MAP", "STRIPED"})
+    public LockTableImplementation lockTable;
+
+    private ForsetiLockManager lockManager;
+    private final AtomicLong transactionIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config config = Config.defaults(lock_manager_table, lockTable);
+        lockManager = new ForsetiLockManager(config, Clocks.nanoClock(), ResourceType.values());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lockManager.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        LockManager.Client client;
+
+        @Setup(Level.Trial)
+        public void setUp(ForsetiBenchmark benchmark) {
+            client = benchmark.lockManager.newClient();
+            client.initialize(
+                    LeaseService.NoLeaseClient.INSTANCE,
+                    benchmark.transactionIds.incrementAndGet(),
+                    EmptyMemoryTracker.INSTANCE,
+                    Config.defaults());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void shared(Client client) {
+        long resource = randomResource();
+        client.client.acquireShared(LockTracer.NONE, NODE, resource);
+        client.client.releaseShared(NODE, resource);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void exclusive(Client client) {
+        long resource = randomResource();
+        client.client.acquireExclusive(LockTracer.NONE, NODE, resource);
+        client.client.releaseExclusive(NODE, resource);
+    }
+
+    private long randomResource() {
+        return ThreadLocalRandom.current().nextLong(resources);
+    }
+}
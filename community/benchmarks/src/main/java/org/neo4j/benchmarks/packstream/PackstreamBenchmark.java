@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.packstream;
+
+import java.util.concurrent.TimeUnit;
+import org.neo4j.bolt.protocol.io.pipeline.PipelineContext;
+import org.neo4j.bolt.protocol.io.pipeline.WriterPipeline;
+import org.neo4j.bolt.protocol.io.writer.DefaultStructWriter;
+import org.neo4j.packstream.error.reader.PackstreamReaderException;
+import org.neo4j.packstream.io.PackstreamBuf;
+import org.neo4j.packstream.io.value.PackstreamValueReader;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of Bolt {@code RECORD} payloads through {@link PackstreamBuf}. Records of primitive values
+ * are both encoded and decoded, records of graph structures are only encoded since clients never send them to the server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PackstreamBenchmark {
+    private PackstreamBuf buf;
+    private PipelineContext context;
+    private ListValue primitiveRecord;
+    private ListValue graphRecord;
+    private PackstreamBuf encodedPrimitiveRecord;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        buf = PackstreamBuf.allocUnpooled();
+        var pipeline = new WriterPipeline(null).addLast(DefaultStructWriter.getInstance());
+        context = pipeline.forBuffer(buf);
+
+        primitiveRecord = VirtualValues.list(
+                Values.longValue(42),
+                Values.longValue(Integer.MAX_VALUE + 1L),
+                Values.doubleValue(3.14),
+                Values.booleanValue(true),
+                Values.stringValue("Neo4j"),
+                Values.stringValue("a somewhat longer string value that needs a length prefix"),
+                VirtualValues.list(Values.longValue(1), Values.longValue(2), Values.longValue(3)),
+                VirtualValues.map(
+                        new String[] {"name", "since"},
+                        new AnyValue[] {Values.stringValue("Alice"), Values.longValue(2010)}));
+
+        MapValue properties = VirtualValues.map(new String[] {"name", "age", "email"}, new AnyValue[] {
+            Values.stringValue("Alice"), Values.longValue(33), Values.stringValue("alice@neo4j.com")
+        });
+        var alice = VirtualValues.nodeValue(1, "4:db:1", Values.stringArray("Person", "Employee"), properties);
+        var bob = VirtualValues.nodeValue(2, "4:db:2", Values.stringArray("Person"), properties);
+        var knows = VirtualValues.relationshipValue(
+                3,
+                "5:db:3",
+                VirtualValues.node(1, "4:db:1"),
+                VirtualValues.node(2, "4:db:2"),
+                Values.stringValue("KNOWS"),
+                VirtualValues.map(new String[] {"since"}, new AnyValue[] {Values.longValue(2010)}));
+        graphRecord = VirtualValues.list(alice, knows, bob);
+
+        encodedPrimitiveRecord = PackstreamBuf.allocUnpooled();
+        new WriterPipeline(null)
+                .addLast(DefaultStructWriter.getInstance())
+                .forBuffer(encodedPrimitiveRecord)
+                .writeValue(primitiveRecord);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buf.release();
+        encodedPrimitiveRecord.release();
+    }
+
+    @Benchmark
+    public int encodePrimitiveRecord() {
+        buf.getTarget().clear();
+        context.writeValue(primitiveRecord);
+        return buf.getTarget().writerIndex();
+    }
+
+    @Benchmark
+    public int encodeGraphRecord() {
+        buf.getTarget().clear();
+        context.writeValue(graphRecord);
+        return buf.getTarget().writerIndex();
+    }
+
+    @Benchmark
+    public AnyValue decodePrimitiveRecord() throws PackstreamReaderException {
+        encodedPrimitiveRecord.getTarget().readerIndex(0);
+        return new PackstreamValueReader<>(null, encodedPrimitiveRecord, null).readValue();
+    }
+}
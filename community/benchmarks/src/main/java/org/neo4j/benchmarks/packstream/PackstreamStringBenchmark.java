@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.packstream;
+
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.bolt.protocol.io.pipeline.PipelineAnyValueWriter;
+import org.neo4j.bolt.protocol.io.pipeline.PipelineContext;
+import org.neo4j.bolt.protocol.io.pipeline.WriterPipeline;
+import org.neo4j.bolt.protocol.io.writer.DefaultStructWriter;
+import org.neo4j.packstream.io.PackstreamBuf;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.VirtualValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding of Bolt {@code RECORD} payloads made up of strings and byte arrays. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per record, between the {@code writer} parameters:
+ * <ul>
+ *     <li>{@code direct} is the writer used by Bolt, which encodes values straight into the network buffer.</li>
+ *     <li>{@code heapCopy} first encodes every string into an intermediate array and wraps every byte array into a
+ *     buffer, the way Packstream used to.</li>
+ * </ul>
+ * Values stored as UTF-8 are copied as they are by both writers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PackstreamStringBenchmark {
+    private static final int VALUES_PER_RECORD = 16;
+
+    @Param({"direct", "heapCopy"})
+    public String writer;
+
+    @Param({"string", "utf8", "bytes"})
+    public String valueType;
+
+    private PackstreamBuf buf;
+    private PipelineAnyValueWriter valueWriter;
+    private ListValue record;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        buf = PackstreamBuf.allocUnpooled();
+        PipelineContext context = new WriterPipeline(null)
+                .addLast(DefaultStructWriter.getInstance())
+                .forBuffer(buf);
+        valueWriter =
+                switch (writer) {
+                    case "direct" -> new PipelineAnyValueWriter(buf, context);
+                    case "heapCopy" -> new HeapCopyValueWriter(buf, context);
+                    default -> throw new IllegalArgumentException("Unknown writer " + writer);
+                };
+
+        var values = new AnyValue[VALUES_PER_RECORD];
+        for (int i = 0; i < VALUES_PER_RECORD; i++) {
+            // a mix of short and longer values, some of them with multi-byte characters
+            String string = (i % 4 == 0 ? "Ünïcødé name " : "name ") + i + (i % 2 == 0 ? "" : " ".repeat(100));
+            values[i] =
+                    switch (valueType) {
+                        case "string" -> Values.stringValue(string);
+                        case "utf8" -> Values.utf8Value(string.getBytes(StandardCharsets.UTF_8));
+                        case "bytes" -> Values.byteArray(string.getBytes(StandardCharsets.UTF_8));
+                        default -> throw new IllegalArgumentException("Unknown value type " + valueType);
+                    };
+        }
+        record = VirtualValues.list(values);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public int encodeRecord() {
+        buf.getTarget().clear();
+        record.writeTo(valueWriter);
+        return buf.getTarget().writerIndex();
+    }
+
+    private static class HeapCopyValueWriter extends PipelineAnyValueWriter {
+        HeapCopyValueWriter(PackstreamBuf target, PipelineContext context) {
+            super(target, context);
+        }
+
+        @Override
+        public void writeString(String value) {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            this.buf.writeString(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void writeByteArray(byte[] value) {
+            this.buf.writeBytes(Unpooled.wrappedBuffer(value));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.pagecache;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.impl.muninn.MuninnPageCache.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pin, read and write throughput of {@code MuninnPageCursor}. Every thread keeps its own cursors open for the whole trial,
+ * so the measured operation is {@link PageCursor#next(long)}, an access of the pinned page and {@link PageCursor#unpin()}. Files smaller than the
+ * cache measure pure pinning and latch contention, larger files add page faults and eviction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PageCursorBenchmark {
+    private static final int CACHE_PAGES = 2048;
+
+    /**
+     * Number of pages in the mapped file. One page means that all threads contend for the same page latch.
+     */
+    @Param({"1", "1024", "8192"})
+    public int filePages;
+
+    private FileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private Path directory;
+    private PageCache pageCache;
+    private PagedFile pagedFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        directory = Files.createTempDirectory("page-cursor-benchmark");
+        pageCache = StandalonePageCacheFactory.createPageCache(
+                fs, jobScheduler, PageCacheTracer.NULL, config(CACHE_PAGES).pageSize(PageCache.PAGE_SIZE));
+        pagedFile = pageCache.map(directory.resolve("store"), PageCache.PAGE_SIZE, "neo4j", immutable.of(CREATE));
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (long pageId = 0; pageId < filePages; pageId++) {
+                cursor.next(pageId);
+                cursor.putLong(0, pageId);
+            }
+        }
+        pagedFile.flushAndForce(FileFlushEvent.NULL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pagedFile.close();
+        pageCache.close();
+        jobScheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursors {
+        PageCursor reader;
+        PageCursor writer;
+
+        @Setup(Level.Trial)
+        public void open(PageCursorBenchmark benchmark) throws IOException {
+            reader = benchmark.pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT);
+            writer = benchmark.pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long read(Cursors cursors) throws IOException {
+        return readPage(cursors.reader);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void write(Cursors cursors) throws IOException {
+        writePage(cursors.writer);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public long mixedRead(Cursors cursors) throws IOException {
+        return readPage(cursors.reader);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedWrite(Cursors cursors) throws IOException {
+        writePage(cursors.writer);
+    }
+
+    private long readPage(PageCursor cursor) throws IOException {
+        long value;
+        cursor.next(randomPage());
+        do {
+            value = cursor.getLong(0);
+        } while (cursor.shouldRetry());
+        cursor.unpin();
+        return value;
+    }
+
+    private void writePage(PageCursor cursor) throws IOException {
+        long pageId = randomPage();
+        cursor.next(pageId);
+        cursor.putLong(0, pageId);
+        cursor.unpin();
+    }
+
+    private long randomPage() {
+        return ThreadLocalRandom.current().nextLong(filePages);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares two JMH result files, produced with {@code -rf json}, and prints a markdown table with the relative change of
+ * every benchmark present in both. A change counts as a regression when the candidate is worse than the baseline by more
+ * than the threshold and the difference is larger than the combined score errors of the two runs.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <candidate.json> [threshold percent, default 5]}.
+ * Exits with status 1 if any regression was found.
+ */
+public final class BenchmarkComparison {
+    private static final double DEFAULT_THRESHOLD_PERCENT = 5;
+
+    private BenchmarkComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> candidate = read(Path.of(args[1]));
+        List<Comparison> comparisons = compare(baseline, candidate, threshold);
+        print(comparisons, System.out);
+        if (comparisons.stream().anyMatch(comparison -> comparison.verdict == Verdict.REGRESSION)) {
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Result> read(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            JsonNode metric = run.get("primaryMetric");
+            Result result = new Result(
+                    name(run),
+                    run.get("mode").asText(),
+                    metric.get("score").asDouble(),
+                    error(metric.path("scoreError").asDouble(0)),
+                    metric.get("scoreUnit").asText());
+            results.put(result.name, result);
+        }
+        return results;
+    }
+
+    static List<Comparison> compare(Map<String, Result> baseline, Map<String, Result> candidate, double threshold) {
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Result before : baseline.values()) {
+            Result after = candidate.get(before.name);
+            if (after == null || !before.unit.equals(after.unit)) {
+                continue;
+            }
+            double change = before.score == 0 ? 0 : (after.score - before.score) / before.score * 100;
+            double improvement = before.higherIsBetter() ? change : -change;
+            boolean significant =
+                    Math.abs(after.score - before.score) > before.error + after.error && Math.abs(change) > threshold;
+            Verdict verdict = !significant ? Verdict.SAME : improvement < 0 ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+            comparisons.add(new Comparison(before, after, change, verdict));
+        }
+        return comparisons;
+    }
+
+    static void print(List<Comparison> comparisons, PrintStream out) {
+        out.println("| Benchmark | Mode | Unit | Baseline | Candidate | Change | Verdict |");
+        out.println("|---|---|---|---:|---:|---:|---|");
+        for (Comparison comparison : comparisons) {
+            Result before = comparison.baseline;
+            Result after = comparison.candidate;
+            out.printf(
+                    Locale.ROOT,
+                    "| %s | %s | %s | %.3f +/- %.3f | %.3f +/- %.3f | %+.1f%% | %s |%n",
+                    before.name,
+                    before.mode,
+                    before.unit,
+                    before.score,
+                    before.error,
+                    after.score,
+                    after.error,
+                    comparison.changePercent,
+                    comparison.verdict);
+        }
+    }
+
+    /**
+     * JMH reports the error as NaN when there was only a single measurement iteration.
+     */
+    private static double error(double scoreError) {
+        return Double.isNaN(scoreError) ? 0 : scoreError;
+    }
+
+    private static String name(JsonNode run) {
+        String benchmark = run.get("benchmark").asText();
+        JsonNode params = run.get("params");
+        if (params == null || params.isEmpty()) {
+            return benchmark;
+        }
+        StringJoiner joiner = new StringJoiner(",", benchmark + "[", "]");
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            joiner.add(field.getKey() + "=" + field.getValue().asText());
+        }
+        return joiner.toString();
+    }
+
+    enum Verdict {
+        SAME,
+        IMPROVEMENT,
+        REGRESSION
+    }
+
+    record Result(String name, String mode, double score, double error, String unit) {
+        /**
+         * Throughput is the only JMH mode where a higher score is better, the others measure time per operation.
+         */
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    record Comparison(Result baseline, Result candidate, double changePercent, Verdict verdict) {}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.values;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Comparison through {@link Values#COMPARATOR} and hashing of storable values, per value type.
+ * Each invocation walks over {@value #VALUES} pre generated values so that branch prediction can't learn a single pair.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ValuesBenchmark {
+    private static final int VALUES = 1024;
+
+    @Param({"long", "double", "string", "utf8", "longArray", "date", "point"})
+    public String type;
+
+    private final Value[] values = new Value[VALUES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = randomValue(random);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public int compare() {
+        int result = 0;
+        for (int i = 1; i < VALUES; i++) {
+            result += Values.COMPARATOR.compare(values[i - 1], values[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public int hashCode32() {
+        int result = 0;
+        for (Value value : values) {
+            result += value.hashCode();
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long hashCode64() {
+        long result = 0;
+        for (Value value : values) {
+            result += value.hashCode64();
+        }
+        return result;
+    }
+
+    private Value randomValue(SplittableRandom random) {
+        return switch (type) {
+            case "long" -> Values.longValue(random.nextLong());
+            case "double" -> Values.doubleValue(random.nextDouble());
+            case "string" -> Values.stringValue(randomString(random));
+            case "utf8" -> Values.utf8Value(randomString(random).getBytes(UTF_8));
+            case "longArray" -> Values.longArray(random.longs(16).toArray());
+            case "date" -> DateValue.epochDate(random.nextLong(100_000));
+            case "point" -> Values.pointValue(
+                    CoordinateReferenceSystem.CARTESIAN, random.nextDouble(), random.nextDouble());
+            default -> throw new IllegalArgumentException("Unknown value type " + type);
+        };
+    }
+
+    private static String randomString(SplittableRandom random) {
+        char[] chars = new char[8 + random.nextInt(24)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
+import static org.neo4j.io.pagecache.impl.muninn.MuninnPageCache.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Opens a {@link GBPTree} in a temporary directory, backed by a page cache large enough to hold the whole tree,
+ * and populates it with {@link #initialEntries()} entries before the trial starts.
+ */
+abstract class GBPTreeBenchmarkSupport<KEY, VALUE> {
+    private static final int CACHE_PAGES = 32_768;
+
+    private FileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private Path directory;
+    private PageCache pageCache;
+    GBPTree<KEY, VALUE> tree;
+
+    abstract Layout<KEY, VALUE> layout();
+
+    abstract long initialEntries();
+
+    /**
+     * Adds the entry identified by {@code entry} to the tree.
+     */
+    abstract void populate(Writer<KEY, VALUE> writer, long entry);
+
+    @Setup(Level.Trial)
+    public void setUpTree() throws IOException {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        directory = Files.createTempDirectory("gbptree-benchmark");
+        pageCache = StandalonePageCacheFactory.createPageCache(
+                fs, jobScheduler, PageCacheTracer.NULL, config(CACHE_PAGES).pageSize(PageCache.PAGE_SIZE));
+        tree = new GBPTree<>(
+                pageCache,
+                fs,
+                directory.resolve("index"),
+                layout(),
+                NO_MONITOR,
+                NO_HEADER_READER,
+                immediate(),
+                false,
+                immutable.empty(),
+                DEFAULT_DATABASE_NAME,
+                "benchmark tree",
+                new CursorContextFactory(PageCacheTracer.NULL, EMPTY_CONTEXT_SUPPLIER),
+                PageCacheTracer.NULL);
+        try (Writer<KEY, VALUE> writer = tree.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+            long entries = initialEntries();
+            for (long entry = 0; entry < entries; entry++) {
+                populate(writer, entry);
+            }
+        }
+        tree.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTree() throws Exception {
+        tree.close();
+        pageCache.close();
+        jobScheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory(directory);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.values.storable.Values;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Seek, range scan and insert on a single slot {@link RangeLayout} tree with long values,
+ * i.e. the data structure behind a range index on one integer property.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RangeIndexBenchmark extends GBPTreeBenchmarkSupport<RangeKey, NullValue> {
+    private static final int INSERT_BATCH = 100;
+
+    @Param({"1000000"})
+    public long entries;
+
+    @Param({"100"})
+    public int scanLength;
+
+    private final RangeLayout layout = new RangeLayout(1);
+    private final AtomicLong nextEntityId = new AtomicLong();
+
+    @Override
+    Layout<RangeKey, NullValue> layout() {
+        return layout;
+    }
+
+    @Override
+    long initialEntries() {
+        return entries;
+    }
+
+    @Override
+    void populate(Writer<RangeKey, NullValue> writer, long entry) {
+        writer.put(key(layout.newKey(), entry, entry), NullValue.INSTANCE);
+    }
+
+    @Setup(Level.Trial)
+    public void setUpEntityIds() {
+        nextEntityId.set(entries);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        RangeKey from;
+        RangeKey to;
+        Seeker<RangeKey, NullValue> seeker;
+
+        @Setup(Level.Trial)
+        public void setUp(RangeIndexBenchmark benchmark) throws IOException {
+            from = benchmark.layout.newKey();
+            to = benchmark.layout.newKey();
+            seeker = benchmark.tree.allocateSeeker(NULL_CONTEXT);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            seeker.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long seekExact(Cursor cursor) throws IOException {
+        long value = ThreadLocalRandom.current().nextLong(entries);
+        return count(cursor, value, value);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long rangeScan(Cursor cursor) throws IOException {
+        long value = ThreadLocalRandom.current().nextLong(entries - scanLength);
+        return count(cursor, value, value + scanLength - 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(INSERT_BATCH)
+    public void insert(Cursor cursor) throws IOException {
+        RangeKey key = cursor.from;
+        try (Writer<RangeKey, NullValue> writer = tree.writer(NULL_CONTEXT)) {
+            for (int i = 0; i < INSERT_BATCH; i++) {
+                long entityId = nextEntityId.getAndIncrement();
+                long value = ThreadLocalRandom.current().nextLong(entries);
+                writer.put(key(key, value, entityId), NullValue.INSTANCE);
+            }
+        }
+    }
+
+    private long count(Cursor cursor, long fromValue, long toValue) throws IOException {
+        cursor.from.initialize(Long.MIN_VALUE);
+        cursor.from.initFromValue(0, Values.longValue(fromValue), NativeIndexKey.Inclusion.NEUTRAL);
+        cursor.to.initialize(Long.MAX_VALUE);
+        cursor.to.initFromValue(0, Values.longValue(toValue), NativeIndexKey.Inclusion.NEUTRAL);
+        Seeker<RangeKey, NullValue> seeker = tree.seek(cursor.seeker, cursor.from, cursor.to);
+        long count = 0;
+        while (seeker.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static RangeKey key(RangeKey key, long value, long entityId) {
+        key.initialize(entityId);
+        key.initFromValue(0, Values.longValue(value), NativeIndexKey.Inclusion.NEUTRAL);
+        return key;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static org.neo4j.index.internal.gbptree.ValueMerger.MergeResult.MERGED;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.ValueMerger;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Token scans and token additions on a {@link TokenScanLayout} tree, i.e. the data structure behind the label and
+ * relationship type lookup indexes. Every entity gets token {@code entityId % tokens}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TokenIndexBenchmark extends GBPTreeBenchmarkSupport<TokenScanKey, TokenScanValue> {
+    private static final int UPDATE_BATCH = 100;
+    private static final ValueMerger<TokenScanKey, TokenScanValue> ADD_MERGER =
+            (existingKey, newKey, existingValue, newValue) -> {
+                existingValue.add(newValue);
+                return MERGED;
+            };
+
+    @Param({"1000000"})
+    public long entities;
+
+    @Param({"10"})
+    public int tokens;
+
+    private final TokenScanLayout layout = new TokenScanLayout();
+
+    @Override
+    Layout<TokenScanKey, TokenScanValue> layout() {
+        return layout;
+    }
+
+    @Override
+    long initialEntries() {
+        return entities;
+    }
+
+    @Override
+    void populate(Writer<TokenScanKey, TokenScanValue> writer, long entityId) {
+        int tokenId = (int) (entityId % tokens);
+        TokenScanValue value = new TokenScanValue();
+        value.set((int) (entityId % RANGE_SIZE));
+        writer.merge(new TokenScanKey(tokenId, entityId / RANGE_SIZE), value, ADD_MERGER);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final TokenScanKey from = new TokenScanKey();
+        final TokenScanKey to = new TokenScanKey();
+        final TokenScanValue value = new TokenScanValue();
+        Seeker<TokenScanKey, TokenScanValue> seeker;
+
+        @Setup(Level.Trial)
+        public void setUp(TokenIndexBenchmark benchmark) throws IOException {
+            seeker = benchmark.tree.allocateSeeker(NULL_CONTEXT);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            seeker.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long scanToken(Cursor cursor) throws IOException {
+        int tokenId = ThreadLocalRandom.current().nextInt(tokens);
+        cursor.from.set(tokenId, 0);
+        cursor.to.set(tokenId, Long.MAX_VALUE);
+        Seeker<TokenScanKey, TokenScanValue> seeker = tree.seek(cursor.seeker, cursor.from, cursor.to);
+        long count = 0;
+        while (seeker.next()) {
+            count += Long.bitCount(seeker.value().bits);
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(UPDATE_BATCH)
+    public void addToken(Cursor cursor) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Writer<TokenScanKey, TokenScanValue> writer = tree.writer(NULL_CONTEXT)) {
+            for (int i = 0; i < UPDATE_BATCH; i++) {
+                long entityId = random.nextLong(entities);
+                cursor.from.set(random.nextInt(tokens), entityId / RANGE_SIZE);
+                cursor.value.clear();
+                cursor.value.set((int) (entityId % RANGE_SIZE));
+                writer.merge(cursor.from, cursor.value, ADD_MERGER);
+            }
+        }
+    }
+}
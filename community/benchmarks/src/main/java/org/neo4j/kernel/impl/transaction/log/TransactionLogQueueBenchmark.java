@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static org.neo4j.common.Subject.ANONYMOUS;
+import static org.neo4j.monitoring.HealthEventGenerator.NO_OP;
+import static org.neo4j.storageengine.AppendIndexProvider.BASE_APPEND_INDEX;
+import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.api.CompleteTransaction;
+import org.neo4j.kernel.impl.api.txid.IdStoreTransactionIdGenerator;
+import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.monitoring.DatabaseHealth;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.AppendIndexProvider;
+import org.neo4j.storageengine.ReadOnlyTransactionIdStore;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+import org.neo4j.storageengine.api.LogVersionRepository;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StoreId;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Append throughput of {@link TransactionLogQueue} against a real transaction log on disk, including forcing.
+ * Running with more threads shows how well concurrent committers get batched into a single force.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TransactionLogQueueBenchmark {
+    private static final KernelVersion LATEST_KERNEL_VERSION = KernelVersion.getLatestVersion(Config.defaults());
+
+    /**
+     * Number of {@link FixedSizeCommand commands} in every appended transaction.
+     */
+    @Param({"1", "100"})
+    public int commands;
+
+    private FileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private Path directory;
+    private LifeSupport life;
+    private CommittingTransactionIdStore transactionIdStore;
+    private TransactionLogQueue logQueue;
+    private List<StorageCommand> transactionCommands;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        directory = Files.createTempDirectory("transaction-log-queue-benchmark");
+        life = new LifeSupport();
+
+        var logProvider = NullLogProvider.getInstance();
+        var appendIndexProvider = new SequentialAppendIndexProvider();
+        transactionIdStore = new CommittingTransactionIdStore();
+        LogFiles logFiles = LogFilesBuilder.builder(DatabaseLayout.ofFlat(directory), fs, () -> LATEST_KERNEL_VERSION)
+                .withLogVersionRepository(new InMemoryLogVersionRepository())
+                .withRotationThreshold(ByteUnit.mebiBytes(256))
+                .withTransactionIdStore(transactionIdStore)
+                .withAppendIndexProvider(appendIndexProvider)
+                .withCommandReaderFactory(CommandReaderFactory.NO_COMMANDS)
+                .withStoreId(new StoreId(1, 2, "engine-1", "format-1", 3, 4))
+                .build();
+        life.add(logFiles);
+        logQueue = life.add(new TransactionLogQueue(
+                logFiles,
+                transactionIdStore,
+                new DatabaseHealth(NO_OP, logProvider.getLog(DatabaseHealth.class)),
+                appendIndexProvider,
+                new TransactionMetadataCache(),
+                jobScheduler,
+                logProvider));
+        life.start();
+
+        transactionCommands = new ArrayList<>(commands);
+        for (int i = 0; i < commands; i++) {
+            transactionCommands.add(new FixedSizeCommand());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        life.shutdown();
+        jobScheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long append() throws Exception {
+        return appendTransaction();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long concurrentAppend() throws Exception {
+        return appendTransaction();
+    }
+
+    private long appendTransaction() throws Exception {
+        var batch = new CompleteCommandBatch(
+                transactionCommands,
+                UNKNOWN_CONSENSUS_INDEX,
+                1,
+                2,
+                3,
+                4,
+                LATEST_KERNEL_VERSION,
+                ANONYMOUS);
+        var transaction = new CompleteTransaction(
+                batch,
+                CursorContext.NULL_CONTEXT,
+                StoreCursors.NULL,
+                new TransactionCommitment(transactionIdStore),
+                new IdStoreTransactionIdGenerator(transactionIdStore));
+        return logQueue.submit(transaction, LogAppendEvent.NULL).getCommittedAppendIndex();
+    }
+
+    /**
+     * Hands out transaction ids and ignores the rest of the bookkeeping, which is not what is measured here.
+     */
+    private static class CommittingTransactionIdStore extends ReadOnlyTransactionIdStore {
+        private final AtomicLong committingTransactionId = new AtomicLong(BASE_TX_ID);
+
+        CommittingTransactionIdStore() {
+            super(new EmptyLogTailMetadata(Config.defaults()));
+        }
+
+        @Override
+        public long nextCommittingTransactionId() {
+            return committingTransactionId.incrementAndGet();
+        }
+
+        @Override
+        public void transactionCommitted(
+                long transactionId,
+                long appendIndex,
+                KernelVersion kernelVersion,
+                int checksum,
+                long commitTimestamp,
+                long consensusIndex) {}
+
+        @Override
+        public void transactionClosed(
+                long transactionId,
+                long appendIndex,
+                KernelVersion kernelVersion,
+                long logVersion,
+                long byteOffset,
+                int checksum,
+                long commitTimestamp,
+                long consensusIndex) {}
+
+        @Override
+        public void batchClosed(
+                long transactionId,
+                long appendIndex,
+                boolean firstBatch,
+                boolean lastBatch,
+                KernelVersion kernelVersion,
+                LogPosition logPositionAfter) {}
+    }
+
+    private static class SequentialAppendIndexProvider implements AppendIndexProvider {
+        private final AtomicLong appendIndex = new AtomicLong(BASE_APPEND_INDEX);
+
+        @Override
+        public long nextAppendIndex() {
+            return appendIndex.incrementAndGet();
+        }
+
+        @Override
+        public long getLastAppendIndex() {
+            return appendIndex.get();
+        }
+    }
+
+    private static class InMemoryLogVersionRepository implements LogVersionRepository {
+        private final AtomicLong logVersion = new AtomicLong(INITIAL_LOG_VERSION);
+        private final AtomicLong checkpointLogVersion = new AtomicLong(INITIAL_LOG_VERSION);
+
+        @Override
+        public long getCurrentLogVersion() {
+            return logVersion.get();
+        }
+
+        @Override
+        public void setCurrentLogVersion(long version) {
+            logVersion.set(version);
+        }
+
+        @Override
+        public long incrementAndGetVersion() {
+            return logVersion.incrementAndGet();
+        }
+
+        @Override
+        public long getCheckpointLogVersion() {
+            return checkpointLogVersion.get();
+        }
+
+        @Override
+        public void setCheckpointLogVersion(long version) {
+            checkpointLogVersion.set(version);
+        }
+
+        @Override
+        public long incrementAndGetCheckpointLogVersion() {
+            return checkpointLogVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * A command of roughly the size of a node command. The log is never read back, so there is no reader for it.
+     */
+    private static class FixedSizeCommand implements StorageCommand {
+        private final byte[] bytes = new byte[50];
+
+        @Override
+        public void serialize(WritableChannel channel) throws IOException {
+            channel.putInt(bytes.length);
+            channel.put(bytes, bytes.length);
+        }
+
+        @Override
+        public KernelVersion kernelVersion() {
+            return LATEST_KERNEL_VERSION;
+        }
+    }
+}
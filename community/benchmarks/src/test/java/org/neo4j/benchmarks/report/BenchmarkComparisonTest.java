@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.neo4j.benchmarks.report.BenchmarkComparison.Comparison;
+import org.neo4j.benchmarks.report.BenchmarkComparison.Result;
+import org.neo4j.benchmarks.report.BenchmarkComparison.Verdict;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@TestDirectoryExtension
+class BenchmarkComparisonTest {
+    @Inject
+    private TestDirectory directory;
+
+    @Test
+    void shouldReadBenchmarkNamesWithParameters() throws IOException {
+        Path file = directory.file("result.json");
+        Files.writeString(
+                file,
+                """
+                [
+                  {
+                    "benchmark": "org.neo4j.Bench.read",
+                    "mode": "thrpt",
+                    "params": {"pages": "1", "threads": "4"},
+                    "primaryMetric": {"score": 10.5, "scoreError": "NaN", "scoreUnit": "ops/ms"}
+                  },
+                  {
+                    "benchmark": "org.neo4j.Bench.hash",
+                    "mode": "avgt",
+                    "primaryMetric": {"score": 3.0, "scoreError": 0.25, "scoreUnit": "ns/op"}
+                  }
+                ]
+                """);
+
+        Map<String, Result> results = BenchmarkComparison.read(file);
+
+        assertThat(results)
+                .containsOnlyKeys("org.neo4j.Bench.read[pages=1,threads=4]", "org.neo4j.Bench.hash")
+                .containsEntry(
+                        "org.neo4j.Bench.read[pages=1,threads=4]",
+                        new Result("org.neo4j.Bench.read[pages=1,threads=4]", "thrpt", 10.5, 0, "ops/ms"))
+                .containsEntry("org.neo4j.Bench.hash", new Result("org.neo4j.Bench.hash", "avgt", 3.0, 0.25, "ns/op"));
+    }
+
+    @Test
+    void shouldTreatLowerThroughputAsRegression() {
+        assertThat(verdict("thrpt", 100, 80, 1)).isEqualTo(Verdict.REGRESSION);
+        assertThat(verdict("thrpt", 100, 120, 1)).isEqualTo(Verdict.IMPROVEMENT);
+    }
+
+    @Test
+    void shouldTreatHigherTimePerOperationAsRegression() {
+        assertThat(verdict("avgt", 100, 120, 1)).isEqualTo(Verdict.REGRESSION);
+        assertThat(verdict("avgt", 100, 80, 1)).isEqualTo(Verdict.IMPROVEMENT);
+    }
+
+    @Test
+    void shouldIgnoreChangesWithinThresholdOrScoreError() {
+        assertThat(verdict("thrpt", 100, 97, 1)).isEqualTo(Verdict.SAME);
+        assertThat(verdict("thrpt", 100, 80, 15)).isEqualTo(Verdict.SAME);
+    }
+
+    @Test
+    void shouldSkipBenchmarksMissingInCandidate() {
+        var baseline =
+                Map.of("a", new Result("a", "thrpt", 1, 0, "ops/s"), "b", new Result("b", "thrpt", 1, 0, "ops/s"));
+        var candidate = Map.of("a", new Result("a", "thrpt", 1, 0, "ops/s"));
+
+        List<Comparison> comparisons = BenchmarkComparison.compare(baseline, candidate, 5);
+
+        assertThat(comparisons)
+                .extracting(comparison -> comparison.baseline().name())
+                .containsExactly("a");
+    }
+
+    private static Verdict verdict(String mode, double before, double after, double error) {
+        var baseline = Map.of("x", new Result("x", mode, before, error, "unit"));
+        var candidate = Map.of("x", new Result("x", mode, after, error, "unit"));
+        return BenchmarkComparison.compare(baseline, candidate, 5).get(0).verdict();
+    }
+}
@@ -63,6 +63,7 @@ import org.neo4j.bolt.protocol.common.connector.connection.Connection;
 import org.neo4j.bolt.protocol.common.connector.executor.ExecutorServiceFactory;
 import org.neo4j.bolt.protocol.common.connector.executor.NettyThreadFactory;
 import org.neo4j.bolt.protocol.common.connector.executor.ThreadPoolExecutorServiceFactory;
+import org.neo4j.bolt.protocol.common.connector.executor.VirtualThreadExecutorServiceFactory;
 import org.neo4j.bolt.protocol.common.connector.listener.AuthenticationTimeoutConnectorListener;
 import org.neo4j.bolt.protocol.common.connector.listener.KeepAliveConnectorListener;
 import org.neo4j.bolt.protocol.common.connector.listener.MetricsConnectorListener;
@@ -189,19 +190,12 @@ public class BoltServer extends LifecycleAdapter {
                 .withProvider(new SeverSideRoutingHintProvider(config))
                 .build();
 
-        this.executorServiceFactory = new ThreadPoolExecutorServiceFactory(
-                config.get(BoltConnector.thread_pool_min_size),
-                config.get(BoltConnector.thread_pool_max_size),
-                true,
-                config.get(BoltConnector.thread_pool_keep_alive),
-                config.get(BoltConnectorInternalSettings.unsupported_thread_pool_queue_size),
-                this.jobScheduler.threadFactory(Group.BOLT_WORKER));
-
         this.routingService = routingService;
 
         this.sslPolicyLoader = dependencyResolver.resolveDependency(SslPolicyLoader.class);
         this.authConfigProvider = dependencyResolver.resolveDependency(AuthConfigProvider.class);
         this.log = logService.getInternalLog(BoltServer.class);
+        this.executorServiceFactory = createExecutorServiceFactory();
         var minProtocolVersion = Optional.ofNullable(config.get(BoltConnectorInternalSettings.min_protocol_version))
                 .map(version -> new ProtocolVersion(version.major(), version.minor()));
         var maxProtocolVersion = Optional.ofNullable(config.get(BoltConnectorInternalSettings.max_protocol_version))
@@ -220,6 +214,30 @@ public class BoltServer extends LifecycleAdapter {
                 .build();
     }
 
+    private ExecutorServiceFactory createExecutorServiceFactory() {
+        if (config.get(BoltConnectorInternalSettings.thread_pool_virtual_threads)) {
+            if (VirtualThreadExecutorServiceFactory.isSupported()) {
+                return new VirtualThreadExecutorServiceFactory(
+                        "neo4j." + Group.BOLT_WORKER.groupName() + "-",
+                        config.get(BoltConnectorInternalSettings.virtual_thread_pinning_threshold),
+                        logService.getInternalLogProvider());
+            }
+
+            log.warn(
+                    "Virtual threads have been enabled for Bolt connection workers but are not supported by Java %s, "
+                            + "using a thread pool instead",
+                    Runtime.version());
+        }
+
+        return new ThreadPoolExecutorServiceFactory(
+                config.get(BoltConnector.thread_pool_min_size),
+                config.get(BoltConnector.thread_pool_max_size),
+                true,
+                config.get(BoltConnector.thread_pool_keep_alive),
+                config.get(BoltConnectorInternalSettings.unsupported_thread_pool_queue_size),
+                this.jobScheduler.threadFactory(Group.BOLT_WORKER));
+    }
+
     private boolean isEnabled() {
         return config.get(BoltConnector.enabled);
     }
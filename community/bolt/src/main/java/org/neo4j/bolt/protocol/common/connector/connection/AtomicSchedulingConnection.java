@@ -26,13 +26,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.neo4j.bolt.BoltServer;
@@ -87,11 +88,11 @@ public class AtomicSchedulingConnection extends AbstractConnection {
     private final AtomicReference<Transaction> transaction = new AtomicReference<>();
 
     /**
-     * A flag to denote that the connection should create a new admission control token.
-     * This is set to false when a transaction receives it's first RUN currently, and is reset when the transaction
-     * finishes. This is likely to change, but as a solution it works.
+     * The admission control tokens of requests which have been submitted but have yet to complete processing. Each
+     * token is reported back to admission control once its request has been processed (or the connection closes) so
+     * that the concurrency limit accounts for the execution time of individual requests.
      */
-    private final AtomicBoolean connectionRequiresAdmissionControl = new AtomicBoolean(true);
+    private final Set<AdmissionControlToken> admissionControlTokens = ConcurrentHashMap.newKeySet();
 
     public AtomicSchedulingConnection(
             Connector connector,
@@ -121,10 +122,17 @@ public class AtomicSchedulingConnection extends AbstractConnection {
     @Override
     public void submit(RequestMessage message) {
         this.notifyListeners(listener -> listener.onRequestReceived(message));
-        if (this.admissionControl.enabled()
-                && message.requiresAdmissionControl()
-                && this.connectionRequiresAdmissionControl.compareAndSet(true, false)) {
-            this.submit(new ProcessJob(this, this.clock.millis(), message, this.admissionControl.requestToken()));
+        if (this.admissionControl.enabled() && message.requiresAdmissionControl()) {
+            var token = this.admissionControl.requestToken();
+            this.admissionControlTokens.add(token);
+
+            // the connection may have been closed while the token was being requested in which case the job will
+            // never be processed
+            if (this.isClosed()) {
+                this.completeAdmission(token);
+            }
+
+            this.submit(new ProcessJob(this, this.clock.millis(), message, token));
         } else {
             this.submit(new ProcessJob(this, this.clock.millis(), message, null));
         }
@@ -423,8 +431,6 @@ public class AtomicSchedulingConnection extends AbstractConnection {
 
     @Override
     public void closeTransaction() throws TransactionException {
-        this.connectionRequiresAdmissionControl.set(true);
-
         var tx = this.transaction.getAndSet(null);
         if (tx == null) {
             return;
@@ -433,6 +439,12 @@ public class AtomicSchedulingConnection extends AbstractConnection {
         tx.close();
     }
 
+    private void completeAdmission(AdmissionControlToken token) {
+        if (this.admissionControlTokens.remove(token)) {
+            this.admissionControl.requestCompleted(token);
+        }
+    }
+
     @Override
     public void interrupt() {
         // increment the interrupt timer internally in order to keep track on when we are supposed
@@ -583,6 +595,7 @@ public class AtomicSchedulingConnection extends AbstractConnection {
         } catch (TransactionException ex) {
             log.warn("[" + this.id + "] Failed to terminate transaction", ex);
         }
+        this.admissionControlTokens.forEach(this::completeAdmission);
 
         BoltProtocol protocol;
         do {
@@ -634,6 +647,10 @@ public class AtomicSchedulingConnection extends AbstractConnection {
                 // re-throw the exception to let the scheduler handle the connection closure (if applicable)
                 throw ex;
             } finally {
+                if (token != null) {
+                    conn.completeAdmission(token);
+                }
+
                 var processedForMillis = this.conn.clock.millis() - processingStartedAt;
                 conn.notifyListeners(listener -> listener.onRequestCompletedProcessing(message, processedForMillis));
                 conn.log.debug("[%s] Completed execution of %s (took %d ms)", conn.id, message, processedForMillis);
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.logging.InternalLogProvider;
+
+/**
+ * Creates an executor service which runs every job on a new virtual thread.
+ * <p>
+ * Connections which are idle, or idle within a transaction, do not occupy a platform thread while waiting for their
+ * next message, so large numbers of mostly idle connections can be served by a small number of carrier threads.
+ * Virtual threads which block while pinned to their carrier thread are reported via
+ * {@link VirtualThreadPinningMonitor}.
+ * <p>
+ * Virtual threads are accessed reflectively as they are only available as a final feature as of Java 21. Use
+ * {@link #isSupported()} to check whether the current runtime provides them.
+ */
+public class VirtualThreadExecutorServiceFactory implements ExecutorServiceFactory {
+    private static final int MINIMUM_FEATURE_VERSION = 21;
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        MethodHandle newThreadPerTaskExecutor = null;
+
+        if (Runtime.version().feature() >= MINIMUM_FEATURE_VERSION) {
+            try {
+                var lookup = MethodHandles.publicLookup();
+                var builder = Class.forName("java.lang.Thread$Builder");
+                var ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+                ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder));
+                name = lookup.findVirtual(
+                        ofVirtualBuilder, "name", MethodType.methodType(ofVirtualBuilder, String.class, long.class));
+                factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+                newThreadPerTaskExecutor = lookup.findStatic(
+                        Executors.class,
+                        "newThreadPerTaskExecutor",
+                        MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            } catch (ReflectiveOperationException ignore) {
+                ofVirtual = null;
+            }
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private final String threadNamePrefix;
+    private final Duration pinningThreshold;
+    private final InternalLogProvider logProvider;
+
+    /**
+     * @param threadNamePrefix prefix of the names of created threads, followed by a sequence number.
+     * @param pinningThreshold minimum duration of a pinning before it is reported or {@link Duration#ZERO} to disable
+     *                         pinning detection.
+     * @param logProvider      log provider to report pinned threads to.
+     */
+    public VirtualThreadExecutorServiceFactory(
+            String threadNamePrefix, Duration pinningThreshold, InternalLogProvider logProvider) {
+        this.threadNamePrefix = threadNamePrefix;
+        this.pinningThreshold = pinningThreshold;
+        this.logProvider = logProvider;
+    }
+
+    /**
+     * Checks whether the current runtime supports virtual threads.
+     *
+     * @return true if virtual threads are supported, false otherwise.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    @Override
+    public ExecutorService create() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException(String.format(
+                    "Virtual threads require Java %d or newer, current runtime is %s",
+                    MINIMUM_FEATURE_VERSION, Runtime.version()));
+        }
+
+        ExecutorService executor;
+        try {
+            var builder = NAME.invoke(OF_VIRTUAL.invoke(), this.threadNamePrefix, 0L);
+            executor = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke((ThreadFactory) FACTORY.invoke(builder));
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to create virtual thread executor", ex);
+        }
+
+        if (this.pinningThreshold.isZero()) {
+            return executor;
+        }
+
+        var monitor = new VirtualThreadPinningMonitor(this.pinningThreshold, this.logProvider);
+        monitor.start();
+        return new PinningMonitoredExecutorService(executor, monitor);
+    }
+
+    /**
+     * Stops pinning detection along with the executor it is attached to.
+     */
+    private static final class PinningMonitoredExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final VirtualThreadPinningMonitor monitor;
+
+        private PinningMonitoredExecutorService(ExecutorService delegate, VirtualThreadPinningMonitor monitor) {
+            this.delegate = delegate;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.delegate.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            this.delegate.shutdown();
+            this.monitor.close();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            var remaining = this.delegate.shutdownNow();
+            this.monitor.close();
+            return remaining;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return this.delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
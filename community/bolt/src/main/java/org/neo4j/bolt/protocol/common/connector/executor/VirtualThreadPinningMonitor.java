@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.util.VisibleForTesting;
+
+/**
+ * Detects virtual threads which stay pinned to their carrier thread, e.g. because they block on a page fault or a lock
+ * while holding a monitor, by subscribing to the {@code jdk.VirtualThreadPinned} flight recorder event.
+ * <p>
+ * Every pinning is accounted for, while only the first occurrence of every distinct call site is logged in order to
+ * keep the log readable when a single hot path keeps pinning carriers.
+ */
+final class VirtualThreadPinningMonitor implements AutoCloseable {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @VisibleForTesting
+    static final int MAX_REPORTED_SITES = 128;
+
+    private static final int MAX_SITE_FRAMES = 16;
+
+    private final Duration threshold;
+    private final InternalLog log;
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    VirtualThreadPinningMonitor(Duration threshold, InternalLogProvider logProvider) {
+        this.threshold = threshold;
+        this.log = logProvider.getLog(VirtualThreadPinningMonitor.class);
+    }
+
+    synchronized void start() {
+        this.stream = new RecordingStream();
+        this.stream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+        this.stream.onEvent(PINNED_EVENT, this::onEvent);
+        this.stream.startAsync();
+    }
+
+    long pinnedCount() {
+        return this.pinnedCount.sum();
+    }
+
+    Duration pinnedTime() {
+        return Duration.ofNanos(this.pinnedNanos.sum());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.stream == null) {
+            return;
+        }
+
+        this.stream.close();
+        this.stream = null;
+
+        var count = pinnedCount();
+        if (count > 0) {
+            log.info(
+                    "Bolt virtual threads were pinned to their carrier thread %d times for a total of %s",
+                    count, pinnedTime());
+        }
+    }
+
+    private void onEvent(RecordedEvent event) {
+        pinned(event.getDuration(), frames(event.getStackTrace()));
+    }
+
+    @VisibleForTesting
+    void pinned(Duration duration, List<String> frames) {
+        this.pinnedCount.increment();
+        this.pinnedNanos.add(duration.toNanos());
+
+        var site = String.join("\n\tat ", frames);
+        if (this.reportedSites.size() < MAX_REPORTED_SITES && this.reportedSites.add(site)) {
+            log.warn(
+                    "Bolt virtual thread was pinned to its carrier thread for %s, consider avoiding blocking "
+                            + "operations while holding a monitor at:\n\tat %s",
+                    duration, site);
+        }
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of("<unknown>");
+        }
+
+        return stackTrace.getFrames().stream()
+                .limit(MAX_SITE_FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.toList());
+    }
+
+    private static String frame(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
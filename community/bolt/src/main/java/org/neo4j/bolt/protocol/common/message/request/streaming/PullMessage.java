@@ -26,6 +26,11 @@ public final class PullMessage extends AbstractStreamingMessage {
         super(n, statementId);
     }
 
+    @Override
+    public boolean requiresAdmissionControl() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "PullMessage{" + super.toString() + "}";
@@ -68,6 +68,7 @@ import static org.neo4j.packstream.io.TypeMarker.requireEncodableLength;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCounted;
 import java.nio.ByteBuffer;
@@ -418,7 +419,7 @@ public final class PackstreamBuf implements ReferenceCounted {
         }
 
         if (payload instanceof byte[] b) {
-            return this.writeBytes(Unpooled.wrappedBuffer(b));
+            return this.writeBytes(b);
         }
         if (payload instanceof ByteBuffer b) {
             return this.writeBytes(Unpooled.wrappedBuffer(b));
@@ -831,6 +832,18 @@ public final class PackstreamBuf implements ReferenceCounted {
         return this;
     }
 
+    /**
+     * Writes a byte array of arbitrary length to this buffer.
+     *
+     * @param bytes an arbitrary payload.
+     * @return a reference to this buffer.
+     */
+    public PackstreamBuf writeBytes(byte[] bytes) {
+        this.writeMarker(BYTES_TYPES, bytes.length);
+        this.delegate.writeBytes(bytes);
+        return this;
+    }
+
     /**
      * Reads a byte array of arbitrary length from this buffer.
      * <p>
@@ -1003,6 +1016,8 @@ public final class PackstreamBuf implements ReferenceCounted {
 
     /**
      * Writes a string value of arbitrary length to this buffer.
+     * <p>
+     * The string is encoded straight into this buffer without an intermediate array.
      *
      * @param payload a string value.
      * @return a reference to this buffer.
@@ -1012,12 +1027,9 @@ public final class PackstreamBuf implements ReferenceCounted {
             throw new NullPointerException("payload cannot be null");
         }
 
-        var heap = payload.getBytes(STRING_CHARSET);
-        return this.writeString(payload.getBytes(STRING_CHARSET));
-    }
-
-    private PackstreamBuf writeString(byte[] payload) {
-        return this.writeString(payload, 0, payload.length);
+        this.writeMarker(STRING_TYPES, ByteBufUtil.utf8Bytes(payload));
+        ByteBufUtil.writeUtf8(this.delegate, payload);
+        return this;
     }
 
     public PackstreamBuf writeString(byte[] payload, int offset, int length) {
@@ -1054,20 +1066,7 @@ public final class PackstreamBuf implements ReferenceCounted {
             throw new NullPointerException("payload cannot be null");
         }
 
-        return this.writeTinyString(payload.getBytes(STRING_CHARSET));
-    }
-
-    /**
-     * Writes a 4-bit prefixed string value of arbitrary length to this buffer.
-     *
-     * @param payload an encoded string value.
-     * @return a reference to this buffer.
-     * @throws IllegalArgumentException when the value exceeds the bounds of this type.
-     */
-    private PackstreamBuf writeTinyString(byte[] payload) {
-        this.writeMarker(TINY_STRING, payload.length);
-        this.delegate.writeBytes(payload);
-        return this;
+        return this.writeStringPayload(TINY_STRING, payload);
     }
 
     /**
@@ -1097,20 +1096,7 @@ public final class PackstreamBuf implements ReferenceCounted {
             throw new NullPointerException("payload cannot be null");
         }
 
-        return this.writeString8(payload.getBytes(STRING_CHARSET));
-    }
-
-    /**
-     * Writes an 8-bit prefixed string value of arbitrary length to this buffer.
-     *
-     * @param payload an encoded string value.
-     * @return a reference to this buffer.
-     * @throws IllegalArgumentException when the value exceeds the bounds of this type.
-     */
-    private PackstreamBuf writeString8(byte[] payload) {
-        this.writeMarker(STRING8, payload.length);
-        this.delegate.writeBytes(payload);
-        return this;
+        return this.writeStringPayload(STRING8, payload);
     }
 
     /**
@@ -1140,20 +1126,7 @@ public final class PackstreamBuf implements ReferenceCounted {
             throw new NullPointerException("payload cannot be null");
         }
 
-        return this.writeString16(payload.getBytes(STRING_CHARSET));
-    }
-
-    /**
-     * Writes a 16-bit prefixed string value of arbitrary length to this buffer.
-     *
-     * @param payload an encoded string value.
-     * @return a reference to this buffer.
-     * @throws IllegalArgumentException when the value exceeds the bounds of this type.
-     */
-    private PackstreamBuf writeString16(byte[] payload) {
-        this.writeMarker(STRING16, payload.length);
-        this.delegate.writeBytes(payload);
-        return this;
+        return this.writeStringPayload(STRING16, payload);
     }
 
     /**
@@ -1183,19 +1156,20 @@ public final class PackstreamBuf implements ReferenceCounted {
             throw new NullPointerException("payload cannot be null");
         }
 
-        return this.writeString32(payload.getBytes(STRING_CHARSET));
+        return this.writeStringPayload(STRING32, payload);
     }
 
     /**
-     * Writes a 32-bit prefixed string value of arbitrary length to this buffer.
+     * Encodes a string value directly into this buffer following a given marker.
      *
-     * @param payload an encoded string value.
+     * @param marker the desired string type marker.
+     * @param payload a string value.
      * @return a reference to this buffer.
-     * @throws IllegalArgumentException when the value exceeds the bounds of this type.
+     * @throws IllegalArgumentException when the value exceeds the bounds of the given type.
      */
-    private PackstreamBuf writeString32(byte[] payload) {
-        this.writeMarker(STRING32, payload.length);
-        this.delegate.writeBytes(payload);
+    private PackstreamBuf writeStringPayload(TypeMarker marker, String payload) {
+        this.writeMarker(marker, ByteBufUtil.utf8Bytes(payload));
+        ByteBufUtil.writeUtf8(this.delegate, payload);
         return this;
     }
 
@@ -19,7 +19,6 @@
  */
 package org.neo4j.packstream.io.value;
 
-import io.netty.buffer.Unpooled;
 import java.util.List;
 import org.neo4j.packstream.io.PackstreamBuf;
 import org.neo4j.values.AnyValueWriter;
@@ -100,7 +99,7 @@ public abstract class PackstreamValueWriter implements AnyValueWriter<RuntimeExc
 
     @Override
     public void writeByteArray(byte[] value) {
-        this.buf.writeBytes(Unpooled.wrappedBuffer(value));
+        this.buf.writeBytes(value);
     }
 
     @Override
@@ -1194,4 +1194,64 @@ class AtomicSchedulingConnectionTest {
 
         Mockito.verify(this.admissionControl, Mockito.never()).requestToken();
     }
+
+    @Test
+    void shouldRequestATokenForEachMessage() {
+        Mockito.doReturn(true).when(this.admissionControl).enabled();
+        Mockito.doReturn(Mockito.mock(AdmissionControlToken.class))
+                .when(this.admissionControl)
+                .requestToken();
+
+        var message = Mockito.mock(RequestMessage.class);
+        Mockito.doReturn(true).when(message).requiresAdmissionControl();
+
+        this.connection.submit(message);
+        this.connection.submit(message);
+
+        Mockito.verify(this.admissionControl, Mockito.times(2)).requestToken();
+    }
+
+    @Test
+    void shouldCompleteTokenWhenMessageHasBeenProcessed() {
+        var token = Mockito.mock(AdmissionControlToken.class);
+        Mockito.doReturn(true).when(this.admissionControl).enabled();
+        Mockito.doReturn(token).when(this.admissionControl).requestToken();
+
+        var message = Mockito.mock(RequestMessage.class);
+        Mockito.doReturn(true).when(message).requiresAdmissionControl();
+
+        this.selectProtocol();
+
+        this.connection.submit(message);
+        Mockito.verify(this.admissionControl, Mockito.never()).requestCompleted(token);
+
+        var runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(this.executorService).submit(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+
+        Mockito.verify(this.admissionControl, Mockito.times(1)).requestCompleted(token);
+    }
+
+    @Test
+    void shouldCompleteTokenOfPendingMessageWhenConnectionIsClosed() {
+        var token = Mockito.mock(AdmissionControlToken.class);
+        Mockito.doReturn(true).when(this.admissionControl).enabled();
+        Mockito.doReturn(token).when(this.admissionControl).requestToken();
+        Mockito.doReturn(Mockito.mock(ChannelFuture.class)).when(this.channel).close();
+
+        var message = Mockito.mock(RequestMessage.class);
+        Mockito.doReturn(true).when(message).requiresAdmissionControl();
+
+        this.selectProtocol();
+
+        this.connection.submit(message);
+        this.connection.close();
+
+        var runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(this.executorService).submit(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+
+        ConnectionHandleAssertions.assertThat(this.connection).isClosed();
+        Mockito.verify(this.admissionControl, Mockito.times(1)).requestCompleted(token);
+    }
 }
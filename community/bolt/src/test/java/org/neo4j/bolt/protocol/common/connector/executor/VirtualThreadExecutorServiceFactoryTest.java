@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.neo4j.logging.NullLogProvider;
+
+class VirtualThreadExecutorServiceFactoryTest {
+
+    @Test
+    void shouldRunJobsOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreadExecutorServiceFactory.isSupported());
+
+        var factory = new VirtualThreadExecutorServiceFactory(
+                "bolt-worker-", Duration.ofMillis(20), NullLogProvider.getInstance());
+        var executor = factory.create();
+        try {
+            var thread = CompletableFuture.supplyAsync(Thread::currentThread, executor)
+                    .get(1, TimeUnit.MINUTES);
+
+            assertThat(thread.getName()).startsWith("bolt-worker-");
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+
+    @Test
+    void shouldRejectCreationOnUnsupportedRuntime() {
+        assumeFalse(VirtualThreadExecutorServiceFactory.isSupported());
+
+        var factory = new VirtualThreadExecutorServiceFactory(
+                "bolt-worker-", Duration.ofMillis(20), NullLogProvider.getInstance());
+
+        assertThatThrownBy(factory::create)
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageStartingWith("Virtual threads require Java 21 or newer");
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.protocol.common.connector.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.logging.LogAssertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.logging.AssertableLogProvider.Level;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void shouldAccountForEveryPinning() {
+        var monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20), new AssertableLogProvider());
+
+        monitor.pinned(Duration.ofMillis(25), List.of("org.neo4j.A.a:1"));
+        monitor.pinned(Duration.ofMillis(30), List.of("org.neo4j.A.a:1"));
+        monitor.pinned(Duration.ofMillis(45), List.of("org.neo4j.B.b:2"));
+
+        assertThat(monitor.pinnedCount()).isEqualTo(3);
+        assertThat(monitor.pinnedTime()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void shouldReportEveryCallSiteOnce() {
+        var logging = new AssertableLogProvider();
+        var monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20), logging);
+
+        monitor.pinned(Duration.ofMillis(25), List.of("org.neo4j.A.a:1", "org.neo4j.Caller.call:10"));
+        monitor.pinned(Duration.ofMillis(30), List.of("org.neo4j.A.a:1", "org.neo4j.Caller.call:10"));
+        monitor.pinned(Duration.ofMillis(45), List.of("org.neo4j.B.b:2"));
+
+        assertThat(logging)
+                .forLevel(Level.WARN)
+                .forClass(VirtualThreadPinningMonitor.class)
+                .containsMessageWithArgumentsContaining(
+                        "Bolt virtual thread was pinned to its carrier thread for %s, consider avoiding blocking "
+                                + "operations while holding a monitor at:\n\tat %s",
+                        Duration.ofMillis(25), "org.neo4j.A.a:1\n\tat org.neo4j.Caller.call:10")
+                .containsMessageWithArgumentsContaining(
+                        "Bolt virtual thread was pinned to its carrier thread for %s, consider avoiding blocking "
+                                + "operations while holding a monitor at:\n\tat %s",
+                        Duration.ofMillis(45), "org.neo4j.B.b:2")
+                .doesNotContainMessageWithArguments(
+                        "Bolt virtual thread was pinned to its carrier thread for %s, consider avoiding blocking "
+                                + "operations while holding a monitor at:\n\tat %s",
+                        Duration.ofMillis(30), "org.neo4j.A.a:1\n\tat org.neo4j.Caller.call:10");
+    }
+
+    @Test
+    void shouldLimitNumberOfReportedCallSites() {
+        var logging = new AssertableLogProvider();
+        var monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20), logging);
+
+        for (var i = 0; i < VirtualThreadPinningMonitor.MAX_REPORTED_SITES + 10; ++i) {
+            monitor.pinned(Duration.ofMillis(25), List.of("org.neo4j.A.a:" + i));
+        }
+
+        assertThat(monitor.pinnedCount()).isEqualTo(VirtualThreadPinningMonitor.MAX_REPORTED_SITES + 10);
+        assertThat(logging)
+                .forLevel(Level.WARN)
+                .doesNotContainMessageWithArguments(
+                        "Bolt virtual thread was pinned to its carrier thread for %s, consider avoiding blocking "
+                                + "operations while holding a monitor at:\n\tat %s",
+                        Duration.ofMillis(25), "org.neo4j.A.a:" + VirtualThreadPinningMonitor.MAX_REPORTED_SITES);
+    }
+
+    @Test
+    void shouldSummarizePinningOnClose() {
+        var logging = new AssertableLogProvider();
+        var monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20), logging);
+        monitor.start();
+
+        monitor.pinned(Duration.ofMillis(25), List.of("org.neo4j.A.a:1"));
+        monitor.close();
+
+        assertThat(logging)
+                .forLevel(Level.INFO)
+                .containsMessageWithArguments(
+                        "Bolt virtual threads were pinned to their carrier thread %d times for a total of %s",
+                        1L, Duration.ofMillis(25));
+    }
+}
@@ -573,6 +573,30 @@ public class PackstreamBufWriteTest {
         assertThat(ex).hasMessage("payload cannot be null");
     }
 
+    @TestFactory
+    Stream<DynamicTest> shouldWriteEncodedLengthOfMultiByteStrings() {
+        return Stream.of("Ünïcødé", "日本語のテキスト", "emoji 😀", "unpaired \uD800 surrogate", "ö".repeat(200))
+                .map(payload -> dynamicTest(payload, () -> {
+                    var expected = payload.getBytes(Type.STRING_CHARSET);
+
+                    var buf = prepareBuffer(b -> b.writeString(payload));
+
+                    assertThat(buf).isEqualTo(prepareBuffer(b -> b.writeString(expected, 0, expected.length)));
+                }));
+    }
+
+    @Test
+    void shouldWriteByteArrays() {
+        var payload = new byte[(int) LengthPrefix.UINT8.getMaxValue() + 1];
+        for (var i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+
+        var buf = prepareBuffer(b -> b.writeBytes(payload));
+
+        assertThat(buf).isEqualTo(prepareBuffer(b -> b.writeBytes(Unpooled.wrappedBuffer(payload))));
+    }
+
     @TestFactory
     Stream<DynamicTest> shouldWriteTinyString() {
         return IntStream.rangeClosed(0, (int) LengthPrefix.NIBBLE.getMaxValue())
@@ -32,6 +32,7 @@ import org.neo4j.scheduler.JobScheduler;
 
 public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnPageCache> {
     CountDownLatch backgroundFlushLatch;
+    int evictionPartitions = 1;
     private MemoryAllocator allocator;
 
     @Override
@@ -57,7 +58,8 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
         MuninnPageCache.Configuration configuration = MuninnPageCache.config(allocator)
                 .pageCacheTracer(tracer)
                 .bufferFactory(selectBufferFactory(bufferFactory, memoryTracker))
-                .reservedPageBytes(reservedBytes);
+                .reservedPageBytes(reservedBytes)
+                .evictionPartitions(evictionPartitions);
         return new MuninnPageCache(swapperFactory, jobScheduler, configuration);
     }
 
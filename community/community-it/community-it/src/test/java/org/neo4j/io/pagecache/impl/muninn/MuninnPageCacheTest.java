@@ -39,9 +39,12 @@ import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buff
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.CONTEXT_VERSION_UPDATES;
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.MULTI_VERSIONED;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.SCAN_RESISTANT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_LOAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SEQUENTIAL_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
@@ -272,6 +275,159 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void smallPageCacheUsesSingleEvictionPartition() {
+        fixture.evictionPartitions = 4;
+        try (var pageCache = createPageCache(fs, 1024, new DefaultPageCacheTracer())) {
+            assertEquals(1, pageCache.getEvictionPartitions());
+        }
+    }
+
+    @Test
+    void grabAndReleasePagesOverAllEvictionPartitions() throws IOException {
+        int maxPages = 4096;
+        fixture.evictionPartitions = 4;
+        try (var pageCache = createPageCache(fs, maxPages, new DefaultPageCacheTracer())) {
+            assertEquals(4, pageCache.getEvictionPartitions());
+            assertEquals(maxPages, pageCache.freePages());
+
+            var grabbedPages = LongLists.mutable.empty();
+            for (int i = 0; i < maxPages; i++) {
+                grabbedPages.add(pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+            }
+            assertEquals(0, pageCache.freePages());
+            assertEquals(maxPages, grabbedPages.distinct().size());
+
+            grabbedPages.forEach(pageRef -> pageCache.addFreePageToFreelist(pageRef, EvictionRunEvent.NULL));
+            assertEquals(maxPages, pageCache.freePages());
+            assertEquals(-1, pageCache.tryGetNumberOfPagesToEvict(maxPages));
+        }
+    }
+
+    @Test
+    void evictPagesWithMultipleEvictionPartitions() throws IOException {
+        int maxPages = 4096;
+        int filePages = maxPages * 3;
+        fixture.evictionPartitions = 4;
+        try (var pageCache = createPageCache(fs, maxPages, new DefaultPageCacheTracer());
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+            try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                    long value;
+                    do {
+                        value = cursor.getLong(0);
+                    } while (cursor.shouldRetry());
+                    assertEquals(i, value);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sequentialScanDoesNotEvictWorkingSet() throws IOException {
+        int maxPages = 1024;
+        int hotPages = 100;
+        int filePages = maxPages * 5;
+        try (var pageCache = createPageCache(fs, maxPages, new DefaultPageCacheTracer());
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+            for (int round = 0; round < 4; round++) {
+                try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                    for (int i = 0; i < hotPages; i++) {
+                        assertTrue(cursor.next(i));
+                    }
+                }
+            }
+
+            try (var cursor = pagedFile.io(hotPages, PF_SHARED_READ_LOCK | PF_SEQUENTIAL_SCAN, NULL_CONTEXT)) {
+                for (int i = hotPages; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                    long value;
+                    do {
+                        value = cursor.getLong(0);
+                    } while (cursor.shouldRetry());
+                    assertEquals(i, value);
+                }
+            }
+
+            var loadedPages = LongLists.mutable.empty();
+            pagedFile.visitLoadedPages(loadedPages::add);
+            for (int i = 0; i < hotPages; i++) {
+                assertTrue(loadedPages.contains(i), "Hot page " + i + " was evicted by the scan");
+            }
+        }
+    }
+
+    @Test
+    void repeatedlyScannedPagesArePromoted() throws IOException {
+        int maxPages = 1024;
+        int hotPages = 100;
+        int filePages = maxPages * 5;
+        try (var pageCache = createPageCache(fs, maxPages, new DefaultPageCacheTracer());
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+            // The first scan faults the hot pages in on probation, the following ones find them loaded
+            for (int round = 0; round < 4; round++) {
+                try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_SEQUENTIAL_SCAN, NULL_CONTEXT)) {
+                    for (int i = 0; i < hotPages; i++) {
+                        assertTrue(cursor.next(i));
+                    }
+                }
+            }
+
+            try (var cursor = pagedFile.io(hotPages, PF_SHARED_READ_LOCK | PF_SEQUENTIAL_SCAN, NULL_CONTEXT)) {
+                for (int i = hotPages; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                }
+            }
+
+            var loadedPages = LongLists.mutable.empty();
+            pagedFile.visitLoadedPages(loadedPages::add);
+            for (int i = 0; i < hotPages; i++) {
+                assertTrue(loadedPages.contains(i), "Repeatedly scanned page " + i + " was evicted by the scan");
+            }
+        }
+    }
+
+    @Test
+    void scanResistantMappingPutsReadAheadPagesOnProbation() throws IOException {
+        int maxPages = 1024;
+        try (var pageCache = createPageCache(fs, maxPages, new DefaultPageCacheTracer())) {
+            Path file = file("a");
+            try (var pagedFile = map(pageCache, file, pageCache.pageSize());
+                    var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < 10; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+            try (var pagedFile = map(pageCache, file, pageCache.pageSize(), immutable.of(SCAN_RESISTANT));
+                    var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, NULL_CONTEXT)) {
+                for (int i = 0; i < 10; i++) {
+                    assertTrue(cursor.next());
+                }
+            }
+            assertEquals(10, pageCache.probationaryPages());
+        }
+    }
+
     @Test
     void countPagesToEvictOnEmptyPageCache() {
         try (var pageCache = createPageCache(fs, 1024, new DefaultPageCacheTracer())) {
@@ -169,6 +169,21 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         return delegate.prefetchedPagesWithFaults();
     }
 
+    @Override
+    public long warmupPagesToLoad() {
+        return delegate.warmupPagesToLoad();
+    }
+
+    @Override
+    public long warmupPagesLoaded() {
+        return delegate.warmupPagesLoaded();
+    }
+
+    @Override
+    public boolean isWarm() {
+        return delegate.isWarm();
+    }
+
     @Override
     public long snapshotsLoaded() {
         return delegate.snapshotsLoaded();
@@ -299,6 +314,21 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.pagesPrefetchedWithFaults(count);
     }
 
+    @Override
+    public void warmupStarted(long pagesToLoad) {
+        delegate.warmupStarted(pagesToLoad);
+    }
+
+    @Override
+    public void warmupPagesLoaded(long count) {
+        delegate.warmupPagesLoaded(count);
+    }
+
+    @Override
+    public void warmupCompleted() {
+        delegate.warmupCompleted();
+    }
+
     @Override
     public void filesTruncated(long truncatedFiles) {
         delegate.filesTruncated(truncatedFiles);
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.plandescription.Arguments.Runtime
+import org.neo4j.graphdb.Label
+import org.neo4j.graphdb.config.Setting
+
+class ParallelRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
+
+  override def databaseConfig(): Map[Setting[_], Object] = super.databaseConfig() ++ Map(
+    GraphDatabaseSettings.cypher_worker_limit -> Integer.valueOf(4)
+  )
+
+  private val aggregations = Seq(
+    "count(*)",
+    "count(n.v)",
+    "sum(n.v)",
+    "min(n.v)",
+    "max(n.v)",
+    "avg(n.v)",
+    "collect(n.v)"
+  )
+
+  aggregations.foreach { aggregation =>
+    test(s"$aggregation without grouping should equal slotted") {
+      givenNodes()
+      assertSameAsSlotted(s"MATCH (n:L) RETURN $aggregation AS a")
+    }
+
+    test(s"$aggregation with grouping should equal slotted") {
+      givenNodes()
+      assertSameAsSlotted(s"MATCH (n:L) RETURN n.k AS k, $aggregation AS a")
+    }
+
+    test(s"$aggregation over all nodes should equal slotted") {
+      givenNodes()
+      assertSameAsSlotted(s"MATCH (n) WHERE n.v > 100 RETURN n.k AS k, $aggregation AS a")
+    }
+
+    test(s"$aggregation over a label that does not exist should equal slotted") {
+      givenNodes()
+      assertSameAsSlotted(s"MATCH (n:DoesNotExist) RETURN $aggregation AS a")
+      assertSameAsSlotted(s"MATCH (n:DoesNotExist) RETURN n.k AS k, $aggregation AS a")
+    }
+
+    test(s"$aggregation over an empty scan should equal slotted") {
+      assertSameAsSlotted(s"MATCH (n) RETURN $aggregation AS a")
+      assertSameAsSlotted(s"MATCH (n) RETURN n.k AS k, $aggregation AS a")
+    }
+  }
+
+  test("should run supported aggregations in the parallel runtime") {
+    givenNodes()
+
+    val result = execute("CYPHER runtime=parallel EXPLAIN MATCH (n:L) RETURN n.k AS k, avg(n.v) AS a")
+
+    result.executionPlanDescription().arguments should contain(Runtime("PARALLEL"))
+  }
+
+  test("should see changes of the transaction") {
+    givenNodes()
+
+    val (parallel, slotted) = graph.withTx { tx =>
+      tx.createNode(Label.label("L")).setProperty("v", 10000)
+      executeOfficial(tx, "MATCH (n:L) WHERE n.v <= 10 DELETE n").close()
+      val query = "MATCH (n:L) RETURN count(*) AS c, sum(n.v) AS s, max(n.v) AS m"
+      (
+        executeOfficial(tx, s"CYPHER runtime=parallel $query").next(),
+        executeOfficial(tx, s"CYPHER runtime=slotted $query").next()
+      )
+    }
+
+    parallel should equal(slotted)
+    parallel.get("c") should equal(991L)
+    parallel.get("m") should equal(10000L)
+  }
+
+  // 1000 nodes with label L in 10 groups, plus 1000 nodes without label, some of them without values
+  private def givenNodes(): Unit = {
+    execute("UNWIND range(1, 1000) AS i CREATE (:L {k: i % 10, v: i})")
+    execute("UNWIND range(1, 1000) AS i CREATE ({k: i % 7, v: CASE WHEN i % 3 = 0 THEN null ELSE i END})")
+  }
+
+  private def assertSameAsSlotted(query: String): Unit = {
+    val parallel = execute(s"CYPHER runtime=parallel $query")
+    val slotted = execute(s"CYPHER runtime=slotted $query")
+
+    parallel.executionPlanDescription().arguments should contain(Runtime("PARALLEL"))
+    normalized(parallel.toList) should equal(normalized(slotted.toList))
+  }
+
+  // Rows in no particular order, collected lists in no particular order and averages rounded
+  private def normalized(rows: List[Map[String, AnyRef]]): Set[Map[String, Any]] =
+    rows.map(_.map {
+      case (column, list: Seq[_]) =>
+        column -> list.map(_.asInstanceOf[Number].longValue()).sorted
+      case (column, double: java.lang.Double) =>
+        column -> BigDecimal(double).setScale(6, BigDecimal.RoundingMode.HALF_UP)
+      case other => other
+    }).toSet
+}
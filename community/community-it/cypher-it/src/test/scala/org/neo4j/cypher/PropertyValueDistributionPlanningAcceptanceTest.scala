@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.graphdb.config.Setting
+
+class PropertyValueDistributionPlanningAcceptanceTest extends ExecutionEngineFunSuite {
+
+  override def databaseConfig(): Map[Setting[_], Object] = super.databaseConfig() ++ Map(
+    GraphDatabaseInternalSettings.planning_parameter_value_selectivity_enabled -> java.lang.Boolean.TRUE
+  )
+
+  test("equality on an auto extracted literal should use the value distribution") {
+    givenSkewedAges()
+
+    val common = estimatedRows("MATCH (p:Person) WHERE p.age = 1 RETURN p")
+    val rare = estimatedRows("CYPHER replan=force MATCH (p:Person) WHERE p.age = 50 RETURN p")
+
+    common should be > 500.0
+    rare should be < 50.0
+  }
+
+  test("equality on a parameter should use the value distribution") {
+    givenSkewedAges()
+
+    val common = estimatedRows("MATCH (p:Person) WHERE p.age = $age RETURN p", "age" -> 1)
+    val rare = estimatedRows("CYPHER replan=force MATCH (p:Person) WHERE p.age = $age RETURN p", "age" -> 50)
+
+    common should be > 500.0
+    rare should be < 50.0
+  }
+
+  test("range on an auto extracted literal should use the value distribution") {
+    givenSkewedAges()
+
+    val common = estimatedRows("MATCH (p:Person) WHERE p.age < 2 RETURN p")
+    val rare = estimatedRows("CYPHER replan=force MATCH (p:Person) WHERE p.age > 90 RETURN p")
+
+    common should be > 500.0
+    rare should be < 50.0
+  }
+
+  // 900 people of age 1 and one person for each age from 2 to 101
+  private def givenSkewedAges(): Unit = {
+    execute("UNWIND range(1, 900) AS i CREATE (:Person {age: 1})")
+    execute("UNWIND range(2, 101) AS age CREATE (:Person {age: age})")
+    graph.createNodeIndex("Person", "age")
+    resampleIndexes()
+  }
+
+  private def estimatedRows(query: String, params: (String, Any)*): Double =
+    graph.withTx { tx =>
+      val result = executeOfficial(tx, s"EXPLAIN $query", params: _*)
+      result.getExecutionPlanDescription.getArguments.get("EstimatedRows").asInstanceOf[Double]
+    }
+}
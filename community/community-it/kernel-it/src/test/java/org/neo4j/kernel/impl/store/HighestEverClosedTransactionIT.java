@@ -32,6 +32,7 @@ import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.transaction.log.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileCreateEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileFlushEvent;
+import org.neo4j.kernel.impl.transaction.log.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
 import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
@@ -332,6 +333,16 @@ public class HighestEverClosedTransactionIT {
                 return 0;
             }
 
+            @Override
+            public PowerOfTwoHistogram groupCommitSizes() {
+                return new PowerOfTwoHistogram();
+            }
+
+            @Override
+            public PowerOfTwoHistogram logForceTimeMicros() {
+                return new PowerOfTwoHistogram();
+            }
+
             @Override
             public LogCheckPointEvent beginCheckPoint() {
                 return LogCheckPointEvent.NULL;
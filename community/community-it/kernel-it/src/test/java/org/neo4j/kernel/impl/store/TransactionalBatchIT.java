@@ -34,6 +34,7 @@ import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.transaction.log.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileCreateEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileFlushEvent;
+import org.neo4j.kernel.impl.transaction.log.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
 import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
@@ -365,6 +366,16 @@ public class TransactionalBatchIT {
                 return 0;
             }
 
+            @Override
+            public PowerOfTwoHistogram groupCommitSizes() {
+                return new PowerOfTwoHistogram();
+            }
+
+            @Override
+            public PowerOfTwoHistogram logForceTimeMicros() {
+                return new PowerOfTwoHistogram();
+            }
+
             @Override
             public LogCheckPointEvent beginCheckPoint() {
                 return LogCheckPointEvent.NULL;
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.queryapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.queryapi.QueryApiTestUtil.setupLogging;
+import static org.neo4j.server.queryapi.response.TypedJsonDriverAutoCommitResultWriter.TYPED_JSON_MIME_TYPE_VALUE;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.BOOKMARKS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.DATA_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.ERRORS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.VALUES_KEY;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.ws.rs.core.MediaType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.neo4j.configuration.connectors.BoltConnector;
+import org.neo4j.configuration.connectors.BoltConnectorInternalSettings;
+import org.neo4j.configuration.connectors.ConnectorPortRegister;
+import org.neo4j.configuration.connectors.ConnectorType;
+import org.neo4j.configuration.connectors.HttpConnector;
+import org.neo4j.configuration.helpers.SocketAddress;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.server.configuration.ServerSettings;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+
+/**
+ * Runs the same auto-commit requests with and without {@link ServerSettings#queryapi_direct_execution}, the responses
+ * must not depend on whether the query went through the driver or not.
+ */
+class QueryResourceDirectExecutionIT {
+
+    private static DatabaseManagementService driverDbms;
+    private static DatabaseManagementService directDbms;
+    private static HttpClient client;
+
+    private static String driverQueryEndpoint;
+    private static String directQueryEndpoint;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern ELEMENT_ID = Pattern.compile("\"\\d+:[0-9a-f-]+:\\d+\"");
+
+    @BeforeAll
+    static void beforeAll() {
+        setupLogging();
+        driverDbms = startDbms(false);
+        directDbms = startDbms(true);
+        driverQueryEndpoint = queryEndpoint(driverDbms);
+        directQueryEndpoint = queryEndpoint(directDbms);
+        client = HttpClient.newBuilder().build();
+    }
+
+    @AfterAll
+    static void teardown() {
+        driverDbms.shutdown();
+        directDbms.shutdown();
+    }
+
+    @ParameterizedTest
+    @MethodSource("statements")
+    void shouldProduceSameResponseAsDriver(String mediaType, String statement)
+            throws IOException, InterruptedException {
+        var body = "{\"statement\": \"" + statement + "\", \"includeCounters\": true}";
+
+        var driverResponse = send(driverQueryEndpoint, mediaType, body);
+        var directResponse = send(directQueryEndpoint, mediaType, body);
+
+        assertThat(directResponse.statusCode()).isEqualTo(driverResponse.statusCode());
+        assertThat(comparable(directResponse)).isEqualTo(comparable(driverResponse));
+    }
+
+    @Test
+    void shouldConvertParameters() throws IOException, InterruptedException {
+        var body =
+                """
+                {"statement": "RETURN $duration AS duration, $point AS point, $list AS list",
+                 "parameters": {
+                   "duration": {"$type": "Duration", "_value": "P14DT16H12M"},
+                   "point": {"$type": "Point", "_value": "SRID=4326;POINT (1.2 3.4)"},
+                   "list": {"$type": "List", "_value": [{"$type": "Integer", "_value": "1"}]}
+                 }}""";
+
+        var driverResponse = send(driverQueryEndpoint, TYPED_JSON_MIME_TYPE_VALUE, body);
+        var directResponse = send(directQueryEndpoint, TYPED_JSON_MIME_TYPE_VALUE, body);
+
+        assertThat(directResponse.statusCode()).isEqualTo(202);
+        assertThat(comparable(directResponse)).isEqualTo(comparable(driverResponse));
+    }
+
+    @Test
+    void shouldReturnBookmarksAndCommit() throws IOException, InterruptedException {
+        var response = send(
+                directQueryEndpoint,
+                MediaType.APPLICATION_JSON,
+                "{\"statement\": \"CREATE (n:DirectExecution) RETURN count(n)\"}");
+
+        assertThat(response.statusCode()).isEqualTo(202);
+        var parsedJson = MAPPER.readTree(response.body());
+        assertThat(parsedJson.get(BOOKMARKS_KEY).size()).isEqualTo(1);
+
+        var bookmark = parsedJson.get(BOOKMARKS_KEY).get(0).asText();
+        var read = send(
+                directQueryEndpoint,
+                MediaType.APPLICATION_JSON,
+                "{\"statement\": \"MATCH (n:DirectExecution) RETURN count(n)\", \"bookmarks\": [\"" + bookmark
+                        + "\"]}");
+
+        assertThat(read.statusCode()).isEqualTo(202);
+        assertThat(MAPPER.readTree(read.body())
+                        .get(DATA_KEY)
+                        .get(VALUES_KEY)
+                        .get(0)
+                        .get(0)
+                        .asInt())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRollbackWhenStreamingFails() throws IOException, InterruptedException {
+        var response = send(
+                directQueryEndpoint,
+                MediaType.APPLICATION_JSON,
+                "{\"statement\": \"UNWIND [1, 0] AS i CREATE (:DirectRollback) RETURN 1 / i\"}");
+
+        assertThat(response.statusCode()).isEqualTo(202);
+        var parsedJson = MAPPER.readTree(response.body());
+        assertThat(parsedJson.get(ERRORS_KEY).get(0).get("code").asText())
+                .isEqualTo("Neo.ClientError.Statement.ArithmeticError");
+
+        var count = send(
+                directQueryEndpoint,
+                MediaType.APPLICATION_JSON,
+                "{\"statement\": \"MATCH (n:DirectRollback) RETURN count(n)\"}");
+        assertThat(MAPPER.readTree(count.body())
+                        .get(DATA_KEY)
+                        .get(VALUES_KEY)
+                        .get(0)
+                        .get(0)
+                        .asInt())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownDatabase() throws IOException, InterruptedException {
+        var httpRequest = QueryApiTestUtil.baseRequestBuilder(directQueryEndpoint, "thisDbisALie")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"statement\": \"RETURN 1\"}"))
+                .build();
+        var response = client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(MAPPER.readTree(response.body())
+                        .get(ERRORS_KEY)
+                        .get(0)
+                        .get("code")
+                        .asText())
+                .isEqualTo("Neo.ClientError.Database.DatabaseNotFound");
+    }
+
+    @Test
+    void shouldRejectWritesInReadAccessMode() throws IOException, InterruptedException {
+        var response = send(
+                directQueryEndpoint,
+                MediaType.APPLICATION_JSON,
+                "{\"statement\": \"CREATE (n)\", \"accessMode\": \"READ\"}");
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(MAPPER.readTree(response.body())
+                        .get(ERRORS_KEY)
+                        .get(0)
+                        .get("code")
+                        .asText())
+                .isEqualTo("Neo.ClientError.Statement.AccessMode");
+    }
+
+    public static Stream<Arguments> statements() {
+        return Stream.of(
+                        "RETURN 1 AS i, 1.5 AS f, 0.1 AS d, 'a' AS s, true AS b, null AS n",
+                        "UNWIND range(1, 3) AS i RETURN i, [i, 'x'] AS list, {key: i} AS map",
+                        "RETURN date('2024-02-29') AS d, time('12:00+01:00') AS t, localtime('12:00') AS lt",
+                        "RETURN datetime('2024-02-29T12:00:00+01:00') AS odt, "
+                                + "datetime('2024-02-29T12:00:00[Europe/Stockholm]') AS zdt, "
+                                + "localdatetime('2024-02-29T12:00:00') AS ldt",
+                        "RETURN duration('P1Y2M3DT4H5M6.7S') AS d, point({x: 1, y: 2}) AS p, "
+                                + "point({longitude: 1, latitude: 2, height: 3}) AS p3",
+                        "RETURN [1, 2, 3] AS ints, ['a', 'b'] AS strings",
+                        "UNWIND range(1, 2) AS i CREATE (n:Direct {i: i})-[r:REL {i: i}]->(m:Other) "
+                                + "RETURN count(*) AS c",
+                        "CREATE p = (n:Graph {name: 'a', ints: [1, 2], names: ['x']})-[r:REL {f: 0.5}]->(:Graph) "
+                                + "RETURN n, r, p, n.ints AS ints, n.names AS names, [n, r] AS entities",
+                        "RETURN {nested: {list: [1, {deep: true}]}, empty: []} AS map, [] AS empty",
+                        "EXPLAIN RETURN 1",
+                        "RETURN 1 / 0",
+                        "MATCH (n)")
+                .flatMap(statement -> Stream.of(
+                        Arguments.of(MediaType.APPLICATION_JSON, statement),
+                        Arguments.of(TYPED_JSON_MIME_TYPE_VALUE, statement)));
+    }
+
+    private static HttpResponse<String> send(String endpoint, String mediaType, String body)
+            throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(endpoint.replace("{databaseName}", "neo4j")))
+                .header("Content-Type", mediaType)
+                .header("Accept", mediaType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Bookmarks, element ids and error messages differ between the two database instances.
+     */
+    private JsonNode comparable(HttpResponse<String> response) throws IOException {
+        var json = MAPPER.readTree(ELEMENT_ID.matcher(response.body()).replaceAll("\"element id\""));
+        if (json instanceof ObjectNode object) {
+            object.remove(BOOKMARKS_KEY);
+            if (object.has(ERRORS_KEY)) {
+                for (JsonNode error : object.get(ERRORS_KEY)) {
+                    ((ObjectNode) error).remove("message");
+                }
+            }
+        }
+        return json;
+    }
+
+    private static DatabaseManagementService startDbms(boolean directExecution) {
+        return new TestDatabaseManagementServiceBuilder()
+                .setConfig(HttpConnector.enabled, true)
+                .setConfig(HttpConnector.listen_address, new SocketAddress("localhost", 0))
+                .setConfig(
+                        BoltConnectorInternalSettings.local_channel_address,
+                        QueryResourceDirectExecutionIT.class.getSimpleName() + directExecution)
+                .setConfig(BoltConnector.enabled, true)
+                .setConfig(ServerSettings.queryapi_direct_execution, directExecution)
+                .impermanent()
+                .build();
+    }
+
+    private static String queryEndpoint(DatabaseManagementService dbms) {
+        var portRegister = QueryApiTestUtil.resolveDependency(dbms, ConnectorPortRegister.class);
+        return "http://" + portRegister.getLocalAddress(ConnectorType.HTTP) + "/db/{databaseName}/query/v2";
+    }
+}
@@ -107,6 +107,21 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .dynamic()
             .build();
 
+    public enum LockTableImplementation {
+        CONCURRENT_HASH_MAP,
+        STRIPED
+    }
+
+    @Internal
+    @Description("Table the lock manager uses to map resource ids to locks. 'CONCURRENT_HASH_MAP' boxes resource ids "
+            + "into a concurrent map per resource type, while 'STRIPED' uses lock striped open addressing tables keyed "
+            + "by primitive resource ids, which avoids allocating for every acquired lock.")
+    public static final Setting<LockTableImplementation> lock_manager_table = newBuilder(
+                    "internal.dbms.lock_manager.table",
+                    ofEnum(LockTableImplementation.class),
+                    LockTableImplementation.CONCURRENT_HASH_MAP)
+            .build();
+
     @Internal
     @Description("Name of the tracer factory to be used. Current implementations are: null, default & verbose.")
     public static final Setting<String> tracer =
@@ -237,6 +252,16 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     StatefulShortestPlanningMode.CARDINALITY_HEURISTIC)
             .build();
 
+    @Internal
+    @Description("Shortest path searches read the relationships of frontiers of at least this many nodes on the "
+            + "Cypher worker threads, see `server.cypher.parallel.worker_limit`. Set to 0 to always read frontiers "
+            + "on the thread executing the query.")
+    public static final Setting<Integer> cypher_parallel_shortest_path_frontier_threshold = newBuilder(
+                    "internal.cypher.parallel_shortest_path_frontier_threshold", INT, 10_000)
+            .addConstraint(min(0))
+            .dynamic()
+            .build();
+
     public enum PlanVarExpandInto {
         /**
          * Plan expandInto using regular cost estimation
@@ -543,6 +568,25 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.cypher.free_memory_of_unused_columns", BOOL, true)
             .build();
 
+    @Internal
+    @Description("Fraction of the memory limit of a transaction, `db.memory.transaction.max`, that the rows buffered "
+            + "by each sort, top and aggregation operator of the slotted runtime may use before the operator moves "
+            + "them to temporary files on disk. The limit is read when the operator starts. If transactions are not "
+            + "limited, the fraction is taken of the max heap size. If not set, these operators never spill to disk.")
+    public static final Setting<Double> cypher_operator_spill_memory_fraction = newBuilder(
+                    "internal.cypher.operator_spill_memory_fraction", DOUBLE, null)
+            .addConstraint(range(0.01, 1.0))
+            .build();
+
+    @Internal
+    @Description("Directory where operators create their temporary spill files. If not set, the default temporary "
+            + "directory of the JVM is used.")
+    public static final Setting<Path> cypher_operator_spill_directory = newBuilder(
+                    "internal.cypher.operator_spill_directory", PATH, null)
+            .setDependency(GraphDatabaseSettings.neo4j_home)
+            .immutable()
+            .build();
+
     @Internal
     @Description("Max number of recent queries to collect in the data collector module. Will round down to the"
             + " nearest power of two. The default number (8192 query invocations) "
@@ -664,6 +708,17 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(min(0))
             .build();
 
+    @Internal
+    @Description("Set the number of indexes that are completed at the same time after the store scan of an index "
+            + "population that populates multiple indexes. Completing an index means merging its sorted scan "
+            + "updates and building its tree, which is otherwise done for one index at a time. "
+            + "Each index being completed uses the buffers of a full merge, so memory usage during this phase grows "
+            + "with this number. Zero means one index per cpu core.")
+    public static final Setting<Integer> index_population_completion_parallelism = newBuilder(
+                    "internal.dbms.index_population.completion_parallelism", INT, 1)
+            .addConstraint(min(0))
+            .build();
+
     @Internal
     @Description("Set the frequency and offset for reporting index usage statistics.")
     public static final Setting<Duration> index_usage_report_frequency = newBuilder(
@@ -820,6 +875,43 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.bolt.netty_server_shutdown_timeout", DURATION, ofSeconds(15))
             .build();
 
+    @Internal
+    @Description("Enable latency based admission control of Bolt and Query API requests that run or stream the "
+            + "results of queries. The number of concurrently admitted requests adapts to observed request execution "
+            + "times and page fault rates. Requests that can't be admitted are queued, and rejected with a transient "
+            + "error when the queue is full or has been standing for too long.")
+    public static final Setting<Boolean> admission_control_enabled =
+            newBuilder("internal.dbms.admission_control.enabled", BOOL, false).build();
+
+    @Internal
+    @Description("Upper bound of the number of concurrently admitted requests when admission control is enabled.")
+    public static final Setting<Integer> admission_control_max_concurrency = newBuilder(
+                    "internal.dbms.admission_control.max_concurrency", INT, 1000)
+            .addConstraint(min(1))
+            .build();
+
+    @Internal
+    @Description("Maximum number of requests waiting for admission when admission control is enabled. "
+            + "Requests arriving when the queue is full are rejected immediately.")
+    public static final Setting<Integer> admission_control_max_queue_size = newBuilder(
+                    "internal.dbms.admission_control.max_queue_size", INT, 1000)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("Acceptable time for a request to wait for admission. When waiting times stay above this "
+            + "target for longer than the admission control interval, queued requests are rejected.")
+    public static final Setting<Duration> admission_control_target_queue_delay = newBuilder(
+                    "internal.dbms.admission_control.target_queue_delay", DURATION, ofMillis(50))
+            .build();
+
+    @Internal
+    @Description("Interval at which admission control updates the concurrency limit from observed execution times.")
+    public static final Setting<Duration> admission_control_interval = newBuilder(
+                    "internal.dbms.admission_control.interval", DURATION, ofMillis(500))
+            .addConstraint(min(ofMillis(10)))
+            .build();
+
     @Internal
     @Description("Create an archive of an index before re-creating it if failing to load on startup.")
     public static final Setting<Boolean> archive_failed_index =
@@ -949,6 +1041,16 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .setDependency(async_recover_index_samples)
             .build();
 
+    @Internal
+    @Description("Maximum drift, as a fraction of the index size at the last full sampling, that incremental index "
+            + "sampling tolerates before falling back to a full index sampling. Incremental sampling estimates index "
+            + "statistics from sketches of the index updates instead of scanning the index. "
+            + "A value of 0 disables incremental index sampling.")
+    public static final Setting<Double> index_sampling_incremental_max_drift = newBuilder(
+                    "internal.dbms.index.sampling.incremental_max_drift", DOUBLE, 0.0)
+            .addConstraint(range(0.0, 1.0))
+            .build();
+
     @Internal
     @Description("Track heap memory allocations for transactions")
     public static final Setting<Boolean> enable_transaction_heap_allocation_tracking = newBuilder(
@@ -1115,6 +1217,14 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.cypher.planning_subtraction_scans_enabled", BOOL, true)
             .build();
 
+    @Internal
+    @Description("Feature flag to enable/disable estimating predicates on parameters and auto extracted literals from "
+            + "the value distribution of indexes, using the values the query is planned with. Cached plans are reused "
+            + "for other values, so a plan keeps the estimates of the values it was planned with until it is replanned.")
+    public static final Setting<Boolean> planning_parameter_value_selectivity_enabled = newBuilder(
+                    "internal.cypher.planning_parameter_value_selectivity_enabled", BOOL, false)
+            .build();
+
     @Internal
     @Description(
             "Limits the maximum amount of off-heap memory the consistency checker will allocate. The value is given as a factor between 0.1 .. 1 "
@@ -1141,6 +1251,24 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
     public static final Setting<Boolean> pre_sketch_transaction_logs =
             newBuilder("internal.dbms.tx_log.presketch", BOOL, false).build();
 
+    @Internal
+    @Description("Compress the payload of transaction log envelopes with zstd when that makes them smaller. "
+            + "New transaction log files are then created in a log format that versions without support for "
+            + "compressed envelopes refuse to open. "
+            + "Envelopes are always decompressed transparently when read, regardless of this setting.")
+    public static final Setting<Boolean> transaction_log_envelope_compression =
+            newBuilder("internal.dbms.tx_log.envelope_compression", BOOL, false).build();
+
+    @Internal
+    @Description("Maximum time the dedicated transaction log appender may wait for more transactions to arrive before "
+            + "forcing the transaction log, so that they can share a single force. The actual wait adapts to the "
+            + "observed force latency and concurrency, and no wait happens for a single committer. "
+            + "Zero disables waiting.")
+    public static final Setting<Duration> transaction_log_group_commit_max_wait = newBuilder(
+                    "internal.dbms.tx_log.group_commit_max_wait", DURATION, Duration.ZERO)
+            .addConstraint(max(ofMillis(100)))
+            .build();
+
     @Internal
     @Description(
             "Enables using format versions that are still under development, which will trigger migration to them on start up. "
@@ -1240,6 +1368,13 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.db.multiversion.transaction.visibility.boundaries.dump", BOOL, false)
             .build();
 
+    @Internal
+    @Description("Let node and relationship store scans put the pages they load on probation in the page cache, so "
+            + "that they are evicted ahead of the working set unless they are accessed again.")
+    public static final Setting<Boolean> scan_resistant_store_scans =
+            newBuilder("internal.db.memory.pagecache.scan_resistant_store_scans", BOOL, false)
+                    .build();
+
     @Internal
     @Description("Page Cache Warmer blocks database start until it's completed")
     public static final Setting<Boolean> pagecache_warmup_blocking = newBuilder(
@@ -1310,6 +1445,25 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(min(1L))
             .build();
 
+    @Internal
+    @Description("Limit the number of bytes per second the background checkpoint process writes, in addition to the "
+            + "limit on IOs given by `db.checkpoint.iops.limit`. By default only the IO limit applies.")
+    public static final Setting<Long> check_point_throughput_limit = newBuilder(
+                    "internal.db.checkpoint.throughput.limit", BYTES, null)
+            .addConstraint(min(1L))
+            .dynamic()
+            .build();
+
+    @Internal
+    @Description(
+            "Number of partitions the page cache is split into for eviction. Every partition has its own freelist and its "
+                    + "own background eviction thread, which helps write heavy workloads on large page caches where a "
+                    + "single eviction thread cannot keep up. Small page caches will use fewer partitions than requested.")
+    public static final Setting<Integer> page_cache_eviction_partitions = newBuilder(
+                    "internal.dbms.page_cache_eviction_partitions", INT, 1)
+            .addConstraint(min(1))
+            .build();
+
     @Internal
     @Description(
             "Whether to allow a system graph upgrade to happen automatically (and the procedures becomes no-ops), or should "
@@ -1455,6 +1609,37 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .dynamic()
             .build();
 
+    @Internal
+    @Description("Persist the hottest entries of the executable query cache while the database is running, and plan "
+            + "them again when the database starts, before it becomes available or for at most "
+            + "'internal.cypher.query_plan_warmup.max_unavailable_time'. "
+            + "Queries are planned for parameters of the same types as the ones they were cached for.")
+    public static final Setting<Boolean> cypher_query_plan_warmup_enabled =
+            newBuilder("internal.cypher.query_plan_warmup.enabled", BOOL, false).build();
+
+    @Internal
+    @Description("Maximum number of executable query cache entries to persist for warmup, hottest first.")
+    public static final Setting<Integer> cypher_query_plan_warmup_max_queries = newBuilder(
+                    "internal.cypher.query_plan_warmup.max_queries", INT, 500)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("How often the hottest entries of the executable query cache are persisted for warmup.")
+    public static final Setting<Duration> cypher_query_plan_warmup_profiling_interval = newBuilder(
+                    "internal.cypher.query_plan_warmup.profile_interval", DURATION, ofMinutes(1))
+            .addConstraint(min(ofSeconds(1)))
+            .build();
+
+    @Internal
+    @Description("Maximum time that query plan cache warmup holds the database unavailable when it starts. Once it "
+            + "has passed, the database becomes available and warmup carries on in the background. "
+            + "With a value of zero, the database becomes available right away.")
+    public static final Setting<Duration> cypher_query_plan_warmup_max_unavailable_time = newBuilder(
+                    "internal.cypher.query_plan_warmup.max_unavailable_time", DURATION, ofSeconds(30))
+            .addConstraint(min(Duration.ZERO))
+            .build();
+
     @Internal
     @Description(
             "Feature flag to enable/disable the ANTLR parser as opposed to Javacc. If changed dynamically, query caches need to be cleared for it to take effect.")
@@ -517,8 +517,7 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             .build();
 
     @Description("Limit the number of IOs the background checkpoint process consumes per second. "
-            + "This setting is advisory. It is ignored in Neo4j Community Edition and is followed to "
-            + "best effort in Enterprise Edition. "
+            + "This setting is advisory, and is followed to best effort. "
             + "An IO is, in this case, an 8 KiB (mostly sequential) write. Limiting the write IO in "
             + "this way leaves more bandwidth in the IO subsystem to service random-read IOs, "
             + "which is important for the response time of queries when the database cannot fit "
@@ -527,6 +526,8 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             + "A lower number means lower IO pressure and, consequently, longer checkpoint times. "
             + "Set this to -1 to disable the IOPS limit and remove the limitation entirely. "
             + "This lets the checkpointer flush data as fast as the hardware goes. "
+            + "In Neo4j Community Edition the limit is only applied when this setting is explicitly configured, "
+            + "and only the IO of the checkpoint itself counts towards it. "
             + "Removing or commenting out the setting sets the default value of 600.")
     public static final Setting<Integer> check_point_iops_limit =
             newBuilder("db.checkpoint.iops.limit", INT, 600).dynamic().build();
@@ -643,9 +644,9 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             .dynamic()
             .build();
 
-    @Description("The profiling frequency for the page cache. "
-            + "Accurate profiles allow the page cache to do active warmup after a restart, reducing the mean time to performance.\n"
-            + "This feature is available in Neo4j Enterprise Edition.")
+    @Description(
+            "The profiling frequency for the page cache. "
+                    + "Accurate profiles allow the page cache to do active warmup after a restart, reducing the mean time to performance.")
     public static final Setting<Duration> pagecache_warmup_profiling_interval = newBuilder(
                     "db.memory.pagecache.warmup.profile.interval", DURATION, ofMinutes(1))
             .build();
@@ -653,8 +654,7 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
     @Description(
             "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. "
                     + "According to that profile pages can be reloaded on the restart, replication, etc. "
-                    + "This setting allows disabling that behavior.\n"
-                    + "This feature is available in Neo4j Enterprise Edition.")
+                    + "This setting allows disabling that behavior.")
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder("db.memory.pagecache.warmup.enable", BOOL, true).build();
 
@@ -20,6 +20,7 @@
 package org.neo4j.configuration.connectors;
 
 import static java.lang.String.format;
+import static java.time.Duration.ofMillis;
 import static java.time.Duration.ofMinutes;
 import static java.time.Duration.ofSeconds;
 import static org.neo4j.configuration.SettingConstraints.any;
@@ -131,6 +132,22 @@ public final class BoltConnectorInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> unsupported_thread_pool_queue_size =
             newBuilder("internal.server.bolt.thread_pool_queue_size", INT, 0).build();
 
+    @Internal
+    @Description("Execute Bolt connection jobs on virtual threads instead of the bounded worker thread pool. Idle "
+            + "connections then no longer occupy a platform thread and the thread pool size settings are ignored. "
+            + "Requires Java 21 or newer, the thread pool is used otherwise.")
+    public static final Setting<Boolean> thread_pool_virtual_threads = newBuilder(
+                    "internal.server.bolt.thread_pool_virtual_threads", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Minimum duration for which a Bolt virtual thread has to be pinned to its carrier thread, e.g. while "
+            + "blocking inside a synchronized block, before the pinning is reported (0 to disable reporting).")
+    public static final Setting<Duration> virtual_thread_pinning_threshold = newBuilder(
+                    "internal.server.bolt.virtual_thread_pinning_threshold", DURATION, ofMillis(20))
+            .addConstraint(min(Duration.ZERO))
+            .build();
+
     @Internal
     @Description("Enable TCP keep alive probes on this connector")
     public static final Setting<Boolean> tcp_keep_alive =
@@ -38,6 +38,7 @@ import org.neo4j.cypher.internal.options.CypherStatefulShortestPlanningModeOptio
 import org.neo4j.graphdb.config.Setting
 
 import java.io.File
+import java.nio.file.Path
 
 import scala.jdk.CollectionConverters.SetHasAsScala
 
@@ -156,6 +157,9 @@ class CypherConfiguration private (val config: Config) {
   val planningSubtractionScansEnabled: Boolean =
     config.get(GraphDatabaseInternalSettings.planning_subtraction_scans_enabled)
 
+  val planningParameterValueSelectivityEnabled: Boolean =
+    config.get(GraphDatabaseInternalSettings.planning_parameter_value_selectivity_enabled)
+
   val eagerAnalyzer: CypherEagerAnalyzerOption = CypherEagerAnalyzerOption.fromConfig(config)
 
   val varExpandRelationshipIdSetThreshold: Integer =
@@ -170,6 +174,23 @@ class CypherConfiguration private (val config: Config) {
   val freeMemoryOfUnusedColumns: Boolean =
     config.get(GraphDatabaseInternalSettings.cypher_free_memory_of_unused_columns)
 
+  /**
+   * Estimated heap usage, in bytes, of the rows buffered by an operator after which it moves them to disk, or `None`
+   * if operators should not spill. The threshold is a fraction of the current memory limit of a transaction, or of
+   * the max heap size if transactions are not limited, and is meant to be read each time an operator starts.
+   */
+  val operatorSpillThreshold: Option[() => Long] =
+    Option(config.get(GraphDatabaseInternalSettings.cypher_operator_spill_memory_fraction)).map { fraction =>
+      () => {
+        val transactionMaxSize: Long = config.get(GraphDatabaseSettings.memory_transaction_max_size)
+        val memoryLimit = if (transactionMaxSize > 0) transactionMaxSize else Runtime.getRuntime.maxMemory()
+        Math.max((memoryLimit * fraction.doubleValue()).toLong, 1L)
+      }
+    }
+
+  val operatorSpillDirectory: Option[Path] =
+    Option(config.get(GraphDatabaseInternalSettings.cypher_operator_spill_directory))
+
   val lpEagerFallbackEnabled: Boolean =
     config.get(GraphDatabaseInternalSettings.cypher_lp_eager_analysis_fallback_enabled)
 
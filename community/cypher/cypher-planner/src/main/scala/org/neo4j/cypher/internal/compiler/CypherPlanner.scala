@@ -261,6 +261,13 @@ class CypherPlannerConfiguration(
     () => config.planningSubtractionScansEnabled
   }
 
+  val planningParameterValueSelectivityEnabled: () => Boolean = {
+    AssertMacros.checkOnlyWhenAssertionsAreEnabled(
+      !GraphDatabaseInternalSettings.planning_parameter_value_selectivity_enabled.dynamic()
+    )
+    () => config.planningParameterValueSelectivityEnabled
+  }
+
   val predicatesAsUnionMaxSize: () => Int = {
     AssertMacros.checkOnlyWhenAssertionsAreEnabled(
       !GraphDatabaseInternalSettings.predicates_as_union_max_size.dynamic()
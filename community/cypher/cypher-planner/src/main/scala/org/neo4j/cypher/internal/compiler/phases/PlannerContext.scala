@@ -200,18 +200,25 @@ object PlannerContext {
     log: Log,
     internalNotificationStats: InternalNotificationStats,
     internalSyntaxUsageStats: InternalSyntaxUsageStats,
-    sessionDatabase: DatabaseReference
+    sessionDatabase: DatabaseReference,
+    extractedParams: MapValue = MapValue.EMPTY
   ): PlannerContext = {
     val exceptionFactory = Neo4jCypherExceptionFactory(queryText, offset)
 
     val labelInferenceStrategy = LabelInferenceStrategy.fromConfig(planContext, labelInference)
 
+    // Plans are cached across parameter values, so estimating from the values at hand is opt-in
+    val parameterValues =
+      if (config.planningParameterValueSelectivityEnabled()) params.updatedWith(extractedParams)
+      else MapValue.EMPTY
+
     val metrics = metricsFactory.newMetrics(
       planContext,
       evaluator,
       executionModel,
       cancellationChecker,
-      labelInferenceStrategy
+      labelInferenceStrategy,
+      parameterValues
     )
 
     new PlannerContext(
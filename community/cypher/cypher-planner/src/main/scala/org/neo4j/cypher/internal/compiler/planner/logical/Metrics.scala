@@ -56,6 +56,7 @@ import org.neo4j.cypher.internal.util.CypherException
 import org.neo4j.cypher.internal.util.Selectivity
 import org.neo4j.cypher.internal.util.helpers.MapSupport.PowerMap
 import org.neo4j.values.storable.NumberValue
+import org.neo4j.values.virtual.MapValue
 
 object Metrics {
 
@@ -276,17 +277,25 @@ trait MetricsFactory {
     labelInferenceStrategy: LabelInferenceStrategy
   ): QueryGraphCardinalityModel
 
-  def newSelectivityCalculator(planContext: PlanContext): SelectivityCalculator =
-    CompositeExpressionSelectivityCalculator(planContext)
+  def newSelectivityCalculator(
+    planContext: PlanContext,
+    parameterValues: MapValue = MapValue.EMPTY
+  ): SelectivityCalculator =
+    CompositeExpressionSelectivityCalculator(planContext, parameterValues)
 
+  /**
+   * @param parameterValues values of the parameters of the query to plan, including auto extracted literals, that the
+   *                        cardinality estimation may look at.
+   */
   def newMetrics(
     planContext: PlanContext,
     expressionEvaluator: ExpressionEvaluator,
     executionModel: ExecutionModel,
     cancellationChecker: CancellationChecker,
-    labelInferenceStrategy: LabelInferenceStrategy = LabelInferenceStrategy.NoInference
+    labelInferenceStrategy: LabelInferenceStrategy = LabelInferenceStrategy.NoInference,
+    parameterValues: MapValue = MapValue.EMPTY
   ): Metrics = {
-    val selectivityCalculator = newSelectivityCalculator(planContext)
+    val selectivityCalculator = newSelectivityCalculator(planContext, parameterValues)
     val queryGraphCardinalityModel =
       newQueryGraphCardinalityModel(planContext, selectivityCalculator, labelInferenceStrategy)
     val cardinality = newCardinalityEstimator(queryGraphCardinalityModel, selectivityCalculator, expressionEvaluator)
@@ -39,6 +39,8 @@ import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.Expression
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.getStringLength
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.indexSelectivityForSubstringSargable
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.indexSelectivityWithSizeHint
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.knownRange
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.knownValues
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.selectivityForPropertyEquality
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ExpressionSelectivityCalculator.subqueryCardinalityToExistsSelectivity
 import org.neo4j.cypher.internal.compiler.planner.logical.plans.AsBoundingBoxSeekable
@@ -59,6 +61,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.IndexCompa
 import org.neo4j.cypher.internal.expressions.AssertIsNode
 import org.neo4j.cypher.internal.expressions.Contains
 import org.neo4j.cypher.internal.expressions.DifferentRelationships
+import org.neo4j.cypher.internal.expressions.DoubleLiteral
 import org.neo4j.cypher.internal.expressions.ElementTypeName
 import org.neo4j.cypher.internal.expressions.EndsWith
 import org.neo4j.cypher.internal.expressions.Equals
@@ -67,10 +70,12 @@ import org.neo4j.cypher.internal.expressions.False
 import org.neo4j.cypher.internal.expressions.GreaterThan
 import org.neo4j.cypher.internal.expressions.GreaterThanOrEqual
 import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.IntegerLiteral
 import org.neo4j.cypher.internal.expressions.IsRepeatTrailUnique
 import org.neo4j.cypher.internal.expressions.LabelName
 import org.neo4j.cypher.internal.expressions.LessThan
 import org.neo4j.cypher.internal.expressions.LessThanOrEqual
+import org.neo4j.cypher.internal.expressions.ListLiteral
 import org.neo4j.cypher.internal.expressions.LogicalProperty
 import org.neo4j.cypher.internal.expressions.LogicalVariable
 import org.neo4j.cypher.internal.expressions.NoneOfRelationships
@@ -90,7 +95,15 @@ import org.neo4j.cypher.internal.expressions.VarLengthBound
 import org.neo4j.cypher.internal.expressions.Variable
 import org.neo4j.cypher.internal.ir.ast.ExistsIRExpression
 import org.neo4j.cypher.internal.ir.ast.ForAllRepetitions
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
+import org.neo4j.cypher.internal.logical.plans.MinMaxOrdering
 import org.neo4j.cypher.internal.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.logical.plans.RangeBetween
+import org.neo4j.cypher.internal.logical.plans.RangeGreaterThan
+import org.neo4j.cypher.internal.logical.plans.RangeLessThan
+import org.neo4j.cypher.internal.logical.plans.SeekableArgs
+import org.neo4j.cypher.internal.logical.plans.SingleSeekableArg
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.EntityType
@@ -111,8 +124,22 @@ import org.neo4j.cypher.internal.util.symbols.PointType
 import org.neo4j.cypher.internal.util.symbols.StringType
 import org.neo4j.internal.helpers.MathUtil.Erf.erf
 import org.neo4j.internal.schema.constraints.SchemaValueType
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.MapValue
 
-case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner) {
+import scala.jdk.CollectionConverters.IterableHasAsScala
+
+/**
+ * @param parameterValues values of the parameters of the query being planned, including auto extracted literals. They
+ *                        are only used to look up value distributions, see [[ExpressionSelectivityCalculator.knownValue]].
+ */
+case class ExpressionSelectivityCalculator(
+  stats: GraphStatistics,
+  combiner: SelectivityCombiner,
+  parameterValues: MapValue = MapValue.EMPTY
+) {
 
   /**
    * Index type priority to be used to calculate selectivities of exists predicates, given that a substring predicate is used.
@@ -178,6 +205,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
         seekable.ident,
         seekable.propertyValueType(semanticTable),
         seekable.args.sizeHint,
+        knownValues(seekable.args, parameterValues),
         labelInfo,
         relTypeInfo,
         seekable.propertyKey,
@@ -483,6 +511,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     variable: LogicalVariable,
     cypherType: CypherType,
     sizeHint: Option[Int],
+    values: Option[Seq[Value]],
     labelInfo: LabelInfo,
     relTypeInfo: RelTypeInfo,
     propertyKey: PropertyKeyName,
@@ -516,7 +545,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
             case _ => Seq.empty
           }
 
-          descriptors.flatMap(indexSelectivityForPropertyEquality(_, size)).headOption
+          descriptors.flatMap(indexSelectivityForPropertyEquality(_, size, values)).headOption
         }
 
         combiner.orTogetherSelectivities(indexSelectivities)
@@ -531,13 +560,42 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
       indexSelectivity
   }
 
-  private def indexSelectivityForPropertyEquality(descriptor: IndexDescriptor, size: Int): Option[Selectivity] =
-    selectivityForPropertyEquality(
-      stats.indexPropertyIsNotNullSelectivity(descriptor),
-      stats.uniqueValueSelectivity(descriptor),
-      size,
-      combiner
-    )
+  private def indexSelectivityForPropertyEquality(
+    descriptor: IndexDescriptor,
+    size: Int,
+    values: Option[Seq[Value]]
+  ): Option[Selectivity] =
+    stats.propertyValueDistribution(descriptor) match {
+      case Some(distribution) =>
+        // The values of a list are distinct, so the selectivities of the values are simply added up
+        val knownValuesSelectivity = values.flatMap { values =>
+          val selectivities = values.distinct.map(distribution.equalitySelectivity)
+          if (selectivities.forall(_.isDefined))
+            Some(Selectivity.of(selectivities.map(_.get.factor).sum).getOrElse(Selectivity.ONE))
+          else
+            None
+        }
+        knownValuesSelectivity match {
+          case Some(propEqualsAnyValue) =>
+            stats.indexPropertyIsNotNullSelectivity(descriptor).flatMap(propExists =>
+              combiner.andTogetherSelectivities(Seq(propExists, propEqualsAnyValue))
+            )
+          case None =>
+            selectivityForPropertyEquality(
+              stats.indexPropertyIsNotNullSelectivity(descriptor),
+              Some(distribution.averageEqualitySelectivity),
+              size,
+              combiner
+            )
+        }
+      case None =>
+        selectivityForPropertyEquality(
+          stats.indexPropertyIsNotNullSelectivity(descriptor),
+          stats.uniqueValueSelectivity(descriptor),
+          size,
+          combiner
+        )
+    }
 
   private def calculateSelectivityForValueRangeSeekable(
     seekable: InequalityRangeSeekable,
@@ -572,7 +630,8 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
           propertyExistsSelectivity <- stats.indexPropertyIsNotNullSelectivity(descriptor)
           propEqValueSelectivity <- stats.uniqueValueSelectivity(descriptor)
         } yield {
-          val pRangeBounded: Selectivity = getPropertyPredicateRangeSelectivity(seekable, propEqValueSelectivity)
+          val pRangeBounded: Selectivity = histogramRangeSelectivity(seekable, descriptor)
+            .getOrElse(getPropertyPredicateRangeSelectivity(seekable, propEqValueSelectivity))
           pRangeBounded * propertyExistsSelectivity
         }
         selectivities.headOption
@@ -583,6 +642,15 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     combiner.orTogetherSelectivities(indexRangeSelectivities).getOrElse(default)
   }
 
+  private def histogramRangeSelectivity(
+    seekable: InequalityRangeSeekable,
+    descriptor: IndexDescriptor
+  ): Option[Selectivity] = for {
+    (lower, upper) <- knownRange(seekable, parameterValues)
+    distribution <- stats.propertyValueDistribution(descriptor)
+    selectivity <- distribution.rangeSelectivity(lower, upper)
+  } yield selectivity
+
   private def calculateSelectivityForPointDistanceSeekable(
     seekable: PointDistanceSeekable,
     labelInfo: LabelInfo,
@@ -851,6 +919,66 @@ object ExpressionSelectivityCalculator {
     }
   }
 
+  private val BY_VALUE: MinMaxOrdering[Value] = MinMaxOrdering(Ordering.comparatorToOrdering(Values.COMPARATOR))
+
+  /**
+   * The value of an expression, if it is known while planning.
+   *
+   * The values of parameters, explicit or auto extracted from literals, are those of the execution that the query is
+   * planned for. The plan is cached and reused for other values, so the estimates are only as good as the first values
+   * are representative.
+   */
+  def knownValue(expression: Expression, parameterValues: MapValue): Option[Value] = expression match {
+    case literal: IntegerLiteral => Some(Values.longValue(literal.value))
+    case literal: DoubleLiteral  => Some(Values.doubleValue(literal.value))
+    case StringLiteral(value)    => Some(Values.stringValue(value))
+    case _: True                 => Some(Values.TRUE)
+    case _: False                => Some(Values.FALSE)
+    case parameter: Parameter    => parameterValue(parameter, parameterValues)
+    case _                       => None
+  }
+
+  private def parameterValue(parameter: Parameter, parameterValues: MapValue): Option[Value] =
+    parameterValues.get(parameter.name) match {
+      case value: Value if value ne Values.NO_VALUE => Some(value)
+      case _                                         => None
+    }
+
+  /**
+   * The values of an equality or IN predicate, if they are all known while planning.
+   */
+  def knownValues(args: SeekableArgs, parameterValues: MapValue): Option[Seq[Value]] = args match {
+    case ManySeekableArgs(parameter: Parameter) =>
+      parameterValues.get(parameter.name) match {
+        case list: ListValue =>
+          val items = list.asScala.toSeq
+          val values = items.collect { case value: Value if value ne Values.NO_VALUE => value }
+          if (items.nonEmpty && values.size == items.size) Some(values) else None
+        case _ => None
+      }
+    case _ =>
+      val expressions = args match {
+        case SingleSeekableArg(expr)                    => Seq(expr)
+        case ManySeekableArgs(ListLiteral(expressions)) => expressions
+        case _                                          => Seq.empty
+      }
+      val values = expressions.flatMap(knownValue(_, parameterValues))
+      if (expressions.nonEmpty && values.size == expressions.size) Some(values) else None
+  }
+
+  /**
+   * The lower and upper limit of an inequality predicate, if all bounds are known while planning.
+   */
+  def knownRange(
+    seekable: InequalityRangeSeekable,
+    parameterValues: MapValue
+  ): Option[(Option[Bound[Value]], Option[Bound[Value]])] =
+    seekable.range.flatMapBounds(knownValue(_, parameterValues)).map {
+      case range: RangeGreaterThan[Value] => (range.limit(BY_VALUE), None)
+      case range: RangeLessThan[Value]    => (None, range.limit(BY_VALUE))
+      case range: RangeBetween[Value]     => (range.greaterThan.limit(BY_VALUE), range.lessThan.limit(BY_VALUE))
+    }
+
   /**
    * Estimates the seekable predicate's selectivity assuming existence of the predicate's property.
    * @param seekable the predicate
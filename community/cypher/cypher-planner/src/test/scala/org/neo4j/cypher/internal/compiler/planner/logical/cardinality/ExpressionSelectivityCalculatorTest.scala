@@ -57,6 +57,9 @@ import org.neo4j.cypher.internal.expressions.RelTypeName
 import org.neo4j.cypher.internal.expressions.StringLiteral
 import org.neo4j.cypher.internal.ir.Predicate
 import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.InclusiveBound
 import org.neo4j.cypher.internal.planner.spi.DatabaseMode
 import org.neo4j.cypher.internal.planner.spi.DatabaseMode.DatabaseMode
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
@@ -69,6 +72,7 @@ import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_AL
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_WITH_LABEL_CARDINALITY
 import org.neo4j.cypher.internal.planner.spi.MutableGraphStatisticsSnapshot
 import org.neo4j.cypher.internal.planner.spi.PlanContext
+import org.neo4j.cypher.internal.planner.spi.PropertyValueDistribution
 import org.neo4j.cypher.internal.util.ApproximateSize
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
@@ -89,6 +93,10 @@ import org.neo4j.cypher.internal.util.symbols.CTString
 import org.neo4j.cypher.internal.util.symbols.CTStringNotNull
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.internal.schema.constraints.SchemaValueType
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.VirtualValues
 
 abstract class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
 
@@ -2192,21 +2200,119 @@ abstract class ExpressionSelectivityCalculatorTest extends CypherFunSuite with A
       .addTypeInfo(pointLiteralX1Y2, CTPoint)
   }
 
+  // PROPERTY VALUE DISTRIBUTIONS
+
+  test("range with one label and known bounds uses the property value distribution") {
+    val inequality = nPredicate(nAnded(NonEmptyList(
+      greaterThan(nProp, literalInt(3)),
+      lessThanOrEqual(nProp, literalInt(10)),
+      lessThan(nProp, literalInt(20))
+    )))
+    val distribution = mockDistribution(ranges =
+      Map(
+        (Some(ExclusiveBound(Values.longValue(3))), Some(InclusiveBound(Values.longValue(10)))) -> 0.9
+      )
+    )
+
+    val calculator = setUpCalculator(
+      labelInfo = nIsPersonLabelInfo,
+      stats = mockStats(valueDistributions = Map(indexPersonRange -> distribution))
+    )
+
+    calculator(inequality.expr).factor should equal(personPropIsNotNullSel * 0.9 +- 0.00000001)
+  }
+
+  test("range with one label and unknown bounds ignores the property value distribution") {
+    val inequality = nPredicate(nAnded(NonEmptyList(
+      greaterThan(nProp, ExplicitParameter("PARAM", CTInteger)(pos))
+    )))
+    val distribution = mockDistribution(ranges = Map((None, None) -> 0.9))
+
+    val calculator = setUpCalculator(
+      labelInfo = nIsPersonLabelInfo,
+      stats = mockStats(valueDistributions = Map(indexPersonRange -> distribution))
+    )
+
+    calculator(inequality.expr).factor should equal(
+      personPropIsNotNullSel * (1 - indexPersonUniqueSel) * DEFAULT_RANGE_SEEK_FACTOR +- 0.00000001
+    )
+  }
+
+  test("equality and IN with one label and known values use the property value distribution") {
+    val distribution = mockDistribution(equalities = Map(Values.longValue(3) -> 0.5, Values.longValue(4) -> 0.25))
+
+    val calculator = setUpCalculator(
+      labelInfo = nIsPersonLabelInfo,
+      stats = mockStats(valueDistributions = Map(indexPersonRange -> distribution))
+    )
+
+    calculator(nPredicate(super.equals(nProp, literalInt(3))).expr).factor should equal(
+      personPropIsNotNullSel * 0.5 +- 0.00000001
+    )
+    calculator(nPredicate(in(nProp, listOfInt(3, 4))).expr).factor should equal(
+      personPropIsNotNullSel * 0.75 +- 0.00000001
+    )
+  }
+
+  test("equality, IN and range with one label and parameter values use the property value distribution") {
+    val value = AutoExtractedParameter("VALUE", CTInteger)(pos)
+    val list = ExplicitParameter("LIST", CTList(CTInteger))(pos)
+    val lower = ExplicitParameter("LOWER", CTInteger)(pos)
+    val distribution = mockDistribution(
+      equalities = Map(Values.longValue(3) -> 0.5, Values.longValue(4) -> 0.25),
+      ranges = Map((Some(ExclusiveBound(Values.longValue(3))), None) -> 0.1)
+    )
+
+    val calculator = setUpCalculator(
+      labelInfo = nIsPersonLabelInfo,
+      stats = mockStats(valueDistributions = Map(indexPersonRange -> distribution)),
+      parameterValues = VirtualValues.map(
+        Array("VALUE", "LIST", "LOWER"),
+        Array(Values.longValue(3), VirtualValues.list(Values.longValue(3), Values.longValue(4)), Values.longValue(3))
+      )
+    )
+
+    calculator(nPredicate(super.equals(nProp, value)).expr).factor should equal(
+      personPropIsNotNullSel * 0.5 +- 0.00000001
+    )
+    calculator(nPredicate(in(nProp, list)).expr).factor should equal(
+      personPropIsNotNullSel * 0.75 +- 0.00000001
+    )
+    calculator(nPredicate(nAnded(NonEmptyList(greaterThan(nProp, lower)))).expr).factor should equal(
+      personPropIsNotNullSel * 0.1 +- 0.00000001
+    )
+  }
+
+  test("equality with one label and unknown value uses the average selectivity of the property value distribution") {
+    val param = AutoExtractedParameter("PARAM", CTInteger)(pos)
+    val distribution = mockDistribution(averageEquality = 0.3)
+
+    val calculator = setUpCalculator(
+      labelInfo = nIsPersonLabelInfo,
+      stats = mockStats(valueDistributions = Map(indexPersonRange -> distribution))
+    )
+
+    calculator(nPredicate(super.equals(nProp, param)).expr).factor should equal(
+      personPropIsNotNullSel * 0.3 +- 0.00000001
+    )
+  }
+
   protected def setUpCalculator(
     labelInfo: LabelInfo = Map.empty,
     relTypeInfo: RelTypeInfo = Map.empty,
     stats: GraphStatistics = mockStats(),
     semanticTable: SemanticTable = setupSemanticTable(),
     existenceConstraints: Set[(ElementTypeName, String)] = Set.empty,
-    typeConstraints: Map[ElementTypeName, Map[String, Seq[SchemaValueType]]] = Map.empty
+    typeConstraints: Map[ElementTypeName, Map[String, Seq[SchemaValueType]]] = Map.empty,
+    parameterValues: MapValue = MapValue.EMPTY
   ): Expression => Selectivity = {
     implicit val sT: SemanticTable = semanticTable
     implicit val indexCPPC: IndexCompatiblePredicatesProviderContext = IndexCompatiblePredicatesProviderContext.default
 
     val combiner = IndependenceCombiner
     val planContext = mockPlanContext(stats, existenceConstraints, typeConstraints)
-    val calculator = ExpressionSelectivityCalculator(planContext.statistics, combiner)
-    val compositeCalculator = CompositeExpressionSelectivityCalculator(planContext)
+    val calculator = ExpressionSelectivityCalculator(planContext.statistics, combiner, parameterValues)
+    val compositeCalculator = CompositeExpressionSelectivityCalculator(planContext, parameterValues)
     implicit val cardinalityModel: CardinalityModel = SimpleMetricsFactory.newCardinalityEstimator(
       SimpleMetricsFactory.newQueryGraphCardinalityModel(planContext, compositeCalculator),
       compositeCalculator,
@@ -2247,7 +2353,8 @@ abstract class ExpressionSelectivityCalculatorTest extends CypherFunSuite with A
     labelOrRelCardinalities: Map[NameId, Double] =
       Map(indexPersonRange.label -> 1000.0, indexFriendsRange.relType -> 1000.0),
     indexCardinalities: Map[IndexDescriptor, Double] = defaultIndexCardinalities,
-    indexUniqueCardinalities: Map[IndexDescriptor, Double] = defaultIndexUniqueCardinalities
+    indexUniqueCardinalities: Map[IndexDescriptor, Double] = defaultIndexUniqueCardinalities,
+    valueDistributions: Map[IndexDescriptor, PropertyValueDistribution] = Map.empty
   ) extends GraphStatistics {
 
     // sanity check:
@@ -2299,6 +2406,23 @@ abstract class ExpressionSelectivityCalculatorTest extends CypherFunSuite with A
         indexUniqueCardinality <- indexUniqueCardinalities.get(index)
       } yield Selectivity(1 / indexUniqueCardinality)
     }
+
+    override def propertyValueDistribution(index: IndexDescriptor): Option[PropertyValueDistribution] =
+      valueDistributions.get(index)
+  }
+
+  protected case class mockDistribution(
+    equalities: Map[Value, Double] = Map.empty,
+    ranges: Map[(Option[Bound[Value]], Option[Bound[Value]]), Double] = Map.empty,
+    averageEquality: Double = 0.5
+  ) extends PropertyValueDistribution {
+
+    override def equalitySelectivity(value: Value): Option[Selectivity] = equalities.get(value).map(Selectivity(_))
+
+    override def rangeSelectivity(lower: Option[Bound[Value]], upper: Option[Bound[Value]]): Option[Selectivity] =
+      ranges.get((lower, upper)).map(Selectivity(_))
+
+    override def averageEqualitySelectivity: Selectivity = Selectivity(averageEquality)
   }
 
   protected def mockPlanContext(
@@ -2308,7 +2432,7 @@ abstract class ExpressionSelectivityCalculatorTest extends CypherFunSuite with A
   ): PlanContext = new NotImplementedPlanContext {
 
     val indexMap: Map[Int, IndexDescriptor] = stats match {
-      case mockStats(_, _, _, indexCardinalities, _) =>
+      case mockStats(_, _, _, indexCardinalities, _, _) =>
         indexCardinalities.keys.map(desc => getNameId(desc) -> desc).toMap
       case _ => Map.empty
     }
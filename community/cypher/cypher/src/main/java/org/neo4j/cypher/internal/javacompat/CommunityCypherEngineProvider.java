@@ -34,6 +34,7 @@ import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.cache.CombinedQueryCacheStatistics;
 import org.neo4j.cypher.internal.cache.CypherQueryCaches;
 import org.neo4j.cypher.internal.cache.ExecutorBasedCaffeineCacheFactory;
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer;
 import org.neo4j.cypher.internal.compiler.CypherParsingConfig;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
 import org.neo4j.cypher.internal.config.CypherConfiguration;
@@ -121,15 +122,22 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider {
                     innerQueryCaches,
                     innerCompilerFactory);
         }
+        ExecutionEngine engine;
         if (spi.config().get(GraphDatabaseInternalSettings.snapshot_query)) {
-            return new SnapshotExecutionEngine(
+            engine = new SnapshotExecutionEngine(
                     queryService, spi.config(), queryCaches, spi.logProvider(), compilerFactory);
-        }
-        if ("multiversion".equals(spi.config().get(GraphDatabaseSettings.db_format))) {
-            return new MultiVersionExecutionEngine(
+        } else if ("multiversion".equals(spi.config().get(GraphDatabaseSettings.db_format))) {
+            engine = new MultiVersionExecutionEngine(
                     queryService, spi.config(), queryCaches, spi.logProvider(), compilerFactory);
+        } else {
+            engine = new ExecutionEngine(queryService, queryCaches, spi.logProvider(), compilerFactory);
+        }
+        if (spi.config().get(GraphDatabaseInternalSettings.cypher_query_plan_warmup_enabled)) {
+            spi.lifeSupport()
+                    .add(new QueryPlanWarmer(
+                            engine, spi.kernel(), deps, spi.jobScheduler(), spi.config(), spi.logProvider()));
         }
-        return new ExecutionEngine(queryService, queryCaches, spi.logProvider(), compilerFactory);
+        return engine;
     }
 
     private CypherQueryCaches makeCypherQueryCaches(
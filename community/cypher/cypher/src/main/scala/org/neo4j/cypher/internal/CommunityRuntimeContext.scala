@@ -43,10 +43,10 @@ case class CommunityRuntimeContext(
   log: InternalLog,
   config: CypherRuntimeConfiguration,
   anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
-  assertOpen: AssertOpen
+  assertOpen: AssertOpen,
+  compileExpressions: Boolean = false
 ) extends RuntimeContext {
 
-  override def compileExpressions: Boolean = false
   override def materializedEntitiesMode: Boolean = false
   override def isCommunity: Boolean = true
 }
@@ -61,7 +61,7 @@ case class CommunityRuntimeContextManager(log: InternalLog, config: CypherRuntim
     procedures: Procedures,
     clock: Clock,
     debugOptions: CypherDebugOptions,
-    ignore: Boolean,
+    compileExpressions: Boolean,
     ignore2: Boolean,
     ignore3: CypherOperatorEngineOption,
     ignore4: CypherInterpretedPipesFallbackOption,
@@ -76,7 +76,8 @@ case class CommunityRuntimeContextManager(log: InternalLog, config: CypherRuntim
       log,
       config,
       anonymousVariableNameGenerator,
-      assertOpen
+      assertOpen,
+      compileExpressions
     )
 
   // As we rely completely on transaction bound resources in community,
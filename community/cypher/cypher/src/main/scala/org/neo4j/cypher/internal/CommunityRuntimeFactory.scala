@@ -43,6 +43,16 @@ object CommunityRuntimeFactory {
       CypherRuntimeOption.default
     )
 
+  val parallel = new FallbackRuntime[RuntimeContext](
+    ArraySeq(SchemaCommandRuntime, CommunityParallelRuntime, CommunitySlottedRuntime),
+    CypherRuntimeOption.parallel
+  )
+
+  val parallelWithoutFallback = new FallbackRuntime[RuntimeContext](
+    ArraySeq(SchemaCommandRuntime, CommunityParallelRuntime),
+    CypherRuntimeOption.parallel
+  )
+
   def getRuntime(cypherRuntime: CypherRuntimeOption, disallowFallback: Boolean): CypherRuntime[RuntimeContext] =
     cypherRuntime match {
       case CypherRuntimeOption.legacy => interpreted
@@ -53,6 +63,10 @@ object CommunityRuntimeFactory {
 
       case CypherRuntimeOption.default => default
 
+      case CypherRuntimeOption.parallel if disallowFallback => parallelWithoutFallback
+
+      case CypherRuntimeOption.parallel => parallel
+
       case unsupported if disallowFallback =>
         throw RuntimeUnsupportedException.unsupportedRuntimeInThisVersion(String.valueOf(unsupported))
 
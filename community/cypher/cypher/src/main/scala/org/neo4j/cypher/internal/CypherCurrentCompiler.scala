@@ -204,7 +204,11 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](
       contextManager.config.renderPlanDescription,
       kernelMonitors,
       query.options.queryOptions.cypherVersion.actualVersion,
-      executionPlanCacheKeyHash
+      executionPlanCacheKeyHash,
+      query match {
+        case preParsedQuery: PreParsedQuery => Some(preParsedQuery.statementWithCypherOptions)
+        case _: FullyParsedQuery            => None
+      }
     )
   }
 
@@ -401,7 +405,8 @@ object CypherCurrentCompiler {
     renderPlanDescription: Boolean,
     kernelMonitors: Monitors,
     cypherVersion: CypherVersion,
-    override val executionPlanCacheKeyHash: Int
+    override val executionPlanCacheKeyHash: Int,
+    override val statementWithCypherOptions: Option[String]
   ) extends ExecutableQuery {
 
     // Monitors are implemented via dynamic proxies which are slow compared to NOOP which is why we want to able to completely disable
@@ -127,4 +127,10 @@ trait ExecutableQuery extends CacheabilityInfo {
    * The hash code of the execution plan query cache key.
    */
   def executionPlanCacheKeyHash: Int
+
+  /**
+   * The statement of this query prefixed with its Cypher options, from which the query can be planned again,
+   * or `None` if it was not planned from query text.
+   */
+  def statementWithCypherOptions: Option[String]
 }
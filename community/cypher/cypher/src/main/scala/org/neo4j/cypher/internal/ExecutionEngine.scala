@@ -379,49 +379,7 @@ abstract class ExecutionEngine(
           tc,
           params,
           notificationLogger,
-          new DatabaseReference {
-            override def alias(): NormalizedDatabaseName = throw new NotImplementedError()
-
-            /**
-           * @return the namespace that the alias is in, or empty if it is in the default namespace
-           */
-            override def namespace(): Optional[NormalizedDatabaseName] = throw new NotImplementedError()
-
-            /**
-           * @return whether the alias associated with this reference is the database's original/true name
-           */
-            override def isPrimary: Boolean = throw new NotImplementedError()
-
-            /**
-           * @return the unique identity for this reference
-           */
-            override def id(): UUID = throw new NotImplementedError()
-
-            /**
-           * @return Prettified String representaion
-           */
-            override def toPrettyString: String = throw new NotImplementedError()
-
-            /**
-           * @return the full normalized name of the dataspace, including the namespace.
-           */
-            override def fullName(): NormalizedDatabaseName = new NormalizedDatabaseName(context.databaseId().name())
-
-            /**
-           * @return true if this reference points to a Composite database, otherwise false
-           */
-            override def isComposite: Boolean = context.databaseMode().equals(DatabaseMode.COMPOSITE)
-
-            override def compareTo(o: DatabaseReference): Int = throw new NotImplementedError()
-
-            /**
-             * @return the owning database of this reference. This is used for authorization on property shards which inherit
-             *         their permissions from the "owning" graph shard.
-             */
-            override def owningDatabaseName: String = fullName().name();
-
-            override def catalogEntry(): NormalizedCatalogEntry = throw new NotImplementedError()
-          }
+          sessionDatabase(context)
         )
 
         val executableQuery = queryCache.computeIfAbsentOrStale(
@@ -449,6 +407,101 @@ abstract class ExecutionEngine(
     throw new IllegalStateException("Could not compile query due to insanely frequent schema changes")
   }
 
+  private def sessionDatabase(context: TransactionalContext): DatabaseReference =
+    new DatabaseReference {
+      override def alias(): NormalizedDatabaseName = throw new NotImplementedError()
+
+      /**
+       * @return the namespace that the alias is in, or empty if it is in the default namespace
+       */
+      override def namespace(): Optional[NormalizedDatabaseName] = throw new NotImplementedError()
+
+      /**
+       * @return whether the alias associated with this reference is the database's original/true name
+       */
+      override def isPrimary: Boolean = throw new NotImplementedError()
+
+      /**
+       * @return the unique identity for this reference
+       */
+      override def id(): UUID = throw new NotImplementedError()
+
+      /**
+       * @return Prettified String representaion
+       */
+      override def toPrettyString: String = throw new NotImplementedError()
+
+      /**
+       * @return the full normalized name of the dataspace, including the namespace.
+       */
+      override def fullName(): NormalizedDatabaseName = new NormalizedDatabaseName(context.databaseId().name())
+
+      /**
+       * @return true if this reference points to a Composite database, otherwise false
+       */
+      override def isComposite: Boolean = context.databaseMode().equals(DatabaseMode.COMPOSITE)
+
+      override def compareTo(o: DatabaseReference): Int = throw new NotImplementedError()
+
+      /**
+       * @return the owning database of this reference. This is used for authorization on property shards which inherit
+       *         their permissions from the "owning" graph shard.
+       */
+      override def owningDatabaseName: String = fullName().name();
+
+      override def catalogEntry(): NormalizedCatalogEntry = throw new NotImplementedError()
+    }
+
+  /**
+   * Plan a query and put it in the executable query cache, without executing it.
+   * Used to warm up the cache with queries that were hot before the database was restarted.
+   *
+   * @param query   the query to plan, including any pre-parser options
+   * @param params  parameters of the types that the query should be planned for
+   * @param context the transactional context in which to plan the query
+   * @param hits    the number of cache hits the query had
+   * @param recompiledWithExpressionCodeGen whether the query had been recompiled with expression code generation
+   * @return `true` if the query was planned and cached, `false` if it was already cached or cannot be cached
+   */
+  def warmUp(
+    query: String,
+    params: MapValue,
+    context: TransactionalContext,
+    hits: Int,
+    recompiledWithExpressionCodeGen: Boolean
+  ): Boolean = {
+    val queryTracer = tracer.compileQuery(query)
+    val compilerAuthorization =
+      context.restrictCurrentTransaction(context.securityContext.withMode(AccessMode.Static.READ))
+    try {
+      val notificationLogger = new RecordingNotificationLogger()
+      val inputQuery = preParser.preParseQuery(query, notificationLogger)
+      val cacheKey = CacheKey(
+        inputQuery.cacheKey,
+        QueryCache.extractParameterTypeMap(params, config.useParameterSizeHint),
+        txStateHasChanges = false
+      )
+      val compiler = compilerWithExpressionCodeGenOption(
+        inputQuery,
+        queryTracer,
+        context,
+        params,
+        notificationLogger,
+        sessionDatabase(context)
+      )
+      queryCache.warmUp(cacheKey, compiler, hits, recompiledWithExpressionCodeGen)
+    } finally {
+      compilerAuthorization.close()
+      queryTracer.close()
+    }
+  }
+
+  /**
+   * The cached executable queries with the most hits, hottest first.
+   */
+  def hottestQueries(limit: Int): Seq[QueryCache.HotEntry[CacheKey[InputQuery.CacheKey], ExecutableQuery]] =
+    queryCache.hottestEntries(limit)
+
   def clearQueryCaches(): Long =
     List(masterCompiler.clearCaches(), queryCache.clear(), preParser.clearCache()).max
 
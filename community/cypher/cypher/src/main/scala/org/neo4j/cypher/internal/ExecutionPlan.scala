@@ -81,6 +81,8 @@ abstract class DelegatingExecutionPlan(inner: ExecutionPlan) extends ExecutionPl
   ): RuntimeResult =
     inner.run(queryContext, executionMode, params, prePopulateResults, input, subscriber)
 
+  override def threadSafeExecutionResources(): Option[ResourceManagerFactory] = inner.threadSafeExecutionResources()
+
   override def runtimeName: RuntimeName = inner.runtimeName
 
   override def metadata: Seq[Argument] = inner.metadata
@@ -83,6 +83,14 @@ case class PreParsedQuery(
 
   def rawPreparserOptions: String = rawStatement.take(rawStatement.length - statement.length)
 
+  /**
+   * The statement prefixed with its Cypher options, but not with its execution mode. Pre-parses to the same cache key.
+   */
+  def statementWithCypherOptions: String = {
+    val cypherOptions = options.queryOptions.renderCypherOptions
+    if (cypherOptions.isBlank) statement else s"CYPHER $cypherOptions $statement"
+  }
+
   override def description: String = rawStatement
 
   override def withRecompilationLimitReached: PreParsedQuery = copy(options = options.withRecompilationLimitReached)
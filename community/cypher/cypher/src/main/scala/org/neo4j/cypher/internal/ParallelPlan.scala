@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.expressions.CountStar
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.FunctionInvocation
+import org.neo4j.cypher.internal.expressions.LogicalVariable
+import org.neo4j.cypher.internal.expressions.UnPositionedVariable.varFor
+import org.neo4j.cypher.internal.expressions.functions.Avg
+import org.neo4j.cypher.internal.expressions.functions.Collect
+import org.neo4j.cypher.internal.expressions.functions.Count
+import org.neo4j.cypher.internal.expressions.functions.Max
+import org.neo4j.cypher.internal.expressions.functions.Min
+import org.neo4j.cypher.internal.expressions.functions.Sum
+import org.neo4j.cypher.internal.frontend.phases.ResolvedFunctionInvocation
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.CacheProperties
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.Expand.ExpandAll
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.LogicalUnaryPlan
+import org.neo4j.cypher.internal.logical.plans.NestedPlanExpression
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.NodeLogicalLeafPlan
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.runtime.slotted.parallel.AvgPartial
+import org.neo4j.cypher.internal.runtime.slotted.parallel.CollectPartial
+import org.neo4j.cypher.internal.runtime.slotted.parallel.CountPartial
+import org.neo4j.cypher.internal.runtime.slotted.parallel.MinMaxPartial
+import org.neo4j.cypher.internal.runtime.slotted.parallel.PartialAggregation
+import org.neo4j.cypher.internal.runtime.slotted.parallel.SumPartial
+import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SameId
+
+/**
+ * A query plan split into the part that is executed by every worker of the parallel runtime, and the part that is
+ * executed once over the merged results of the workers.
+ *
+ * @param leaf the node scan that is split into morsels
+ * @param workerPlan plan executed by every worker, reading the morsels of the leaf scan as input. Ends with a partial
+ *                   aggregation over the morsels seen by the worker.
+ * @param workerColumns result columns of the worker plan, the grouping columns followed by the partial columns
+ * @param groupingWidth number of grouping columns
+ * @param aggregations merge functions of the partial columns, in order
+ * @param finalPlan plan executed over the merged aggregation rows, read as input
+ */
+case class ParallelPlan(
+  leaf: NodeLogicalLeafPlan,
+  workerPlan: LogicalPlan,
+  workerColumns: Array[String],
+  groupingWidth: Int,
+  aggregations: Array[PartialAggregation],
+  finalPlan: LogicalPlan
+)
+
+object ParallelPlan {
+
+  /**
+   * Split a plan that aggregates over a chain of filters, projections and expands on top of a node scan. Everything
+   * up to and including the aggregation runs on the workers, so the aggregation must be mergeable. Anything on top
+   * of the aggregation runs as is over the merged rows.
+   *
+   * @return the split plan, or `None` if the plan does not have this shape
+   */
+  def split(plan: LogicalPlan, anonymousVariableNameGenerator: AnonymousVariableNameGenerator)(implicit
+  idGen: IdGen): Option[ParallelPlan] = plan match {
+    case produceResult: ProduceResult =>
+      for {
+        aggregation <- findAggregation(produceResult.source)
+        leaf <- morselLeaf(aggregation.source)
+        partials <- partialAggregations(aggregation)
+      } yield split(produceResult, aggregation, leaf, partials, anonymousVariableNameGenerator)
+    case _ => None
+  }
+
+  private def split(
+    produceResult: ProduceResult,
+    aggregation: Aggregation,
+    leaf: NodeLogicalLeafPlan,
+    partials: Seq[(LogicalVariable, PartialAggregation, Seq[Expression])],
+    anonymousVariableNameGenerator: AnonymousVariableNameGenerator
+  )(implicit idGen: IdGen): ParallelPlan = {
+    val groupingColumns = aggregation.groupingExpressions.keys.toSeq
+    val partialColumns = partials.flatMap {
+      case (variable, _, expressions) =>
+        // the first partial column reuses the name of the aggregation, any additional ones get fresh names
+        (variable +: Seq.fill(expressions.size - 1)(varFor(anonymousVariableNameGenerator.nextName)))
+          .zip(expressions)
+    }
+
+    val morsels = Input(Seq(leaf.idName), Seq.empty, Seq.empty, nullable = false)(idGen)
+    val partialAggregation =
+      Aggregation(replace(aggregation.source, leaf, morsels), aggregation.groupingExpressions, partialColumns.toMap)(
+        idGen
+      )
+    val workerColumns = groupingColumns ++ partialColumns.map(_._1)
+    val workerPlan = ProduceResult.withNoCachedProperties(partialAggregation, workerColumns)(idGen)
+
+    val merged = Input(Seq.empty, Seq.empty, groupingColumns ++ partials.map(_._1), nullable = true)(idGen)
+    val finalPlan = replace(produceResult, aggregation, merged)
+
+    ParallelPlan(
+      leaf,
+      workerPlan,
+      workerColumns.map(_.name).toArray,
+      groupingColumns.size,
+      partials.map(_._2).toArray,
+      finalPlan
+    )
+  }
+
+  private def findAggregation(plan: LogicalPlan): Option[Aggregation] = plan match {
+    case aggregation: Aggregation if morselLeaf(aggregation.source).isDefined => Some(aggregation)
+    case unary: LogicalUnaryPlan                                             => findAggregation(unary.source)
+    case _                                                                   => None
+  }
+
+  private def morselLeaf(plan: LogicalPlan): Option[NodeLogicalLeafPlan] = plan match {
+    case scan: AllNodesScan if scan.argumentIds.isEmpty => Some(scan)
+    case scan: NodeByLabelScan if scan.argumentIds.isEmpty && scan.indexOrder == IndexOrderNone => Some(scan)
+    case Selection(_, source)                                                                  => morselLeaf(source)
+    case Projection(source, _)                                                                 => morselLeaf(source)
+    case CacheProperties(source, _)                                                            => morselLeaf(source)
+    case Expand(source, _, _, _, _, _, ExpandAll)                                              => morselLeaf(source)
+    case _                                                                                     => None
+  }
+
+  /**
+   * Nested plans and user defined functions need the transaction, which can not be accessed from worker threads.
+   */
+  private def workerSafe(aggregation: Aggregation): Boolean = !aggregation.folder.treeExists {
+    case _: NestedPlanExpression       => true
+    case _: ResolvedFunctionInvocation => true
+  }
+
+  private def partialAggregations(aggregation: Aggregation)
+    : Option[Seq[(LogicalVariable, PartialAggregation, Seq[Expression])]] = {
+    val partials = aggregation.aggregationExpressions.toSeq.map {
+      case (variable, expression) => partialAggregation(expression).map {
+          case (partial, expressions) => (variable, partial, expressions)
+        }
+    }
+    if (workerSafe(aggregation) && partials.forall(_.isDefined)) Some(partials.flatten) else None
+  }
+
+  private def partialAggregation(expression: Expression): Option[(PartialAggregation, Seq[Expression])] =
+    expression match {
+      case countStar: CountStar => Some(CountPartial -> Seq(countStar))
+      case f: FunctionInvocation if !f.distinct && !f.isOrdered && f.args.size == 1 =>
+        f.function match {
+          case Count   => Some(CountPartial -> Seq(f))
+          case Sum     => Some(SumPartial -> Seq(f))
+          case Min     => Some(MinMaxPartial(min = true) -> Seq(f))
+          case Max     => Some(MinMaxPartial(min = false) -> Seq(f))
+          case Collect => Some(CollectPartial -> Seq(f))
+          case Avg     => Some(AvgPartial -> Seq(f, Count.asInvocation(f.args.head)(f.position)))
+          case _       => None
+        }
+      case _ => None
+    }
+
+  private def replace(plan: LogicalPlan, target: LogicalPlan, replacement: LogicalPlan): LogicalPlan =
+    if (plan eq target) {
+      replacement
+    } else {
+      plan match {
+        case unary: LogicalUnaryPlan => unary.withLhs(replace(unary.source, target, replacement))(SameId(unary.id))
+        case _                       => throw new IllegalStateException(s"$target is not on the left branch of $plan")
+      }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.options.CypherRuntimeOption
+import org.neo4j.cypher.internal.plandescription.Argument
+import org.neo4j.cypher.internal.runtime.ExecutionMode
+import org.neo4j.cypher.internal.runtime.InputCursor
+import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.NormalMode
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.QueryIndexes
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.ResourceMonitor
+import org.neo4j.cypher.internal.runtime.ThreadSafeResourceManager
+import org.neo4j.cypher.internal.runtime.slotted.parallel.MorselScan
+import org.neo4j.cypher.internal.runtime.slotted.parallel.PartialAggregationTable
+import org.neo4j.cypher.internal.runtime.slotted.parallel.PartialRowCollector
+import org.neo4j.cypher.internal.util.InternalNotification
+import org.neo4j.cypher.result.RuntimeResult
+import org.neo4j.exceptions.CantCompileQueryException
+import org.neo4j.internal.helpers.Exceptions
+import org.neo4j.io.IOUtils
+import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.kernel.impl.query.TransactionalContext.DatabaseMode
+import org.neo4j.scheduler.Group
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.MapValue
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.atomic.AtomicBoolean
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Runtime that executes aggregations over node scans on multiple threads.
+ *
+ * The node scan is split into morsels, which are handed out to a pool of workers. Every worker runs the slotted
+ * pipeline up to the aggregation over the morsels it reserves, and aggregates what it sees into a partial aggregation
+ * of its own. The partial aggregations are merged on the transaction thread, after which the rest of the query, e.g.
+ * sorting and limits, runs in slotted pipes over the merged rows. See [[ParallelPlan]] for the supported queries,
+ * everything else falls back to the slotted runtime.
+ */
+object CommunityParallelRuntime extends CypherRuntime[RuntimeContext] {
+  override def name: String = "parallel"
+
+  override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.parallel)
+
+  @throws[CantCompileQueryException]
+  override def compileToExecutable(
+    query: LogicalQuery,
+    context: RuntimeContext,
+    databaseMode: DatabaseMode
+  ): ExecutionPlan = {
+    if (!query.readOnly) {
+      throw new CantCompileQueryException("Parallel runtime only supports read-only queries")
+    }
+    if (query.doProfile) {
+      throw new CantCompileQueryException("Parallel runtime does not support PROFILE")
+    }
+    val plan = ParallelPlan.split(query.logicalPlan, context.anonymousVariableNameGenerator)(query.idGen)
+      .getOrElse(throw new CantCompileQueryException("Parallel runtime only supports aggregations over node scans"))
+
+    val workerPlan = CommunitySlottedRuntime.compileToExecutable(
+      query.copy(logicalPlan = plan.workerPlan, resultColumns = plan.workerColumns),
+      context,
+      databaseMode
+    )
+    val finalPlan = CommunitySlottedRuntime.compileToExecutable(
+      query.copy(logicalPlan = plan.finalPlan),
+      context,
+      databaseMode
+    )
+    val singleThreadedPlan = CommunitySlottedRuntime.compileToExecutable(query, context, databaseMode)
+
+    val indexRegistrator = new QueryIndexRegistrator(context.schemaRead)
+    indexRegistrator.registerLabelScan()
+
+    new ParallelExecutionPlan(plan, indexRegistrator.result(), workerPlan, finalPlan, singleThreadedPlan)
+  }
+}
+
+/**
+ * @param singleThreadedPlan slotted plan of the whole query, used for transactions with changes, which can not be
+ *                           read from other threads than the transaction thread.
+ */
+class ParallelExecutionPlan(
+  plan: ParallelPlan,
+  queryIndexes: QueryIndexes,
+  workerPlan: ExecutionPlan,
+  finalPlan: ExecutionPlan,
+  singleThreadedPlan: ExecutionPlan
+) extends ExecutionPlan {
+
+  override def run(
+    queryContext: QueryContext,
+    executionMode: ExecutionMode,
+    params: MapValue,
+    prePopulateResults: Boolean,
+    input: InputDataStream,
+    subscriber: QuerySubscriber
+  ): RuntimeResult = {
+    val workers = ParallelExecutionPlan.numberOfWorkers(queryContext)
+    val scan =
+      if (queryContext.transactionalContext.dataRead.transactionStateHasChanges) None
+      else morselScan(queryContext, workers * ParallelExecutionPlan.MORSELS_PER_WORKER)
+
+    scan match {
+      case Some(morselScan) =>
+        val merged = new MergedRowsInput(() => aggregate(queryContext, morselScan, workers, params))
+        finalPlan.run(queryContext, executionMode, params, prePopulateResults, merged, subscriber)
+      case None =>
+        singleThreadedPlan.run(queryContext, executionMode, params, prePopulateResults, input, subscriber)
+    }
+  }
+
+  private def morselScan(queryContext: QueryContext, morsels: Int): Option[MorselScan] = plan.leaf match {
+    case _: AllNodesScan =>
+      Some(MorselScan.allNodes(queryContext, morsels))
+    case scan: NodeByLabelScan =>
+      queryContext.getOptLabelId(scan.label.name) match {
+        case Some(label) =>
+          queryIndexes.initiateNodeTokenIndex(queryContext)
+            .map(session => MorselScan.nodesByLabel(queryContext, session, label, morsels))
+        case None =>
+          Some(MorselScan.empty)
+      }
+    case _ => None
+  }
+
+  /**
+   * Runs the worker plan on every worker and merges their partial aggregations. Worker query contexts are created
+   * and closed on the transaction thread, as required by the kernel execution contexts they wrap.
+   */
+  private def aggregate(
+    queryContext: QueryContext,
+    scan: MorselScan,
+    workers: Int,
+    params: MapValue
+  ): Iterator[Array[AnyValue]] = {
+    val cancelled = new AtomicBoolean(false)
+    val table = new PartialAggregationTable(
+      plan.groupingWidth,
+      plan.aggregations,
+      queryContext.transactionalContext.memoryTracker
+    )
+    val workerContexts = new ArrayBuffer[QueryContext](workers)
+    try {
+      (0 until workers).foreach(_ => workerContexts += queryContext.createParallelQueryContext())
+      val executor = queryContext.jobScheduler.executor(Group.CYPHER_WORKER)
+      val futures = workerContexts.map(workerContext =>
+        executor.submit(() => {
+          try {
+            runWorker(workerContext, scan, params, cancelled)
+          } catch {
+            case e: Throwable =>
+              cancelled.set(true)
+              throw e
+          }
+        })
+      )
+      var failure: Throwable = null
+      futures.foreach { future =>
+        try {
+          val collector = future.get()
+          try {
+            collector.foreach(table.merge)
+          } finally {
+            collector.close()
+          }
+        } catch {
+          case e: ExecutionException =>
+            failure = Exceptions.chain(failure, e.getCause)
+          case e: Throwable =>
+            cancelled.set(true)
+            failure = Exceptions.chain(failure, e)
+        }
+      }
+      if (failure != null) {
+        table.close()
+        throw failure
+      }
+    } finally {
+      IOUtils.closeAllUnchecked(workerContexts.toSeq: _*)
+    }
+    table.result()
+  }
+
+  private def runWorker(
+    workerContext: QueryContext,
+    scan: MorselScan,
+    params: MapValue,
+    cancelled: AtomicBoolean
+  ): PartialRowCollector = {
+    val collector =
+      new PartialRowCollector(plan.workerColumns.length, workerContext.transactionalContext.memoryTracker)
+    val input = scan.input(workerContext, cancelled)
+    try {
+      val result = workerPlan.run(workerContext, NormalMode, params, prePopulateResults = false, input, collector)
+      try {
+        result.request(Long.MaxValue)
+        result.await()
+      } finally {
+        result.close()
+      }
+    } catch {
+      case e: Throwable =>
+        collector.close()
+        throw e
+    } finally {
+      input.close()
+    }
+    collector
+  }
+
+  override def threadSafeExecutionResources(): Option[ResourceManagerFactory] =
+    Some(ParallelExecutionPlan.ThreadSafeResources)
+
+  override def runtimeName: RuntimeName = ParallelRuntimeName
+
+  override def metadata: Seq[Argument] = Seq.empty
+
+  override def notifications: Set[InternalNotification] = Set.empty
+}
+
+object ParallelExecutionPlan {
+
+  /**
+   * Number of morsels per worker the leaf scan is split into, more than one to even out the work between workers when
+   * the matching rows are not evenly spread over the scan.
+   */
+  val MORSELS_PER_WORKER = 8
+
+  object ThreadSafeResources extends ResourceManagerFactory {
+    override def apply(monitor: ResourceMonitor): ResourceManager = new ThreadSafeResourceManager(monitor)
+  }
+
+  /**
+   * See [[GraphDatabaseSettings.cypher_worker_limit]].
+   */
+  def numberOfWorkers(queryContext: QueryContext): Int = {
+    val limit: Int = queryContext.transactionalContext.config.get(GraphDatabaseSettings.cypher_worker_limit)
+    if (limit > 0) limit else Math.max(1, java.lang.Runtime.getRuntime.availableProcessors() + limit)
+  }
+}
+
+/**
+ * Input of the final plan: a single batch of merged aggregation rows, which are computed when the batch is requested.
+ */
+class MergedRowsInput(rows: () => Iterator[Array[AnyValue]]) extends InputDataStream {
+  private[this] var consumed = false
+
+  override def nextInputBatch(): InputCursor = {
+    if (consumed) {
+      null
+    } else {
+      consumed = true
+      val merged = rows()
+      new InputCursor {
+        private[this] var row: Array[AnyValue] = _
+
+        override def next(): Boolean = {
+          if (merged.hasNext) {
+            row = merged.next()
+            true
+          } else {
+            false
+          }
+        }
+
+        override def value(offset: Int): AnyValue = row(offset)
+
+        override def close(): Unit = {}
+      }
+    }
+  }
+}
@@ -23,6 +23,7 @@ import com.github.benmanes.caffeine.cache.Cache
 import com.github.benmanes.caffeine.cache.RemovalCause
 import com.github.benmanes.caffeine.cache.RemovalListener
 import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.QueryCache.HotEntry
 import org.neo4j.cypher.internal.cache.CacheSize
 import org.neo4j.cypher.internal.cache.CacheTracer
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
@@ -228,13 +229,15 @@ class QueryCache[QUERY_KEY <: AnyRef, EXECUTABLE_QUERY <: CacheabilityInfo](
    * The cached value wraps the value and maintains a count of how many times it has been fetched from the cache
    * and whether or not it has been recompiled with expression code generation.
    */
-  class CachedValue(val value: EXECUTABLE_QUERY, val recompiledWithExpressionCodeGen: Boolean) extends CacheEntry
+  class CachedValue(val value: EXECUTABLE_QUERY, val recompiledWithExpressionCodeGen: Boolean, initialHits: Int = 0)
+      extends CacheEntry
       with ComputationTarget {
 
-    @volatile private var _numberOfHits = 0
+    @volatile private var _numberOfHits = initialHits
 
     def markHit(): Unit = {
-      if (!recompiledWithExpressionCodeGen) {
+      // Keeps counting after recompilation, so that the hottest queries can be found by hottestEntries.
+      if (_numberOfHits < Int.MaxValue) {
         _numberOfHits += 1
       }
     }
@@ -472,7 +475,8 @@ class QueryCache[QUERY_KEY <: AnyRef, EXECUTABLE_QUERY <: CacheabilityInfo](
         compiler.maybeCompileWithExpressionCodeGen(cachedValue.numberOfHits, onRecompilation _) match {
           case Some(recompiledQuery) =>
             tracer.computeWithExpressionCodeGen(queryKey, metaData)
-            val recompiled = new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true)
+            val recompiled =
+              new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true, cachedValue.numberOfHits)
             inner.put(queryKey, recompiled)
             // If we get here, beingRecomputed must have been assigned.
             beingRecomputed.done(recompiled)
@@ -626,6 +630,73 @@ class QueryCache[QUERY_KEY <: AnyRef, EXECUTABLE_QUERY <: CacheabilityInfo](
     newExecutableQuery
   }
 
+  /**
+   * Compile and cache a query that is not in the cache, carrying over the number of hits it had in an earlier run.
+   * If it had been recompiled with expression code generation by then, it is compiled with expression code generation
+   * right away, provided that [[CompilerWithExpressionCodeGenOption.maybeCompileWithExpressionCodeGen]] still deems
+   * it hot enough.
+   *
+   * @param queryKey the queryKey to compile the query for
+   * @param compiler Compiler
+   * @param hits the number of cache hits to start out with
+   * @param recompiledWithExpressionCodeGen whether the query had been recompiled with expression code generation
+   * @return `true` if the query was compiled and cached, `false` if it was already in the cache or cannot be cached
+   */
+  def warmUp(
+    queryKey: QUERY_KEY,
+    compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+    hits: Int,
+    recompiledWithExpressionCodeGen: Boolean
+  ): Boolean = {
+    if (maximumSize.currentValue == 0) {
+      return false
+    }
+    val beingComputed = new BeingComputed()
+    if (inner.get(queryKey, _ => beingComputed) ne beingComputed) {
+      // Already cached, or being computed by a query that got there first.
+      return false
+    }
+
+    try {
+      val recompiled =
+        if (recompiledWithExpressionCodeGen) compiler.maybeCompileWithExpressionCodeGen(hits, () => true)
+        else None
+      val executableQuery = recompiled.getOrElse(compiler.compile())
+      if (executableQuery.shouldBeCached) {
+        val cachedValue = new CachedValue(executableQuery, recompiled.isDefined, hits)
+        inner.put(queryKey, cachedValue)
+        beingComputed.done(cachedValue)
+        if (recompiled.isDefined) tracer.computeWithExpressionCodeGen(queryKey, "")
+        else tracer.compute(queryKey, "")
+        true
+      } else {
+        inner.invalidate(queryKey)
+        beingComputed.done(DoItYourself)
+        false
+      }
+    } catch {
+      case e: Exception =>
+        inner.invalidate(queryKey)
+        beingComputed.failed(e)
+        throw e
+    }
+  }
+
+  /**
+   * The cached queries with the most hits, hottest first. Queries that are being computed are left out.
+   *
+   * @param limit maximum number of entries to return
+   */
+  def hottestEntries(limit: Int): Seq[HotEntry[QUERY_KEY, EXECUTABLE_QUERY]] =
+    inner.asMap().asScala.iterator
+      .collect {
+        case (key, cachedValue: CachedValue) =>
+          HotEntry(key, cachedValue.value, cachedValue.numberOfHits, cachedValue.recompiledWithExpressionCodeGen)
+      }
+      .toSeq
+      .sortBy(-_.hits)
+      .take(limit)
+
   /**
    * Method for clearing the LRUCache
    *
@@ -648,6 +719,16 @@ object QueryCache {
     txStateHasChanges: Boolean
   )
 
+  /**
+   * A cached query together with how often it was hit, see [[QueryCache.hottestEntries]].
+   */
+  final case class HotEntry[QUERY_KEY, EXECUTABLE_QUERY](
+    key: QUERY_KEY,
+    value: EXECUTABLE_QUERY,
+    hits: Int,
+    recompiledWithExpressionCodeGen: Boolean
+  )
+
   val NOT_PRESENT: ExecutableQuery = null
 
   /**
@@ -662,6 +743,8 @@ object QueryCache {
   ) {
     override def hashCode(): Int = _hashCode
 
+    def parameterTypes: java.util.Map[String, ParameterTypeInfo] = java.util.Collections.unmodifiableMap(resultMap)
+
     override def equals(obj: Any): Boolean = {
       obj match {
         case other: ParameterTypeMap if resultMap.size == other.resultMap.size =>
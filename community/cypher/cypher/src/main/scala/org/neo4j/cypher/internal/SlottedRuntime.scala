@@ -38,6 +38,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
 import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionResultBuilderFactory
 import org.neo4j.cypher.internal.runtime.slotted.SlottedPipeMapper
 import org.neo4j.cypher.internal.runtime.slotted.SlottedPipelineBreakingPolicy
+import org.neo4j.cypher.internal.runtime.slotted.expressions.CompiledSlottedExpressionConverter
 import org.neo4j.cypher.internal.runtime.slotted.expressions.MaterializedEntitiesExpressionConverter
 import org.neo4j.cypher.internal.runtime.slotted.expressions.SlottedExpressionConverters
 import org.neo4j.cypher.internal.util.CypherException
@@ -137,7 +138,9 @@ trait SlottedRuntime[-CONTEXT <: RuntimeContext] extends CypherRuntime[CONTEXT]
         converters,
         physicalPlan,
         query.readOnly,
-        queryIndexRegistrator
+        queryIndexRegistrator,
+        context.config.operatorSpillThreshold,
+        context.config.operatorSpillDirectory
       )(query.semanticTable)
       val pipeTreeBuilder = PipeTreeBuilder(pipeBuilder)
       val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(
@@ -200,4 +203,15 @@ object SlottedRuntime {
   val NO_METADATA: () => Seq[Argument] = () => Seq.empty[Argument]
 }
 
-object CommunitySlottedRuntime extends SlottedRuntime[RuntimeContext]
+object CommunitySlottedRuntime extends SlottedRuntime[RuntimeContext] {
+
+  override protected def compileExpressions(
+    baseConverters: List[ExpressionConverter],
+    context: RuntimeContext,
+    physicalPlan: PhysicalPlan,
+    query: LogicalQuery,
+    selectivityTrackerRegistrator: SelectivityTrackerRegistrator
+  ): (Option[ExpressionConverter], List[ExpressionConverter], () => Seq[Argument], () => Set[InternalNotification]) = {
+    (Some(CompiledSlottedExpressionConverter(physicalPlan)), baseConverters, NO_METADATA, NO_WARNINGS)
+  }
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.cache
+
+import org.neo4j.common.DependencyResolver
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings.cypher_query_plan_warmup_max_queries
+import org.neo4j.configuration.GraphDatabaseInternalSettings.cypher_query_plan_warmup_max_unavailable_time
+import org.neo4j.configuration.GraphDatabaseInternalSettings.cypher_query_plan_warmup_profiling_interval
+import org.neo4j.cypher.internal.ExecutableQuery
+import org.neo4j.cypher.internal.InputQuery
+import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.QueryCache.HotEntry
+import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.PersistedParameter
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.PersistedQuery
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.PROFILE_FILE
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.readProfile
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.sampleParameters
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.writeProfile
+import org.neo4j.cypher.internal.javacompat.ExecutionEngine
+import org.neo4j.cypher.internal.util.symbols.CTAny
+import org.neo4j.cypher.internal.util.symbols.CTBoolean
+import org.neo4j.cypher.internal.util.symbols.CTDate
+import org.neo4j.cypher.internal.util.symbols.CTDateTime
+import org.neo4j.cypher.internal.util.symbols.CTDuration
+import org.neo4j.cypher.internal.util.symbols.CTInteger
+import org.neo4j.cypher.internal.util.symbols.CTList
+import org.neo4j.cypher.internal.util.symbols.CTLocalDateTime
+import org.neo4j.cypher.internal.util.symbols.CTLocalTime
+import org.neo4j.cypher.internal.util.symbols.CTMap
+import org.neo4j.cypher.internal.util.symbols.CTPoint
+import org.neo4j.cypher.internal.util.symbols.CTString
+import org.neo4j.cypher.internal.util.symbols.CTTime
+import org.neo4j.cypher.internal.util.symbols.CypherType
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker
+import org.neo4j.internal.kernel.api.security.LoginContext
+import org.neo4j.io.fs.FileSystemAbstraction
+import org.neo4j.io.layout.DatabaseLayout
+import org.neo4j.kernel.api.Kernel
+import org.neo4j.kernel.api.KernelTransaction
+import org.neo4j.kernel.availability.DatabaseAvailabilityGuard
+import org.neo4j.kernel.availability.DescriptiveAvailabilityRequirement
+import org.neo4j.kernel.impl.coreapi.TransactionImpl
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer.PROFILES_DIRECTORY
+import org.neo4j.kernel.impl.query.QueryExecutionConfiguration
+import org.neo4j.kernel.impl.query.TransactionalContextFactory
+import org.neo4j.kernel.lifecycle.LifecycleAdapter
+import org.neo4j.logging.InternalLog
+import org.neo4j.logging.InternalLogProvider
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobHandle
+import org.neo4j.scheduler.JobMonitoringParams.systemJob
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.token.TokenHolders
+import org.neo4j.values.AnyValue
+import org.neo4j.values.ElementIdMapper
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption.REPLACE_EXISTING
+import java.time.LocalDate
+import java.time.ZoneOffset
+import java.util.concurrent.TimeUnit.MILLISECONDS
+import java.util.concurrent.TimeUnit.NANOSECONDS
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+import scala.jdk.CollectionConverters.MapHasAsScala
+import scala.util.Using
+
+/**
+ * Keeps the hottest entries of the executable query cache across restarts.
+ * <p>
+ * While the database is running, the hottest cached queries are periodically written to [[PROFILE_FILE]] in the
+ * profiles directory of the database, together with their hit counts, whether they were recompiled with expression
+ * code generation, and the types of their parameters. On the next start those queries are planned again in the
+ * background, hottest first. The database is held unavailable until that is done, or until
+ * [[cypher_query_plan_warmup_max_unavailable_time]] has passed, after which warmup carries on while the database is
+ * available. Queries are persisted as their statement with their Cypher options. Parameter values are never
+ * persisted, queries are planned with sample values of the persisted types instead, which gives the same cache keys.
+ * Profiling is not done before warmup is finished to not overwrite the profile of the previous run with the state of
+ * a cold cache.
+ */
+class QueryPlanWarmer(
+  engine: ExecutionEngine,
+  kernel: Kernel,
+  dependencies: DependencyResolver,
+  scheduler: JobScheduler,
+  config: Config,
+  logProvider: InternalLogProvider
+) extends LifecycleAdapter {
+  private val log: InternalLog = logProvider.getLog(getClass)
+  private val warmupRequirement = new DescriptiveAvailabilityRequirement("Query plan cache warmup")
+
+  private var fs: FileSystemAbstraction = _
+  private var profileFile: Path = _
+  private var databaseName: String = _
+  private var availabilityGuard: DatabaseAvailabilityGuard = _
+
+  @volatile private var stopped = false
+  @volatile private var warm = false
+  @volatile private var warmupHandle: JobHandle[_] = _
+  @volatile private var unavailableTimeHandle: JobHandle[_] = _
+  @volatile private var profileHandle: JobHandle[_] = _
+
+  override def start(): Unit = {
+    val databaseLayout = dependencies.resolveDependency(classOf[DatabaseLayout])
+    fs = dependencies.resolveDependency(classOf[FileSystemAbstraction])
+    profileFile = databaseLayout.databaseDirectory().resolve(PROFILES_DIRECTORY).resolve(PROFILE_FILE)
+    databaseName = databaseLayout.getDatabaseName
+    availabilityGuard = dependencies.resolveDependency(classOf[DatabaseAvailabilityGuard])
+
+    stopped = false
+    warm = false
+    val maxUnavailableTime = config.get(cypher_query_plan_warmup_max_unavailable_time).toMillis
+    if (maxUnavailableTime > 0) {
+      availabilityGuard.require(warmupRequirement)
+      unavailableTimeHandle = scheduler.schedule(
+        Group.CYPHER_CACHE,
+        systemJob(databaseName, "Query plan cache warmup time limit"),
+        (() => warmupTimedOut(maxUnavailableTime)): Runnable,
+        maxUnavailableTime,
+        MILLISECONDS
+      )
+    }
+    warmupHandle = scheduler.schedule(
+      Group.CYPHER_CACHE,
+      systemJob(databaseName, "Query plan cache warmup"),
+      (() => warmupAndStartProfiling()): Runnable
+    )
+  }
+
+  override def stop(): Unit = {
+    // Ongoing warmup checks this flag and bails out, so we do not wait for it to plan all queries.
+    stopped = true
+    synchronized {
+      cancel(warmupHandle)
+      cancel(profileHandle)
+      cancel(unavailableTimeHandle)
+      warmupHandle = null
+      profileHandle = null
+      unavailableTimeHandle = null
+    }
+    availabilityGuard.fulfill(warmupRequirement)
+  }
+
+  private def warmupTimedOut(maxUnavailableTime: Long): Unit = {
+    if (!stopped && !warm) {
+      log.info(
+        "Query plan cache warmup did not finish within %d ms, continuing while the database is available.",
+        maxUnavailableTime
+      )
+    }
+    availabilityGuard.fulfill(warmupRequirement)
+  }
+
+  private def warmupAndStartProfiling(): Unit = {
+    try {
+      warmup()
+    } catch {
+      case t: Throwable => log.warn("Query plan cache warmup failed.", t)
+    } finally {
+      availabilityGuard.fulfill(warmupRequirement)
+    }
+    synchronized {
+      cancel(unavailableTimeHandle)
+      unavailableTimeHandle = null
+      if (!stopped) {
+        warm = true
+        val interval = config.get(cypher_query_plan_warmup_profiling_interval).toMillis
+        profileHandle = scheduler.scheduleRecurring(
+          Group.CYPHER_CACHE,
+          systemJob(databaseName, "Query plan cache profiling"),
+          (() => scheduledProfile()): Runnable,
+          interval,
+          interval,
+          MILLISECONDS
+        )
+      }
+    }
+  }
+
+  private[cache] def warmup(): Int = {
+    if (!fs.fileExists(profileFile)) {
+      0
+    } else {
+      val queries = Using.resource(new DataInputStream(new GZIPInputStream(fs.openAsInputStream(profileFile))))(
+        readProfile
+      )
+      val startTime = System.nanoTime()
+      val tokenHolders = dependencies.resolveDependency(classOf[TokenHolders])
+      val contextFactory = dependencies.resolveDependency(classOf[TransactionalContextFactory])
+      val elementIdMapper = dependencies.resolveDependency(classOf[ElementIdMapper])
+      var planned = 0
+      val iterator = queries.iterator
+      while (!stopped && iterator.hasNext) {
+        val query = iterator.next()
+        try {
+          if (plan(query, tokenHolders, contextFactory, elementIdMapper)) {
+            planned += 1
+          }
+        } catch {
+          case e: Exception => log.debug("Failed to plan a query for query plan cache warmup.", e)
+        }
+      }
+      log.info(
+        "Query plan cache warmup planned %d of %d queries in %d ms.",
+        planned,
+        queries.size,
+        NANOSECONDS.toMillis(System.nanoTime() - startTime)
+      )
+      planned
+    }
+  }
+
+  /**
+   * Plan the query in a transaction of its own. The kernel is used directly rather than the database facade,
+   * because the facade does not hand out transactions before the database is available.
+   */
+  private def plan(
+    query: PersistedQuery,
+    tokenHolders: TokenHolders,
+    contextFactory: TransactionalContextFactory,
+    elementIdMapper: ElementIdMapper
+  ): Boolean = {
+    sampleParameters(query.parameters) match {
+      case None => false
+      case Some(params) =>
+        val kernelTransaction = kernel.beginTransaction(KernelTransaction.Type.IMPLICIT, LoginContext.AUTH_DISABLED)
+        Using.resource(new TransactionImpl(
+          tokenHolders,
+          contextFactory,
+          availabilityGuard,
+          engine,
+          kernelTransaction,
+          elementIdMapper
+        )) { transaction =>
+          val context =
+            contextFactory.newContext(transaction, query.query, params, QueryExecutionConfiguration.DEFAULT_CONFIG)
+          try {
+            engine.getCypherExecutionEngine.warmUp(
+              query.query,
+              params,
+              context,
+              query.hits,
+              query.recompiledWithExpressionCodeGen
+            )
+          } finally {
+            context.close()
+          }
+        }
+    }
+  }
+
+  private def scheduledProfile(): Unit = {
+    try {
+      if (!stopped) {
+        profile()
+      }
+    } catch {
+      case t: Throwable => log.warn("Query plan cache profiling failed.", t)
+    }
+  }
+
+  private[cache] def profile(): Unit = synchronized {
+    val readOnly = dependencies.resolveDependency(classOf[DatabaseReadOnlyChecker]).isReadOnly
+    val queries = engine.getCypherExecutionEngine
+      .hottestQueries(config.get(cypher_query_plan_warmup_max_queries))
+      .flatMap(PersistedQuery.from)
+    // An empty cache is most likely one that was just cleared, keep the previous profile around in that case.
+    if (!readOnly && queries.nonEmpty) {
+      fs.mkdirs(profileFile.getParent)
+      val tempFile = profileFile.resolveSibling(profileFile.getFileName.toString + ".tmp")
+      Using.resource(new DataOutputStream(new GZIPOutputStream(fs.openAsOutputStream(tempFile, false)))) { out =>
+        writeProfile(out, queries)
+      }
+      fs.renameFile(tempFile, profileFile, REPLACE_EXISTING)
+    }
+  }
+
+  private def cancel(handle: JobHandle[_]): Unit = {
+    if (handle != null) {
+      handle.cancel()
+    }
+  }
+}
+
+object QueryPlanWarmer {
+  val PROFILE_FILE = "query-plans.queryprof"
+
+  private val PROFILE_FORMAT_VERSION = 1
+
+  /**
+   * Largest string or list parameter size hint to persist. Sample values are created with this size, so queries with
+   * larger size hints are left out.
+   */
+  private val MAX_SAMPLE_SIZE = 10_000
+
+  /**
+   * The parameter types that can be persisted, with a way to create a sample value of each type.
+   * The position in this list is what is persisted, so new types must only be added at the end.
+   * Floats are typed as [[CTAny]], see [[org.neo4j.cypher.internal.util.symbols.ParameterTypeInfo.FLOAT]].
+   */
+  private val sampleTypes: IndexedSeq[(CypherType, Int => AnyValue)] = IndexedSeq(
+    CTAny -> (_ => Values.doubleValue(0)),
+    CTBoolean -> (_ => Values.FALSE),
+    CTInteger -> (_ => Values.longValue(0)),
+    CTString -> (size => Values.stringValue("a".repeat(size))),
+    CTPoint -> (_ => Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 0, 0)),
+    CTDateTime -> (_ => DateTimeValue.datetime(0, 0, ZoneOffset.UTC)),
+    CTLocalDateTime -> (_ => LocalDateTimeValue.localDateTime(0, 0)),
+    CTTime -> (_ => TimeValue.time(0, ZoneOffset.UTC)),
+    CTLocalTime -> (_ => LocalTimeValue.localTime(0)),
+    CTDate -> (_ => DateValue.date(LocalDate.EPOCH)),
+    CTDuration -> (_ => DurationValue.duration(0, 0, 0, 0)),
+    CTMap -> (_ => VirtualValues.EMPTY_MAP),
+    // An empty list would not be typed as a list of strings
+    CTList(CTString) -> (size => VirtualValues.list(Seq.fill(math.max(size, 1))(Values.stringValue("")): _*)),
+    CTList(CTAny) -> (size => VirtualValues.list(Seq.fill(size)(Values.longValue(0)): _*))
+  )
+
+  final case class PersistedParameter(name: String, typeCode: Int, size: Int)
+
+  final case class PersistedQuery(
+    query: String,
+    parameters: Seq[PersistedParameter],
+    hits: Int,
+    recompiledWithExpressionCodeGen: Boolean
+  )
+
+  object PersistedQuery {
+
+    /**
+     * @return the entry in persistable form, or `None` if it was planned with transaction state, was not planned
+     *         from query text or has parameters of types that cannot be persisted.
+     */
+    def from(entry: HotEntry[CacheKey[InputQuery.CacheKey], ExecutableQuery]): Option[PersistedQuery] = {
+      if (entry.key.txStateHasChanges) {
+        None
+      } else {
+        for {
+          query <- entry.value.statementWithCypherOptions
+          parameters <- persistedParameters(entry.key.parameterTypeMap)
+        } yield PersistedQuery(query, parameters, entry.hits, entry.recompiledWithExpressionCodeGen)
+      }
+    }
+  }
+
+  /**
+   * @return the parameter types in persistable form, or `None` if any of them cannot be persisted.
+   */
+  def persistedParameters(parameterTypeMap: ParameterTypeMap): Option[Seq[PersistedParameter]] = {
+    val parameters = parameterTypeMap.parameterTypes.asScala.toSeq.map {
+      case (name, info) =>
+        val size = info.sizeHint.toOption.getOrElse(-1)
+        val typeCode = sampleTypes.indexWhere(_._1 == info.typ)
+        if (typeCode < 0 || size > MAX_SAMPLE_SIZE) None else Some(PersistedParameter(name, typeCode, size))
+    }
+    if (parameters.forall(_.isDefined)) Some(parameters.flatten) else None
+  }
+
+  /**
+   * @return parameters of the persisted types, or `None` if the types are unknown to this version.
+   */
+  def sampleParameters(parameters: Seq[PersistedParameter]): Option[MapValue] = {
+    if (parameters.exists(p => p.typeCode < 0 || p.typeCode >= sampleTypes.size)) {
+      None
+    } else {
+      val builder = new MapValueBuilder(parameters.size)
+      parameters.foreach { p =>
+        builder.add(p.name, sampleTypes(p.typeCode)._2(math.max(p.size, 0)))
+      }
+      Some(builder.build())
+    }
+  }
+
+  def writeProfile(out: DataOutputStream, queries: Seq[PersistedQuery]): Unit = {
+    out.writeInt(PROFILE_FORMAT_VERSION)
+    out.writeInt(queries.size)
+    queries.foreach { query =>
+      writeString(out, query.query)
+      out.writeInt(query.hits)
+      out.writeBoolean(query.recompiledWithExpressionCodeGen)
+      out.writeInt(query.parameters.size)
+      query.parameters.foreach { parameter =>
+        writeString(out, parameter.name)
+        out.writeByte(parameter.typeCode)
+        out.writeInt(parameter.size)
+      }
+    }
+  }
+
+  def readProfile(in: DataInputStream): Seq[PersistedQuery] = {
+    val version = in.readInt()
+    if (version != PROFILE_FORMAT_VERSION) {
+      throw new IOException("Unsupported query plan profile version " + version)
+    }
+    Seq.fill(in.readInt()) {
+      val query = readString(in)
+      val hits = in.readInt()
+      val recompiledWithExpressionCodeGen = in.readBoolean()
+      val parameters = Seq.fill(in.readInt()) {
+        PersistedParameter(readString(in), in.readByte(), in.readInt())
+      }
+      PersistedQuery(query, parameters, hits, recompiledWithExpressionCodeGen)
+    }
+  }
+
+  private def writeString(out: DataOutputStream, string: String): Unit = {
+    val bytes = string.getBytes(UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def readString(in: DataInputStream): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, UTF_8)
+  }
+}
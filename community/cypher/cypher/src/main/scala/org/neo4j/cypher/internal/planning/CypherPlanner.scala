@@ -410,7 +410,9 @@ case class CypherPlanner(
       log,
       internalNotificationStats,
       internalSyntaxUsageStats,
-      null
+      null,
+      // Lets the cardinality estimation look at the values of the auto extracted literals, like it does for parameters.
+      extractedParameterValues(syntacticQuery.maybeExtractedParams)
     )
 
     // Prepare query for caching
@@ -600,6 +602,15 @@ case class CypherPlanner(
   private def checkForSchemaChanges(tcw: TransactionalContextWrapper): Unit =
     tcw.getOrCreateFromSchemaState(schemaStateKey, caches.logicalPlanCache.clear())
 
+  private def extractedParameterValues(extracted: Option[Map[AutoExtractedParameter, Expression]]): MapValue = {
+    val evaluator = new SimpleInternalExpressionEvaluator
+    val mapBuilder = new MapValueBuilder()
+    extracted.getOrElse(Map.empty).foreach {
+      case (parameter, value) => mapBuilder.add(parameter.name, evaluator.evaluate(value))
+    }
+    mapBuilder.build()
+  }
+
   private def parameterNamesAndValues(
     statement: Statement,
     extracted: Option[Map[AutoExtractedParameter, Expression]]
@@ -19,9 +19,11 @@
  */
 package org.neo4j.cypher.internal.spi
 
+import org.neo4j.cypher.internal.logical.plans.Bound
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.PropertyValueDistribution
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
@@ -30,11 +32,14 @@ import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
 import org.neo4j.internal.schema
+import org.neo4j.kernel.api.index.PropertyHistogram
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.InternalLog
 import org.neo4j.token.api.TokenConstants
+import org.neo4j.values.storable.Value
 
 import java.lang.Math.min
+import java.util.OptionalDouble
 
 import scala.jdk.CollectionConverters.ListHasAsScala
 
@@ -111,6 +116,17 @@ object TransactionBoundGraphStatistics {
           None
       }
 
+    override def propertyValueDistribution(index: IndexDescriptor): Option[PropertyValueDistribution] =
+      try {
+        maybeKernelIndexDescriptor(index)
+          .flatMap(indexDescriptor => Option(schemaRead.indexSample(indexDescriptor).histogram()))
+          .map(HistogramPropertyValueDistribution)
+      } catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug("Index not found for propertyValueDistribution", e)
+          None
+      }
+
     override def nodesAllCardinality(): Cardinality =
       Cardinality(read.estimateCountsForNode(TokenConstants.ANY_LABEL))
 
@@ -135,4 +151,25 @@ object TransactionBoundGraphStatistics {
         .filter(_ != schema.IndexDescriptor.NO_INDEX)
     }
   }
+
+  private case class HistogramPropertyValueDistribution(histogram: PropertyHistogram)
+      extends PropertyValueDistribution {
+
+    override def equalitySelectivity(value: Value): Option[Selectivity] =
+      asSelectivity(histogram.equalitySelectivity(value))
+
+    override def rangeSelectivity(lower: Option[Bound[Value]], upper: Option[Bound[Value]]): Option[Selectivity] =
+      asSelectivity(histogram.rangeSelectivity(
+        lower.map(_.endPoint).orNull,
+        lower.exists(_.isInclusive),
+        upper.map(_.endPoint).orNull,
+        upper.exists(_.isInclusive)
+      ))
+
+    override def averageEqualitySelectivity: Selectivity =
+      Selectivity.of(histogram.averageEqualitySelectivity()).getOrElse(Selectivity.ONE)
+
+    private def asSelectivity(selectivity: OptionalDouble): Option[Selectivity] =
+      if (selectivity.isPresent) Selectivity.of(selectivity.getAsDouble) else None
+  }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.compiler.helpers.LogicalPlanBuilder
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.Limit
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.runtime.slotted.parallel.AvgPartial
+import org.neo4j.cypher.internal.runtime.slotted.parallel.CountPartial
+import org.neo4j.cypher.internal.runtime.slotted.parallel.MinMaxPartial
+import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class ParallelPlanTest extends CypherFunSuite {
+
+  private def split(builder: LogicalPlanBuilder): Option[ParallelPlan] =
+    ParallelPlan.split(builder.build(), new AnonymousVariableNameGenerator)(builder.idGen)
+
+  test("should split aggregation over all nodes scan") {
+    val plan = split(new LogicalPlanBuilder()
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(*) AS c"))
+      .allNodeScan("n")).get
+
+    plan.leaf shouldBe an[AllNodesScan]
+    plan.workerColumns shouldBe Array("c")
+    plan.groupingWidth shouldBe 0
+    plan.aggregations shouldBe Array(CountPartial)
+
+    plan.workerPlan match {
+      case ProduceResult(Aggregation(input: Input, grouping, aggregations), _) =>
+        input.nodes.map(_.name) shouldBe Seq("n")
+        grouping shouldBe empty
+        aggregations.keys.map(_.name) shouldBe Set("c")
+      case other => fail(s"unexpected worker plan $other")
+    }
+    plan.finalPlan match {
+      case ProduceResult(input: Input, _) => input.variables.map(_.name) shouldBe Seq("c")
+      case other                          => fail(s"unexpected final plan $other")
+    }
+  }
+
+  test("should keep filters on the workers and plans above the aggregation in the final plan") {
+    val plan = split(new LogicalPlanBuilder()
+      .produceResults("k", "m")
+      .limit(10)
+      .aggregation(Seq("n.k AS k"), Seq("max(n.v) AS m"))
+      .filter("n.v > 0")
+      .nodeByLabelScan("n", "L")).get
+
+    plan.workerColumns shouldBe Array("k", "m")
+    plan.groupingWidth shouldBe 1
+    plan.aggregations shouldBe Array(MinMaxPartial(min = false))
+
+    plan.workerPlan match {
+      case ProduceResult(Aggregation(Selection(_, _: Input), _, _), _) =>
+      case other => fail(s"unexpected worker plan $other")
+    }
+    plan.finalPlan match {
+      case ProduceResult(Limit(input: Input, _), _) => input.variables.map(_.name) shouldBe Seq("k", "m")
+      case other                                    => fail(s"unexpected final plan $other")
+    }
+  }
+
+  test("should compute a count next to every average") {
+    val plan = split(new LogicalPlanBuilder()
+      .produceResults("a")
+      .aggregation(Seq.empty, Seq("avg(n.v) AS a"))
+      .allNodeScan("n")).get
+
+    plan.aggregations shouldBe Array(AvgPartial)
+    plan.workerColumns should have length 2
+    plan.workerColumns.head shouldBe "a"
+  }
+
+  test("should not split plans it can not merge") {
+    def shouldNotSplit(builder: LogicalPlanBuilder): Unit = withClue(builder.build()) {
+      split(builder) shouldBe None
+    }
+
+    shouldNotSplit(new LogicalPlanBuilder()
+      .produceResults("n")
+      .allNodeScan("n"))
+    shouldNotSplit(new LogicalPlanBuilder()
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(DISTINCT n) AS c"))
+      .allNodeScan("n"))
+    shouldNotSplit(new LogicalPlanBuilder()
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("stDev(n.v) AS c"))
+      .allNodeScan("n"))
+    shouldNotSplit(new LogicalPlanBuilder()
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(*) AS c"))
+      .limit(10)
+      .allNodeScan("n"))
+  }
+}
@@ -371,4 +371,19 @@ class PreParserTest extends CypherFunSuite {
       shouldFail(s"RETURN 1", combo.optionA.asSetting, combo.optionB.asSetting)
     }
   }
+
+  test("statement with Cypher options should pre-parse to the same cache key") {
+    Seq(
+      "MATCH (n) RETURN n",
+      "CYPHER runtime=slotted MATCH (n) RETURN n",
+      "CYPHER planner=dp runtime=slotted replan=skip MATCH (n) RETURN n",
+      "EXPLAIN CYPHER expressionEngine=compiled RETURN 1"
+    ).foreach { query =>
+      withClue(s"query: $query") {
+        val preParsedQuery = preParse(query)
+
+        preParse(preParsedQuery.statementWithCypherOptions).cacheKey should equal(preParsedQuery.cacheKey)
+      }
+    }
+  }
 }
@@ -444,6 +444,83 @@ class QueryCacheTest extends CypherFunSuite {
     queryTracer.dequeueAllCacheUsage() shouldEqual (QueryCacheUsage.MISS +: Seq.fill(99)(QueryCacheUsage.HIT))
   }
 
+  test("warm up should compile and cache a missing query") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer)
+    val key = newKey("foo")
+
+    // When
+    val warmedUp =
+      cache.warmUp(key, compilerWithExpressionCodeGenOption(key), 0, recompiledWithExpressionCodeGen = false)
+    val valueFromCache =
+      cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+
+    // Then
+    warmedUp shouldBe true
+    valueFromCache should equal(compiled(key))
+    valueFromCache.compiledWithExpressionCodeGen should equal(false)
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).compute(key, "")
+    o.verify(tracer).cacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
+  test("warm up should restore expression code generation of hot queries") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer)
+    val key = newKey("foo")
+
+    // When
+    cache.warmUp(key, compilerWithExpressionCodeGenOption(key), 10, recompiledWithExpressionCodeGen = true)
+    val valueFromCache =
+      cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+
+    // Then
+    valueFromCache.compiledWithExpressionCodeGen should equal(true)
+    cache.hottestEntries(10).map(_.hits) should equal(Seq(11))
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).computeWithExpressionCodeGen(key, "")
+    o.verify(tracer).cacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
+  test("warm up should not replace cached queries") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer)
+    val key = newKey("foo")
+    cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+
+    // When
+    val warmedUp =
+      cache.warmUp(key, compilerWithExpressionCodeGenOption(key), 10, recompiledWithExpressionCodeGen = true)
+
+    // Then
+    warmedUp shouldBe false
+    cache.hottestEntries(10).map(entry => (entry.key, entry.hits, entry.recompiledWithExpressionCodeGen)) should equal(
+      Seq((key, 0, false))
+    )
+  }
+
+  test("hottest entries should be ordered by hits and limited") {
+    // Given
+    val cache = newCache()
+    val keys = Seq("a", "b", "c").map(newKey)
+
+    // When
+    keys.zipWithIndex.foreach {
+      case (key, hits) =>
+        (0 to hits).foreach(_ =>
+          cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+        )
+    }
+
+    // Then
+    cache.hottestEntries(2).map(entry => (entry.key, entry.hits)) should equal(Seq(keys(2) -> 2, keys(1) -> 1))
+  }
+
   test("parameterTypeMap should equal if same parameters") {
     val params1 = VirtualValues.map(
       Array("a", "b", "c"),
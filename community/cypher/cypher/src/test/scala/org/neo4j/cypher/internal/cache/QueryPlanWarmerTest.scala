@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.cache
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.ExecutableQuery
+import org.neo4j.cypher.internal.InputQuery
+import org.neo4j.cypher.internal.QueryCache
+import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.QueryCache.HotEntry
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.PersistedQuery
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.persistedParameters
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.readProfile
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.sampleParameters
+import org.neo4j.cypher.internal.cache.QueryPlanWarmer.writeProfile
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.time.LocalDate
+
+class QueryPlanWarmerTest extends CypherFunSuite {
+
+  private val params = VirtualValues.map(
+    Array("int", "float", "string", "strings", "numbers", "date", "duration", "map", "null"),
+    Array(
+      Values.longValue(42),
+      Values.doubleValue(4.2),
+      Values.stringValue("foo".repeat(20)),
+      VirtualValues.list(Values.stringValue("a"), Values.stringValue("b")),
+      VirtualValues.range(0, 17, 1),
+      DateValue.date(LocalDate.of(2020, 2, 2)),
+      DurationValue.duration(1, 2, 3, 4),
+      VirtualValues.map(Array("key"), Array(Values.TRUE)),
+      Values.NO_VALUE
+    )
+  )
+
+  test("sample parameters should have the same types as the persisted parameters") {
+    for (useSizeHint <- Seq(true, false)) {
+      withClue(s"useSizeHint = $useSizeHint") {
+        val typeMap = QueryCache.extractParameterTypeMap(params, useSizeHint)
+
+        val samples = persistedParameters(typeMap).flatMap(sampleParameters)
+
+        samples.map(QueryCache.extractParameterTypeMap(_, useSizeHint)) should equal(Some(typeMap))
+      }
+    }
+  }
+
+  test("should not persist parameters with too large size hints") {
+    val typeMap = QueryCache.extractParameterTypeMap(
+      VirtualValues.map(Array("huge"), Array(Values.stringValue("a".repeat(100_001)))),
+      useSizeHint = true
+    )
+
+    persistedParameters(typeMap) should equal(None)
+  }
+
+  test("should not sample parameters of unknown types") {
+    sampleParameters(Seq(QueryPlanWarmer.PersistedParameter("p", 1000, -1))) should equal(None)
+  }
+
+  test("should read written profile") {
+    val queries = Seq(
+      PersistedQuery("MATCH (n) RETURN n", Seq.empty, 10, recompiledWithExpressionCodeGen = true),
+      PersistedQuery(
+        "CYPHER runtime=slotted MATCH (n) WHERE n.name = $name RETURN n",
+        persistedParameters(QueryCache.extractParameterTypeMap(params, useSizeHint = true)).get,
+        3,
+        recompiledWithExpressionCodeGen = false
+      )
+    )
+    val bytes = new ByteArrayOutputStream()
+
+    writeProfile(new DataOutputStream(bytes), queries)
+
+    readProfile(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))) should equal(queries)
+  }
+
+  test("should persist the statement with its Cypher options") {
+    val typeMap = QueryCache.extractParameterTypeMap(params, useSizeHint = true)
+    val key = CacheKey(InputQuery.CacheKey("CYPHER runtime=slotted", "RETURN $int"), typeMap, txStateHasChanges = false)
+    val executableQuery = mock[ExecutableQuery]
+    when(executableQuery.statementWithCypherOptions).thenReturn(Some("CYPHER runtime=slotted RETURN $int"))
+
+    PersistedQuery.from(HotEntry(key, executableQuery, 7, recompiledWithExpressionCodeGen = true)) should equal(
+      Some(PersistedQuery("CYPHER runtime=slotted RETURN $int", persistedParameters(typeMap).get, 7, true))
+    )
+  }
+
+  test("should not persist queries that were not planned from query text or with transaction state") {
+    val typeMap = QueryCache.extractParameterTypeMap(VirtualValues.EMPTY_MAP, useSizeHint = true)
+    val key = CacheKey(InputQuery.CacheKey("", "RETURN 1"), typeMap, txStateHasChanges = false)
+    val fromText = mock[ExecutableQuery]
+    when(fromText.statementWithCypherOptions).thenReturn(Some("RETURN 1"))
+    val notFromText = mock[ExecutableQuery]
+    when(notFromText.statementWithCypherOptions).thenReturn(None)
+
+    PersistedQuery.from(HotEntry(key, notFromText, 7, recompiledWithExpressionCodeGen = false)) should equal(None)
+    PersistedQuery.from(
+      HotEntry(key.copy(txStateHasChanges = true), fromText, 7, recompiledWithExpressionCodeGen = false)
+    ) should equal(None)
+  }
+}
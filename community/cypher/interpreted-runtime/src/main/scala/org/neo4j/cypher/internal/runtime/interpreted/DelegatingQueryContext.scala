@@ -851,6 +851,8 @@ class DelegatingQueryTransactionalContext(val inner: QueryTransactionalContext)
 
   override def kernelExecutionContext: ExecutionContext = inner.kernelExecutionContext
 
+  override def createKernelExecutionContext(): ExecutionContext = inner.createKernelExecutionContext()
+
   override def createValueMapper: ValueMapper[AnyRef] = inner.createValueMapper
 
   override def constituentTransactionFactory: ConstituentTransactionFactory = inner.constituentTransactionFactory
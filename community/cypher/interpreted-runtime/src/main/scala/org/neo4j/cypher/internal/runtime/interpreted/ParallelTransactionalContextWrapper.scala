@@ -81,6 +81,8 @@ class ParallelTransactionalContextWrapper(
 
   override def kernelExecutionContext: ExecutionContext = _kernelExecutionContext
 
+  override def createKernelExecutionContext(): ExecutionContext = unsupported()
+
   override def commitTransaction(): Unit = unsupported()
 
   override def kernelQueryContext: QueryContext = _kernelExecutionContext.queryContext
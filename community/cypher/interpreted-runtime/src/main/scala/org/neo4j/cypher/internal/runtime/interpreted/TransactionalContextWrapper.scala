@@ -199,6 +199,8 @@ class SingleThreadedTransactionalContextWrapper(tc: TransactionalContext)
   override def kernelExecutionContext: ExecutionContext =
     throw new UnsupportedOperationException("operation only possible in parallel runtime")
 
+  override def createKernelExecutionContext(): ExecutionContext = tc.kernelTransaction().createExecutionContext()
+
   override def createValueMapper: ValueMapper[AnyRef] = {
     new DefaultValueMapper(tc.transaction())
   }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.internal.kernel.api.helpers.traversal.ParallelFrontierExpansion
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.Group
+
+object ParallelFrontierExpansionFactory {
+
+  /**
+   * Reads large frontiers of shortest path searches on the Cypher worker pool, see
+   * [[GraphDatabaseInternalSettings.cypher_parallel_shortest_path_frontier_threshold]].
+   * Must be closed after the searches using it.
+   */
+  def apply(state: QueryState, memoryTracker: MemoryTracker): ParallelFrontierExpansion = {
+    val tc = state.query.transactionalContext
+    val config = tc.config
+    val threshold: Int = config.get(GraphDatabaseInternalSettings.cypher_parallel_shortest_path_frontier_threshold)
+    val limit: Int = config.get(GraphDatabaseSettings.cypher_worker_limit)
+    val threads = if (limit > 0) limit else Math.max(1, java.lang.Runtime.getRuntime.availableProcessors() + limit)
+    ParallelFrontierExpansion.forTransaction(
+      threshold,
+      threads,
+      state.query.jobScheduler.executor(Group.CYPHER_WORKER),
+      tc.dataRead,
+      () => tc.createKernelExecutionContext(),
+      memoryTracker
+    )
+  }
+}
@@ -83,6 +83,8 @@ case class ShortestPathPipe(
         needOnlyOnePath,
         allowZeroLength
       )
+      val parallelExpansion = ParallelFrontierExpansionFactory(state, memoryTracker)
+      biDirectionalBFS.setParallelExpansion(parallelExpansion)
       val pathPredicate = pathPredicates.foldLeft(True(): commands.predicates.Predicate)(_.andWith(_))
       val output = input.flatMap {
         row =>
@@ -138,7 +140,7 @@ case class ShortestPathPipe(
             }
           }
       }
-      output.closing(traversalCursor).closing(nodeCursor).closing(biDirectionalBFS)
+      output.closing(traversalCursor).closing(nodeCursor).closing(biDirectionalBFS).closing(parallelExpansion)
     }
   }
 }
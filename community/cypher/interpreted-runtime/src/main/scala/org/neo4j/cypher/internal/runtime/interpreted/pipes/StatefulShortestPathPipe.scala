@@ -78,6 +78,7 @@ case class StatefulShortestPathPipe(
       new PathTracer[CypherRow](memoryTracker, tracker, hooks)
     val pathPredicate =
       preFilters.fold[java.util.function.Predicate[CypherRow]](_ => true)(pred => pred.isTrue(_, state))
+    val parallelExpansion = ParallelFrontierExpansionFactory(state, memoryTracker)
 
     input.flatMap { inputRow =>
       // TODO will blow up if not a VirtualNodeValue, clean up later
@@ -95,6 +96,7 @@ case class StatefulShortestPathPipe(
             state.query.transactionalContext.dataRead,
             nodeCursor,
             traversalCursor,
+            parallelExpansion,
             pathTracer,
             withPathVariables(inputRow, _),
             pathPredicate,
@@ -113,7 +115,7 @@ case class StatefulShortestPathPipe(
             s"Expected to find a node at '($sourceNodeName)' but found $value instead"
           )
       }
-    }.closing(nodeCursor).closing(traversalCursor)
+    }.closing(nodeCursor).closing(traversalCursor).closing(parallelExpansion)
   }
 
   private def withPathVariables(original: CypherRow, stack: SignpostStack): CypherRow = {
@@ -70,6 +70,11 @@ trait GraphStatistics {
    * indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.prop IS NOT NULL|
    */
   def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /**
+   * Distribution of the values in a single property index, if the index has been sampled with a histogram.
+   */
+  def propertyValueDistribution(index: IndexDescriptor): Option[PropertyValueDistribution] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -90,6 +95,9 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyIsNotNullSelectivity(index)
 
+  override def propertyValueDistribution(index: IndexDescriptor): Option[PropertyValueDistribution] =
+    delegate.propertyValueDistribution(index)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 
   override def mostCommonLabelGivenRelationshipType(typ: Int): Seq[Int] =
@@ -111,6 +111,13 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     selectivity
   }
 
+  /**
+   * The distribution is not recorded in the snapshot. It is only used in combination with the property existence
+   * selectivity of the same index, which is recorded and changes as the index is updated.
+   */
+  override def propertyValueDistribution(index: IndexDescriptor): Option[PropertyValueDistribution] =
+    inner.propertyValueDistribution(index)
+
   override def nodesAllCardinality(): Cardinality =
     snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
 
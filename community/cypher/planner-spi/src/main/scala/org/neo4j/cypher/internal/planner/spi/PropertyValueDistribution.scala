@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.spi
+
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
+
+/**
+ * Distribution of the values of a single property index, as collected when the index was last sampled.
+ *
+ * All selectivities are relative to the entities in the index, i.e. the entities that have the property. They have to
+ * be combined with [[GraphStatistics.indexPropertyIsNotNullSelectivity]] to be relative to the label or relationship type.
+ */
+trait PropertyValueDistribution {
+
+  /**
+   * Probability of an entity in the index to have the given value, or None if values of this type are not described.
+   */
+  def equalitySelectivity(value: Value): Option[Selectivity]
+
+  /**
+   * Probability of an entity in the index to have a value within the given bounds, or None if values of this type are
+   * not described. At least one bound has to be given.
+   */
+  def rangeSelectivity(lower: Option[Bound[Value]], upper: Option[Bound[Value]]): Option[Selectivity]
+
+  /**
+   * Probability of an entity in the index to have a given value, when the value is not known while planning.
+   *
+   * Unlike [[GraphStatistics.uniqueValueSelectivity]] this accounts for skew, values that are more common are also more
+   * likely to be looked up.
+   */
+  def averageEqualitySelectivity: Selectivity
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.collection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.neo4j.io.IOUtils;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.TextArray;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueByteBufferCodec;
+import org.neo4j.values.virtual.CompositeDatabaseValue;
+import org.neo4j.values.virtual.FullNodeReference;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.ListValueBuilder;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+import org.neo4j.values.virtual.NodeIdReference;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.PathReference;
+import org.neo4j.values.virtual.PathValue;
+import org.neo4j.values.virtual.RelationshipReference;
+import org.neo4j.values.virtual.RelationshipValue;
+import org.neo4j.values.virtual.RelationshipVisitor;
+import org.neo4j.values.virtual.VirtualNodeReference;
+import org.neo4j.values.virtual.VirtualNodeValue;
+import org.neo4j.values.virtual.VirtualRelationshipValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+/**
+ * A temporary file that operators use to move rows out of the heap. A spill file is written once, from start to end,
+ * and can then be read any number of times. The file is deleted when the spill file is closed.
+ * <p>
+ * Values are written in a compact, private format: storable values use {@link ValueByteBufferCodec}, entity references
+ * are written as the references they are, entity values are written in full, with their labels, type and properties,
+ * and lists, maps and paths are written recursively. Any other value, such as entities of composite databases, makes
+ * the writer throw {@link UnsupportedValueException} and discard the record being written, in which case the caller is
+ * expected to keep its rows on heap instead.
+ */
+public final class SpillFile implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final byte NULL = 0;
+    private static final byte STORABLE = 1;
+    private static final byte NODE = 2;
+    private static final byte RELATIONSHIP = 3;
+    private static final byte LIST = 4;
+    private static final byte MAP = 5;
+    private static final byte PATH = 6;
+    private static final byte NODE_REFERENCE = 7;
+    private static final byte NODE_VALUE = 8;
+    private static final byte RELATIONSHIP_VALUE = 9;
+    private static final byte PATH_VALUE = 10;
+
+    private static final Consumer<RelationshipVisitor> IGNORE = relationship -> {};
+
+    private final Path path;
+    private Writer writer;
+    private long numberOfRecords;
+
+    private SpillFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Create a new, empty spill file in the given directory, or in the default temporary-file directory if
+     * {@code directory} is {@code null}.
+     */
+    public static SpillFile create(Path directory) {
+        try {
+            Path path = directory == null
+                    ? Files.createTempFile("neo4j-spill", ".tmp")
+                    : Files.createTempFile(directory, "neo4j-spill", ".tmp");
+            return new SpillFile(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the writer of this file. Records must be completed with {@link Writer#endRecord()}.
+     */
+    public Writer writer() {
+        if (writer == null) {
+            try {
+                writer = new Writer(
+                        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Flush and close the writer. No more records can be written after this.
+     */
+    public void finishWriting() {
+        if (writer != null) {
+            try {
+                writer.file.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return a new reader positioned at the first record. The file must have been completely written.
+     */
+    public Reader reader() {
+        try {
+            return new Reader(
+                    new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)),
+                    numberOfRecords);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long numberOfRecords() {
+        return numberOfRecords;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (writer != null) {
+                IOUtils.closeAllSilently(writer.file);
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Thrown when a value cannot be written to a spill file.
+     */
+    public static class UnsupportedValueException extends RuntimeException {
+        public UnsupportedValueException(String message) {
+            super(message);
+        }
+
+        UnsupportedValueException(AnyValue value) {
+            this("Value of type " + value.getClass().getSimpleName() + " cannot be spilled to disk");
+        }
+    }
+
+    public final class Writer {
+        private final DataOutputStream file;
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(record);
+        private final ValueByteBufferCodec.Writer valueWriter =
+                new ValueByteBufferCodec.Writer(256, new HeapByteBufferAllocator());
+
+        private Writer(DataOutputStream file) {
+            this.file = file;
+        }
+
+        public void writeLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Write a value to the current record. If the value is not supported the current record is discarded.
+         */
+        public void writeValue(AnyValue value) {
+            try {
+                write(value);
+            } catch (UnsupportedValueException e) {
+                record.reset();
+                throw e;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Complete the current record. Records are buffered on heap until they are complete, so that a record that
+         * fails to be written never ends up in the file.
+         */
+        public void endRecord() {
+            try {
+                record.writeTo(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            record.reset();
+            numberOfRecords++;
+        }
+
+        private void writeString(String value) throws IOException {
+            // Not writeUTF, which is limited to strings of 64KiB
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void write(AnyValue value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof Value storable) {
+                ByteBuffer bytes;
+                try {
+                    bytes = valueWriter.write(storable);
+                } catch (IllegalArgumentException e) {
+                    throw new UnsupportedValueException(value);
+                }
+                out.writeByte(STORABLE);
+                out.writeInt(bytes.remaining());
+                out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            } else if (value instanceof CompositeDatabaseValue) {
+                throw new UnsupportedValueException(value);
+            } else if (value instanceof NodeValue node) {
+                out.writeByte(NODE_VALUE);
+                out.writeLong(node.id());
+                writeString(node.elementId());
+                write(node.labels());
+                write(node.properties());
+                out.writeBoolean(node.isDeleted());
+            } else if (value instanceof FullNodeReference node) {
+                out.writeByte(NODE_REFERENCE);
+                out.writeLong(node.id());
+                writeString(node.elementId());
+            } else if (value instanceof NodeIdReference node) {
+                out.writeByte(NODE);
+                out.writeLong(node.id());
+            } else if (value instanceof RelationshipValue relationship) {
+                out.writeByte(RELATIONSHIP_VALUE);
+                out.writeLong(relationship.id());
+                writeString(relationship.elementId());
+                write(relationship.startNode());
+                write(relationship.endNode());
+                write(relationship.type());
+                write(relationship.properties());
+                out.writeBoolean(relationship.isDeleted());
+            } else if (value instanceof RelationshipReference relationship) {
+                // Write what the reference knows about the relationship, without looking up what it doesn't
+                out.writeByte(RELATIONSHIP);
+                out.writeLong(relationship.id());
+                out.writeLong(relationship.startNodeId(IGNORE));
+                out.writeLong(relationship.endNodeId(IGNORE));
+                out.writeInt(relationship.relationshipTypeId(IGNORE));
+            } else if (value instanceof ListValue list) {
+                out.writeByte(LIST);
+                out.writeInt(list.intSize());
+                for (AnyValue element : list) {
+                    write(element);
+                }
+            } else if (value instanceof MapValue map) {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                map.foreach((key, element) -> {
+                    writeString(key);
+                    write(element);
+                });
+            } else if (value instanceof PathValue path) {
+                out.writeByte(PATH_VALUE);
+                NodeValue[] nodes = path.nodes();
+                RelationshipValue[] relationships = path.relationships();
+                out.writeInt(relationships.length);
+                for (int i = 0; i < relationships.length; i++) {
+                    write(nodes[i]);
+                    write(relationships[i]);
+                }
+                write(nodes[relationships.length]);
+            } else if (value instanceof PathReference path) {
+                // Nodes and relationships alternate, starting and ending with a node
+                out.writeByte(PATH);
+                ListValue elements = path.asList();
+                out.writeInt(path.size());
+                for (AnyValue element : elements) {
+                    write(element);
+                }
+            } else {
+                throw new UnsupportedValueException(value);
+            }
+        }
+
+    }
+
+    public static final class Reader implements AutoCloseable {
+        private final DataInputStream in;
+        private long remainingRecords;
+        private byte[] scratch = new byte[256];
+
+        private Reader(DataInputStream in, long numberOfRecords) {
+            this.in = in;
+            this.remainingRecords = numberOfRecords;
+        }
+
+        /**
+         * @return {@code true} and consume the record if there is another record to read.
+         */
+        public boolean nextRecord() {
+            if (remainingRecords == 0) {
+                return false;
+            }
+            remainingRecords--;
+            return true;
+        }
+
+        public long readLong() {
+            try {
+                return in.readLong();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public AnyValue readValue() {
+            try {
+                return read();
+            } catch (EOFException e) {
+                throw new IllegalStateException("Unexpected end of spill file", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String readString() throws IOException {
+            int length = in.readInt();
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private AnyValue read() throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case NULL:
+                    return null;
+                case STORABLE:
+                    int length = in.readInt();
+                    if (scratch.length < length) {
+                        scratch = new byte[Math.max(length, scratch.length * 2)];
+                    }
+                    in.readFully(scratch, 0, length);
+                    return ValueByteBufferCodec.readValue(ByteBuffer.wrap(scratch, 0, length));
+                case NODE:
+                    return VirtualValues.node(in.readLong());
+                case NODE_REFERENCE:
+                    return VirtualValues.node(in.readLong(), readString());
+                case NODE_VALUE:
+                    return VirtualValues.nodeValue(
+                            in.readLong(), readString(), (TextArray) read(), (MapValue) read(), in.readBoolean());
+                case RELATIONSHIP:
+                    return VirtualValues.relationship(in.readLong(), in.readLong(), in.readLong(), in.readInt());
+                case RELATIONSHIP_VALUE:
+                    return VirtualValues.relationshipValue(
+                            in.readLong(),
+                            readString(),
+                            (VirtualNodeReference) read(),
+                            (VirtualNodeReference) read(),
+                            (TextValue) read(),
+                            (MapValue) read(),
+                            in.readBoolean());
+                case LIST:
+                    int size = in.readInt();
+                    ListValueBuilder list = ListValueBuilder.newListBuilder(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(read());
+                    }
+                    return list.build();
+                case MAP:
+                    int entries = in.readInt();
+                    if (entries == 0) {
+                        return VirtualValues.EMPTY_MAP;
+                    }
+                    MapValueBuilder map = new MapValueBuilder(entries);
+                    for (int i = 0; i < entries; i++) {
+                        map.add(readString(), read());
+                    }
+                    return map.build();
+                case PATH:
+                    int pathLength = in.readInt();
+                    List<VirtualNodeValue> pathNodes = new ArrayList<>(pathLength + 1);
+                    List<VirtualRelationshipValue> pathRelationships = new ArrayList<>(pathLength);
+                    for (int i = 0; i < pathLength; i++) {
+                        pathNodes.add((VirtualNodeValue) read());
+                        pathRelationships.add((VirtualRelationshipValue) read());
+                    }
+                    pathNodes.add((VirtualNodeValue) read());
+                    return VirtualValues.pathReference(pathNodes, pathRelationships);
+                case PATH_VALUE:
+                    int pathValueLength = in.readInt();
+                    NodeValue[] nodes = new NodeValue[pathValueLength + 1];
+                    RelationshipValue[] relationships = new RelationshipValue[pathValueLength];
+                    for (int i = 0; i < pathValueLength; i++) {
+                        nodes[i] = (NodeValue) read();
+                        relationships[i] = (RelationshipValue) read();
+                    }
+                    nodes[pathValueLength] = (NodeValue) read();
+                    return VirtualValues.path(nodes, relationships);
+                default:
+                    throw new IllegalStateException("Unknown value type in spill file: " + type);
+            }
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeAllSilently(in);
+        }
+    }
+
+    private static class HeapByteBufferAllocator implements ValueByteBufferCodec.ByteBufferAllocator {
+        @Override
+        public ByteBuffer allocate(long capacity) {
+            return ByteBuffer.allocate(Math.toIntExact(capacity));
+        }
+
+        @Override
+        public void free() {}
+    }
+}
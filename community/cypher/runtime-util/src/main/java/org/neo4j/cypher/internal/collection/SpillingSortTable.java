@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.collection;
+
+import static org.neo4j.util.Preconditions.checkArgument;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.neo4j.collection.trackable.HeapTrackingArrayList;
+import org.neo4j.internal.kernel.api.DefaultCloseListenable;
+import org.neo4j.io.IOUtils;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A sort table that moves sorted runs of rows to disk whenever the rows buffered on heap exceed a threshold, and
+ * merges the runs when the sorted result is requested. This is a plain external merge sort:
+ * <ul>
+ *     <li>Rows are buffered on heap until their estimated heap usage reaches {@code spillThreshold}.</li>
+ *     <li>The buffer is then sorted and written to a new {@link SpillFile}, a run, and the heap is released.</li>
+ *     <li>When too many runs have accumulated they are merged into a single run, to bound the merge fan-in.</li>
+ *     <li>{@link #sortedIterator()} merges all runs with the rows still on heap.</li>
+ * </ul>
+ * The sort is stable: rows that compare equal are returned in insertion order.
+ * <p>
+ * If given a {@code limit}, only the first {@code limit} rows of the sorted result are kept, which also bounds the
+ * size of each run. If a row cannot be written to disk, see {@link SpillFile.UnsupportedValueException}, spilling is
+ * disabled for the rest of the lifetime of the table and all subsequent rows are kept on heap.
+ */
+public class SpillingSortTable<T> extends DefaultCloseListenable {
+    static final int MAX_MERGE_FAN_IN = 64;
+
+    private final Comparator<? super T> comparator;
+    private final SpillSerializer<T> serializer;
+    private final long spillThreshold;
+    private final long limit;
+    private final Path spillDirectory;
+    private final MemoryTracker memoryTracker;
+    private final List<SpillFile> runs = new ArrayList<>();
+    private final List<SpillFile.Reader> readers = new ArrayList<>();
+
+    private HeapTrackingArrayList<T> buffer;
+    private long bufferedHeapUsage;
+    private boolean spillingDisabled;
+
+    /**
+     * @param spillThreshold estimated heap usage, in bytes, of buffered rows that triggers writing them to disk.
+     * @param limit the number of rows to keep, or {@link Long#MAX_VALUE} to keep all rows.
+     * @param spillDirectory where to create spill files, or {@code null} for the default temporary-file directory.
+     * @param memoryTracker tracks the heap usage of the buffered rows.
+     */
+    public SpillingSortTable(
+            Comparator<? super T> comparator,
+            SpillSerializer<T> serializer,
+            long spillThreshold,
+            long limit,
+            Path spillDirectory,
+            MemoryTracker memoryTracker) {
+        checkArgument(spillThreshold > 0, "Spill threshold must be greater than 0");
+        checkArgument(limit > 0, "Limit must be greater than 0");
+        this.comparator = comparator;
+        this.serializer = serializer;
+        this.spillThreshold = spillThreshold;
+        this.limit = limit;
+        this.spillDirectory = spillDirectory;
+        this.memoryTracker = memoryTracker;
+        this.buffer = HeapTrackingArrayList.newArrayList(256, memoryTracker);
+    }
+
+    /**
+     * Add a row to the table.
+     *
+     * @param row the row to add.
+     * @param estimatedHeapUsage the heap usage of the row, that is released when the row has been moved to disk.
+     */
+    public void add(T row, long estimatedHeapUsage) {
+        buffer.add(row);
+        memoryTracker.allocateHeap(estimatedHeapUsage);
+        bufferedHeapUsage += estimatedHeapUsage;
+        if (bufferedHeapUsage >= spillThreshold && !spillingDisabled) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the number of runs that have been written to disk.
+     */
+    public int numberOfRuns() {
+        return runs.size();
+    }
+
+    /**
+     * @return all rows, or the first {@code limit} rows, in sorted order. Can only be called once.
+     */
+    public Iterator<T> sortedIterator() {
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+            return limited(buffer.iterator());
+        }
+        List<Iterator<T>> sources = new ArrayList<>(runs.size() + 1);
+        for (SpillFile run : runs) {
+            sources.add(runIterator(run));
+        }
+        sources.add(buffer.iterator());
+        return limited(new MergingIterator<>(sources, comparator));
+    }
+
+    @Override
+    public void closeInternal() {
+        if (buffer != null) {
+            buffer.close();
+            buffer = null;
+            memoryTracker.releaseHeap(bufferedHeapUsage);
+            bufferedHeapUsage = 0;
+        }
+        IOUtils.closeAllSilently(readers);
+        readers.clear();
+        IOUtils.closeAllSilently(runs);
+        runs.clear();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    private void spill() {
+        buffer.sort(comparator);
+        SpillFile run = SpillFile.create(spillDirectory);
+        try {
+            write(buffer.iterator(), run);
+        } catch (SpillFile.UnsupportedValueException e) {
+            run.close();
+            spillingDisabled = true;
+            return;
+        } catch (RuntimeException e) {
+            run.close();
+            throw e;
+        }
+        runs.add(run);
+        buffer.clear();
+        memoryTracker.releaseHeap(bufferedHeapUsage);
+        bufferedHeapUsage = 0;
+
+        if (runs.size() >= MAX_MERGE_FAN_IN) {
+            mergeRuns();
+        }
+    }
+
+    private void mergeRuns() {
+        List<Iterator<T>> sources = new ArrayList<>(runs.size());
+        for (SpillFile run : runs) {
+            sources.add(runIterator(run));
+        }
+        SpillFile merged = SpillFile.create(spillDirectory);
+        try {
+            write(new MergingIterator<>(sources, comparator), merged);
+        } catch (RuntimeException e) {
+            merged.close();
+            throw e;
+        }
+        IOUtils.closeAllSilently(readers);
+        readers.clear();
+        IOUtils.closeAllSilently(runs);
+        runs.clear();
+        runs.add(merged);
+    }
+
+    private void write(Iterator<T> rows, SpillFile run) {
+        SpillFile.Writer writer = run.writer();
+        long remaining = limit;
+        while (remaining-- > 0 && rows.hasNext()) {
+            serializer.write(rows.next(), writer);
+            writer.endRecord();
+        }
+        run.finishWriting();
+    }
+
+    private Iterator<T> runIterator(SpillFile run) {
+        SpillFile.Reader reader = run.reader();
+        readers.add(reader);
+        return new Iterator<>() {
+            private boolean hasNext = reader.nextRecord();
+
+            @Override
+            public boolean hasNext() {
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext) {
+                    throw new NoSuchElementException();
+                }
+                T row = serializer.read(reader);
+                hasNext = reader.nextRecord();
+                return row;
+            }
+        };
+    }
+
+    private Iterator<T> limited(Iterator<T> iterator) {
+        if (limit == Long.MAX_VALUE) {
+            return iterator;
+        }
+        return new Iterator<>() {
+            private long remaining = limit;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0 && iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return iterator.next();
+            }
+        };
+    }
+
+    /**
+     * Merges sorted iterators. On ties, rows from earlier sources are returned first, which keeps the sort stable.
+     */
+    private static class MergingIterator<T> implements Iterator<T> {
+        private final List<Iterator<T>> sources;
+        private final DefaultComparatorSortTable<Head<T>> heads;
+
+        MergingIterator(List<Iterator<T>> sources, Comparator<? super T> comparator) {
+            this.sources = sources;
+            Comparator<Head<T>> headComparator = (a, b) -> {
+                int result = comparator.compare(a.row, b.row);
+                return result != 0 ? result : Integer.compare(a.source, b.source);
+            };
+            this.heads = new DefaultComparatorSortTable<>(headComparator, sources.size());
+            for (int i = 0; i < sources.size(); i++) {
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heads.getSize() > 0;
+        }
+
+        @Override
+        public T next() {
+            Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.source);
+            return head.row;
+        }
+
+        private void advance(int source) {
+            Iterator<T> iterator = sources.get(source);
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), source));
+            }
+        }
+    }
+
+    private record Head<T>(T row, int source) {}
+}
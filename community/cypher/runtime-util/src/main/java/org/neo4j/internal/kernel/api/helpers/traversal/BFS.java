@@ -39,6 +39,7 @@ import org.neo4j.internal.kernel.api.RelationshipTraversalEntities;
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelections;
 import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
 
 abstract class BFS<STEPS> implements AutoCloseable {
 
@@ -69,9 +70,16 @@ abstract class BFS<STEPS> implements AutoCloseable {
     final HeapTrackingLongObjectHashMap<STEPS> pathTraceData;
 
     final RelationshipTraversalCursorRetriever retriever;
+    final RelationshipSelection selection;
     boolean closed = false;
     final boolean needOnlyOnePath;
 
+    ParallelFrontierExpansion parallelExpansion;
+    // the relationships of the current level, if they were read in parallel
+    FrontierRelationships levelRelationships;
+    // the relationships of the node that is currently expanded
+    RelationshipTraversalEntities relationships;
+
     @FunctionalInterface
     interface RelationshipTraversalCursorRetriever {
         RelationshipTraversalCursor selectionCursor(
@@ -110,6 +118,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
             case INCOMING -> RelationshipSelections::incomingCursor;
             case BOTH -> RelationshipSelections::allCursor;
         };
+        this.selection = RelationshipSelection.selection(types, direction);
     }
 
     abstract State searchForIntersectionInNextLevel();
@@ -122,6 +131,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
 
     void resetWithStartNode(
             long startNodeId, LongPredicate nodeFilter, Predicate<RelationshipTraversalEntities> relFilter) {
+        releaseLevel();
         this.startNodeId = startNodeId;
         this.nodeFilter = nodeFilter;
         this.relFilter = relFilter;
@@ -148,9 +158,61 @@ abstract class BFS<STEPS> implements AutoCloseable {
         this.other = other;
     }
 
+    void setParallelExpansion(ParallelFrontierExpansion parallelExpansion) {
+        this.parallelExpansion = parallelExpansion;
+    }
+
+    /**
+     * Read the relationships of the whole current level in parallel, if it is large enough. Must be called before the
+     * first node of the level is expanded. Relationships to nodes that were seen on earlier levels are skipped right
+     * away, since they can never add a node to the next level.
+     */
+    void readLevelInParallelIfLarge() {
+        if (parallelExpansion != null && parallelExpansion.shouldExpand(currentLevel.size())) {
+            var nodes = new long[currentLevel.size()];
+            int i = 0;
+            for (var it = currentLevel.longIterator(); it.hasNext(); ) {
+                nodes[i++] = it.next();
+            }
+            levelRelationships = parallelExpansion.expand(
+                    nodes,
+                    selection,
+                    pathTraceData::containsKey,
+                    new ParallelFrontierExpansion.KernelRelationshipCursor(read, nodeCursor, relCursor));
+        }
+    }
+
+    void releaseLevel() {
+        if (levelRelationships != null) {
+            levelRelationships.close();
+            levelRelationships = null;
+        }
+    }
+
+    void selectRelationships(long node) {
+        if (levelRelationships != null) {
+            levelRelationships.setNode(node);
+            relationships = levelRelationships;
+        } else {
+            read.singleNode(node, nodeCursor);
+            if (!nodeCursor.next()) {
+                var gql = ErrorGqlStatusObjectImplementation.from(GqlStatusInfoCodes.STATUS_25N11)
+                        .build();
+                throw new EntityNotFoundException(gql, "Node " + node + " was unexpectedly deleted");
+            }
+            selectionCursor = retriever.selectionCursor(relCursor, nodeCursor, types);
+            relationships = selectionCursor;
+        }
+    }
+
+    boolean nextRelationship() {
+        return levelRelationships != null ? levelRelationships.next() : selectionCursor.next();
+    }
+
     @Override
     public void close() {
         assert (!closed);
+        releaseLevel();
         pathTraceData.close();
         currentLevel.close();
         nextLevel.close();
@@ -206,6 +268,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
                 return State.THERE_IS_NO_INTERSECTION;
             }
 
+            readLevelInParallelIfLarge();
             populateNextLevelOrStopWhenFoundFirstIntersectionNode();
 
             if (this.foundIntersectionNode != StatementConstants.NO_SUCH_NODE) {
@@ -247,23 +310,17 @@ abstract class BFS<STEPS> implements AutoCloseable {
 
             nextLevel.add(foundNode);
 
-            pathTraceData.put(foundNode, new PathTraceStep(selectionCursor.reference(), currentNode));
+            pathTraceData.put(foundNode, new PathTraceStep(relationships.relationshipReference(), currentNode));
             return true;
         }
 
         private void populateNextLevelOrStopWhenFoundFirstIntersectionNode() {
             while (currentLevelItr.hasNext()) {
                 long currentNode = currentLevelItr.next();
-                read.singleNode(currentNode, nodeCursor);
-                if (!nodeCursor.next()) {
-                    var gql = ErrorGqlStatusObjectImplementation.from(GqlStatusInfoCodes.STATUS_25N11)
-                            .build();
-                    throw new EntityNotFoundException(gql, "Node " + currentNode + " was unexpectedly deleted");
-                }
-                selectionCursor = retriever.selectionCursor(relCursor, nodeCursor, types);
-                while (selectionCursor.next()) {
-                    if (relFilter.test(selectionCursor)) {
-                        long foundNode = selectionCursor.otherNodeReference();
+                selectRelationships(currentNode);
+                while (nextRelationship()) {
+                    if (relFilter.test(relationships)) {
+                        long foundNode = relationships.otherNodeReference();
                         if (addNodeToNextLevelIfQualifies(currentNode, foundNode)
                                 && other.currentLevel.contains(foundNode)) {
                             this.foundIntersectionNode = foundNode;
@@ -275,6 +332,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
         }
 
         private void advanceLevel() {
+            releaseLevel();
             var tmp = currentLevel;
             currentLevel = nextLevel;
             currentLevelItr = currentLevel.longIterator();
@@ -335,14 +393,14 @@ abstract class BFS<STEPS> implements AutoCloseable {
                     pathsToHere = HeapTrackingCollections.newArrayList(PATHS_TO_NODE_INIT_SIZE, memoryTracker);
                     availableArrayLists.add(pathsToHere);
                 }
-                pathsToHere.add(new PathTraceStep(selectionCursor.reference(), currentNode));
+                pathsToHere.add(new PathTraceStep(relationships.relationshipReference(), currentNode));
                 pathTraceData.put(foundNode, pathsToHere);
                 return true;
 
             } else if (!needOnlyOnePath && nextLevel.contains(foundNode)) {
                 // foundNode has already been seen, but it was seen at this level with a different currentNode, so we
                 // have multiple shortest paths to foundNode from startNode.
-                pathTraceData.get(foundNode).add(new PathTraceStep(selectionCursor.reference(), currentNode));
+                pathTraceData.get(foundNode).add(new PathTraceStep(relationships.relationshipReference(), currentNode));
                 return true;
             }
             return false;
@@ -393,16 +451,10 @@ abstract class BFS<STEPS> implements AutoCloseable {
         private void fullyPopulateNextLevel() {
             while (currentLevelItr.hasNext()) {
                 long currentNode = currentLevelItr.next();
-                read.singleNode(currentNode, nodeCursor);
-                if (!nodeCursor.next()) {
-                    var gql = ErrorGqlStatusObjectImplementation.from(GqlStatusInfoCodes.STATUS_25N11)
-                            .build();
-                    throw new EntityNotFoundException(gql, "Node " + currentNode + " was unexpectedly deleted");
-                }
-                selectionCursor = retriever.selectionCursor(relCursor, nodeCursor, types);
-                while (selectionCursor.next()) {
-                    if (relFilter.test(selectionCursor)) {
-                        long foundNode = selectionCursor.otherNodeReference();
+                selectRelationships(currentNode);
+                while (nextRelationship()) {
+                    if (relFilter.test(relationships)) {
+                        long foundNode = relationships.otherNodeReference();
                         addNodeToNextLevelIfQualifies(currentNode, foundNode);
                     }
                 }
@@ -410,6 +462,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
         }
 
         private void advanceLevel() {
+            releaseLevel();
             var tmp = currentLevel;
             currentLevel = nextLevel;
             nextLevel = tmp;
@@ -423,6 +476,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
                 return State.THERE_IS_NO_INTERSECTION;
             }
 
+            readLevelInParallelIfLarge();
             fullyPopulateNextLevel();
 
             advanceLevel();
@@ -474,16 +528,10 @@ abstract class BFS<STEPS> implements AutoCloseable {
         private void populateNextLevelOrStopWhenFoundFirstIntersectionNode() {
             while (currentLevelItr.hasNext()) {
                 currentNode = currentLevelItr.next();
-                read.singleNode(currentNode, nodeCursor);
-                if (!nodeCursor.next()) {
-                    var gql = ErrorGqlStatusObjectImplementation.from(GqlStatusInfoCodes.STATUS_25N11)
-                            .build();
-                    throw new EntityNotFoundException(gql, "Node " + currentNode + " was unexpectedly deleted");
-                }
-                selectionCursor = retriever.selectionCursor(relCursor, nodeCursor, types);
-                while (selectionCursor.next()) {
-                    if (relFilter.test(selectionCursor)) {
-                        long foundNode = selectionCursor.otherNodeReference();
+                selectRelationships(currentNode);
+                while (nextRelationship()) {
+                    if (relFilter.test(relationships)) {
+                        long foundNode = relationships.otherNodeReference();
                         if (addNodeToNextLevelIfQualifies(currentNode, foundNode)
                                 && other.currentLevel.contains(foundNode)) {
                             this.foundIntersectionNode = foundNode;
@@ -495,6 +543,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
         }
 
         private void advanceLevel() {
+            releaseLevel();
             var tmp = currentLevel;
             currentLevel = nextLevel;
             currentLevelItr = currentLevel.longIterator();
@@ -509,6 +558,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
                 return State.THERE_IS_NO_INTERSECTION;
             }
 
+            readLevelInParallelIfLarge();
             populateNextLevelOrStopWhenFoundFirstIntersectionNode();
 
             if (this.foundIntersectionNode != StatementConstants.NO_SUCH_NODE) {
@@ -526,11 +576,11 @@ abstract class BFS<STEPS> implements AutoCloseable {
             // In this state, currentNode (the node which had an outgoing relationship to the previous intersection
             // node)
             // might have more neighbors which we haven't visited. Thus, we need to start by iterating through whatever
-            // remains in selectionCursor before we find the next currentNode.
+            // remains of its relationships before we find the next currentNode.
             while (true) {
-                while (selectionCursor.next()) {
-                    if (relFilter.test(selectionCursor)) {
-                        long foundNode = selectionCursor.otherNodeReference();
+                while (nextRelationship()) {
+                    if (relFilter.test(relationships)) {
+                        long foundNode = relationships.otherNodeReference();
                         if (addNodeToNextLevelIfQualifies(currentNode, foundNode)
                                 && other.currentLevel.contains(foundNode)) {
                             this.foundIntersectionNode = foundNode;
@@ -542,13 +592,7 @@ abstract class BFS<STEPS> implements AutoCloseable {
                     return State.EXHAUSTED_INTERSECTION;
                 }
                 currentNode = currentLevelItr.next();
-                read.singleNode(currentNode, nodeCursor);
-                if (!nodeCursor.next()) {
-                    var gql = ErrorGqlStatusObjectImplementation.from(GqlStatusInfoCodes.STATUS_25N11)
-                            .build();
-                    throw new EntityNotFoundException(gql, "Node " + currentNode + " was unexpectedly deleted");
-                }
-                selectionCursor = retriever.selectionCursor(relCursor, nodeCursor, types);
+                selectRelationships(currentNode);
             }
         }
 
@@ -292,4 +292,11 @@ public class BiDirectionalBFS implements AutoCloseable {
     public void setTracer(KernelReadTracer tracer) {
         inner.setTracer(tracer);
     }
+
+    /**
+     * Read the relationships of large BFS levels in parallel. The parallel expansion is not closed by this class.
+     */
+    public void setParallelExpansion(ParallelFrontierExpansion parallelExpansion) {
+        inner.setParallelExpansion(parallelExpansion);
+    }
 }
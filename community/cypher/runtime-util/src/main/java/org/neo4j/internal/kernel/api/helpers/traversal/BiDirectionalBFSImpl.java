@@ -217,6 +217,11 @@ abstract class BiDirectionalBFSImpl<STEPS> implements AutoCloseable {
         targetBFS.setTracer(tracer);
     }
 
+    void setParallelExpansion(ParallelFrontierExpansion parallelExpansion) {
+        sourceBFS.setParallelExpansion(parallelExpansion);
+        targetBFS.setParallelExpansion(parallelExpansion);
+    }
+
     static class SinglePathBiDirectionalBFS extends BiDirectionalBFSImpl<PathTraceStep> {
         SinglePathBiDirectionalBFS(
                 long sourceNodeId,
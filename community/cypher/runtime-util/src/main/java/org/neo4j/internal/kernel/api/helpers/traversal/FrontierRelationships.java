@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers.traversal;
+
+import org.neo4j.collection.trackable.HeapTrackingIntArrayList;
+import org.neo4j.collection.trackable.HeapTrackingLongArrayList;
+import org.neo4j.internal.kernel.api.RelationshipTraversalEntities;
+import org.neo4j.io.IOUtils;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.util.Preconditions;
+
+/**
+ * The relationships of a frontier read by {@link ParallelFrontierExpansion}. Works like a relationship traversal
+ * cursor, except that the nodes must be visited in the order of the frontier.
+ */
+public final class FrontierRelationships implements RelationshipTraversalEntities, AutoCloseable {
+    private final long[] nodes;
+    private final Chunk[] chunks;
+    private final int chunkSize;
+
+    private int node = -1;
+    private Chunk chunk;
+    private int relationship;
+    private int end;
+
+    FrontierRelationships(long[] nodes, Chunk[] chunks, int chunkSize) {
+        this.nodes = nodes;
+        this.chunks = chunks;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Position at the relationships of the next node of the frontier.
+     */
+    public void setNode(long nodeId) {
+        node++;
+        Preconditions.checkState(
+                node < nodes.length && nodes[node] == nodeId,
+                "Expected node %d of the frontier to be %d",
+                node,
+                nodeId);
+        var nodeChunk = chunks[node / chunkSize];
+        if (nodeChunk != chunk) {
+            chunk = nodeChunk;
+            end = 0;
+        }
+        relationship = end - 1;
+        end += chunk.counts.get(node % chunkSize);
+    }
+
+    public boolean next() {
+        return ++relationship < end;
+    }
+
+    @Override
+    public long relationshipReference() {
+        return chunk.relationships.get(relationship);
+    }
+
+    @Override
+    public int type() {
+        return chunk.types.get(relationship);
+    }
+
+    @Override
+    public long sourceNodeReference() {
+        return chunk.sources.get(relationship);
+    }
+
+    @Override
+    public long targetNodeReference() {
+        return chunk.targets.get(relationship);
+    }
+
+    @Override
+    public long otherNodeReference() {
+        long source = sourceNodeReference();
+        return source == nodes[node] ? targetNodeReference() : source;
+    }
+
+    @Override
+    public long originNodeReference() {
+        return nodes[node];
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeAllUnchecked(chunks);
+    }
+
+    /**
+     * The relationships of consecutive nodes of the frontier, as read by one thread.
+     */
+    static final class Chunk implements AutoCloseable {
+        private final HeapTrackingIntArrayList counts;
+        private final HeapTrackingLongArrayList relationships;
+        private final HeapTrackingIntArrayList types;
+        private final HeapTrackingLongArrayList sources;
+        private final HeapTrackingLongArrayList targets;
+
+        Chunk(int nodes, MemoryTracker memoryTracker) {
+            this.counts = HeapTrackingIntArrayList.newIntArrayList(nodes, memoryTracker);
+            this.relationships = HeapTrackingLongArrayList.newLongArrayList(memoryTracker);
+            this.types = HeapTrackingIntArrayList.newIntArrayList(memoryTracker);
+            this.sources = HeapTrackingLongArrayList.newLongArrayList(memoryTracker);
+            this.targets = HeapTrackingLongArrayList.newLongArrayList(memoryTracker);
+        }
+
+        void add(RelationshipTraversalEntities relationship) {
+            relationships.add(relationship.relationshipReference());
+            types.add(relationship.type());
+            sources.add(relationship.sourceNodeReference());
+            targets.add(relationship.targetNodeReference());
+        }
+
+        void endNode(int count) {
+            counts.add(count);
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeAllUnchecked(counts, relationships, types, sources, targets);
+        }
+    }
+}
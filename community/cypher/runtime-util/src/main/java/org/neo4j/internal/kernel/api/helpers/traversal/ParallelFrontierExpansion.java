@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers.traversal;
+
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import org.neo4j.exceptions.EntityNotFoundException;
+import org.neo4j.gqlstatus.ErrorGqlStatusObjectImplementation;
+import org.neo4j.gqlstatus.GqlStatusInfoCodes;
+import org.neo4j.internal.kernel.api.KernelReadTracer;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.helpers.traversal.productgraph.ProductGraphTraversalCursor.DataGraphRelationshipCursor;
+import org.neo4j.io.IOUtils;
+import org.neo4j.kernel.api.ExecutionContext;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+/**
+ * Reads the relationships of all nodes in a large BFS frontier on several threads, one level at a time.
+ * <p>
+ * Only the reading is done in parallel. The frontier is split into chunks of consecutive nodes, which are claimed by
+ * the workers and by the calling thread, each reading through its own cursors. The relationships of every chunk are
+ * buffered and then replayed on the calling thread, in frontier order, through {@link FrontierRelationships}.
+ * Predicates are evaluated and the state of the search is updated on the calling thread only, so a search finds the
+ * same paths as when it expands every level on a single thread.
+ * <p>
+ * Workers may skip relationships to nodes the search has already seen, which saves buffering most relationships of
+ * dense levels. Since the calling thread reads chunks as well, a level is always read even if no worker thread is
+ * available.
+ */
+public final class ParallelFrontierExpansion implements AutoCloseable {
+    private static final int CHUNKS_PER_THREAD = 8;
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    private final int frontierThreshold;
+    private final int numberOfThreads;
+    private final Executor executor;
+    private final WorkerFactory workerFactory;
+    private final MemoryTracker memoryTracker;
+    private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+    private int createdWorkers;
+
+    /**
+     * Reads on behalf of the calling thread. Only ever used by one thread at a time, but not necessarily always the
+     * same one.
+     */
+    public interface Worker extends AutoCloseable {
+        DataGraphRelationshipCursor cursor();
+
+        MemoryTracker memoryTracker();
+
+        @Override
+        void close();
+    }
+
+    public interface WorkerFactory {
+        /**
+         * @return whether workers see the same data as the calling thread does right now.
+         */
+        boolean canRead();
+
+        /**
+         * Called on the calling thread.
+         */
+        Worker create();
+    }
+
+    /**
+     * @param frontierThreshold smallest frontier to read in parallel, {@code 0} to never read in parallel.
+     * @param numberOfThreads number of threads reading a frontier, including the calling thread.
+     * @param executor runs the workers.
+     * @param workerFactory creates the workers, at most {@code numberOfThreads - 1} of them.
+     * @param memoryTracker tracks the relationships buffered by the calling thread.
+     */
+    public ParallelFrontierExpansion(
+            int frontierThreshold,
+            int numberOfThreads,
+            Executor executor,
+            WorkerFactory workerFactory,
+            MemoryTracker memoryTracker) {
+        this.frontierThreshold = frontierThreshold;
+        this.numberOfThreads = numberOfThreads;
+        this.executor = executor;
+        this.workerFactory = workerFactory;
+        this.memoryTracker = memoryTracker;
+    }
+
+    /**
+     * Parallel expansion for a transaction, where every worker reads through an {@link ExecutionContext} of its own.
+     * Frontiers are not read in parallel while the transaction has changes, since execution contexts can not see them.
+     */
+    public static ParallelFrontierExpansion forTransaction(
+            int frontierThreshold,
+            int numberOfThreads,
+            Executor executor,
+            Read read,
+            Supplier<ExecutionContext> executionContexts,
+            MemoryTracker memoryTracker) {
+        return new ParallelFrontierExpansion(
+                frontierThreshold,
+                numberOfThreads,
+                executor,
+                new WorkerFactory() {
+                    @Override
+                    public boolean canRead() {
+                        return !read.transactionStateHasChanges();
+                    }
+
+                    @Override
+                    public Worker create() {
+                        return new ExecutionContextWorker(executionContexts.get());
+                    }
+                },
+                memoryTracker);
+    }
+
+    /**
+     * @return whether a frontier of the given size should be read in parallel.
+     */
+    public boolean shouldExpand(int frontierSize) {
+        return frontierThreshold > 0
+                && numberOfThreads > 1
+                && frontierSize >= frontierThreshold
+                && workerFactory.canRead();
+    }
+
+    /**
+     * Read the relationships of all nodes of a frontier.
+     *
+     * @param nodes the frontier, in the order the relationships will be replayed.
+     * @param selection the relationships to read.
+     * @param skip relationships to nodes matching this predicate are not buffered. Called concurrently from all
+     *             reading threads, so it may only read state that does not change while the frontier is read.
+     * @param cursor the cursor of the calling thread.
+     * @return the relationships of the frontier, to be closed by the caller.
+     */
+    public FrontierRelationships expand(
+            long[] nodes, RelationshipSelection selection, LongPredicate skip, DataGraphRelationshipCursor cursor) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, nodes.length / (numberOfThreads * CHUNKS_PER_THREAD) + 1);
+        var level = new Level(nodes, selection, skip, chunkSize);
+
+        startWorkers(level, Math.min(numberOfThreads - 1, level.chunks.length - 1));
+        level.read(cursor, memoryTracker);
+        level.awaitRead();
+
+        return new FrontierRelationships(nodes, level.chunks, chunkSize);
+    }
+
+    private void startWorkers(Level level, int workers) {
+        while (createdWorkers < workers) {
+            idleWorkers.add(workerFactory.create());
+            createdWorkers++;
+        }
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(() -> {
+                    // a worker may still be busy returning from an earlier level, then there is nothing left to do
+                    var worker = idleWorkers.poll();
+                    if (worker != null) {
+                        try {
+                            level.read(worker.cursor(), worker.memoryTracker());
+                        } finally {
+                            idleWorkers.add(worker);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the calling thread reads whatever is left
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        var workers = new ArrayList<Worker>(createdWorkers);
+        boolean interrupted = false;
+        while (workers.size() < createdWorkers) {
+            try {
+                workers.add(idleWorkers.take());
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        createdWorkers = 0;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        IOUtils.closeAllUnchecked(workers);
+    }
+
+    private static final class Level {
+        private final long[] nodes;
+        private final RelationshipSelection selection;
+        private final LongPredicate skip;
+        private final int chunkSize;
+        private final FrontierRelationships.Chunk[] chunks;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CountDownLatch read;
+
+        Level(long[] nodes, RelationshipSelection selection, LongPredicate skip, int chunkSize) {
+            this.nodes = nodes;
+            this.selection = selection;
+            this.skip = skip;
+            this.chunkSize = chunkSize;
+            this.chunks = new FrontierRelationships.Chunk[(nodes.length + chunkSize - 1) / chunkSize];
+            this.read = new CountDownLatch(chunks.length);
+        }
+
+        void read(DataGraphRelationshipCursor cursor, MemoryTracker memoryTracker) {
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunks.length; chunk = nextChunk.getAndIncrement()) {
+                try {
+                    // after a failure the remaining chunks are only counted down
+                    if (failure.get() == null) {
+                        chunks[chunk] = readChunk(chunk, cursor, memoryTracker);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    read.countDown();
+                }
+            }
+        }
+
+        private FrontierRelationships.Chunk readChunk(
+                int chunk, DataGraphRelationshipCursor cursor, MemoryTracker memoryTracker) {
+            int from = chunk * chunkSize;
+            int to = Math.min(nodes.length, from + chunkSize);
+            var relationships = new FrontierRelationships.Chunk(to - from, memoryTracker);
+            try {
+                for (int i = from; i < to; i++) {
+                    cursor.setNode(nodes[i], selection);
+                    int count = 0;
+                    while (cursor.nextRelationship()) {
+                        if (!skip.test(cursor.otherNodeReference())) {
+                            relationships.add(cursor);
+                            count++;
+                        }
+                    }
+                    relationships.endNode(count);
+                }
+                return relationships;
+            } catch (Throwable t) {
+                relationships.close();
+                throw t;
+            }
+        }
+
+        void awaitRead() {
+            boolean interrupted = false;
+            while (read.getCount() > 0) {
+                try {
+                    read.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            var t = failure.get();
+            if (t != null) {
+                IOUtils.closeAllUnchecked(chunks);
+                if (t instanceof RuntimeException e) {
+                    throw e;
+                } else if (t instanceof Error e) {
+                    throw e;
+                }
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    /**
+     * Reads the relationships of a node through kernel cursors.
+     */
+    public static class KernelRelationshipCursor implements DataGraphRelationshipCursor {
+        private final Read read;
+        private final NodeCursor node;
+        private final RelationshipTraversalCursor rel;
+
+        public KernelRelationshipCursor(Read read, NodeCursor node, RelationshipTraversalCursor rel) {
+            this.read = read;
+            this.node = node;
+            this.rel = rel;
+        }
+
+        @Override
+        public boolean nextRelationship() {
+            return rel.next();
+        }
+
+        @Override
+        public void setNode(long nodeId, RelationshipSelection relationshipSelection) {
+            read.singleNode(nodeId, node);
+            if (!node.next()) {
+                var gql = ErrorGqlStatusObjectImplementation.from(GqlStatusInfoCodes.STATUS_25N11)
+                        .build();
+                throw new EntityNotFoundException(gql, "Node " + nodeId + " was unexpectedly deleted");
+            }
+            node.relationships(rel, relationshipSelection);
+        }
+
+        @Override
+        public void setTracer(KernelReadTracer tracer) {
+            node.setTracer(tracer);
+            rel.setTracer(tracer);
+        }
+
+        @Override
+        public long relationshipReference() {
+            return rel.reference();
+        }
+
+        @Override
+        public long originNodeReference() {
+            return rel.originNodeReference();
+        }
+
+        @Override
+        public long otherNodeReference() {
+            return rel.otherNodeReference();
+        }
+
+        @Override
+        public long sourceNodeReference() {
+            return rel.sourceNodeReference();
+        }
+
+        @Override
+        public long targetNodeReference() {
+            return rel.targetNodeReference();
+        }
+
+        @Override
+        public int type() {
+            return rel.type();
+        }
+    }
+
+    private static final class ExecutionContextWorker implements Worker {
+        private final ExecutionContext context;
+        private final NodeCursor nodeCursor;
+        private final RelationshipTraversalCursor relCursor;
+        private final KernelRelationshipCursor cursor;
+
+        ExecutionContextWorker(ExecutionContext context) {
+            this.context = context;
+            this.nodeCursor = context.cursors().allocateNodeCursor(context.cursorContext(), context.memoryTracker());
+            this.relCursor = context.cursors()
+                    .allocateRelationshipTraversalCursor(context.cursorContext(), context.memoryTracker());
+            this.cursor = new KernelRelationshipCursor(context.dataRead(), nodeCursor, relCursor);
+        }
+
+        @Override
+        public DataGraphRelationshipCursor cursor() {
+            return cursor;
+        }
+
+        @Override
+        public MemoryTracker memoryTracker() {
+            return context.memoryTracker();
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeAllUnchecked(nodeCursor, relCursor);
+            context.complete();
+            context.close();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.neo4j.collection.trackable.HeapTracking;
 import org.neo4j.collection.trackable.HeapTrackingArrayList;
 import org.neo4j.collection.trackable.HeapTrackingCollections;
 import org.neo4j.collection.trackable.HeapTrackingLongArrayList;
+import org.neo4j.collection.trackable.HeapTrackingLongObjectHashMap;
 import org.neo4j.collection.trackable.HeapTrackingUnifiedMap;
 import org.neo4j.function.Predicates;
 import org.neo4j.graphdb.Direction;
@@ -53,6 +54,7 @@ final class BFSExpander implements AutoCloseable {
     private final GlobalState globalState;
     private final ProductGraphTraversalCursor pgCursor;
     private final CachingRelCursor relCursor;
+    private final FrontierPrefetchingCursor prefetchingCursor;
     private final long intoTarget;
     private final TraversalMatchModeFactory tracker;
 
@@ -76,6 +78,7 @@ final class BFSExpander implements AutoCloseable {
             GlobalState globalState,
             ProductGraphTraversalCursor pgCursor,
             ProductGraphTraversalCursor.DataGraphRelationshipCursor relCursor,
+            FrontierPrefetchingCursor prefetchingCursor,
             long intoTarget,
             int nfaStateCount,
             TraversalMatchModeFactory tracker) {
@@ -84,6 +87,7 @@ final class BFSExpander implements AutoCloseable {
         this.globalState = globalState;
         this.pgCursor = pgCursor;
         this.relCursor = new CachingRelCursor(relCursor, mt);
+        this.prefetchingCursor = prefetchingCursor;
         this.intoTarget = intoTarget;
         this.statesList = HeapTrackingArrayList.newArrayList(nfaStateCount, mt);
         this.foundNodes = foundNodes;
@@ -286,7 +290,32 @@ final class BFSExpander implements AutoCloseable {
         var direction = foundNodes.getNextExpansionDirection();
         hooks.expand(direction, foundNodes);
 
-        for (var pair : foundNodes.frontier(direction).keyValuesView()) {
+        var frontier = foundNodes.frontier(direction);
+        if (prefetchingCursor != null) {
+            prefetchingCursor.prefetch(frontier, direction);
+        }
+        try {
+            expandFrontier(frontier, direction);
+        } finally {
+            if (prefetchingCursor != null) {
+                prefetchingCursor.endLevel();
+            }
+        }
+
+        // look in the priority queue to see if there are any var-length transitions to expand at this depth.
+        // if there are then run DFS on them and add the final node states to the collection
+        for (var mre = foundNodes.dequeueScheduled(direction);
+                mre != null;
+                mre = foundNodes.dequeueScheduled(direction)) {
+            multiHopDFS(mre.start(), mre.expansion(), direction);
+        }
+
+        foundNodes.commitBuffer(direction);
+    }
+
+    private void expandFrontier(
+            HeapTrackingLongObjectHashMap<HeapTrackingArrayList<NodeState>> frontier, TraversalDirection direction) {
+        for (var pair : frontier.keyValuesView()) {
             var dbNodeId = pair.getOne();
             var statesById = pair.getTwo();
 
@@ -348,16 +377,6 @@ final class BFSExpander implements AutoCloseable {
                 }
             }
         }
-
-        // look in the priority queue to see if there are any var-length transitions to expand at this depth.
-        // if there are then run DFS on them and add the final node states to the collection
-        for (var mre = foundNodes.dequeueScheduled(direction);
-                mre != null;
-                mre = foundNodes.dequeueScheduled(direction)) {
-            multiHopDFS(mre.start(), mre.expansion(), direction);
-        }
-
-        foundNodes.commitBuffer(direction);
     }
 
     public void setTracer(KernelReadTracer tracer) {
@@ -369,6 +388,9 @@ final class BFSExpander implements AutoCloseable {
         // globalState is not owned by this class; it should be closed by the consumer
         pgCursor.close();
         statesList.close();
+        if (prefetchingCursor != null) {
+            prefetchingCursor.close();
+        }
     }
 
     private static class CachingRelCursor {
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers.traversal.ppbfs;
+
+import java.util.Arrays;
+import org.neo4j.collection.trackable.HeapTrackingArrayList;
+import org.neo4j.collection.trackable.HeapTrackingLongObjectHashMap;
+import org.neo4j.function.Predicates;
+import org.neo4j.internal.kernel.api.KernelReadTracer;
+import org.neo4j.internal.kernel.api.helpers.traversal.FrontierRelationships;
+import org.neo4j.internal.kernel.api.helpers.traversal.ParallelFrontierExpansion;
+import org.neo4j.internal.kernel.api.helpers.traversal.ppbfs.hooks.PPBFSHooks;
+import org.neo4j.internal.kernel.api.helpers.traversal.productgraph.ProductGraphTraversalCursor.DataGraphRelationshipCursor;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.DirectedTypes;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+/**
+ * Replays the relationships of a large frontier which have been read in parallel by a
+ * {@link ParallelFrontierExpansion}, and reads through the wrapped cursor otherwise.
+ * <p>
+ * The frontier is read with the union of the relationship selections of all its states, so every node only sees the
+ * relationships matching the selection it is positioned with.
+ */
+final class FrontierPrefetchingCursor implements DataGraphRelationshipCursor, AutoCloseable {
+    private final DataGraphRelationshipCursor graphCursor;
+    private final ParallelFrontierExpansion parallelExpansion;
+    private final PPBFSHooks hooks;
+    private final DirectedTypes directedTypes;
+    private final boolean[] addedStates;
+
+    private FrontierRelationships level;
+    private RelationshipSelection selection;
+    private long nodeId;
+
+    FrontierPrefetchingCursor(
+            DataGraphRelationshipCursor graphCursor,
+            ParallelFrontierExpansion parallelExpansion,
+            PPBFSHooks hooks,
+            int nfaStateCount,
+            MemoryTracker mt) {
+        this.graphCursor = graphCursor;
+        this.parallelExpansion = parallelExpansion;
+        this.hooks = hooks;
+        this.directedTypes = new DirectedTypes(mt);
+        this.addedStates = new boolean[nfaStateCount];
+    }
+
+    /**
+     * Read the relationships of the frontier in parallel if it is large enough. The nodes of the frontier must then be
+     * set in the iteration order of the frontier, until {@link #endLevel()} is called.
+     */
+    void prefetch(
+            HeapTrackingLongObjectHashMap<HeapTrackingArrayList<NodeState>> frontier, TraversalDirection direction) {
+        if (!parallelExpansion.shouldExpand(frontier.size())) {
+            return;
+        }
+
+        var nodes = new long[frontier.size()];
+        int i = 0;
+        directedTypes.clear();
+        Arrays.fill(addedStates, false);
+        for (var pair : frontier.keyValuesView()) {
+            nodes[i++] = pair.getOne();
+            for (var nodeState : pair.getTwo()) {
+                if (nodeState != null && !addedStates[nodeState.state().id()]) {
+                    addedStates[nodeState.state().id()] = true;
+                    for (var expansion : nodeState.state().getRelationshipExpansions(direction)) {
+                        directedTypes.addTypes(
+                                expansion.types(),
+                                direction.isForward()
+                                        ? expansion.direction()
+                                        : expansion.direction().reverse());
+                    }
+                }
+            }
+        }
+
+        level = parallelExpansion.expand(
+                nodes, RelationshipSelection.selection(directedTypes), Predicates.ALWAYS_FALSE_LONG, graphCursor);
+    }
+
+    void endLevel() {
+        if (level != null) {
+            level.close();
+            level = null;
+        }
+    }
+
+    @Override
+    public void setNode(long nodeId, RelationshipSelection relationshipSelection) {
+        if (level == null) {
+            graphCursor.setNode(nodeId, relationshipSelection);
+            return;
+        }
+        hooks.cursorSetNode(nodeId);
+        level.setNode(nodeId);
+        this.nodeId = nodeId;
+        this.selection = relationshipSelection;
+    }
+
+    @Override
+    public boolean nextRelationship() {
+        if (level == null) {
+            return graphCursor.nextRelationship();
+        }
+        hooks.cursorNextRelationship(nodeId);
+        while (level.next()) {
+            if (selection.test(level.type(), direction())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public RelationshipDirection direction() {
+        return level == null
+                ? graphCursor.direction()
+                : RelationshipDirection.directionOfStrict(
+                        level.originNodeReference(), level.sourceNodeReference(), level.targetNodeReference());
+    }
+
+    @Override
+    public void setTracer(KernelReadTracer tracer) {
+        graphCursor.setTracer(tracer);
+    }
+
+    @Override
+    public long relationshipReference() {
+        return level == null ? graphCursor.relationshipReference() : level.relationshipReference();
+    }
+
+    @Override
+    public long originNodeReference() {
+        return level == null ? graphCursor.originNodeReference() : level.originNodeReference();
+    }
+
+    @Override
+    public long otherNodeReference() {
+        return level == null ? graphCursor.otherNodeReference() : level.otherNodeReference();
+    }
+
+    @Override
+    public long sourceNodeReference() {
+        return level == null ? graphCursor.sourceNodeReference() : level.sourceNodeReference();
+    }
+
+    @Override
+    public long targetNodeReference() {
+        return level == null ? graphCursor.targetNodeReference() : level.targetNodeReference();
+    }
+
+    @Override
+    public int type() {
+        return level == null ? graphCursor.type() : level.type();
+    }
+
+    @Override
+    public void close() {
+        endLevel();
+    }
+}
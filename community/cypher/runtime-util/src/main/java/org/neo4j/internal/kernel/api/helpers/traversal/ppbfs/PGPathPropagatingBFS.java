@@ -30,6 +30,7 @@ import org.neo4j.internal.kernel.api.KernelReadTracer;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.Read;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.helpers.traversal.ParallelFrontierExpansion;
 import org.neo4j.internal.kernel.api.helpers.traversal.ppbfs.hooks.PPBFSHooks;
 import org.neo4j.internal.kernel.api.helpers.traversal.productgraph.ProductGraphTraversalCursor;
 import org.neo4j.internal.kernel.api.helpers.traversal.productgraph.State;
@@ -94,6 +95,52 @@ public final class PGPathPropagatingBFS<Row> extends PrefetchingIterator<Row> im
             PPBFSHooks hooks,
             AssertOpen assertOpen,
             TraversalMatchModeFactory tracker) {
+        this(
+                source,
+                startState,
+                intoTarget,
+                finalState,
+                searchMode,
+                graphCursor,
+                null,
+                pathTracer,
+                toRow,
+                nonInlinedPredicate,
+                isGroupSelector,
+                maxDepth,
+                initialCountForTargetNodes,
+                nfaStateCount,
+                mt,
+                hooks,
+                assertOpen,
+                tracker);
+    }
+
+    /**
+     * Creates a new PathPropagatingBFS which reads the relationships of large frontiers in parallel.
+     *
+     * @param parallelExpansion reads large frontiers in parallel, or {@code null} to read every frontier through
+     *                          the graph cursor. Not closed by this class.
+     */
+    public PGPathPropagatingBFS(
+            long source,
+            State startState,
+            long intoTarget,
+            State finalState,
+            SearchMode searchMode,
+            ProductGraphTraversalCursor.DataGraphRelationshipCursor graphCursor,
+            ParallelFrontierExpansion parallelExpansion,
+            PathTracer<Row> pathTracer,
+            Function<SignpostStack, Row> toRow,
+            Predicate<Row> nonInlinedPredicate,
+            boolean isGroupSelector,
+            int maxDepth,
+            int initialCountForTargetNodes,
+            int nfaStateCount,
+            MemoryTracker mt,
+            PPBFSHooks hooks,
+            AssertOpen assertOpen,
+            TraversalMatchModeFactory tracker) {
         Preconditions.checkArgument(
                 intoTarget != NO_SUCH_ENTITY || searchMode == SearchMode.Unidirectional,
                 "Bidirectional search can only be performed with a target node");
@@ -113,9 +160,21 @@ public final class PGPathPropagatingBFS<Row> extends PrefetchingIterator<Row> im
         this.propagator = new Propagator(this.memoryTracker, hooks);
         this.globalState =
                 new GlobalState(propagator, targets, searchMode, this.memoryTracker, hooks, initialCountForTargetNodes);
-        var cursor = new ProductGraphTraversalCursor(graphCursor, this.memoryTracker);
-        this.bfsExpander =
-                new BFSExpander(foundNodes, globalState, cursor, graphCursor, intoTarget, nfaStateCount, tracker);
+        var prefetchingCursor = parallelExpansion == null
+                ? null
+                : new FrontierPrefetchingCursor(
+                        graphCursor, parallelExpansion, hooks, nfaStateCount, this.memoryTracker);
+        var dataGraphCursor = prefetchingCursor == null ? graphCursor : prefetchingCursor;
+        var cursor = new ProductGraphTraversalCursor(dataGraphCursor, this.memoryTracker);
+        this.bfsExpander = new BFSExpander(
+                foundNodes,
+                globalState,
+                cursor,
+                dataGraphCursor,
+                prefetchingCursor,
+                intoTarget,
+                nfaStateCount,
+                tracker);
 
         this.sourceNodeState = new NodeState(globalState, source, startState, intoTarget, tracker.lengths());
 
@@ -143,6 +202,48 @@ public final class PGPathPropagatingBFS<Row> extends PrefetchingIterator<Row> im
             PPBFSHooks hooks,
             AssertOpen assertOpen,
             TraversalMatchModeFactory tracker) {
+        return create(
+                source,
+                startState,
+                intoTarget,
+                finalState,
+                read,
+                nodeCursor,
+                relCursor,
+                null,
+                pathTracer,
+                toRow,
+                nonInlinedPredicate,
+                isGroupSelector,
+                maxDepth,
+                initialCountForTargetNodes,
+                numberOfNfaStates,
+                mt,
+                hooks,
+                assertOpen,
+                tracker);
+    }
+
+    public static <Row> PGPathPropagatingBFS<Row> create(
+            long source,
+            State startState,
+            long intoTarget,
+            State finalState,
+            Read read,
+            NodeCursor nodeCursor,
+            RelationshipTraversalCursor relCursor,
+            ParallelFrontierExpansion parallelExpansion,
+            PathTracer<Row> pathTracer,
+            Function<SignpostStack, Row> toRow,
+            Predicate<Row> nonInlinedPredicate,
+            boolean isGroupSelector,
+            int maxDepth,
+            int initialCountForTargetNodes,
+            int numberOfNfaStates,
+            MemoryTracker mt,
+            PPBFSHooks hooks,
+            AssertOpen assertOpen,
+            TraversalMatchModeFactory tracker) {
         return new PGPathPropagatingBFS<>(
                 source,
                 startState,
@@ -150,6 +251,7 @@ public final class PGPathPropagatingBFS<Row> extends PrefetchingIterator<Row> im
                 finalState,
                 intoTarget == NO_SUCH_ENTITY ? SearchMode.Unidirectional : SearchMode.Bidirectional,
                 new ProductGraphTraversalCursor.DataGraphRelationshipCursorImpl(read, nodeCursor, relCursor, hooks),
+                parallelExpansion,
                 pathTracer,
                 toRow,
                 nonInlinedPredicate,
@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.options.CypherExpressionEngineOption
 import org.neo4j.util.Preconditions
 
 import java.io.File
+import java.nio.file.Path
 
 object CypherRuntimeConfiguration {
 
@@ -46,7 +47,9 @@ object CypherRuntimeConfiguration {
       operatorFusingMethodLimit = config.operatorFusingMethodLimit,
       freeMemoryOfUnusedColumns = config.freeMemoryOfUnusedColumns,
       expressionEngineOption = config.expressionEngineOption,
-      spdBatchSize = config.shardedPropertyBatchSize
+      spdBatchSize = config.shardedPropertyBatchSize,
+      operatorSpillThreshold = config.operatorSpillThreshold,
+      operatorSpillDirectory = config.operatorSpillDirectory
     )
   }
 
@@ -70,7 +73,9 @@ case class CypherRuntimeConfiguration(
   operatorFusingMethodLimit: Int,
   freeMemoryOfUnusedColumns: Boolean,
   expressionEngineOption: CypherExpressionEngineOption,
-  spdBatchSize: Int
+  spdBatchSize: Int,
+  operatorSpillThreshold: Option[() => Long],
+  operatorSpillDirectory: Option[Path]
 ) {
 
   Preconditions.checkArgument(
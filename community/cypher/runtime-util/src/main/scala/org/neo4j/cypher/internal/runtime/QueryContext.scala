@@ -777,6 +777,12 @@ trait QueryTransactionalContext extends CloseableResource {
 
   def kernelExecutionContext: ExecutionContext
 
+  /**
+   * Create a new kernel execution context of this transaction, to read on another thread. The caller is responsible
+   * for completing and closing it. Execution contexts do not see the changes of the transaction.
+   */
+  def createKernelExecutionContext(): ExecutionContext
+
   def kernelQueryContext: org.neo4j.internal.kernel.api.QueryContext
 
   def cursors: CursorFactory
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.values.storable.Values.longValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.PathReference;
+import org.neo4j.values.virtual.PathValue;
+import org.neo4j.values.virtual.RelationshipReference;
+import org.neo4j.values.virtual.RelationshipValue;
+import org.neo4j.values.virtual.VirtualNodeReference;
+import org.neo4j.values.virtual.VirtualNodeValue;
+import org.neo4j.values.virtual.VirtualRelationshipValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+@ExtendWith(RandomExtension.class)
+class SpillingSortTableTest {
+    private static final Comparator<Row> COMPARATOR = Comparator.comparingLong(row -> row.key);
+
+    @Inject
+    private RandomSupport random;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldSortWithoutSpillingBelowThreshold() throws IOException {
+        try (var table = table(Long.MAX_VALUE, Long.MAX_VALUE)) {
+            List<Row> rows = randomRows(1000);
+            rows.forEach(row -> table.add(row, 16));
+
+            assertThat(table.numberOfRuns()).isZero();
+            assertThat(toList(table.sortedIterator())).isEqualTo(sorted(rows));
+            assertThat(spillFiles()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldSortStablyWhenSpillingManyRuns() throws IOException {
+        List<Row> rows = randomRows(10_000);
+        try (var table = table(16 * 100, Long.MAX_VALUE)) {
+            rows.forEach(row -> table.add(row, 16));
+
+            assertThat(table.numberOfRuns()).isBetween(1, SpillingSortTable.MAX_MERGE_FAN_IN);
+            assertThat(spillFiles()).isNotEmpty();
+            assertThat(toList(table.sortedIterator())).isEqualTo(sorted(rows));
+        }
+        assertThat(spillFiles()).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyKeepLimitRows() {
+        List<Row> rows = randomRows(5_000);
+        try (var table = table(16 * 64, 100)) {
+            rows.forEach(row -> table.add(row, 16));
+
+            assertThat(toList(table.sortedIterator())).isEqualTo(sorted(rows).subList(0, 100));
+        }
+    }
+
+    @Test
+    void shouldKeepRowsOnHeapIfTheyCannotBeSpilled() throws IOException {
+        List<Row> rows = randomRows(1_000);
+        rows.add(500, new Row(3, -1, VirtualValues.error(new RuntimeException())));
+        try (var table = table(16 * 100, Long.MAX_VALUE)) {
+            rows.forEach(row -> table.add(row, 16));
+
+            assertThat(table.numberOfRuns()).isEqualTo(5);
+            assertThat(sequences(toList(table.sortedIterator()))).isEqualTo(sequences(sorted(rows)));
+        }
+        assertThat(spillFiles()).isEmpty();
+    }
+
+    @Test
+    void shouldReleaseHeapOfSpilledRows() {
+        var memoryTracker = new LocalMemoryTracker();
+        try (var table = new SpillingSortTable<>(
+                COMPARATOR, new RowSerializer(), 1000, Long.MAX_VALUE, directory, memoryTracker)) {
+            long initialHeap = memoryTracker.estimatedHeapMemory();
+            for (int i = 0; i < 100; i++) {
+                table.add(new Row(i, i, longValue(i)), 100);
+            }
+            assertThat(memoryTracker.estimatedHeapMemory() - initialHeap).isLessThan(1000);
+        }
+        assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+    }
+
+    @Test
+    void shouldWriteAndReadValues() {
+        List<AnyValue> values = List.of(
+                Values.NO_VALUE,
+                longValue(42),
+                Values.stringValue("spill"),
+                Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 1.0, 2.0),
+                Values.longArray(new long[] {1, 2, 3}),
+                VirtualValues.node(17),
+                VirtualValues.relationship(18),
+                VirtualValues.list(longValue(1), Values.stringValue("a"), VirtualValues.node(2)),
+                VirtualValues.map(new String[] {"a", "b"}, new AnyValue[] {longValue(1), Values.TRUE}),
+                VirtualValues.pathReference(new long[] {1, 2}, new long[] {3}));
+
+        try (SpillFile file = SpillFile.create(directory)) {
+            SpillFile.Writer writer = file.writer();
+            for (AnyValue value : values) {
+                writer.writeValue(value);
+                writer.endRecord();
+            }
+            writer.writeValue(longValue(1));
+            try {
+                writer.writeValue(VirtualValues.error(new RuntimeException()));
+            } catch (SpillFile.UnsupportedValueException e) {
+                // the partially written record is discarded
+            }
+            file.finishWriting();
+
+            List<AnyValue> read = new ArrayList<>();
+            try (SpillFile.Reader reader = file.reader()) {
+                while (reader.nextRecord()) {
+                    read.add(reader.readValue());
+                }
+            }
+            assertThat(read).isEqualTo(values);
+        }
+    }
+
+    @Test
+    void shouldWriteAndReadStringsLongerThan64KiB() {
+        String longString = "\u00f6".repeat(70_000);
+        List<AnyValue> values = List.of(
+                VirtualValues.map(new String[] {longString}, new AnyValue[] {longValue(1)}),
+                VirtualValues.node(1, longString));
+
+        try (SpillFile file = SpillFile.create(directory)) {
+            SpillFile.Writer writer = file.writer();
+            for (AnyValue value : values) {
+                writer.writeValue(value);
+                writer.endRecord();
+            }
+            file.finishWriting();
+
+            try (SpillFile.Reader reader = file.reader()) {
+                assertThat(reader.nextRecord()).isTrue();
+                assertThat(reader.readValue()).isEqualTo(values.get(0));
+                assertThat(reader.nextRecord()).isTrue();
+                assertThat(((VirtualNodeReference) reader.readValue()).elementId()).isEqualTo(longString);
+                assertThat(reader.nextRecord()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void shouldWriteAndReadEntitiesInFull() {
+        NodeValue start = VirtualValues.nodeValue(
+                1,
+                "n1",
+                Values.stringArray("A", "B"),
+                VirtualValues.map(new String[] {"name"}, new AnyValue[] {Values.stringValue("start")}));
+        NodeValue end = VirtualValues.nodeValue(2, "n2", Values.stringArray(), VirtualValues.EMPTY_MAP, true);
+        RelationshipValue relationship = VirtualValues.relationshipValue(
+                3,
+                "r3",
+                start,
+                VirtualValues.node(2, "n2"),
+                Values.stringValue("KNOWS"),
+                VirtualValues.map(new String[] {"since"}, new AnyValue[] {longValue(2020)}));
+        PathValue path = VirtualValues.path(new NodeValue[] {start, end}, new RelationshipValue[] {relationship});
+
+        try (SpillFile file = SpillFile.create(directory)) {
+            SpillFile.Writer writer = file.writer();
+            writer.writeValue(path);
+            writer.writeValue(VirtualValues.pathReference(
+                    new VirtualNodeValue[] {start, VirtualValues.node(2)},
+                    new VirtualRelationshipValue[] {VirtualValues.relationship(3, 1, 2, 7)}));
+            writer.endRecord();
+            try {
+                writer.writeValue(VirtualValues.compositeGraphNodeValue(
+                        4, "n4", 1, Values.stringArray(), VirtualValues.EMPTY_MAP));
+            } catch (SpillFile.UnsupportedValueException e) {
+                // nodes of other graphs are not written by id
+            }
+            file.finishWriting();
+
+            try (SpillFile.Reader reader = file.reader()) {
+                assertThat(reader.nextRecord()).isTrue();
+                PathValue readPath = (PathValue) reader.readValue();
+                assertEntity(readPath.startNode(), start);
+                assertEntity(readPath.endNode(), end);
+                RelationshipValue readRelationship = readPath.relationships()[0];
+                assertThat(readRelationship.elementId()).isEqualTo("r3");
+                assertThat(readRelationship.type()).isEqualTo(Values.stringValue("KNOWS"));
+                assertThat(readRelationship.properties()).isEqualTo(relationship.properties());
+                assertEntity((NodeValue) readRelationship.startNode(), start);
+                assertThat(readRelationship.endNode().elementId()).isEqualTo("n2");
+
+                PathReference readReference = (PathReference) reader.readValue();
+                assertEntity((NodeValue) readReference.asList().head(), start);
+                RelationshipReference readReferenceRelationship =
+                        (RelationshipReference) readReference.relationshipsAsList().head();
+                assertThat(readReferenceRelationship.startNodeId(ignored -> {})).isEqualTo(1);
+                assertThat(readReferenceRelationship.endNodeId(ignored -> {})).isEqualTo(2);
+                assertThat(readReferenceRelationship.relationshipTypeId(ignored -> {}))
+                        .isEqualTo(7);
+                assertThat(reader.nextRecord()).isFalse();
+            }
+        }
+    }
+
+    private static void assertEntity(NodeValue actual, NodeValue expected) {
+        assertThat(actual.id()).isEqualTo(expected.id());
+        assertThat(actual.elementId()).isEqualTo(expected.elementId());
+        assertThat(actual.labels()).isEqualTo(expected.labels());
+        assertThat(actual.properties()).isEqualTo(expected.properties());
+        assertThat(actual.isDeleted()).isEqualTo(expected.isDeleted());
+    }
+
+    private SpillingSortTable<Row> table(long threshold, long limit) {
+        return new SpillingSortTable<>(
+                COMPARATOR, new RowSerializer(), threshold, limit, directory, new LocalMemoryTracker());
+    }
+
+    private List<Row> randomRows(int count) {
+        List<Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Row(random.nextInt(100), i, longValue(i)));
+        }
+        return rows;
+    }
+
+    private static List<Row> sorted(List<Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(COMPARATOR);
+        return sorted;
+    }
+
+    private static List<Row> toList(Iterator<Row> iterator) {
+        List<Row> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    private static List<Long> sequences(List<Row> rows) {
+        return rows.stream().map(Row::sequence).toList();
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private record Row(long key, long sequence, AnyValue payload) {}
+
+    private static class RowSerializer implements SpillSerializer<Row> {
+        @Override
+        public void write(Row row, SpillFile.Writer writer) {
+            writer.writeLong(row.key);
+            writer.writeLong(row.sequence);
+            writer.writeValue(row.payload);
+        }
+
+        @Override
+        public Row read(SpillFile.Reader reader) {
+            return new Row(reader.readLong(), reader.readLong(), reader.readValue());
+        }
+    }
+}
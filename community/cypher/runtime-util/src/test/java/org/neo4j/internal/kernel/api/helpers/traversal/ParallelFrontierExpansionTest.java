@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api.helpers.traversal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongPredicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.function.Predicates;
+import org.neo4j.internal.kernel.api.KernelReadTracer;
+import org.neo4j.internal.kernel.api.RelationshipTraversalEntities;
+import org.neo4j.internal.kernel.api.helpers.traversal.productgraph.ProductGraphTraversalCursor.DataGraphRelationshipCursor;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+class ParallelFrontierExpansionTest {
+    private static final int THREADS = 4;
+    private static final RelationshipSelection ALL = RelationshipSelection.ALL_RELATIONSHIPS;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS - 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldReplayRelationshipsInFrontierOrder() {
+        long[] frontier = frontier(5_000);
+
+        try (var expansion = expansion(1, new TestWorkers(-1));
+                var relationships =
+                        expansion.expand(frontier, ALL, Predicates.ALWAYS_FALSE_LONG, new GraphCursor(-1))) {
+            assertThat(replay(frontier, relationships)).isEqualTo(readSequentially(frontier, v -> false));
+        }
+    }
+
+    @Test
+    void shouldSkipRelationshipsToSkippedNodes() {
+        long[] frontier = frontier(1_000);
+        LongPredicate skip = node -> node % 3 == 0;
+
+        try (var expansion = expansion(1, new TestWorkers(-1));
+                var relationships = expansion.expand(frontier, ALL, skip, new GraphCursor(-1))) {
+            assertThat(replay(frontier, relationships)).isEqualTo(readSequentially(frontier, skip));
+        }
+    }
+
+    @Test
+    void shouldOnlyExpandLargeFrontiers() {
+        try (var expansion = expansion(100, new TestWorkers(-1))) {
+            assertThat(expansion.shouldExpand(99)).isFalse();
+            assertThat(expansion.shouldExpand(100)).isTrue();
+        }
+        try (var expansion = expansion(0, new TestWorkers(-1))) {
+            assertThat(expansion.shouldExpand(1_000_000)).isFalse();
+        }
+        var workers = new TestWorkers(-1);
+        workers.canRead = false;
+        try (var expansion = expansion(100, workers)) {
+            assertThat(expansion.shouldExpand(1_000)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldRequireNodesInFrontierOrder() {
+        long[] frontier = frontier(100);
+
+        try (var expansion = expansion(1, new TestWorkers(-1));
+                var relationships =
+                        expansion.expand(frontier, ALL, Predicates.ALWAYS_FALSE_LONG, new GraphCursor(-1))) {
+            relationships.setNode(frontier[0]);
+            assertThatThrownBy(() -> relationships.setNode(frontier[2])).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldRethrowFailureOfAnyReadingThread() {
+        long[] frontier = frontier(5_000);
+
+        try (var expansion = expansion(1, new TestWorkers(4_321))) {
+            assertThatThrownBy(() -> expansion.expand(
+                            frontier, ALL, Predicates.ALWAYS_FALSE_LONG, new GraphCursor(4_321)))
+                    .hasMessageContaining("4321");
+        }
+    }
+
+    @Test
+    void shouldCloseAllWorkers() {
+        var workers = new TestWorkers(-1);
+        long[] frontier = frontier(5_000);
+
+        try (var expansion = expansion(1, workers)) {
+            for (int level = 0; level < 3; level++) {
+                expansion
+                        .expand(frontier, ALL, Predicates.ALWAYS_FALSE_LONG, new GraphCursor(-1))
+                        .close();
+            }
+        }
+
+        assertThat(workers.created).isBetween(1, THREADS - 1);
+        assertThat(workers.closed).isEqualTo(workers.created);
+    }
+
+    private ParallelFrontierExpansion expansion(int threshold, TestWorkers workers) {
+        return new ParallelFrontierExpansion(threshold, THREADS, executor, workers, EmptyMemoryTracker.INSTANCE);
+    }
+
+    private static long[] frontier(int size) {
+        long[] frontier = new long[size];
+        for (int i = 0; i < size; i++) {
+            // not in id order, to make sure the frontier order is kept
+            frontier[i] = (i * 7919L) % size;
+        }
+        return frontier;
+    }
+
+    private static List<String> replay(long[] frontier, FrontierRelationships relationships) {
+        var result = new ArrayList<String>();
+        for (long node : frontier) {
+            relationships.setNode(node);
+            while (relationships.next()) {
+                result.add(describe(relationships.originNodeReference(), relationships));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> readSequentially(long[] frontier, LongPredicate skip) {
+        var cursor = new GraphCursor(-1);
+        var result = new ArrayList<String>();
+        for (long node : frontier) {
+            cursor.setNode(node, ALL);
+            while (cursor.nextRelationship()) {
+                if (!skip.test(cursor.otherNodeReference())) {
+                    result.add(describe(node, cursor));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String describe(long node, RelationshipTraversalEntities rel) {
+        return node + ":" + rel.relationshipReference() + ":" + rel.type() + ":" + rel.sourceNodeReference() + "->"
+                + rel.targetNodeReference() + ":" + rel.otherNodeReference();
+    }
+
+    private static class TestWorkers implements ParallelFrontierExpansion.WorkerFactory {
+        private final long failOnNode;
+        private volatile boolean canRead = true;
+        private int created;
+        private int closed;
+
+        TestWorkers(long failOnNode) {
+            this.failOnNode = failOnNode;
+        }
+
+        @Override
+        public boolean canRead() {
+            return canRead;
+        }
+
+        @Override
+        public ParallelFrontierExpansion.Worker create() {
+            created++;
+            var cursor = new GraphCursor(failOnNode);
+            return new ParallelFrontierExpansion.Worker() {
+                @Override
+                public DataGraphRelationshipCursor cursor() {
+                    return cursor;
+                }
+
+                @Override
+                public MemoryTracker memoryTracker() {
+                    return EmptyMemoryTracker.INSTANCE;
+                }
+
+                @Override
+                public void close() {
+                    closed++;
+                }
+            };
+        }
+    }
+
+    /**
+     * Node {@code n} has {@code n % 5} relationships, alternating between outgoing and incoming ones, to the nodes
+     * following it.
+     */
+    private static class GraphCursor implements DataGraphRelationshipCursor {
+        private final long failOnNode;
+        private long node;
+        private int relationship;
+
+        GraphCursor(long failOnNode) {
+            this.failOnNode = failOnNode;
+        }
+
+        @Override
+        public void setNode(long nodeId, RelationshipSelection relationshipSelection) {
+            if (nodeId == failOnNode) {
+                throw new IllegalStateException("Failed to read node " + nodeId);
+            }
+            node = nodeId;
+            relationship = 0;
+        }
+
+        @Override
+        public boolean nextRelationship() {
+            return ++relationship <= node % 5;
+        }
+
+        @Override
+        public void setTracer(KernelReadTracer tracer) {}
+
+        @Override
+        public long relationshipReference() {
+            return node * 10 + relationship;
+        }
+
+        @Override
+        public int type() {
+            return relationship;
+        }
+
+        @Override
+        public long sourceNodeReference() {
+            return relationship % 2 == 0 ? node : node + relationship;
+        }
+
+        @Override
+        public long targetNodeReference() {
+            return relationship % 2 == 0 ? node + relationship : node;
+        }
+
+        @Override
+        public long otherNodeReference() {
+            return node + relationship;
+        }
+
+        @Override
+        public long originNodeReference() {
+            return node;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.expressions;
+
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState;
+import org.neo4j.util.CalledFromGeneratedCode;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Static helpers called from the expressions compiled by the slotted runtime, for the operations that are more
+ * convenient to write in Java than to generate.
+ */
+@SuppressWarnings({"ReferenceEquality"})
+public final class CompiledHelpers {
+    private CompiledHelpers() {
+        throw new UnsupportedOperationException("Do not instantiate");
+    }
+
+    @CalledFromGeneratedCode
+    public static Value isNull(AnyValue value) {
+        return Values.booleanValue(value == NO_VALUE);
+    }
+
+    @CalledFromGeneratedCode
+    public static Value isNotNull(AnyValue value) {
+        return Values.booleanValue(value != NO_VALUE);
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue nodeById(QueryState state, long id) {
+        return state.query().nodeById(id);
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue relationshipById(QueryState state, long id) {
+        return state.query().relationshipById(id);
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue nodeProperty(QueryState state, long id, int token) {
+        return state.query()
+                .nodeReadOps()
+                .getProperty(
+                        id, token, state.cursors().nodeCursor(), state.cursors().propertyCursor(), true);
+    }
+
+    @CalledFromGeneratedCode
+    public static AnyValue relationshipProperty(QueryState state, long id, int token) {
+        return state.query()
+                .relationshipReadOps()
+                .getProperty(
+                        id,
+                        token,
+                        state.cursors().relationshipScanCursor(),
+                        state.cursors().propertyCursor(),
+                        true);
+    }
+}
@@ -239,6 +239,7 @@ import org.neo4j.cypher.internal.runtime.slotted.aggregation.SlottedNonGroupingA
 import org.neo4j.cypher.internal.runtime.slotted.aggregation.SlottedOrderedGroupingAggTable
 import org.neo4j.cypher.internal.runtime.slotted.aggregation.SlottedOrderedNonGroupingAggTable
 import org.neo4j.cypher.internal.runtime.slotted.aggregation.SlottedPrimitiveGroupingAggTable
+import org.neo4j.cypher.internal.runtime.slotted.aggregation.SpillingGroupingAggTable
 import org.neo4j.cypher.internal.runtime.slotted.expressions.CreateSlottedNode
 import org.neo4j.cypher.internal.runtime.slotted.expressions.CreateSlottedRelationship
 import org.neo4j.cypher.internal.runtime.slotted.expressions.SlottedRemoveLabelsOperation
@@ -308,6 +309,7 @@ import org.neo4j.cypher.internal.runtime.slotted.pipes.SlottedSetRelationshipPro
 import org.neo4j.cypher.internal.runtime.slotted.pipes.SortSlottedPipe
 import org.neo4j.cypher.internal.runtime.slotted.pipes.StatefulShortestPathSlottedPipe
 import org.neo4j.cypher.internal.runtime.slotted.pipes.SubtractionNodesByLabelsScanSlottedPipe
+import org.neo4j.cypher.internal.runtime.slotted.pipes.TopNSlottedPipe
 import org.neo4j.cypher.internal.runtime.slotted.pipes.TransactionApplySlottedPipe
 import org.neo4j.cypher.internal.runtime.slotted.pipes.TransactionForeachSlottedPipe
 import org.neo4j.cypher.internal.runtime.slotted.pipes.UndirectedAllRelationshipsScanSlottedPipe
@@ -330,8 +332,11 @@ import org.neo4j.exceptions.InternalException
 import org.neo4j.exceptions.ShortestPathCommonEndNodesForbiddenException.shortestPathCommonEndNodes
 import org.neo4j.internal.kernel.api.helpers.traversal.SlotOrName
 import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.values.storable.Values
 import org.neo4j.values.storable.Values.NO_VALUE
 
+import java.nio.file.Path
+
 import scala.annotation.nowarn
 import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
@@ -341,10 +346,15 @@ class SlottedPipeMapper(
   expressionConverters: ExpressionConverters,
   physicalPlan: PhysicalPlan,
   readOnly: Boolean,
-  indexRegistrator: QueryIndexRegistrator
+  indexRegistrator: QueryIndexRegistrator,
+  operatorSpillThreshold: Option[() => Long],
+  operatorSpillDirectory: Option[Path]
 )(implicit semanticTable: TokenTable)
     extends PipeMapper {
 
+  private def spilling(slots: SlotConfiguration): Option[SlottedSpilling] =
+    operatorSpillThreshold.map(SlottedSpilling(_, operatorSpillDirectory, slots))
+
   override def onLeaf(plan: LogicalPlan): Pipe = {
 
     val id = plan.id
@@ -1613,7 +1623,24 @@ class SlottedPipeMapper(
             )
           }
 
-        EagerAggregationPipe(source, tableFactory)(id)
+        val inputSpilling = spilling(physicalPlan.slotConfigurations(plan.lhs.get.id))
+        val spillingTableFactory = tableFactory match {
+          case factory: SlottedPrimitiveGroupingAggTable.Factory if inputSpilling.isDefined =>
+            SpillingGroupingAggTable.Factory(
+              factory,
+              (row, _) => Values.longArray(longSlotGroupingValues.map(row.getLongAt)),
+              inputSpilling.get
+            )
+          case factory: SlottedGroupingAggTable.Factory if inputSpilling.isDefined =>
+            SpillingGroupingAggTable.Factory(
+              factory,
+              (row, state) => factory.groupingColumns.computeGroupingKey(row, state),
+              inputSpilling.get
+            )
+          case _ => tableFactory
+        }
+
+        EagerAggregationPipe(source, spillingTableFactory)(id)
 
       case OrderedAggregation(_, groupingExpressions, aggregationExpression, orderToLeverage) =>
         val aggregation = aggregationExpression.map {
@@ -1663,11 +1690,11 @@ class SlottedPipeMapper(
         )(id = id)
 
       case Top(_, sortItems, limit) =>
-        TopNPipe(
-          source,
-          convertExpressions(limit),
-          SlottedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder(slots, _)))
-        )(id = id)
+        val comparator = SlottedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder(slots, _)))
+        spilling(slots) match {
+          case Some(spill) => TopNSlottedPipe(source, convertExpressions(limit), comparator, spill)(id = id)
+          case None        => TopNPipe(source, convertExpressions(limit), comparator)(id = id)
+        }
 
       case PartialTop(_, _, stillToSortSuffix, _, _) if stillToSortSuffix.isEmpty => source
 
@@ -1701,7 +1728,8 @@ class SlottedPipeMapper(
       case Sort(_, sortItems) =>
         SortSlottedPipe(
           source,
-          SlottedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder(slots, _)))
+          SlottedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder(slots, _))),
+          spilling(slots)
         )(id = id)
 
       case PartialSort(_, alreadySortedPrefix, stillToSortSuffix, skipSortingPrefixLength) =>
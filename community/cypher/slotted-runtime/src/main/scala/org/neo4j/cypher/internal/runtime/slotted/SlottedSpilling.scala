@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted
+
+import org.neo4j.cypher.internal.collection.SpillFile
+import org.neo4j.cypher.internal.collection.SpillSerializer
+import org.neo4j.cypher.internal.collection.SpillingSortTable
+import org.neo4j.cypher.internal.physicalplanning.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.memory.MemoryTracker
+
+import java.nio.file.Path
+import java.util.Comparator
+
+/**
+ * Lets an operator of the slotted runtime move rows of the given slot configuration to disk once the rows it buffers
+ * use more than `threshold()` bytes of heap.
+ *
+ * The threshold is derived from the memory limit of the transaction, which can change while plans are cached, so
+ * operators read it once each time they start rather than when the plan is built.
+ *
+ * @param threshold estimated heap usage, in bytes, after which rows are moved to disk.
+ * @param directory where to create spill files, the default temporary directory if not set.
+ * @param slots the slot configuration of the rows to spill.
+ */
+case class SlottedSpilling(threshold: () => Long, directory: Option[Path], slots: SlotConfiguration) {
+
+  val serializer: SpillSerializer[CypherRow] = new SlottedRowSpillSerializer(slots)
+
+  def sortTable(
+    comparator: Comparator[ReadableRow],
+    threshold: Long,
+    limit: Long,
+    memoryTracker: MemoryTracker
+  ): SpillingSortTable[CypherRow] =
+    new SpillingSortTable[CypherRow](comparator, serializer, threshold, limit, directory.orNull, memoryTracker)
+
+  def createFile(): SpillFile = SpillFile.create(directory.orNull)
+}
+
+/**
+ * Writes all long and reference slots of a [[SlottedRow]].
+ */
+class SlottedRowSpillSerializer(slots: SlotConfiguration) extends SpillSerializer[CypherRow] {
+
+  override def write(row: CypherRow, writer: SpillFile#Writer): Unit = row match {
+    case slottedRow: SlottedRow
+      if slottedRow.longs.length == slots.numberOfLongs && slottedRow.refs.length == slots.numberOfReferences =>
+      val longs = slottedRow.longs
+      var i = 0
+      while (i < longs.length) {
+        writer.writeLong(longs(i))
+        i += 1
+      }
+      val refs = slottedRow.refs
+      i = 0
+      while (i < refs.length) {
+        writer.writeValue(refs(i))
+        i += 1
+      }
+    case _ =>
+      throw new SpillFile.UnsupportedValueException(s"Cannot spill row of type ${row.getClass.getSimpleName}")
+  }
+
+  override def read(reader: SpillFile.Reader): CypherRow = {
+    val row = SlottedRow(slots)
+    val longs = row.longs
+    var i = 0
+    while (i < longs.length) {
+      longs(i) = reader.readLong()
+      i += 1
+    }
+    val refs = row.refs
+    i = 0
+    while (i < refs.length) {
+      refs(i) = reader.readValue()
+      i += 1
+    }
+    row
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.aggregation
+
+import org.neo4j.collection.trackable.HeapTrackingCollections
+import org.neo4j.collection.trackable.HeapTrackingUnifiedSet
+import org.neo4j.cypher.internal.collection.SpillFile
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.slotted.SlottedSpilling
+import org.neo4j.cypher.internal.runtime.slotted.aggregation.SpillingGroupingAggTable.HASH_MULTIPLIER
+import org.neo4j.cypher.internal.runtime.slotted.aggregation.SpillingGroupingAggTable.NUMBER_OF_PARTITIONS
+import org.neo4j.cypher.internal.runtime.slotted.aggregation.SpillingGroupingAggTable.PARTITION_BITS
+import org.neo4j.cypher.internal.runtime.slotted.aggregation.SpillingGroupingAggTable.PARTITION_LEVELS
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.values.AnyValue
+
+/**
+ * A grouping aggregation table that moves input rows to disk when the groups it holds on heap grow too large.
+ *
+ * Rows are aggregated by a table of the wrapped factory until the heap usage of the operator reaches the spill
+ * threshold. From then on the groups seen so far stay resident and keep being aggregated on heap, while rows of any
+ * other group are hash partitioned by their grouping key into spill files. When the result is requested, the resident
+ * groups are produced first, followed by the groups of each partition, which are aggregated one partition at a time
+ * by a fresh table. Since all rows of a group end up in the same place, and in input order, no aggregation state ever
+ * has to be written to disk.
+ *
+ * A partition is aggregated by another spilling table, one level deeper, which partitions its rows by other bits of
+ * the grouping key hash if the partition doesn't fit under the threshold either. Once all bits of the hash have been
+ * used, the remaining groups of a partition all share the same hash and are aggregated on heap, subject to the usual
+ * memory limits.
+ *
+ * If a row cannot be written to disk, its partition is read back into the resident table and is kept on heap from
+ * then on.
+ */
+class SpillingGroupingAggTable(
+  inner: AggregationTableFactory,
+  groupingKey: (CypherRow, QueryState) => AnyValue,
+  spilling: SlottedSpilling,
+  state: QueryState,
+  rowFactory: CypherRowFactory,
+  operatorId: Id,
+  level: Int
+) extends AggregationTable {
+
+  private[this] val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(operatorId.x)
+  private[this] var table: AggregationTable = _
+  private[this] var residentGroups: HeapTrackingUnifiedSet[AnyValue] = _
+  private[this] var residentGroupsHeapUsage = 0L
+  private[this] var heapUsageBefore = 0L
+  private[this] var threshold = 0L
+  private[this] var partitions: Array[SpillFile] = _
+  private[this] var residentPartitions: Array[Boolean] = _
+  private[this] var resourceRegistered = false
+
+  override def clear(): Unit = {
+    close()
+    if (!resourceRegistered) {
+      state.query.resources.trace(DefaultCloseListenable.wrap(() => close()))
+      resourceRegistered = true
+    }
+    // Partitions are aggregated while the tables of the partitions before them may still hold on to some memory
+    heapUsageBefore = memoryTracker.estimatedHeapMemory()
+    threshold = spilling.threshold()
+    table = inner.table(state, rowFactory, operatorId)
+    table.clear()
+    residentGroups = HeapTrackingCollections.newSet(memoryTracker)
+    residentGroupsHeapUsage = 0L
+  }
+
+  override def processRow(row: CypherRow): Unit = {
+    val key = groupingKey(row, state)
+    if (partitions == null) {
+      if (residentGroups.add(key)) {
+        residentGroupsHeapUsage += key.estimatedHeapUsage()
+      }
+      table.processRow(row)
+      if (
+        level < PARTITION_LEVELS &&
+        Math.max(memoryTracker.estimatedHeapMemory() - heapUsageBefore, residentGroupsHeapUsage) >= threshold
+      ) {
+        partitions = new Array[SpillFile](NUMBER_OF_PARTITIONS)
+        residentPartitions = new Array[Boolean](NUMBER_OF_PARTITIONS)
+      }
+    } else {
+      val partition = partitionOf(key)
+      if (residentPartitions(partition) || residentGroups.contains(key)) {
+        table.processRow(row)
+      } else {
+        spill(row, partition)
+      }
+    }
+  }
+
+  override def result(): ClosingIterator[CypherRow] = {
+    val residentResult = table.result()
+    if (partitions == null) {
+      residentResult.closing(() => close())
+    } else {
+      partitions.foreach(file => if (file != null) file.finishWriting())
+      residentResult.addAllLazy(() => {
+        closeResidentGroups()
+        ClosingIterator(partitions.iterator.filter(_ != null)).flatMap(aggregatePartition)
+      }).closing(() => close())
+    }
+  }
+
+  private def spill(row: CypherRow, partition: Int): Unit = {
+    if (partitions(partition) == null) {
+      partitions(partition) = spilling.createFile()
+    }
+    val writer = partitions(partition).writer()
+    try {
+      spilling.serializer.write(row, writer)
+      writer.endRecord()
+    } catch {
+      case _: SpillFile.UnsupportedValueException =>
+        val file = partitions(partition)
+        partitions(partition) = null
+        residentPartitions(partition) = true
+        file.finishWriting()
+        readInto(table, file)
+        table.processRow(row)
+    }
+  }
+
+  private def aggregatePartition(file: SpillFile): ClosingIterator[CypherRow] = {
+    val partitionTable =
+      new SpillingGroupingAggTable(inner, groupingKey, spilling, state, rowFactory, operatorId, level + 1)
+    partitionTable.clear()
+    readInto(partitionTable, file)
+    partitionTable.result()
+  }
+
+  private def readInto(target: AggregationTable, file: SpillFile): Unit = {
+    val reader = file.reader()
+    try {
+      while (reader.nextRecord()) {
+        target.processRow(spilling.serializer.read(reader))
+      }
+    } finally {
+      reader.close()
+      file.close()
+    }
+  }
+
+  private def partitionOf(key: AnyValue): Int = {
+    // Multiplying by an odd constant keeps distinct hashes distinct and spreads them over the high bits
+    val hash = key.hashCode() * HASH_MULTIPLIER
+    (hash >>> (Integer.SIZE - PARTITION_BITS * (level + 1))) & (NUMBER_OF_PARTITIONS - 1)
+  }
+
+  private def closeResidentGroups(): Unit = {
+    if (residentGroups != null) {
+      residentGroups.close()
+      residentGroups = null
+    }
+  }
+
+  private def close(): Unit = {
+    closeResidentGroups()
+    if (partitions != null) {
+      partitions.foreach(file => if (file != null) file.close())
+      partitions = null
+      residentPartitions = null
+    }
+  }
+}
+
+object SpillingGroupingAggTable {
+
+  /**
+   * Number of bits of the grouping key hash used to pick a partition at each level.
+   */
+  val PARTITION_BITS = 4
+
+  /**
+   * Number of partitions rows are spilled to at each level.
+   */
+  val NUMBER_OF_PARTITIONS: Int = 1 << PARTITION_BITS
+
+  /**
+   * Number of levels rows can be spilled at before all bits of the hash have been used.
+   */
+  val PARTITION_LEVELS: Int = Integer.SIZE / PARTITION_BITS
+
+  private val HASH_MULTIPLIER: Int = 0x9e3779b9
+
+  case class Factory(
+    inner: AggregationTableFactory,
+    groupingKey: (CypherRow, QueryState) => AnyValue,
+    spilling: SlottedSpilling
+  ) extends AggregationTableFactory {
+
+    override def table(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): AggregationTable =
+      new SpillingGroupingAggTable(inner, groupingKey, spilling, state, rowFactory, operatorId, 0)
+  }
+}
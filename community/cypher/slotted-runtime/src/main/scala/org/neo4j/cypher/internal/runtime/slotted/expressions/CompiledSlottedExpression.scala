@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.expressions
+
+import org.neo4j.cypher.internal.expressions
+import org.neo4j.cypher.internal.runtime.ReadWriteRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsMatchResult
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+
+/**
+ * An expression compiled by [[SlottedExpressionCompiler]]. The sub-expressions that could not be compiled and are
+ * called from the generated code are its children.
+ */
+case class CompiledSlottedExpression(
+  compiled: CompiledExpression,
+  source: expressions.Expression,
+  interpreted: Seq[Expression]
+) extends Expression with SlottedExpression {
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = compiled.evaluate(row, state)
+
+  override def arguments: Seq[Expression] = interpreted
+
+  override def children: Seq[AstNode[_]] = interpreted
+
+  override def toString: String = s"Compiled(${source.asCanonicalStringVal})"
+}
+
+/**
+ * A predicate compiled by [[SlottedExpressionCompiler]], evaluating to a boolean or to `NO_VALUE`.
+ */
+case class CompiledSlottedPredicate(
+  compiled: CompiledExpression,
+  source: expressions.Expression,
+  interpreted: Seq[Expression]
+) extends Predicate with SlottedExpression {
+
+  override def isMatch(ctx: ReadableRow, state: QueryState): IsMatchResult =
+    IsMatchResult(compiled.evaluate(ctx, state).asInstanceOf[Value])
+
+  override def arguments: Seq[Expression] = interpreted
+
+  override def children: Seq[AstNode[_]] = interpreted
+
+  override def toString: String = s"Compiled(${source.asCanonicalStringVal})"
+}
+
+/**
+ * A projection compiled by [[SlottedExpressionCompiler]] into a single class writing all projected reference slots.
+ */
+case class CompiledSlottedProjection(
+  compiled: CompiledProjection,
+  sources: Map[Int, expressions.Expression],
+  interpreted: Seq[Expression]
+) extends CommandProjection {
+
+  override def isEmpty: Boolean = sources.isEmpty
+
+  override def project(ctx: ReadWriteRow, state: QueryState): Unit = compiled.project(ctx, state)
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.expressions
+
+import org.neo4j.cypher.internal.expressions
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.LogicalVariable
+import org.neo4j.cypher.internal.physicalplanning.PhysicalPlan
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.GroupingExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates
+import org.neo4j.cypher.internal.runtime.slotted.expressions.SlottedExpressionCompiler.canCompile
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.cypher.internal.util.attribution.Id
+
+/**
+ * Main expression converter of the slotted runtime when expressions are compiled, which happens once a query has been
+ * executed often enough to be considered hot.
+ *
+ * Expressions, projections and grouping keys that [[SlottedExpressionCompiler]] can compile are turned into generated
+ * classes, everything else is left to the fallback converters. Boolean connectives are kept interpreted, so that
+ * their short-circuiting and error semantics stay the same, but their operands are compiled one by one.
+ */
+case class CompiledSlottedExpressionConverter(physicalPlan: PhysicalPlan) extends ExpressionConverter {
+
+  override def toCommandExpression(
+    id: Id,
+    expression: Expression,
+    self: ExpressionConverters
+  ): Option[commands.expressions.Expression] = expression match {
+    case e: expressions.And if canCompile(e.lhs) || canCompile(e.rhs) =>
+      Some(predicates.Ands(self.toCommandPredicate(id, e.lhs), self.toCommandPredicate(id, e.rhs)))
+    case e: expressions.Ands if e.exprs.exists(canCompile) =>
+      Some(predicates.Ands(NonEmptyList.from(e.exprs.map(self.toCommandPredicate(id, _)))))
+    case e: expressions.Or if canCompile(e.lhs) || canCompile(e.rhs) =>
+      Some(predicates.Ors(NonEmptyList(self.toCommandPredicate(id, e.lhs), self.toCommandPredicate(id, e.rhs))))
+    case e: expressions.Ors if e.exprs.exists(canCompile) =>
+      Some(predicates.Ors(NonEmptyList.from(e.exprs.map(self.toCommandPredicate(id, _)))))
+    case e if canCompile(e) =>
+      SlottedExpressionCompiler.compileExpression(e, self.toCommandExpression(id, _))
+    case _ => None
+  }
+
+  override def toCommandProjection(
+    id: Id,
+    projections: Map[LogicalVariable, Expression],
+    self: ExpressionConverters
+  ): Option[CommandProjection] = {
+    val slots = physicalPlan.slotConfigurations(id)
+    val projected = for {
+      (k, v) <- projections if !slots(k).isLongSlot
+    } yield slots(k).offset -> v
+    if (projected.values.exists(canCompile)) {
+      SlottedExpressionCompiler.compileProjection(projected, self.toCommandExpression(id, _))
+    } else {
+      None
+    }
+  }
+
+  override def toGroupingExpression(
+    id: Id,
+    groupings: Map[LogicalVariable, Expression],
+    orderToLeverage: collection.Seq[Expression],
+    self: ExpressionConverters
+  ): Option[GroupingExpression] = {
+    if (groupings.values.exists(canCompile)) {
+      // the grouping keys are compiled one by one when converted through `self`
+      SlottedExpressionConverters(physicalPlan).toGroupingExpression(id, groupings, orderToLeverage, self)
+    } else {
+      None
+    }
+  }
+}
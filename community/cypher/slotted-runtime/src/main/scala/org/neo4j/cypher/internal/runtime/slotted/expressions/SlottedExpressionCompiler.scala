@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.expressions
+
+import org.neo4j.codegen
+import org.neo4j.codegen.ClassGenerator
+import org.neo4j.codegen.CodeGenerationNotSupportedException
+import org.neo4j.codegen.CodeGenerator.generateCode
+import org.neo4j.codegen.CompilationFailureException
+import org.neo4j.codegen.Expression.arrayLoad
+import org.neo4j.codegen.Expression.cast
+import org.neo4j.codegen.Expression.constantInt
+import org.neo4j.codegen.Expression.constantLong
+import org.neo4j.codegen.Expression.equal
+import org.neo4j.codegen.Expression.getStatic
+import org.neo4j.codegen.Expression.invoke
+import org.neo4j.codegen.Expression.ternary
+import org.neo4j.codegen.FieldReference.staticField
+import org.neo4j.codegen.MethodReference
+import org.neo4j.codegen.MethodReference.methodReference
+import org.neo4j.codegen.Parameter.param
+import org.neo4j.codegen.TypeReference.typeReference
+import org.neo4j.codegen.bytecode.ByteCode.BYTECODE
+import org.neo4j.cypher.internal.expressions
+import org.neo4j.cypher.internal.physicalplanning.ast
+import org.neo4j.cypher.internal.runtime.ReadWriteRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.WritableRow
+import org.neo4j.cypher.internal.runtime.ast.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.NULL_ENTITY
+import org.neo4j.cypher.operations.CypherMath
+import org.neo4j.kernel.impl.util.ValueUtils
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.LongValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.utils.ValueBooleanLogic
+
+import java.util.concurrent.atomic.AtomicLong
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Compiles expressions and projections of the slotted runtime to bytecode, one class per expression or projection.
+ *
+ * Literals, parameters, comparisons, arithmetic, null checks and reads of slots and of properties of entities in slots
+ * are generated as straight-line code that reads the longs and references of the row directly. Any other
+ * sub-expression is converted by the given interpreter and called from the generated code, so only the root of an
+ * expression needs to be supported for it to be compiled.
+ */
+object SlottedExpressionCompiler {
+
+  private val PACKAGE = "org.neo4j.cypher.internal.runtime.slotted.expressions.generated"
+  private val CONSTANTS = "CONSTANTS"
+  private val INTERPRETED = "INTERPRETED"
+  private val classIds = new AtomicLong()
+
+  private val GET_LONG_AT = methodReference(classOf[ReadableRow], classOf[Long], "getLongAt", classOf[Int])
+  private val GET_REF_AT = methodReference(classOf[ReadableRow], classOf[AnyValue], "getRefAt", classOf[Int])
+
+  private val SET_REF_AT =
+    methodReference(classOf[WritableRow], Void.TYPE, "setRefAt", classOf[Int], classOf[AnyValue])
+  private val PARAMS = methodReference(classOf[QueryState], classOf[Array[AnyValue]], "params")
+
+  private val APPLY = methodReference(
+    classOf[commands.expressions.Expression],
+    classOf[AnyValue],
+    "apply",
+    classOf[ReadableRow],
+    classOf[QueryState]
+  )
+  private val LONG_VALUE = methodReference(classOf[Values], classOf[LongValue], "longValue", classOf[Long])
+
+  private val NO_VALUE = getStatic(staticField(classOf[Values], classOf[Value], "NO_VALUE"))
+  private val TRUE = getStatic(staticField(classOf[Values], classOf[BooleanValue], "TRUE"))
+  private val FALSE = getStatic(staticField(classOf[Values], classOf[BooleanValue], "FALSE"))
+
+  /**
+   * @return true if the root of the given expression is supported, and does more than reading a single value.
+   */
+  def canCompile(expression: expressions.Expression): Boolean = expression match {
+    case e: expressions.Not => isPredicate(e.rhs)
+    case ast.NullCheck(_, inner) => canCompile(inner)
+    case _: expressions.Equals | _: expressions.NotEquals | _: expressions.LessThan | _: expressions.LessThanOrEqual |
+      _: expressions.GreaterThan | _: expressions.GreaterThanOrEqual | _: expressions.IsNull |
+      _: expressions.IsNotNull | _: expressions.Add | _: expressions.Subtract | _: expressions.Multiply |
+      _: expressions.Divide | _: expressions.Modulo | _: expressions.Pow => true
+    case _ => false
+  }
+
+  /**
+   * @return true if the given expression is compiled to code that only evaluates to a boolean or to `NO_VALUE`.
+   */
+  def isPredicate(expression: expressions.Expression): Boolean = expression match {
+    case e: expressions.Not => isPredicate(e.rhs)
+    case ast.NullCheck(_, inner) => isPredicate(inner)
+    case _: expressions.Equals | _: expressions.NotEquals | _: expressions.LessThan | _: expressions.LessThanOrEqual |
+      _: expressions.GreaterThan | _: expressions.GreaterThanOrEqual | _: expressions.IsNull |
+      _: expressions.IsNotNull | _: expressions.True | _: expressions.False => true
+    case _ => false
+  }
+
+  /**
+   * Compiles the given expression, whose root must be supported according to [[canCompile]].
+   *
+   * @param interpret converts the sub-expressions that cannot be compiled.
+   * @return the compiled expression, or `None` if code generation failed.
+   */
+  def compileExpression(
+    expression: expressions.Expression,
+    interpret: expressions.Expression => commands.expressions.Expression
+  ): Option[commands.expressions.Expression] =
+    generate(classOf[CompiledExpression], interpret) { (generator, body) =>
+      val method = generator.generateMethod(
+        classOf[AnyValue],
+        "evaluate",
+        param(classOf[ReadableRow], "row"),
+        param(classOf[QueryState], "state")
+      )
+      try {
+        method.returns(body.generate(expression, method.load("row"), method.load("state")))
+      } finally {
+        method.close()
+      }
+    }.map {
+      case (compiled, interpreted) =>
+        if (isPredicate(expression)) CompiledSlottedPredicate(compiled, expression, interpreted)
+        else CompiledSlottedExpression(compiled, expression, interpreted)
+    }
+
+  /**
+   * Compiles the given projections into a single class that writes the projected values to their reference slots.
+   *
+   * @param projections the expressions to project, keyed by the offset of the reference slot to write to.
+   * @param interpret converts the sub-expressions that cannot be compiled.
+   * @return the compiled projection, or `None` if code generation failed.
+   */
+  def compileProjection(
+    projections: Map[Int, expressions.Expression],
+    interpret: expressions.Expression => commands.expressions.Expression
+  ): Option[CommandProjection] =
+    generate(classOf[CompiledProjection], interpret) { (generator, body) =>
+      val method = generator.generateMethod(
+        Void.TYPE,
+        "project",
+        param(classOf[ReadWriteRow], "row"),
+        param(classOf[QueryState], "state")
+      )
+      try {
+        projections.toSeq.sortBy(_._1).foreach {
+          case (offset, expression) =>
+            val value = body.generate(expression, method.load("row"), method.load("state"))
+            method.expression(invoke(method.load("row"), SET_REF_AT, constantInt(offset), value))
+        }
+      } finally {
+        method.close()
+      }
+    }.map {
+      case (compiled, interpreted) => CompiledSlottedProjection(compiled, projections, interpreted)
+    }
+
+  private def staticMethod(owner: Class[_], name: String, parameters: Class[_]*): MethodReference =
+    methodReference(owner.getMethod(name, parameters: _*))
+
+  private def generate[T](
+    interface: Class[T],
+    interpret: expressions.Expression => commands.expressions.Expression
+  )(generateMethod: (ClassGenerator, ClassBody) => Unit): Option[(T, Seq[commands.expressions.Expression])] = {
+    try {
+      val codeGenerator = generateCode(getClass.getClassLoader, BYTECODE)
+      val generator =
+        codeGenerator.generateClass(PACKAGE, interface.getSimpleName + classIds.incrementAndGet(), interface)
+      val body = new ClassBody(generator, interpret)
+      val handle =
+        try {
+          generateMethod(generator, body)
+          generator.handle()
+        } finally {
+          generator.close()
+        }
+      val clazz = handle.loadClass()
+      clazz.getDeclaredField(CONSTANTS).set(null, body.constants.toArray)
+      clazz.getDeclaredField(INTERPRETED).set(null, body.interpreted.toArray)
+      Some((interface.cast(clazz.getConstructor().newInstance()), body.interpreted.toSeq))
+    } catch {
+      case _: CodeGenerationNotSupportedException | _: CompilationFailureException => None
+    }
+  }
+
+  /**
+   * Generates the code of one class, collecting the constants and interpreted sub-expressions it refers to, which
+   * are stored in static fields of the class once it is loaded.
+   */
+  private class ClassBody(
+    generator: ClassGenerator,
+    interpret: expressions.Expression => commands.expressions.Expression
+  ) {
+    val constants: ArrayBuffer[AnyValue] = ArrayBuffer.empty
+    val interpreted: ArrayBuffer[commands.expressions.Expression] = ArrayBuffer.empty
+
+    private val constantsField = generator.publicStaticField(typeReference(classOf[Array[AnyValue]]), CONSTANTS)
+
+    private val interpretedField = generator.publicStaticField(
+      typeReference(classOf[Array[commands.expressions.Expression]]),
+      INTERPRETED
+    )
+
+    def generate(expression: expressions.Expression, row: codegen.Expression, state: codegen.Expression)
+      : codegen.Expression = {
+      def value(e: expressions.Expression): codegen.Expression = generate(e, row, state)
+      def call(owner: Class[_], name: String, arguments: expressions.Expression*): codegen.Expression = {
+        val method = staticMethod(owner, name, arguments.map(_ => classOf[AnyValue]): _*)
+        cast(classOf[AnyValue], invoke(method, arguments.map(value): _*))
+      }
+      def longAt(offset: Int): codegen.Expression = invoke(row, GET_LONG_AT, constantInt(offset))
+      def nullCheck(offset: Int, inner: expressions.Expression): codegen.Expression =
+        ternary(
+          equal(longAt(offset), constantLong(NULL_ENTITY)),
+          cast(classOf[AnyValue], NO_VALUE),
+          cast(classOf[AnyValue], value(inner))
+        )
+      def helper(name: String, offset: Int, tokens: Int*): codegen.Expression = {
+        val parameters: Seq[Class[_]] = Seq(classOf[QueryState], classOf[Long]) ++ tokens.map(_ => classOf[Int])
+        val arguments = Seq(state, longAt(offset)) ++ tokens.map(token => constantInt(token))
+        invoke(staticMethod(classOf[CompiledHelpers], name, parameters: _*), arguments: _*)
+      }
+
+      expression match {
+        case _: expressions.Null  => NO_VALUE
+        case _: expressions.True  => TRUE
+        case _: expressions.False => FALSE
+        case e: expressions.Literal =>
+          constants += ValueUtils.of(e.value)
+          arrayLoad(getStatic(constantsField), constantInt(constants.size - 1))
+        case ParameterFromSlot(offset, _, _) =>
+          arrayLoad(invoke(state, PARAMS), constantInt(offset))
+        case ast.ReferenceFromSlot(offset, _) =>
+          invoke(row, GET_REF_AT, constantInt(offset))
+        case ast.IdFromSlot(offset) =>
+          invoke(LONG_VALUE, longAt(offset))
+        case ast.NodeFromSlot(offset, _)                => helper("nodeById", offset)
+        case ast.RelationshipFromSlot(offset, _)        => helper("relationshipById", offset)
+        case ast.NodeProperty(offset, token, _)         => helper("nodeProperty", offset, token)
+        case ast.RelationshipProperty(offset, token, _) => helper("relationshipProperty", offset, token)
+        case ast.NullCheck(offset, inner)         => nullCheck(offset, inner)
+        case ast.NullCheckVariable(offset, inner) => nullCheck(offset, inner)
+        case ast.NullCheckProperty(offset, inner) => nullCheck(offset, inner)
+        case e: expressions.Not if isPredicate(e.rhs) =>
+          call(classOf[ValueBooleanLogic], "not", e.rhs)
+        case e: expressions.Equals             => call(classOf[ValueBooleanLogic], "equals", e.lhs, e.rhs)
+        case e: expressions.NotEquals          => call(classOf[ValueBooleanLogic], "notEquals", e.lhs, e.rhs)
+        case e: expressions.LessThan           => call(classOf[ValueBooleanLogic], "lessThan", e.lhs, e.rhs)
+        case e: expressions.LessThanOrEqual    => call(classOf[ValueBooleanLogic], "lessThanOrEqual", e.lhs, e.rhs)
+        case e: expressions.GreaterThan        => call(classOf[ValueBooleanLogic], "greaterThan", e.lhs, e.rhs)
+        case e: expressions.GreaterThanOrEqual => call(classOf[ValueBooleanLogic], "greaterThanOrEqual", e.lhs, e.rhs)
+        case e: expressions.IsNull             => call(classOf[CompiledHelpers], "isNull", e.lhs)
+        case e: expressions.IsNotNull          => call(classOf[CompiledHelpers], "isNotNull", e.lhs)
+        case e: expressions.Add                => call(classOf[CypherMath], "add", e.lhs, e.rhs)
+        case e: expressions.Subtract           => call(classOf[CypherMath], "subtract", e.lhs, e.rhs)
+        case e: expressions.Multiply           => call(classOf[CypherMath], "multiply", e.lhs, e.rhs)
+        case e: expressions.Divide             => call(classOf[CypherMath], "divide", e.lhs, e.rhs)
+        case e: expressions.Modulo             => call(classOf[CypherMath], "modulo", e.lhs, e.rhs)
+        case e: expressions.Pow                => call(classOf[CypherMath], "pow", e.lhs, e.rhs)
+        case e =>
+          interpreted += interpret(e)
+          invoke(arrayLoad(getStatic(interpretedField), constantInt(interpreted.size - 1)), APPLY, row, state)
+      }
+    }
+
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.parallel
+
+import org.neo4j.cypher.internal.runtime.InputCursor
+import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryTransactionalContext
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+import org.neo4j.internal.kernel.api.TokenPredicate
+import org.neo4j.internal.kernel.api.TokenReadSession
+import org.neo4j.kernel.api.ExecutionContext
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Node scan at the leaf of a parallel query, split into morsels by a kernel [[PartitionedScan]].
+ *
+ * Created once per execution on the transaction thread. Every worker then reserves morsels through its own
+ * [[MorselInput]], using the cursors of its own parallel query context, until the scan is exhausted.
+ */
+sealed trait MorselScan {
+
+  /**
+   * @param queryContext parallel query context of the worker, see [[QueryContext.createParallelQueryContext]]
+   * @param cancelled when set, no further morsels are handed out, e.g. because another worker failed
+   */
+  def input(queryContext: QueryContext, cancelled: AtomicBoolean): MorselInput
+}
+
+object MorselScan {
+
+  def allNodes(queryContext: QueryContext, desiredMorsels: Int): MorselScan = {
+    val tc = queryContext.transactionalContext
+    val scan = tc.dataRead.allNodesScan(desiredMorsels, tc.cursorContext)
+    new PartitionedMorselScan[NodeCursor](
+      scan,
+      worker => worker.cursors.allocateNodeCursor(worker.cursorContext, worker.memoryTracker),
+      _.nodeReference()
+    )
+  }
+
+  def nodesByLabel(
+    queryContext: QueryContext,
+    session: TokenReadSession,
+    label: Int,
+    desiredMorsels: Int
+  ): MorselScan = {
+    val tc = queryContext.transactionalContext
+    val scan = tc.dataRead.nodeLabelScan(session, desiredMorsels, tc.cursorContext, new TokenPredicate(label))
+    new PartitionedMorselScan[NodeLabelIndexCursor](
+      scan,
+      worker => worker.cursors.allocateNodeLabelIndexCursor(worker.cursorContext, worker.memoryTracker),
+      _.nodeReference()
+    )
+  }
+
+  /**
+   * Scan that never finds anything, e.g. over a label that does not exist.
+   */
+  val empty: MorselScan = new MorselScan {
+    override def input(queryContext: QueryContext, cancelled: AtomicBoolean): MorselInput = EmptyMorselInput
+  }
+
+  private class PartitionedMorselScan[C <: Cursor](
+    scan: PartitionedScan[C],
+    allocateCursor: QueryTransactionalContext => C,
+    nodeReference: C => Long
+  ) extends MorselScan {
+
+    override def input(queryContext: QueryContext, cancelled: AtomicBoolean): MorselInput = {
+      val tc = queryContext.transactionalContext
+      new PartitionedMorselInput[C](scan, allocateCursor(tc), nodeReference, tc.kernelExecutionContext, cancelled)
+    }
+  }
+}
+
+/**
+ * Input of the pipeline run by one worker. Every batch of this input is one morsel of the leaf scan, holding a single
+ * node column. Not thread-safe, every worker has its own.
+ */
+trait MorselInput extends InputDataStream with AutoCloseable
+
+object EmptyMorselInput extends MorselInput {
+  override def nextInputBatch(): InputCursor = null
+  override def close(): Unit = {}
+}
+
+class PartitionedMorselInput[C <: Cursor](
+  scan: PartitionedScan[C],
+  cursor: C,
+  nodeReference: C => Long,
+  executionContext: ExecutionContext,
+  cancelled: AtomicBoolean
+) extends MorselInput {
+
+  private[this] val morsel = new InputCursor {
+    private[this] var node: AnyValue = _
+
+    override def next(): Boolean = {
+      if (cursor.next()) {
+        node = VirtualValues.node(nodeReference(cursor))
+        true
+      } else {
+        false
+      }
+    }
+
+    override def value(offset: Int): AnyValue = node
+
+    override def close(): Unit = {}
+  }
+
+  override def nextInputBatch(): InputCursor = {
+    if (!cancelled.get() && scan.reservePartition(cursor, executionContext)) morsel else null
+  }
+
+  override def close(): Unit = cursor.close()
+}
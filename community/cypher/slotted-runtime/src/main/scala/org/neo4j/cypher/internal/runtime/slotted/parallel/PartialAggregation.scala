@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.parallel
+
+import org.neo4j.collection.trackable.HeapTrackingCollections
+import org.neo4j.cypher.operations.CypherMath
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.kernel.impl.query.QuerySubscriberAdapter
+import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.AnyValues
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.IntegralValue
+import org.neo4j.values.storable.NumberValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.time.temporal.ChronoUnit
+
+/**
+ * An aggregation that is computed in two phases: every worker aggregates the rows of its own morsels into one or more
+ * partial columns, and the partial columns of all workers are then merged into the final value.
+ *
+ * The partial result of a worker that has seen no rows is always the identity of [[merge]], so workers that did not
+ * get any morsels, or did not find any matching rows, never affect the result.
+ */
+sealed trait PartialAggregation {
+
+  /**
+   * @return number of partial columns produced by the workers for this aggregation
+   */
+  def width: Int
+
+  /**
+   * Merge the partial columns of `from` into the partial columns of `into`, both starting at `offset`.
+   */
+  def merge(into: Array[AnyValue], from: Array[AnyValue], offset: Int): Unit
+
+  /**
+   * @return the final value of this aggregation given its merged partial columns starting at `offset`
+   */
+  def result(partials: Array[AnyValue], offset: Int): AnyValue = partials(offset)
+}
+
+/**
+ * Partial `count`, merged by adding up the counts.
+ */
+case object CountPartial extends PartialAggregation {
+  override def width: Int = 1
+
+  override def merge(into: Array[AnyValue], from: Array[AnyValue], offset: Int): Unit =
+    into(offset) = CypherMath.add(into(offset), from(offset))
+}
+
+/**
+ * Partial `sum`, merged by adding up the sums. A sum over no values is the integer zero, which is skipped when merging
+ * so that it does not get mixed with a sum of durations.
+ */
+case object SumPartial extends PartialAggregation {
+  override def width: Int = 1
+
+  override def merge(into: Array[AnyValue], from: Array[AnyValue], offset: Int): Unit = {
+    if (isZero(into(offset))) {
+      into(offset) = from(offset)
+    } else if (!isZero(from(offset))) {
+      into(offset) = CypherMath.add(into(offset), from(offset))
+    }
+  }
+
+  private def isZero(value: AnyValue): Boolean = value match {
+    case i: IntegralValue => i.longValue() == 0L
+    case _                => false
+  }
+}
+
+/**
+ * Partial `min` and `max`, merged by keeping the smallest or biggest of the partial results.
+ */
+case class MinMaxPartial(min: Boolean) extends PartialAggregation {
+  override def width: Int = 1
+
+  override def merge(into: Array[AnyValue], from: Array[AnyValue], offset: Int): Unit = {
+    val value = from(offset)
+    if (value ne Values.NO_VALUE) {
+      val current = into(offset)
+      if (current eq Values.NO_VALUE) {
+        into(offset) = value
+      } else {
+        val comparison = AnyValues.COMPARATOR.compare(current, value)
+        if ((min && comparison > 0) || (!min && comparison < 0)) {
+          into(offset) = value
+        }
+      }
+    }
+  }
+}
+
+/**
+ * Partial `collect`, merged by concatenating the collected lists.
+ */
+case object CollectPartial extends PartialAggregation {
+  override def width: Int = 1
+
+  override def merge(into: Array[AnyValue], from: Array[AnyValue], offset: Int): Unit = {
+    val list = from(offset).asInstanceOf[ListValue]
+    if (!list.isEmpty) {
+      into(offset) = into(offset).asInstanceOf[ListValue].appendAll(list)
+    }
+  }
+}
+
+/**
+ * Partial `avg`, computed as the average and the count of the non-null values that it was computed over. Merged by
+ * weighing the partial averages with their counts.
+ */
+case object AvgPartial extends PartialAggregation {
+  override def width: Int = 2
+
+  override def merge(into: Array[AnyValue], from: Array[AnyValue], offset: Int): Unit = {
+    val count = countAt(into, offset)
+    val otherCount = countAt(from, offset)
+    if (otherCount > 0) {
+      if (count == 0) {
+        into(offset) = from(offset)
+      } else {
+        into(offset) = (into(offset), from(offset)) match {
+          case (a: NumberValue, b: NumberValue) =>
+            Values.doubleValue(weigh(a.doubleValue(), count, b.doubleValue(), otherCount))
+          case (a: DurationValue, b: DurationValue) =>
+            def unit(u: ChronoUnit): Double = weigh(a.get(u).toDouble, count, b.get(u).toDouble, otherCount)
+            DurationValue.approximate(
+              unit(ChronoUnit.MONTHS),
+              unit(ChronoUnit.DAYS),
+              unit(ChronoUnit.SECONDS),
+              unit(ChronoUnit.NANOS)
+            ).normalize()
+          case _ =>
+            throw new CypherTypeException("avg() cannot mix number and duration")
+        }
+      }
+      into(offset + 1) = Values.longValue(count + otherCount)
+    }
+  }
+
+  private def countAt(partials: Array[AnyValue], offset: Int): Long =
+    partials(offset + 1).asInstanceOf[NumberValue].longValue()
+
+  private def weigh(a: Double, aCount: Long, b: Double, bCount: Long): Double =
+    a * (aCount.toDouble / (aCount + bCount)) + b * (bCount.toDouble / (aCount + bCount))
+}
+
+/**
+ * Merges the partially aggregated rows produced by the workers. Rows are laid out as the grouping values followed by
+ * the partial columns of each aggregation, in order.
+ */
+class PartialAggregationTable(
+  groupingWidth: Int,
+  aggregations: Array[PartialAggregation],
+  memoryTracker: MemoryTracker
+) {
+
+  private[this] val offsets: Array[Int] = aggregations.scanLeft(groupingWidth)(_ + _.width)
+
+  private[this] val groups =
+    HeapTrackingOrderedAppendMap.createOrderedMap[AnyValue, Array[AnyValue]](memoryTracker)
+
+  def merge(row: Array[AnyValue]): Unit = {
+    val key = if (groupingWidth == 0) Values.NO_VALUE else VirtualValues.list(row.take(groupingWidth): _*)
+    val existing = groups.get(key)
+    if (existing == null) {
+      groups.scopedMemoryTracker().allocateHeap(
+        shallowSizeOfObjectArray(row.length) + row.map(_.estimatedHeapUsage()).sum
+      )
+      groups.put(key, row)
+    } else {
+      var i = 0
+      while (i < aggregations.length) {
+        aggregations(i).merge(existing, row, offsets(i))
+        i += 1
+      }
+    }
+  }
+
+  /**
+   * @return the final rows, laid out as the grouping values followed by the value of each aggregation. Can only be
+   *         called once, after all partial rows have been merged.
+   */
+  def result(): Iterator[Array[AnyValue]] = {
+    val entries = groups.autoClosingEntryIterator()
+    new Iterator[Array[AnyValue]] {
+      override def hasNext: Boolean = entries.hasNext
+
+      override def next(): Array[AnyValue] = {
+        val partials = entries.next().getValue
+        val row = new Array[AnyValue](groupingWidth + aggregations.length)
+        System.arraycopy(partials, 0, row, 0, groupingWidth)
+        var i = 0
+        while (i < aggregations.length) {
+          row(groupingWidth + i) = aggregations(i).result(partials, offsets(i))
+          i += 1
+        }
+        row
+      }
+    }
+  }
+
+  def close(): Unit = groups.close()
+}
+
+/**
+ * Collects the partially aggregated rows produced by one worker, with their heap usage allocated on the memory tracker
+ * of the worker. The rows are merged on the transaction thread once the worker is done, and released with [[close]]
+ * before the execution context of the worker is closed.
+ */
+class PartialRowCollector(width: Int, memoryTracker: MemoryTracker) extends QuerySubscriberAdapter with AutoCloseable {
+  private[this] val rows = HeapTrackingCollections.newArrayList[Array[AnyValue]](memoryTracker)
+  private[this] var rowsHeapUsage = 0L
+  private[this] var current: Array[AnyValue] = _
+
+  override def onRecord(): Unit = current = new Array[AnyValue](width)
+
+  override def onField(offset: Int, value: AnyValue): Unit = current(offset) = value
+
+  override def onRecordCompleted(): Unit = {
+    var heapUsage = shallowSizeOfObjectArray(width)
+    var i = 0
+    while (i < width) {
+      heapUsage += current(i).estimatedHeapUsage()
+      i += 1
+    }
+    memoryTracker.allocateHeap(heapUsage)
+    rowsHeapUsage += heapUsage
+    rows.add(current)
+  }
+
+  def foreach(f: Array[AnyValue] => Unit): Unit = rows.forEach(row => f(row))
+
+  override def close(): Unit = {
+    memoryTracker.releaseHeap(rowsHeapUsage)
+    rowsHeapUsage = 0L
+    rows.close()
+  }
+}
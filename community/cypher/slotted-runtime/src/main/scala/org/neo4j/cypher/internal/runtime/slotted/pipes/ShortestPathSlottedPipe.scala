@@ -30,6 +30,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.DirectionConverter.toGraphDb
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelFrontierExpansionFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeWithSource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
@@ -89,6 +90,8 @@ case class ShortestPathSlottedPipe(
       needOnlyOnePath,
       allowZeroLength
     )
+    val parallelExpansion = ParallelFrontierExpansionFactory(state, memoryTracker)
+    biDirectionalBFS.setParallelExpansion(parallelExpansion)
     val pathPredicate = pathPredicates.foldLeft(True(): commands.predicates.Predicate)(_.andWith(_))
     val output = input.flatMap {
       row =>
@@ -135,6 +138,6 @@ case class ShortestPathSlottedPipe(
           }
         }
     }
-    output.closing(traversalCursor).closing(nodeCursor).closing(biDirectionalBFS)
+    output.closing(traversalCursor).closing(nodeCursor).closing(biDirectionalBFS).closing(parallelExpansion)
   }
 }
@@ -27,15 +27,22 @@ import org.neo4j.cypher.internal.runtime.ReadableRow
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeWithSource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.slotted.SlottedSpilling
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.memory.MemoryTracker
 
 import java.util.Comparator
 
 import scala.jdk.CollectionConverters.IteratorHasAsScala
 
+/**
+ * Sorts all input rows. If `spilling` is given, sorted runs of rows are moved to disk whenever the buffered rows
+ * exceed the spill threshold, and merged when producing the result.
+ */
 case class SortSlottedPipe(
   source: Pipe,
-  comparator: Comparator[ReadableRow]
+  comparator: Comparator[ReadableRow],
+  spilling: Option[SlottedSpilling] = None
 )(val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
   protected def internalCreateResults(
@@ -44,6 +51,16 @@ case class SortSlottedPipe(
   ): ClosingIterator[CypherRow] = {
     val scopedMemoryTracker =
       state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x).getScopedMemoryTracker
+    spilling match {
+      case Some(spill) => spillingSort(input, state, spill, scopedMemoryTracker)
+      case None        => inMemorySort(input, scopedMemoryTracker)
+    }
+  }
+
+  private def inMemorySort(
+    input: ClosingIterator[CypherRow],
+    scopedMemoryTracker: MemoryTracker
+  ): ClosingIterator[CypherRow] = {
     var arrayList = HeapTrackingArrayList.newArrayList[CypherRow](256, scopedMemoryTracker)
     var previous: CypherRow = null
     while (input.hasNext) {
@@ -63,4 +80,28 @@ case class SortSlottedPipe(
       }
     }
   }
+
+  private def spillingSort(
+    input: ClosingIterator[CypherRow],
+    state: QueryState,
+    spill: SlottedSpilling,
+    scopedMemoryTracker: MemoryTracker
+  ): ClosingIterator[CypherRow] = {
+    val table = spill.sortTable(comparator, spill.threshold(), Long.MaxValue, scopedMemoryTracker)
+    state.query.resources.trace(table)
+    var previous: CypherRow = null
+    while (input.hasNext) {
+      val row = input.next()
+      table.add(row, row.deduplicatedEstimatedHeapUsage(previous))
+      previous = row
+    }
+    previous = null
+    new DelegatingClosingIterator[CypherRow](table.sortedIterator().asScala) {
+      override def closeMore(): Unit = {
+        table.close()
+        scopedMemoryTracker.close()
+        input.close()
+      }
+    }
+  }
 }
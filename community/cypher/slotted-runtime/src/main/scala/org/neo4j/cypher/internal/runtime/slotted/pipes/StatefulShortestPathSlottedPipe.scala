@@ -32,6 +32,7 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ReadableRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.CommandNFA
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelFrontierExpansionFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeWithSource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
@@ -88,6 +89,7 @@ case class StatefulShortestPathSlottedPipe(
       new PathTracer[CypherRow](memoryTracker, tracker, hooks)
     val pathPredicate =
       preFilters.fold[java.util.function.Predicate[CypherRow]](_ => true)(pred => pred.isTrue(_, state))
+    val parallelExpansion = ParallelFrontierExpansionFactory(state, memoryTracker)
 
     input.flatMap { inputRow =>
       val sourceNode = getSourceNodeFunction.applyAsLong(inputRow)
@@ -102,6 +104,7 @@ case class StatefulShortestPathSlottedPipe(
         state.query.transactionalContext.dataRead,
         nodeCursor,
         traversalCursor,
+        parallelExpansion,
         pathTracer,
         withPathVariables(inputRow, _),
         pathPredicate,
@@ -115,7 +118,7 @@ case class StatefulShortestPathSlottedPipe(
         tracker
       ).asSelfClosingIterator
 
-    }.closing(nodeCursor).closing(traversalCursor)
+    }.closing(nodeCursor).closing(traversalCursor).closing(parallelExpansion)
   }
 
   private def withPathVariables(original: CypherRow, stack: SignpostStack): CypherRow = {
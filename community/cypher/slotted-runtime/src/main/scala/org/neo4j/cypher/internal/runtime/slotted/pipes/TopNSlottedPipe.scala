@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.pipes
+
+import org.neo4j.cypher.internal.collection.DefaultComparatorTopTable
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
+import org.neo4j.cypher.internal.runtime.ClosingIterator.JavaIteratorAsClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeWithSource
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.SkipPipe
+import org.neo4j.cypher.internal.runtime.slotted.SlottedSpilling
+import org.neo4j.cypher.internal.util.attribution.Id
+
+import java.util.Comparator
+
+import scala.jdk.CollectionConverters.IteratorHasAsScala
+
+/**
+ * Variant of [[org.neo4j.cypher.internal.runtime.interpreted.pipes.TopNPipe]] that can move rows to disk.
+ *
+ * Rows are kept in a top table like in `TopNPipe`. If the rows in the top table exceed the spill threshold, which can
+ * only happen for a large limit, they are moved to a [[org.neo4j.cypher.internal.collection.SpillingSortTable]] that
+ * keeps sorted runs of at most `limit` rows on disk for the rest of the input.
+ */
+case class TopNSlottedPipe(
+  source: Pipe,
+  countExpression: Expression,
+  comparator: Comparator[ReadableRow],
+  spilling: SlottedSpilling
+)(val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
+
+  override protected def internalCreateResults(
+    input: ClosingIterator[CypherRow],
+    state: QueryState
+  ): ClosingIterator[CypherRow] = {
+    val limit = SkipPipe.evaluateStaticSkipOrLimitNumberOrThrow(countExpression, state, "LIMIT")
+    if (limit == 0 || input.isEmpty) {
+      // in the case limit is 0 we still need to exhaust the result since we might get here from
+      // a SORT + EXHAUSTIVE LIMIT
+      while (input.hasNext) {
+        input.next()
+      }
+      return ClosingIterator.empty
+    }
+
+    val scopedMemoryTracker =
+      state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x).getScopedMemoryTracker
+    val topTable = new DefaultComparatorTopTable[CypherRow](comparator, limit, scopedMemoryTracker)
+    state.query.resources.trace(topTable)
+
+    val threshold = spilling.threshold()
+    var heapUsage = 0L
+    while (input.hasNext && heapUsage < threshold) {
+      val row = input.next()
+      val evictedRow = topTable.addAndGetEvicted(row)
+      if (row ne evictedRow) {
+        val rowHeapUsage = row.estimatedHeapUsage()
+        scopedMemoryTracker.allocateHeap(rowHeapUsage)
+        heapUsage += rowHeapUsage
+        if (evictedRow != null) {
+          val evictedHeapUsage = evictedRow.estimatedHeapUsage()
+          scopedMemoryTracker.releaseHeap(evictedHeapUsage)
+          heapUsage -= evictedHeapUsage
+        }
+      }
+    }
+
+    if (!input.hasNext) {
+      topTable.sort()
+      return topTable.autoClosingIterator(scopedMemoryTracker).asClosingIterator.closing(topTable)
+    }
+
+    val sortTable = spilling.sortTable(comparator, threshold, limit, scopedMemoryTracker)
+    state.query.resources.trace(sortTable)
+    val rows = topTable.unorderedIterator()
+    while (rows.hasNext) {
+      val row = rows.next()
+      sortTable.add(row, row.estimatedHeapUsage())
+    }
+    scopedMemoryTracker.releaseHeap(heapUsage)
+    topTable.close()
+
+    while (input.hasNext) {
+      val row = input.next()
+      sortTable.add(row, row.estimatedHeapUsage())
+    }
+    new DelegatingClosingIterator[CypherRow](sortTable.sortedIterator().asScala) {
+      override def closeMore(): Unit = {
+        sortTable.close()
+        scopedMemoryTracker.close()
+        input.close()
+      }
+    }
+  }
+}
@@ -171,7 +171,7 @@ class SlottedPipeMapperTest extends CypherFunSuite with LogicalPlanningTestSuppo
       ParameterMapping.empty
     )(table)
     val pipeBuilder =
-      new SlottedPipeMapper(fallback, converters, physicalPlan, true, mock[QueryIndexRegistrator])(table)
+      new SlottedPipeMapper(fallback, converters, physicalPlan, true, mock[QueryIndexRegistrator], None, None)(table)
     PipeTreeBuilder(pipeBuilder).build(physicalPlan.logicalPlan, CancellationChecker.neverCancelled())
   }
 
@@ -904,7 +904,8 @@ class SlottedPipeMapperTest extends CypherFunSuite with LogicalPlanningTestSuppo
             0,
             `expectedSlots2`
           ),
-          _
+          _,
+          None
         ) if a == longValue(1) && b == longValue(2) && c == longValue(3) =>
 
     }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.expressions
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.physicalplanning.SlotConfigurationBuilder
+import org.neo4j.cypher.internal.physicalplanning.ast.IdFromSlot
+import org.neo4j.cypher.internal.physicalplanning.ast.NullCheck
+import org.neo4j.cypher.internal.physicalplanning.ast.ReferenceFromSlot
+import org.neo4j.cypher.internal.runtime.ast.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsTrue
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsUnknown
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.slotted.SlottedRow
+import org.neo4j.cypher.internal.util.symbols.CTAny
+import org.neo4j.cypher.internal.util.symbols.CTNode
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.longValue
+
+class SlottedExpressionCompilerTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private val slots = SlotConfigurationBuilder.empty
+    .newLong("n", nullable = true, CTNode)
+    .newReference("x", nullable = true, CTAny)
+    .newReference("y", nullable = true, CTAny)
+    .build()
+
+  private val n = 0
+  private val x = slots("x").offset
+  private val y = slots("y").offset
+
+  private val notInterpreted: Expression => commands.expressions.Expression =
+    e => fail(s"Did not expect $e to be interpreted")
+
+  test("should compile arithmetic over slots and literals") {
+    val row = SlottedRow(slots)
+    row.setRefAt(x, intValue(41))
+
+    val compiled = compile(add(ReferenceFromSlot(x, "x"), literalInt(1)))
+
+    compiled shouldBe a[CompiledSlottedExpression]
+    compiled(row, QueryStateHelper.empty) should equal(longValue(42))
+  }
+
+  test("should compile comparisons with parameters to predicates") {
+    val state = QueryStateHelper.emptyWith(params = Array(intValue(10)))
+    val row = SlottedRow(slots)
+
+    val compiled = compile(greaterThan(ReferenceFromSlot(x, "x"), ParameterFromSlot(0, "p", CTAny)))
+      .asInstanceOf[Predicate]
+
+    row.setRefAt(x, intValue(42))
+    compiled.isMatch(row, state) should equal(IsTrue)
+    row.setRefAt(x, NO_VALUE)
+    compiled.isMatch(row, state) should equal(IsUnknown)
+  }
+
+  test("should not evaluate the inner expression of a null check on a null entity") {
+    val row = SlottedRow(slots)
+    val compiled = compile(NullCheck(n, add(IdFromSlot(n), literalInt(1))))
+
+    row.setLongAt(n, -1)
+    compiled(row, QueryStateHelper.empty) should equal(NO_VALUE)
+    row.setLongAt(n, 5)
+    compiled(row, QueryStateHelper.empty) should equal(longValue(6))
+  }
+
+  test("should call interpreted sub-expressions that cannot be compiled") {
+    val row = SlottedRow(slots)
+    row.setRefAt(x, intValue(3))
+    val leaf = commands.expressions.Literal(intValue(4))
+
+    val compiled = SlottedExpressionCompiler.compileExpression(
+      multiply(ReferenceFromSlot(x, "x"), function("rand")),
+      _ => leaf
+    ).get
+
+    compiled(row, QueryStateHelper.empty) should equal(longValue(12))
+    compiled.children should equal(Seq(leaf))
+  }
+
+  test("should compile all projections into one class writing reference slots") {
+    val row = SlottedRow(slots)
+    row.setRefAt(x, intValue(21))
+
+    val projection = SlottedExpressionCompiler.compileProjection(
+      Map(y -> multiply(ReferenceFromSlot(x, "x"), literalInt(2))),
+      notInterpreted
+    ).get
+    projection.project(row, QueryStateHelper.empty)
+
+    row.getRefAt(y) should equal(longValue(42))
+  }
+
+  test("should only compile expressions that do more than reading a single value") {
+    SlottedExpressionCompiler.canCompile(ReferenceFromSlot(x, "x")) shouldBe false
+    SlottedExpressionCompiler.canCompile(literalInt(1)) shouldBe false
+    SlottedExpressionCompiler.canCompile(function("rand")) shouldBe false
+    SlottedExpressionCompiler.canCompile(not(ReferenceFromSlot(x, "x"))) shouldBe false
+    SlottedExpressionCompiler.canCompile(not(isNull(ReferenceFromSlot(x, "x")))) shouldBe true
+  }
+
+  private def compile(expression: Expression): commands.expressions.Expression =
+    SlottedExpressionCompiler.compileExpression(expression, notInterpreted).get
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.parallel
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.memory.LocalMemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.storable.Values.stringValue
+
+import scala.collection.mutable.ArrayBuffer
+
+class PartialRowCollectorTest extends CypherFunSuite {
+
+  test("should track collected rows until closed") {
+    val memoryTracker = new LocalMemoryTracker()
+    val collector = new PartialRowCollector(2, memoryTracker)
+
+    collect(collector, stringValue("a"), longValue(1))
+    val heapOfOneRow = memoryTracker.estimatedHeapMemory()
+    collect(collector, stringValue("b"), longValue(2))
+
+    heapOfOneRow should be > 0L
+    memoryTracker.estimatedHeapMemory() should be > heapOfOneRow
+
+    val rows = new ArrayBuffer[Seq[AnyValue]]()
+    collector.foreach(row => rows += row.toSeq)
+    rows shouldBe Seq(Seq(stringValue("a"), longValue(1)), Seq(stringValue("b"), longValue(2)))
+
+    collector.close()
+    memoryTracker.estimatedHeapMemory() shouldBe 0L
+  }
+
+  private def collect(collector: PartialRowCollector, values: AnyValue*): Unit = {
+    collector.onRecord()
+    values.zipWithIndex.foreach { case (value, offset) => collector.onField(offset, value) }
+    collector.onRecordCompleted()
+  }
+}
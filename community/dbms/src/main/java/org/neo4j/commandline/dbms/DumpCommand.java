@@ -118,6 +118,16 @@ public class DumpCommand extends AbstractAdminCommand {
             description = "Overwrite any existing dump file in the destination folder.")
     private boolean overwriteDestination;
 
+    @Option(
+            names = "--threads",
+            paramLabel = "<number of threads>",
+            defaultValue = "1",
+            showDefaultValue = ALWAYS,
+            description = "Number of threads used to compress the dump. A value greater than 1 produces a chunked "
+                    + "archive that is also decompressed in parallel by the load command. "
+                    + "Chunked archives can not be loaded by versions of Neo4j that do not support them.")
+    private int threads;
+
     public DumpCommand(ExecutionContext ctx) {
         super(ctx);
     }
@@ -129,6 +139,9 @@ public class DumpCommand extends AbstractAdminCommand {
 
     @Override
     public void execute() {
+        if (threads < 1) {
+            throw new CommandFailedException("Invalid number of threads: " + threads);
+        }
         final var config = createConfig();
 
         final var dumpToStdOut = target.toStdout;
@@ -282,7 +295,7 @@ public class DumpCommand extends AbstractAdminCommand {
     private void dump(Dumper dumper, DatabaseLayout databaseLayout, String databaseName, Path storagePath) {
         Path databasePath = databaseLayout.databaseDirectory();
         try {
-            var format = DumpFormatSelector.selectFormat(ctx.err());
+            var format = DumpFormatSelector.selectFormat(ctx.err(), threads);
             var lockFile = databaseLayout.databaseLockFile().getFileName().toString();
             var quarantineMarkerFile =
                     databaseLayout.quarantineFile().getFileName().toString();
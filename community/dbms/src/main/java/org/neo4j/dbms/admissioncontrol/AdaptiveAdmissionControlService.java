@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.dbms.admissioncontrol;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.admission_control_interval;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.admission_control_max_concurrency;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.admission_control_max_queue_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.admission_control_target_queue_delay;
+
+import java.util.ArrayDeque;
+import java.util.function.LongSupplier;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * An admission control service that limits the number of concurrently admitted requests to a limit that adapts
+ * to observed latency, and that sheds load from its queue when waiting times stand above a target.
+ * <p>
+ * The concurrency limit follows a gradient algorithm. Every interval, the average execution time of the requests
+ * that completed during that interval is compared to a long term average. The execution time of a request is measured
+ * from its release in {@link #awaitRelease(AdmissionControlToken)}, so time spent waiting for admission or behind
+ * earlier requests of the same connection is not counted. While the short term execution time stays
+ * within a tolerance of the long term one, the limit grows by roughly its square root. When execution times rise, the
+ * limit shrinks in proportion. A page fault rate that rises above its long term average shrinks the limit the same
+ * way, since it is an early sign of the page cache thrashing under too many concurrent requests. The limit only
+ * grows when it is actually being used.
+ * <p>
+ * Tokens that can't be admitted immediately wait in a bounded FIFO queue. Like CoDel, the queue is considered to be
+ * standing once tokens have been waiting longer than the target delay for a whole interval. From then on, tokens that
+ * have waited longer than the target are rejected instead of admitted, until waiting times drop below the target
+ * again. Rejections happen before a request is executed, which keeps the throughput of admitted requests stable under
+ * overload.
+ */
+public final class AdaptiveAdmissionControlService extends LifecycleAdapter implements AdmissionControlService {
+    static final int MIN_LIMIT = 4;
+    private static final double TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_TERM_WINDOW = 20;
+
+    private final SystemNanoClock clock;
+    private final JobScheduler jobScheduler;
+    private final LongSupplier pageFaults;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final long targetQueueDelayNanos;
+    private final long intervalNanos;
+
+    private final Object lock = new Object();
+    // All below guarded by lock
+    private final ArrayDeque<AdmissionControlToken> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long latencySum;
+    private long latencySamples;
+    private double longTermLatency;
+    private long lastPageFaults;
+    private double longTermPageFaultRate = -1;
+    private long aboveTargetSince = -1;
+    private boolean dropping;
+    private long rejected;
+    private boolean stopped = true;
+
+    private JobHandle<?> updateJob;
+
+    public AdaptiveAdmissionControlService(
+            Config config, SystemNanoClock clock, JobScheduler jobScheduler, LongSupplier pageFaults) {
+        this(
+                clock,
+                jobScheduler,
+                pageFaults,
+                Runtime.getRuntime().availableProcessors() * 2,
+                config.get(admission_control_max_concurrency),
+                config.get(admission_control_max_queue_size),
+                config.get(admission_control_target_queue_delay).toNanos(),
+                config.get(admission_control_interval).toNanos());
+    }
+
+    AdaptiveAdmissionControlService(
+            SystemNanoClock clock,
+            JobScheduler jobScheduler,
+            LongSupplier pageFaults,
+            int initialLimit,
+            int maxLimit,
+            int maxQueueSize,
+            long targetQueueDelayNanos,
+            long intervalNanos) {
+        this.clock = clock;
+        this.jobScheduler = jobScheduler;
+        this.pageFaults = pageFaults;
+        this.maxLimit = maxLimit;
+        this.minLimit = Math.min(MIN_LIMIT, maxLimit);
+        this.maxQueueSize = maxQueueSize;
+        this.targetQueueDelayNanos = targetQueueDelayNanos;
+        this.intervalNanos = intervalNanos;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            stopped = false;
+            lastPageFaults = pageFaults.getAsLong();
+        }
+        updateJob = jobScheduler.scheduleRecurring(
+                Group.BOLT_ADMISSION_CONTROL,
+                JobMonitoringParams.systemJob("Admission control limit update"),
+                this::update,
+                intervalNanos,
+                NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (updateJob != null) {
+            updateJob.cancel();
+            updateJob = null;
+        }
+        synchronized (lock) {
+            stopped = true;
+            AdmissionControlToken token;
+            while ((token = queue.pollFirst()) != null) {
+                token.release(AdmissionControlResponse.ADMISSION_CONTROL_PROCESS_STOPPED);
+            }
+        }
+    }
+
+    @Override
+    public AdmissionControlToken requestToken() {
+        long now = clock.nanos();
+        synchronized (lock) {
+            if (stopped) {
+                return AdmissionControlToken.ADMISSION_CONTROL_PROCESS_STOPPED;
+            }
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                var token = new AdmissionControlToken(clock.instant());
+                admit(token, now);
+                return token;
+            }
+            if (queue.size() >= maxQueueSize) {
+                rejected++;
+                return AdmissionControlToken.UNABLE_TO_QUEUE_NEW_TOKEN;
+            }
+            var token = new AdmissionControlToken(clock.instant());
+            token.queued(now);
+            queue.addLast(token);
+            return token;
+        }
+    }
+
+    @Override
+    public AdmissionControlResponse awaitRelease(AdmissionControlToken token) {
+        var response = token.await();
+        if (response == AdmissionControlResponse.RELEASED && token.queueTime() != null) {
+            long now = clock.nanos();
+            synchronized (lock) {
+                token.started(now);
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public void requestCompleted(AdmissionControlToken token) {
+        if (token == null || token.queueTime() == null) {
+            // One of the shared, already released tokens
+            return;
+        }
+        long now = clock.nanos();
+        synchronized (lock) {
+            if (!token.markCompleted()) {
+                return;
+            }
+            if (token.isAdmitted()) {
+                inFlight--;
+                if (token.isStarted()) {
+                    latencySum += now - token.startedAtNanos();
+                    latencySamples++;
+                }
+                admitQueued(now);
+            } else if (queue.remove(token)) {
+                token.release(AdmissionControlResponse.UNABLE_TO_ALLOCATE_NEW_TOKEN);
+            }
+        }
+    }
+
+    @Override
+    public boolean enabled() {
+        return true;
+    }
+
+    /**
+     * Updates the concurrency limit from the execution times and page faults observed since the last update, and
+     * sheds queued tokens if the queue is standing. Invoked once every interval.
+     */
+    void update() {
+        long now = clock.nanos();
+        long faults = pageFaults.getAsLong();
+        synchronized (lock) {
+            if (stopped) {
+                return;
+            }
+            double gradient = 1.0;
+            if (latencySamples > 0) {
+                double latency = (double) latencySum / latencySamples;
+                longTermLatency = longTermLatency == 0 ? latency : average(longTermLatency, latency);
+                if (longTermLatency > 2 * latency) {
+                    // Let the long term average recover quickly after a period of high latencies
+                    longTermLatency *= 0.9;
+                }
+                gradient = clamp(TOLERANCE * longTermLatency / latency, MIN_GRADIENT, 1.0);
+            }
+
+            double faultRate = faults - lastPageFaults;
+            lastPageFaults = faults;
+            if (longTermPageFaultRate >= 0) {
+                if (faultRate > TOLERANCE * Math.max(longTermPageFaultRate, 1)) {
+                    gradient =
+                            Math.min(gradient, clamp(TOLERANCE * longTermPageFaultRate / faultRate, MIN_GRADIENT, 1.0));
+                }
+                longTermPageFaultRate = average(longTermPageFaultRate, faultRate);
+            } else {
+                longTermPageFaultRate = faultRate;
+            }
+
+            if (latencySamples > 0 || gradient < 1.0) {
+                double newLimit = limit * gradient + Math.sqrt(limit);
+                if (inFlight < (int) limit / 2) {
+                    // Don't grow a limit that isn't used, it would no longer protect against a burst
+                    newLimit = Math.min(newLimit, limit);
+                }
+                limit = clamp(limit + (newLimit - limit) * SMOOTHING, minLimit, maxLimit);
+            }
+            latencySum = 0;
+            latencySamples = 0;
+
+            shedStandingQueue(now);
+            admitQueued(now);
+        }
+    }
+
+    int limit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    int inFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    int queued() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    long rejected() {
+        synchronized (lock) {
+            return rejected;
+        }
+    }
+
+    private void admitQueued(long now) {
+        AdmissionControlToken token;
+        while (inFlight < (int) limit && (token = queue.pollFirst()) != null) {
+            if (isStandingQueue(token, now)) {
+                reject(token);
+            } else {
+                admit(token, now);
+            }
+        }
+    }
+
+    private void shedStandingQueue(long now) {
+        AdmissionControlToken token;
+        while ((token = queue.peekFirst()) != null && isStandingQueue(token, now)) {
+            reject(queue.pollFirst());
+        }
+    }
+
+    /**
+     * Tracks the waiting time of the token at the head of the queue, see CoDel.
+     * @return whether the queue has been standing above the target delay for an interval and the token waited longer
+     * than the target.
+     */
+    private boolean isStandingQueue(AdmissionControlToken head, long now) {
+        long waited = now - head.queuedAtNanos();
+        if (waited < targetQueueDelayNanos) {
+            aboveTargetSince = -1;
+            dropping = false;
+            return false;
+        }
+        if (aboveTargetSince < 0) {
+            aboveTargetSince = now;
+        } else if (now - aboveTargetSince >= intervalNanos) {
+            dropping = true;
+        }
+        return dropping;
+    }
+
+    private void admit(AdmissionControlToken token, long now) {
+        inFlight++;
+        token.admitted(now);
+        token.release(AdmissionControlResponse.RELEASED);
+    }
+
+    private void reject(AdmissionControlToken token) {
+        rejected++;
+        token.release(AdmissionControlResponse.UNABLE_TO_ALLOCATE_NEW_TOKEN);
+    }
+
+    private static double average(double longTerm, double sample) {
+        return longTerm + (sample - longTerm) / LONG_TERM_WINDOW;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
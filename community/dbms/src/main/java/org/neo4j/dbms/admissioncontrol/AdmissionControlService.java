@@ -42,6 +42,15 @@ public interface AdmissionControlService {
      */
     AdmissionControlResponse awaitRelease(AdmissionControlToken token);
 
+    /**
+     * Notify the admission control process that the work the token was requested for has finished, whether it was
+     * admitted, rejected or abandoned before it got to run. Only the first notification of a token is taken into
+     * account. The time between {@link #awaitRelease(AdmissionControlToken)} returning and this notification is the
+     * execution time of the work.
+     * @param token The token that was requested for the finished work.
+     */
+    default void requestCompleted(AdmissionControlToken token) {}
+
     /**
      * When not enabled tokens must not be requested or awaited.
      * @return Whether admission control is enabled.
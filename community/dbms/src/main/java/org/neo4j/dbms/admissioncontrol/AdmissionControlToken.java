@@ -33,6 +33,12 @@ public final class AdmissionControlToken {
     private final Instant queueTime;
     private volatile AdmissionControlResponse response;
 
+    // Bookkeeping of the admission control service that created this token, guarded by that service.
+    private long queuedAtNanos = -1;
+    private long admittedAtNanos = -1;
+    private long startedAtNanos = -1;
+    private boolean completed;
+
     public AdmissionControlToken(Instant queueTime) {
         this.queueTime = queueTime;
     }
@@ -61,6 +67,49 @@ public final class AdmissionControlToken {
         latch.release();
     }
 
+    long queuedAtNanos() {
+        return queuedAtNanos;
+    }
+
+    void queued(long nanos) {
+        this.queuedAtNanos = nanos;
+    }
+
+    boolean isAdmitted() {
+        return admittedAtNanos >= 0;
+    }
+
+    long admittedAtNanos() {
+        return admittedAtNanos;
+    }
+
+    void admitted(long nanos) {
+        this.admittedAtNanos = nanos;
+    }
+
+    boolean isStarted() {
+        return startedAtNanos >= 0;
+    }
+
+    long startedAtNanos() {
+        return startedAtNanos;
+    }
+
+    void started(long nanos) {
+        this.startedAtNanos = nanos;
+    }
+
+    /**
+     * @return {@code true} the first time this is called for this token, {@code false} after that.
+     */
+    boolean markCompleted() {
+        if (completed) {
+            return false;
+        }
+        completed = true;
+        return true;
+    }
+
     /**
      * Awaits the release of the underlying control mechanism.
      * @return The response from the admission controller that created this token.
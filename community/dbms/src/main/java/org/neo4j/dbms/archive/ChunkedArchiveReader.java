@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.dbms.archive;
+
+import static org.neo4j.dbms.archive.ChunkedArchiveWriter.CHUNK;
+import static org.neo4j.dbms.archive.ChunkedArchiveWriter.DIRECTORY;
+import static org.neo4j.dbms.archive.ChunkedArchiveWriter.END;
+import static org.neo4j.dbms.archive.ChunkedArchiveWriter.FILE;
+
+import com.github.luben.zstd.Zstd;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
+import org.neo4j.function.ThrowingFunction;
+import org.neo4j.internal.helpers.NamedThreadFactory;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+/**
+ * Reads the body of a {@link DumpZstdChunkedFormatV1} archive, see {@link ChunkedArchiveWriter} for its layout.
+ * Records are read sequentially by the calling thread, while chunks are verified, decompressed and written to their
+ * position in the destination file by a pool of workers, in no particular order.
+ */
+final class ChunkedArchiveReader implements AutoCloseable {
+    private final DataInputStream in;
+    private final FileSystemAbstraction fs;
+    private final ExecutorService workers;
+    // Bounds the number of chunks held in memory at any point in time
+    private final Semaphore inFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final List<StoreChannel> channels = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    ChunkedArchiveReader(InputStream in, FileSystemAbstraction fs, int threads) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        this.fs = fs;
+        this.workers = Executors.newFixedThreadPool(threads, new NamedThreadFactory("load-decompressor", true));
+        this.inFlight = new Semaphore(threads * 2);
+    }
+
+    /**
+     * @param destination resolves the entry name of a file or directory to the path it should be written to
+     * @param progressPrinter progress printer
+     * @throws IOException in case of error, or if the archive is corrupt or incomplete
+     */
+    void read(ThrowingFunction<String, Path, IOException> destination, ArchiveProgressPrinter progressPrinter)
+            throws IOException {
+        long chunks = 0;
+        byte type;
+        while ((type = in.readByte()) != END) {
+            checkFailure();
+            switch (type) {
+                case DIRECTORY -> fs.mkdirs(destination.apply(in.readUTF()));
+                case FILE -> {
+                    int fileId = in.readInt();
+                    String name = in.readUTF();
+                    if (fileId != channels.size()) {
+                        throw new IOException("Unexpected file id " + fileId + " for '" + name + "'");
+                    }
+                    Path file = destination.apply(name);
+                    fs.mkdirs(file.getParent());
+                    channels.add(fs.write(file));
+                    names.add(name);
+                    progressPrinter.beginFile();
+                    progressPrinter.endFile();
+                }
+                case CHUNK -> {
+                    progressPrinter.addBytes(readChunk());
+                    chunks++;
+                }
+                default -> throw new IOException("Unknown record type " + type);
+            }
+        }
+
+        long expectedChunks = in.readLong();
+        awaitWorkers();
+        if (chunks != expectedChunks) {
+            throw new IOException("Archive is incomplete, expected " + expectedChunks + " chunks but found " + chunks);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        workers.shutdownNow();
+        IOUtils.closeAll(channels);
+    }
+
+    private int readChunk() throws IOException {
+        int fileId = in.readInt();
+        long offset = in.readLong();
+        int length = in.readInt();
+        int compressedLength = in.readInt();
+        int checksum = in.readInt();
+        if (fileId < 0 || fileId >= channels.size() || length < 0 || compressedLength < 0) {
+            throw new IOException("Corrupt chunk header for file id " + fileId + " at offset " + offset);
+        }
+        byte[] compressed = new byte[compressedLength];
+        in.readFully(compressed);
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chunks to be decompressed");
+        }
+        StoreChannel channel = channels.get(fileId);
+        String name = names.get(fileId);
+        workers.execute(() -> {
+            try {
+                byte[] chunk = Zstd.decompress(compressed, length);
+                var actualChecksum = new CRC32C();
+                actualChecksum.update(chunk);
+                if (chunk.length != length || (int) actualChecksum.getValue() != checksum) {
+                    throw new IOException("Checksum mismatch for chunk at offset " + offset + " of '" + name + "'");
+                }
+                channel.writeAll(ByteBuffer.wrap(chunk), offset);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+            }
+        });
+        return length;
+    }
+
+    private void awaitWorkers() throws IOException {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chunks to be decompressed");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t != null) {
+            if (t instanceof IOException e) {
+                throw e;
+            }
+            throw new IOException("Failed to decompress archive chunk", t);
+        }
+    }
+}
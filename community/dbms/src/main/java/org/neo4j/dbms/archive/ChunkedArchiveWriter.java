@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.dbms.archive;
+
+import com.github.luben.zstd.Zstd;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
+import org.neo4j.internal.helpers.NamedThreadFactory;
+
+/**
+ * Writes the body of a {@link DumpZstdChunkedFormatV1} archive. The body is a sequence of records:
+ * <ul>
+ *     <li>{@link #DIRECTORY}: entry name</li>
+ *     <li>{@link #FILE}: file id, entry name</li>
+ *     <li>{@link #CHUNK}: file id, offset in file, uncompressed length, compressed length, CRC32C of the
+ *     uncompressed bytes, compressed bytes</li>
+ *     <li>{@link #END}: total number of chunks</li>
+ * </ul>
+ * Files are read sequentially by the calling thread, while their chunks are compressed by a pool of workers and
+ * appended in the order they complete. A {@link #FILE} record is always written before any of its chunks, but
+ * chunks of different files can be interleaved.
+ */
+final class ChunkedArchiveWriter implements AutoCloseable {
+    static final byte END = 0;
+    static final byte DIRECTORY = 1;
+    static final byte FILE = 2;
+    static final byte CHUNK = 3;
+
+    private final DataOutputStream out;
+    private final int chunkSize;
+    private final ExecutorService workers;
+    // Bounds the number of chunks held in memory at any point in time
+    private final Semaphore inFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private int nextFileId;
+    private long chunks;
+
+    ChunkedArchiveWriter(OutputStream out, int threads, int chunkSize) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.chunkSize = chunkSize;
+        this.workers = Executors.newFixedThreadPool(threads, new NamedThreadFactory("dump-compressor", true));
+        this.inFlight = new Semaphore(threads * 2);
+    }
+
+    void addDirectory(String name) throws IOException {
+        checkFailure();
+        synchronized (out) {
+            out.writeByte(DIRECTORY);
+            out.writeUTF(name);
+        }
+    }
+
+    void addFile(String name, InputStream in, ArchiveProgressPrinter progressPrinter) throws IOException {
+        checkFailure();
+        int fileId = nextFileId++;
+        synchronized (out) {
+            out.writeByte(FILE);
+            out.writeInt(fileId);
+            out.writeUTF(name);
+        }
+
+        progressPrinter.beginFile();
+        long offset = 0;
+        int length;
+        do {
+            byte[] chunk = new byte[chunkSize];
+            length = in.readNBytes(chunk, 0, chunkSize);
+            if (length > 0) {
+                submit(fileId, offset, chunk, length);
+                offset += length;
+                progressPrinter.addBytes(length);
+            }
+        } while (length == chunkSize);
+        progressPrinter.endFile();
+    }
+
+    /**
+     * Waits for all submitted chunks to be written and terminates the archive. Must be called for the archive to be
+     * readable, the archive is incomplete if it is closed without calling this method.
+     */
+    void finish() throws IOException {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chunks to be compressed");
+        }
+        checkFailure();
+        out.writeByte(END);
+        out.writeLong(chunks);
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private void submit(int fileId, long offset, byte[] chunk, int length) throws IOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chunks to be compressed");
+        }
+        checkFailure();
+        chunks++;
+        workers.execute(() -> {
+            try {
+                var checksum = new CRC32C();
+                checksum.update(chunk, 0, length);
+                byte[] compressed = Zstd.compress(
+                        length == chunk.length ? chunk : Arrays.copyOf(chunk, length), Zstd.defaultCompressionLevel());
+                synchronized (out) {
+                    out.writeByte(CHUNK);
+                    out.writeInt(fileId);
+                    out.writeLong(offset);
+                    out.writeInt(length);
+                    out.writeInt(compressed.length);
+                    out.writeInt((int) checksum.getValue());
+                    out.write(compressed);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t != null) {
+            if (t instanceof IOException e) {
+                throw e;
+            }
+            throw new IOException("Failed to compress archive chunk", t);
+        }
+    }
+}
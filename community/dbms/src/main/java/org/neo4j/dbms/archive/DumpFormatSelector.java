@@ -94,6 +94,7 @@ public class DumpFormatSelector {
         return switch (new String(bytes)) {
             case DumpZstdFormatV1.MAGIC_HEADER -> new DumpZstdFormatV1();
             case DumpGzipFormatV1.MAGIC_HEADER -> new DumpGzipFormatV1();
+            case DumpZstdChunkedFormatV1.MAGIC_HEADER -> new DumpZstdChunkedFormatV1();
             default -> null;
         };
     }
@@ -103,8 +104,16 @@ public class DumpFormatSelector {
     }
 
     public static CompressionFormat selectFormat(PrintStream err) {
+        return selectFormat(err, 1);
+    }
+
+    /**
+     * @param threads number of threads to compress with, any value greater than 1 selects the chunked format if
+     * ZSTD is available.
+     */
+    public static CompressionFormat selectFormat(PrintStream err, int threads) {
         if (StandardCompressionFormat.selectCompressionFormat(err) == ZSTD) {
-            return new DumpZstdFormatV1();
+            return threads > 1 ? new DumpZstdChunkedFormatV1(threads) : new DumpZstdFormatV1();
         }
         return new DumpGzipFormatV1();
     }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.dbms.archive;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.neo4j.util.Preconditions;
+
+/**
+ * Dump format where every file is cut into chunks which are compressed independently of each other. This allows
+ * both the dump and the load to spread the (de)compression over several threads, and the load to write chunks
+ * out in whatever order they complete. See {@link ChunkedArchiveWriter} for the layout of the archive body.
+ */
+public class DumpZstdChunkedFormatV1 implements CompressionFormat {
+    static final String MAGIC_HEADER = ArchiveFormat.DUMP_PREFIX + "ZC1";
+    static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final int threads;
+    private final int chunkSize;
+
+    public DumpZstdChunkedFormatV1() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public DumpZstdChunkedFormatV1(int threads) {
+        this(threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    DumpZstdChunkedFormatV1(int threads, int chunkSize) {
+        Preconditions.requirePositive(threads);
+        Preconditions.requirePositive(chunkSize);
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    int threads() {
+        return threads;
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Only writes the magic header. Chunks are compressed individually by the {@link Dumper}, so the returned stream
+     * is the given one.
+     */
+    @Override
+    public OutputStream compress(OutputStream stream) throws IOException {
+        stream.write(MAGIC_HEADER.getBytes());
+        return stream;
+    }
+
+    /**
+     * Chunks are decompressed individually by the {@link Loader}, so the returned stream only marks the archive as
+     * chunked, see {@link #isFormat(InputStream)}.
+     */
+    @Override
+    public InputStream decompress(InputStream stream) {
+        return new ChunkedInputStream(stream, threads);
+    }
+
+    /**
+     * @return {@code true} if the given stream was returned from {@link #decompress(InputStream)}.
+     */
+    public static boolean isFormat(InputStream stream) {
+        return stream instanceof ChunkedInputStream;
+    }
+
+    static int threads(InputStream stream) {
+        return ((ChunkedInputStream) stream).threads;
+    }
+
+    private static class ChunkedInputStream extends FilterInputStream {
+        private final int threads;
+
+        ChunkedInputStream(InputStream in, int threads) {
+            super(in);
+            this.threads = threads;
+        }
+    }
+}
@@ -137,6 +137,11 @@ public class Dumper {
             progressPrinter.maxFiles(progressPrinter.maxFiles() + (operation.isFile ? 1 : 0));
         }
 
+        if (format instanceof DumpZstdChunkedFormatV1 chunkedFormat) {
+            dumpChunked(out, chunkedFormat);
+            return;
+        }
+
         try (var stream = wrapArchiveOut(out, format);
                 Resource ignore = progressPrinter.startPrinting()) {
             for (ArchiveOperation operation : operations) {
@@ -145,6 +150,24 @@ public class Dumper {
         }
     }
 
+    private void dumpChunked(OutputStream out, DumpZstdChunkedFormatV1 format) throws IOException {
+        try (var stream = format.compress(out);
+                var writer = new ChunkedArchiveWriter(stream, format.threads(), format.chunkSize());
+                Resource ignore = progressPrinter.startPrinting()) {
+            writeArchiveMetadata(stream);
+            for (ArchiveOperation operation : operations) {
+                if (operation.isFile) {
+                    try (var in = fs.openAsInputStream(operation.file)) {
+                        writer.addFile(operation.entryName(), in, progressPrinter);
+                    }
+                } else {
+                    writer.addDirectory(operation.entryName());
+                }
+            }
+            writer.finish();
+        }
+    }
+
     /**
      * @param folderPath folder to archive
      * @param exclude exclusion predicate
@@ -220,14 +243,14 @@ public class Dumper {
         }
 
         void addToArchive(ArchiveOutputStream stream) throws IOException {
-            ArchiveEntry entry = createEntry(file, root, stream);
+            ArchiveEntry entry = stream.createArchiveEntry(file.toFile(), entryName());
             stream.putArchiveEntry(entry);
             operation.accept(stream);
             stream.closeArchiveEntry();
         }
 
-        private static ArchiveEntry createEntry(Path file, Path root, ArchiveOutputStream archive) throws IOException {
-            return archive.createArchiveEntry(file.toFile(), "./" + root.relativize(file));
+        String entryName() {
+            return "./" + root.relativize(file);
         }
     }
 }
@@ -113,16 +113,35 @@ public class Loader {
 
         checkDatabasePresence(filesystem, databaseLayout);
 
-        try (var stream = openArchiveIn(selector, streamSupplier, inputName);
+        try (var decompressor = openArchiveIn(selector, streamSupplier, inputName);
                 Resource ignore = progressPrinter.startPrinting()) {
+            if (DumpZstdChunkedFormatV1.isFormat(decompressor)) {
+                loadChunked(decompressor, databaseDestination, transactionLogsDirectory);
+                return;
+            }
+
+            var stream = new TarArchiveInputStream(decompressor);
             ArchiveEntry entry;
             while ((entry = nextEntry(stream, inputName)) != null) {
-                Path destination = determineEntryDestination(entry, databaseDestination, transactionLogsDirectory);
+                Path destination =
+                        determineEntryDestination(entry.getName(), databaseDestination, transactionLogsDirectory);
                 loadEntry(destination, stream, entry);
             }
         }
     }
 
+    private void loadChunked(InputStream decompressor, Path databaseDestination, Path transactionLogsDirectory)
+            throws IOException {
+        try (var reader =
+                new ChunkedArchiveReader(decompressor, filesystem, DumpZstdChunkedFormatV1.threads(decompressor))) {
+            reader.read(
+                    entryName -> resolveEntry(
+                            determineEntryDestination(entryName, databaseDestination, transactionLogsDirectory),
+                            entryName),
+                    progressPrinter);
+        }
+    }
+
     public StoreVersionLoader.Result getStoreVersion(
             FileSystemAbstraction fs,
             Config config,
@@ -142,7 +161,7 @@ public class Loader {
     }
 
     private DumpMetaData readDumpMetadata(InputStream decompressor) throws IOException {
-        if (StandardCompressionFormat.ZSTD.isFormat(decompressor)) {
+        if (hasArchiveMetadata(decompressor)) {
             return new DumpMetaData(true, readArchiveSizeMetadata(decompressor));
         }
         return new DumpMetaData(false, null);
@@ -171,8 +190,8 @@ public class Loader {
     }
 
     private static Path determineEntryDestination(
-            ArchiveEntry entry, Path databaseDestination, Path transactionLogsDirectory) {
-        Path entryName = Path.of(entry.getName()).getFileName();
+            String name, Path databaseDestination, Path transactionLogsDirectory) {
+        Path entryName = Path.of(name).getFileName();
         try {
             return TransactionLogFiles.DEFAULT_FILENAME_FILTER.accept(entryName)
                     ? transactionLogsDirectory
@@ -190,13 +209,17 @@ public class Loader {
         }
     }
 
-    private void loadEntry(Path destination, ArchiveInputStream<?> stream, ArchiveEntry entry) throws IOException {
-        Path file = destination.resolve(entry.getName().replace('\\', '/'));
+    private static Path resolveEntry(Path destination, String name) throws InvalidDumpEntryException {
+        Path file = destination.resolve(name.replace('\\', '/'));
         var normalizedFile = file.normalize();
         if (!normalizedFile.startsWith(destination)) {
-            throw new InvalidDumpEntryException(entry.getName());
+            throw new InvalidDumpEntryException(name);
         }
+        return normalizedFile;
+    }
 
+    private void loadEntry(Path destination, ArchiveInputStream<?> stream, ArchiveEntry entry) throws IOException {
+        var normalizedFile = resolveEntry(destination, entry.getName());
         if (entry.isDirectory()) {
             filesystem.mkdirs(normalizedFile);
         } else {
@@ -207,20 +230,19 @@ public class Loader {
         }
     }
 
-    private ArchiveInputStream<?> openArchiveIn(
+    private InputStream openArchiveIn(
             DecompressionSelector selector, ThrowingSupplier<InputStream, IOException> streamSupplier, String inputName)
             throws IOException, IncorrectFormat {
         try {
             InputStream decompressor = selector.decompress(streamSupplier);
 
-            if (StandardCompressionFormat.ZSTD.isFormat(decompressor)) {
-                // Important: Only the ZSTD compressed archives have any archive metadata.
+            if (hasArchiveMetadata(decompressor)) {
                 SizeMeta fab = readArchiveSizeMetadata(decompressor);
                 progressPrinter.maxFiles(fab.files());
                 progressPrinter.maxBytes(fab.bytes());
             }
 
-            return new TarArchiveInputStream(decompressor);
+            return decompressor;
         } catch (NoSuchFileException ioe) {
             throw ioe;
         } catch (IOException e) {
@@ -228,6 +250,11 @@ public class Loader {
         }
     }
 
+    private static boolean hasArchiveMetadata(InputStream decompressor) {
+        // Important: Only the ZSTD compressed archives have any archive metadata.
+        return StandardCompressionFormat.ZSTD.isFormat(decompressor) || DumpZstdChunkedFormatV1.isFormat(decompressor);
+    }
+
     SizeMeta readArchiveSizeMetadata(InputStream stream) throws IOException {
         DataInputStream metadata =
                 new DataInputStream(stream); // Unbuffered. Will not play naughty tricks with the file position.
@@ -52,8 +52,8 @@ class DumpCommandTest {
                 USAGE
 
                 dump [-h] [--expand-commands] [--verbose] [--overwrite-destination
-                     [=true|false]] [--additional-config=<file>] [--to-path=<path> |
-                     --to-stdout] <database>
+                     [=true|false]] [--additional-config=<file>] [--threads=<number of
+                     threads>] [--to-path=<path> | --to-stdout] <database>
 
                 DESCRIPTION
 
@@ -81,6 +81,13 @@ class DumpCommandTest {
                                           Overwrite any existing dump file in the destination
                                             folder.
                                             Default: false
+                      --threads=<number of threads>
+                                          Number of threads used to compress the dump. A value
+                                            greater than 1 produces a chunked archive that is
+                                            also decompressed in parallel by the load command.
+                                            Chunked archives can not be loaded by versions of
+                                            Neo4j that do not support them.
+                                            Default: 1
                       --to-path=<path>    Destination folder of a database dump.
                                           It is possible to dump databases into AWS S3 buckets,
                                             Google Cloud storage buckets, and Azure buckets
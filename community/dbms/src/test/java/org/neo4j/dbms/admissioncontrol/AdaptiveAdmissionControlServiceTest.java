@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.dbms.admissioncontrol;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.dbms.admissioncontrol.AdmissionControlResponse.ADMISSION_CONTROL_PROCESS_STOPPED;
+import static org.neo4j.dbms.admissioncontrol.AdmissionControlResponse.RELEASED;
+import static org.neo4j.dbms.admissioncontrol.AdmissionControlResponse.UNABLE_TO_ALLOCATE_NEW_TOKEN;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.FakeClock;
+
+class AdaptiveAdmissionControlServiceTest {
+    private static final long TARGET_DELAY = MILLISECONDS.toNanos(50);
+    private static final long INTERVAL = MILLISECONDS.toNanos(500);
+
+    private final FakeClock clock = new FakeClock();
+    private final AtomicLong pageFaults = new AtomicLong();
+    private AdaptiveAdmissionControlService admissionControl;
+
+    @AfterEach
+    void tearDown() {
+        if (admissionControl != null) {
+            admissionControl.stop();
+        }
+    }
+
+    @Test
+    void shouldQueueTokensAboveLimitAndAdmitThemInOrder() {
+        start(4, 100, 10);
+        var admitted = requestTokens(4);
+        var first = admissionControl.requestToken();
+        var second = admissionControl.requestToken();
+
+        assertThat(admitted).allMatch(token -> admissionControl.awaitRelease(token) == RELEASED);
+        assertThat(admissionControl.inFlight()).isEqualTo(4);
+        assertThat(admissionControl.queued()).isEqualTo(2);
+
+        admissionControl.requestCompleted(admitted.get(0));
+        assertThat(admissionControl.awaitRelease(first)).isEqualTo(RELEASED);
+        assertThat(admissionControl.queued()).isEqualTo(1);
+
+        admissionControl.requestCompleted(admitted.get(0));
+        assertThat(admissionControl.queued()).isEqualTo(1);
+
+        admissionControl.requestCompleted(admitted.get(1));
+        assertThat(admissionControl.awaitRelease(second)).isEqualTo(RELEASED);
+        assertThat(admissionControl.inFlight()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        start(4, 100, 1);
+        requestTokens(4);
+        admissionControl.requestToken();
+
+        var token = admissionControl.requestToken();
+
+        assertThat(admissionControl.awaitRelease(token)).isEqualTo(UNABLE_TO_ALLOCATE_NEW_TOKEN);
+        assertThat(admissionControl.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShedStandingQueue() {
+        start(4, 100, 10);
+        var admitted = requestTokens(4);
+        var waiting = admissionControl.requestToken();
+
+        clock.forward(TARGET_DELAY * 2, NANOSECONDS);
+        admissionControl.update();
+        assertThat(admissionControl.queued()).isEqualTo(1);
+
+        clock.forward(INTERVAL, NANOSECONDS);
+        var fresh = admissionControl.requestToken();
+        admissionControl.update();
+
+        assertThat(admissionControl.awaitRelease(waiting)).isEqualTo(UNABLE_TO_ALLOCATE_NEW_TOKEN);
+        assertThat(admissionControl.queued()).isEqualTo(1);
+        assertThat(admissionControl.rejected()).isEqualTo(1);
+
+        // the fresh token is admitted as soon as there is room, since the queue is no longer standing
+        admissionControl.requestCompleted(admitted.get(0));
+        assertThat(admissionControl.awaitRelease(fresh)).isEqualTo(RELEASED);
+    }
+
+    @Test
+    void shouldRemoveAbandonedTokensFromQueue() {
+        start(4, 100, 10);
+        requestTokens(4);
+        var abandoned = admissionControl.requestToken();
+
+        admissionControl.requestCompleted(abandoned);
+
+        assertThat(admissionControl.awaitRelease(abandoned)).isEqualTo(UNABLE_TO_ALLOCATE_NEW_TOKEN);
+        assertThat(admissionControl.queued()).isZero();
+        assertThat(admissionControl.inFlight()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldGrowLimitWhileLatencyIsStableAndLimitIsUsed() {
+        start(8, 100, 100);
+
+        runRounds(10, 10);
+
+        assertThat(admissionControl.limit()).isGreaterThan(8);
+    }
+
+    @Test
+    void shouldNotGrowUnusedLimit() {
+        start(8, 100, 100);
+
+        for (int i = 0; i < 10; i++) {
+            var token = admissionControl.requestToken();
+            admissionControl.awaitRelease(token);
+            clock.forward(10, MILLISECONDS);
+            admissionControl.requestCompleted(token);
+            admissionControl.update();
+        }
+
+        assertThat(admissionControl.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldShrinkLimitWhenLatencyRises() {
+        start(32, 100, 100);
+        runRounds(5, 10);
+        int stableLimit = admissionControl.limit();
+
+        runRounds(5, 200);
+
+        assertThat(admissionControl.limit()).isLessThan(stableLimit);
+        assertThat(admissionControl.limit()).isGreaterThanOrEqualTo(AdaptiveAdmissionControlService.MIN_LIMIT);
+    }
+
+    @Test
+    void shouldMeasureLatencyFromRelease() {
+        start(32, 100, 100);
+        runRounds(5, 10);
+        int stableLimit = admissionControl.limit();
+
+        runRounds(5, 200, 10);
+
+        assertThat(admissionControl.limit()).isGreaterThan(stableLimit);
+    }
+
+    @Test
+    void shouldNotSampleLatencyOfTokensThatNeverStarted() {
+        start(32, 100, 100);
+        runRounds(5, 10);
+        int stableLimit = admissionControl.limit();
+
+        for (int round = 0; round < 5; round++) {
+            var tokens = requestTokens(admissionControl.limit());
+            clock.forward(200, MILLISECONDS);
+            tokens.forEach(admissionControl::requestCompleted);
+            admissionControl.update();
+        }
+
+        assertThat(admissionControl.limit()).isGreaterThanOrEqualTo(stableLimit);
+    }
+
+    @Test
+    void shouldShrinkLimitWhenPageFaultsRise() {
+        start(32, 100, 100);
+        for (int i = 0; i < 5; i++) {
+            pageFaults.addAndGet(100);
+            admissionControl.update();
+        }
+        assertThat(admissionControl.limit()).isEqualTo(32);
+
+        pageFaults.addAndGet(10_000);
+        admissionControl.update();
+
+        assertThat(admissionControl.limit()).isLessThan(32);
+    }
+
+    @Test
+    void shouldReleaseQueuedTokensOnStop() {
+        start(4, 100, 10);
+        requestTokens(4);
+        var queued = admissionControl.requestToken();
+
+        admissionControl.stop();
+
+        assertThat(admissionControl.awaitRelease(queued)).isEqualTo(ADMISSION_CONTROL_PROCESS_STOPPED);
+        assertThat(admissionControl.awaitRelease(admissionControl.requestToken()))
+                .isEqualTo(ADMISSION_CONTROL_PROCESS_STOPPED);
+    }
+
+    private void start(int initialLimit, int maxLimit, int maxQueueSize) {
+        admissionControl = new AdaptiveAdmissionControlService(
+                clock,
+                mock(JobScheduler.class),
+                pageFaults::get,
+                initialLimit,
+                maxLimit,
+                maxQueueSize,
+                TARGET_DELAY,
+                INTERVAL);
+        admissionControl.start();
+    }
+
+    private List<AdmissionControlToken> requestTokens(int count) {
+        var tokens = new ArrayList<AdmissionControlToken>();
+        for (int i = 0; i < count; i++) {
+            tokens.add(admissionControl.requestToken());
+        }
+        return tokens;
+    }
+
+    /**
+     * Each round admits as many tokens as the limit allows, completes half of them after the given latency, updates
+     * the limit while the other half is still in flight and then completes the rest.
+     */
+    private void runRounds(int rounds, long latencyMillis) {
+        runRounds(rounds, 0, latencyMillis);
+    }
+
+    /**
+     * Like {@link #runRounds(int, long)}, but lets the admitted tokens wait for the given delay before they are
+     * awaited, like requests queued behind earlier requests of the same connection.
+     */
+    private void runRounds(int rounds, long delayMillis, long latencyMillis) {
+        for (int round = 0; round < rounds; round++) {
+            var tokens = requestTokens(admissionControl.limit());
+            clock.forward(delayMillis, MILLISECONDS);
+            tokens.forEach(admissionControl::awaitRelease);
+            clock.forward(latencyMillis, MILLISECONDS);
+            int half = tokens.size() / 2;
+            tokens.subList(0, half).forEach(admissionControl::requestCompleted);
+            admissionControl.update();
+            tokens.subList(half, tokens.size()).forEach(admissionControl::requestCompleted);
+        }
+    }
+}
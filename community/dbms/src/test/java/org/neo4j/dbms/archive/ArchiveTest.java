@@ -20,11 +20,13 @@
 package org.neo4j.dbms.archive;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.neo4j.configuration.GraphDatabaseSettings.initial_default_database;
 import static org.neo4j.configuration.GraphDatabaseSettings.neo4j_home;
 import static org.neo4j.configuration.GraphDatabaseSettings.transaction_logs_root_path;
 import static org.neo4j.function.Predicates.alwaysFalse;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
@@ -32,6 +34,8 @@ import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.neo4j.configuration.Config;
@@ -215,6 +219,73 @@ class ArchiveTest {
                 describeRecursively(newDatabaseLayout.getTransactionLogsDirectory()));
     }
 
+    @Test
+    void shouldRoundTripChunkedArchive() throws IOException, IncorrectFormat {
+        Path directory = testDirectory.directory("a-directory");
+        Path subdir = directory.resolve("a-subdirectory");
+        filesystem.mkdirs(subdir);
+        filesystem.mkdirs(directory.resolve("an-empty-subdirectory"));
+        touch(directory.resolve("an-empty-file"));
+        write(directory.resolve("a-file"), "text");
+        write(subdir.resolve("a-file-spanning-many-chunks"), randomText(10_000));
+        write(subdir.resolve("a-file-of-exactly-one-chunk"), randomText(64));
+
+        assertRoundTrips(directory, new DumpZstdChunkedFormatV1(4, 64));
+    }
+
+    @Test
+    void shouldFailToLoadChunkedArchiveWithCorruptChunk() throws IOException {
+        Path directory = testDirectory.directory("a-directory");
+        filesystem.mkdirs(directory);
+        write(directory.resolve("a-file"), randomText(10_000));
+        Path archive = testDirectory.file("the-archive.dump");
+        Dumper dumper = new Dumper(filesystem);
+        dumper.dump(
+                directory, directory, dumper.openForDump(archive), new DumpZstdChunkedFormatV1(4, 64), alwaysFalse());
+
+        // The archive ends with the compressed bytes of the last chunk, followed by the end marker and chunk count
+        byte[] bytes = readAllBytes(archive);
+        bytes[bytes.length - Byte.BYTES - Long.BYTES - 1] ^= 0x55;
+        overwrite(archive, bytes);
+
+        Loader loader = new Loader(testDirectory.getFileSystem());
+        DatabaseLayout databaseLayout = DatabaseLayout.ofFlat(testDirectory.file("the-new-directory"));
+        assertThrows(IOException.class, () -> loader.load(databaseLayout, archive));
+    }
+
+    @Test
+    void shouldFailToLoadTruncatedChunkedArchive() throws IOException {
+        Path directory = testDirectory.directory("a-directory");
+        filesystem.mkdirs(directory);
+        write(directory.resolve("a-file"), randomText(10_000));
+        Path archive = testDirectory.file("the-archive.dump");
+        Dumper dumper = new Dumper(filesystem);
+        dumper.dump(
+                directory, directory, dumper.openForDump(archive), new DumpZstdChunkedFormatV1(4, 64), alwaysFalse());
+
+        byte[] bytes = readAllBytes(archive);
+        overwrite(archive, Arrays.copyOf(bytes, bytes.length - Byte.BYTES - Long.BYTES));
+
+        Loader loader = new Loader(testDirectory.getFileSystem());
+        DatabaseLayout databaseLayout = DatabaseLayout.ofFlat(testDirectory.file("the-new-directory"));
+        assertThrows(EOFException.class, () -> loader.load(databaseLayout, archive));
+    }
+
+    private static String randomText(int length) {
+        var random = new Random(length);
+        var text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+
+    private void overwrite(Path file, byte[] bytes) throws IOException {
+        try (var outputStream = filesystem.openAsOutputStream(file, false)) {
+            outputStream.write(bytes);
+        }
+    }
+
     private void write(Path file, String data) throws IOException {
         try (var outputStream = filesystem.openAsOutputStream(file, false)) {
             outputStream.write(data.getBytes());
@@ -236,7 +307,7 @@ class ArchiveTest {
         return DatabaseLayout.of(config);
     }
 
-    private void assertRoundTrips(Path oldDirectory, StandardCompressionFormat compressionFormat)
+    private void assertRoundTrips(Path oldDirectory, CompressionFormat compressionFormat)
             throws IOException, IncorrectFormat {
         Path archive = testDirectory.file("the-archive.dump");
         Dumper dumper = new Dumper(filesystem);
@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.index.internal.gbptree.GBPTreeTestUtil.consistencyCheckStrict;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
 
 import java.nio.file.OpenOption;
@@ -127,6 +128,43 @@ abstract class GBPTreeReadWriteTestBase<KEY, VALUE> {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("pageSizes")
+    void shouldSeeBulkLoadedEntries(int pageSize) throws Exception {
+        setupTest(pageSize);
+        try (GBPTree<KEY, VALUE> index = index()) {
+            int count = 50_000;
+            double fillFactor = 0.05 + random.nextDouble() * 0.95;
+            try (BulkLoader<KEY, VALUE> bulkLoader = index.bulkLoader(fillFactor, NULL_CONTEXT)) {
+                for (int i = 0; i < count; i++) {
+                    bulkLoader.add(key(i * 2L), value(i));
+                }
+            }
+            assertTrue(consistencyCheckStrict(index));
+
+            // The loaded tree should be possible to modify like any other tree
+            try (Writer<KEY, VALUE> writer = index.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+                for (int i = 0; i < count; i += 10) {
+                    writer.put(key(i * 2L + 1), value(i));
+                }
+            }
+            assertTrue(consistencyCheckStrict(index));
+
+            try (Seeker<KEY, VALUE> cursor = index.seek(key(0), key(Long.MAX_VALUE), NULL_CONTEXT)) {
+                for (int i = 0; i < count; i++) {
+                    assertTrue(cursor.next());
+                    assertEqualsKey(key(i * 2L), cursor.key());
+                    assertEquals(0, layout.compareValue(value(i), cursor.value()));
+                    if (i % 10 == 0) {
+                        assertTrue(cursor.next());
+                        assertEqualsKey(key(i * 2L + 1), cursor.key());
+                    }
+                }
+                assertFalse(cursor.next());
+            }
+        }
+    }
+
     /* Randomized tests */
 
     @ParameterizedTest
@@ -35,6 +35,7 @@ import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADE
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 import static org.neo4j.index.internal.gbptree.GBPTreeStructure.visitState;
 import static org.neo4j.index.internal.gbptree.GBPTreeTestUtil.consistencyCheck;
+import static org.neo4j.index.internal.gbptree.GBPTreeTestUtil.consistencyCheckStrict;
 import static org.neo4j.index.internal.gbptree.SimpleLongLayout.longLayout;
 import static org.neo4j.io.fs.FileUtils.blockSize;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
@@ -398,6 +399,46 @@ class GBPTreeTest {
         }
     }
 
+    @Test
+    void shouldFailToOpenPrefixCompressedTreeWithoutCompressionOption() throws Exception {
+        // GIVEN
+        SimpleLongLayout dynamicLayout = longLayout().withFixedSize(false).build();
+        try (PageCache pageCache = createPageCache(defaultPageSize)) {
+            var compressedOpenOptions = getOpenOptions().newWith(GBPTreeOpenOptions.COMPRESS_LEAF_KEY_PREFIX);
+            try (var index = index(pageCache)
+                    .with(dynamicLayout)
+                    .with(compressedOpenOptions)
+                    .build()) {
+                index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            }
+
+            // WHEN/THEN
+            assertThatThrownBy(() -> index(pageCache).with(dynamicLayout).build())
+                    .isInstanceOf(MetadataMismatchException.class)
+                    .hasMessageContaining("Created with formatIdentifier:4");
+        }
+    }
+
+    @Test
+    void shouldFailToOpenTreeWithCompressionOptionIfCreatedWithout() throws Exception {
+        // GIVEN
+        SimpleLongLayout dynamicLayout = longLayout().withFixedSize(false).build();
+        try (PageCache pageCache = createPageCache(defaultPageSize)) {
+            try (var index = index(pageCache).with(dynamicLayout).build()) {
+                index.checkpoint(FileFlushEvent.NULL, NULL_CONTEXT);
+            }
+
+            // WHEN/THEN
+            var compressedOpenOptions = getOpenOptions().newWith(GBPTreeOpenOptions.COMPRESS_LEAF_KEY_PREFIX);
+            assertThatThrownBy(() -> index(pageCache)
+                            .with(dynamicLayout)
+                            .with(compressedOpenOptions)
+                            .build())
+                    .isInstanceOf(MetadataMismatchException.class)
+                    .hasMessageContaining("Opened with formatIdentifier:4");
+        }
+    }
+
     @Test
     void shouldReturnNoResultsOnEmptyIndex() throws Exception {
         // GIVEN
@@ -446,6 +487,91 @@ class GBPTreeTest {
         }
     }
 
+    @Test
+    void shouldNotBulkLoadIntoNonEmptyTree() throws Exception {
+        try (PageCache pageCache = createPageCache(defaultPageSize);
+                GBPTree<MutableLong, MutableLong> index = index(pageCache).build()) {
+            try (Writer<MutableLong, MutableLong> writer = index.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT)) {
+                writer.put(new MutableLong(0), new MutableLong(1));
+            }
+
+            assertThatThrownBy(() -> index.bulkLoader(1.0, NULL_CONTEXT))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("empty tree");
+
+            // Should not be left holding the writer lock
+            index.writer(W_BATCHED_SINGLE_THREADED, NULL_CONTEXT).close();
+        }
+    }
+
+    @Test
+    void shouldNotBulkLoadKeysOutOfOrder() throws Exception {
+        try (PageCache pageCache = createPageCache(defaultPageSize);
+                GBPTree<MutableLong, MutableLong> index = index(pageCache).build()) {
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = index.bulkLoader(1.0, NULL_CONTEXT)) {
+                bulkLoader.add(new MutableLong(1), new MutableLong(1));
+                assertThatThrownBy(() -> bulkLoader.add(new MutableLong(1), new MutableLong(2)))
+                        .isInstanceOf(IllegalArgumentException.class);
+                // The failed add aborted the loader
+                assertThatThrownBy(() -> bulkLoader.add(new MutableLong(2), new MutableLong(2)))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+
+            // The entry added before the failure is not published
+            try (Seeker<MutableLong, MutableLong> seek =
+                    index.seek(new MutableLong(0), new MutableLong(Long.MAX_VALUE), NULL_CONTEXT)) {
+                assertFalse(seek.next());
+            }
+            assertTrue(consistencyCheckStrict(index));
+        }
+    }
+
+    @Test
+    void shouldKeepTreeEmptyWhenBulkLoadIsAborted() throws Exception {
+        try (PageCache pageCache = createPageCache(defaultPageSize);
+                GBPTree<MutableLong, MutableLong> index = index(pageCache).build()) {
+            int count = 100_000;
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = index.bulkLoader(1.0, NULL_CONTEXT)) {
+                for (int i = 0; i < count; i++) {
+                    bulkLoader.add(new MutableLong(i), new MutableLong(i));
+                }
+                bulkLoader.abort();
+            }
+
+            MutableLong from = new MutableLong(0);
+            MutableLong to = new MutableLong(Long.MAX_VALUE);
+            try (Seeker<MutableLong, MutableLong> seek = index.seek(from, to, NULL_CONTEXT)) {
+                assertFalse(seek.next());
+            }
+            // The nodes of the aborted load are released, i.e. no pages are left unused
+            assertTrue(consistencyCheckStrict(index));
+
+            // The tree is still empty, so it can be bulk loaded again
+            try (BulkLoader<MutableLong, MutableLong> bulkLoader = index.bulkLoader(1.0, NULL_CONTEXT)) {
+                bulkLoader.add(new MutableLong(1), new MutableLong(1));
+            }
+            try (Seeker<MutableLong, MutableLong> seek = index.seek(from, to, NULL_CONTEXT)) {
+                assertTrue(seek.next());
+                assertEquals(1, seek.key().longValue());
+                assertFalse(seek.next());
+            }
+        }
+    }
+
+    @Test
+    void shouldNotBeAbleToAcquireWriterWhileBulkLoading() throws Exception {
+        try (PageCache pageCache = createPageCache(defaultPageSize);
+                GBPTree<MutableLong, MutableLong> index = index(pageCache).build()) {
+            BulkLoader<MutableLong, MutableLong> bulkLoader = index.bulkLoader(1.0, NULL_CONTEXT);
+
+            assertThatThrownBy(() -> executor.submit(() -> index.writer(NULL_CONTEXT)).get())
+                    .hasCauseInstanceOf(IllegalStateException.class);
+
+            bulkLoader.close();
+            index.writer(NULL_CONTEXT).close();
+        }
+    }
+
     @EnumSource(WriterFactory.class)
     @ParameterizedTest
     void shouldNotAllowClosingWriterMultipleTimes(WriterFactory writerFactory) throws Exception {
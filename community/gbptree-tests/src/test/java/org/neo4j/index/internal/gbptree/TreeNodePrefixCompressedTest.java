@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.DATA_LAYER_FLAG;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.PageCursor;
+
+public class TreeNodePrefixCompressedTest extends TreeNodeTestBase<RawBytes, RawBytes> {
+    private static final int SHARED_PREFIX_LENGTH = 32;
+
+    private final SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+    // Orders keys byte by byte so that keys sharing a prefix are adjacent
+    private final SimpleByteArrayLayout lexicographicLayout = new SimpleByteArrayLayout(false);
+
+    @Override
+    protected TestLayout<RawBytes, RawBytes> getLayout() {
+        return layout;
+    }
+
+    @Override
+    protected LeafNodeBehaviour<RawBytes, RawBytes> getLeaf(
+            int pageSize, Layout<RawBytes, RawBytes> layout, OffloadStore<RawBytes, RawBytes> offloadStore) {
+        return new LeafNodePrefixCompressed<>(pageSize, layout, offloadStore);
+    }
+
+    @Override
+    protected InternalNodeBehaviour<RawBytes> getInternal(
+            int pageSize, Layout<RawBytes, RawBytes> layout, OffloadStore<RawBytes, RawBytes> offloadStore) {
+        return new InternalNodeDynamicSize<>(pageSize, layout, offloadStore);
+    }
+
+    @Override
+    void assertAdditionalHeader(PageCursor cursor, int pageSize) {
+        // When
+        int currentAllocSpace = DynamicSizeUtil.getAllocOffset(cursor);
+
+        // Then
+        if (TreeNodeUtil.isLeaf(cursor)) {
+            assertEquals(
+                    pageSize - LeafNodePrefixCompressed.PREFIX_LENGTH_SIZE,
+                    currentAllocSpace,
+                    "allocSpace point to prefix length");
+        } else {
+            // internal nodes are not prefix compressed
+            assertEquals(pageSize, currentAllocSpace, "allocSpace point to end of page");
+        }
+    }
+
+    @Override
+    protected void defragmentLeaf(LeafNodeBehaviour<RawBytes, RawBytes> leaf, PageAwareByteArrayCursor cursor)
+            throws IOException {
+        var allocOffsetBefore = DynamicSizeUtil.getAllocOffset(cursor);
+        leaf.defragment(cursor, TreeNodeUtil.keyCount(cursor), NULL_CONTEXT);
+        var allocOffsetAfter = DynamicSizeUtil.getAllocOffset(cursor);
+        assertThat(allocOffsetAfter).isGreaterThan(allocOffsetBefore);
+        var deadSpaceAfter = DynamicSizeUtil.getDeadSpace(cursor);
+        assertThat(deadSpaceAfter).isEqualTo(0);
+    }
+
+    @Test
+    void shouldFitMoreKeysSharingPrefixThanUncompressedLeaf() throws IOException {
+        var compressed = getLeaf(PAGE_SIZE, lexicographicLayout, createOffloadStore());
+        var uncompressed = new LeafNodeDynamicSize<>(PAGE_SIZE, lexicographicLayout, createOffloadStore());
+
+        int compressedKeyCount = insertKeysSharingPrefix(compressed, Integer.MAX_VALUE);
+        assertThat(compressed.checkMetaConsistency(cursor)).isEmpty();
+        int uncompressedKeyCount = insertKeysSharingPrefix(uncompressed, Integer.MAX_VALUE);
+
+        assertThat(compressedKeyCount).isGreaterThanOrEqualTo(uncompressedKeyCount * 2);
+    }
+
+    @Test
+    void shouldShrinkPrefixWhenInsertingKeyNotSharingIt() throws IOException {
+        var leaf = getLeaf(PAGE_SIZE, lexicographicLayout, createOffloadStore());
+        int keyCount = insertKeysSharingPrefix(leaf, 4);
+
+        // When
+        RawBytes lowest = keyWithSharedPrefix(0);
+        lowest.bytes[0]--;
+        RawBytes lowestValue = lexicographicLayout.value(0);
+        assertThat(leaf.overflow(cursor, keyCount, lowest, lowestValue, NULL_CONTEXT))
+                .isNotEqualTo(YES);
+        leaf.insertKeyValueAt(
+                cursor, lowest, lowestValue, 0, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL_CONTEXT);
+        TreeNodeUtil.setKeyCount(cursor, keyCount + 1);
+
+        // Then
+        assertThat(leaf.checkMetaConsistency(cursor)).isEmpty();
+        RawBytes readKey = lexicographicLayout.newKey();
+        assertThat(leaf.keyAt(cursor, readKey, 0, NULL_CONTEXT).bytes).isEqualTo(lowest.bytes);
+        for (int i = 0; i < keyCount; i++) {
+            assertThat(leaf.keyAt(cursor, readKey, i + 1, NULL_CONTEXT).bytes)
+                    .isEqualTo(keyWithSharedPrefix(i).bytes);
+            ValueHolder<RawBytes> value =
+                    leaf.valueAt(cursor, new ValueHolder<>(lexicographicLayout.newValue()), i + 1, NULL_CONTEXT);
+            assertThat(value.value.bytes).isEqualTo(lexicographicLayout.value(i).bytes);
+        }
+    }
+
+    @Test
+    void shouldSplitKeysSharingPrefix() throws IOException {
+        var leaf = getLeaf(PAGE_SIZE, lexicographicLayout, createOffloadStore());
+        int keyCount = insertKeysSharingPrefix(leaf, Integer.MAX_VALUE);
+        PageAwareByteArrayCursor rightCursor = cursor.duplicate(cursor.getCurrentPageId() + 1);
+        rightCursor.next();
+        leaf.initialize(rightCursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+
+        // When
+        RawBytes newKey = keyWithSharedPrefix(keyCount);
+        RawBytes newValue = lexicographicLayout.value(keyCount);
+        RawBytes splitter = lexicographicLayout.newKey();
+        int splitPos = leaf.findSplitter(cursor, keyCount, newKey, newValue, keyCount, splitter, 0.5, NULL_CONTEXT);
+        leaf.doSplit(
+                cursor,
+                keyCount,
+                rightCursor,
+                keyCount,
+                newKey,
+                newValue,
+                splitter,
+                splitPos,
+                0.5,
+                STABLE_GENERATION,
+                UNSTABLE_GENERATION,
+                NULL_CONTEXT);
+
+        // Then
+        assertThat(leaf.checkMetaConsistency(cursor)).isEmpty();
+        assertThat(leaf.checkMetaConsistency(rightCursor)).isEmpty();
+        assertThat(TreeNodeUtil.keyCount(cursor)).isEqualTo(splitPos);
+        assertThat(TreeNodeUtil.keyCount(rightCursor)).isEqualTo(keyCount + 1 - splitPos);
+        RawBytes readKey = lexicographicLayout.newKey();
+        for (int i = 0; i <= keyCount; i++) {
+            PageCursor nodeCursor = i < splitPos ? cursor : rightCursor;
+            int pos = i < splitPos ? i : i - splitPos;
+            assertThat(leaf.keyAt(nodeCursor, readKey, pos, NULL_CONTEXT).bytes)
+                    .isEqualTo(keyWithSharedPrefix(i).bytes);
+        }
+    }
+
+    private int insertKeysSharingPrefix(LeafNodeBehaviour<RawBytes, RawBytes> leaf, int maxKeyCount)
+            throws IOException {
+        cursor.zapPage();
+        leaf.initialize(cursor, DATA_LAYER_FLAG, STABLE_GENERATION, UNSTABLE_GENERATION);
+        int keyCount = 0;
+        RawBytes key = keyWithSharedPrefix(keyCount);
+        RawBytes value = lexicographicLayout.value(keyCount);
+        while (keyCount < maxKeyCount && leaf.overflow(cursor, keyCount, key, value, NULL_CONTEXT) != YES) {
+            leaf.insertKeyValueAt(
+                    cursor, key, value, keyCount, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL_CONTEXT);
+            TreeNodeUtil.setKeyCount(cursor, ++keyCount);
+            key = keyWithSharedPrefix(keyCount);
+            value = lexicographicLayout.value(keyCount);
+        }
+        return keyCount;
+    }
+
+    private static RawBytes keyWithSharedPrefix(long seed) {
+        byte[] bytes = new byte[SHARED_PREFIX_LENGTH + Long.BYTES];
+        Arrays.fill(bytes, 0, SHARED_PREFIX_LENGTH, (byte) 7);
+        ByteBuffer.wrap(bytes).putLong(SHARED_PREFIX_LENGTH, seed);
+        return new RawBytes(bytes);
+    }
+}
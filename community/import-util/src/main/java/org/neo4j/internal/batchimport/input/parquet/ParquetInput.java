@@ -417,7 +417,7 @@ public class ParquetInput implements Input {
 
         private final Path lePath;
 
-        private ParquetImportInputFile(Path lePath) {
+        ParquetImportInputFile(Path lePath) {
             this.lePath = lePath;
         }
 
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.DummyRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.EnumLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.JsonLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.StringLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.TimeValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Reads the rows of a Parquet file as {@link Value values}, for loading Parquet data into a running database.
+ * <p>
+ * Unlike the import {@link ParquetInput}, values are created straight from the typed column readers, without going
+ * through their string representation, and only the requested columns are read from the file. Row groups are the unit
+ * of parallelism: every thread {@link #openCursor() opens its own cursor} and reads the row groups it is handed,
+ * since the underlying file readers are not thread safe.
+ */
+public final class ParquetValueReader {
+    private static final long JULIAN_DAY_OF_EPOCH = 2_440_588;
+    private static final long NANOS_PER_SECOND = 1_000_000_000;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final InputFile file;
+    private final MessageType schema;
+    private final List<ColumnDescriptor> columns;
+    private final List<String> columnNames;
+    private final ColumnValueReader[] valueReaders;
+    private final GroupConverter recordConverter;
+    private final String createdBy;
+    private final int rowGroupCount;
+    private final long rowCount;
+
+    private ParquetValueReader(
+            InputFile file,
+            MessageType schema,
+            List<String> columnNames,
+            String createdBy,
+            int rowGroupCount,
+            long rowCount) {
+        this.file = file;
+        this.schema = schema;
+        this.columnNames = columnNames;
+        this.createdBy = createdBy;
+        this.rowGroupCount = rowGroupCount;
+        this.rowCount = rowCount;
+        this.recordConverter = new DummyRecordConverter(schema).getRootConverter();
+        this.columns = columnNames.stream()
+                .map(name -> schema.getColumnDescription(new String[] {name}))
+                .toList();
+        this.valueReaders = columns.stream()
+                .map(ColumnDescriptor::getPrimitiveType)
+                .map(ParquetValueReader::valueReader)
+                .toArray(ColumnValueReader[]::new);
+    }
+
+    /**
+     * Reads the metadata of the given file and prepares reading the given columns from it.
+     *
+     * @param path the Parquet file to read.
+     * @param columns names of the columns to read, in the order they should appear in the rows. If empty, all
+     * top-level columns of the file are read.
+     * @return a reader of the given columns.
+     * @throws IllegalArgumentException if any of the requested columns doesn't exist, or is a nested or repeated column.
+     */
+    public static ParquetValueReader open(Path path, List<String> columns) throws IOException {
+        var file = new ParquetInput.ParquetImportInputFile(path);
+        try (var reader = ParquetFileReader.open(file, ParquetReadOptions.builder().build())) {
+            var fileSchema = reader.getFileMetaData().getSchema();
+            var names = columns.isEmpty()
+                    ? fileSchema.getFields().stream().map(Type::getName).toList()
+                    : columns;
+            var fields = new ArrayList<Type>(names.size());
+            for (String name : names) {
+                if (!fileSchema.containsField(name)) {
+                    throw new IllegalArgumentException(
+                            "Column '%s' doesn't exist in Parquet file %s".formatted(name, path.getFileName()));
+                }
+                var field = fileSchema.getType(name);
+                if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+                    throw new IllegalArgumentException(
+                            "Column '%s' in Parquet file %s is a nested or repeated column, which is not supported"
+                                    .formatted(name, path.getFileName()));
+                }
+                fields.add(field);
+            }
+            return new ParquetValueReader(
+                    file,
+                    new MessageType(fileSchema.getName(), fields),
+                    List.copyOf(names),
+                    reader.getFileMetaData().getCreatedBy(),
+                    reader.getRowGroups().size(),
+                    reader.getRecordCount());
+        }
+    }
+
+    /**
+     * @return names of the columns in every row, in the same order as the values.
+     */
+    public List<String> columnNames() {
+        return columnNames;
+    }
+
+    public int rowGroupCount() {
+        return rowGroupCount;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Opens a new cursor over the row groups of the file. A cursor must only be used by one thread at a time.
+     */
+    public Cursor openCursor() throws IOException {
+        var reader = ParquetFileReader.open(file, ParquetReadOptions.builder().build());
+        reader.setRequestedSchema(schema);
+        return new Cursor(reader);
+    }
+
+    public final class Cursor implements Closeable {
+        private final ParquetFileReader reader;
+
+        private Cursor(ParquetFileReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the given row group, only fetching the chunks of the requested columns.
+         *
+         * @param rowGroup index of the row group to read, between 0 and {@link #rowGroupCount()}.
+         * @return the rows of the row group, with a value for every column in {@link #columnNames()}.
+         * Missing values are {@link Values#NO_VALUE}.
+         */
+        public Iterator<Value[]> readRowGroup(int rowGroup) throws IOException {
+            return new RowIterator(reader.readRowGroup(rowGroup));
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private class RowIterator implements Iterator<Value[]> {
+        private final ColumnReader[] columnReaders;
+        private final long rowCount;
+        private long rowIndex;
+
+        RowIterator(PageReadStore store) {
+            this.rowCount = store.getRowCount();
+            var columnReadStore = new ColumnReadStoreImpl(store, recordConverter, schema, createdBy);
+            this.columnReaders = columns.stream()
+                    .map(columnReadStore::getColumnReader)
+                    .toArray(ColumnReader[]::new);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rowIndex < rowCount;
+        }
+
+        @Override
+        public Value[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var row = new Value[columnReaders.length];
+            for (int i = 0; i < columnReaders.length; i++) {
+                var columnReader = columnReaders[i];
+                row[i] = columnReader.getCurrentDefinitionLevel()
+                                == columnReader.getDescriptor().getMaxDefinitionLevel()
+                        ? valueReaders[i].read(columnReader)
+                        : Values.NO_VALUE;
+                columnReader.consume();
+            }
+            rowIndex++;
+            return row;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnValueReader {
+        Value read(ColumnReader reader);
+    }
+
+    private static ColumnValueReader valueReader(PrimitiveType type) {
+        LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+        return switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN -> reader -> Values.booleanValue(reader.getBoolean());
+            case FLOAT -> reader -> Values.floatValue(reader.getFloat());
+            case DOUBLE -> reader -> Values.doubleValue(reader.getDouble());
+            case INT32 -> int32Reader(logicalType);
+            case INT64 -> int64Reader(logicalType);
+            case INT96 -> reader -> int96Timestamp(reader.getBinary());
+            case BINARY, FIXED_LEN_BYTE_ARRAY -> binaryReader(type, logicalType);
+        };
+    }
+
+    private static ColumnValueReader int32Reader(LogicalTypeAnnotation logicalType) {
+        if (logicalType instanceof DateLogicalTypeAnnotation) {
+            return reader -> DateValue.epochDate(reader.getInteger());
+        }
+        if (logicalType instanceof TimeLogicalTypeAnnotation time) {
+            return reader -> time(time, reader.getInteger());
+        }
+        if (logicalType instanceof DecimalLogicalTypeAnnotation decimal) {
+            return reader -> decimal(BigInteger.valueOf(reader.getInteger()), decimal);
+        }
+        if (logicalType instanceof IntLogicalTypeAnnotation integer && !integer.isSigned()) {
+            return reader -> Values.longValue(Integer.toUnsignedLong(reader.getInteger()));
+        }
+        return reader -> Values.intValue(reader.getInteger());
+    }
+
+    private static ColumnValueReader int64Reader(LogicalTypeAnnotation logicalType) {
+        if (logicalType instanceof TimestampLogicalTypeAnnotation timestamp) {
+            return reader -> timestamp(timestamp, reader.getLong());
+        }
+        if (logicalType instanceof TimeLogicalTypeAnnotation time) {
+            return reader -> time(time, reader.getLong());
+        }
+        if (logicalType instanceof DecimalLogicalTypeAnnotation decimal) {
+            return reader -> decimal(BigInteger.valueOf(reader.getLong()), decimal);
+        }
+        return reader -> Values.longValue(reader.getLong());
+    }
+
+    private static ColumnValueReader binaryReader(PrimitiveType type, LogicalTypeAnnotation logicalType) {
+        if (logicalType instanceof StringLogicalTypeAnnotation
+                || logicalType instanceof EnumLogicalTypeAnnotation
+                || logicalType instanceof JsonLogicalTypeAnnotation) {
+            return reader -> Values.utf8Value(reader.getBinary().getBytes());
+        }
+        if (logicalType instanceof DecimalLogicalTypeAnnotation decimal) {
+            return reader -> decimal(new BigInteger(reader.getBinary().getBytes()), decimal);
+        }
+        if (logicalType != null) {
+            // e.g. UUID or INTERVAL, which have no direct counterpart, use their canonical string form
+            var stringifier = type.stringifier();
+            return reader -> Values.stringValue(stringifier.stringify(reader.getBinary()));
+        }
+        return reader -> Values.byteArray(reader.getBinary().getBytes());
+    }
+
+    private static Value time(TimeLogicalTypeAnnotation time, long value) {
+        long nanoOfDay = toNanos(time.getUnit(), value);
+        return time.isAdjustedToUTC() ? TimeValue.time(nanoOfDay, ZoneOffset.UTC) : LocalTimeValue.localTime(nanoOfDay);
+    }
+
+    private static Value timestamp(TimestampLogicalTypeAnnotation timestamp, long value) {
+        long nanosPerUnit = toNanos(timestamp.getUnit(), 1);
+        long unitsPerSecond = NANOS_PER_SECOND / nanosPerUnit;
+        long epochSecond = floorDiv(value, unitsPerSecond);
+        long nanos = floorMod(value, unitsPerSecond) * nanosPerUnit;
+        return timestamp.isAdjustedToUTC()
+                ? DateTimeValue.datetime(epochSecond, nanos, ZoneOffset.UTC)
+                : LocalDateTimeValue.localDateTime(epochSecond, nanos);
+    }
+
+    /**
+     * The legacy INT96 timestamp is 8 bytes of nanos of the day followed by 4 bytes of julian day, little endian.
+     */
+    private static Value int96Timestamp(Binary binary) {
+        var buffer = binary.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        long nanoOfDay = buffer.getLong();
+        long epochDay = buffer.getInt() - JULIAN_DAY_OF_EPOCH;
+        return LocalDateTimeValue.localDateTime(
+                epochDay * SECONDS_PER_DAY + nanoOfDay / NANOS_PER_SECOND, nanoOfDay % NANOS_PER_SECOND);
+    }
+
+    private static Value decimal(BigInteger unscaled, DecimalLogicalTypeAnnotation decimal) {
+        return Values.doubleValue(new BigDecimal(unscaled, decimal.getScale()).doubleValue());
+    }
+
+    private static long toNanos(TimeUnit unit, long value) {
+        return switch (unit) {
+            case MILLIS -> value * 1_000_000;
+            case MICROS -> value * 1_000;
+            case NANOS -> value;
+        };
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.batchimport.input.parquet;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import blue.strategic.parquet.ParquetWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.Test;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+@TestDirectoryExtension
+class ParquetValueReaderTest {
+    private static final List<Type> TYPES = List.of(
+            Types.required(INT64).named("id"),
+            Types.optional(BINARY).as(LogicalTypeAnnotation.stringType()).named("name"),
+            Types.optional(DOUBLE).named("score"),
+            Types.required(BOOLEAN).named("active"),
+            Types.required(INT32).as(LogicalTypeAnnotation.dateType()).named("born"),
+            Types.required(INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                    .named("seen"));
+
+    private static final ZonedDateTime SEEN = ZonedDateTime.of(2024, 3, 1, 12, 30, 15, 250_000_000, ZoneOffset.UTC);
+    private static final LocalDate BORN = LocalDate.of(1985, 6, 15);
+
+    @Inject
+    private TestDirectory directory;
+
+    @Test
+    void shouldReadTypedValuesWithoutConversion() throws Exception {
+        var file = createParquetFile(
+                new Object[] {1L, "Alice", 0.5, true, (int) BORN.toEpochDay(), SEEN.toInstant().toEpochMilli()},
+                new Object[] {2L, null, null, false, (int) BORN.toEpochDay(), SEEN.toInstant().toEpochMilli()});
+
+        var reader = ParquetValueReader.open(file, List.of());
+
+        assertThat(reader.columnNames()).containsExactly("id", "name", "score", "active", "born", "seen");
+        assertThat(reader.rowCount()).isEqualTo(2);
+        assertThat(readAll(reader))
+                .containsExactly(
+                        new Value[] {
+                            Values.longValue(1),
+                            Values.utf8Value("Alice".getBytes()),
+                            Values.doubleValue(0.5),
+                            Values.booleanValue(true),
+                            DateValue.date(BORN),
+                            DateTimeValue.datetime(SEEN)
+                        },
+                        new Value[] {
+                            Values.longValue(2),
+                            Values.NO_VALUE,
+                            Values.NO_VALUE,
+                            Values.booleanValue(false),
+                            DateValue.date(BORN),
+                            DateTimeValue.datetime(SEEN)
+                        });
+    }
+
+    @Test
+    void shouldOnlyReadRequestedColumnsInRequestedOrder() throws Exception {
+        var file = createParquetFile(
+                new Object[] {1L, "Alice", 0.5, true, 0, 0L}, new Object[] {2L, "Bob", 1.5, false, 0, 0L});
+
+        var reader = ParquetValueReader.open(file, List.of("name", "id"));
+
+        assertThat(reader.columnNames()).containsExactly("name", "id");
+        assertThat(readAll(reader))
+                .containsExactly(
+                        new Value[] {Values.stringValue("Alice"), Values.longValue(1)},
+                        new Value[] {Values.stringValue("Bob"), Values.longValue(2)});
+    }
+
+    @Test
+    void shouldFailOnUnknownColumn() throws Exception {
+        var file = createParquetFile(new Object[] {1L, "Alice", 0.5, true, 0, 0L});
+
+        assertThatThrownBy(() -> ParquetValueReader.open(file, List.of("id", "age")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'age'");
+    }
+
+    private static List<Value[]> readAll(ParquetValueReader reader) throws IOException {
+        var rows = new ArrayList<Value[]>();
+        try (var cursor = reader.openCursor()) {
+            for (int rowGroup = 0; rowGroup < reader.rowGroupCount(); rowGroup++) {
+                cursor.readRowGroup(rowGroup).forEachRemaining(rows::add);
+            }
+        }
+        return rows;
+    }
+
+    private Path createParquetFile(Object[]... rows) throws IOException {
+        var path = directory.file("values.parquet");
+        try (var writer =
+                ParquetWriter.writeFile(new MessageType("values", TYPES), path.toFile(), (record, valueWriter) -> {
+                    var row = (Object[]) record;
+                    for (int i = 0; i < TYPES.size(); i++) {
+                        if (row[i] != null) {
+                            valueWriter.write(TYPES.get(i).getName(), row[i]);
+                        }
+                    }
+                })) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+        return path;
+    }
+}
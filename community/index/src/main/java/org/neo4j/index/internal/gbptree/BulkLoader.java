@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+
+/**
+ * Builds the contents of an empty {@link GBPTree} from key/value pairs {@link #add(Object, Object) added} in strictly
+ * ascending key order. Leaves are filled one after the other and the internal levels are built bottom-up as leaves
+ * complete, so no entry requires a search from the root. The tree is published when the loader is
+ * {@link #close() closed}, typically using try-with-resource clause. Until then the tree is seen as empty.
+ * A loader that is {@link #abort() aborted}, or that failed to add an entry, leaves the tree empty when closed.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY, VALUE> extends Closeable {
+    /**
+     * Appends the given {@code key} and {@code value} to the tree.
+     *
+     * @param key key to add, must be strictly greater than the previously added key.
+     * @param value value to associate with key.
+     * If this method throws, the loader is {@link #abort() aborted}.
+     *
+     * @throws IllegalArgumentException if {@code key} is not greater than the previously added key.
+     * @throws IllegalStateException if the loader has been aborted.
+     * @throws UncheckedIOException on index access error.
+     */
+    void add(KEY key, VALUE value);
+
+    /**
+     * Abandons the load. Closing the loader after this releases the nodes written so far and leaves the tree empty,
+     * instead of publishing the loaded tree.
+     */
+    void abort();
+
+    /**
+     * Completes the internal levels of the tree and makes the loaded tree the current tree, unless the loader has
+     * been {@link #abort() aborted}.
+     *
+     * @throws UncheckedIOException on index access error.
+     */
+    @Override
+    void close();
+}
@@ -54,6 +54,27 @@ public interface DataTree<KEY, VALUE> extends Seeker.Factory<KEY, VALUE> {
      */
     Writer<KEY, VALUE> writer(int flags, CursorContext cursorContext) throws IOException;
 
+    /**
+     * Returns a {@link BulkLoader} able to build the contents of this tree from entries in strictly ascending key order.
+     * The tree must be empty and no other writer may be open while the returned bulk loader is open.
+     * After usage the returned bulk loader must be closed, which is when the loaded entries become visible.
+     *
+     * @param fillFactor how full to make each leaf, in the range (0,1]. A value lower than 1 leaves room for
+     * later inserts without splitting the leaves.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link BulkLoader} for this tree. The returned bulk loader must be {@link BulkLoader#close() closed} after usage.
+     * @throws IllegalStateException if the tree isn't empty or if there is another writer open.
+     * @throws UnsupportedOperationException if this tree doesn't {@link #supportsBulkLoading() support bulk loading}.
+     */
+    BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException;
+
+    /**
+     * @return whether or not this tree can be built using a {@link #bulkLoader(double, CursorContext) bulk loader}.
+     */
+    default boolean supportsBulkLoading() {
+        return true;
+    }
+
     /**
      * Calculates an estimate of number of keys in this tree in O(log(n)) time. The number is only an estimate and may make its decision on a
      * concurrently changing tree, but should usually be correct within a couple of percents margin.
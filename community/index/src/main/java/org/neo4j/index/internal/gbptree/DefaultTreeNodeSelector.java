@@ -19,10 +19,13 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import java.nio.file.OpenOption;
+import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.common.DependencyResolver;
 
 /**
- * Default {@link TreeNodeSelector} creating fixed or dynamic size node behaviours.
+ * Default {@link TreeNodeSelector} creating fixed or dynamic size node behaviours, optionally with prefix compressed
+ * dynamic size leaves.
  */
 public class DefaultTreeNodeSelector {
 
@@ -99,6 +102,42 @@ public class DefaultTreeNodeSelector {
         }
     };
 
+    /**
+     * Creates instances for dynamic size node behaviours where leaves store the key prefix common to all its keys once.
+     */
+    private static final TreeNodeSelector.Factory DYNAMIC_PREFIX_COMPRESSED = new TreeNodeSelector.Factory() {
+        static final byte FORMAT_IDENTIFIER = 4;
+        static final byte FORMAT_VERSION = 0;
+
+        @Override
+        public <KEY, VALUE> LeafNodeBehaviour<KEY, VALUE> createLeafBehaviour(
+                int payloadSize,
+                Layout<KEY, VALUE> layout,
+                OffloadStore<KEY, VALUE> offloadStore,
+                DependencyResolver dependencyResolver) {
+            return new LeafNodePrefixCompressed<>(payloadSize, layout, offloadStore);
+        }
+
+        @Override
+        public <KEY, VALUE> InternalNodeBehaviour<KEY> createInternalBehaviour(
+                int payloadSize,
+                Layout<KEY, VALUE> layout,
+                OffloadStore<KEY, VALUE> offloadStore,
+                DependencyResolver dependencyResolver) {
+            return new InternalNodeDynamicSize<>(payloadSize, layout, offloadStore);
+        }
+
+        @Override
+        public byte formatIdentifier() {
+            return FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion() {
+            return FORMAT_VERSION;
+        }
+    };
+
     /**
      * Returns {@link TreeNodeSelector} that selects a format based on the given {@link Layout}.
      *
@@ -108,4 +147,18 @@ public class DefaultTreeNodeSelector {
         // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
         return (Layout<?, ?> layout) -> layout.fixedSize() ? FIXED : DYNAMIC;
     }
+
+    /**
+     * Returns {@link TreeNodeSelector} that selects a format based on the given {@link Layout} and open options.
+     * Dynamic size layouts get prefix compressed leaves if {@link GBPTreeOpenOptions#COMPRESS_LEAF_KEY_PREFIX} is given.
+     *
+     * @param openOptions options the tree is opened with.
+     * @return a {@link TreeNodeSelector} capable of instantiating the selected format.
+     */
+    public static TreeNodeSelector selector(ImmutableSet<OpenOption> openOptions) {
+        if (!openOptions.contains(GBPTreeOpenOptions.COMPRESS_LEAF_KEY_PREFIX)) {
+            return selector();
+        }
+        return (Layout<?, ?> layout) -> layout.fixedSize() ? FIXED : DYNAMIC_PREFIX_COMPRESSED;
+    }
 }
@@ -173,6 +173,16 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.writer(flags, cursorContext);
     }
 
+    @Override
+    public BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+        return access.bulkLoader(fillFactor, cursorContext);
+    }
+
+    @Override
+    public boolean supportsBulkLoading() {
+        return access.supportsBulkLoading();
+    }
+
     @Override
     public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
         return access.estimateNumberOfEntriesInTree(cursorContext);
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.CursorCreator.bind;
+import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
+import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
+import static org.neo4j.index.internal.gbptree.PointerChecking.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.NO_NODE_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.isLeaf;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.keyCount;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.neo4j.index.internal.gbptree.MultiRootGBPTree.Monitor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.util.Preconditions;
+
+/**
+ * {@link BulkLoader} building a data tree bottom-up. There is one {@link Level} per tree level, each keeping a
+ * {@link PageCursor} on the rightmost node of that level. Entries are appended to the rightmost leaf until it's
+ * filled up to the fill factor, at which point a new leaf is allocated to the right of it and a splitter key is
+ * appended to the level above, which in turn allocates a new node when full, and so on. A level is added on top
+ * when the current top level gets its second node.
+ * <p>
+ * Nodes are allocated from the {@link IdProvider} in key order, which means that leaves are written sequentially
+ * to the end of the file when the free-list is empty. All nodes are written in the unstable generation and the new
+ * root is only published on {@link #close()}, so a crash during bulk load leaves the tree as it was at the last
+ * checkpoint, i.e. empty. A load that is {@link #abort() aborted}, or where adding an entry failed, doesn't publish
+ * the new root on close, it releases the nodes written so far and leaves the tree empty.
+ */
+class GBPTreeBulkLoader<K, V> implements BulkLoader<K, V> {
+    private final Layout<K, V> layout;
+    private final PagedFile pagedFile;
+    private final LeafNodeBehaviour<K, V> leafNode;
+    private final InternalNodeBehaviour<K> internalNode;
+    private final byte layerType;
+    private final TreeRootExchange rootExchange;
+    private final IdProvider idProvider;
+    private final ReadWriteLock checkpointLock;
+    private final ReadWriteLock writerLock;
+    private final Monitor monitor;
+    private final Consumer<Throwable> exceptionMessageAppender;
+    private final LongSupplier generationSupplier;
+    private final BooleanSupplier mustEagerlyFlushSupplier;
+    private final double fillFactor;
+    // Index 0 is the leaf level, the last one is the level of the root
+    private final List<Level<K>> levels = new ArrayList<>();
+    private final K previousKey;
+    private final K splitter;
+    private boolean hasPreviousKey;
+    private boolean initialized;
+    private boolean aborted;
+    private CursorContext cursorContext;
+    private long oldRootId;
+    private int leafCapacity;
+
+    // Loader can't live past a checkpoint because of the mutex with checkpoint,
+    // therefore safe to locally cache these generation fields from the volatile generation in the tree
+    private long stableGeneration;
+    private long unstableGeneration;
+
+    GBPTreeBulkLoader(
+            Layout<K, V> layout,
+            PagedFile pagedFile,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            byte layerType,
+            TreeRootExchange rootExchange,
+            IdProvider idProvider,
+            ReadWriteLock checkpointLock,
+            ReadWriteLock writerLock,
+            Monitor monitor,
+            Consumer<Throwable> exceptionMessageAppender,
+            LongSupplier generationSupplier,
+            BooleanSupplier mustEagerlyFlushSupplier,
+            double fillFactor) {
+        Preconditions.checkArgument(
+                fillFactor > 0 && fillFactor <= 1, "Fill factor must be in the range (0,1], was %s", fillFactor);
+        this.layout = layout;
+        this.pagedFile = pagedFile;
+        this.leafNode = leafNode;
+        this.internalNode = internalNode;
+        this.layerType = layerType;
+        this.rootExchange = rootExchange;
+        this.idProvider = idProvider;
+        this.checkpointLock = checkpointLock;
+        this.writerLock = writerLock;
+        this.monitor = monitor;
+        this.exceptionMessageAppender = exceptionMessageAppender;
+        this.generationSupplier = generationSupplier;
+        this.mustEagerlyFlushSupplier = mustEagerlyFlushSupplier;
+        this.fillFactor = fillFactor;
+        this.previousKey = layout.newKey();
+        this.splitter = layout.newKey();
+    }
+
+    /**
+     * Acquires the same locks as a single-threaded {@link GBPTreeWriter}, i.e. no other writer can be active while
+     * bulk loading, and verifies that the tree is empty.
+     *
+     * @param cursorContext underlying page cursor context
+     * @throws IOException if fail to open {@link PageCursor}
+     * @throws IllegalStateException if the tree isn't empty or there are other writers.
+     */
+    void initialize(CursorContext cursorContext) throws IOException {
+        acquireLocks();
+        boolean success = false;
+        try {
+            initialized = true;
+            this.cursorContext = cursorContext;
+            long generation = generationSupplier.getAsLong();
+            stableGeneration = stableGeneration(generation);
+            unstableGeneration = unstableGeneration(generation);
+
+            Level<K> leafLevel = newLevel();
+            Root root = rootExchange.getRoot(cursorContext);
+            root.goTo(leafLevel.cursor);
+            if (!isLeaf(leafLevel.cursor) || keyCount(leafLevel.cursor) != 0) {
+                throw new IllegalStateException("Can only bulk load into an empty tree");
+            }
+            oldRootId = root.id();
+            success = true;
+        } catch (Throwable e) {
+            exceptionMessageAppender.accept(e);
+            throw e;
+        } finally {
+            if (!success) {
+                release();
+            }
+        }
+    }
+
+    private void acquireLocks() {
+        checkpointLock.readLock().lock();
+        if (!writerLock.writeLock().tryLock()) {
+            checkpointLock.readLock().unlock();
+            throw appendTreeInformation(new IllegalStateException(
+                    "Bulk loader cannot co-exist with other writers, which are already acquired by someone else"));
+        }
+    }
+
+    @Override
+    public void add(K key, V value) {
+        if (aborted) {
+            throw appendTreeInformation(new IllegalStateException(
+                    format("Tried to add to bulk loader, but bulk loader has been aborted. %s", this)));
+        }
+        Level<K> leaves = levels.get(0);
+        try {
+            if (hasPreviousKey && layout.compare(previousKey, key) >= 0) {
+                throw new IllegalArgumentException(format(
+                        "Keys must be added in strictly ascending order, but %s was added after %s", key, previousKey));
+            }
+            leafNode.validateKeyValueSize(key, value);
+
+            if (!hasPreviousKey) {
+                newNode(leaves, true);
+                leafCapacity = leafNode.availableSpace(leaves.cursor, 0);
+            } else if (!fitsInLeaf(leaves, key, value)) {
+                long left = leaves.nodeId;
+                long right = newNode(leaves, true);
+                layout.minimalSplitter(previousKey, key, splitter);
+                addToParent(1, splitter, left, right);
+            }
+            leafNode.insertKeyValueAt(
+                    leaves.cursor,
+                    key,
+                    value,
+                    leaves.keyCount,
+                    leaves.keyCount,
+                    stableGeneration,
+                    unstableGeneration,
+                    cursorContext);
+            TreeNodeUtil.setKeyCount(leaves.cursor, ++leaves.keyCount);
+            checkOutOfBounds(leaves.cursor);
+        } catch (IOException e) {
+            aborted = true;
+            exceptionMessageAppender.accept(e);
+            throw new UncheckedIOException(e);
+        } catch (Throwable t) {
+            aborted = true;
+            exceptionMessageAppender.accept(t);
+            throw t;
+        }
+
+        layout.copyKey(key, previousKey);
+        hasPreviousKey = true;
+    }
+
+    @Override
+    public void abort() {
+        aborted = true;
+    }
+
+    private boolean fitsInLeaf(Level<K> leaves, K key, V value) throws IOException {
+        if (leafNode.overflow(leaves.cursor, leaves.keyCount, key, value, cursorContext) != Overflow.NO) {
+            return false;
+        }
+        int usedSpace = leafCapacity - leafNode.availableSpace(leaves.cursor, leaves.keyCount);
+        return usedSpace + leafNode.totalSpaceOfKeyValue(key, value) <= leafCapacity * fillFactor;
+    }
+
+    /**
+     * Appends {@code key} and {@code rightChild} to the rightmost node of the given level. Internal nodes are packed
+     * full, the fill factor only applies to leaves.
+     * <p>
+     * An internal node must have at least one key, so when the rightmost node is full the key and child are kept as
+     * pending until there is another key and child to start the next node with. Pending entries that remain when
+     * all entries have been added are handled in {@link #close()}.
+     */
+    private void addToParent(int levelIndex, K key, long leftChild, long rightChild) throws IOException {
+        if (levelIndex == levels.size()) {
+            // The current top level just got its second node, so the tree grows by one level
+            Level<K> level = newLevel();
+            newNode(level, false);
+            internalNode.setChildAt(level.cursor, leftChild, 0, stableGeneration, unstableGeneration);
+            monitor.treeGrowth();
+        }
+
+        Level<K> level = levels.get(levelIndex);
+        if (level.hasPending()) {
+            long left = level.nodeId;
+            long right = newNode(level, false);
+            internalNode.setChildAt(level.cursor, level.pendingChild, 0, stableGeneration, unstableGeneration);
+            appendToInternal(level, key, rightChild);
+            level.pendingChild = NO_NODE_FLAG;
+            addToParent(levelIndex + 1, level.pendingKey, left, right);
+        } else if (internalNode.overflow(level.cursor, level.keyCount, key) == Overflow.NO) {
+            appendToInternal(level, key, rightChild);
+        } else {
+            layout.copyKey(key, level.pendingKey);
+            level.pendingChild = rightChild;
+        }
+    }
+
+    private void appendToInternal(Level<K> level, K key, long rightChild) throws IOException {
+        internalNode.insertKeyAndRightChildAt(
+                level.cursor,
+                key,
+                rightChild,
+                level.keyCount,
+                level.keyCount,
+                stableGeneration,
+                unstableGeneration,
+                cursorContext);
+        TreeNodeUtil.setKeyCount(level.cursor, ++level.keyCount);
+        checkOutOfBounds(level.cursor);
+    }
+
+    /**
+     * Allocates a new node to the right of the current rightmost node of the given level, links them as siblings
+     * and moves the level cursor to it.
+     *
+     * @return id of the new node.
+     */
+    private long newNode(Level<K> level, boolean leaf) throws IOException {
+        PageCursor cursor = level.cursor;
+        long left = level.nodeId;
+        long nodeId = idProvider.acquireNewId(stableGeneration, unstableGeneration, bind(cursor));
+        if (TreeNodeUtil.isNode(left)) {
+            TreeNodeUtil.setRightSibling(cursor, nodeId, stableGeneration, unstableGeneration);
+        }
+
+        TreeNodeUtil.goTo(cursor, "new node in bulk load", nodeId);
+        if (leaf) {
+            leafNode.initialize(cursor, layerType, stableGeneration, unstableGeneration);
+        } else {
+            internalNode.initialize(cursor, layerType, stableGeneration, unstableGeneration);
+        }
+        if (TreeNodeUtil.isNode(left)) {
+            TreeNodeUtil.setLeftSibling(cursor, left, stableGeneration, unstableGeneration);
+        }
+        level.nodeId = nodeId;
+        level.keyCount = 0;
+        return nodeId;
+    }
+
+    private Level<K> newLevel() throws IOException {
+        var flags = PagedFile.PF_SHARED_WRITE_LOCK;
+        if (mustEagerlyFlushSupplier.getAsBoolean()) {
+            flags |= PagedFile.PF_EAGER_FLUSH;
+        }
+        Level<K> level = new Level<>(pagedFile.io(0L /*Ignored*/, flags, cursorContext), layout.newKey());
+        levels.add(level);
+        return level;
+    }
+
+    @Override
+    public void close() {
+        if (!initialized) {
+            throw appendTreeInformation(new IllegalStateException(
+                    format("Tried to close bulk loader, but bulk loader is already closed. %s", this)));
+        }
+        try {
+            if (aborted) {
+                releaseLoadedNodes();
+            } else if (hasPreviousKey) {
+                completeInternalLevels();
+                rootExchange.setRoot(new Root(levels.get(levels.size() - 1).nodeId, unstableGeneration), cursorContext);
+                idProvider.releaseId(stableGeneration, unstableGeneration, oldRootId, bind(levels.get(0).cursor));
+            }
+        } catch (IOException e) {
+            exceptionMessageAppender.accept(e);
+            throw new UncheckedIOException(e);
+        } catch (Throwable t) {
+            exceptionMessageAppender.accept(t);
+            throw t;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Places the remaining pending entries, lowest level first since doing so may add to the levels above.
+     * The last key and child of the full rightmost node are moved over to a new node, which then gets the pending
+     * key and child. The moved key becomes the splitter of the new node in the level above.
+     */
+    private void completeInternalLevels() throws IOException {
+        for (int levelIndex = 1; levelIndex < levels.size(); levelIndex++) {
+            Level<K> level = levels.get(levelIndex);
+            if (!level.hasPending()) {
+                continue;
+            }
+
+            PageCursor cursor = level.cursor;
+            int keyCount = level.keyCount;
+            Preconditions.checkState(
+                    keyCount > 1, "Full internal node %d has too few keys, %d", level.nodeId, keyCount);
+            K movedKey = internalNode.keyAt(cursor, layout.newKey(), keyCount - 1, cursorContext);
+            long movedChild = GenerationSafePointerPair.pointer(
+                    internalNode.childAt(cursor, keyCount, stableGeneration, unstableGeneration));
+            internalNode.removeKeyAndRightChildAt(
+                    cursor, keyCount - 1, keyCount, stableGeneration, unstableGeneration, cursorContext);
+            TreeNodeUtil.setKeyCount(cursor, --level.keyCount);
+
+            long left = level.nodeId;
+            long right = newNode(level, false);
+            internalNode.setChildAt(cursor, movedChild, 0, stableGeneration, unstableGeneration);
+            appendToInternal(level, level.pendingKey, level.pendingChild);
+            level.pendingChild = NO_NODE_FLAG;
+            addToParent(levelIndex + 1, movedKey, left, right);
+        }
+    }
+
+    /**
+     * Releases the nodes written by an aborted load, i.e. the rightmost node of each level and all its left siblings.
+     * None of them are reachable from the root, which is still the old one.
+     */
+    private void releaseLoadedNodes() throws IOException {
+        for (Level<K> level : levels) {
+            PageCursor cursor = level.cursor;
+            long nodeId = level.nodeId;
+            while (TreeNodeUtil.isNode(nodeId)) {
+                TreeNodeUtil.goTo(cursor, "release node of aborted bulk load", nodeId);
+                long leftSibling = GenerationSafePointerPair.pointer(
+                        TreeNodeUtil.leftSibling(cursor, stableGeneration, unstableGeneration));
+                idProvider.releaseId(stableGeneration, unstableGeneration, nodeId, bind(cursor));
+                nodeId = leftSibling;
+            }
+        }
+    }
+
+    private void release() {
+        for (Level<K> level : levels) {
+            level.cursor.close();
+        }
+        levels.clear();
+        writerLock.writeLock().unlock();
+        checkpointLock.readLock().unlock();
+        initialized = false;
+    }
+
+    private <T extends Exception> T appendTreeInformation(T exception) {
+        exceptionMessageAppender.accept(exception);
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return format("GBPTreeBulkLoader[levels:%d, fillFactor:%s, aborted:%b]", levels.size(), fillFactor, aborted);
+    }
+
+    private static class Level<K> {
+        private final PageCursor cursor;
+        private final K pendingKey;
+        private long pendingChild = NO_NODE_FLAG;
+        private long nodeId = NO_NODE_FLAG;
+        private int keyCount;
+
+        Level(PageCursor cursor, K pendingKey) {
+            this.cursor = cursor;
+            this.pendingKey = pendingKey;
+        }
+
+        boolean hasPending() {
+            return TreeNodeUtil.isNode(pendingChild);
+        }
+    }
+}
@@ -26,5 +26,9 @@ import java.nio.file.OpenOption;
  */
 public enum GBPTreeOpenOptions implements OpenOption {
     // do not flush index file on close
-    NO_FLUSH_ON_CLOSE
+    NO_FLUSH_ON_CLOSE,
+    // store the key prefix shared by all keys in a dynamic size leaf only once, see LeafNodePrefixCompressed.
+    // Changes the tree format (format identifier 4 in the tree meta data), so a tree must always be opened with the
+    // same setting of this option, otherwise opening fails with a MetadataMismatchException.
+    COMPRESS_LEAF_KEY_PREFIX
 }
@@ -0,0 +1,989 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.MIN_SIZE_KEY_VALUE_SIZE;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.OFFSET_SIZE;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SUPPORTED_PAGE_SIZE_LIMIT;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractOffload;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractTombstone;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getAllocOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getAllocSpace;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getDeadSpace;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.keyValueSizeCapFromPageSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putOffloadMarker;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putTombstone;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readOffloadId;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.setAllocOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.setDeadSpace;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.validateInlineCap;
+import static org.neo4j.index.internal.gbptree.LeafNodeDynamicSize.keyPosOffsetLeaf;
+import static org.neo4j.index.internal.gbptree.LeafNodeDynamicSize.progressCursor;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.NO_OFFLOAD_ID;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.isUnreliableKeyValueSize;
+import static org.neo4j.index.internal.gbptree.TreeNodeUtil.readUnreliableKeyValueSize;
+import static org.neo4j.io.pagecache.PageCursorUtil.putUnsignedShort;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * Dynamic size leaf where the leading key bytes that all inlined keys in the node have in common are stored only once,
+ * and every inlined key only stores the remaining suffix. Apart from that the node is laid out as a
+ * {@link LeafNodeDynamicSize} node, with the prefix placed after the keys and values at the very end of the node.
+ *
+ * # = empty space
+ * K* = offset to key or key and value
+ *
+ * LEAF
+ * [                                   HEADER   86B                                                   ]|[KEY_OFFSETS]##########[KEYS_VALUES][PREFIX][PREFIXLENGTH]
+ * [NODETYPE][TYPE][GENERATION][KEYCOUNT][RIGHTSIBLING][LEFTSIBLING][SUCCESSOR][ALLOCOFFSET][DEADSPACE]|[K0*,K1*,K2*]->      <-[KV0,KV2,KV1][0..255B][1B]
+ *  0         1     2           6         10            34           58         82           84          86
+ * ---
+ *
+ * Key sizes stored in keyValueSize headers are the sizes of the key suffixes. Offloaded entries are never compressed.
+ *
+ * The prefix of a node only shrinks when a key not sharing it is inserted, in which case the whole node is rewritten.
+ * Whenever a node is rewritten anyway, i.e. when defragmenting, splitting, merging or rebalancing, the prefix is
+ * recalculated from the keys that ends up in it. Because of this, a node never needs more space than the same keys
+ * would have needed in a {@link LeafNodeDynamicSize} node (save for the single prefix length byte) and conservative
+ * space calculations can be made using the uncompressed key sizes.
+ *
+ * The compression relies on keys sharing a serialized prefix being adjacent in the {@link Layout} order, which is
+ * true for layouts ordering keys by comparing their serialized bytes lexicographically.
+ */
+class LeafNodePrefixCompressed<KEY, VALUE> implements LeafNodeBehaviour<KEY, VALUE> {
+    static final int PREFIX_LENGTH_SIZE = Byte.BYTES;
+    static final int MAX_PREFIX_LENGTH = 0xFF;
+
+    private final int inlineKeyValueSizeCap;
+    private final int keyValueSizeCap;
+
+    private final int totalSpace;
+    private final int halfSpace;
+    private final OffloadStore<KEY, VALUE> offloadStore;
+    private final int maxKeyCount;
+
+    private final Layout<KEY, VALUE> layout;
+    private final int payloadSize;
+    private final ThreadLocal<KeyBuffer> keyBuffer;
+
+    LeafNodePrefixCompressed(int payloadSize, Layout<KEY, VALUE> layout, OffloadStore<KEY, VALUE> offloadStore) {
+        this.payloadSize = payloadSize;
+        this.layout = layout;
+
+        assert payloadSize < SUPPORTED_PAGE_SIZE_LIMIT
+                : "Only payload size less then " + SUPPORTED_PAGE_SIZE_LIMIT + " bytes supported";
+        this.totalSpace = payloadSize - DynamicSizeUtil.HEADER_LENGTH_DYNAMIC - PREFIX_LENGTH_SIZE;
+        this.maxKeyCount = totalSpace / (OFFSET_SIZE + MIN_SIZE_KEY_VALUE_SIZE);
+        this.offloadStore = offloadStore;
+        this.halfSpace = totalSpace >> 1;
+
+        // The prefix length byte is not available for entries, so leave it out when making sure two entries fit
+        this.inlineKeyValueSizeCap = DynamicSizeUtil.inlineKeyValueSizeCap(payloadSize - PREFIX_LENGTH_SIZE);
+        this.keyValueSizeCap = keyValueSizeCapFromPageSize(payloadSize);
+        int keyBufferSize = keyValueSizeCap + MAX_PREFIX_LENGTH;
+        this.keyBuffer = ThreadLocal.withInitial(() -> new KeyBuffer(keyBufferSize));
+
+        validateInlineCap(inlineKeyValueSizeCap, payloadSize);
+    }
+
+    @Override
+    public void initialize(PageCursor cursor, byte layerType, long stableGeneration, long unstableGeneration) {
+        TreeNodeUtil.writeBaseHeader(cursor, TreeNodeUtil.LEAF_FLAG, layerType, stableGeneration, unstableGeneration);
+        setPrefixLength(cursor, 0);
+        setAllocOffset(cursor, prefixOffset(0));
+        setDeadSpace(cursor, 0);
+    }
+
+    @Override
+    public long offloadIdAt(PageCursor cursor, int pos) {
+        placeCursorAtActualKey(cursor, pos);
+        return DynamicSizeUtil.offloadIdAt(cursor);
+    }
+
+    @Override
+    public KEY keyAt(PageCursor cursor, KEY into, int pos, CursorContext cursorContext) {
+        placeCursorAtActualKey(cursor, pos);
+
+        long keyValueSize = readKeyValueSize(cursor);
+        int keySize = extractKeySize(keyValueSize);
+        int valueSize = extractValueSize(keyValueSize);
+        if (extractOffload(keyValueSize)) {
+            long offloadId = readOffloadId(cursor);
+            try {
+                offloadStore.readKey(offloadId, into, cursorContext);
+            } catch (IOException e) {
+                cursor.setCursorException("Failed to read key from offload, cause: " + e.getMessage());
+            }
+        } else {
+            if (isUnreliableKeyValueSize(keySize, valueSize, keyValueSizeCap())) {
+                readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos, keyValueSizeCap());
+                return into;
+            }
+            readInlineKey(cursor, into, keySize);
+        }
+        return into;
+    }
+
+    @Override
+    public Comparator<KEY> keyComparator() {
+        return layout;
+    }
+
+    @Override
+    public void keyValueAt(
+            PageCursor cursor, KEY intoKey, ValueHolder<VALUE> intoValue, int pos, CursorContext cursorContext)
+            throws IOException {
+        placeCursorAtActualKey(cursor, pos);
+
+        intoValue.defined = true;
+        long keyValueSize = readKeyValueSize(cursor);
+        int keySize = extractKeySize(keyValueSize);
+        int valueSize = extractValueSize(keyValueSize);
+        boolean offload = extractOffload(keyValueSize);
+        if (offload) {
+            long offloadId = readOffloadId(cursor);
+            try {
+                offloadStore.readKeyValue(offloadId, intoKey, intoValue.value, cursorContext);
+            } catch (IOException e) {
+                cursor.setCursorException("Failed to read keyValue from offload, cause: " + e.getMessage());
+            }
+        } else {
+            if (isUnreliableKeyValueSize(keySize, valueSize, keyValueSizeCap())) {
+                readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos, keyValueSizeCap());
+                return;
+            }
+            readInlineKey(cursor, intoKey, keySize);
+            layout.readValue(cursor, intoValue.value, valueSize);
+        }
+    }
+
+    @Override
+    public void insertKeyValueAt(
+            PageCursor cursor,
+            KEY key,
+            VALUE value,
+            int pos,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        int keySize = layout.keySize(key);
+        int valueSize = layout.valueSize(value);
+        int currentKeyValueOffset = getAllocOffset(cursor);
+        int newKeyValueOffset;
+        if (canInline(keySize + valueSize)) {
+            byte[] keyBytes = keyBytes(key, keySize);
+            int prefixLength = prefixLength(cursor);
+            if (keyCount == 0 || commonPrefixLength(cursor, prefixLength, keyBytes) < prefixLength) {
+                // The new key doesn't share the prefix of this node, rewrite the node using a prefix shared by all keys
+                List<Entry> entries = readEntries(cursor, 0, keyCount);
+                entries.add(pos, new Entry(keyBytes, valueBytes(value, valueSize), NO_OFFLOAD_ID));
+                writeEntries(cursor, entries);
+                return;
+            }
+
+            int suffixSize = keySize - prefixLength;
+            newKeyValueOffset =
+                    currentKeyValueOffset - suffixSize - valueSize - getOverhead(suffixSize, valueSize, false);
+
+            // Write key suffix and value
+            cursor.setOffset(newKeyValueOffset);
+            putKeyValueSize(cursor, suffixSize, valueSize);
+            cursor.putBytes(keyBytes, prefixLength, suffixSize);
+            layout.writeValue(cursor, value);
+        } else {
+            newKeyValueOffset = currentKeyValueOffset - getOverhead(keySize, valueSize, true);
+
+            // Write
+            cursor.setOffset(newKeyValueOffset);
+            putOffloadMarker(cursor);
+
+            long offloadId =
+                    offloadStore.writeKeyValue(key, value, stableGeneration, unstableGeneration, cursorContext);
+            DynamicSizeUtil.putOffloadId(cursor, offloadId);
+        }
+
+        // Update alloc space
+        setAllocOffset(cursor, newKeyValueOffset);
+
+        // Write to offset array
+        TreeNodeUtil.insertSlotsAt(cursor, pos, 1, keyCount, keyPosOffsetLeaf(0), OFFSET_SIZE);
+        cursor.setOffset(keyPosOffsetLeaf(pos));
+        putUnsignedShort(cursor, newKeyValueOffset);
+    }
+
+    @Override
+    public int removeKeyValueAt(
+            PageCursor cursor,
+            int pos,
+            int keyCount,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        placeCursorAtActualKey(cursor, pos);
+        int keyOffset = cursor.getOffset();
+        long keyValueSize = readKeyValueSize(cursor);
+        boolean offload = extractOffload(keyValueSize);
+        int keySize = extractKeySize(keyValueSize);
+        int valueSize = extractValueSize(keyValueSize);
+
+        // Free from offload
+        if (offload) {
+            long offloadId = readOffloadId(cursor);
+            offloadStore.free(offloadId, stableGeneration, unstableGeneration, cursorContext);
+        }
+
+        // Kill actual key
+        cursor.setOffset(keyOffset);
+        putTombstone(cursor);
+
+        // Update dead space
+        int deadSpace = getDeadSpace(cursor);
+        setDeadSpace(cursor, deadSpace + keySize + valueSize + getOverhead(keySize, valueSize, offload));
+
+        // Remove from offset array
+        TreeNodeUtil.removeSlotAt(cursor, pos, keyCount, keyPosOffsetLeaf(0), OFFSET_SIZE);
+        return keyCount - 1;
+    }
+
+    @Override
+    public ValueHolder<VALUE> valueAt(PageCursor cursor, ValueHolder<VALUE> into, int pos, CursorContext cursorContext)
+            throws IOException {
+        placeCursorAtActualKey(cursor, pos);
+
+        // Read value
+        into.defined = true;
+        long keyValueSize = readKeyValueSize(cursor);
+        int keySize = extractKeySize(keyValueSize);
+        int valueSize = extractValueSize(keyValueSize);
+        boolean offload = extractOffload(keyValueSize);
+        if (offload) {
+            long offloadId = readOffloadId(cursor);
+            try {
+                offloadStore.readValue(offloadId, into.value, cursorContext);
+            } catch (IOException e) {
+                cursor.setCursorException("Failed to read value from offload, cause: " + e.getMessage());
+            }
+        } else {
+            if (isUnreliableKeyValueSize(keySize, valueSize, keyValueSizeCap())) {
+                readUnreliableKeyValueSize(cursor, keySize, valueSize, keyValueSize, pos, keyValueSizeCap());
+                return into;
+            }
+            progressCursor(cursor, keySize);
+            layout.readValue(cursor, into.value, valueSize);
+        }
+        return into;
+    }
+
+    @Override
+    public boolean setValueAt(
+            PageCursor cursor,
+            VALUE value,
+            int pos,
+            CursorContext cursorContext,
+            long stableGeneration,
+            long unstableGeneration)
+            throws IOException {
+        placeCursorAtActualKey(cursor, pos);
+
+        long keyValueSize = readKeyValueSize(cursor);
+        int keySize = extractKeySize(keyValueSize);
+        int oldValueSize = extractValueSize(keyValueSize);
+        int newValueSize = layout.valueSize(value);
+        if (!extractOffload(keyValueSize) && oldValueSize == newValueSize) {
+            // Fine we can just overwrite
+            progressCursor(cursor, keySize);
+            layout.writeValue(cursor, value);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int keyValueSizeCap() {
+        return keyValueSizeCap;
+    }
+
+    @Override
+    public int inlineKeyValueSizeCap() {
+        return inlineKeyValueSizeCap;
+    }
+
+    @Override
+    public void validateKeyValueSize(KEY key, VALUE value) {
+        int keySize = layout.keySize(key);
+        int valueSize = layout.valueSize(value);
+        if (keySize + valueSize > keyValueSizeCap) {
+            throw new IllegalArgumentException(
+                    "Index key-value size it too large. Please see index documentation for limitations.");
+        }
+    }
+
+    @Override
+    public int maxKeyCount() {
+        return maxKeyCount;
+    }
+
+    @Override
+    public boolean reasonableKeyCount(int keyCount) {
+        return keyCount >= 0 && keyCount <= maxKeyCount;
+    }
+
+    @Override
+    public Overflow overflow(
+            PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, CursorContext cursorContext) {
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        int deadSpace = getDeadSpace(cursor);
+        int allocSpace = getAllocSpace(cursor, keyPosOffsetLeaf(currentKeyCount));
+        if (!canInline(keySize + valueSize)) {
+            return DynamicSizeUtil.calculateOverflow(
+                    OFFSET_SIZE + getOverhead(keySize, valueSize, true), deadSpace, allocSpace);
+        }
+        if (currentKeyCount == 0) {
+            // Node will be rewritten around the new key
+            return Overflow.NO;
+        }
+
+        int prefixLength = prefixLength(cursor);
+        int sharedPrefixLength = commonPrefixLength(cursor, prefixLength, keyBytes(newKey, keySize));
+        if (sharedPrefixLength == prefixLength) {
+            int suffixSize = keySize - prefixLength;
+            int neededSpace = OFFSET_SIZE + getOverhead(suffixSize, valueSize, false) + suffixSize + valueSize;
+            return DynamicSizeUtil.calculateOverflow(neededSpace, deadSpace, allocSpace);
+        }
+
+        // Insert will rewrite this node with a shorter prefix, which also reclaims dead space
+        int suffixSize = keySize - sharedPrefixLength;
+        int neededSpace = sharedPrefixLength
+                + spaceOfEntries(cursor, currentKeyCount, prefixLength - sharedPrefixLength)
+                + OFFSET_SIZE
+                + getOverhead(suffixSize, valueSize, false)
+                + suffixSize
+                + valueSize;
+        return neededSpace <= totalSpace ? Overflow.NO : Overflow.YES;
+    }
+
+    @Override
+    public int availableSpace(PageCursor cursor, int currentKeyCount) {
+        int deadSpace = getDeadSpace(cursor);
+        int allocSpace = getAllocSpace(cursor, keyPosOffsetLeaf(currentKeyCount));
+        return allocSpace + deadSpace;
+    }
+
+    @Override
+    public int underflowThreshold() {
+        return halfSpace;
+    }
+
+    @Override
+    public int defragment(PageCursor cursor, int keyCount, CursorContext cursorContext) {
+        writeEntries(cursor, readEntries(cursor, 0, keyCount));
+        return keyCount;
+    }
+
+    @Override
+    public boolean underflow(PageCursor cursor, int keyCount) {
+        return availableSpace(cursor, keyCount) > halfSpace;
+    }
+
+    @Override
+    public int canRebalance(PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        // Entries moved between the nodes can at worst lose all but the prefix common to both nodes
+        int sharedPrefixLength = commonPrefixLength(readPrefix(leftCursor), readPrefix(rightCursor));
+        int leftGrowth = prefixLength(leftCursor) - sharedPrefixLength;
+        int rightGrowth = prefixLength(rightCursor) - sharedPrefixLength;
+        int leftActiveSpace = sharedPrefixLength + spaceOfEntries(leftCursor, leftKeyCount, leftGrowth);
+        int rightActiveSpace = sharedPrefixLength + spaceOfEntries(rightCursor, rightKeyCount, rightGrowth);
+
+        if (leftActiveSpace + rightActiveSpace - sharedPrefixLength <= totalSpace) {
+            // We can merge
+            return -1;
+        }
+        if (leftActiveSpace < rightActiveSpace) {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+
+        int prevDelta;
+        int currentDelta = Math.abs(leftActiveSpace - rightActiveSpace);
+        int keysToMove = 0;
+        int lastChunkSize;
+        do {
+            keysToMove++;
+            lastChunkSize = spaceOfEntry(leftCursor, leftKeyCount - keysToMove, leftGrowth);
+            leftActiveSpace -= lastChunkSize;
+            rightActiveSpace += lastChunkSize;
+
+            prevDelta = currentDelta;
+            currentDelta = Math.abs(leftActiveSpace - rightActiveSpace);
+        } while (currentDelta < prevDelta);
+        keysToMove--; // Move back to optimal split
+        leftActiveSpace += lastChunkSize;
+        rightActiveSpace -= lastChunkSize;
+
+        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace;
+        return canRebalance ? keysToMove : 0;
+    }
+
+    @Override
+    public boolean canMerge(PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount) {
+        int sharedPrefixLength = commonPrefixLength(readPrefix(leftCursor), readPrefix(rightCursor));
+        int leftGrowth = prefixLength(leftCursor) - sharedPrefixLength;
+        int rightGrowth = prefixLength(rightCursor) - sharedPrefixLength;
+        int mergedSpace = sharedPrefixLength
+                + spaceOfEntries(leftCursor, leftKeyCount, leftGrowth)
+                + spaceOfEntries(rightCursor, rightKeyCount, rightGrowth);
+        return mergedSpace <= totalSpace;
+    }
+
+    @Override
+    public int findSplitter(
+            PageCursor cursor,
+            int keyCount,
+            KEY newKey,
+            VALUE newValue,
+            int insertPos,
+            KEY newSplitter,
+            double ratioToKeepInLeftOnSplit,
+            CursorContext cursorContext) {
+        List<Entry> entries = readEntries(cursor, 0, keyCount);
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        Entry newEntry = canInline(keySize + valueSize)
+                ? new Entry(keyBytes(newKey, keySize), valueBytes(newValue, valueSize), NO_OFFLOAD_ID)
+                : new Entry(null, null, NO_OFFLOAD_ID);
+        entries.add(insertPos, newEntry);
+        int splitPos = splitPosInLeaf(entries, ratioToKeepInLeftOnSplit);
+
+        KEY leftInSplit;
+        KEY rightInSplit;
+        if (splitPos == insertPos) {
+            leftInSplit = keyAt(cursor, layout.newKey(), splitPos - 1, cursorContext);
+            rightInSplit = newKey;
+        } else {
+            int rightPos = insertPos < splitPos ? splitPos - 1 : splitPos;
+            rightInSplit = keyAt(cursor, layout.newKey(), rightPos, cursorContext);
+
+            if (rightPos == insertPos) {
+                leftInSplit = newKey;
+            } else {
+                int leftPos = rightPos - 1;
+                leftInSplit = keyAt(cursor, layout.newKey(), leftPos, cursorContext);
+            }
+        }
+        layout.minimalSplitter(leftInSplit, rightInSplit, newSplitter);
+        return splitPos;
+    }
+
+    @Override
+    public void doSplit(
+            PageCursor leftCursor,
+            int leftKeyCount,
+            PageCursor rightCursor,
+            int insertPos,
+            KEY newKey,
+            VALUE newValue,
+            KEY newSplitter,
+            int splitPos,
+            double ratioToKeepInLeftOnSplit,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext)
+            throws IOException {
+        List<Entry> entries = readEntries(leftCursor, 0, leftKeyCount);
+        int keySize = layout.keySize(newKey);
+        int valueSize = layout.valueSize(newValue);
+        Entry newEntry;
+        if (canInline(keySize + valueSize)) {
+            newEntry = new Entry(keyBytes(newKey, keySize), valueBytes(newValue, valueSize), NO_OFFLOAD_ID);
+        } else {
+            long offloadId =
+                    offloadStore.writeKeyValue(newKey, newValue, stableGeneration, unstableGeneration, cursorContext);
+            newEntry = new Entry(null, null, offloadId);
+        }
+        entries.add(insertPos, newEntry);
+
+        writeEntries(leftCursor, entries.subList(0, splitPos));
+        writeEntries(rightCursor, entries.subList(splitPos, entries.size()));
+    }
+
+    @Override
+    public void moveKeyValuesFromLeftToRight(
+            PageCursor leftCursor,
+            int leftKeyCount,
+            PageCursor rightCursor,
+            int rightKeyCount,
+            int fromPosInLeftNode,
+            CursorContext cursorContext) {
+        List<Entry> leftEntries = readEntries(leftCursor, 0, fromPosInLeftNode);
+        List<Entry> rightEntries = readEntries(leftCursor, fromPosInLeftNode, leftKeyCount);
+        rightEntries.addAll(readEntries(rightCursor, 0, rightKeyCount));
+
+        writeEntries(rightCursor, rightEntries);
+        writeEntries(leftCursor, leftEntries);
+    }
+
+    @Override
+    public void copyKeyValuesFromLeftToRight(
+            PageCursor leftCursor,
+            int leftKeyCount,
+            PageCursor rightCursor,
+            int rightKeyCount,
+            CursorContext cursorContext) {
+        List<Entry> entries = readEntries(leftCursor, 0, leftKeyCount);
+        entries.addAll(readEntries(rightCursor, 0, rightKeyCount));
+        writeEntries(rightCursor, entries);
+    }
+
+    @Override
+    public int totalSpaceOfKeyValue(KEY key, VALUE value) {
+        // Uncompressed size, an entry never needs more than this
+        int keySize = layout.keySize(key);
+        int valueSize = layout.valueSize(value);
+        if (canInline(keySize + valueSize)) {
+            return OFFSET_SIZE + getOverhead(keySize, valueSize, false) + keySize + valueSize;
+        } else {
+            return OFFSET_SIZE + getOverhead(keySize, valueSize, true);
+        }
+    }
+
+    @Override
+    public void printNode(
+            PageCursor cursor,
+            boolean includeValue,
+            boolean includeAllocSpace,
+            long stableGeneration,
+            long unstableGeneration,
+            CursorContext cursorContext) {
+        int keyCount = TreeNodeUtil.keyCount(cursor);
+        StringJoiner keys = new StringJoiner(" ");
+        KEY readKey = layout.newKey();
+        ValueHolder<VALUE> readValue = new ValueHolder<>(layout.newValue());
+        for (int pos = 0; pos < keyCount; pos++) {
+            try {
+                keyValueAt(cursor, readKey, readValue, pos, cursorContext);
+                keys.add(includeValue ? readKey + "=" + readValue.value : String.valueOf(readKey));
+            } catch (IOException e) {
+                keys.add("<" + e.getMessage() + ">");
+            }
+        }
+        System.out.println("{" + cursor.getCurrentPageId() + "} [allocOffset=" + getAllocOffset(cursor)
+                + " deadSpace=" + getDeadSpace(cursor) + " prefix=" + Arrays.toString(readPrefix(cursor)) + "] "
+                + keys);
+    }
+
+    @Override
+    public String checkMetaConsistency(PageCursor cursor) {
+        long nodeId = cursor.getCurrentPageId();
+        StringJoiner joiner =
+                new StringJoiner(", ", "Meta data for tree node is inconsistent, id=" + nodeId + ": ", "");
+        boolean hasInconsistency = false;
+
+        // Verify allocOffset >= offsetArray
+        int allocOffset = getAllocOffset(cursor);
+        int keyCount = TreeNodeUtil.keyCount(cursor);
+        int offsetArray = keyPosOffsetLeaf(keyCount);
+        if (allocOffset < offsetArray) {
+            joiner.add(format(
+                    "Overlap between offsetArray and allocSpace, offsetArray=%d, allocOffset=%d",
+                    offsetArray, allocOffset));
+            return joiner.toString();
+        }
+
+        // Verify allocOffset <= prefix
+        int prefixLength = prefixLength(cursor);
+        int prefixOffset = prefixOffset(prefixLength);
+        if (allocOffset > prefixOffset) {
+            joiner.add(format(
+                    "Overlap between allocSpace and prefix, allocOffset=%d, prefixOffset=%d",
+                    allocOffset, prefixOffset));
+            return joiner.toString();
+        }
+
+        // If keyCount is unreasonable we will likely go out of bounds in those checks
+        if (reasonableKeyCount(keyCount)) {
+            // Verify activeSpace + deadSpace + allocSpace == totalSpace
+            int activeSpace = prefixLength + totalActiveSpaceRaw(cursor, keyCount, prefixOffset);
+            int deadSpace = getDeadSpace(cursor);
+            int allocSpace = getAllocSpace(cursor, offsetArray);
+            if (activeSpace + deadSpace + allocSpace != totalSpace) {
+                hasInconsistency = true;
+                joiner.add(format(
+                        "Space areas did not sum to total space; activeSpace=%d, deadSpace=%d, allocSpace=%d, totalSpace=%d",
+                        activeSpace, deadSpace, allocSpace, totalSpace));
+            }
+
+            // Verify no overlap between alloc space and active keys
+            int lowestActiveKeyOffset = LeafNodeDynamicSize.lowestActiveKeyOffset(cursor, keyCount, prefixOffset);
+            if (lowestActiveKeyOffset < allocOffset) {
+                hasInconsistency = true;
+                joiner.add(format(
+                        "Overlap between allocSpace and active keys, allocOffset=%d, lowestActiveKeyOffset=%d",
+                        allocOffset, lowestActiveKeyOffset));
+            }
+        }
+
+        if (allocOffset < prefixOffset) {
+            // Verify allocOffset point at start of key
+            cursor.setOffset(allocOffset);
+            long keyValueAtAllocOffset = readKeyValueSize(cursor);
+            if (keyValueAtAllocOffset == 0) {
+                hasInconsistency = true;
+                joiner.add(format(
+                        "Pointer to allocSpace is misplaced, it should point to start of key, allocOffset=%d",
+                        allocOffset));
+            }
+        }
+
+        // Report inconsistencies as cursor exception
+        if (hasInconsistency) {
+            return joiner.toString();
+        }
+        return "";
+    }
+
+    @Override
+    public <ROOT_KEY> void deepVisitValue(PageCursor cursor, int pos, GBPTreeVisitor<ROOT_KEY, KEY, VALUE> visitor) {}
+
+    @Override
+    public String toString() {
+        return "TreeNodePrefixCompressed[pageSize:" + payloadSize + ", keyValueSizeCap:" + keyValueSizeCap
+                + ", inlineKeyValueSizeCap:" + inlineKeyValueSizeCap + "]";
+    }
+
+    /**
+     * Calculates a valid and as optimal as possible position where to split a leaf if inserting a key overflows, see
+     * {@code LeafNodeDynamicSize#splitPosInLeaf}. Space of each side is estimated from the uncompressed entry sizes
+     * minus what the prefix common to the keys on that side would save.
+     *
+     * @param entries all entries, including the one being inserted.
+     * @param ratioToKeepInLeftOnSplit What ratio of keys to try and keep in left node, 1=keep as much as possible, 0=move as much as possible to right
+     * @return the pos where to split.
+     */
+    private int splitPosInLeaf(List<Entry> entries, double ratioToKeepInLeftOnSplit) {
+        int count = entries.size();
+        int[] accumulatedSpace = new int[count + 1];
+        int[] accumulatedInlined = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries.get(i);
+            accumulatedSpace[i + 1] = accumulatedSpace[i] + entry.uncompressedSpace();
+            accumulatedInlined[i + 1] = accumulatedInlined[i] + (entry.inlined() ? 1 : 0);
+        }
+        int[] leftPrefixLength = new int[count + 1];
+        int[] rightPrefixLength = new int[count + 1];
+        byte[] anchor = null;
+        int prefixLength = 0;
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries.get(i);
+            if (entry.inlined()) {
+                prefixLength = anchor == null
+                        ? Math.min(MAX_PREFIX_LENGTH, entry.key().length)
+                        : Math.min(prefixLength, commonPrefixLength(anchor, entry.key()));
+                anchor = anchor == null ? entry.key() : anchor;
+            }
+            leftPrefixLength[i + 1] = prefixLength;
+        }
+        anchor = null;
+        prefixLength = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (entry.inlined()) {
+                prefixLength = anchor == null
+                        ? Math.min(MAX_PREFIX_LENGTH, entry.key().length)
+                        : Math.min(prefixLength, commonPrefixLength(anchor, entry.key()));
+                anchor = anchor == null ? entry.key() : anchor;
+            }
+            rightPrefixLength[i] = prefixLength;
+        }
+
+        int targetLeftSpace = (int) (totalSpace * ratioToKeepInLeftOnSplit);
+        int splitPos = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        for (int pos = 1; pos < count; pos++) {
+            int leftSpace = accumulatedSpace[pos] - (accumulatedInlined[pos] - 1) * leftPrefixLength[pos];
+            int rightSpace = accumulatedSpace[count]
+                    - accumulatedSpace[pos]
+                    - (accumulatedInlined[count] - accumulatedInlined[pos] - 1) * rightPrefixLength[pos];
+            int delta = Math.abs(leftSpace - targetLeftSpace);
+            if (leftSpace <= totalSpace && rightSpace <= totalSpace && delta < bestDelta) {
+                splitPos = pos;
+                bestDelta = delta;
+            }
+        }
+        if (splitPos == -1) {
+            throw new IllegalStateException(format(
+                    "There's not enough space to insert new key, even when splitting the leaf. Space needed:%d, max space allowed:%d",
+                    accumulatedSpace[count], totalSpace * 2));
+        }
+        return splitPos;
+    }
+
+    /**
+     * Space of all entries in the node, excluding prefix, if each inlined key would grow by {@code keyGrowth} bytes.
+     */
+    private int spaceOfEntries(PageCursor cursor, int keyCount, int keyGrowth) {
+        int space = 0;
+        for (int pos = 0; pos < keyCount; pos++) {
+            space += spaceOfEntry(cursor, pos, keyGrowth);
+        }
+        return space;
+    }
+
+    private int spaceOfEntry(PageCursor cursor, int pos, int keyGrowth) {
+        placeCursorAtActualKey(cursor, pos);
+        long keyValueSize = readKeyValueSize(cursor);
+        boolean offload = extractOffload(keyValueSize);
+        int keySize = extractKeySize(keyValueSize) + (offload ? 0 : keyGrowth);
+        int valueSize = extractValueSize(keyValueSize);
+        return OFFSET_SIZE + getOverhead(keySize, valueSize, offload) + keySize + valueSize;
+    }
+
+    private List<Entry> readEntries(PageCursor cursor, int fromPos, int toPos) {
+        byte[] prefix = readPrefix(cursor);
+        List<Entry> entries = new ArrayList<>(toPos - fromPos + 1);
+        for (int pos = fromPos; pos < toPos; pos++) {
+            placeCursorAtActualKey(cursor, pos);
+            long keyValueSize = readKeyValueSize(cursor);
+            if (extractOffload(keyValueSize)) {
+                entries.add(new Entry(null, null, readOffloadId(cursor)));
+            } else {
+                int suffixSize = extractKeySize(keyValueSize);
+                byte[] key = Arrays.copyOf(prefix, prefix.length + suffixSize);
+                cursor.getBytes(key, prefix.length, suffixSize);
+                byte[] value = new byte[extractValueSize(keyValueSize)];
+                cursor.getBytes(value);
+                entries.add(new Entry(key, value, NO_OFFLOAD_ID));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Overwrites all keys and values in the node with the given entries, using the longest prefix shared by all
+     * inlined keys. Also sets key count and clears dead space.
+     */
+    private void writeEntries(PageCursor cursor, List<Entry> entries) {
+        byte[] prefixSource = null;
+        int prefixLength = 0;
+        for (Entry entry : entries) {
+            if (entry.inlined()) {
+                prefixLength = prefixSource == null
+                        ? Math.min(MAX_PREFIX_LENGTH, entry.key().length)
+                        : Math.min(prefixLength, commonPrefixLength(prefixSource, entry.key()));
+                prefixSource = prefixSource == null ? entry.key() : prefixSource;
+            }
+        }
+
+        int prefixOffset = prefixOffset(prefixLength);
+        cursor.setOffset(prefixOffset);
+        if (prefixLength > 0) {
+            cursor.putBytes(prefixSource, 0, prefixLength);
+        }
+        setPrefixLength(cursor, prefixLength);
+
+        int keyCount = entries.size();
+        int allocOffset = prefixOffset;
+        for (int pos = 0; pos < keyCount; pos++) {
+            Entry entry = entries.get(pos);
+            if (entry.inlined()) {
+                int suffixSize = entry.key().length - prefixLength;
+                int valueSize = entry.value().length;
+                allocOffset -= getOverhead(suffixSize, valueSize, false) + suffixSize + valueSize;
+                cursor.setOffset(allocOffset);
+                putKeyValueSize(cursor, suffixSize, valueSize);
+                cursor.putBytes(entry.key(), prefixLength, suffixSize);
+                cursor.putBytes(entry.value());
+            } else {
+                allocOffset -= getOverhead(0, 0, true);
+                cursor.setOffset(allocOffset);
+                putOffloadMarker(cursor);
+                DynamicSizeUtil.putOffloadId(cursor, entry.offloadId());
+            }
+            cursor.setOffset(keyPosOffsetLeaf(pos));
+            putUnsignedShort(cursor, allocOffset);
+        }
+
+        // Zero pad alloc space
+        int endOfOffsetArray = keyPosOffsetLeaf(keyCount);
+        assert allocOffset >= endOfOffsetArray
+                : "Entries does not fit in node, allocOffset=" + allocOffset + " endOfOffsetArray=" + endOfOffsetArray;
+        cursor.setOffset(endOfOffsetArray);
+        cursor.putBytes(allocOffset - endOfOffsetArray, (byte) 0);
+
+        setAllocOffset(cursor, allocOffset);
+        setDeadSpace(cursor, 0);
+        TreeNodeUtil.setKeyCount(cursor, keyCount);
+    }
+
+    /**
+     * Reads inlined key which suffix the cursor is placed at, leaving the cursor right after the suffix.
+     */
+    private void readInlineKey(PageCursor cursor, KEY into, int suffixSize) {
+        int prefixLength = prefixLength(cursor);
+        KeyBuffer buffer = keyBuffer.get();
+        cursor.getBytes(buffer.bytes, prefixLength, suffixSize);
+        int suffixEnd = cursor.getOffset();
+        cursor.setOffset(prefixOffset(prefixLength));
+        cursor.getBytes(buffer.bytes, 0, prefixLength);
+        cursor.setOffset(suffixEnd);
+
+        PageCursor keyCursor = buffer.cursor;
+        keyCursor.setOffset(0);
+        try {
+            layout.readKey(keyCursor, into, prefixLength + suffixSize);
+            keyCursor.checkAndClearCursorException();
+        } catch (CursorException e) {
+            cursor.setCursorException(e.getMessage());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            // Only happens if we read an inconsistent node, let the cursor retry
+            cursor.setCursorException("Failed to read compressed key, cause: " + e);
+        }
+    }
+
+    private byte[] keyBytes(KEY key, int keySize) {
+        KeyBuffer buffer = keyBuffer.get();
+        buffer.cursor.setOffset(0);
+        layout.writeKey(buffer.cursor, key);
+        return Arrays.copyOf(buffer.bytes, keySize);
+    }
+
+    private byte[] valueBytes(VALUE value, int valueSize) {
+        KeyBuffer buffer = keyBuffer.get();
+        buffer.cursor.setOffset(0);
+        layout.writeValue(buffer.cursor, value);
+        return Arrays.copyOf(buffer.bytes, valueSize);
+    }
+
+    private byte[] readPrefix(PageCursor cursor) {
+        int prefixLength = prefixLength(cursor);
+        byte[] prefix = new byte[prefixLength];
+        cursor.setOffset(prefixOffset(prefixLength));
+        cursor.getBytes(prefix);
+        return prefix;
+    }
+
+    private int commonPrefixLength(PageCursor cursor, int prefixLength, byte[] key) {
+        int prefixOffset = prefixOffset(prefixLength);
+        int length = Math.min(prefixLength, key.length);
+        for (int i = 0; i < length; i++) {
+            if (cursor.getByte(prefixOffset + i) != key[i]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static int commonPrefixLength(byte[] a, byte[] b) {
+        int mismatch = Arrays.mismatch(a, b);
+        return mismatch == -1 ? a.length : mismatch;
+    }
+
+    private int prefixLength(PageCursor cursor) {
+        return cursor.getByte(payloadSize - PREFIX_LENGTH_SIZE) & 0xFF;
+    }
+
+    private void setPrefixLength(PageCursor cursor, int prefixLength) {
+        cursor.putByte(payloadSize - PREFIX_LENGTH_SIZE, (byte) prefixLength);
+    }
+
+    private int prefixOffset(int prefixLength) {
+        return payloadSize - PREFIX_LENGTH_SIZE - prefixLength;
+    }
+
+    // Calculated by reading data instead of extrapolate from allocSpace and deadSpace
+    private int totalActiveSpaceRaw(PageCursor cursor, int keyCount, int prefixOffset) {
+        // Offset array
+        int offsetArraySize = keyPosOffsetLeaf(keyCount) - keyPosOffsetLeaf(0);
+
+        // Alive keys
+        int aliveKeySize = 0;
+        int nextKeyOffset = getAllocOffset(cursor);
+        while (nextKeyOffset < prefixOffset) {
+            cursor.setOffset(nextKeyOffset);
+            long keyValueSize = readKeyValueSize(cursor);
+            int keySize = extractKeySize(keyValueSize);
+            int valueSize = extractValueSize(keyValueSize);
+            boolean offload = extractOffload(keyValueSize);
+            boolean tombstone = extractTombstone(keyValueSize);
+            if (!tombstone) {
+                aliveKeySize += getOverhead(keySize, valueSize, offload) + keySize + valueSize;
+            }
+            nextKeyOffset = cursor.getOffset() + (offload ? DynamicSizeUtil.SIZE_OFFLOAD_ID : keySize + valueSize);
+        }
+        return offsetArraySize + aliveKeySize;
+    }
+
+    private void placeCursorAtActualKey(PageCursor cursor, int pos) {
+        // Set cursor to correct place in offset array
+        int keyPosOffset = keyPosOffsetLeaf(pos);
+        DynamicSizeUtil.redirectCursor(cursor, keyPosOffset, DynamicSizeUtil.HEADER_LENGTH_DYNAMIC, payloadSize);
+    }
+
+    private boolean canInline(int entrySize) {
+        return entrySize <= inlineKeyValueSizeCap;
+    }
+
+    /**
+     * Key and value bytes of an inlined entry, with the full key, or offload id of an offloaded entry.
+     */
+    private record Entry(byte[] key, byte[] value, long offloadId) {
+        boolean inlined() {
+            return key != null;
+        }
+
+        int uncompressedSpace() {
+            if (inlined()) {
+                return OFFSET_SIZE + getOverhead(key.length, value.length, false) + key.length + value.length;
+            }
+            return OFFSET_SIZE + getOverhead(0, 0, true);
+        }
+    }
+
+    private static final class KeyBuffer {
+        private final byte[] bytes;
+        private final PageCursor cursor;
+
+        KeyBuffer(int size) {
+            this.bytes = new byte[size];
+            this.cursor = new ByteArrayPageCursor(ByteBuffer.wrap(bytes));
+        }
+    }
+}
@@ -766,8 +766,11 @@ public class MultiRootGBPTree<ROOT_KEY, KEY, VALUE> implements Closeable {
             String databaseName,
             ImmutableSet<OpenOption> openOptions)
             throws IOException, MetadataMismatchException {
-        PagedFile pagedFile =
-                pageCache.map(indexFile, pageCache.pageSize(), databaseName, treeOpenOptions(openOptions));
+        PagedFile pagedFile = pageCache.map(
+                indexFile,
+                pageCache.pageSize(),
+                databaseName,
+                treeOpenOptions(openOptions).newWithoutAll(asList(GBPTreeOpenOptions.values())));
         // This index already exists, verify meta data aligns with expectations
 
         MutableBoolean pagedFileOpen = new MutableBoolean(true);
@@ -571,6 +571,18 @@ class MultiRootLayer<ROOT_KEY, DATA_KEY, DATA_VALUE> extends RootLayer<ROOT_KEY,
                     DATA_LAYER_FLAG);
         }
 
+        @Override
+        public BulkLoader<DATA_KEY, DATA_VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) {
+            // Publishing a new data root goes through a parallel writer on the root layer,
+            // which can't be opened while the bulk loader holds the exclusive writer lock
+            throw new UnsupportedOperationException("Bulk loading is not supported for multi-root data trees");
+        }
+
+        @Override
+        public boolean supportsBulkLoading() {
+            return false;
+        }
+
         @Override
         public Seeker<DATA_KEY, DATA_VALUE> allocateSeeker(CursorContext cursorContext) throws IOException {
             return support.internalAllocateSeeker(dataLayout, cursorContext, dataLeafNode, dataInternalNode);
@@ -274,6 +274,39 @@ class RootLayerSupport {
         return writer;
     }
 
+    <K, V> BulkLoader<K, V> internalBulkLoader(
+            Layout<K, V> layout,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            double fillFactor,
+            CursorContext cursorContext,
+            TreeRootExchange rootExchange,
+            byte layerType)
+            throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException(String.format("'%s' is read-only", pagedFile.path()));
+        }
+        cleanCheck.apply();
+        GBPTreeBulkLoader<K, V> bulkLoader = new GBPTreeBulkLoader<>(
+                layout,
+                pagedFile,
+                leafNode,
+                internalNode,
+                layerType,
+                rootExchange,
+                freeList,
+                checkpointLock,
+                writerLock,
+                monitor,
+                exceptionDecorator,
+                generationSupplier,
+                writersMustEagerlyFlushSupplier,
+                fillFactor);
+        bulkLoader.initialize(cursorContext);
+        changesSinceLastCheckpoint.set(true);
+        return bulkLoader;
+    }
+
     <K, V> OffloadStoreImpl<K, V> buildOffload(Layout<K, V> layout) {
         OffloadIdValidator idValidator = id -> id >= IdSpace.MIN_TREE_NODE_ID && id <= pagedFile.getLastPageId();
         return new OffloadStoreImpl<>(layout, freeList, pagedFile::io, idValidator, payloadSize);
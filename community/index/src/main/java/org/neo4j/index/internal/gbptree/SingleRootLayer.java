@@ -244,6 +244,18 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
             }
         }
 
+        @Override
+        public BulkLoader<KEY, VALUE> bulkLoader(double fillFactor, CursorContext cursorContext) throws IOException {
+            return support.internalBulkLoader(
+                    layout,
+                    leafNode,
+                    internalNode,
+                    fillFactor,
+                    cursorContext,
+                    SingleRootLayer.this,
+                    DATA_LAYER_FLAG);
+        }
+
         @Override
         public long estimateNumberOfEntriesInTree(CursorContext cursorContext) throws IOException {
             return support.estimateNumberOfEntriesInTree(
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.function.LongConsumer;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
 import org.neo4j.internal.helpers.Exceptions;
@@ -428,6 +429,9 @@ public class ByteArrayPageCursor extends PageCursor {
             return 0;
         }
 
+        @Override
+        public void visitLoadedPages(LongConsumer visitor) {}
+
         @Override
         public boolean preAllocateSupported() {
             return false;
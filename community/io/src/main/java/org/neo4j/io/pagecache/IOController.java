@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache;
 
 import java.io.IOException;
+import java.util.function.DoubleSupplier;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 
@@ -73,4 +74,15 @@ public interface IOController {
     default boolean isEnabled() {
         return false;
     }
+
+    /**
+     * Provide a measure of how urgent it is for the controlled IO to complete. The supplied value is {@code 0} when
+     * there is no hurry, and reaches {@code 1} when the IO is overdue, e.g. when so much transaction log has been
+     * written since the last check point that another check point is already required.
+     * <p/>
+     * Controllers may relax their limits as the urgency grows, so that flushing keeps up with the incoming writes.
+     *
+     * @param urgency supplier of the current urgency.
+     */
+    default void setUrgencySupplier(DoubleSupplier urgency) {}
 }
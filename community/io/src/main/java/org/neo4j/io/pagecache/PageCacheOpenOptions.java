@@ -62,5 +62,12 @@ public enum PageCacheOpenOptions implements OpenOption {
     /**
      * Update context with version information in non multi_versioned mapped file
      */
-    CONTEXT_VERSION_UPDATES
+    CONTEXT_VERSION_UPDATES,
+
+    /**
+     * Treat every cursor opened with {@link PagedFile#PF_READ_AHEAD} on the mapped file as a
+     * {@link PagedFile#PF_SEQUENTIAL_SCAN} cursor, so that scans do not push the working set out of the page cache.
+     * The option is only taken into account by the mapping that first maps the file.
+     */
+    SCAN_RESISTANT
 }
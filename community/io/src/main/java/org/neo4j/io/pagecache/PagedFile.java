@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.LongConsumer;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
@@ -95,6 +96,19 @@ public interface PagedFile extends AutoCloseable {
      */
     int PF_NO_LOAD = 1 << 8;
 
+    /**
+     * Hint that the cursor is used for a large sequential scan, where most pages are touched only once.
+     * <p>
+     * Pages faulted in by such a cursor are put on probation: they are evicted ahead of the rest of the page cache,
+     * unless they are accessed again before they get evicted. Such cursors do not update the page access statistics
+     * of the pages they fault in, like {@link #PF_TRANSIENT}, but a page that is already loaded when such a cursor
+     * pins it counts as accessed again, so that pages that are scanned repeatedly are promoted. This does not apply
+     * to cursors that also have {@link #PF_READ_AHEAD}, since those mostly pin pages that were just pre-fetched for
+     * them. This keeps the working set of the page cache intact while a scan reads through more data than what fits
+     * in memory.
+     */
+    int PF_SEQUENTIAL_SCAN = 1 << 9;
+
     /**
      * Initiate an IO interaction with the contents of the paged file.
      * <p>
@@ -255,6 +269,14 @@ public interface PagedFile extends AutoCloseable {
      */
     int touch(long pageId, int count, CursorContext cursorContext) throws IOException;
 
+    /**
+     * Report ids of all pages of this file that are currently loaded into the page cache, in ascending order.
+     * The result is a best-effort snapshot, since pages can be faulted in or evicted concurrently.
+     *
+     * @param visitor receives file page id of every loaded page
+     */
+    void visitLoadedPages(LongConsumer visitor);
+
     /**
      * Returns {@code true} when a pre-allocation request is supported for this concrete file.
      * This generally depends on the operating system and JVM implementation file channel, so if the operation
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static org.neo4j.internal.helpers.VarHandleUtils.getVarHandle;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A contiguous range of the pages in the {@link MuninnPageCache}, with its own freelist and its own background
+ * eviction thread. The eviction thread of a partition only sweeps the pages of that partition, and evicted pages
+ * always go back to the freelist of the partition they belong to.
+ * <p>
+ * The freelist has the same life cycle as described for the page cache: it starts out as an {@link AtomicInteger}
+ * that counts the pages of the partition that have never been used, relative to {@link #firstPageId}, and then turns
+ * into a concurrent stack of {@link FreePage} objects.
+ */
+final class EvictionPartition {
+    private static final VarHandle FREE_LIST = getVarHandle(lookup(), "freelist");
+
+    final int index;
+    final int firstPageId;
+    final int pageCount;
+    final int keepFree;
+
+    @SuppressWarnings("unused") // accessed via VarHandle.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this partition.
+    volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having signalled it to wake up.
+    volatile boolean evictorParked;
+
+    EvictionPartition(int index, int firstPageId, int pageCount, int keepFree) {
+        this.index = index;
+        this.firstPageId = firstPageId;
+        this.pageCount = pageCount;
+        this.keepFree = keepFree;
+        setFreelistHead(new AtomicInteger());
+    }
+
+    boolean contains(int pageId) {
+        return pageId >= firstPageId && pageId < firstPageId + pageCount;
+    }
+
+    Object getFreelistHead() {
+        return FREE_LIST.getVolatile(this);
+    }
+
+    boolean compareAndSetFreelistHead(Object expected, Object update) {
+        return FREE_LIST.compareAndSet(this, expected, update);
+    }
+
+    void setFreelistHead(Object newFreelistHead) {
+        FREE_LIST.setVolatile(this, newFreelistHead);
+    }
+
+    @Override
+    public String toString() {
+        return "EvictionPartition[index:" + index + ", firstPageId:" + firstPageId + ", pageCount:" + pageCount
+                + ", keepFree:" + keepFree + "]";
+    }
+}
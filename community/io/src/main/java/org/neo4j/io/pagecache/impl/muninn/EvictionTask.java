@@ -20,19 +20,23 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm for one eviction partition. One is expected for each eviction partition
+ * of the page cache.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see MuninnPageCache#continuouslySweepPages(EvictionPartition)
  */
 final class EvictionTask extends BackgroundTask {
-    EvictionTask(MuninnPageCache pageCache) {
+    private final EvictionPartition partition;
+
+    EvictionTask(MuninnPageCache pageCache, EvictionPartition partition) {
         super(pageCache);
+        this.partition = partition;
     }
 
     @Override
     protected void run(MuninnPageCache pageCache) {
-        pageCache.continuouslySweepPages();
+        pageCache.continuouslySweepPages(partition);
     }
 }
@@ -20,10 +20,8 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 import static java.lang.String.format;
-import static java.lang.invoke.MethodHandles.lookup;
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.internal.helpers.Numbers.isPowerOfTwo;
-import static org.neo4j.internal.helpers.VarHandleUtils.getVarHandle;
 import static org.neo4j.io.pagecache.buffer.IOBufferFactory.DISABLED_BUFFER_FACTORY;
 import static org.neo4j.io.pagecache.impl.muninn.PageList.getPageHorizon;
 import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
@@ -34,7 +32,6 @@ import static org.neo4j.util.Preconditions.requireNonNegative;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.invoke.VarHandle;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -58,6 +55,7 @@ import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -136,6 +134,16 @@ public class MuninnPageCache implements PageCache {
     private static final int cooperativeEvictionLiveLockThreshold =
             getInteger(MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100);
 
+    // Page cache will not be split into eviction partitions that are smaller than this number of pages.
+    private static final int minPagesPerEvictionPartition =
+            getInteger(MuninnPageCache.class, "minPagesPerEvictionPartition", 1024);
+
+    // Upper bound on the number of pages that can be kept on probation after being faulted in by sequential scans.
+    private static final int maxProbationaryPages = getInteger(MuninnPageCache.class, "maxProbationaryPages", 1 << 20);
+
+    // The most recently faulted in probationary pages that are never evicted ahead of the eviction clock.
+    private static final int probationaryPagesWindow = getInteger(MuninnPageCache.class, "probationaryPagesWindow", 64);
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings("ThrowableInstanceNeverThrown")
     private static final IOException oomException =
@@ -179,28 +187,25 @@ public class MuninnPageCache implements PageCache {
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
+    // The pages are split into one or more eviction partitions, each of them with its own freelist.
     // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings("unused") // accessed via VarHandle.
-    private volatile Object freelist;
-
-    private static final VarHandle FREE_LIST = getVarHandle(lookup(), "freelist");
+    // Initially, the freelist is an AtomicInteger that counts from zero to the page count of the partition, at which
+    // point all of the pages have been put in use. Once this happens, the freelist is set to null to allow the
+    // background eviction thread of the partition to start its work. From that point on, the freelist will operate as
+    // a concurrent stack of FreePage objects. The eviction thread pushes newly freed FreePage objects onto the stack,
+    // and page faulting threads pops FreePage objects from the stack. The FreePage objects are single-use, to avoid
+    // running into the ABA-problem.
+    // Every partition has its own eviction thread. We unpark it when we've run out of free pages to grab in that
+    // partition. The evictorParked flag of the partition is used as a weak guard for unparking the eviction thread,
+    // because calling unpark too much (from many page faulting threads) can cause contention on the locks protecting
+    // that threads scheduling meta-data in the OS kernel.
+    private final EvictionPartition[] partitions;
+    private final int pagesPerPartition;
+    // Pages faulted in by sequential scan cursors, which are evicted before the eviction clock is consulted.
+    private final ProbationaryPages probationaryPages;
 
     private final ConcurrentHashMap<String, MuninnPagedFile> mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -233,6 +238,7 @@ public class MuninnPageCache implements PageCache {
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
         private final boolean closeAllocatorOnShutdown;
+        private final int evictionPartitions;
 
         private Configuration(
                 MemoryAllocator memoryAllocator,
@@ -245,7 +251,8 @@ public class MuninnPageCache implements PageCache {
                 boolean enableEvictionThread,
                 boolean preallocateStoreFiles,
                 int reservedPageSize,
-                boolean closeAllocatorOnShutdown) {
+                boolean closeAllocatorOnShutdown,
+                int evictionPartitions) {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
             this.memoryTracker = memoryTracker;
@@ -257,6 +264,7 @@ public class MuninnPageCache implements PageCache {
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
             this.closeAllocatorOnShutdown = closeAllocatorOnShutdown;
+            this.evictionPartitions = evictionPartitions;
         }
 
         /**
@@ -274,7 +282,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -292,7 +301,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -310,7 +320,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -328,7 +339,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -346,7 +358,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -364,7 +377,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -382,7 +396,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageBytes,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -400,7 +415,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -418,7 +434,8 @@ public class MuninnPageCache implements PageCache {
                     false,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -436,7 +453,8 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
 
         /**
@@ -455,7 +473,29 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
+        }
+
+        /**
+         * Split the pages of the page cache into the given number of partitions, each with its own freelist and
+         * its own background eviction thread. Page faulting threads prefer the freelist of their own partition.
+         * The number of partitions can be reduced for page caches that are too small to be split that many times.
+         */
+        public Configuration evictionPartitions(int evictionPartitions) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPartitions);
         }
     }
 
@@ -483,7 +523,8 @@ public class MuninnPageCache implements PageCache {
                 true,
                 true,
                 RESERVED_BYTES,
-                false);
+                false,
+                1);
     }
 
     /**
@@ -521,7 +562,11 @@ public class MuninnPageCache implements PageCache {
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
         this.memoryAllocator = configuration.memoryAllocator;
         this.closeAllocatorOnShutdown = configuration.closeAllocatorOnShutdown;
-        setFreelistHead(new AtomicInteger());
+        int partitionCount = calculateEvictionPartitions(maxPages, configuration.evictionPartitions);
+        this.pagesPerPartition = maxPages / partitionCount;
+        this.partitions = createEvictionPartitions(maxPages, partitionCount, pagesPerPartition, keepFree);
+        this.probationaryPages =
+                new ProbationaryPages(Math.min(maxPages, maxProbationaryPages), probationaryPagesWindow);
 
         // Expose the total number of pages
         pageCacheTracer.maxPages(maxPages, cachePageSize);
@@ -545,6 +590,28 @@ public class MuninnPageCache implements PageCache {
         return Math.max(lowerBound, Math.min(freePages, 100_000));
     }
 
+    private static int calculateEvictionPartitions(int maxPages, int requestedPartitions) {
+        if (requestedPartitions < 1) {
+            throw new IllegalArgumentException(
+                    "Number of eviction partitions must be positive, but was " + requestedPartitions);
+        }
+        return Math.max(1, Math.min(requestedPartitions, maxPages / minPagesPerEvictionPartition));
+    }
+
+    private static EvictionPartition[] createEvictionPartitions(
+            int maxPages, int partitionCount, int pagesPerPartition, int keepFree) {
+        var partitions = new EvictionPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            int firstPageId = i * pagesPerPartition;
+            // The last partition takes the remainder of the pages.
+            int pageCount = i == partitionCount - 1 ? maxPages - firstPageId : pagesPerPartition;
+            // Each partition keeps its share of the free pages, proportionally to its size.
+            int partitionKeepFree = (int) Math.max(1, (long) keepFree * pageCount / Math.max(1, maxPages));
+            partitions[i] = new EvictionPartition(i, firstPageId, pageCount, partitionKeepFree);
+        }
+        return partitions;
+    }
+
     private static void verifyHacks() {
         // Make sure that we have access to theUnsafe.
         UnsafeUtil.assertHasUnsafe();
@@ -595,6 +662,7 @@ public class MuninnPageCache implements PageCache {
         boolean multiVersioned = false;
         boolean preallocation = preallocateStoreFiles;
         boolean contextVersionUpdates = false;
+        boolean scanResistant = false;
         for (OpenOption option : openOptions) {
             if (option.equals(StandardOpenOption.CREATE)) {
                 createIfNotExists = true;
@@ -614,6 +682,8 @@ public class MuninnPageCache implements PageCache {
                 preallocation = false;
             } else if (option.equals(PageCacheOpenOptions.CONTEXT_VERSION_UPDATES)) {
                 contextVersionUpdates = true;
+            } else if (option.equals(PageCacheOpenOptions.SCAN_RESISTANT)) {
+                scanResistant = true;
             } else if (!ignoredOpenOptions.contains(option)) {
                 throw new UnsupportedOperationException("Unsupported OpenOption: " + option);
             }
@@ -674,7 +744,8 @@ public class MuninnPageCache implements PageCache {
                 contextVersionUpdates,
                 multiVersioned ? pageReservedBytes : 0,
                 versionStorage,
-                littleEndian);
+                littleEndian,
+                scanResistant);
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose(deleteOnClose);
         mappedFiles.put(filePath, pagedFile);
@@ -718,8 +789,13 @@ public class MuninnPageCache implements PageCache {
 
         try {
             if (enableEvictionThread) {
-                var monitoringParams = systemJob("Eviction of pages from the page cache");
-                scheduler.schedule(Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask(this));
+                for (EvictionPartition partition : partitions) {
+                    var monitoringParams = systemJob(
+                            partitions.length == 1
+                                    ? "Eviction of pages from the page cache"
+                                    : "Eviction of pages from the page cache partition " + partition.index);
+                    scheduler.schedule(Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask(this, partition));
+                }
             }
         } catch (Exception e) {
             IOException exception = new IOException(e);
@@ -846,8 +922,10 @@ public class MuninnPageCache implements PageCache {
 
         closed = true;
 
-        interrupt(evictionThread);
-        evictionThread = null;
+        for (EvictionPartition partition : partitions) {
+            interrupt(partition.evictionThread);
+            partition.evictionThread = null;
+        }
         if (closeAllocatorOnShutdown) {
             memoryAllocator.close();
         }
@@ -890,7 +968,11 @@ public class MuninnPageCache implements PageCache {
 
     @Override
     public long freePages() {
-        return getFreeListSize(pages, getFreelistHead());
+        long freePages = 0;
+        for (EvictionPartition partition : partitions) {
+            freePages += getFreeListSize(partition, partition.getFreelistHead());
+        }
+        return freePages;
     }
 
     @Override
@@ -923,25 +1005,57 @@ public class MuninnPageCache implements PageCache {
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
+        // With multiple eviction partitions we prefer the freelist of the partition of the current thread, and only
+        // steal free pages from the other partitions when our own partition has run dry.
+        EvictionPartition home = homePartition();
         for (; ; ) {
             assertHealthy();
-            current = getFreelistHead();
-            if (current == null) {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict(faultEvent);
+            long pageRef = grabFreePage(home, faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+            unparkEvictor(home);
+            for (int i = 1; i < partitions.length; i++) {
+                EvictionPartition partition = partitions[(home.index + i) % partitions.length];
+                pageRef = grabFreePage(partition, faultEvent);
                 if (pageRef != 0) {
                     return pageRef;
                 }
+                unparkEvictor(partition);
+            }
+            pageRef = cooperativelyEvict(faultEvent);
+            if (pageRef != 0) {
+                return pageRef;
+            }
+        }
+    }
+
+    private EvictionPartition homePartition() {
+        if (partitions.length == 1) {
+            return partitions[0];
+        }
+        return partitions[(int) Math.floorMod(Thread.currentThread().getId(), (long) partitions.length)];
+    }
+
+    /**
+     * Grab a page from the freelist of the given partition.
+     *
+     * @return reference to the grabbed page, or 0 if the freelist of the partition is empty.
+     */
+    private long grabFreePage(EvictionPartition partition, PageFaultEvent faultEvent) {
+        for (; ; ) {
+            Object current = partition.getFreelistHead();
+            if (current == null) {
+                return 0;
             } else if (current instanceof AtomicInteger counter) {
-                int pageCount = pages.getPageCount();
-                int pageId = counter.get();
-                if (pageId < pageCount && counter.compareAndSet(pageId, pageId + 1)) {
+                int pageCount = partition.pageCount;
+                int offset = counter.get();
+                if (offset < pageCount && counter.compareAndSet(offset, offset + 1)) {
                     faultEvent.freeListSize(pageCount - counter.get());
-                    return pages.deref(pageId);
+                    return pages.deref(partition.firstPageId + offset);
                 }
-                if (pageId >= pageCount) {
-                    compareAndSetFreelistHead(current, null);
+                if (offset >= pageCount) {
+                    partition.compareAndSetFreelistHead(current, null);
                 }
             } else if (current instanceof FreePage freePage) {
                 if (freePage == shutdownSignal) {
@@ -949,25 +1063,39 @@ public class MuninnPageCache implements PageCache {
                 }
 
                 Object nextPage = freePage.next;
-                if (compareAndSetFreelistHead(freePage, nextPage)) {
-                    faultEvent.freeListSize(getFreeListSize(pages, nextPage));
+                if (partition.compareAndSetFreelistHead(freePage, nextPage)) {
+                    faultEvent.freeListSize(getFreeListSize(partition, nextPage));
                     return freePage.pageRef;
                 }
             }
         }
     }
 
-    private static int getFreeListSize(PageList pageList, Object next) {
+    private static int getFreeListSize(EvictionPartition partition, Object next) {
         if (next instanceof FreePage) {
             return ((FreePage) next).count;
         } else if (next instanceof AtomicInteger) {
-            return pageList.getPageCount() - ((AtomicInteger) next).get();
+            return partition.pageCount - ((AtomicInteger) next).get();
         } else {
             return 0;
         }
     }
 
+    private boolean hasFreePages() {
+        for (EvictionPartition partition : partitions) {
+            if (partition.getFreelistHead() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private long cooperativelyEvict(PageFaultEvent faultEvent) throws IOException {
+        long probationaryPageRef = evictProbationaryPage(faultEvent);
+        if (probationaryPageRef != 0) {
+            return probationaryPageRef;
+        }
+
         int iterations = 0;
         int pageCount = pages.getPageCount();
         int clockArm = ThreadLocalRandom.current().nextInt(pageCount);
@@ -975,7 +1103,7 @@ public class MuninnPageCache implements PageCache {
         long pageRef;
         do {
             assertHealthy();
-            if (getFreelistHead() != null) {
+            if (hasFreePages()) {
                 return 0;
             }
 
@@ -1010,66 +1138,57 @@ public class MuninnPageCache implements PageCache {
                         + "your database.");
     }
 
-    private void unparkEvictor() {
-        if (evictorParked) {
-            evictorParked = false;
-            LockSupport.unpark(evictionThread);
+    private static void unparkEvictor(EvictionPartition partition) {
+        if (partition.evictorParked) {
+            partition.evictorParked = false;
+            LockSupport.unpark(partition.evictionThread);
         }
     }
 
-    private void parkEvictor(long parkNanos) {
-        // Only called from the background eviction thread!
-        evictorParked = true;
+    private void parkEvictor(EvictionPartition partition, long parkNanos) {
+        // Only called from the background eviction thread of the partition!
+        partition.evictorParked = true;
         LockSupport.parkNanos(this, parkNanos);
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead() {
-        return FREE_LIST.getVolatile(this);
-    }
-
-    private boolean compareAndSetFreelistHead(Object expected, Object update) {
-        return FREE_LIST.compareAndSet(this, expected, update);
-    }
-
-    private void setFreelistHead(Object newFreelistHead) {
-        FREE_LIST.setVolatile(this, newFreelistHead);
+        partition.evictorParked = false;
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
+     * Scan through all the pages of the partition, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages() {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+    void continuouslySweepPages(EvictionPartition partition) {
+        partition.evictionThread = Thread.currentThread();
+        int fromPageId = partition.firstPageId;
+        int toPageId = partition.firstPageId + partition.pageCount;
+        int clockArm = fromPageId;
 
         while (!closed) {
-            int pageCountToEvict = parkUntilEvictionRequired(keepFree);
+            int pageCountToEvict = parkUntilEvictionRequired(partition);
             try (EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions(pageCountToEvict)) {
-                clockArm = evictPages(pageCountToEvict, clockArm, evictionRunEvent);
+                clockArm = evictPages(pageCountToEvict, clockArm, fromPageId, toPageId, evictionRunEvent);
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead(shutdownSignal);
+        partition.setFreelistHead(shutdownSignal);
     }
 
-    private int parkUntilEvictionRequired(int keepFree) {
+    private int parkUntilEvictionRequired(EvictionPartition partition) {
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos(10);
         for (; ; ) {
-            parkEvictor(parkNanos);
+            parkEvictor(partition, parkNanos);
             if (Thread.interrupted() || closed) {
                 return 0;
             }
 
-            int numberOfPagesToEvict = tryGetNumberOfPagesToEvict(keepFree);
+            int numberOfPagesToEvict =
+                    numberOfPagesToEvict(partition.keepFree, availablePages(partition, partition.getFreelistHead()));
             if (numberOfPagesToEvict != UNKNOWN_PAGES_TO_EVICT) {
                 return numberOfPagesToEvict;
             }
@@ -1078,29 +1197,46 @@ public class MuninnPageCache implements PageCache {
 
     @VisibleForTesting
     int tryGetNumberOfPagesToEvict(int keepFree) {
-        Object freelistHead = getFreelistHead();
-
-        if (freelistHead == null) {
-            return keepFree;
-        } else if (freelistHead.getClass() == FreePage.class) {
-            int availablePages = ((FreePage) freelistHead).count;
-            if (availablePages < keepFree) {
-                return keepFree - availablePages;
-            }
-        } else if (freelistHead.getClass() == AtomicInteger.class) {
-            AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
-            if (count < keepFree) {
-                return count < 0 ? keepFree : (int) (keepFree - count);
-            }
+        int availablePages = 0;
+        for (EvictionPartition partition : partitions) {
+            availablePages += availablePages(partition, partition.getFreelistHead());
         }
-        return UNKNOWN_PAGES_TO_EVICT;
+        return numberOfPagesToEvict(keepFree, availablePages);
+    }
+
+    private static int availablePages(EvictionPartition partition, Object freelistHead) {
+        return Math.max(0, getFreeListSize(partition, freelistHead));
+    }
+
+    private static int numberOfPagesToEvict(int keepFree, int availablePages) {
+        return availablePages < keepFree ? keepFree - availablePages : UNKNOWN_PAGES_TO_EVICT;
     }
 
     int evictPages(int pageEvictionAttempts, int clockArm, EvictionRunEvent evictionRunEvent) {
+        return evictPages(pageEvictionAttempts, clockArm, 0, pages.getPageCount(), evictionRunEvent);
+    }
+
+    private int evictPages(
+            int pageEvictionAttempts, int clockArm, int fromPageId, int toPageId, EvictionRunEvent evictionRunEvent) {
+        // Pages on probation go first, so sequential scans recycle their own pages rather than aging the working set.
         while (pageEvictionAttempts > 0 && !closed) {
-            if (clockArm == pages.getPageCount()) {
-                clockArm = 0;
+            try {
+                pageEvictionAttempts--;
+                long pageRef = evictProbationaryPage(evictionRunEvent);
+                if (pageRef == 0) {
+                    pageEvictionAttempts++;
+                    break;
+                }
+                clearEvictorException();
+                addFreePageToFreelist(pageRef, evictionRunEvent);
+            } catch (Throwable th) {
+                recordEvictorException(th);
+            }
+        }
+
+        while (pageEvictionAttempts > 0 && !closed) {
+            if (clockArm == toPageId) {
+                clockArm = fromPageId;
             }
 
             if (closed) {
@@ -1116,12 +1252,8 @@ public class MuninnPageCache implements PageCache {
                         clearEvictorException();
                         addFreePageToFreelist(pageRef, evictionRunEvent);
                     }
-                } catch (IOException e) {
-                    evictorException = e;
-                } catch (OutOfMemoryError oom) {
-                    evictorException = oomException;
                 } catch (Throwable th) {
-                    evictorException = new IOException("Eviction thread encountered a problem", th);
+                    recordEvictorException(th);
                 }
             }
 
@@ -1131,6 +1263,46 @@ public class MuninnPageCache implements PageCache {
         return clockArm;
     }
 
+    private void recordEvictorException(Throwable th) {
+        if (th instanceof IOException e) {
+            evictorException = e;
+        } else if (th instanceof OutOfMemoryError) {
+            evictorException = oomException;
+        } else {
+            evictorException = new IOException("Eviction thread encountered a problem", th);
+        }
+    }
+
+    /**
+     * Put a page that was just faulted in by a sequential scan cursor on probation.
+     */
+    void addProbationaryPage(int pageId) {
+        probationaryPages.add(pageId);
+    }
+
+    /**
+     * Evict the oldest page on probation that has not been accessed since it was faulted in.
+     *
+     * @return reference to the evicted page, or 0 if there were no such pages.
+     */
+    private long evictProbationaryPage(EvictionEventOpportunity evictionOpportunity) throws IOException {
+        int pageId;
+        while ((pageId = probationaryPages.poll()) != ProbationaryPages.EMPTY) {
+            long pageRef = pages.deref(pageId);
+            if (PageList.isLoaded(pageRef)
+                    && PageList.getUsage(pageRef) == 0
+                    && pages.tryEvict(pageRef, evictionOpportunity)) {
+                return pageRef;
+            }
+        }
+        return 0;
+    }
+
+    @VisibleForTesting
+    long probationaryPages() {
+        return probationaryPages.size();
+    }
+
     @VisibleForTesting
     String describePages() {
         var result = new StringBuilder();
@@ -1159,17 +1331,24 @@ public class MuninnPageCache implements PageCache {
         Object current;
         assert getPageHorizon(pageRef) == 0;
         FreePage freePage = new FreePage(pageRef);
-        int pageCount = pages.getPageCount();
+        EvictionPartition partition = partitionOf(pages.toId(pageRef));
+        int pageCount = partition.pageCount;
         do {
-            current = getFreelistHead();
+            current = partition.getFreelistHead();
             if (current instanceof AtomicInteger && ((AtomicInteger) current).get() > pageCount) {
                 current = null;
             }
             freePage.setNext(pageCount, current);
-        } while (!compareAndSetFreelistHead(current, freePage));
+        } while (!partition.compareAndSetFreelistHead(current, freePage));
         evictions.freeListSize(freePage.count);
     }
 
+    private EvictionPartition partitionOf(int pageId) {
+        EvictionPartition partition = partitions[Math.min(pageId / pagesPerPartition, partitions.length - 1)];
+        assert partition.contains(pageId) : "Page " + pageId + " does not belong to " + partition;
+        return partition;
+    }
+
     void clearEvictorException() {
         if (evictorException != null) {
             evictorException = null;
@@ -1219,4 +1398,9 @@ public class MuninnPageCache implements PageCache {
     int getKeepFree() {
         return keepFree;
     }
+
+    @VisibleForTesting
+    int getEvictionPartitions() {
+        return partitions.length;
+    }
 }
@@ -25,6 +25,8 @@ import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_CHAIN_FOLLOW;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_LOAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SEQUENTIAL_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
@@ -88,6 +90,8 @@ public abstract class MuninnPageCursor extends PageCursor {
     protected final boolean noLoad;
     protected final boolean noGrow;
     private final boolean updateUsage;
+    private final boolean probationary;
+    private final boolean promoteOnHit;
     protected final boolean multiVersioned;
     protected final boolean contextVersionUpdates;
     protected final boolean littleEndian;
@@ -132,7 +136,11 @@ public abstract class MuninnPageCursor extends PageCursor {
         this.filePayloadSize = filePageSize - pageReservedBytes;
         this.pf_flags = pf_flags;
         this.eagerFlush = isFlagRaised(pf_flags, PF_EAGER_FLUSH);
-        this.updateUsage = !isFlagRaised(pf_flags, PF_TRANSIENT);
+        this.probationary = isFlagRaised(pf_flags, PF_SEQUENTIAL_SCAN);
+        this.updateUsage = !isFlagRaised(pf_flags, PF_TRANSIENT) && !probationary;
+        // A scan that finds a page already loaded is its second access, which promotes it out of probation.
+        // Read-ahead cursors mostly find the pages their pre-fetcher just loaded for them, which doesn't count.
+        this.promoteOnHit = probationary && !isFlagRaised(pf_flags, PF_READ_AHEAD);
         this.noFault = isFlagRaised(pf_flags, PF_NO_FAULT);
         this.chainFollow = !isFlagRaised(pf_flags, PF_NO_CHAIN_FOLLOW);
         this.noLoad = isFlagRaised(pf_flags, PF_NO_LOAD);
@@ -154,6 +162,10 @@ public abstract class MuninnPageCursor extends PageCursor {
         closed = false;
     }
 
+    boolean isProbationary() {
+        return probationary;
+    }
+
     private static boolean isFlagRaised(int flagSet, int flag) {
         return (flagSet & flag) == flag;
     }
@@ -336,6 +348,9 @@ public abstract class MuninnPageCursor extends PageCursor {
                 boolean locked = tryLockPage(pageRef);
                 if (locked && PageList.isBoundTo(pageRef, swapperId, filePageId)) {
                     pinCursorToPage(pinEvent, pageRef, filePageId, swapper);
+                    if (promoteOnHit) {
+                        PageList.incrementUsage(pageRef);
+                    }
                     pinEvent.hit();
                     return;
                 }
@@ -437,6 +452,9 @@ public abstract class MuninnPageCursor extends PageCursor {
             pageId = pagedFile.toId(pageRef);
             faultEvent.setCachePageId(pageId);
             MuninnPagedFile.TRANSLATION_TABLE_ARRAY.setVolatile(chunk, chunkIndex, pageId);
+            if (probationary) {
+                pagedFile.addProbationaryPage(pageId);
+            }
             // Once we page has been published to the translation table, we can convert our exclusive lock to whatever
             // we
             // need for the page cursor.
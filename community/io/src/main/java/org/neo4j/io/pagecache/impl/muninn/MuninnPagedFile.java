@@ -34,6 +34,7 @@ import java.lang.invoke.VarHandle;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCursor;
@@ -88,6 +89,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     final boolean multiVersioned;
     final boolean contextVersionUpdates;
     final boolean littleEndian;
+    // Cursors with PF_READ_AHEAD are treated as sequential scans, and put the pages they fault in on probation.
+    final boolean scanResistant;
     private final PageCacheTracer pageCacheTracer;
     private final IOBufferFactory bufferFactory;
     final LatchMap pageFaultLatches;
@@ -172,7 +175,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             boolean contextVersionUpdates,
             int reservedBytes,
             VersionStorage versionStorage,
-            boolean littleEndian)
+            boolean littleEndian,
+            boolean scanResistant)
             throws IOException {
         super(pageCache.pages);
         this.pageCache = pageCache;
@@ -182,6 +186,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         this.multiVersioned = multiVersioned;
         this.contextVersionUpdates = contextVersionUpdates;
         this.littleEndian = littleEndian;
+        this.scanResistant = scanResistant;
         this.cursorFactory = new CursorFactory(this);
         this.pageCacheTracer = pageCacheTracer;
         this.pageFaultLatches = new LatchMap(faultLockStriping);
@@ -241,6 +246,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     @Override
     public PageCursor io(long pageId, int pf_flags, CursorContext context) {
         int lockFlags = pf_flags & PF_LOCK_MASK;
+        if (scanResistant && (pf_flags & PF_READ_AHEAD) == PF_READ_AHEAD) {
+            pf_flags |= PF_SEQUENTIAL_SCAN;
+        }
         MuninnPageCursor cursor;
         if (lockFlags == PF_SHARED_READ_LOCK) {
             cursor = cursorFactory.takeReadCursor(pageId, pf_flags, context);
@@ -893,6 +901,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         return pageCache.grabFreeAndExclusivelyLockedPage(faultEvent);
     }
 
+    void addProbationaryPage(int pageId) {
+        pageCache.addProbationaryPage(pageId);
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      *
@@ -1081,6 +1093,21 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         return touched;
     }
 
+    @Override
+    public void visitLoadedPages(LongConsumer visitor) {
+        long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
+        int[][] tt = this.translationTable;
+        for (int[] chunk : tt) {
+            for (int i = 0; i < chunk.length; i++) {
+                filePageId++;
+                int pageId = translationTableGetVolatile(chunk, computeChunkIndex(filePageId));
+                if (pageId != UNMAPPED_TTE && isBoundTo(deref(pageId), swapperId, filePageId)) {
+                    visitor.accept(filePageId);
+                }
+            }
+        }
+    }
+
     @Override
     public PageFileSwapperTracer getFileTracer() {
         return swapper.fileSwapperTracer();
@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
+import static org.neo4j.io.pagecache.PagedFile.PF_SEQUENTIAL_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 import java.io.IOException;
@@ -110,8 +111,10 @@ class PreFetcher implements Runnable, CancelListener {
         // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
         long jump = offset;
 
+        // Pages pre-fetched on behalf of a sequential scan are put on probation, just like the scanned pages.
+        int prefetchFlags = PF_SHARED_READ_LOCK | (observedCursor.isProbationary() ? PF_SEQUENTIAL_SCAN : 0);
         try (var context = observedCursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG);
-                PageCursor prefetchCursor = cursorFactory.takeReadCursor(0, PF_SHARED_READ_LOCK, context)) {
+                PageCursor prefetchCursor = cursorFactory.takeReadCursor(0, prefetchFlags, context)) {
             currentPageId = getCurrentObservedPageId();
             while (currentPageId != UNBOUND_PAGE_ID) {
                 cp = currentPageId + offset;
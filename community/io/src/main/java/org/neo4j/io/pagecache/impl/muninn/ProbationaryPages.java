@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded FIFO of the ids of pages that were faulted in by
+ * {@link org.neo4j.io.pagecache.PagedFile#PF_SEQUENTIAL_SCAN sequential scan} cursors.
+ * <p>
+ * This is the probationary queue of a 2Q-like admission policy: pages that have only been touched by a scan are
+ * evicted from the head of this queue, before the eviction clock gets to decrement the usage stamps of the pages in
+ * the rest of the cache. A page that is accessed again while it is still on probation, by a regular cursor or by
+ * another scan, gets a non-zero usage stamp, and is thereby promoted out of the queue; it will be skipped when it
+ * reaches the head of the queue, and left for the eviction clock to deal with.
+ * <p>
+ * The queue is deliberately lossy. Producers overwrite the oldest entries when the queue is full, and entries may
+ * refer to pages that have since been evicted or reused. Consumers must always check the state of a page before
+ * they evict it. A page that falls out of the queue has a zero usage stamp, and will be evicted by the clock the first
+ * time the clock arm passes it.
+ */
+final class ProbationaryPages {
+    private static final int NO_PAGE = 0;
+    static final int EMPTY = -1;
+
+    private final AtomicIntegerArray slots;
+    private final int mask;
+    private final int window;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of page ids kept in the queue, will be rounded up to a power of two.
+     * @param window the number of most recently added pages that are never handed out to consumers, to avoid evicting
+     * the pages that the scans are currently working on.
+     */
+    ProbationaryPages(int capacity, int window) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicIntegerArray(size);
+        this.mask = size - 1;
+        this.window = window;
+    }
+
+    void add(int pageId) {
+        long index = head.getAndIncrement();
+        slots.lazySet((int) (index & mask), pageId + 1);
+    }
+
+    /**
+     * @return the id of the oldest page on probation, or {@link #EMPTY} if there are no pages on probation outside of
+     * the window of recently added pages.
+     */
+    int poll() {
+        for (; ; ) {
+            long currentTail = tail.get();
+            long currentHead = head.get();
+            long size = currentHead - currentTail;
+            if (size <= window) {
+                return EMPTY;
+            }
+            if (size > slots.length()) {
+                // Producers have lapped us, and the oldest entries have been overwritten.
+                tail.compareAndSet(currentTail, currentHead - slots.length());
+                continue;
+            }
+            if (tail.compareAndSet(currentTail, currentTail + 1)) {
+                int entry = slots.getAndSet((int) (currentTail & mask), NO_PAGE);
+                if (entry != NO_PAGE) {
+                    return entry - 1;
+                }
+            }
+        }
+    }
+
+    long size() {
+        return Math.max(0, Math.min(head.get() - tail.get(), slots.length()));
+    }
+}
@@ -182,4 +182,25 @@ public interface PageCacheCounters {
     default long prefetchedPagesWithFaults() {
         return 0L;
     }
+
+    /**
+     * @return Total number of pages that page cache warmups planned to load.
+     */
+    default long warmupPagesToLoad() {
+        return 0L;
+    }
+
+    /**
+     * @return Total number of pages loaded by page cache warmups.
+     */
+    default long warmupPagesLoaded() {
+        return 0L;
+    }
+
+    /**
+     * @return {@code true} when there are no page cache warmups in progress.
+     */
+    default boolean isWarm() {
+        return true;
+    }
 }
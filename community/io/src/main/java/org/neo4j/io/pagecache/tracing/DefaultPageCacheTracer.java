@@ -65,6 +65,9 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder prefetchedPages = new LongAdder();
     protected final LongAdder prefetchedPagesWithFaults = new LongAdder();
     protected final LongAdder snapshotsLoaded = new LongAdder();
+    protected final LongAdder warmupPagesToLoad = new LongAdder();
+    protected final LongAdder warmupPagesLoaded = new LongAdder();
+    protected final AtomicLong warmupsInProgress = new AtomicLong();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final boolean tracePageFileIndividually;
@@ -291,6 +294,21 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return prefetchedPagesWithFaults.sum();
     }
 
+    @Override
+    public long warmupPagesToLoad() {
+        return warmupPagesToLoad.sum();
+    }
+
+    @Override
+    public long warmupPagesLoaded() {
+        return warmupPagesLoaded.sum();
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warmupsInProgress.get() == 0;
+    }
+
     @Override
     public void iopq(long iopq) {
         iopqPerformed.add(iopq);
@@ -317,6 +335,22 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         prefetchedPagesWithFaults.add(count);
     }
 
+    @Override
+    public void warmupStarted(long pagesToLoad) {
+        warmupsInProgress.incrementAndGet();
+        warmupPagesToLoad.add(pagesToLoad);
+    }
+
+    @Override
+    public void warmupPagesLoaded(long count) {
+        warmupPagesLoaded.add(count);
+    }
+
+    @Override
+    public void warmupCompleted() {
+        warmupsInProgress.decrementAndGet();
+    }
+
     @Override
     public void filesTruncated(long truncatedFiles) {
         this.fileTruncations.add(truncatedFiles);
@@ -511,6 +511,21 @@ public interface PageCacheTracer extends PageCacheCounters {
      */
     default void pagesPrefetchedWithFaults(long count) {}
 
+    /**
+     * report start of profile based page cache warmup that is going to load specified number of pages
+     */
+    default void warmupStarted(long pagesToLoad) {}
+
+    /**
+     * report number of pages loaded by page cache warmup
+     */
+    default void warmupPagesLoaded(long count) {}
+
+    /**
+     * report completion of previously started page cache warmup
+     */
+    default void warmupCompleted() {}
+
     /**
      * report number of truncated files
      */
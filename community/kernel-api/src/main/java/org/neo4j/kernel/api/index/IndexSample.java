@@ -19,7 +19,11 @@
  */
 package org.neo4j.kernel.api.index;
 
-public record IndexSample(long indexSize, long uniqueValues, long sampleSize, long updates) {
+/**
+ * @param histogram distribution of the indexed values, or {@code null} if the sampler doesn't build one.
+ */
+public record IndexSample(
+        long indexSize, long uniqueValues, long sampleSize, long updates, PropertyHistogram histogram) {
 
     public IndexSample() {
         this(0, 0, 0);
@@ -29,12 +33,21 @@ public record IndexSample(long indexSize, long uniqueValues, long sampleSize, lo
         this(indexSize, uniqueValues, sampleSize, 0);
     }
 
+    public IndexSample(long indexSize, long uniqueValues, long sampleSize, long updates) {
+        this(indexSize, uniqueValues, sampleSize, updates, null);
+    }
+
+    public IndexSample withHistogram(PropertyHistogram histogram) {
+        return new IndexSample(indexSize, uniqueValues, sampleSize, updates, histogram);
+    }
+
     @Override
     public String toString() {
         return "IndexSample{" + "indexSize="
                 + indexSize + ", uniqueValues="
                 + uniqueValues + ", sampleSize="
                 + sampleSize + ", updates="
-                + updates + '}';
+                + updates + ", histogram="
+                + histogram + '}';
     }
 }
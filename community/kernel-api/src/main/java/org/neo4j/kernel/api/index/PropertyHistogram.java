@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import static java.util.Comparator.comparingLong;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.PriorityQueue;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueByteBufferCodec;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Distribution of the values of a single property index, built while sampling the index. It consists of the most
+ * common values with their exact counts and an equi-depth histogram describing the remaining values. Buckets never
+ * span more than one {@link ValueGroup} and only groups that can be compared with range predicates are described,
+ * see {@link #describes(ValueGroup)}.
+ * <p>
+ * All selectivities are relative to the number of entries in the index.
+ */
+public final class PropertyHistogram {
+    public static final int MAX_BUCKETS = 64;
+    public static final int MAX_COMMON_VALUES = 16;
+    /**
+     * Text bounds and common values are limited in length to keep the histogram small, longer bounds are truncated.
+     */
+    static final int MAX_TEXT_LENGTH = 32;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final double PARTIAL_BUCKET_OVERLAP = 0.5;
+
+    private final long indexEntries;
+    private final Value[] commonValues;
+    private final long[] commonCounts;
+    private final Value[] lowerBounds;
+    private final Value[] upperBounds;
+    private final long[] bucketCounts;
+    private final long[] bucketDistinctValues;
+
+    private PropertyHistogram(
+            long indexEntries,
+            Value[] commonValues,
+            long[] commonCounts,
+            Value[] lowerBounds,
+            Value[] upperBounds,
+            long[] bucketCounts,
+            long[] bucketDistinctValues) {
+        this.indexEntries = indexEntries;
+        this.commonValues = commonValues;
+        this.commonCounts = commonCounts;
+        this.lowerBounds = lowerBounds;
+        this.upperBounds = upperBounds;
+        this.bucketCounts = bucketCounts;
+        this.bucketDistinctValues = bucketDistinctValues;
+    }
+
+    public static boolean describes(ValueGroup group) {
+        return switch (group) {
+            case NUMBER, TEXT, BOOLEAN, DATE, LOCAL_DATE_TIME, ZONED_DATE_TIME, LOCAL_TIME, ZONED_TIME -> true;
+            default -> false;
+        };
+    }
+
+    public long indexEntries() {
+        return indexEntries;
+    }
+
+    public int numberOfCommonValues() {
+        return commonValues.length;
+    }
+
+    public int numberOfBuckets() {
+        return bucketCounts.length;
+    }
+
+    /**
+     * @return the fraction of index entries having the given value, or empty if values of this type are not described.
+     */
+    public OptionalDouble equalitySelectivity(Value value) {
+        if (indexEntries == 0 || !describes(value.valueGroup())) {
+            return OptionalDouble.empty();
+        }
+        int common = Arrays.binarySearch(commonValues, value, Values.COMPARATOR);
+        if (common >= 0) {
+            return OptionalDouble.of(fraction(commonCounts[common]));
+        }
+        int bucket = bucketContaining(value);
+        if (bucket >= 0 && bucketDistinctValues[bucket] > 0) {
+            return OptionalDouble.of(fraction((double) bucketCounts[bucket] / bucketDistinctValues[bucket]));
+        }
+        return OptionalDouble.of(fraction(0));
+    }
+
+    /**
+     * @param lower lower bound, or {@code null} if unbounded.
+     * @param upper upper bound, or {@code null} if unbounded.
+     * @return the fraction of index entries within the given range, or empty if values of this type are not described.
+     */
+    public OptionalDouble rangeSelectivity(Value lower, boolean lowerInclusive, Value upper, boolean upperInclusive) {
+        if (indexEntries == 0 || (lower == null && upper == null)) {
+            return OptionalDouble.empty();
+        }
+        ValueGroup group = lower != null ? lower.valueGroup() : upper.valueGroup();
+        if (!describes(group) || (lower != null && upper != null && upper.valueGroup() != group)) {
+            return OptionalDouble.empty();
+        }
+
+        double matching = 0;
+        for (int i = 0; i < commonValues.length; i++) {
+            Value value = commonValues[i];
+            if (value.valueGroup() == group
+                    && isAbove(value, lower, lowerInclusive)
+                    && isBelow(value, upper, upperInclusive)) {
+                matching += commonCounts[i];
+            }
+        }
+        for (int i = 0; i < bucketCounts.length; i++) {
+            if (lowerBounds[i].valueGroup() == group) {
+                matching += bucketCounts[i] * overlap(i, lower, lowerInclusive, upper, upperInclusive);
+            }
+        }
+        return OptionalDouble.of(fraction(matching));
+    }
+
+    /**
+     * @return the expected fraction of index entries matching an equality predicate whose value is unknown, assuming
+     * that the value is drawn from the indexed values. This is higher than {@code 1 / distinct values} on skewed data.
+     */
+    public double averageEqualitySelectivity() {
+        if (indexEntries == 0) {
+            return 0;
+        }
+        double sumOfSquares = 0;
+        for (long count : commonCounts) {
+            sumOfSquares += (double) count * count;
+        }
+        for (int i = 0; i < bucketCounts.length; i++) {
+            if (bucketDistinctValues[i] > 0) {
+                sumOfSquares += (double) bucketCounts[i] * bucketCounts[i] / bucketDistinctValues[i];
+            }
+        }
+        return sumOfSquares / ((double) indexEntries * indexEntries);
+    }
+
+    /**
+     * Never estimate less than a single entry, the histogram is only refreshed when the index is sampled.
+     */
+    private double fraction(double entries) {
+        return Math.min(1.0, Math.max(entries, 1) / indexEntries);
+    }
+
+    private int bucketContaining(Value value) {
+        int low = 0;
+        int high = upperBounds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Values.COMPARATOR.compare(upperBounds[mid], value) < 0) {
+                low = mid + 1;
+            } else if (Values.COMPARATOR.compare(lowerBounds[mid], value) > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private double overlap(int bucket, Value lower, boolean lowerInclusive, Value upper, boolean upperInclusive) {
+        Value low = lowerBounds[bucket];
+        Value high = upperBounds[bucket];
+        if (!isAbove(high, lower, lowerInclusive) || !isBelow(low, upper, upperInclusive)) {
+            return 0;
+        }
+        boolean coversLow = isAbove(low, lower, lowerInclusive);
+        boolean coversHigh = isBelow(high, upper, upperInclusive);
+        if (coversLow && coversHigh) {
+            return 1;
+        }
+        if (low instanceof NumberValue lowNumber && high instanceof NumberValue highNumber) {
+            double from = lowNumber.doubleValue();
+            double to = highNumber.doubleValue();
+            double width = to - from;
+            if (width > 0 && Double.isFinite(width)) {
+                double start = coversLow ? from : ((NumberValue) lower).doubleValue();
+                double end = coversHigh ? to : ((NumberValue) upper).doubleValue();
+                return Math.min(1, Math.max(0, (end - start) / width));
+            }
+        }
+        return PARTIAL_BUCKET_OVERLAP;
+    }
+
+    private static boolean isAbove(Value value, Value lower, boolean inclusive) {
+        if (lower == null) {
+            return true;
+        }
+        int compare = Values.COMPARATOR.compare(value, lower);
+        return compare > 0 || (compare == 0 && inclusive);
+    }
+
+    private static boolean isBelow(Value value, Value upper, boolean inclusive) {
+        if (upper == null) {
+            return true;
+        }
+        int compare = Values.COMPARATOR.compare(value, upper);
+        return compare < 0 || (compare == 0 && inclusive);
+    }
+
+    /**
+     * @return a coarser histogram where pairs of adjacent buckets are merged, or this histogram if no buckets can be
+     * merged because they all describe different value groups.
+     */
+    public PropertyHistogram mergeBuckets() {
+        List<Integer> merged = new ArrayList<>();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            merged.add(i);
+            if (i + 1 < bucketCounts.length && lowerBounds[i].valueGroup() == lowerBounds[i + 1].valueGroup()) {
+                i++;
+            }
+        }
+        if (merged.size() == bucketCounts.length) {
+            return this;
+        }
+        int numberOfBuckets = merged.size();
+        Value[] mergedLowerBounds = new Value[numberOfBuckets];
+        Value[] mergedUpperBounds = new Value[numberOfBuckets];
+        long[] mergedCounts = new long[numberOfBuckets];
+        long[] mergedDistinctValues = new long[numberOfBuckets];
+        for (int i = 0; i < numberOfBuckets; i++) {
+            int first = merged.get(i);
+            int last = i + 1 < numberOfBuckets ? merged.get(i + 1) - 1 : bucketCounts.length - 1;
+            mergedLowerBounds[i] = lowerBounds[first];
+            mergedUpperBounds[i] = upperBounds[last];
+            for (int bucket = first; bucket <= last; bucket++) {
+                mergedCounts[i] += bucketCounts[bucket];
+                mergedDistinctValues[i] += bucketDistinctValues[bucket];
+            }
+        }
+        return new PropertyHistogram(
+                indexEntries,
+                commonValues,
+                commonCounts,
+                mergedLowerBounds,
+                mergedUpperBounds,
+                mergedCounts,
+                mergedDistinctValues);
+    }
+
+    public byte[] toBytes() {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes);
+                var valueWriter = new ValueByteBufferCodec.Writer(64, new HeapAllocator())) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(indexEntries);
+            out.writeInt(commonValues.length);
+            for (int i = 0; i < commonValues.length; i++) {
+                out.writeLong(commonCounts[i]);
+                writeValue(out, valueWriter, commonValues[i]);
+            }
+            out.writeInt(bucketCounts.length);
+            for (int i = 0; i < bucketCounts.length; i++) {
+                out.writeLong(bucketCounts[i]);
+                out.writeLong(bucketDistinctValues[i]);
+                writeValue(out, valueWriter, lowerBounds[i]);
+                writeValue(out, valueWriter, upperBounds[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the histogram written by {@link #toBytes()}, or {@code null} if it was written in an unknown format.
+     */
+    public static PropertyHistogram fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            return null;
+        }
+        long indexEntries = buffer.getLong();
+        int numberOfCommonValues = buffer.getInt();
+        Value[] commonValues = new Value[numberOfCommonValues];
+        long[] commonCounts = new long[numberOfCommonValues];
+        for (int i = 0; i < numberOfCommonValues; i++) {
+            commonCounts[i] = buffer.getLong();
+            commonValues[i] = readValue(buffer);
+        }
+        int numberOfBuckets = buffer.getInt();
+        Value[] lowerBounds = new Value[numberOfBuckets];
+        Value[] upperBounds = new Value[numberOfBuckets];
+        long[] bucketCounts = new long[numberOfBuckets];
+        long[] bucketDistinctValues = new long[numberOfBuckets];
+        for (int i = 0; i < numberOfBuckets; i++) {
+            bucketCounts[i] = buffer.getLong();
+            bucketDistinctValues[i] = buffer.getLong();
+            lowerBounds[i] = readValue(buffer);
+            upperBounds[i] = readValue(buffer);
+        }
+        return new PropertyHistogram(
+                indexEntries, commonValues, commonCounts, lowerBounds, upperBounds, bucketCounts, bucketDistinctValues);
+    }
+
+    private static void writeValue(DataOutputStream out, ValueByteBufferCodec.Writer valueWriter, Value value)
+            throws IOException {
+        ByteBuffer buffer = valueWriter.write(value);
+        out.writeInt(buffer.remaining());
+        out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+
+    private static Value readValue(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        Value value = ValueByteBufferCodec.readValue(buffer.slice(buffer.position(), length));
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PropertyHistogram that = (PropertyHistogram) o;
+        return indexEntries == that.indexEntries
+                && Arrays.equals(commonValues, that.commonValues)
+                && Arrays.equals(commonCounts, that.commonCounts)
+                && Arrays.equals(lowerBounds, that.lowerBounds)
+                && Arrays.equals(upperBounds, that.upperBounds)
+                && Arrays.equals(bucketCounts, that.bucketCounts)
+                && Arrays.equals(bucketDistinctValues, that.bucketDistinctValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(indexEntries, Arrays.hashCode(upperBounds), Arrays.hashCode(bucketCounts));
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyHistogram{" + "indexEntries="
+                + indexEntries + ", commonValues="
+                + commonValues.length + ", buckets="
+                + bucketCounts.length + '}';
+    }
+
+    /**
+     * Builds a histogram from the distinct values of an index, which must be added in {@link Values#COMPARATOR} order.
+     * The bucket depth isn't known up front, instead buckets are pairwise merged and the depth doubled whenever
+     * there are too many of them.
+     */
+    public static final class Builder {
+        private final List<Bucket> buckets = new ArrayList<>();
+        private final PriorityQueue<CommonValue> commonValues =
+                new PriorityQueue<>(MAX_COMMON_VALUES + 1, comparingLong(CommonValue::count));
+        private Bucket current;
+        private long depth = 1;
+        private long indexEntries;
+
+        /**
+         * @param value a distinct value of the index, greater than all previously added values.
+         * @param count number of index entries having this value.
+         */
+        public void add(Value value, long count) {
+            indexEntries += count;
+            ValueGroup group = value.valueGroup();
+            if (!describes(group)) {
+                closeCurrent();
+                return;
+            }
+            if (count > 1 && !isLongText(value)) {
+                commonValues.add(new CommonValue(value, count));
+                if (commonValues.size() > MAX_COMMON_VALUES) {
+                    commonValues.poll();
+                }
+            }
+            if (current != null && current.lower.valueGroup() != group) {
+                closeCurrent();
+            }
+            if (current == null) {
+                current = new Bucket(value);
+            }
+            current.upper = value;
+            current.count += count;
+            current.distinctValues++;
+            if (current.count >= depth) {
+                closeCurrent();
+            }
+        }
+
+        public PropertyHistogram build() {
+            closeCurrent();
+            while (buckets.size() > MAX_BUCKETS) {
+                mergeBuckets();
+            }
+
+            // The most common values are only kept apart if they stand out from the other values in their bucket
+            List<CommonValue> kept = new ArrayList<>(commonValues.size());
+            for (CommonValue common : commonValues) {
+                Bucket bucket = bucketContaining(common.value);
+                if (bucket != null
+                        && bucket.distinctValues > 1
+                        && common.count * bucket.distinctValues > bucket.count) {
+                    bucket.count -= common.count;
+                    bucket.distinctValues--;
+                    kept.add(common);
+                }
+            }
+            kept.sort((a, b) -> Values.COMPARATOR.compare(a.value, b.value));
+
+            int numberOfBuckets = buckets.size();
+            Value[] lowerBounds = new Value[numberOfBuckets];
+            Value[] upperBounds = new Value[numberOfBuckets];
+            long[] bucketCounts = new long[numberOfBuckets];
+            long[] bucketDistinctValues = new long[numberOfBuckets];
+            for (int i = 0; i < numberOfBuckets; i++) {
+                Bucket bucket = buckets.get(i);
+                lowerBounds[i] = truncate(bucket.lower);
+                upperBounds[i] = truncate(bucket.upper);
+                bucketCounts[i] = bucket.count;
+                bucketDistinctValues[i] = bucket.distinctValues;
+            }
+            return new PropertyHistogram(
+                    indexEntries,
+                    kept.stream().map(CommonValue::value).toArray(Value[]::new),
+                    kept.stream().mapToLong(CommonValue::count).toArray(),
+                    lowerBounds,
+                    upperBounds,
+                    bucketCounts,
+                    bucketDistinctValues);
+        }
+
+        private void closeCurrent() {
+            if (current != null) {
+                buckets.add(current);
+                current = null;
+                if (buckets.size() >= 2 * MAX_BUCKETS) {
+                    mergeBuckets();
+                    depth *= 2;
+                }
+            }
+        }
+
+        private void mergeBuckets() {
+            List<Bucket> merged = new ArrayList<>(buckets.size() / 2 + 1);
+            for (int i = 0; i < buckets.size(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (i + 1 < buckets.size()) {
+                    Bucket next = buckets.get(i + 1);
+                    if (next.lower.valueGroup() == bucket.lower.valueGroup()) {
+                        bucket.upper = next.upper;
+                        bucket.count += next.count;
+                        bucket.distinctValues += next.distinctValues;
+                        i++;
+                    }
+                }
+                merged.add(bucket);
+            }
+            buckets.clear();
+            buckets.addAll(merged);
+        }
+
+        private Bucket bucketContaining(Value value) {
+            for (Bucket bucket : buckets) {
+                if (Values.COMPARATOR.compare(bucket.lower, value) <= 0
+                        && Values.COMPARATOR.compare(value, bucket.upper) <= 0) {
+                    return bucket;
+                }
+            }
+            return null;
+        }
+
+        private static boolean isLongText(Value value) {
+            return value instanceof TextValue text && text.length() > MAX_TEXT_LENGTH;
+        }
+
+        private static Value truncate(Value value) {
+            return isLongText(value) ? ((TextValue) value).substring(0, MAX_TEXT_LENGTH) : value;
+        }
+    }
+
+    private static final class Bucket {
+        private final Value lower;
+        private Value upper;
+        private long count;
+        private long distinctValues;
+
+        private Bucket(Value lower) {
+            this.lower = lower;
+        }
+    }
+
+    private record CommonValue(Value value, long count) {}
+
+    private static class HeapAllocator implements ValueByteBufferCodec.ByteBufferAllocator {
+        @Override
+        public ByteBuffer allocate(long capacity) {
+            return ByteBuffer.allocate(Math.toIntExact(capacity));
+        }
+
+        @Override
+        public void free() {}
+    }
+}
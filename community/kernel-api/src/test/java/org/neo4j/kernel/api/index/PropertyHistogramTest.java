@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.Values;
+
+class PropertyHistogramTest {
+    @Test
+    void shouldEstimateRangesOfUniformValues() {
+        var builder = new PropertyHistogram.Builder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.add(Values.intValue(i), 1);
+        }
+        var histogram = builder.build();
+
+        assertEquals(10_000, histogram.indexEntries());
+        assertTrue(histogram.numberOfBuckets() <= PropertyHistogram.MAX_BUCKETS);
+        assertEquals(0, histogram.numberOfCommonValues());
+        assertEquals(
+                0.25,
+                histogram
+                        .rangeSelectivity(null, false, Values.intValue(2_500), false)
+                        .getAsDouble(),
+                0.01);
+        assertEquals(
+                0.1,
+                histogram
+                        .rangeSelectivity(Values.intValue(1_000), true, Values.intValue(2_000), false)
+                        .getAsDouble(),
+                0.01);
+        assertEquals(
+                1.0 / 10_000,
+                histogram
+                        .rangeSelectivity(Values.intValue(20_000), true, null, false)
+                        .getAsDouble());
+        assertEquals(
+                1.0 / 10_000, histogram.equalitySelectivity(Values.intValue(42)).getAsDouble(), 1e-6);
+    }
+
+    @Test
+    void shouldKeepMostCommonValuesApart() {
+        var builder = new PropertyHistogram.Builder();
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(Values.intValue(i), i == 7 ? 5_000 : 1);
+        }
+        var histogram = builder.build();
+
+        assertEquals(1, histogram.numberOfCommonValues());
+        assertEquals(
+                5_000.0 / 5_999,
+                histogram.equalitySelectivity(Values.intValue(7)).getAsDouble(),
+                1e-9);
+        assertEquals(
+                5_000.0 / 5_999,
+                histogram.equalitySelectivity(Values.doubleValue(7.0)).getAsDouble(),
+                1e-9);
+        assertEquals(
+                1.0 / 5_999, histogram.equalitySelectivity(Values.intValue(500)).getAsDouble(), 1e-6);
+        assertEquals(
+                5_010.0 / 5_999,
+                histogram
+                        .rangeSelectivity(Values.intValue(0), true, Values.intValue(10), true)
+                        .getAsDouble(),
+                2.0 / 5_999);
+        assertTrue(histogram.averageEqualitySelectivity() > 0.5);
+    }
+
+    @Test
+    void shouldOnlyDescribeComparableValueGroups() {
+        // Value groups in index order
+        var builder = new PropertyHistogram.Builder();
+        builder.add(Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 1, 2), 100);
+        for (int i = 0; i < 100; i++) {
+            builder.add(Values.stringValue(String.format("v%03d", i)), 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            builder.add(Values.intValue(i), 1);
+        }
+        var histogram = builder.build();
+
+        assertEquals(300, histogram.indexEntries());
+        assertFalse(histogram
+                .equalitySelectivity(Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 1, 2))
+                .isPresent());
+        assertFalse(histogram
+                .rangeSelectivity(Values.intValue(1), true, Values.stringValue("a"), true)
+                .isPresent());
+        assertEquals(
+                100.0 / 300,
+                histogram
+                        .rangeSelectivity(Values.stringValue(""), true, null, false)
+                        .getAsDouble(),
+                1e-9);
+        assertEquals(
+                100.0 / 300,
+                histogram
+                        .rangeSelectivity(null, false, Values.intValue(1_000), true)
+                        .getAsDouble(),
+                1e-9);
+    }
+
+    @Test
+    void shouldRoundTripThroughBytes() {
+        var builder = new PropertyHistogram.Builder();
+        builder.add(Values.stringValue("a".repeat(1_000)), 3);
+        builder.add(Values.stringValue("b"), 4);
+        builder.add(Values.booleanValue(false), 10);
+        builder.add(Values.booleanValue(true), 30);
+        for (int i = 0; i < 500; i++) {
+            builder.add(Values.longValue(i * 3L), 1 + i % 5);
+        }
+        var histogram = builder.build();
+
+        var bytes = histogram.toBytes();
+        assertEquals(histogram, PropertyHistogram.fromBytes(bytes));
+        assertTrue(bytes.length < 4_000);
+    }
+
+    @Test
+    void shouldMergeBucketsWithinValueGroups() {
+        var builder = new PropertyHistogram.Builder();
+        builder.add(Values.booleanValue(true), 10);
+        for (int i = 0; i < 10_000; i++) {
+            builder.add(Values.intValue(i), 1);
+        }
+        var histogram = builder.build();
+
+        var merged = histogram.mergeBuckets();
+
+        assertEquals(histogram.indexEntries(), merged.indexEntries());
+        assertTrue(merged.numberOfBuckets() < histogram.numberOfBuckets());
+        assertEquals(
+                0.5,
+                merged.rangeSelectivity(Values.intValue(0), true, Values.intValue(5_000), false)
+                        .getAsDouble(),
+                0.01);
+        assertEquals(
+                10.0 / 10_010,
+                merged.equalitySelectivity(Values.booleanValue(true)).getAsDouble(),
+                1e-6);
+
+        var single = histogram;
+        while (single.mergeBuckets() != single) {
+            single = single.mergeBuckets();
+        }
+        assertEquals(2, single.numberOfBuckets());
+    }
+}
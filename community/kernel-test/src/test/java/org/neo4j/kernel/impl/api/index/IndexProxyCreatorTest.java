@@ -37,6 +37,7 @@ import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.StorageEngineIndexingBehaviour;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.impl.api.index.sampling.IndexUpdateSketches;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.index.DatabaseIndexStats;
 import org.neo4j.logging.InternalLogProvider;
@@ -141,7 +142,8 @@ class IndexProxyCreatorTest {
                 mock(InternalLogProvider.class),
                 immutable.empty(),
                 Clock.systemUTC(),
-                StorageEngineIndexingBehaviour.EMPTY);
+                StorageEngineIndexingBehaviour.EMPTY,
+                IndexUpdateSketches.DISABLED);
     }
 
     private IndexPopulationJob newJob() {
@@ -2089,6 +2089,8 @@ class IndexingServiceTest {
     }
 
     private IndexingService createIndexServiceWithCustomIndexMap(IndexMapReference indexMapReference) {
+        var kernelVersionProvider = mock(KernelVersionProvider.class);
+        when(kernelVersionProvider.kernelVersion()).thenReturn(KernelVersion.getLatestVersion(config));
         return new IndexingService(
                 storageEngine,
                 mock(IndexProxyCreator.class),
@@ -2108,7 +2110,7 @@ class IndexingServiceTest {
                 "",
                 writable(),
                 config,
-                mock(KernelVersionProvider.class),
+                kernelVersionProvider,
                 new DefaultFileSystemAbstraction(),
                 EMPTY_VISIBILITY_PROVIDER);
     }
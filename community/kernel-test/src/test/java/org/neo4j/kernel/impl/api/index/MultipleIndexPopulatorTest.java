@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -46,13 +47,16 @@ import static org.neo4j.values.storable.Values.intValue;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
@@ -110,7 +114,11 @@ class MultipleIndexPopulatorTest {
                 .thenReturn(actualStoreScan);
         schemaState = mock(SchemaState.class);
         tokens = new InMemoryTokens();
-        multipleIndexPopulator = new MultipleIndexPopulator(
+        multipleIndexPopulator = newMultipleIndexPopulator(Config.defaults());
+    }
+
+    private MultipleIndexPopulator newMultipleIndexPopulator(Config config) {
+        return new MultipleIndexPopulator(
                 indexStoreView,
                 NullLogProvider.getInstance(),
                 EntityType.NODE,
@@ -121,7 +129,7 @@ class MultipleIndexPopulatorTest {
                 INSTANCE,
                 "",
                 AUTH_DISABLED,
-                Config.defaults());
+                config);
     }
 
     @Test
@@ -364,6 +372,48 @@ class MultipleIndexPopulatorTest {
         assertFalse(multipleIndexPopulator.hasPopulators());
     }
 
+    @Test
+    void shouldCompleteScansOfMultiplePopulationsInParallel() throws Exception {
+        multipleIndexPopulator = newMultipleIndexPopulator(
+                Config.defaults(GraphDatabaseInternalSettings.index_population_completion_parallelism, 2));
+        // Neither population can complete its scan unless the other one is completing at the same time
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        IndexPopulator indexPopulator1 = createIndexPopulator();
+        IndexPopulator indexPopulator2 = createIndexPopulator();
+        for (IndexPopulator indexPopulator : List.of(indexPopulator1, indexPopulator2)) {
+            doAnswer(invocation -> barrier.await(1, MINUTES))
+                    .when(indexPopulator)
+                    .scanCompleted(any(), any(), any());
+        }
+
+        FlippableIndexProxy flipper1 = addPopulator(indexPopulator1, 1).flipper;
+        FlippableIndexProxy flipper2 = addPopulator(indexPopulator2, 2).flipper;
+
+        multipleIndexPopulator.flipAfterStoreScan(NULL_CONTEXT);
+
+        verify(flipper1).flip(any(Callable.class));
+        verify(flipper2).flip(any(Callable.class));
+        assertFalse(multipleIndexPopulator.hasPopulators());
+    }
+
+    @Test
+    void shouldOnlyCancelFailedPopulationWhenCompletingScansInParallel() throws Exception {
+        multipleIndexPopulator = newMultipleIndexPopulator(
+                Config.defaults(GraphDatabaseInternalSettings.index_population_completion_parallelism, 2));
+        IndexPopulator failingPopulator = createIndexPopulator();
+        IndexPopulator indexPopulator = createIndexPopulator();
+        doThrow(getPopulatorException()).when(failingPopulator).scanCompleted(any(), any(), any());
+
+        IndexPopulation failingPopulation = addPopulator(failingPopulator, 1);
+        IndexPopulation population = addPopulator(indexPopulator, 2);
+
+        multipleIndexPopulator.flipAfterStoreScan(NULL_CONTEXT);
+
+        checkPopulatorFailure(failingPopulator);
+        verify(failingPopulation.flipper, never()).flip(any(Callable.class));
+        verify(population.flipper).flip(any(Callable.class));
+    }
+
     @Test
     void testStopPopulation() throws Exception {
         IndexPopulator indexPopulator1 = createIndexPopulator();
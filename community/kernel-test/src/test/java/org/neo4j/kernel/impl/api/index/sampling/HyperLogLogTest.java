@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class HyperLogLogTest {
+    @Inject
+    private RandomSupport random;
+
+    @Test
+    void shouldEstimateZeroWhenEmpty() {
+        assertThat(new HyperLogLog(12).estimate()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 100_000, 1_000_000})
+    void shouldEstimateDistinctValues(int distinct) {
+        var sketch = new HyperLogLog(12);
+        for (int round = 0; round < 3; round++) {
+            for (long i = 0; i < distinct; i++) {
+                sketch.add(hash(i));
+            }
+        }
+
+        // Standard error is about 1.6% at this precision, allow for a few of those
+        assertThat(sketch.estimate()).isCloseTo(distinct, withPercentage(8));
+    }
+
+    @Test
+    void shouldForgetValuesWhenCleared() {
+        var sketch = new HyperLogLog(12);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(random.nextLong());
+        }
+
+        sketch.clear();
+
+        assertThat(sketch.estimate()).isZero();
+    }
+
+    @Test
+    void shouldRejectInvalidPrecision() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(19)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long hash(long value) {
+        // splitmix64 finalizer, to spread consecutive values over the whole hash space
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
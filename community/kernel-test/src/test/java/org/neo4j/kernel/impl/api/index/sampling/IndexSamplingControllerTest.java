@@ -370,6 +370,7 @@ class IndexSamplingControllerTest {
                 samplingConfig,
                 jobFactory,
                 samplingUpdatePredicate,
+                IndexUpdateSketches.DISABLED,
                 tracker,
                 snapshotProvider,
                 scheduler,
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.schema.AllIndexProviderDescriptors;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.values.storable.Values;
+
+class IndexUpdateSketchTest {
+    private final IndexDescriptor index = forSchema(forLabel(1, 2), AllIndexProviderDescriptors.UNDECIDED)
+            .withName("index")
+            .materialise(1);
+    private final IndexUpdateSketch sketch = new IndexUpdateSketch();
+
+    @Test
+    void shouldNotEstimateWithoutFullSample() {
+        sketch.include(IndexEntryUpdate.add(1, index, Values.intValue(1)));
+
+        assertThat(sketch.estimate()).isNull();
+        assertThat(sketch.drift()).isInfinite();
+    }
+
+    @Test
+    void shouldEstimateNewUniqueValuesOfUniqueIndex() {
+        sketch.fullSampleCompleted(new IndexSample(1000, 1000, 1000));
+
+        for (int i = 0; i < 200; i++) {
+            sketch.include(IndexEntryUpdate.add(1000 + i, index, Values.intValue(1000 + i)));
+        }
+
+        IndexSample estimate = sketch.estimate();
+        assertThat(sketch.drift()).isEqualTo(0.2);
+        assertThat(estimate.indexSize()).isEqualTo(1200);
+        assertThat(estimate.sampleSize()).isEqualTo(1200);
+        assertThat(estimate.uniqueValues()).isCloseTo(1200, withPercentage(2));
+    }
+
+    @Test
+    void shouldEstimateFewNewUniqueValuesOfLowCardinalityIndex() {
+        sketch.fullSampleCompleted(new IndexSample(1000, 2, 1000));
+
+        for (int i = 0; i < 200; i++) {
+            sketch.include(IndexEntryUpdate.add(1000 + i, index, Values.booleanValue(i % 2 == 0)));
+        }
+
+        IndexSample estimate = sketch.estimate();
+        assertThat(estimate.indexSize()).isEqualTo(1200);
+        assertThat(estimate.uniqueValues()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountChangesAsRemovalAndAddition() {
+        sketch.fullSampleCompleted(new IndexSample(100, 100, 100));
+
+        sketch.include(IndexEntryUpdate.change(1, index, Values.intValue(1), Values.intValue(1000)));
+        sketch.include(IndexEntryUpdate.remove(2, index, Values.intValue(2)));
+
+        IndexSample estimate = sketch.estimate();
+        assertThat(sketch.drift()).isEqualTo(0.03);
+        assertThat(estimate.indexSize()).isEqualTo(99);
+        assertThat(estimate.uniqueValues()).isEqualTo(99);
+    }
+
+    @Test
+    void shouldForgetUpdatesWhenFullSampleStarts() {
+        sketch.fullSampleCompleted(new IndexSample(100, 100, 100));
+        sketch.include(IndexEntryUpdate.add(1, index, Values.intValue(1)));
+
+        sketch.fullSampleStarted();
+
+        assertThat(sketch.estimate()).isNull();
+        sketch.fullSampleCompleted(new IndexSample(101, 101, 101));
+        assertThat(sketch.drift()).isZero();
+        assertThat(sketch.estimate()).isEqualTo(new IndexSample(101, 101, 101));
+    }
+}
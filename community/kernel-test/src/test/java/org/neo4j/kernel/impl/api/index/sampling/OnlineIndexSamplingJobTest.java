@@ -19,10 +19,12 @@
  */
 package org.neo4j.kernel.impl.api.index.sampling;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.internal.kernel.api.InternalIndexState.FAILED;
@@ -47,6 +49,8 @@ import org.neo4j.kernel.impl.api.index.IndexProxy;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.values.storable.Values;
 
 class OnlineIndexSamplingJobTest {
     private static final CursorContextFactory CONTEXT_FACTORY =
@@ -77,7 +81,14 @@ class OnlineIndexSamplingJobTest {
     void shouldSampleTheIndexAndStoreTheValueWhenTheIndexIsOnline() {
         // given
         OnlineIndexSamplingJob job = new OnlineIndexSamplingJob(
-                indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, CONTEXT_FACTORY);
+                indexId,
+                indexProxy,
+                indexStatisticsStore,
+                IndexUpdateSketches.DISABLED,
+                "Foo",
+                "Foo",
+                logProvider,
+                CONTEXT_FACTORY);
         when(indexProxy.getState()).thenReturn(ONLINE);
 
         // when
@@ -92,7 +103,14 @@ class OnlineIndexSamplingJobTest {
     void shouldSampleTheIndexButDoNotStoreTheValuesIfTheIndexIsNotOnline() {
         // given
         OnlineIndexSamplingJob job = new OnlineIndexSamplingJob(
-                indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, CONTEXT_FACTORY);
+                indexId,
+                indexProxy,
+                indexStatisticsStore,
+                IndexUpdateSketches.DISABLED,
+                "Foo",
+                "Foo",
+                logProvider,
+                CONTEXT_FACTORY);
         when(indexProxy.getState()).thenReturn(FAILED);
 
         // when
@@ -106,7 +124,14 @@ class OnlineIndexSamplingJobTest {
     void shouldNotUpdateStatisticsStoreForStoppedSamplingJob() {
         // given
         OnlineIndexSamplingJob job = new OnlineIndexSamplingJob(
-                indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, CONTEXT_FACTORY);
+                indexId,
+                indexProxy,
+                indexStatisticsStore,
+                IndexUpdateSketches.DISABLED,
+                "Foo",
+                "Foo",
+                logProvider,
+                CONTEXT_FACTORY);
         when(indexProxy.getState()).thenReturn(ONLINE);
 
         // when
@@ -117,6 +142,62 @@ class OnlineIndexSamplingJobTest {
         verifyNoMoreInteractions(indexStatisticsStore);
     }
 
+    @Test
+    void shouldStoreEstimateInsteadOfSamplingWhenUpdatesAreWithinMaxDrift() {
+        // given
+        var updateSketches = new IndexUpdateSketches(0.5);
+        var sketch = updateSketches.sketch(indexId);
+        sketch.fullSampleCompleted(sample);
+        sketch.include(IndexEntryUpdate.add(1, indexDescriptor, Values.intValue(1)));
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob(
+                indexId,
+                indexProxy,
+                indexStatisticsStore,
+                updateSketches,
+                "Foo",
+                "Foo",
+                logProvider,
+                CONTEXT_FACTORY);
+        when(indexProxy.getState()).thenReturn(ONLINE);
+
+        // when
+        job.run(new AtomicBoolean());
+
+        // then
+        verify(indexStatisticsStore)
+                .setSampleStats(indexId, new IndexSample(indexSize + 1, indexUniqueValues + 1, indexSize + 1));
+        verifyNoMoreInteractions(indexStatisticsStore);
+        verifyNoInteractions(indexSampler);
+    }
+
+    @Test
+    void shouldSampleTheIndexWhenUpdatesExceedMaxDrift() {
+        // given
+        var updateSketches = new IndexUpdateSketches(0.01);
+        var sketch = updateSketches.sketch(indexId);
+        sketch.fullSampleCompleted(sample);
+        sketch.include(IndexEntryUpdate.add(1, indexDescriptor, Values.intValue(1)));
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob(
+                indexId,
+                indexProxy,
+                indexStatisticsStore,
+                updateSketches,
+                "Foo",
+                "Foo",
+                logProvider,
+                CONTEXT_FACTORY);
+        when(indexProxy.getState()).thenReturn(ONLINE);
+
+        // when
+        job.run(new AtomicBoolean());
+
+        // then
+        verify(indexStatisticsStore).setSampleStats(indexId, sample);
+        verifyNoMoreInteractions(indexStatisticsStore);
+        assertThat(sketch.drift()).isZero();
+        assertThat(sketch.estimate()).isEqualTo(sample);
+    }
+
     @Test
     void usePageCursorToTraceIndexSampling() throws IndexNotFoundKernelException {
         var pageCacheTracer = mock(PageCacheTracer.class);
@@ -127,6 +208,7 @@ class OnlineIndexSamplingJobTest {
                 indexId,
                 indexProxy,
                 indexStatisticsStore,
+                IndexUpdateSketches.DISABLED,
                 "Foo",
                 "Foo",
                 logProvider,
@@ -54,12 +54,14 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexUsageStats;
+import org.neo4j.kernel.api.index.PropertyHistogram;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.Values;
 
 @EphemeralPageCacheExtension
 @ExtendWith(RandomExtension.class)
@@ -209,6 +211,89 @@ class IndexStatisticsStoreTest {
         assertEquals(sample2, store.indexSample(indexId2));
     }
 
+    @Test
+    void shouldStoreHistogramOnCheckpoint() throws IOException {
+        // given
+        long indexId = 7;
+        var builder = new PropertyHistogram.Builder();
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(Values.longValue(i), 1 + i % 7);
+        }
+        var sample = new IndexSample(4_000, 1_000, 4_000, 0, builder.build());
+        store.setSampleStats(indexId, sample);
+        store.setSampleStats(indexId + 1, new IndexSample(10, 5, 10));
+        store.incrementIndexUpdates(indexId, 3);
+
+        // when
+        restartStore();
+
+        // then
+        assertThat(store.indexSample(indexId)).isEqualTo(new IndexSample(4_000, 1_000, 4_000, 3, sample.histogram()));
+        assertThat(store.indexSample(indexId + 1).histogram()).isNull();
+        var visitedSamples = new MutableLong();
+        store.visit(
+                new IndexStatisticsVisitor() {
+                    @Override
+                    public void visitSampleStatistics(
+                            long indexId, long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize) {
+                        visitedSamples.increment();
+                    }
+
+                    @Override
+                    public void visitUsageStatistics(
+                            long indexId, long lastUsedTime, long queryCount, long trackedSinceTime) {}
+                },
+                CursorContext.NULL_CONTEXT);
+        assertThat(visitedSamples.longValue()).isEqualTo(2);
+
+        // and when
+        store.removeIndex(indexId);
+        restartStore();
+
+        // then
+        assertThat(store.indexSample(indexId).histogram()).isNull();
+    }
+
+    @Test
+    void shouldNotStoreHistogramOnCheckpointExcludingHistograms() throws IOException {
+        // given
+        long indexId = 7;
+        var builder = new PropertyHistogram.Builder();
+        for (int i = 0; i < 100; i++) {
+            builder.add(Values.longValue(i), 1 + i % 7);
+        }
+        var sample = new IndexSample(400, 100, 400, 0, builder.build());
+        store.setSampleStats(indexId, sample);
+
+        // when
+        store.checkpoint(FileFlushEvent.NULL, CursorContext.NULL_CONTEXT, false);
+
+        // then
+        assertThat(store.indexSample(indexId).histogram()).isEqualTo(sample.histogram());
+        var visitedTypes = new MutableLong();
+        store.visit(
+                new IndexStatisticsVisitor() {
+                    @Override
+                    public void visitSampleStatistics(
+                            long indexId, long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize) {
+                        visitedTypes.increment();
+                    }
+
+                    @Override
+                    public void visitUsageStatistics(
+                            long indexId, long lastUsedTime, long queryCount, long trackedSinceTime) {
+                        visitedTypes.increment();
+                    }
+                },
+                CursorContext.NULL_CONTEXT);
+        assertThat(visitedTypes.longValue()).isEqualTo(1);
+        lifeSupport.shutdown();
+        lifeSupport = new LifeSupport();
+        store = openStore("stats");
+        lifeSupport.start();
+        assertThat(store.indexSample(indexId)).isEqualTo(new IndexSample(400, 100, 400, 0));
+    }
+
     private void restartStore() throws IOException {
         store.checkpoint(FileFlushEvent.NULL, CursorContext.NULL_CONTEXT);
         lifeSupport.shutdown();
@@ -217,6 +302,27 @@ class IndexStatisticsStoreTest {
         lifeSupport.start();
     }
 
+    @Test
+    void shouldStoreLargeHistogramWithFewerBuckets() throws IOException {
+        // given
+        long indexId = 7;
+        var builder = new PropertyHistogram.Builder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.add(Values.stringValue(String.format("%032d", i)), 1);
+        }
+        var histogram = builder.build();
+        store.setSampleStats(indexId, new IndexSample(10_000, 10_000, 10_000, 0, histogram));
+
+        // when
+        restartStore();
+
+        // then
+        var restored = store.indexSample(indexId).histogram();
+        assertThat(restored).isNotNull();
+        assertThat(restored.indexEntries()).isEqualTo(histogram.indexEntries());
+        assertThat(restored.numberOfBuckets()).isLessThan(histogram.numberOfBuckets());
+    }
+
     @Test
     void shouldAllowMultipleThreadsIncrementIndexUpdates() throws Throwable {
         // given
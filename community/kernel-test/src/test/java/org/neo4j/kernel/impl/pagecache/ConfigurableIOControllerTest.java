@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.check_point_throughput_limit;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.time.FakeClock;
+
+class ConfigurableIOControllerTest {
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    void shouldNotLimitWhenDisabled() {
+        var controller = new ConfigurableIOController(Config.defaults(check_point_iops_limit, -1), clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        for (int i = 0; i < 10; i++) {
+            controller.maybeLimitIO(1_000_000, flushEvent);
+        }
+
+        assertThat(controller.isEnabled()).isFalse();
+        assertThat(controller.configuredLimit()).isEqualTo(-1);
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldNotLimitUnlessConfigured() {
+        var controller = new ConfigurableIOController(Config.defaults(), clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        controller.maybeLimitIO(1_000_000, flushEvent);
+
+        assertThat(controller.isEnabled()).isFalse();
+        assertThat(controller.configuredLimit()).isEqualTo(-1);
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldLimitOnceLimitIsSetAtRuntime() {
+        var config = Config.defaults();
+        var controller = new ConfigurableIOController(config, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        config.setDynamic(check_point_iops_limit, 100, getClass().getSimpleName());
+        controller.maybeLimitIO(11, flushEvent);
+
+        assertThat(controller.configuredLimit()).isEqualTo(100);
+        verify(flushEvent).throttle(eq(11L), anyLong());
+    }
+
+    @Test
+    void shouldPauseWhenIOBudgetIsExhausted() {
+        var controller = new ConfigurableIOController(Config.defaults(check_point_iops_limit, 100), clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        // The bucket starts out with a tenth of a second worth of IOs.
+        controller.maybeLimitIO(10, flushEvent);
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+
+        controller.maybeLimitIO(1, flushEvent);
+        verify(flushEvent).throttle(eq(1L), anyLong());
+        assertThat(controller.configuredLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldRefillIOBudgetOverTime() {
+        var controller = new ConfigurableIOController(Config.defaults(check_point_iops_limit, 100), clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        controller.maybeLimitIO(10, flushEvent);
+        clock.forward(100, TimeUnit.MILLISECONDS);
+        controller.maybeLimitIO(10, flushEvent);
+
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldNotDelayFlushingForReadFaults() {
+        var controller = new ConfigurableIOController(Config.defaults(check_point_iops_limit, 100), clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        // Page faults of a read heavy load, reported by the swappers, far beyond the IO budget.
+        controller.reportIO(1_000_000);
+        controller.maybeLimitIO(10, flushEvent);
+        controller.reportIO(1_000_000);
+        clock.forward(100, TimeUnit.MILLISECONDS);
+        controller.maybeLimitIO(10, flushEvent);
+
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldLimitThroughput() {
+        var config = Config.newBuilder()
+                .set(check_point_iops_limit, -1)
+                .set(check_point_throughput_limit, ByteUnit.mebiBytes(1))
+                .build();
+        var controller = new ConfigurableIOController(config, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+        when(flushEvent.localBytesWritten()).thenReturn(0L, ByteUnit.kibiBytes(160));
+
+        assertThat(controller.isEnabled()).isTrue();
+        controller.maybeLimitIO(1, flushEvent);
+        controller.maybeLimitIO(1, flushEvent);
+
+        verify(flushEvent).throttle(eq(1L), anyLong());
+    }
+
+    @Test
+    void shouldFollowDynamicLimitChanges() {
+        var config = Config.defaults(check_point_iops_limit, 100);
+        var controller = new ConfigurableIOController(config, clock);
+        var flushEvent = mock(FileFlushEvent.class);
+
+        config.setDynamic(check_point_iops_limit, -1, getClass().getSimpleName());
+        controller.maybeLimitIO(1_000_000, flushEvent);
+
+        assertThat(controller.isEnabled()).isFalse();
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldLiftLimitsWhenFlushingIsOverdue() {
+        var controller = new ConfigurableIOController(Config.defaults(check_point_iops_limit, 100), clock);
+        var flushEvent = mock(FileFlushEvent.class);
+        controller.setUrgencySupplier(() -> 1.0);
+
+        controller.maybeLimitIO(1_000_000, flushEvent);
+
+        verify(flushEvent, never()).throttle(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldRelaxLimitsWithGrowingUrgency() {
+        assertThat(ConfigurableIOController.relaxation(0)).isEqualTo(1);
+        assertThat(ConfigurableIOController.relaxation(0.5)).isEqualTo(1);
+        assertThat(ConfigurableIOController.relaxation(0.75)).isEqualTo(2);
+        assertThat(ConfigurableIOController.relaxation(0.9)).isGreaterThan(4.9);
+        assertThat(ConfigurableIOController.relaxation(1)).isEqualTo(0);
+    }
+}
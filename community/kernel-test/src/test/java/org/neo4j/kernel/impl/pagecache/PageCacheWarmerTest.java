@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.io.pagecache.context.CursorContextFactory.NULL_CONTEXT_FACTORY;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralTestDirectoryExtension
+class PageCacheWarmerTest {
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    private JobScheduler jobScheduler;
+    private DatabaseLayout databaseLayout;
+    private Path storeFile;
+
+    @BeforeEach
+    void setUp() {
+        jobScheduler = new ThreadPoolJobScheduler();
+        databaseLayout = DatabaseLayout.ofFlat(testDirectory.homePath());
+        storeFile = testDirectory.createFile("store");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldReloadProfiledPagesAfterRestart() throws IOException {
+        try (PageCache pageCache = StandalonePageCacheFactory.createPageCache(fs, jobScheduler);
+                PagedFile pagedFile = pageCache.map(storeFile, pageCache.pageSize(), "neo4j")) {
+            writePages(pagedFile, 100);
+        }
+
+        try (PageCache pageCache = StandalonePageCacheFactory.createPageCache(fs, jobScheduler);
+                PagedFile pagedFile = pageCache.map(storeFile, pageCache.pageSize(), "neo4j")) {
+            try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                for (long pageId = 10; pageId < 20; pageId++) {
+                    assertThat(cursor.next(pageId)).isTrue();
+                }
+            }
+            warmer(pageCache, PageCacheTracer.NULL).profile();
+        }
+        assertThat(fs.fileExists(profileOf(storeFile))).isTrue();
+
+        var tracer = new DefaultPageCacheTracer();
+        try (PageCache pageCache = StandalonePageCacheFactory.createPageCache(fs, jobScheduler, tracer);
+                PagedFile pagedFile = pageCache.map(storeFile, pageCache.pageSize(), "neo4j")) {
+            assertThat(loadedPages(pagedFile).isEmpty()).isTrue();
+
+            long pagesLoaded = warmer(pageCache, tracer).warmup();
+
+            assertThat(pagesLoaded).isEqualTo(10);
+            assertThat(loadedPages(pagedFile))
+                    .isEqualTo(LongArrayList.newListWith(10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+            assertThat(tracer.warmupPagesToLoad()).isEqualTo(10);
+            assertThat(tracer.warmupPagesLoaded()).isEqualTo(10);
+            assertThat(tracer.isWarm()).isTrue();
+        }
+    }
+
+    @Test
+    void shouldRemoveProfileOfFileWithoutLoadedPages() throws IOException {
+        try (PageCache pageCache = StandalonePageCacheFactory.createPageCache(fs, jobScheduler);
+                PagedFile pagedFile = pageCache.map(storeFile, pageCache.pageSize(), "neo4j")) {
+            writePages(pagedFile, 10);
+            warmer(pageCache, PageCacheTracer.NULL).profile();
+        }
+        assertThat(fs.fileExists(profileOf(storeFile))).isTrue();
+
+        try (PageCache pageCache = StandalonePageCacheFactory.createPageCache(fs, jobScheduler);
+                PagedFile ignored = pageCache.map(storeFile, pageCache.pageSize(), "neo4j")) {
+            warmer(pageCache, PageCacheTracer.NULL).profile();
+        }
+        assertThat(fs.fileExists(profileOf(storeFile))).isFalse();
+    }
+
+    @Test
+    void shouldNotWriteProfilesOfReadOnlyDatabase() throws IOException {
+        try (PageCache pageCache = StandalonePageCacheFactory.createPageCache(fs, jobScheduler);
+                PagedFile pagedFile = pageCache.map(storeFile, pageCache.pageSize(), "neo4j")) {
+            writePages(pagedFile, 10);
+            new PageCacheWarmer(
+                            pageCache,
+                            fs,
+                            databaseLayout,
+                            jobScheduler,
+                            Config.defaults(),
+                            DatabaseReadOnlyChecker.readOnly(),
+                            NULL_CONTEXT_FACTORY,
+                            PageCacheTracer.NULL,
+                            NullLogProvider.getInstance())
+                    .profile();
+        }
+        assertThat(fs.fileExists(profileOf(storeFile))).isFalse();
+    }
+
+    private PageCacheWarmer warmer(PageCache pageCache, PageCacheTracer tracer) {
+        return new PageCacheWarmer(
+                pageCache,
+                fs,
+                databaseLayout,
+                jobScheduler,
+                Config.defaults(),
+                DatabaseReadOnlyChecker.writable(),
+                NULL_CONTEXT_FACTORY,
+                tracer,
+                NullLogProvider.getInstance());
+    }
+
+    private Path profileOf(Path file) {
+        return databaseLayout
+                .databaseDirectory()
+                .resolve(PageCacheWarmer.PROFILES_DIRECTORY)
+                .resolve(file.getFileName() + PageCacheWarmer.SUFFIX_CACHEPROF);
+    }
+
+    private static void writePages(PagedFile pagedFile, int pages) throws IOException {
+        try (var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < pages; i++) {
+                assertThat(cursor.next()).isTrue();
+                cursor.putLong(i);
+            }
+        }
+    }
+
+    private static MutableLongList loadedPages(PagedFile pagedFile) {
+        var pages = new LongArrayList();
+        pagedFile.visitLoadedPages(pages::add);
+        return pages;
+    }
+}
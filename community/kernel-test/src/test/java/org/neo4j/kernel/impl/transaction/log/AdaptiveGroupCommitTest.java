@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveGroupCommitTest {
+    private static final long FORCE_NANOS = Duration.ofMillis(2).toNanos();
+
+    @Test
+    void shouldNeverWaitWhenDisabled() {
+        var groupCommit = new AdaptiveGroupCommit(Duration.ZERO, 1024);
+        for (int i = 0; i < 100; i++) {
+            groupCommit.batchCompleted(10, -1, FORCE_NANOS);
+        }
+
+        assertThat(groupCommit.enabled()).isFalse();
+        assertThat(groupCommit.waitNanos()).isZero();
+    }
+
+    @Test
+    void shouldNotWaitForSingleCommitter() {
+        var groupCommit = new AdaptiveGroupCommit(Duration.ofMillis(1), 1024);
+        for (int i = 0; i < 100; i++) {
+            groupCommit.batchCompleted(1, -1, FORCE_NANOS);
+        }
+
+        assertThat(groupCommit.waitNanos()).isZero();
+    }
+
+    @Test
+    void shouldGrowWaitWhileItGathersMoreTransactionsWithinBounds() {
+        var maxWait = Duration.ofMillis(1);
+        var groupCommit = new AdaptiveGroupCommit(maxWait, 1024);
+        for (int i = 0; i < 100; i++) {
+            groupCommit.batchCompleted(8, -1, FORCE_NANOS);
+        }
+        long initialWait = groupCommit.waitNanos();
+        assertThat(initialWait).isPositive();
+
+        for (int i = 0; i < 1_000; i++) {
+            groupCommit.batchCompleted(8, 4, FORCE_NANOS);
+        }
+
+        assertThat(groupCommit.waitNanos()).isGreaterThan(initialWait).isLessThanOrEqualTo(maxWait.toNanos());
+        assertThat(groupCommit.waitNanos()).isLessThanOrEqualTo(FORCE_NANOS / 2);
+    }
+
+    @Test
+    void shouldBackOffWhenWaitingDoesNotGatherMoreTransactions() {
+        var groupCommit = new AdaptiveGroupCommit(Duration.ofMillis(1), 1024);
+        for (int i = 0; i < 1_000; i++) {
+            groupCommit.batchCompleted(8, 4, FORCE_NANOS);
+        }
+        long grownWait = groupCommit.waitNanos();
+
+        groupCommit.batchCompleted(8, 8, FORCE_NANOS);
+
+        assertThat(groupCommit.waitNanos()).isEqualTo(grownWait / 2);
+    }
+
+    @Test
+    void shouldLimitTargetBatchSize() {
+        var groupCommit = new AdaptiveGroupCommit(Duration.ofMillis(1), 16);
+        for (int i = 0; i < 100; i++) {
+            groupCommit.batchCompleted(100, -1, FORCE_NANOS);
+        }
+
+        assertThat(groupCommit.targetBatchSize()).isEqualTo(16);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class PowerOfTwoHistogramTest {
+    @Test
+    void shouldRecordValuesIntoPowerOfTwoBuckets() {
+        var histogram = new PowerOfTwoHistogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        histogram.record(1024);
+
+        assertThat(histogram.count()).isEqualTo(5);
+        assertThat(histogram.total()).isEqualTo(1030);
+        assertThat(histogram.bucketCount(0)).isEqualTo(1);
+        assertThat(histogram.bucketCount(1)).isEqualTo(1);
+        assertThat(histogram.bucketCount(2)).isEqualTo(2);
+        assertThat(histogram.bucketCount(11)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPlaceExtremeValuesInBounds() {
+        assertThat(PowerOfTwoHistogram.bucket(0)).isZero();
+        assertThat(PowerOfTwoHistogram.bucket(Long.MAX_VALUE)).isEqualTo(PowerOfTwoHistogram.BUCKETS - 1);
+        assertThat(PowerOfTwoHistogram.bucketUpperBound(PowerOfTwoHistogram.BUCKETS - 1))
+                .isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void shouldReportPercentilesAsBucketUpperBounds() {
+        var histogram = new PowerOfTwoHistogram();
+        assertThat(histogram.percentile(50)).isZero();
+
+        for (int i = 0; i < 90; i++) {
+            histogram.record(5);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(100);
+        }
+
+        assertThat(histogram.percentile(50)).isEqualTo(8);
+        assertThat(histogram.percentile(90)).isEqualTo(8);
+        assertThat(histogram.percentile(99)).isEqualTo(128);
+        assertThatThrownBy(() -> histogram.percentile(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -314,6 +314,9 @@ class QueueTransactionAppenderTestIT {
             return new RecordingTransactionAppendEvent(events);
         }
 
+        @Override
+        public void appendedBatch(int batchSize) {}
+
         @Override
         public LogForceWaitEvent beginLogForceWait() {
             events.add(EventType.LOG_FORCE_WAIT);
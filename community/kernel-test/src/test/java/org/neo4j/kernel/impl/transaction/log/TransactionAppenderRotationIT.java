@@ -197,6 +197,9 @@ class TransactionAppenderRotationIT {
         @Override
         public void setLogRotated(boolean logRotated) {}
 
+        @Override
+        public void appendedBatch(int batchSize) {}
+
         @Override
         public LogRotateEvent beginLogRotate() {
             return null;
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.kernel.impl.transaction.log.LogPosition.UNSPECIFIED;
@@ -200,6 +201,21 @@ class CheckPointThresholdTest extends CheckPointThresholdTestSupport {
         verifyNoMoreTriggers();
     }
 
+    @Test
+    void timeBasedThresholdMustBuildUpPressureWithNewTransactions() {
+        withIntervalTime("100ms");
+        CheckPointThreshold threshold = createThreshold();
+        threshold.initialize(2, UNSPECIFIED);
+        threshold.checkPointHappened(2, UNSPECIFIED);
+
+        clock.forward(50, MILLISECONDS);
+        assertThat(threshold.checkPointPressure(2, ARBITRARY_LOG_POSITION)).isZero();
+        assertThat(threshold.checkPointPressure(42, ARBITRARY_LOG_POSITION)).isCloseTo(0.5, offset(0.01));
+
+        clock.forward(60, MILLISECONDS);
+        assertThat(threshold.checkPointPressure(42, ARBITRARY_LOG_POSITION)).isGreaterThan(1);
+    }
+
     @Test
     void timeBasedThresholdMustSuggestSchedulingFrequency() {
         // By default, the transaction count based threshold wants a higher check frequency than the time based
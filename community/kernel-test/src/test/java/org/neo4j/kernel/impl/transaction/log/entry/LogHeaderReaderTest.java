@@ -371,6 +371,41 @@ class LogHeaderReaderTest {
                         return LogFormat.V10.newHeader(
                                 logVersion, appendIndex, term, storeId, segmentSize, checksum, LATEST_KERNEL_VERSION);
                     }
+                },
+                new TestCase(LogFormat.V11) {
+                    @Override
+                    void write(
+                            ByteBuffer buffer,
+                            long logVersion,
+                            long txId,
+                            long appendIndex,
+                            StoreId storeId,
+                            int segmentSize,
+                            int checksum,
+                            long term)
+                            throws IOException {
+                        buffer.putLong(encodeLogVersion(logVersion, versionByte()));
+                        buffer.putLong(appendIndex);
+                        StoreIdSerialization.serializeWithFixedSize(storeId, buffer);
+                        buffer.putInt(segmentSize);
+                        buffer.putInt(checksum);
+                        buffer.putLong(term);
+                        buffer.put(LATEST_KERNEL_VERSION.version());
+                        buffer.position(LogFormat.V11.getHeaderSize()); // Rest is reserved
+                    }
+
+                    @Override
+                    LogHeader expected(
+                            long logVersion,
+                            long previousCommittedTx,
+                            long appendIndex,
+                            StoreId storeId,
+                            int segmentSize,
+                            int checksum,
+                            long term) {
+                        return LogFormat.V11.newHeader(
+                                logVersion, appendIndex, term, storeId, segmentSize, checksum, LATEST_KERNEL_VERSION);
+                    }
                 });
     }
 
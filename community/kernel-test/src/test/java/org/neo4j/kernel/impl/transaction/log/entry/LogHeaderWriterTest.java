@@ -95,7 +95,7 @@ class LogHeaderWriterTest {
                 expectedAppendIndex,
                 expectedTerm,
                 expectedStoreId,
-                logFormat != V10 ? UNKNOWN_LOG_SEGMENT_SIZE : expectedBlockSize,
+                logFormat.usesSegments() ? expectedBlockSize : UNKNOWN_LOG_SEGMENT_SIZE,
                 expectedChecksum,
                 KernelVersion.GLORIOUS_FUTURE);
 
@@ -126,7 +126,7 @@ class LogHeaderWriterTest {
         }
         assertEquals(expectedStoreId, storeId);
 
-        if (logFormat == V10) {
+        if (logFormat.usesSegments()) {
             assertEquals(expectedBlockSize, result.getInt());
             assertEquals(expectedChecksum, result.getInt());
             assertEquals(expectedTerm, result.getLong());
@@ -31,6 +31,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_envelope_compression;
 import static org.neo4j.kernel.KernelVersion.DEFAULT_BOOTSTRAP_VERSION;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
@@ -61,7 +62,9 @@ import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.stubbing.Answer;
+import org.neo4j.configuration.Config;
 import org.neo4j.internal.nativeimpl.ErrorTranslator;
 import org.neo4j.internal.nativeimpl.NativeAccess;
 import org.neo4j.internal.nativeimpl.NativeCallResult;
@@ -260,6 +263,45 @@ class TransactionLogFileTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldCreateLogFilesInFormatMatchingEnvelopeCompression(boolean compressEnvelopes) throws Exception {
+        // GIVEN
+        LogFiles logFiles = LogFilesBuilder.builder(
+                        databaseLayout, wrappingFileSystem, () -> KernelVersion.GLORIOUS_FUTURE)
+                .withConfig(Config.defaults(transaction_log_envelope_compression, compressEnvelopes))
+                .withTransactionIdStore(transactionIdStore)
+                .withLogVersionRepository(logVersionRepository)
+                .withLogFileVersionTracker(logFileVersionTracker)
+                .withAppendIndexProvider(appendIndexProvider)
+                .withCommandReaderFactory(TestCommandReaderFactory.INSTANCE)
+                .withStoreId(STORE_ID)
+                .build();
+        life.start();
+        life.add(logFiles);
+
+        // WHEN
+        LogFile logFile = logFiles.getLogFile();
+        TransactionLogWriter transactionLogWriter = logFile.getTransactionLogWriter();
+        var channel = transactionLogWriter.getChannel();
+        LogPosition currentPosition = transactionLogWriter.getCurrentPosition();
+        byte[] bytes = someBytes(1000);
+        channel.putVersion(KernelVersion.GLORIOUS_FUTURE.version());
+        channel.put(bytes, bytes.length);
+        channel.putChecksum();
+        logFile.flush();
+
+        // THEN
+        assertThat(logFile.extractHeader(logFile.getCurrentLogVersion()).getLogFormatVersion())
+                .isEqualTo(compressEnvelopes ? LogFormat.V11 : LogFormat.V10);
+        try (ReadableChannel reader = logFile.getReader(currentPosition)) {
+            assertEquals(KernelVersion.GLORIOUS_FUTURE.version(), reader.getVersion());
+            byte[] read = new byte[bytes.length];
+            reader.get(read, read.length);
+            assertArrayEquals(bytes, read);
+        }
+    }
+
     @ParameterizedTest
     @KernelVersionSource(atLeast = "5.0")
     void shouldReadOlderLogs(KernelVersion kernelVersion) throws Exception {
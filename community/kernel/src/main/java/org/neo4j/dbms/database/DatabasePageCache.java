@@ -35,6 +35,7 @@ import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.configuration.Config;
 import org.neo4j.dbms.database.TicketMachine.Barrier;
@@ -325,6 +326,11 @@ public class DatabasePageCache implements PageCache {
             return delegate.touch(pageId, count, cursorContext);
         }
 
+        @Override
+        public void visitLoadedPages(LongConsumer visitor) {
+            delegate.visitLoadedPages(visitor);
+        }
+
         @Override
         public boolean preAllocateSupported() {
             return delegate.preAllocateSupported();
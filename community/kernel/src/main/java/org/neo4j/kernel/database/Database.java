@@ -130,6 +130,7 @@ import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.locking.multiversion.MultiVersionLockManager;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.pagecache.VersionStorageFactory;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
@@ -600,6 +601,16 @@ public class Database extends AbstractDatabase {
 
         this.checkpointerLifecycle = new CheckpointerLifecycle(transactionLogModule.checkPointer(), databaseHealth);
 
+        life.add(new PageCacheWarmer(
+                databasePageCache,
+                fs,
+                databaseLayout,
+                scheduler,
+                databaseConfig,
+                readOnlyDatabaseChecker,
+                cursorContextFactory,
+                tracers.getPageCacheTracer(),
+                internalLogProvider));
         life.add(idController);
         life.add(onStart(this::registerUpgradeListener));
         life.add(databaseHealth);
@@ -34,6 +34,7 @@ import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.api.index.MinimalIndexAccessor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexUpdateSketches;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.index.DatabaseIndexStats;
 import org.neo4j.kernel.impl.index.schema.DefaultIndexUsageTracking;
@@ -56,6 +57,7 @@ class IndexProxyCreator {
     private final ImmutableSet<OpenOption> openOptions;
     private final Clock clock;
     private final StorageEngineIndexingBehaviour indexingBehaviour;
+    private final IndexUpdateSketches updateSketches;
 
     IndexProxyCreator(
             IndexSamplingConfig samplingConfig,
@@ -67,7 +69,8 @@ class IndexProxyCreator {
             InternalLogProvider logProvider,
             ImmutableSet<OpenOption> openOptions,
             Clock clock,
-            StorageEngineIndexingBehaviour indexingBehaviour) {
+            StorageEngineIndexingBehaviour indexingBehaviour,
+            IndexUpdateSketches updateSketches) {
         this.samplingConfig = samplingConfig;
         this.indexStatisticsStore = indexStatisticsStore;
         this.indexCounters = indexCounters;
@@ -78,6 +81,7 @@ class IndexProxyCreator {
         this.openOptions = openOptions;
         this.clock = clock;
         this.indexingBehaviour = indexingBehaviour;
+        this.updateSketches = updateSketches;
     }
 
     IndexProxy createPopulatingIndexProxy(
@@ -156,7 +160,7 @@ class IndexProxyCreator {
         if (descriptor.getIndexType() == LOOKUP) {
             return new TokenIndexProxyStrategy(descriptor, tokenNameLookup);
         } else {
-            return new ValueIndexProxyStrategy(descriptor, indexStatisticsStore, tokenNameLookup);
+            return new ValueIndexProxyStrategy(descriptor, indexStatisticsStore, tokenNameLookup, updateSketches);
         }
     }
 
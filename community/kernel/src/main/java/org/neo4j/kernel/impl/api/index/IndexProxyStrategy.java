@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.index;
 
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
 
 /**
  * Representation of an index used by indexing services in this package.
@@ -34,6 +35,12 @@ interface IndexProxyStrategy {
 
     void incrementUpdateStatisticsForIndex(long delta);
 
+    /**
+     * Called for every update applied to the online index, before {@link #incrementUpdateStatisticsForIndex(long)}
+     * is called with the number of updates.
+     */
+    void includeUpdateInStatistics(IndexEntryUpdate<?> update);
+
     void replaceStatisticsForIndex(IndexSample sample);
 
     String getIndexUserDescription();
@@ -761,7 +761,10 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
         try (var fileFlushEvent = flushEvent.beginFileFlush()) {
             internalLog.debug(
                     "Checkpointing %s", indexStatisticsStore.storeFile().getFileName());
-            indexStatisticsStore.checkpoint(fileFlushEvent, cursorContext);
+            indexStatisticsStore.checkpoint(
+                    fileFlushEvent,
+                    cursorContext,
+                    kernelVersionProvider.kernelVersion().isAtLeast(KernelVersion.VERSION_INDEX_HISTOGRAMS_INTRODUCED));
         }
         indexMapRef.indexMapSnapshot().forEachIndexProxy(indexProxyOperation("force", proxy -> {
             internalLog.debug("Checkpointing %s", proxy.getDescriptor().userDescription(tokenNameLookup));
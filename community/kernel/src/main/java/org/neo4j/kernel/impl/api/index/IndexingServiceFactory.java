@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index;
 import java.time.Clock;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.internal.kernel.api.IndexMonitor;
 import org.neo4j.internal.schema.IndexDescriptor;
@@ -32,6 +33,7 @@ import org.neo4j.kernel.KernelVersionProvider;
 import org.neo4j.kernel.impl.api.TransactionVisibilityProvider;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingController;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingControllerFactory;
+import org.neo4j.kernel.impl.api.index.sampling.IndexUpdateSketches;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.index.DatabaseIndexStats;
 import org.neo4j.kernel.impl.transaction.state.storeview.IndexStoreViewFactory;
@@ -71,9 +73,12 @@ public final class IndexingServiceFactory {
             TransactionVisibilityProvider transactionVisibilityProvider) {
         IndexSamplingConfig samplingConfig = new IndexSamplingConfig(config);
         IndexMapReference indexMapRef = new IndexMapReference();
+        IndexUpdateSketches updateSketches = new IndexUpdateSketches(
+                config.get(GraphDatabaseInternalSettings.index_sampling_incremental_max_drift));
         IndexSamplingControllerFactory factory = new IndexSamplingControllerFactory(
                 samplingConfig,
                 indexStatisticsStore,
+                updateSketches,
                 scheduler,
                 tokenNameLookup,
                 internalLogProvider,
@@ -91,7 +96,8 @@ public final class IndexingServiceFactory {
                 internalLogProvider,
                 storageEngine.getOpenOptions(),
                 clock,
-                storageEngine.indexingBehaviour());
+                storageEngine.indexingBehaviour(),
+                updateSketches);
 
         return new IndexingService(
                 storageEngine,
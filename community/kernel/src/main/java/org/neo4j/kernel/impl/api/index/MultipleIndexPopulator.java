@@ -34,7 +34,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
@@ -110,10 +113,12 @@ import org.neo4j.values.storable.Value;
 public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, AutoCloseable {
     private static final String MULTIPLE_INDEX_POPULATOR_TAG = "multipleIndexPopulator";
     private static final String POPULATION_WORK_FLUSH_TAG = "populationWorkFlush";
+    private static final String POPULATION_COMPLETION_TAG = "populationCompletion";
     private static final String EOL = System.lineSeparator();
 
     private final int queueThreshold;
     final int batchMaxByteSizeScan;
+    private final int completionParallelism;
     private final boolean printDebug;
 
     // Concurrency queue since multiple concurrent threads may enqueue updates into it. It is important for this queue
@@ -172,6 +177,9 @@ public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, A
         this.queueThreshold = config.get(GraphDatabaseInternalSettings.index_population_queue_threshold);
         this.batchMaxByteSizeScan = config.get(GraphDatabaseInternalSettings.index_population_batch_max_byte_size)
                 .intValue();
+        int completionParallelism = config.get(GraphDatabaseInternalSettings.index_population_completion_parallelism);
+        this.completionParallelism =
+                completionParallelism == 0 ? Runtime.getRuntime().availableProcessors() : completionParallelism;
     }
 
     IndexPopulation addPopulator(
@@ -344,9 +352,16 @@ public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, A
      *
      */
     void flipAfterStoreScan(CursorContext cursorContext) {
+        int parallelism = Math.min(completionParallelism, populations.size());
+        boolean completedInParallel = parallelism > 1;
+        if (completedInParallel) {
+            scanCompletedInParallel(parallelism, cursorContext);
+        }
         for (IndexPopulation population : populations) {
             try {
-                population.scanCompleted(cursorContext);
+                if (!completedInParallel) {
+                    population.scanCompleted(phaseTracker, cursorContext);
+                }
                 population.flip(cursorContext);
             } catch (Throwable t) {
                 cancel(population, t, cursorContext);
@@ -354,6 +369,46 @@ public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, A
         }
     }
 
+    /**
+     * Completes the populations on a number of {@link Group#INDEX_POPULATION_WORK} threads, each completing one
+     * population at a time, instead of merging and building one index after the other. Every population still
+     * parallelizes its own merge, so this mostly helps the single threaded tree building of many indexes.
+     * Populations that fail are cancelled, the others are left for {@link IndexPopulation#flip(CursorContext)}.
+     */
+    private void scanCompletedInParallel(int parallelism, CursorContext cursorContext) {
+        // Phases of the individual populations overlap, so they are only tracked as a whole
+        phaseTracker.enterPhase(PhaseTracker.Phase.MERGE);
+        Queue<IndexPopulation> pending = new ConcurrentLinkedQueue<>(populations);
+        Map<IndexPopulation, Throwable> failures = new ConcurrentHashMap<>();
+        List<JobHandle<?>> jobs = new ArrayList<>(parallelism);
+        var jobMonitoringParams = new JobMonitoringParams(subject, databaseName, "Index population completion");
+        for (int i = 0; i < parallelism; i++) {
+            jobs.add(jobScheduler.schedule(Group.INDEX_POPULATION_WORK, jobMonitoringParams, () -> {
+                try (var workerCursorContext = contextFactory.create(POPULATION_COMPLETION_TAG)) {
+                    IndexPopulation population;
+                    while ((population = pending.poll()) != null) {
+                        try {
+                            population.scanCompleted(PhaseTracker.nullInstance, workerCursorContext);
+                        } catch (Throwable t) {
+                            failures.put(population, t);
+                        }
+                    }
+                }
+            }));
+        }
+        try {
+            for (JobHandle<?> job : jobs) {
+                job.waitTermination();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while completing index populations", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to complete index populations", e.getCause());
+        }
+        failures.forEach((population, failure) -> cancel(population, failure, cursorContext));
+    }
+
     private int[] propertyKeyIds() {
         return populations.stream()
                 .flatMapToInt(this::propertyKeyIds)
@@ -655,7 +710,8 @@ public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, A
             return indexProxyStrategy.getIndexUserDescription();
         }
 
-        void scanCompleted(CursorContext cursorContext) throws IndexEntryConflictException {
+        void scanCompleted(PhaseTracker phaseTracker, CursorContext cursorContext)
+                throws IndexEntryConflictException {
             IndexPopulator.PopulationWorkScheduler populationWorkScheduler =
                     new IndexPopulator.PopulationWorkScheduler() {
                         @Override
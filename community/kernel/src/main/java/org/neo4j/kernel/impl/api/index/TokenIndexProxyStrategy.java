@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
 
 /**
  * Collecting statistics on token indexes is not needed and therefore not supported.
@@ -46,6 +47,9 @@ class TokenIndexProxyStrategy implements IndexProxyStrategy {
     @Override
     public void incrementUpdateStatisticsForIndex(long delta) {}
 
+    @Override
+    public void includeUpdateInStatistics(IndexEntryUpdate<?> update) {}
+
     @Override
     public void replaceStatisticsForIndex(IndexSample sample) {}
 
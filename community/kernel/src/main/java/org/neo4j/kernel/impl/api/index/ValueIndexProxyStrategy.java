@@ -22,17 +22,32 @@ package org.neo4j.kernel.impl.api.index;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.impl.api.index.sampling.IndexUpdateSketch;
+import org.neo4j.kernel.impl.api.index.sampling.IndexUpdateSketches;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
 
 class ValueIndexProxyStrategy implements IndexProxyStrategy {
     private final IndexDescriptor indexDescriptor;
     private final IndexStatisticsStore statisticsStore;
     private final String indexUserDescription;
+    private final IndexUpdateSketches updateSketches;
+    private final IndexUpdateSketch updateSketch;
 
     ValueIndexProxyStrategy(
             IndexDescriptor indexDescriptor, IndexStatisticsStore statisticsStore, TokenNameLookup tokenNameLookup) {
+        this(indexDescriptor, statisticsStore, tokenNameLookup, IndexUpdateSketches.DISABLED);
+    }
+
+    ValueIndexProxyStrategy(
+            IndexDescriptor indexDescriptor,
+            IndexStatisticsStore statisticsStore,
+            TokenNameLookup tokenNameLookup,
+            IndexUpdateSketches updateSketches) {
         this.indexDescriptor = indexDescriptor;
         this.statisticsStore = statisticsStore;
+        this.updateSketches = updateSketches;
+        this.updateSketch = updateSketches.sketch(indexDescriptor.getId());
         indexUserDescription = indexDescriptor.userDescription(tokenNameLookup);
     }
 
@@ -44,6 +59,7 @@ class ValueIndexProxyStrategy implements IndexProxyStrategy {
     @Override
     public void removeStatisticsForIndex() {
         statisticsStore.removeIndex(indexDescriptor.getId());
+        updateSketches.remove(indexDescriptor.getId());
     }
 
     @Override
@@ -51,9 +67,20 @@ class ValueIndexProxyStrategy implements IndexProxyStrategy {
         statisticsStore.incrementIndexUpdates(indexDescriptor.getId(), delta);
     }
 
+    @Override
+    public void includeUpdateInStatistics(IndexEntryUpdate<?> update) {
+        if (updateSketch != null) {
+            updateSketch.include(update);
+        }
+    }
+
     @Override
     public void replaceStatisticsForIndex(IndexSample sample) {
         statisticsStore.setSampleStats(indexDescriptor.getId(), sample);
+        if (updateSketch != null) {
+            updateSketch.fullSampleStarted();
+            updateSketch.fullSampleCompleted(sample);
+        }
     }
 
     @Override
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe HyperLogLog sketch estimating the number of distinct 64-bit hashes added to it, with a standard error
+ * of about {@code 1.04 / sqrt(2^precision)}. Registers are packed eight per {@code long} and updated with CAS, so
+ * concurrent index updaters can add to the same sketch without locking.
+ */
+class HyperLogLog {
+    private static final int REGISTERS_PER_LONG = Long.BYTES;
+
+    private final int precision;
+    private final int registerCount;
+    private final AtomicLongArray registers;
+
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18, got " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicLongArray(registerCount / REGISTERS_PER_LONG);
+    }
+
+    void add(long hash) {
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        // Number of leading zeros of the remaining bits, plus one. The sentinel bit bounds it for all-zero remainders.
+        long remainder = (hash << precision) | (1L << (precision - 1));
+        int rank = Long.numberOfLeadingZeros(remainder) + 1;
+
+        int index = register / REGISTERS_PER_LONG;
+        int shift = (register % REGISTERS_PER_LONG) * Byte.SIZE;
+        long current;
+        long updated;
+        do {
+            current = registers.get(index);
+            if (((current >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            updated = (current & ~(0xFFL << shift)) | ((long) rank << shift);
+        } while (!registers.compareAndSet(index, current, updated));
+    }
+
+    long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registers.length(); i++) {
+            long packed = registers.get(i);
+            for (int j = 0; j < REGISTERS_PER_LONG; j++) {
+                int rank = (int) ((packed >>> (j * Byte.SIZE)) & 0xFF);
+                sum += 1.0 / (1L << rank);
+                if (rank == 0) {
+                    zeros++;
+                }
+            }
+        }
+        double estimate = alpha() * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    void clear() {
+        for (int i = 0; i < registers.length(); i++) {
+            registers.set(i, 0);
+        }
+    }
+
+    private double alpha() {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+}
@@ -61,6 +61,7 @@ import org.neo4j.scheduler.JobScheduler;
 public class IndexSamplingController {
     private final IndexSamplingJobFactory jobFactory;
     private final LongPredicate samplingUpdatePredicate;
+    private final IndexUpdateSketches updateSketches;
     private final IndexSamplingJobTracker jobTracker;
     private final IndexMapSnapshotProvider indexMapSnapshotProvider;
     private final JobScheduler scheduler;
@@ -80,6 +81,7 @@ public class IndexSamplingController {
             IndexSamplingConfig samplingConfig,
             IndexSamplingJobFactory jobFactory,
             LongPredicate samplingUpdatePredicate,
+            IndexUpdateSketches updateSketches,
             IndexSamplingJobTracker jobTracker,
             IndexMapSnapshotProvider indexMapSnapshotProvider,
             JobScheduler scheduler,
@@ -91,6 +93,7 @@ public class IndexSamplingController {
         this.jobFactory = jobFactory;
         this.indexMapSnapshotProvider = indexMapSnapshotProvider;
         this.samplingUpdatePredicate = samplingUpdatePredicate;
+        this.updateSketches = updateSketches;
         this.jobTracker = jobTracker;
         this.scheduler = scheduler;
         this.indexRecoveryCondition = indexRecoveryCondition;
@@ -160,6 +163,10 @@ public class IndexSamplingController {
     }
 
     private void scheduleSampling(LongIterable indexesToSample, IndexSamplingMode mode, IndexMap indexMap) {
+        if (!mode.sampleOnlyIfUpdated()) {
+            // Sampling was asked for regardless of updates, so don't settle for estimates from the updates
+            indexesToSample.forEach(updateSketches::requireFullSample);
+        }
         List<IndexSamplingJobHandle> allJobs = scheduleAllSampling(indexesToSample, indexMap);
 
         long millisToWait = mode.millisToWaitForCompletion();
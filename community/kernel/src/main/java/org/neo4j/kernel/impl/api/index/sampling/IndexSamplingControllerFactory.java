@@ -35,6 +35,7 @@ import org.neo4j.scheduler.JobScheduler;
 public class IndexSamplingControllerFactory {
     private final IndexSamplingConfig samplingConfig;
     private final IndexStatisticsStore indexStatisticsStore;
+    private final IndexUpdateSketches updateSketches;
     private final JobScheduler scheduler;
     private final TokenNameLookup tokenNameLookup;
     private final InternalLogProvider logProvider;
@@ -45,6 +46,7 @@ public class IndexSamplingControllerFactory {
     public IndexSamplingControllerFactory(
             IndexSamplingConfig samplingConfig,
             IndexStatisticsStore indexStatisticsStore,
+            IndexUpdateSketches updateSketches,
             JobScheduler scheduler,
             TokenNameLookup tokenNameLookup,
             InternalLogProvider logProvider,
@@ -53,6 +55,7 @@ public class IndexSamplingControllerFactory {
             String databaseName) {
         this.samplingConfig = samplingConfig;
         this.indexStatisticsStore = indexStatisticsStore;
+        this.updateSketches = updateSketches;
         this.scheduler = scheduler;
         this.tokenNameLookup = tokenNameLookup;
         this.logProvider = logProvider;
@@ -62,8 +65,8 @@ public class IndexSamplingControllerFactory {
     }
 
     public IndexSamplingController create(IndexMapSnapshotProvider snapshotProvider) {
-        OnlineIndexSamplingJobFactory jobFactory =
-                new OnlineIndexSamplingJobFactory(indexStatisticsStore, tokenNameLookup, logProvider, contextFactory);
+        OnlineIndexSamplingJobFactory jobFactory = new OnlineIndexSamplingJobFactory(
+                indexStatisticsStore, updateSketches, tokenNameLookup, logProvider, contextFactory);
         LongPredicate samplingUpdatePredicate = createSamplingPredicate();
         IndexSamplingJobTracker jobTracker = new IndexSamplingJobTracker(scheduler, databaseName);
         RecoveryCondition indexRecoveryCondition = createIndexRecoveryCondition(logProvider, tokenNameLookup);
@@ -71,6 +74,7 @@ public class IndexSamplingControllerFactory {
                 samplingConfig,
                 jobFactory,
                 samplingUpdatePredicate,
+                updateSketches,
                 jobTracker,
                 snapshotProvider,
                 scheduler,
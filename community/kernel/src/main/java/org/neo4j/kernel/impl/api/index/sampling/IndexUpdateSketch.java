@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Summary of the updates applied to a value index since its last full sampling, used to estimate fresh index
+ * statistics without scanning the index.
+ * <p>
+ * Counts added and removed entries and keeps a {@link HyperLogLog} of the distinct added and removed values. The
+ * estimate assumes that distinct values come and go at the rate distinct values occur in the last full sample: an
+ * index of unique values gains one unique value per distinct added value, an index of a handful of values gains
+ * close to none. The more the index has drifted from the last full sample, the less that holds, which is why
+ * {@link #drift()} is compared to a bound before an estimate is used.
+ */
+public class IndexUpdateSketch {
+    private static final int PRECISION = 12;
+    private static final long HASH_SEED = 1;
+
+    private final HyperLogLog addedValues = new HyperLogLog(PRECISION);
+    private final HyperLogLog removedValues = new HyperLogLog(PRECISION);
+    private final LongAdder added = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private volatile IndexSample baseline;
+
+    /**
+     * Record an update applied to the index.
+     */
+    public void include(IndexEntryUpdate<?> update) {
+        if (!(update instanceof ValueIndexEntryUpdate<?> valueUpdate)) {
+            return;
+        }
+        switch (valueUpdate.updateMode()) {
+            case ADDED -> add(valueUpdate.values());
+            case REMOVED -> remove(valueUpdate.values());
+            case CHANGED -> {
+                remove(valueUpdate.beforeValues());
+                add(valueUpdate.values());
+            }
+        }
+    }
+
+    /**
+     * Forget the updates so far, a full sampling of the index is about to start. Until it completes there is no
+     * estimate, so that an aborted sampling isn't followed by estimates that are missing updates.
+     */
+    public void fullSampleStarted() {
+        baseline = null;
+        addedValues.clear();
+        removedValues.clear();
+        added.reset();
+        removed.reset();
+    }
+
+    /**
+     * Make the given full sample of the index the base of future estimates. Updates applied while the index was being
+     * sampled are counted as drift from it, even if the sample might include them.
+     */
+    public void fullSampleCompleted(IndexSample fullSample) {
+        baseline = fullSample;
+    }
+
+    /**
+     * @return number of updated entries since the last full sample as a fraction of the index size at that time, or
+     * {@link Double#POSITIVE_INFINITY} if there has been no full sample to compare against.
+     */
+    public double drift() {
+        IndexSample sample = baseline;
+        if (sample == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (double) (added.sum() + removed.sum()) / Math.max(sample.indexSize(), 1);
+    }
+
+    /**
+     * @return estimated statistics of the index as it is now, or {@code null} if there has been no full sample.
+     */
+    public IndexSample estimate() {
+        IndexSample sample = baseline;
+        if (sample == null) {
+            return null;
+        }
+        long addedCount = added.sum();
+        long removedCount = removed.sum();
+        long indexSize = Math.max(0, sample.indexSize() + addedCount - removedCount);
+        long sampleSize = Math.max(0, sample.sampleSize() + addedCount - removedCount);
+        double uniqueRatio = sample.sampleSize() == 0 ? 1 : (double) sample.uniqueValues() / sample.sampleSize();
+        long uniqueDelta = Math.round(
+                (Math.min(addedValues.estimate(), addedCount) - Math.min(removedValues.estimate(), removedCount))
+                        * uniqueRatio);
+        long minUniqueValues = sampleSize == 0 ? 0 : 1;
+        long uniqueValues = Math.min(sampleSize, Math.max(minUniqueValues, sample.uniqueValues() + uniqueDelta));
+        return new IndexSample(indexSize, uniqueValues, sampleSize, 0, sample.histogram());
+    }
+
+    private void add(Value[] values) {
+        addedValues.add(hash(values));
+        added.increment();
+    }
+
+    private void remove(Value[] values) {
+        removedValues.add(hash(values));
+        removed.increment();
+    }
+
+    private static long hash(Value[] values) {
+        HashFunction xxh64 = HashFunction.incrementalXXH64();
+        long hash = xxh64.initialise(HASH_SEED);
+        for (Value value : values) {
+            hash = value.updateHash(xxh64, hash);
+        }
+        return xxh64.finalise(hash);
+    }
+}
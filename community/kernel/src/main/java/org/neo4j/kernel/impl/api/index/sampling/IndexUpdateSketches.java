@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.neo4j.kernel.api.index.IndexSample;
+
+/**
+ * The {@link IndexUpdateSketch sketches} of the value indexes of a database, shared between the online index proxies
+ * that feed them and the sampling jobs that read them. Sketches are only kept in memory, so after a restart each index
+ * gets a full sampling before incremental sampling kicks in.
+ */
+public class IndexUpdateSketches {
+    public static final IndexUpdateSketches DISABLED = new IndexUpdateSketches(0);
+
+    private final double maxDrift;
+    private final ConcurrentHashMap<Long, IndexUpdateSketch> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxDrift the largest {@link IndexUpdateSketch#drift() drift} for which an estimate is used instead of a
+     * full sampling of the index, {@code 0} to disable incremental sampling.
+     */
+    public IndexUpdateSketches(double maxDrift) {
+        this.maxDrift = maxDrift;
+    }
+
+    /**
+     * @return the sketch of the given index, or {@code null} if incremental sampling is disabled.
+     */
+    public IndexUpdateSketch sketch(long indexId) {
+        if (maxDrift <= 0) {
+            return null;
+        }
+        return sketches.computeIfAbsent(indexId, id -> new IndexUpdateSketch());
+    }
+
+    public void remove(long indexId) {
+        sketches.remove(indexId);
+    }
+
+    /**
+     * Make the next sampling of the given index a full one.
+     */
+    void requireFullSample(long indexId) {
+        IndexUpdateSketch sketch = sketches.get(indexId);
+        if (sketch != null) {
+            sketch.fullSampleStarted();
+        }
+    }
+
+    /**
+     * @return estimated statistics of the given index, or {@code null} if it needs a full sampling.
+     */
+    IndexSample incrementalSample(long indexId) {
+        IndexUpdateSketch sketch = maxDrift <= 0 ? null : sketches.get(indexId);
+        if (sketch == null || sketch.drift() > maxDrift) {
+            return null;
+        }
+        return sketch.estimate();
+    }
+}
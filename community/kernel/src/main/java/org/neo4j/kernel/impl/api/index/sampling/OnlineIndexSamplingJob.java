@@ -38,6 +38,7 @@ class OnlineIndexSamplingJob implements IndexSamplingJob {
     private final long indexId;
     private final IndexProxy indexProxy;
     private final IndexStatisticsStore indexStatisticsStore;
+    private final IndexUpdateSketches updateSketches;
     private final InternalLog log;
     private final String indexUserDescription;
     private final String indexName;
@@ -47,6 +48,7 @@ class OnlineIndexSamplingJob implements IndexSamplingJob {
             long indexId,
             IndexProxy indexProxy,
             IndexStatisticsStore indexStatisticsStore,
+            IndexUpdateSketches updateSketches,
             String indexUserDescription,
             String indexName,
             InternalLogProvider logProvider,
@@ -54,6 +56,7 @@ class OnlineIndexSamplingJob implements IndexSamplingJob {
         this.indexId = indexId;
         this.indexProxy = indexProxy;
         this.indexStatisticsStore = indexStatisticsStore;
+        this.updateSketches = updateSketches;
         this.log = logProvider.getLog(getClass());
         this.indexUserDescription = indexUserDescription;
         this.indexName = indexName;
@@ -72,6 +75,20 @@ class OnlineIndexSamplingJob implements IndexSamplingJob {
 
     @Override
     public void run(AtomicBoolean stopped) {
+        IndexSample estimate = updateSketches.incrementalSample(indexId);
+        if (estimate != null && indexProxy.getState() == ONLINE) {
+            indexStatisticsStore.setSampleStats(indexId, estimate);
+            log.debug(format(
+                    "Estimated index %s to have %d unique values in sample of avg size %d taken from "
+                            + "index containing %d entries, based on its updates since last sampling",
+                    indexUserDescription, estimate.uniqueValues(), estimate.sampleSize(), estimate.indexSize()));
+            return;
+        }
+
+        IndexUpdateSketch updateSketch = updateSketches.sketch(indexId);
+        if (updateSketch != null) {
+            updateSketch.fullSampleStarted();
+        }
         try (DurationLogger durationLogger = new DurationLogger(log, "Sampling index " + indexUserDescription)) {
             try {
                 try (var reader = indexProxy.newValueReader();
@@ -83,6 +100,9 @@ class OnlineIndexSamplingJob implements IndexSamplingJob {
                     // check again if the index is online before saving the counts in the store
                     if (indexProxy.getState() == ONLINE && !wasInterrupted) {
                         indexStatisticsStore.setSampleStats(indexId, sample);
+                        if (updateSketch != null) {
+                            updateSketch.fullSampleCompleted(sample);
+                        }
                         durationLogger.markAsFinished();
                         log.debug(format(
                                 "Sampled index %s with %d unique values in sample of avg size %d taken from "
@@ -27,16 +27,19 @@ import org.neo4j.logging.InternalLogProvider;
 
 public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory {
     private final IndexStatisticsStore indexStatisticsStore;
+    private final IndexUpdateSketches updateSketches;
     private final InternalLogProvider logProvider;
     private final TokenNameLookup nameLookup;
     private final CursorContextFactory contextFactory;
 
     public OnlineIndexSamplingJobFactory(
             IndexStatisticsStore indexStatisticsStore,
+            IndexUpdateSketches updateSketches,
             TokenNameLookup nameLookup,
             InternalLogProvider logProvider,
             CursorContextFactory contextFactory) {
         this.indexStatisticsStore = indexStatisticsStore;
+        this.updateSketches = updateSketches;
         this.logProvider = logProvider;
         this.nameLookup = nameLookup;
         this.contextFactory = contextFactory;
@@ -50,6 +53,7 @@ public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory {
                 indexId,
                 indexProxy,
                 indexStatisticsStore,
+                updateSketches,
                 indexUserDescription,
                 indexName,
                 logProvider,
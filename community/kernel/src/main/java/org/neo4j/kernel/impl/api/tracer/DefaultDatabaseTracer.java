@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.api.tracer;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
@@ -30,6 +32,7 @@ import org.neo4j.kernel.impl.transaction.log.LogFileCreateEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileFlushEvent;
 import org.neo4j.kernel.impl.transaction.log.LogForceEvent;
 import org.neo4j.kernel.impl.transaction.log.LogForceWaitEvent;
+import org.neo4j.kernel.impl.transaction.log.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
 import org.neo4j.kernel.impl.transaction.log.rotation.CountingLogRotateEvent;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotateEvent;
@@ -51,6 +54,8 @@ public class DefaultDatabaseTracer implements DatabaseTracer {
     private final LongAdder batchesRolledBack = new LongAdder();
     private final LongAdder batchTransactionsRolledBack = new LongAdder();
     private final AtomicLong appliedBatchSize = new AtomicLong();
+    private final PowerOfTwoHistogram groupCommitSizes = new PowerOfTwoHistogram();
+    private final PowerOfTwoHistogram logForceTimeMicros = new PowerOfTwoHistogram();
 
     private final CountingLogRotateEvent countingLogRotateEvent = new CountingLogRotateEvent();
     private final LogFileCreateEvent logFileCreateEvent = () -> appendedBytes.add(LogFormat.BIGGEST_HEADER);
@@ -126,6 +131,16 @@ public class DefaultDatabaseTracer implements DatabaseTracer {
         return batchTransactionsRolledBack.longValue();
     }
 
+    @Override
+    public PowerOfTwoHistogram groupCommitSizes() {
+        return groupCommitSizes;
+    }
+
+    @Override
+    public PowerOfTwoHistogram logForceTimeMicros() {
+        return logForceTimeMicros;
+    }
+
     @Override
     public long numberOfCheckPoints() {
         return logCheckPointEvent.numberOfCheckPoints();
@@ -302,6 +317,11 @@ public class DefaultDatabaseTracer implements DatabaseTracer {
             return AppendTransactionEvent.NULL;
         }
 
+        @Override
+        public void appendedBatch(int batchSize) {
+            groupCommitSizes.record(batchSize);
+        }
+
         @Override
         public LogForceWaitEvent beginLogForceWait() {
             return LogForceWaitEvent.NULL;
@@ -309,7 +329,8 @@ public class DefaultDatabaseTracer implements DatabaseTracer {
 
         @Override
         public LogForceEvent beginLogForce() {
-            return LogForceEvent.NULL;
+            long startNanos = System.nanoTime();
+            return () -> logForceTimeMicros.record(NANOSECONDS.toMicros(System.nanoTime() - startNanos));
         }
     }
 }
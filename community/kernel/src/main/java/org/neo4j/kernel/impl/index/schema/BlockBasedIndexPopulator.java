@@ -96,6 +96,11 @@ import org.neo4j.values.storable.Value;
  */
 public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>> extends NativeIndexPopulator<KEY> {
     public static final Monitor NO_MONITOR = new Monitor.Adapter();
+    /**
+     * Leaves built from the scan updates are filled completely, like inserting them in order with a writer that keeps
+     * everything in the left node on split would do.
+     */
+    private static final double BULK_LOAD_FILL_FACTOR = 1.0;
 
     private final boolean archiveFailedIndex;
     private final MemoryTracker memoryTracker;
@@ -400,7 +405,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         }
 
         // Merge the (sorted) scan updates from all the different threads in pairs until only one stream remain,
-        // and direct that stream towards the tree writer (which itself is only single threaded)
+        // and direct that stream towards the tree bulk loader, or writer if the tree can't be bulk loaded
+        // (both of which are only single threaded)
         try (var readBuffers = new CompositeBuffer();
                 var singleBlockScopedBuffer = allocator.allocate((int) kibiBytes(8), memoryTracker)) {
             // Get the initial list of parts
@@ -426,13 +432,60 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                             samplingComparator,
                             cancellation,
                             PartMerger.DEFAULT_BATCH_SIZE);
-                    var allEntries = merger.startMerge();
-                    var writer = tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_KEEP_ALL_LEFT, cursorContext)) {
+                    var allEntries = merger.startMerge()) {
+                if (tree.supportsBulkLoading()) {
+                    bulkLoadToTree(allEntries, recordingConflictDetector, cursorContext);
+                } else {
+                    try (var writer = tree.writer(W_BATCHED_SINGLE_THREADED | W_SPLIT_KEEP_ALL_LEFT, cursorContext)) {
+                        while (allEntries.next() && !cancellation.cancelled()) {
+                            writeToTree(writer, recordingConflictDetector, allEntries.key());
+                            numberOfAppliedScanUpdates.incrementAndGet();
+                        }
+                    }
+                }
+                return descriptor.isUnique() ? null : allEntries.buildIndexSample();
+            }
+        }
+    }
+
+    /**
+     * Loads the merged scan updates into the empty tree. If the population is cancelled or fails the load is aborted,
+     * so that the tree is left empty instead of having the entries loaded so far published.
+     */
+    private void bulkLoadToTree(
+            BlockEntryStreamMerger<KEY, NullValue> allEntries,
+            RecordingConflictDetector<KEY> recordingConflictDetector,
+            CursorContext cursorContext)
+            throws IOException, IndexEntryConflictException {
+        try (var bulkLoader = tree.bulkLoader(BULK_LOAD_FILL_FACTOR, cursorContext)) {
+            boolean success = false;
+            try {
+                KEY previousKey = layout.newKey();
+                boolean hasPreviousKey = false;
                 while (allEntries.next() && !cancellation.cancelled()) {
-                    writeToTree(writer, recordingConflictDetector, allEntries.key());
+                    KEY key = allEntries.key();
                     numberOfAppliedScanUpdates.incrementAndGet();
+                    if (hasPreviousKey && layout.compareValue(previousKey, key) == 0) {
+                        if (previousKey.getEntityId() == key.getEntityId()) {
+                            // Same entry twice, a merge into the tree would have left it unchanged
+                            continue;
+                        }
+                        if (descriptor.isUnique()) {
+                            // Record the conflict the same way a merge into the tree would have,
+                            // the entry is still added and the conflict is verified after the tree is built
+                            recordingConflictDetector.merge(previousKey, key, NullValue.INSTANCE, NullValue.INSTANCE);
+                            recordingConflictDetector.checkConflict(layout.copyKey(key));
+                        }
+                    }
+                    bulkLoader.add(key, NullValue.INSTANCE);
+                    layout.copyKey(key, previousKey);
+                    hasPreviousKey = true;
+                }
+                success = !cancellation.cancelled();
+            } finally {
+                if (!success) {
+                    bulkLoader.abort();
                 }
-                return descriptor.isUnique() ? null : allEntries.buildIndexSample();
             }
         }
     }
@@ -27,9 +27,12 @@ import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.NonUniqueIndexSampler;
+import org.neo4j.kernel.api.index.PropertyHistogram;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link NonUniqueIndexSampler#sample(CursorContext, AtomicBoolean)}.
+ * Since the scan visits the values in order, single property range indexes also get a {@link PropertyHistogram} built
+ * as part of the same scan.
  *
  * @param <KEY> type of keys in tree.
  */
@@ -51,15 +54,18 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>> extends Non
         highest.initialize(Long.MAX_VALUE);
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        PropertyHistogram.Builder histogram = buildsHistogram() ? new PropertyHistogram.Builder() : null;
         try (Seeker<KEY, NullValue> seek = gbpTree.seek(lowest, highest, cursorContext)) {
             long sampledValues = 0;
             long uniqueValues = 0;
+            long duplicates = 0;
 
             // Get the first one so that prev gets initialized
             if (seek.next()) {
                 prev = layout.copyKey(seek.key(), prev);
                 sampledValues++;
                 uniqueValues++;
+                duplicates++;
 
                 // Then do the rest
                 while (seek.next()) {
@@ -68,19 +74,32 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>> extends Non
                     }
 
                     if (layout.compareValue(prev, seek.key()) != 0) {
+                        if (histogram != null) {
+                            histogram.add(prev.asValues()[0], duplicates);
+                        }
                         uniqueValues++;
+                        duplicates = 0;
                         layout.copyKey(seek.key(), prev);
                     }
                     // else this is a duplicate of the previous one
                     sampledValues++;
+                    duplicates++;
+                }
+                if (histogram != null) {
+                    histogram.add(prev.asValues()[0], duplicates);
                 }
             }
-            return new IndexSample(sampledValues, uniqueValues, sampledValues);
+            IndexSample sample = new IndexSample(sampledValues, uniqueValues, sampledValues);
+            return histogram != null ? sample.withHistogram(histogram.build()) : sample;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    private boolean buildsHistogram() {
+        return layout instanceof RangeLayout rangeLayout && rangeLayout.numberOfSlots() == 1;
+    }
+
     @Override
     public IndexSample sample(int numDocs, CursorContext cursorContext) {
         throw new UnsupportedOperationException();
@@ -30,6 +30,10 @@ class RangeLayout extends IndexLayout<RangeKey> {
         this.numberOfSlots = numberOfSlots;
     }
 
+    int numberOfSlots() {
+        return numberOfSlots;
+    }
+
     @Override
     public RangeKey newKey() {
         return numberOfSlots == 1
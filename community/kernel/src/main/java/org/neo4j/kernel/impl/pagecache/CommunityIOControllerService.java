@@ -26,6 +26,6 @@ import org.neo4j.time.SystemNanoClock;
 public class CommunityIOControllerService implements IOControllerService {
     @Override
     public IOController createIOController(Config config, SystemNanoClock clock) {
-        return IOController.DISABLED;
+        return new ConfigurableIOController(config, clock);
     }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.check_point_throughput_limit;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * An {@link IOController} that limits the rate of flushing with token buckets, one for the number of IOs per second
+ * given by {@link org.neo4j.configuration.GraphDatabaseSettings#check_point_iops_limit}, and optionally one for the
+ * number of bytes per second given by
+ * {@link org.neo4j.configuration.GraphDatabaseInternalSettings#check_point_throughput_limit}.
+ * <p>
+ * Only the IOs of the flushing itself are drawn from the budget. IOs reported by other parts of the system, through
+ * {@link #reportIO(int)}, are page faults and evictions on behalf of queries, and counting them would let a read-heavy
+ * load starve the check point. Both limits are dynamic, and a limit of {@code -1} disables the IO limit.
+ * <p>
+ * The IO limit only applies when {@link org.neo4j.configuration.GraphDatabaseSettings#check_point_iops_limit} has been
+ * explicitly configured, or changed at runtime, so that check points are not throttled by default.
+ * <p>
+ * The limits are relaxed when the {@link #setUrgencySupplier(DoubleSupplier) urgency} of the flushing goes beyond one
+ * half: the budget is doubled at an urgency of {@code 0.75}, and the limits are lifted entirely once the flushing is
+ * overdue, so that a check point is never throttled into falling behind the transaction log.
+ */
+public class ConfigurableIOController implements IOController {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    // The buckets hold at most a tenth of a second worth of budget, to keep the resulting IO rate smooth.
+    private static final int BURST_FRACTION = 10;
+    private static final double RELAXATION_URGENCY = 0.5;
+
+    private final SystemNanoClock clock;
+    private final ThreadLocal<FlushProgress> flushProgress = ThreadLocal.withInitial(FlushProgress::new);
+    private final TokenBucket ioBucket = new TokenBucket();
+    private final TokenBucket byteBucket = new TokenBucket();
+
+    private volatile long iopsLimit;
+    private volatile long bytesPerSecondLimit;
+    private volatile DoubleSupplier urgency = () -> 0;
+
+    public ConfigurableIOController(Config config, SystemNanoClock clock) {
+        this.clock = clock;
+        updateIopsLimit(config.isExplicitlySet(check_point_iops_limit) ? config.get(check_point_iops_limit) : null);
+        updateThroughputLimit(config.get(check_point_throughput_limit));
+        config.addListener(check_point_iops_limit, (before, after) -> updateIopsLimit(after));
+        config.addListener(check_point_throughput_limit, (before, after) -> updateThroughputLimit(after));
+    }
+
+    private void updateIopsLimit(Integer limit) {
+        iopsLimit = limit == null || limit <= 0 ? 0 : limit;
+    }
+
+    private void updateThroughputLimit(Long limit) {
+        bytesPerSecondLimit = limit == null || limit <= 0 ? 0 : limit;
+    }
+
+    @Override
+    public void maybeLimitIO(int recentlyCompletedIOs, FileFlushEvent flushEvent) {
+        long bytesWritten = flushProgress.get().bytesWrittenSinceLastCall(flushEvent);
+        if (!isEnabled()) {
+            return;
+        }
+
+        double relaxation = relaxation(urgency.getAsDouble());
+        if (relaxation <= 0) {
+            return;
+        }
+
+        long now = clock.nanos();
+        long pauseNanos = Math.max(
+                ioBucket.take(recentlyCompletedIOs, iopsLimit * relaxation, now),
+                byteBucket.take(bytesWritten, bytesPerSecondLimit * relaxation, now));
+        if (pauseNanos > 0) {
+            pause(recentlyCompletedIOs, pauseNanos, flushEvent);
+        }
+    }
+
+    private static void pause(int recentlyCompletedIOs, long pauseNanos, FileFlushEvent flushEvent) {
+        long startNanos = System.nanoTime();
+        try {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            long pausedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            flushEvent.throttle(recentlyCompletedIOs, pausedMillis);
+        }
+    }
+
+    /**
+     * @return the factor to multiply the configured limits with, or {@code 0} if the limits should be lifted.
+     */
+    static double relaxation(double urgency) {
+        if (urgency <= RELAXATION_URGENCY) {
+            return 1;
+        }
+        if (urgency >= 1) {
+            return 0;
+        }
+        return 1 / (2 * (1 - urgency));
+    }
+
+    @Override
+    public void reportIO(int completedIOs) {
+        // Page faults and evictions are not check point IO, and are deliberately not drawn from the budget.
+    }
+
+    @Override
+    public long configuredLimit() {
+        return iopsLimit > 0 ? iopsLimit : -1;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return iopsLimit > 0 || bytesPerSecondLimit > 0;
+    }
+
+    @Override
+    public void setUrgencySupplier(DoubleSupplier urgency) {
+        this.urgency = urgency;
+    }
+
+    /**
+     * Tracks how many bytes a flush event has written between calls to {@link #maybeLimitIO(int, FileFlushEvent)}
+     * from the same thread, using the bytes the event has actually written rather than assuming a page size per IO.
+     * A different event, or a drop in the number of written bytes, means that a new file is being flushed.
+     */
+    private static class FlushProgress {
+        private FileFlushEvent event;
+        private long bytesWritten;
+
+        long bytesWrittenSinceLastCall(FileFlushEvent flushEvent) {
+            long currentBytesWritten = flushEvent.localBytesWritten();
+            long previousBytesWritten =
+                    flushEvent == event && currentBytesWritten >= bytesWritten ? bytesWritten : 0;
+            event = flushEvent;
+            bytesWritten = currentBytesWritten;
+            return currentBytesWritten - previousBytesWritten;
+        }
+    }
+
+    /**
+     * A token bucket that is refilled at the given rate, holds at most a fraction of a second worth of tokens, and
+     * is allowed to go into debt. The debt is paid off by pausing the caller.
+     */
+    private static class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos = Long.MIN_VALUE;
+
+        /**
+         * @return the number of nanoseconds to pause before the taken tokens are paid for, or {@code 0} if the
+         * bucket had enough tokens, or if there is no limit.
+         */
+        synchronized long take(long amount, double ratePerSecond, long nowNanos) {
+            if (ratePerSecond <= 0) {
+                lastRefillNanos = Long.MIN_VALUE;
+                return 0;
+            }
+            double capacity = Math.max(1, ratePerSecond / BURST_FRACTION);
+            if (lastRefillNanos == Long.MIN_VALUE) {
+                tokens = capacity;
+            } else {
+                double refill = (nowNanos - lastRefillNanos) * ratePerSecond / NANOS_PER_SECOND;
+                tokens = Math.min(capacity, tokens + refill);
+            }
+            lastRefillNanos = nowNanos;
+            tokens -= amount;
+            return tokens >= 0 ? 0 : (long) (-tokens * NANOS_PER_SECOND / ratePerSecond);
+        }
+    }
+}
@@ -123,7 +123,8 @@ public class ConfiguringPageCacheFactory {
                 .preallocateStoreFiles(config.get(preallocate_store_files))
                 .clock(clock)
                 .pageCacheTracer(pageCacheTracer)
-                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown));
+                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown))
+                .evictionPartitions(config.get(GraphDatabaseInternalSettings.page_cache_eviction_partitions));
         configuration = pageCacheConfigurator.apply(configuration);
         return new MuninnPageCache(swapperFactory, scheduler, configuration);
     }
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.neo4j.configuration.Config;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.internal.helpers.Format;
+import org.neo4j.io.fs.FileHandle;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Keeps the working set of a database in the page cache across restarts.
+ * <p>
+ * While the database is running, a profile of the pages that are loaded into the page cache is periodically written
+ * for every mapped file of the database. Profiles are stored as compressed bitmaps of file page ids in the
+ * {@value #PROFILES_DIRECTORY} directory of the database. On the next start those pages are loaded back in the
+ * background, in file order, using vectored page faults over ranges of consecutive pages. Profiling is not done
+ * before warmup is finished to not overwrite profiles of the previous run with the state of a cold page cache.
+ * <p>
+ * Progress of warmup is reported through {@link PageCacheTracer}.
+ */
+public class PageCacheWarmer extends LifecycleAdapter {
+    public static final String PROFILES_DIRECTORY = "profiles";
+    public static final String SUFFIX_CACHEPROF = ".cacheprof";
+    private static final String SUFFIX_TEMP = ".tmp";
+    private static final int PROFILE_FORMAT_VERSION = 1;
+    private static final int MAX_PAGES_PER_TOUCH = 128;
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final Path databaseDirectory;
+    private final Path profilesDirectory;
+    private final JobScheduler scheduler;
+    private final Config config;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final CursorContextFactory contextFactory;
+    private final PageCacheTracer pageCacheTracer;
+    private final InternalLog log;
+    private final String databaseName;
+
+    private volatile boolean stopped;
+    private volatile boolean warm;
+    private volatile JobHandle<?> warmupHandle;
+    private volatile JobHandle<?> profileHandle;
+
+    public PageCacheWarmer(
+            PageCache pageCache,
+            FileSystemAbstraction fs,
+            DatabaseLayout databaseLayout,
+            JobScheduler scheduler,
+            Config config,
+            DatabaseReadOnlyChecker readOnlyChecker,
+            CursorContextFactory contextFactory,
+            PageCacheTracer pageCacheTracer,
+            InternalLogProvider logProvider) {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.databaseDirectory = databaseLayout.databaseDirectory();
+        this.profilesDirectory = databaseDirectory.resolve(PROFILES_DIRECTORY);
+        this.scheduler = scheduler;
+        this.config = config;
+        this.readOnlyChecker = readOnlyChecker;
+        this.contextFactory = contextFactory;
+        this.pageCacheTracer = pageCacheTracer;
+        this.log = logProvider.getLog(getClass());
+        this.databaseName = databaseLayout.getDatabaseName();
+    }
+
+    @Override
+    public void start() {
+        if (!config.get(pagecache_warmup_enabled)) {
+            return;
+        }
+        stopped = false;
+        warm = false;
+        warmupHandle = scheduler.schedule(
+                Group.FILE_IO_HELPER, systemJob(databaseName, "Page cache warmup"), this::warmupAndStartProfiling);
+    }
+
+    @Override
+    public void stop() throws IOException {
+        // Ongoing warmup checks this flag and bails out, so we do not wait for it to load the whole profile.
+        stopped = true;
+        synchronized (this) {
+            cancel(warmupHandle);
+            cancel(profileHandle);
+            warmupHandle = null;
+            profileHandle = null;
+            if (warm) {
+                profile();
+            }
+        }
+    }
+
+    private void warmupAndStartProfiling() {
+        try {
+            if (config.get(pagecache_warmup_prefetch)) {
+                preload();
+            } else {
+                warmup();
+            }
+        } catch (Throwable t) {
+            log.warn("Page cache warmup failed.", t);
+        }
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            warm = true;
+            long interval = config.get(pagecache_warmup_profiling_interval).toMillis();
+            profileHandle = scheduler.scheduleRecurring(
+                    Group.FILE_IO_HELPER,
+                    systemJob(databaseName, "Page cache profiling"),
+                    this::scheduledProfile,
+                    interval,
+                    interval,
+                    MILLISECONDS);
+        }
+    }
+
+    synchronized long warmup() throws IOException {
+        if (!fs.fileExists(profilesDirectory)) {
+            return 0;
+        }
+        Map<Path, PagedFile> mappedFiles = new HashMap<>();
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            mappedFiles.put(pagedFile.path(), pagedFile);
+        }
+        List<WarmupTarget> targets = new ArrayList<>();
+        long pagesToLoad = 0;
+        try (Stream<FileHandle> profiles = fs.streamFilesRecursive(profilesDirectory)) {
+            for (FileHandle handle : (Iterable<FileHandle>) profiles::iterator) {
+                Path profile = handle.getPath();
+                String fileName = profile.getFileName().toString();
+                if (!fileName.endsWith(SUFFIX_CACHEPROF)) {
+                    continue;
+                }
+                Path relativeFile = profilesDirectory.relativize(profile);
+                Path storeFile = databaseDirectory
+                        .resolve(relativeFile)
+                        .resolveSibling(fileName.substring(0, fileName.length() - SUFFIX_CACHEPROF.length()));
+                PagedFile pagedFile = mappedFiles.get(storeFile);
+                if (pagedFile != null) {
+                    long[] bitmap = readProfile(profile);
+                    targets.add(new WarmupTarget(pagedFile, bitmap));
+                    pagesToLoad += cardinality(bitmap);
+                }
+            }
+        }
+        pagesToLoad = Math.min(pagesToLoad, pageCache.maxCachedPages());
+        long startTime = System.currentTimeMillis();
+        long pagesLoaded = 0;
+        pageCacheTracer.warmupStarted(pagesToLoad);
+        try {
+            for (WarmupTarget target : targets) {
+                if (stopped || pagesLoaded >= pagesToLoad) {
+                    break;
+                }
+                try {
+                    pagesLoaded += touchProfiledPages(target.pagedFile(), target.bitmap(), pagesToLoad - pagesLoaded);
+                } catch (FileIsNotMappedException e) {
+                    // The file was unmapped while we were warming it up, nothing more to do for it.
+                }
+            }
+        } finally {
+            pageCacheTracer.warmupCompleted();
+        }
+        if (pagesLoaded > 0) {
+            log.info(
+                    "Page cache warmup completed. %d pages loaded in %s.",
+                    pagesLoaded, Format.duration(System.currentTimeMillis() - startTime));
+        }
+        return pagesLoaded;
+    }
+
+    synchronized long preload() throws IOException {
+        Pattern allowlist = Pattern.compile(config.get(pagecache_warmup_prefetch_allowlist));
+        List<PagedFile> files = new ArrayList<>();
+        long pagesToLoad = 0;
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            if (allowlist.matcher(pagedFile.path().toString()).find()) {
+                files.add(pagedFile);
+                pagesToLoad += pagedFile.getLastPageId() + 1;
+            }
+        }
+        pagesToLoad = Math.min(pagesToLoad, pageCache.maxCachedPages());
+        long pagesLoaded = 0;
+        pageCacheTracer.warmupStarted(pagesToLoad);
+        try (var cursorContext = contextFactory.create("pageCachePreload")) {
+            for (PagedFile pagedFile : files) {
+                long lastPageId = pagedFile.getLastPageId();
+                for (long pageId = 0; pageId <= lastPageId && !stopped && pagesLoaded < pagesToLoad; ) {
+                    int count = (int)
+                            Math.min(MAX_PAGES_PER_TOUCH, Math.min(lastPageId - pageId + 1, pagesToLoad - pagesLoaded));
+                    int touched = pagedFile.touch(pageId, count, cursorContext);
+                    if (touched == 0) {
+                        break;
+                    }
+                    pagesLoaded += touched;
+                    pageCacheTracer.warmupPagesLoaded(touched);
+                    pageId += touched;
+                }
+            }
+        } finally {
+            pageCacheTracer.warmupCompleted();
+        }
+        return pagesLoaded;
+    }
+
+    private long touchProfiledPages(PagedFile pagedFile, long[] bitmap, long budget) throws IOException {
+        long pagesLoaded = 0;
+        try (var cursorContext = contextFactory.create("pageCacheWarmup")) {
+            long pageId = nextSetBit(bitmap, 0);
+            while (pageId != -1 && !stopped && pagesLoaded < budget) {
+                // Coalesce consecutive profiled pages into a single vectored read.
+                int count = 1;
+                while (count < MAX_PAGES_PER_TOUCH && pagesLoaded + count < budget && isSet(bitmap, pageId + count)) {
+                    count++;
+                }
+                int touched = pagedFile.touch(pageId, count, cursorContext);
+                if (touched == 0) {
+                    // Profile reaches beyond the current end of the file.
+                    break;
+                }
+                pagesLoaded += touched;
+                pageCacheTracer.warmupPagesLoaded(touched);
+                pageId = nextSetBit(bitmap, pageId + count);
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private void scheduledProfile() {
+        try {
+            if (!stopped) {
+                profile();
+            }
+        } catch (Throwable t) {
+            log.warn("Page cache profiling failed.", t);
+        }
+    }
+
+    synchronized void profile() throws IOException {
+        if (readOnlyChecker.isReadOnly()) {
+            return;
+        }
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            Path file = pagedFile.path();
+            if (!file.startsWith(databaseDirectory) || file.startsWith(profilesDirectory)) {
+                continue;
+            }
+            Path profile = profilesDirectory
+                    .resolve(databaseDirectory.relativize(file))
+                    .resolveSibling(file.getFileName() + SUFFIX_CACHEPROF);
+            long lastPageId = pagedFile.getLastPageId();
+            long[] bitmap = new long[lastPageId < 0 ? 0 : (int) ((lastPageId >>> 6) + 1)];
+            pagedFile.visitLoadedPages(pageId -> {
+                int word = (int) (pageId >>> 6);
+                if (word < bitmap.length) {
+                    bitmap[word] |= 1L << pageId;
+                }
+            });
+            if (cardinality(bitmap) == 0) {
+                if (fs.fileExists(profile)) {
+                    fs.deleteFile(profile);
+                }
+                continue;
+            }
+            writeProfile(profile, bitmap);
+        }
+    }
+
+    private void writeProfile(Path profile, long[] bitmap) throws IOException {
+        fs.mkdirs(profile.getParent());
+        Path tempProfile = profile.resolveSibling(profile.getFileName() + SUFFIX_TEMP);
+        try (var out = new DataOutputStream(new GZIPOutputStream(fs.openAsOutputStream(tempProfile, false)))) {
+            out.writeInt(PROFILE_FORMAT_VERSION);
+            out.writeInt(bitmap.length);
+            for (long word : bitmap) {
+                out.writeLong(word);
+            }
+        }
+        fs.renameFile(tempProfile, profile, REPLACE_EXISTING);
+    }
+
+    private long[] readProfile(Path profile) throws IOException {
+        try (var in = new DataInputStream(new GZIPInputStream(fs.openAsInputStream(profile)))) {
+            int version = in.readInt();
+            if (version != PROFILE_FORMAT_VERSION) {
+                throw new IOException("Unsupported page cache profile version " + version + " in " + profile);
+            }
+            long[] bitmap = new long[in.readInt()];
+            for (int i = 0; i < bitmap.length; i++) {
+                bitmap[i] = in.readLong();
+            }
+            return bitmap;
+        }
+    }
+
+    private static void cancel(JobHandle<?> handle) {
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    private static long cardinality(long[] bitmap) {
+        long count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static boolean isSet(long[] bitmap, long bit) {
+        int word = (int) (bit >>> 6);
+        return word < bitmap.length && (bitmap[word] & (1L << bit)) != 0;
+    }
+
+    private static long nextSetBit(long[] bitmap, long fromBit) {
+        int word = (int) (fromBit >>> 6);
+        if (word >= bitmap.length) {
+            return -1;
+        }
+        long bits = bitmap[word] & (-1L << fromBit);
+        while (true) {
+            if (bits != 0) {
+                return ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == bitmap.length) {
+                return -1;
+            }
+            bits = bitmap[word];
+        }
+    }
+
+    private record WarmupTarget(PagedFile pagedFile, long[] bitmap) {}
+}
@@ -80,19 +80,43 @@ public class FileURIAccessRule implements AccessRule<URI> {
     public CharReadable getReader(
             URI uri, SecurityAuthorizationHandler securityAuthorizationHandler, SecurityContext securityContext)
             throws URLAccessValidationError, IOException {
-        final var scheme = uri.getScheme().toLowerCase(Locale.ROOT);
         try (var fs = schemeSystemSupplier.get()) {
-            if (!fs.resolvableSchemes().contains(scheme)) {
-                throw new URLAccessValidationError("Invalid URL '" + uri + "': unknown protocol: " + scheme);
-            }
+            final var path = resolve(fs, uri, securityAuthorizationHandler, securityContext);
+            return Readables.files(StandardCharsets.UTF_8, path);
+        }
+    }
+
+    /**
+     * Validates the URI the same way as {@link #getReader(URI, SecurityAuthorizationHandler, SecurityContext)} and
+     * resolves it to a path on the local file system, for readers that need more than a stream of characters.
+     */
+    public Path resolveLocalFile(
+            URI uri, SecurityAuthorizationHandler securityAuthorizationHandler, SecurityContext securityContext)
+            throws URLAccessValidationError, IOException {
+        if (!"file".equalsIgnoreCase(uri.getScheme())) {
+            throw new URLAccessValidationError("Invalid URL '" + uri + "': only file URLs are supported");
+        }
+        try (var fs = schemeSystemSupplier.get()) {
+            return resolve(fs, uri, securityAuthorizationHandler, securityContext);
+        }
+    }
 
-            if (!fs.canResolve(uri)) {
-                throw new URLAccessValidationError("loading resources via protocol '" + scheme + "' is not permitted");
-            }
+    private Path resolve(
+            SchemeFileSystemAbstraction fs,
+            URI uri,
+            SecurityAuthorizationHandler securityAuthorizationHandler,
+            SecurityContext securityContext)
+            throws URLAccessValidationError, IOException {
+        final var scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!fs.resolvableSchemes().contains(scheme)) {
+            throw new URLAccessValidationError("Invalid URL '" + uri + "': unknown protocol: " + scheme);
+        }
 
-            final var path = fs.resolve(validate(uri, securityAuthorizationHandler, securityContext));
-            return Readables.files(StandardCharsets.UTF_8, path);
+        if (!fs.canResolve(uri)) {
+            throw new URLAccessValidationError("loading resources via protocol '" + scheme + "' is not permitted");
         }
+
+        return fs.resolve(validate(uri, securityAuthorizationHandler, securityContext));
     }
 
     private boolean isFileLikeScheme(URI uri) {
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.security;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.Locale;
 import java.util.Set;
 import org.neo4j.configuration.Config;
@@ -69,4 +70,19 @@ public class URIAccessRules {
             throw LoadExternalResourceException.couldNotLoadExternalResource(String.valueOf(uri), e);
         }
     }
+
+    /**
+     * Validates a file URI with the same rules as {@link #validateAndOpen(SecurityContext, URI)}, including the
+     * configured import directory, and returns the local file it points to.
+     */
+    public Path validateAndResolveLocalFile(SecurityContext securityContext, URI uri) throws URLAccessValidationError {
+        if (uri.getScheme() == null) {
+            throw LoadExternalResourceException.invalidUrlNoScheme(String.valueOf(uri));
+        }
+        try {
+            return fileAccess.resolveLocalFile(uri, securityAuthorizationHandler, securityContext);
+        } catch (IOException e) {
+            throw LoadExternalResourceException.couldNotLoadExternalResource(String.valueOf(uri), e);
+        }
+    }
 }
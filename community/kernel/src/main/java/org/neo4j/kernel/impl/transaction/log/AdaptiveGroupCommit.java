@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.time.Duration;
+
+/**
+ * Decides how long the transaction log writer should hold back a force to let more transactions join the batch.
+ * <p>
+ * Keeps moving averages of the force latency and of the batch size. Waiting only makes sense when there are
+ * concurrent committers, so nothing is held back while batches average a single transaction. Otherwise the wait
+ * window is bounded both by the configured maximum and by a fraction of the force latency, since waiting longer than
+ * a force costs more than it saves. The window grows while waiting keeps gathering more transactions and is halved as
+ * soon as a wait didn't pay off. Not thread safe, only used by the writer thread.
+ */
+class AdaptiveGroupCommit {
+    private static final double SMOOTHING = 0.125;
+    private static final double CONCURRENCY_THRESHOLD = 1.5;
+    private static final double MAX_FORCE_FRACTION = 0.5;
+    private static final long MIN_WINDOW_NANOS = 1_000;
+
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private double averageForceNanos;
+    private double averageBatchSize = 1;
+    private long windowNanos;
+
+    AdaptiveGroupCommit(Duration maxWait, int maxBatchSize) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = Math.min(maxWaitNanos, MIN_WINDOW_NANOS);
+    }
+
+    boolean enabled() {
+        return maxWaitNanos > 0;
+    }
+
+    /**
+     * @return nanoseconds to wait for more transactions before draining the queue, {@code 0} to not wait at all.
+     */
+    long waitNanos() {
+        if (!enabled() || averageBatchSize < CONCURRENCY_THRESHOLD) {
+            return 0;
+        }
+        long forceBound = (long) (averageForceNanos * MAX_FORCE_FRACTION);
+        return Math.min(windowNanos, Math.min(maxWaitNanos, forceBound));
+    }
+
+    /**
+     * @return number of queued transactions at which waiting can stop early.
+     */
+    int targetBatchSize() {
+        return (int) Math.min(maxBatchSize, Math.max(2, Math.round(averageBatchSize * 2)));
+    }
+
+    /**
+     * Feed back the outcome of one batch.
+     * @param batchSize number of transactions in the batch.
+     * @param queuedBeforeWait number of transactions that were queued before waiting, or {@code -1} if there was no wait.
+     * @param forceNanos time it took to force the log for this batch, {@code 0} if there was no force.
+     */
+    void batchCompleted(int batchSize, int queuedBeforeWait, long forceNanos) {
+        averageBatchSize += (batchSize - averageBatchSize) * SMOOTHING;
+        if (forceNanos > 0) {
+            averageForceNanos += (forceNanos - averageForceNanos) * SMOOTHING;
+        }
+        if (queuedBeforeWait >= 0) {
+            if (batchSize > queuedBeforeWait) {
+                windowNanos = Math.min(maxWaitNanos, windowNanos + Math.max(MIN_WINDOW_NANOS, windowNanos / 8));
+            } else {
+                windowNanos = Math.max(MIN_WINDOW_NANOS, windowNanos / 2);
+            }
+        }
+    }
+}
@@ -240,7 +240,9 @@ public class PhysicalFlushableLogPositionAwareChannel implements FlushableLogPos
                 LogVersionedStoreChannel currentChannel, LogVersionedStoreChannel newLogChannel) {
             return currentChannel == null
                     || currentChannel.getLogFormatVersion().usesSegments()
-                            != newLogChannel.getLogFormatVersion().usesSegments();
+                            != newLogChannel.getLogFormatVersion().usesSegments()
+                    || currentChannel.getLogFormatVersion().usesCompressedEnvelopes()
+                            != newLogChannel.getLogFormatVersion().usesCompressedEnvelopes();
         }
 
         @Override
@@ -274,7 +276,8 @@ public class PhysicalFlushableLogPositionAwareChannel implements FlushableLogPos
                         EnvelopeWriteChannel
                                 .START_INDEX, // Not correct index from cluster perspective -  not needed yet.
                         databaseTracer,
-                        logRotation);
+                        logRotation,
+                        logChannel.getLogFormatVersion().usesCompressedEnvelopes());
             } else {
                 return new PhysicalFlushableLogChannel(logChannel, buffer);
             }
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_group_commit_max_wait;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
@@ -49,7 +50,8 @@ public class TransactionAppenderFactory {
                     appendIndexProvider,
                     metadataCache,
                     scheduler,
-                    logProvider);
+                    logProvider,
+                    config.get(transaction_log_group_commit_max_wait));
             return new QueueTransactionAppender(queue);
         }
 
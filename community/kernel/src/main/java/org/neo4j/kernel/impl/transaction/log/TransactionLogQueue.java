@@ -25,6 +25,7 @@ import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
 import static org.neo4j.storageengine.AppendIndexProvider.BASE_APPEND_INDEX;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.LockSupport;
@@ -59,6 +60,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
     private final MpscUnboundedXaddArrayQueue<TxQueueElement> txAppendQueue;
     private final JobScheduler jobScheduler;
     private final InternalLog log;
+    private final Duration groupCommitMaxWait;
     private TransactionWriter transactionWriter;
     private Thread logAppender;
     private volatile boolean stopped;
@@ -71,6 +73,26 @@ public class TransactionLogQueue extends LifecycleAdapter {
             TransactionMetadataCache metadataCache,
             JobScheduler jobScheduler,
             InternalLogProvider logProvider) {
+        this(
+                logFiles,
+                transactionIdStore,
+                databasePanic,
+                appendIndexProvider,
+                metadataCache,
+                jobScheduler,
+                logProvider,
+                Duration.ZERO);
+    }
+
+    public TransactionLogQueue(
+            LogFiles logFiles,
+            TransactionIdStore transactionIdStore,
+            Panic databasePanic,
+            AppendIndexProvider appendIndexProvider,
+            TransactionMetadataCache metadataCache,
+            JobScheduler jobScheduler,
+            InternalLogProvider logProvider,
+            Duration groupCommitMaxWait) {
         this.logFiles = logFiles;
         this.logRotation = logFiles.getLogFile().getLogRotation();
         this.transactionIdStore = transactionIdStore;
@@ -81,6 +103,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
         this.jobScheduler = jobScheduler;
         this.stopped = true;
         this.log = logProvider.getLog(getClass());
+        this.groupCommitMaxWait = groupCommitMaxWait;
     }
 
     public TxQueueElement submit(StorageEngineTransaction batch, LogAppendEvent logAppendEvent) throws IOException {
@@ -107,7 +130,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 logRotation,
                 log,
                 appendIndexProvider,
-                metadataCache);
+                metadataCache,
+                new AdaptiveGroupCommit(groupCommitMaxWait, CONSUMER_MAX_BATCH));
         logAppender = jobScheduler.threadFactory(Group.LOG_WRITER).newThread(transactionWriter);
         logAppender.start();
         stopped = false;
@@ -182,6 +206,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private final int checksum;
         private final AppendIndexProvider appendIndexProvider;
         private final TransactionMetadataCache metadataCache;
+        private final AdaptiveGroupCommit groupCommit;
         private volatile boolean stopped;
         private final MessagePassingQueue.WaitStrategy waitStrategy;
 
@@ -193,7 +218,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 LogRotation logRotation,
                 InternalLog log,
                 AppendIndexProvider appendIndexProvider,
-                TransactionMetadataCache metadataCache) {
+                TransactionMetadataCache metadataCache,
+                AdaptiveGroupCommit groupCommit) {
             this.txQueue = txQueue;
             this.transactionLogWriter = logFile.getTransactionLogWriter();
             this.logFile = logFile;
@@ -202,6 +228,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
             this.logRotation = logRotation;
             this.appendIndexProvider = appendIndexProvider;
             this.metadataCache = metadataCache;
+            this.groupCommit = groupCommit;
             this.log = log;
             this.waitStrategy = new SpinParkCombineWaitingStrategy();
         }
@@ -214,17 +241,23 @@ public class TransactionLogQueue extends LifecycleAdapter {
             int idleCounter = 0;
             while (!stopped) {
                 try {
+                    int queuedBeforeWait = awaitGroupCommit();
                     int drainedElements = txQueue.drain(txConsumer, CONSUMER_MAX_BATCH);
                     if (drainedElements > 0) {
                         idleCounter = 0;
                         txConsumer.processBatch();
 
                         LogAppendEvent logAppendEvent = txConsumer.txElements[drainedElements - 1].logAppendEvent;
+                        logAppendEvent.appendedBatch(drainedElements);
                         boolean logRotated = logRotation.locklessRotateLogIfNeeded(logAppendEvent);
                         logAppendEvent.setLogRotated(logRotated);
+                        long forceNanos = 0;
                         if (!logRotated) {
+                            long forceStart = System.nanoTime();
                             logFile.locklessForce(logAppendEvent);
+                            forceNanos = System.nanoTime() - forceStart;
                         }
+                        groupCommit.batchCompleted(drainedElements, queuedBeforeWait, forceNanos);
                         txConsumer.complete();
                     } else {
                         idleCounter = waitStrategy.idle(idleCounter);
@@ -243,6 +276,28 @@ public class TransactionLogQueue extends LifecycleAdapter {
             }
         }
 
+        /**
+         * Spin for a short while if there are fewer transactions queued than what a batch is expected to hold, to let
+         * concurrent committers join the next force instead of forcing for each of them.
+         * @return number of transactions queued before waiting, or {@code -1} if there was no wait.
+         */
+        private int awaitGroupCommit() {
+            int queued = txQueue.size();
+            if (queued == 0) {
+                return -1;
+            }
+            long waitNanos = groupCommit.waitNanos();
+            int target = groupCommit.targetBatchSize();
+            if (waitNanos == 0 || queued >= target) {
+                return -1;
+            }
+            long deadline = System.nanoTime() + waitNanos;
+            while (!stopped && txQueue.size() < target && System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+            }
+            return queued;
+        }
+
         private static class TxConsumer implements MessagePassingQueue.Consumer<TxQueueElement> {
             private final Panic databasePanic;
             private final TransactionLogWriter transactionLogWriter;
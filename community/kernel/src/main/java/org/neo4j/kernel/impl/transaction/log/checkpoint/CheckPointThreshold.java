@@ -75,6 +75,18 @@ public interface CheckPointThreshold {
      */
     long checkFrequencyMillis();
 
+    /**
+     * Report how close this threshold is to requiring a check point, as a ratio where {@code 1} or more means that a
+     * check point is required, or overdue if one is already in progress. Thresholds that cannot tell return {@code 0}.
+     *
+     * @param lastAppendIndex the latest append index
+     * @param logPosition the latest closed chunk log position
+     * @return the check point pressure of this threshold.
+     */
+    default double checkPointPressure(long lastAppendIndex, LogPosition logPosition) {
+        return 0;
+    }
+
     /**
      * Create and configure a {@link CheckPointThreshold} based on the given configurations.
      */
@@ -127,6 +139,15 @@ public interface CheckPointThreshold {
                 }
             }
 
+            @Override
+            public double checkPointPressure(long lastAppendIndex, LogPosition logPosition) {
+                double pressure = 0;
+                for (CheckPointThreshold threshold : thresholds) {
+                    pressure = Math.max(pressure, threshold.checkPointPressure(lastAppendIndex, logPosition));
+                }
+                return pressure;
+            }
+
             @Override
             public long checkFrequencyMillis() {
                 return Stream.of(thresholds)
@@ -103,6 +103,12 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer {
     public void start() {
         var lastClosedBatch = metadataProvider.getLastClosedBatch();
         threshold.initialize(lastClosedBatch.appendIndex(), lastClosedBatch.logPosition());
+        ioController.setUrgencySupplier(this::checkPointPressure);
+    }
+
+    private double checkPointPressure() {
+        var lastClosedBatch = metadataProvider.getLastClosedBatch();
+        return threshold.checkPointPressure(lastClosedBatch.appendIndex(), lastClosedBatch.logPosition());
     }
 
     @Override
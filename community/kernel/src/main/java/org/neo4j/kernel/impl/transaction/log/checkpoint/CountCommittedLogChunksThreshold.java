@@ -41,6 +41,12 @@ class CountCommittedLogChunksThreshold extends AbstractCheckPointThreshold {
         return lastAppendIndex >= nextAppendIndexTarget;
     }
 
+    @Override
+    public double checkPointPressure(long lastAppendIndex, LogPosition logPosition) {
+        long chunksSinceCheckPoint = lastAppendIndex - (nextAppendIndexTarget - notificationThreshold);
+        return notificationThreshold > 0 ? Math.max(0, (double) chunksSinceCheckPoint / notificationThreshold) : 0;
+    }
+
     @Override
     public void checkPointHappened(long appendIndex, LogPosition logPosition) {
         nextAppendIndexTarget = appendIndex + notificationThreshold;
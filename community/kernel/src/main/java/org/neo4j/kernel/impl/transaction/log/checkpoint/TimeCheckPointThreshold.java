@@ -64,6 +64,15 @@ class TimeCheckPointThreshold extends AbstractCheckPointThreshold {
         return lastAppendIndex > lastCheckPointedAppendIndex && stopWatch.hasTimedOut(timeout);
     }
 
+    @Override
+    public double checkPointPressure(long lastAppendIndex, LogPosition logPosition) {
+        long timeoutMillis = timeout.toMillis();
+        if (lastAppendIndex <= lastCheckPointedAppendIndex || timeoutMillis <= 0) {
+            return 0;
+        }
+        return (double) stopWatch.elapsed(TimeUnit.MILLISECONDS) / timeoutMillis;
+    }
+
     @Override
     public void checkPointHappened(long appendIndex, LogPosition logPosition) {
         lastCheckPointedAppendIndex = appendIndex;
@@ -38,11 +38,22 @@ public class VolumeCheckPointThreshold extends AbstractCheckPointThreshold {
 
     @Override
     protected boolean thresholdReached(long lastAppendIndex, LogPosition logPosition) {
+        return volumeBytes < bytesSinceCheckPoint(logPosition);
+    }
+
+    @Override
+    public double checkPointPressure(long lastAppendIndex, LogPosition logPosition) {
+        if (checkpointLogPosition == null) {
+            return 0;
+        }
+        return (double) bytesSinceCheckPoint(logPosition) / volumeBytes;
+    }
+
+    private long bytesSinceCheckPoint(LogPosition logPosition) {
         var previousLogPosition = checkpointLogPosition;
         long files = Math.abs(logPosition.getLogVersion() - previousLogPosition.getLogVersion());
         long offset = logPosition.getByteOffset() - previousLogPosition.getByteOffset();
-        long bytesDiff = Math.abs(files * fileSizeBytes + offset);
-        return volumeBytes < bytesDiff;
+        return Math.abs(files * fileSizeBytes + offset);
     }
 
     @Override
@@ -46,12 +46,27 @@ public class TransactionLogChannelAllocator {
     private final LogHeaderCache logHeaderCache;
     private final ChannelNativeAccessor nativeChannelAccessor;
     private final DatabaseTracer databaseTracer;
+    private final boolean compressEnvelopes;
 
     public TransactionLogChannelAllocator(
             TransactionLogFilesContext logFilesContext,
             TransactionLogFilesHelper fileHelper,
             LogHeaderCache logHeaderCache,
             ChannelNativeAccessor nativeChannelAccessor) {
+        this(logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, false);
+    }
+
+    /**
+     * @param compressEnvelopes whether new log files should be created in a log format with compressed envelopes,
+     * if the kernel version allows it. Existing files are always opened in the format they were created in.
+     */
+    public TransactionLogChannelAllocator(
+            TransactionLogFilesContext logFilesContext,
+            TransactionLogFilesHelper fileHelper,
+            LogHeaderCache logHeaderCache,
+            ChannelNativeAccessor nativeChannelAccessor,
+            boolean compressEnvelopes) {
+        this.compressEnvelopes = compressEnvelopes;
         this.logFilesContext = logFilesContext;
         this.fileSystem = logFilesContext.getFileSystem();
         this.databaseTracer = logFilesContext.getDatabaseTracers().getDatabaseTracer();
@@ -75,7 +90,7 @@ public class TransactionLogChannelAllocator {
                 // we always write file header from the beginning of the file
                 storeChannel.position(0);
                 KernelVersion kernelVersion = kernelVersionProvider.kernelVersion();
-                header = LogFormat.fromKernelVersion(kernelVersion)
+                header = LogFormat.fromKernelVersion(kernelVersion, compressEnvelopes)
                         .newHeader(
                                 version,
                                 lastAppendIndex,
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_envelope_compression;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.rotation.FileLogRotation.transactionLogRotation;
@@ -120,7 +121,11 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         this.logHeaderCache = new LogHeaderCache(1000);
         this.logFileInformation = new TransactionLogFileInformation(logFiles, logHeaderCache, context);
         this.channelAllocator = new TransactionLogChannelAllocator(
-                context, fileHelper, logHeaderCache, new LogFileChannelNativeAccessor(fileSystem, context));
+                context,
+                fileHelper,
+                logHeaderCache,
+                new LogFileChannelNativeAccessor(fileSystem, context),
+                context.getConfig().get(transaction_log_envelope_compression));
         this.readerLogVersionBridge = ReaderLogVersionBridge.forFile(this);
         this.rotationMonitor = context.getMonitors().newMonitor(LogRotationMonitor.class);
         this.logRotation = transactionLogRotation(this, context.getClock(), databaseHealth, rotationMonitor);
@@ -25,6 +25,7 @@ import org.neo4j.kernel.impl.transaction.log.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileCreateEvent;
 import org.neo4j.kernel.impl.transaction.log.LogFileFlushEvent;
 import org.neo4j.kernel.impl.transaction.log.LogTracers;
+import org.neo4j.kernel.impl.transaction.log.PowerOfTwoHistogram;
 
 public interface DatabaseTracer extends TransactionTracer, CheckPointTracer, LogTracers {
     DatabaseTracer NULL = new DatabaseTracer() {
@@ -158,5 +159,15 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer, Log
         public long rolledbackBatchedTransactions() {
             return 0;
         }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitSizes() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram logForceTimeMicros() {
+            return new PowerOfTwoHistogram();
+        }
     };
 }
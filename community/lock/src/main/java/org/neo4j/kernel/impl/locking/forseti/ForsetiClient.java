@@ -33,7 +33,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.collections.api.block.procedure.primitive.LongProcedure;
 import org.neo4j.collection.trackable.HeapTrackingCollections;
@@ -78,8 +77,8 @@ public class ForsetiClient implements LockManager.Client {
     private static final int NO_CLIENT_ID = -1;
     private static final int NO_DEADLOCK_DEPTH = -1;
 
-    /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    /** resourceType -> lock table. These are the global lock tables, shared across all clients. */
+    private final LockTable[] lockTables;
 
     /**
      * The client uses this to track which locks it holds. It is solely an optimization to ensure we don't need to
@@ -123,6 +122,13 @@ public class ForsetiClient implements LockManager.Client {
      */
     private ExclusiveLock myExclusiveLock;
 
+    /**
+     * A shared lock that this client created to put into the global lock table, but lost the race for. It has never
+     * been visible to other clients, so unlike a shared lock that has been released it is safe to reuse for the next
+     * shared lock this client needs to create.
+     */
+    private SharedLock spareSharedLock;
+
     private volatile boolean hasLocks;
 
     private final ReleaseExclusiveLocksAndClearSharedVisitor releaseExclusiveAndClearSharedVisitor =
@@ -146,14 +152,14 @@ public class ForsetiClient implements LockManager.Client {
     private static final long CONCURRENT_NODE_SIZE = HeapEstimator.LONG_SIZE + HeapEstimator.HASH_MAP_NODE_SHALLOW_SIZE;
     private volatile long prepareThreadId;
 
-    public ForsetiClient(
-            ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps,
+    ForsetiClient(
+            LockTable[] lockTables,
             SystemNanoClock clock,
             boolean verboseDeadlocks,
             long clientId) {
-        this.lockMaps = lockMaps;
-        this.sharedLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
-        this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
+        this.lockTables = lockTables;
+        this.sharedLockCounts = new HeapTrackingLongIntHashMap[lockTables.length];
+        this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[lockTables.length];
         this.clock = clock;
         this.verboseDeadlocks = verboseDeadlocks;
         this.clientId = clientId;
@@ -179,7 +185,7 @@ public class ForsetiClient implements LockManager.Client {
 
         try {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockTables[resourceType.typeId()];
 
             // And grab our local lock maps
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
@@ -207,7 +213,6 @@ public class ForsetiClient implements LockManager.Client {
 
                 // We don't hold the lock, so we need to grab it via the global lock map
                 int tries = 0;
-                SharedLock mySharedLock = null;
                 long waitStartNano = clock.nanos();
 
                 // Retry loop
@@ -220,11 +225,7 @@ public class ForsetiClient implements LockManager.Client {
                     // No lock
                     if (existingLock == null) {
                         // Try to create a new shared lock
-                        if (mySharedLock == null) {
-                            mySharedLock = new SharedLock(this);
-                        }
-
-                        if (lockMap.putIfAbsent(resourceId, mySharedLock) == null) {
+                        if (tryPutNewSharedLock(lockMap, resourceId)) {
                             // Success, we now hold the shared lock.
                             break;
                         } else {
@@ -265,6 +266,16 @@ public class ForsetiClient implements LockManager.Client {
         }
     }
 
+    private boolean tryPutNewSharedLock(LockTable lockMap, long resourceId) {
+        SharedLock sharedLock = spareSharedLock != null ? spareSharedLock : new SharedLock(this);
+        if (lockMap.putIfAbsent(resourceId, sharedLock) == null) {
+            spareSharedLock = null;
+            return true;
+        }
+        spareSharedLock = sharedLock;
+        return false;
+    }
+
     private void noteWaitingForLock(
             ForsetiLockManager.Lock lock, ResourceType resourceType, long resourceId, LockType lockType) {
         waitingForResourceType = resourceType;
@@ -306,7 +317,7 @@ public class ForsetiClient implements LockManager.Client {
         LockWaitEvent waitEvent = null;
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockTables[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             for (long resourceId : resourceIds) {
@@ -364,7 +375,7 @@ public class ForsetiClient implements LockManager.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockTables[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             int heldCount = heldLocks.getIfAbsent(resourceId, NO_CLIENT_ID);
@@ -409,7 +420,7 @@ public class ForsetiClient implements LockManager.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockTables[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap heldExclusiveLocks = getExclusiveLockCount(resourceType);
 
@@ -435,7 +446,7 @@ public class ForsetiClient implements LockManager.Client {
                 ForsetiLockManager.Lock existingLock = lockMap.get(resourceId);
                 if (existingLock == null) {
                     // Try to create a new shared lock
-                    if (lockMap.putIfAbsent(resourceId, new SharedLock(this)) == null) {
+                    if (tryPutNewSharedLock(lockMap, resourceId)) {
                         // Success!
                         break;
                     }
@@ -472,7 +483,7 @@ public class ForsetiClient implements LockManager.Client {
         try {
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockTables[resourceType.typeId()];
             for (long resourceId : resourceIds) {
                 if (releaseLocalLock(resourceType, resourceId, sharedLocks)) {
                     continue;
@@ -492,7 +503,7 @@ public class ForsetiClient implements LockManager.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockTables[resourceType.typeId()];
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             for (long resourceId : resourceIds) {
@@ -535,14 +546,15 @@ public class ForsetiClient implements LockManager.Client {
             // and so releasing exclusive locks means we can "throw away" our shared lock (which would normally have
             // been re-instated after releasing the exclusive lock).
             if (exclusiveLocks != null) {
-                exclusiveLocks.forEachKey(releaseExclusiveAndClearSharedVisitor.initialize(sharedLocks, lockMaps[i]));
+                exclusiveLocks.forEachKey(
+                        releaseExclusiveAndClearSharedVisitor.initialize(sharedLocks, lockTables[i]));
                 exclusiveLockCounts[i] = null;
                 exclusiveLocks.close();
             }
 
             // Then release all remaining shared locks
             if (sharedLocks != null) {
-                sharedLocks.forEachKey(releaseSharedDontCheckExclusiveVisitor.initialize(lockMaps[i]));
+                sharedLocks.forEachKey(releaseSharedDontCheckExclusiveVisitor.initialize(lockTables[i]));
                 sharedLockCounts[i] = null;
                 sharedLocks.close();
             }
@@ -616,9 +628,9 @@ public class ForsetiClient implements LockManager.Client {
         // We're iterating the global map instead of the client local maps because this can be called from separate
         // threads
         var locks = new ArrayList<ActiveLock>();
-        for (int typeId = 0; typeId < lockMaps.length; typeId++) {
+        for (int typeId = 0; typeId < lockTables.length; typeId++) {
             ResourceType resourceType = ResourceType.fromId(typeId);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[typeId];
+            LockTable lockMap = lockTables[typeId];
             if (lockMap != null) {
                 lockMap.forEach((resourceId, lock) -> {
                     if (lock.isOwnedBy(this)) {
@@ -632,7 +644,7 @@ public class ForsetiClient implements LockManager.Client {
 
     @Override
     public boolean holdsLock(long id, ResourceType resource, LockType lockType) {
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resource.typeId()];
+        LockTable lockMap = lockTables[resource.typeId()];
         ForsetiLockManager.Lock lock = lockMap.get(id);
         if (lock == null) {
             return false;
@@ -692,7 +704,7 @@ public class ForsetiClient implements LockManager.Client {
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap, long resourceId) {
+    private void releaseGlobalLock(LockTable lockMap, long resourceId) {
         ForsetiLockManager.Lock lock = lockMap.get(resourceId);
         if (lock instanceof ExclusiveLock) {
             lockMap.remove(resourceId);
@@ -727,7 +739,7 @@ public class ForsetiClient implements LockManager.Client {
             LockTracer tracer,
             LockWaitEvent waitEvent,
             ResourceType resourceType,
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+            LockTable lockMap,
             long resourceId,
             SharedLock sharedLock,
             long waitStartNano) {
@@ -1078,9 +1090,9 @@ public class ForsetiClient implements LockManager.Client {
      * is no need to check for those. It is used when releasing all locks.
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements LongProcedure {
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(LockTable lockMap) {
             this.lockMap = lockMap;
             return this;
         }
@@ -1097,10 +1109,9 @@ public class ForsetiClient implements LockManager.Client {
      */
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements LongProcedure {
         private HeapTrackingLongIntHashMap sharedLockCounts;
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize(
-                HeapTrackingLongIntHashMap sharedLockCounts, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(HeapTrackingLongIntHashMap sharedLockCounts, LockTable lockMap) {
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
             return this;
@@ -19,15 +19,14 @@
  */
 package org.neo4j.kernel.impl.locking.forseti;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_table;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_verbose_deadlocks;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings.LockTableImplementation;
 import org.neo4j.configuration.SettingChangeListener;
 import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.lock.LockType;
@@ -155,8 +154,8 @@ public class ForsetiLockManager implements LockManager {
     private final Config config;
     private final SettingChangeListener<Boolean> verboseDeadlocksSettingListener;
 
-    /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    /** Pointers to lock tables, one per resource type. */
+    private final LockTable[] lockTables;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
@@ -168,15 +167,15 @@ public class ForsetiLockManager implements LockManager {
     private volatile boolean verboseDeadlocks;
     private volatile boolean closed;
 
-    @SuppressWarnings("unchecked")
     public ForsetiLockManager(Config config, SystemNanoClock clock, ResourceType... resourceTypes) {
         this.config = config;
         int maxResourceId = findMaxResourceId(resourceTypes);
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockTables = new LockTable[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
 
+        LockTableImplementation lockTableImplementation = config.get(lock_manager_table);
         for (ResourceType type : resourceTypes) {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>(16, 0.6f, 512);
+            this.lockTables[type.typeId()] = createLockTable(lockTableImplementation);
             this.resourceTypes[type.typeId()] = type;
         }
         this.clock = clock;
@@ -194,26 +193,32 @@ public class ForsetiLockManager implements LockManager {
             throw new IllegalStateException(this + " already closed");
         }
 
-        return new ForsetiClient(lockMaps, clock, verboseDeadlocks, clientIds.incrementAndGet());
+        return new ForsetiClient(lockTables, clock, verboseDeadlocks, clientIds.incrementAndGet());
     }
 
     @Override
     public void accept(Visitor out) {
-        for (int i = 0; i < lockMaps.length; i++) {
-            if (lockMaps[i] != null) {
+        for (int i = 0; i < lockTables.length; i++) {
+            if (lockTables[i] != null) {
                 var resourceType = resourceTypes[i];
-                for (Map.Entry<Long, Lock> entry : lockMaps[i].entrySet()) {
-                    var lock = entry.getValue();
+                lockTables[i].forEach((resourceId, lock) -> {
                     var description = lock.describeWaitList();
                     var transactionIds = lock.transactionIds();
                     int lockIdentityHashCode = System.identityHashCode(lock);
                     transactionIds.forEach(txId -> out.visit(
-                            lock.type(), resourceType, txId, entry.getKey(), description, 0, lockIdentityHashCode));
-                }
+                            lock.type(), resourceType, txId, resourceId, description, 0, lockIdentityHashCode));
+                });
             }
         }
     }
 
+    private static LockTable createLockTable(LockTableImplementation implementation) {
+        return switch (implementation) {
+            case CONCURRENT_HASH_MAP -> new ConcurrentMapLockTable();
+            case STRIPED -> new StripedLockTable();
+        };
+    }
+
     private static int findMaxResourceId(ResourceType[] resourceTypes) {
         int max = 0;
         for (ResourceType resourceType : resourceTypes) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+
+/**
+ * The global table of locks for one {@link org.neo4j.lock.ResourceType}, shared by all {@link ForsetiClient clients}.
+ * Maps resource ids to the {@link ForsetiLockManager.Lock lock} currently held on that resource. Implementations must
+ * be safe for concurrent use and {@link #putIfAbsent(long, ForsetiLockManager.Lock)} must be atomic, since that is how
+ * clients race for a free resource.
+ */
+interface LockTable {
+    /**
+     * @param resourceId id of the resource.
+     * @return the lock currently held on the resource, or {@code null} if there is none.
+     */
+    ForsetiLockManager.Lock get(long resourceId);
+
+    /**
+     * Atomically associates {@code lock} with the resource if there is no lock on it already.
+     *
+     * @param resourceId id of the resource.
+     * @param lock lock to associate with the resource.
+     * @return the lock already held on the resource, or {@code null} if {@code lock} was associated with it.
+     */
+    ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock);
+
+    /**
+     * Associates {@code lock} with the resource, replacing any existing lock.
+     */
+    void put(long resourceId, ForsetiLockManager.Lock lock);
+
+    /**
+     * Removes any lock associated with the resource.
+     */
+    void remove(long resourceId);
+
+    /**
+     * Visits all resource/lock pairs in the table. Like iterating a concurrent map the visit is weakly consistent,
+     * locks added or removed while visiting may or may not be seen.
+     */
+    void forEach(LongObjectProcedure<ForsetiLockManager.Lock> procedure);
+}
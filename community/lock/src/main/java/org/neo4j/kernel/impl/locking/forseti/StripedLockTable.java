@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.concurrent.locks.StampedLock;
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+import org.neo4j.util.Preconditions;
+
+/**
+ * {@link LockTable} keyed by primitive resource ids, so that taking a lock does not allocate anything in the table
+ * itself. The table is split into a power of two number of stripes, each one an open addressing hash table with
+ * linear probing guarded by its own {@link StampedLock}. Lookups are optimistic reads that only fall back to taking
+ * the read lock if they raced with a writer in the same stripe. Removal shifts following entries back instead of
+ * leaving tombstones, so the stripes do not degrade with lock churn.
+ */
+class StripedLockTable implements LockTable {
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    StripedLockTable() {
+        this(defaultNumberOfStripes());
+    }
+
+    StripedLockTable(int numberOfStripes) {
+        Preconditions.checkArgument(
+                numberOfStripes >= 2 && Integer.bitCount(numberOfStripes) == 1,
+                "Number of stripes must be a power of two larger than one, was %d",
+                numberOfStripes);
+        this.stripes = new Stripe[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+        // Stripes are picked by the high bits of the hash and slots within a stripe by the low bits
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(numberOfStripes);
+    }
+
+    @Override
+    public ForsetiLockManager.Lock get(long resourceId) {
+        int hash = hash(resourceId);
+        Stripe stripe = stripe(hash);
+        long stamp = stripe.tryOptimisticRead();
+        ForsetiLockManager.Lock lock = stripe.find(resourceId, hash);
+        if (!stripe.validate(stamp)) {
+            stamp = stripe.readLock();
+            try {
+                lock = stripe.find(resourceId, hash);
+            } finally {
+                stripe.unlockRead(stamp);
+            }
+        }
+        return lock;
+    }
+
+    @Override
+    public ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock) {
+        int hash = hash(resourceId);
+        Stripe stripe = stripe(hash);
+        long stamp = stripe.writeLock();
+        try {
+            return stripe.put(resourceId, hash, lock, false);
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void put(long resourceId, ForsetiLockManager.Lock lock) {
+        int hash = hash(resourceId);
+        Stripe stripe = stripe(hash);
+        long stamp = stripe.writeLock();
+        try {
+            stripe.put(resourceId, hash, lock, true);
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(long resourceId) {
+        int hash = hash(resourceId);
+        Stripe stripe = stripe(hash);
+        long stamp = stripe.writeLock();
+        try {
+            stripe.remove(resourceId, hash);
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void forEach(LongObjectProcedure<ForsetiLockManager.Lock> procedure) {
+        for (Stripe stripe : stripes) {
+            long[] resourceIds;
+            ForsetiLockManager.Lock[] locks;
+            int count = 0;
+            // Copy the stripe so that the procedure is not called while holding the stripe lock
+            long stamp = stripe.readLock();
+            try {
+                resourceIds = new long[stripe.size];
+                locks = new ForsetiLockManager.Lock[stripe.size];
+                for (int i = 0; i < stripe.locks.length; i++) {
+                    if (stripe.locks[i] != null) {
+                        resourceIds[count] = stripe.resourceIds[i];
+                        locks[count] = stripe.locks[i];
+                        count++;
+                    }
+                }
+            } finally {
+                stripe.unlockRead(stamp);
+            }
+            for (int i = 0; i < count; i++) {
+                procedure.value(resourceIds[i], locks[i]);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripe(int hash) {
+        return stripes[hash >>> stripeShift];
+    }
+
+    private static int hash(long resourceId) {
+        long hash = resourceId * HASH_MULTIPLIER;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * One open addressing table. A slot is free when its lock is {@code null}, so any long can be used as resource id.
+     * The table is kept at most half full, which keeps probe sequences short and guarantees that a probe ends at a
+     * free slot.
+     */
+    @SuppressWarnings("serial")
+    private static final class Stripe extends StampedLock {
+        private long[] resourceIds = new long[INITIAL_STRIPE_CAPACITY];
+        private ForsetiLockManager.Lock[] locks = new ForsetiLockManager.Lock[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        /**
+         * Can be called without holding the lock as part of an optimistic read, so it has to terminate and stay within
+         * bounds even when it observes a table in the middle of being changed. The result is only trusted if the read
+         * is validated afterwards.
+         */
+        ForsetiLockManager.Lock find(long resourceId, int hash) {
+            long[] resourceIds = this.resourceIds;
+            ForsetiLockManager.Lock[] locks = this.locks;
+            int capacity = locks.length;
+            if (resourceIds.length != capacity) {
+                // Saw a resize half-way, validation will fail
+                return null;
+            }
+            int mask = capacity - 1;
+            int slot = hash & mask;
+            for (int probes = 0; probes < capacity; probes++) {
+                ForsetiLockManager.Lock lock = locks[slot];
+                if (lock == null) {
+                    return null;
+                }
+                if (resourceIds[slot] == resourceId) {
+                    return lock;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        ForsetiLockManager.Lock put(long resourceId, int hash, ForsetiLockManager.Lock lock, boolean replace) {
+            int mask = locks.length - 1;
+            int slot = hash & mask;
+            ForsetiLockManager.Lock existing;
+            while ((existing = locks[slot]) != null) {
+                if (resourceIds[slot] == resourceId) {
+                    if (replace) {
+                        locks[slot] = lock;
+                    }
+                    return existing;
+                }
+                slot = (slot + 1) & mask;
+            }
+            resourceIds[slot] = resourceId;
+            locks[slot] = lock;
+            if (++size * 2 > locks.length) {
+                grow();
+            }
+            return null;
+        }
+
+        void remove(long resourceId, int hash) {
+            int mask = locks.length - 1;
+            int slot = hash & mask;
+            while (locks[slot] != null) {
+                if (resourceIds[slot] == resourceId) {
+                    shiftBack(slot, mask);
+                    size--;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Fills the hole left by a removed entry with following entries of the same probe sequence, so that a probe
+         * never stops at a free slot before reaching its entry.
+         */
+        private void shiftBack(int hole, int mask) {
+            int slot = (hole + 1) & mask;
+            while (locks[slot] != null) {
+                int home = hash(resourceIds[slot]) & mask;
+                // The entry can move into the hole if the hole lies between its home slot and where it is now
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    resourceIds[hole] = resourceIds[slot];
+                    locks[hole] = locks[slot];
+                    hole = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            resourceIds[hole] = 0;
+            locks[hole] = null;
+        }
+
+        private void grow() {
+            long[] oldResourceIds = resourceIds;
+            ForsetiLockManager.Lock[] oldLocks = locks;
+            int capacity = oldLocks.length * 2;
+            int mask = capacity - 1;
+            long[] newResourceIds = new long[capacity];
+            ForsetiLockManager.Lock[] newLocks = new ForsetiLockManager.Lock[capacity];
+            for (int i = 0; i < oldLocks.length; i++) {
+                if (oldLocks[i] != null) {
+                    int slot = hash(oldResourceIds[i]) & mask;
+                    while (newLocks[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newResourceIds[slot] = oldResourceIds[i];
+                    newLocks[slot] = oldLocks[i];
+                }
+            }
+            resourceIds = newResourceIds;
+            locks = newLocks;
+        }
+    }
+
+    private static int defaultNumberOfStripes() {
+        int stripes = Runtime.getRuntime().availableProcessors() * 8;
+        return Integer.highestOneBit(stripes - 1) << 1;
+    }
+}
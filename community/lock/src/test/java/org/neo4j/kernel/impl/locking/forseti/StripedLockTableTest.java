@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+@ExtendWith(RandomExtension.class)
+class StripedLockTableTest {
+    @Inject
+    private RandomSupport random;
+
+    private final ForsetiClient client = mock(ForsetiClient.class);
+
+    @Test
+    void shouldPutIfAbsentAndGet() {
+        // Given
+        StripedLockTable table = new StripedLockTable(4);
+        ForsetiLockManager.Lock first = new SharedLock(client);
+        ForsetiLockManager.Lock second = new ExclusiveLock(client);
+
+        // When
+        ForsetiLockManager.Lock existingBefore = table.putIfAbsent(Long.MIN_VALUE, first);
+        ForsetiLockManager.Lock existingAfter = table.putIfAbsent(Long.MIN_VALUE, second);
+
+        // Then
+        assertThat(existingBefore).isNull();
+        assertThat(existingAfter).isSameAs(first);
+        assertThat(table.get(Long.MIN_VALUE)).isSameAs(first);
+        assertThat(table.get(0)).isNull();
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplaceOnPut() {
+        // Given
+        StripedLockTable table = new StripedLockTable(4);
+        ForsetiLockManager.Lock exclusive = new ExclusiveLock(client);
+        ForsetiLockManager.Lock shared = new SharedLock(client);
+        table.putIfAbsent(42, exclusive);
+
+        // When
+        table.put(42, shared);
+
+        // Then
+        assertThat(table.get(42)).isSameAs(shared);
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFindRemainingEntriesAfterRemovalsInCollidingProbeSequences() {
+        // Given enough entries for the stripes to grow and collide many times
+        StripedLockTable table = new StripedLockTable(2);
+        Map<Long, ForsetiLockManager.Lock> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long resourceId = random.nextLong(20_000);
+            ForsetiLockManager.Lock lock = new ExclusiveLock(client);
+            if (random.nextBoolean()) {
+                ForsetiLockManager.Lock existing = table.putIfAbsent(resourceId, lock);
+                assertThat(existing).isSameAs(expected.get(resourceId));
+                expected.putIfAbsent(resourceId, lock);
+            } else {
+                table.remove(resourceId);
+                expected.remove(resourceId);
+            }
+        }
+
+        // Then
+        assertThat(table.size()).isEqualTo(expected.size());
+        for (long resourceId = 0; resourceId < 20_000; resourceId++) {
+            assertThat(table.get(resourceId)).isSameAs(expected.get(resourceId));
+        }
+        Map<Long, ForsetiLockManager.Lock> visited = new HashMap<>();
+        table.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldHandleConcurrentAcquireAndRelease() throws Throwable {
+        // Given
+        StripedLockTable table = new StripedLockTable(4);
+        long resourcesPerThread = 1_000;
+        Race race = new Race();
+        race.addContestants(4, thread -> {
+            long base = thread * resourcesPerThread;
+            ForsetiLockManager.Lock lock = new ExclusiveLock(client);
+            return () -> {
+                // Every thread works on its own resources, so it must always see its own changes
+                for (int i = 0; i < 100_000; i++) {
+                    long resourceId = base + ThreadLocalRandom.current().nextLong(resourcesPerThread);
+                    if (table.get(resourceId) == null) {
+                        assertThat(table.putIfAbsent(resourceId, lock)).isNull();
+                        assertThat(table.get(resourceId)).isSameAs(lock);
+                    } else {
+                        table.remove(resourceId);
+                        assertThat(table.get(resourceId)).isNull();
+                    }
+                }
+            };
+        });
+
+        // When
+        race.go();
+
+        // Then
+        MutableInt count = new MutableInt();
+        table.forEach((resourceId, lock) -> count.increment());
+        assertThat(count.intValue()).isEqualTo(table.size());
+    }
+
+    @Test
+    void shouldRequirePowerOfTwoStripes() {
+        assertThatThrownBy(() -> new StripedLockTable(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedLockTable(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -45,11 +45,13 @@ import org.neo4j.collection.Dependencies;
 import org.neo4j.common.DependencyResolver;
 import org.neo4j.common.Edition;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.connectors.BoltConnectorInternalSettings;
 import org.neo4j.configuration.connectors.HttpConnector;
 import org.neo4j.configuration.connectors.HttpsConnector;
 import org.neo4j.dbms.DatabaseStateService;
+import org.neo4j.dbms.admissioncontrol.AdaptiveAdmissionControlService;
 import org.neo4j.dbms.admissioncontrol.AdmissionControlService;
 import org.neo4j.dbms.admissioncontrol.NoopAdmissionControlService;
 import org.neo4j.dbms.api.DatabaseManagementService;
@@ -202,8 +204,8 @@ public class DatabaseManagementServiceFactory {
                 new TransactionManagerImpl(boltGraphDatabaseManagementServiceSPI, globalModule.getGlobalClock());
         globalDependencies.satisfyDependency(transactionManager);
 
-        var acs =
-                tryResolveOrCreate(AdmissionControlService.class, globalDependencies, NoopAdmissionControlService::new);
+        var acs = tryResolveOrCreate(
+                AdmissionControlService.class, globalDependencies, () -> createAdmissionControlService(globalModule));
         var boltServer = createBoltServer(globalModule, edition, transactionManager, routingService, config, acs);
 
         globalLife.add(boltServer);
@@ -428,6 +430,18 @@ public class DatabaseManagementServiceFactory {
         globalModule.getGlobalDependencies().satisfyDependency(procedures);
     }
 
+    private static AdmissionControlService createAdmissionControlService(GlobalModule globalModule) {
+        var config = globalModule.getGlobalConfig();
+        if (!config.get(GraphDatabaseInternalSettings.admission_control_enabled)) {
+            return new NoopAdmissionControlService();
+        }
+        var pageCacheTracer = globalModule.getTracers().getPageCacheTracer();
+        var admissionControl = new AdaptiveAdmissionControlService(
+                config, globalModule.getGlobalClock(), globalModule.getJobScheduler(), pageCacheTracer::faults);
+        globalModule.getGlobalLife().add(admissionControl);
+        return admissionControl;
+    }
+
     private static BoltServer createBoltServer(
             GlobalModule globalModule,
             AbstractEditionModule edition,
@@ -74,6 +74,7 @@ import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.procedure.builtin.BuiltInDbmsProcedures;
 import org.neo4j.procedure.builtin.BuiltInProcedures;
 import org.neo4j.procedure.builtin.FulltextProcedures;
+import org.neo4j.procedure.builtin.ParquetProcedures;
 import org.neo4j.procedure.builtin.TokenProcedures;
 import org.neo4j.procedure.builtin.VectorIndexProcedures;
 import org.neo4j.procedure.builtin.graphschema.Introspect;
@@ -105,6 +106,7 @@ public abstract class AbstractEditionModule {
         globalProcedures.registerProcedure(FulltextProcedures.class);
         globalProcedures.registerProcedure(VectorIndexProcedures.class);
         globalProcedures.registerProcedure(DataCollectorProcedures.class);
+        globalProcedures.registerProcedure(ParquetProcedures.class);
         if (FeatureToggles.flag(Introspect.class, "enabled", false)) {
             globalProcedures.registerProcedure(Introspect.class);
         }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import static org.neo4j.procedure.Mode.READ;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.neo4j.common.DependencyResolver;
+import org.neo4j.graphdb.security.URLAccessValidationError;
+import org.neo4j.internal.batchimport.input.parquet.ParquetValueReader;
+import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.kernel.impl.security.URIAccessRules;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+@SuppressWarnings("unused")
+public class ParquetProcedures {
+    static final String COLUMNS = "columns";
+    static final String PARALLELISM = "parallelism";
+
+    @Context
+    public DependencyResolver resolver;
+
+    @Context
+    public SecurityContext securityContext;
+
+    @Description(
+            """
+            Load the rows of a Parquet file as maps from column name to value, reading the row groups of the file in parallel.
+            Valid config options are `columns`, a list of the only columns to read, and `parallelism`, the maximum number of row groups to read at the same time.
+            Rows are returned grouped by row group, but the row groups are not returned in file order when read in parallel.
+            """)
+    @Procedure(name = "db.load.parquet", mode = READ)
+    public Stream<RowResult> loadParquet(
+            @Name(value = "url", description = "The URL of the Parquet file to load.") String url,
+            @Name(
+                            value = "config",
+                            defaultValue = "{}",
+                            description = "{columns = [] :: LIST<STRING>, parallelism :: INTEGER}")
+                    Map<String, Object> config)
+            throws IOException, URLAccessValidationError {
+        var path = localPath(url);
+        var reader = ParquetValueReader.open(path, columns(config));
+        var columnNames = reader.columnNames().toArray(String[]::new);
+        var rows = new ParquetRowIterator(reader, resolver.resolveDependency(JobScheduler.class), parallelism(config));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                .map(row -> new RowResult(toMap(columnNames, row)))
+                .onClose(rows::close);
+    }
+
+    private Path localPath(String url) throws URLAccessValidationError {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL '%s'".formatted(url), e);
+        }
+        if (!"file".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException(
+                    "Only file URLs are supported for Parquet files, got '%s'".formatted(url));
+        }
+        // The same rules as for LOAD CSV apply, including the configured import directory
+        return resolver.resolveDependency(URIAccessRules.class).validateAndResolveLocalFile(securityContext, uri);
+    }
+
+    private static List<String> columns(Map<String, Object> config) {
+        Object columns = config.getOrDefault(COLUMNS, List.of());
+        if (!(columns instanceof List<?> list) || !list.stream().allMatch(String.class::isInstance)) {
+            throw new IllegalArgumentException("'%s' must be a list of column names".formatted(COLUMNS));
+        }
+        return list.stream().map(String.class::cast).toList();
+    }
+
+    private static int parallelism(Map<String, Object> config) {
+        Object parallelism = config.getOrDefault(PARALLELISM, (long) Runtime.getRuntime().availableProcessors());
+        if (!(parallelism instanceof Long value) || value < 1) {
+            throw new IllegalArgumentException("'%s' must be a positive integer".formatted(PARALLELISM));
+        }
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    private static MapValue toMap(String[] columnNames, Value[] row) {
+        var builder = new MapValueBuilder(columnNames.length);
+        for (int i = 0; i < columnNames.length; i++) {
+            builder.add(columnNames[i], row[i]);
+        }
+        return builder.build();
+    }
+
+    public record RowResult(@Description("A row of the Parquet file, keyed by column name.") MapValue row) {}
+}
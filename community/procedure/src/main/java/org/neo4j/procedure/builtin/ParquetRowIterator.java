@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import org.neo4j.internal.batchimport.input.parquet.ParquetValueReader;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.util.VisibleForTesting;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Reads the row groups of a Parquet file on a number of {@link Group#FILE_IO_HELPER} threads and hands the rows over
+ * to the consuming thread in batches, through a bounded queue. Every worker claims the next unread row group until
+ * there are none left, so rows come out grouped by row group, but row groups don't come out in file order.
+ * <p>
+ * Closing the iterator before all rows have been consumed stops the workers, and waits for the ones that are still
+ * reading, so that no file is read anymore once {@link #close()} returns.
+ */
+class ParquetRowIterator implements Iterator<Value[]>, AutoCloseable {
+    private static final int BATCH_SIZE = 1024;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final List<Value[]> DONE = Collections.emptyList();
+
+    private final ParquetValueReader reader;
+    private final BlockingQueue<List<Value[]>> batches;
+    private final AtomicInteger nextRowGroup = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final List<JobHandle<?>> workers = new ArrayList<>();
+    private volatile boolean closed;
+    private int remainingWorkers;
+    private Iterator<Value[]> current = Collections.emptyIterator();
+
+    ParquetRowIterator(ParquetValueReader reader, JobScheduler scheduler, int parallelism) {
+        this.reader = reader;
+        this.remainingWorkers = Math.max(1, Math.min(parallelism, reader.rowGroupCount()));
+        this.batches = new ArrayBlockingQueue<>(remainingWorkers * 2);
+        for (int i = 0; i < remainingWorkers; i++) {
+            workers.add(scheduler.schedule(Group.FILE_IO_HELPER, this::readRowGroups));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        while (!current.hasNext()) {
+            if (remainingWorkers == 0) {
+                return false;
+            }
+            List<Value[]> batch = take();
+            if (batch == DONE) {
+                remainingWorkers--;
+            }
+            current = batch.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Value[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        batches.clear();
+        for (JobHandle<?> worker : workers) {
+            worker.cancel();
+        }
+        // Workers that started before the flag was set may still be reading, those that start after it won't read
+        while (activeWorkers.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        current = Collections.emptyIterator();
+    }
+
+    @VisibleForTesting
+    int activeWorkers() {
+        return activeWorkers.get();
+    }
+
+    private List<Value[]> take() {
+        try {
+            List<Value[]> batch;
+            do {
+                throwIfFailed();
+                batch = batches.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } while (batch == null);
+            throwIfFailed();
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading Parquet file", e);
+        }
+    }
+
+    private void throwIfFailed() {
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new RuntimeException("Failed to read Parquet file", cause);
+        }
+    }
+
+    private void readRowGroups() {
+        activeWorkers.incrementAndGet();
+        if (closed) {
+            activeWorkers.decrementAndGet();
+            return;
+        }
+        try (var cursor = reader.openCursor()) {
+            int rowGroup;
+            while (!closed && (rowGroup = nextRowGroup.getAndIncrement()) < reader.rowGroupCount()) {
+                var rows = cursor.readRowGroup(rowGroup);
+                var batch = new ArrayList<Value[]>(BATCH_SIZE);
+                while (!closed && rows.hasNext()) {
+                    batch.add(rows.next());
+                    if (batch.size() == BATCH_SIZE) {
+                        offer(batch);
+                        batch = new ArrayList<>(BATCH_SIZE);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    offer(batch);
+                }
+            }
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            offer(DONE);
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Blocks until there's room in the queue, giving up if the consumer has gone away.
+     */
+    private void offer(List<Value[]> batch) {
+        try {
+            while (!closed && !batches.offer(batch, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the consumer is slower than the readers, keep waiting
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+}
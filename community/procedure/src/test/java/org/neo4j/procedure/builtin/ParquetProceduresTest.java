@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+
+import blue.strategic.parquet.ParquetWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.neo4j.collection.Dependencies;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.graphdb.security.URLAccessValidationError;
+import org.neo4j.internal.kernel.api.security.CommunitySecurityLog;
+import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.kernel.impl.security.URIAccessRules;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+
+@TestDirectoryExtension
+class ParquetProceduresTest {
+    private static final List<Type> TYPES = List.of(
+            Types.required(INT64).named("id"),
+            Types.required(BINARY).as(LogicalTypeAnnotation.stringType()).named("name"));
+
+    @Inject
+    private TestDirectory directory;
+
+    private JobScheduler jobScheduler;
+    private Path importRoot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jobScheduler = createInitialisedScheduler();
+        importRoot = directory.directory("import");
+        createParquetFile(importRoot.resolve("people.parquet"), 3);
+        createParquetFile(directory.homePath().resolve("outside.parquet"), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldLoadRowsFromImportDirectory() throws Exception {
+        var procedures = procedures(importRootConfig());
+
+        assertThat(load(procedures, "file:///people.parquet", Map.of()))
+                .containsExactlyInAnyOrder(row(0, "name-0"), row(1, "name-1"), row(2, "name-2"));
+    }
+
+    @Test
+    void shouldConfineFileUrlsToImportDirectory() throws Exception {
+        var procedures = procedures(importRootConfig());
+
+        var outside = directory.homePath().resolve("outside.parquet").toUri().toString();
+        // resolved relative to the import directory, where there is no such file
+        assertThatThrownBy(() -> load(procedures, outside, Map.of()))
+                .isInstanceOfAny(IOException.class, URLAccessValidationError.class);
+        assertThatThrownBy(() -> load(procedures, "file:///../outside.parquet", Map.of()))
+                .isInstanceOfAny(IOException.class, URLAccessValidationError.class);
+    }
+
+    @Test
+    void shouldRejectFileUrlWithAuthority() {
+        var procedures = procedures(importRootConfig());
+
+        assertThatThrownBy(() -> load(procedures, "file://localhost/people.parquet", Map.of()))
+                .isInstanceOf(URLAccessValidationError.class)
+                .hasMessageContaining("authority");
+    }
+
+    @Test
+    void shouldRejectFileUrlWithQuery() {
+        var procedures = procedures(importRootConfig());
+
+        assertThatThrownBy(() -> load(procedures, "file:///people.parquet?a=b", Map.of()))
+                .isInstanceOf(URLAccessValidationError.class)
+                .hasMessageContaining("query");
+    }
+
+    @Test
+    void shouldRejectFileUrlsWhenNotAllowed() {
+        var procedures = procedures(Config.newBuilder()
+                .set(GraphDatabaseSettings.load_csv_file_url_root, importRoot)
+                .set(GraphDatabaseSettings.allow_file_urls, false)
+                .build());
+
+        assertThatThrownBy(() -> load(procedures, "file:///people.parquet", Map.of()))
+                .isInstanceOf(URLAccessValidationError.class)
+                .hasMessageContaining(GraphDatabaseSettings.allow_file_urls.name());
+    }
+
+    @Test
+    void shouldRejectOtherSchemes() {
+        var procedures = procedures(importRootConfig());
+
+        assertThatThrownBy(() -> load(procedures, "https://example.com/people.parquet", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Only file URLs");
+        assertThatThrownBy(() -> load(procedures, "people.parquet", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Only file URLs");
+    }
+
+    @Test
+    void shouldOnlyReadRequestedColumns() throws Exception {
+        var procedures = procedures(importRootConfig());
+
+        var rows = load(procedures, "file:///people.parquet", Map.of(ParquetProcedures.COLUMNS, List.of("name")));
+
+        assertThat(rows).hasSize(3).allSatisfy(row -> assertThat(row.keySet()).containsExactly("name"));
+    }
+
+    @Test
+    void shouldRejectInvalidColumns() {
+        var procedures = procedures(importRootConfig());
+
+        assertThatThrownBy(() -> load(procedures, "file:///people.parquet", Map.of(ParquetProcedures.COLUMNS, "name")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(ParquetProcedures.COLUMNS);
+        assertThatThrownBy(() ->
+                        load(procedures, "file:///people.parquet", Map.of(ParquetProcedures.COLUMNS, List.of("age"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'age'");
+    }
+
+    @Test
+    void shouldReadWithAnyParallelism() throws Exception {
+        var procedures = procedures(importRootConfig());
+
+        for (long parallelism : new long[] {1, 2, 64}) {
+            assertThat(load(procedures, "file:///people.parquet", Map.of(ParquetProcedures.PARALLELISM, parallelism)))
+                    .hasSize(3);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidParallelism() {
+        var procedures = procedures(importRootConfig());
+
+        for (Object parallelism : new Object[] {0L, -1L, "2", 1.5}) {
+            assertThatThrownBy(() -> load(
+                            procedures, "file:///people.parquet", Map.of(ParquetProcedures.PARALLELISM, parallelism)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining(ParquetProcedures.PARALLELISM);
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void shouldStopReadingWhenStreamIsClosedEarly() throws Exception {
+        createParquetFile(importRoot.resolve("large.parquet"), 10_000);
+        var procedures = procedures(importRootConfig());
+
+        try (var rows = procedures.loadParquet("file:///large.parquet", Map.of(ParquetProcedures.PARALLELISM, 1L))) {
+            assertThat(rows.limit(10).count()).isEqualTo(10);
+        }
+    }
+
+    private Config importRootConfig() {
+        return Config.defaults(GraphDatabaseSettings.load_csv_file_url_root, importRoot);
+    }
+
+    private ParquetProcedures procedures(Config config) {
+        var dependencies = new Dependencies();
+        dependencies.satisfyDependencies(
+                jobScheduler, new URIAccessRules(new CommunitySecurityLog(NullLog.getInstance()), config));
+        var procedures = new ParquetProcedures();
+        procedures.resolver = dependencies;
+        procedures.securityContext = SecurityContext.AUTH_DISABLED;
+        return procedures;
+    }
+
+    private static List<MapValue> load(ParquetProcedures procedures, String url, Map<String, Object> config)
+            throws Exception {
+        try (var rows = procedures.loadParquet(url, config)) {
+            return rows.map(ParquetProcedures.RowResult::row).collect(Collectors.toList());
+        }
+    }
+
+    private static MapValue row(long id, String name) {
+        return MapValue.EMPTY.updatedWith("id", Values.longValue(id)).updatedWith("name", Values.stringValue(name));
+    }
+
+    static void createParquetFile(Path path, int rows) throws IOException {
+        try (var writer =
+                ParquetWriter.writeFile(new MessageType("people", TYPES), path.toFile(), (record, valueWriter) -> {
+                    long id = (Long) record;
+                    valueWriter.write("id", id);
+                    valueWriter.write("name", "name-" + id);
+                })) {
+            for (long id : LongStream.range(0, rows).toArray()) {
+                writer.write(id);
+            }
+        }
+    }
+}
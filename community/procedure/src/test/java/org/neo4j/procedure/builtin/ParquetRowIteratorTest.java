@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.procedure.builtin.ParquetProceduresTest.createParquetFile;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.neo4j.internal.batchimport.input.parquet.ParquetValueReader;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.Values;
+
+@TestDirectoryExtension
+@Timeout(60)
+class ParquetRowIteratorTest {
+    @Inject
+    private TestDirectory directory;
+
+    private JobScheduler jobScheduler;
+
+    @BeforeEach
+    void setUp() {
+        jobScheduler = createInitialisedScheduler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldReadAllRows() throws Exception {
+        var file = directory.file("rows.parquet");
+        createParquetFile(file, 5_000);
+
+        long count = 0;
+        try (var rows = new ParquetRowIterator(ParquetValueReader.open(file, List.of("id")), jobScheduler, 4)) {
+            while (rows.hasNext()) {
+                assertThat(rows.next()[0]).isEqualTo(Values.longValue(count));
+                count++;
+            }
+        }
+        assertThat(count).isEqualTo(5_000);
+    }
+
+    @Test
+    void shouldStopWorkersWhenClosedBeforeAllRowsAreRead() throws Exception {
+        var file = directory.file("rows.parquet");
+        // many more rows than fit in the queue, so that the worker is blocked on handing over rows when closing
+        createParquetFile(file, 100_000);
+
+        var rows = new ParquetRowIterator(ParquetValueReader.open(file, List.of()), jobScheduler, 1);
+        assertThat(rows.hasNext()).isTrue();
+        rows.next();
+        rows.close();
+
+        assertThat(rows.activeWorkers()).isZero();
+        assertThat(rows.hasNext()).isFalse();
+        // closing again is harmless
+        rows.close();
+    }
+
+    @Test
+    void shouldStopWorkersWhenClosedBeforeReading() throws Exception {
+        var file = directory.file("rows.parquet");
+        createParquetFile(file, 100_000);
+
+        var rows = new ParquetRowIterator(ParquetValueReader.open(file, List.of()), jobScheduler, 1);
+        rows.close();
+
+        assertThat(rows.activeWorkers()).isZero();
+        assertThat(rows.hasNext()).isFalse();
+    }
+}
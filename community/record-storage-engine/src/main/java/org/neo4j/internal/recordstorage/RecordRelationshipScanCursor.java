@@ -190,7 +190,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     private void selectScanCursor() {
         // For node scans we used a local cursor to skip the overhead of positioning it on every node
         if (scanCursor == null) {
-            scanCursor = relationshipStore.openPageCursorForReading(0, cursorContext);
+            scanCursor = relationshipStore.openPageCursorForScanning(0, cursorContext);
         }
         currentCursor = scanCursor;
     }
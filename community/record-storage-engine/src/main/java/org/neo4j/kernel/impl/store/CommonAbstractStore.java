@@ -27,6 +27,7 @@ import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_CHAIN_FOLLOW;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SEQUENTIAL_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
@@ -39,6 +40,7 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.helpers.collection.Visitor;
@@ -83,6 +85,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
     private final Path idFile;
     private final String typeDescriptor;
     protected final boolean readOnly;
+    private final int scanFlags;
     protected PagedFile pagedFile;
     protected int recordSize;
     private int filePageSize;
@@ -142,6 +145,9 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
         this.databaseName = databaseName;
         this.openOptions = openOptions;
         this.readOnly = readOnly;
+        this.scanFlags = configuration.get(GraphDatabaseInternalSettings.scan_resistant_store_scans)
+                ? PF_SEQUENTIAL_SCAN
+                : 0;
         this.log = logProvider.getLog(getClass());
     }
 
@@ -420,6 +426,17 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
         return openPageCursorForReading(0, PF_READ_AHEAD, cursorContext);
     }
 
+    /**
+     * Opens a new {@link PageCursor} to this store, for scanning through its records.
+     * The opened cursor will make use of the {@link PagedFile#PF_SEQUENTIAL_SCAN} flag if
+     * {@link GraphDatabaseInternalSettings#scan_resistant_store_scans} is enabled, so that large scans do not
+     * push the working set out of the page cache.
+     */
+    @Override
+    public PageCursor openPageCursorForScanning(long id, CursorContext cursorContext) {
+        return openPageCursorForReading(id, scanFlags, cursorContext);
+    }
+
     /**
      * Opens a new {@link PageCursor} to this store.
      * The opened cursor will make not have any additional flags set.
@@ -119,6 +119,19 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> {
      */
     PageCursor openPageCursorForReadingWithPrefetching(long id, CursorContext cursorContext);
 
+    /**
+     * Opens a {@link PageCursor} on this store, capable of reading records using
+     * {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor, MemoryTracker)}.
+     * The caller is responsible for closing it when done with it.
+     * The opened cursor is meant for scanning through the store. If scan resistance is enabled, pages it loads will
+     * be evicted from the page cache ahead of the pages of the working set, unless they are accessed again.
+     *
+     * @param id cursor will initially be placed at the page containing this record id.
+     * @param cursorContext underlying page cursor context.
+     * @return PageCursor for reading records.
+     */
+    PageCursor openPageCursorForScanning(long id, CursorContext cursorContext);
+
     /**
      * Opens a {@link PageCursor} on this store, capable of writing records using
      * {@link #updateRecord(AbstractBaseRecord, PageCursor, CursorContext, StoreCursors)}.
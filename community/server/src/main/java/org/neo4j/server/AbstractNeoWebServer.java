@@ -47,6 +47,7 @@ import org.neo4j.configuration.connectors.HttpConnector;
 import org.neo4j.configuration.connectors.HttpsConnector;
 import org.neo4j.configuration.helpers.SocketAddress;
 import org.neo4j.dbms.DatabaseStateService;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlService;
 import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.kernel.api.security.AuthManager;
 import org.neo4j.kernel.availability.CompositeDatabaseAvailabilityGuard;
@@ -72,6 +73,7 @@ import org.neo4j.server.http.cypher.HttpTransactionManager;
 import org.neo4j.server.http.cypher.TransactionRegistry;
 import org.neo4j.server.modules.ServerModule;
 import org.neo4j.server.queryapi.QueryController;
+import org.neo4j.server.queryapi.direct.DirectQueryExecutor;
 import org.neo4j.server.queryapi.driver.LocalChannelDriverFactory;
 import org.neo4j.server.queryapi.metrics.QueryAPIMetricsMonitor;
 import org.neo4j.server.rest.repr.RepresentationBasedMessageBodyWriter;
@@ -203,12 +205,21 @@ public abstract class AbstractNeoWebServer extends LifecycleAdapter implements N
                             internalLogProvider);
                     var queryApiTxTimeout = config.get(ServerSettings.queryapi_transaction_timeout);
                     var driver = driverFactory.createLocalDriver();
+                    var directQueryExecutor = config.get(ServerSettings.queryapi_direct_execution)
+                            ? new DirectQueryExecutor(
+                                    transactionManager,
+                                    authManagerSupplier,
+                                    globalDependencies.resolveDependency(AdmissionControlService.class),
+                                    transactionMemoryPool,
+                                    internalLogProvider)
+                            : null;
                     this.queryController = new QueryController(
                             driver,
                             internalLogProvider,
                             queryApiTxTimeout,
                             queryApiTransactionManager,
-                            config.get(ServerSettings.transaction_id_length));
+                            config.get(ServerSettings.transaction_id_length),
+                            directQueryExecutor);
                     availableController = this.queryController;
                 }
             }
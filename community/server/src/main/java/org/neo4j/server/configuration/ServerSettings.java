@@ -187,6 +187,12 @@ public class ServerSettings implements SettingsDeclaration {
     public static final Setting<Integer> transaction_id_length =
             newBuilder("internal.server.queryapi.transactionid_length", INT, 4).build();
 
+    @Internal
+    @Description("Execute auto-commit Query API requests directly against the transaction layer instead of routing "
+            + "them through the local Bolt driver.")
+    public static final Setting<Boolean> queryapi_direct_execution =
+            newBuilder("internal.server.queryapi.direct_execution", BOOL, false).build();
+
     @Internal
     @Description("Publicly discoverable bolt:// URI to use for Neo4j Drivers wanting to access the data in this "
             + "particular database instance. Normally this is the same as the advertised address configured for the "
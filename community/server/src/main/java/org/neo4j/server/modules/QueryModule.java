@@ -28,9 +28,11 @@ import org.neo4j.server.queryapi.metrics.QueryAPIMetricsMonitor;
 import org.neo4j.server.queryapi.request.JsonMessageBodyReader;
 import org.neo4j.server.queryapi.request.TypedJsonMessageBodyReader;
 import org.neo4j.server.queryapi.response.ErrorResponseWriter;
+import org.neo4j.server.queryapi.response.PlainJsonDirectAutoCommitResultWriter;
 import org.neo4j.server.queryapi.response.PlainJsonDriverAutoCommitResultWriter;
 import org.neo4j.server.queryapi.response.PlainJsonTxManagingResultWriter;
 import org.neo4j.server.queryapi.response.TypedJsonBookmarkWriter;
+import org.neo4j.server.queryapi.response.TypedJsonDirectAutoCommitResultWriter;
 import org.neo4j.server.queryapi.response.TypedJsonDriverAutoCommitResultWriter;
 import org.neo4j.server.queryapi.response.TypedJsonTxInfoWriter;
 import org.neo4j.server.queryapi.response.TypedJsonTxManagingResultWriter;
@@ -70,6 +72,8 @@ public class QueryModule implements ServerModule {
                 QueryResource.class,
                 PlainJsonDriverAutoCommitResultWriter.class,
                 TypedJsonDriverAutoCommitResultWriter.class,
+                PlainJsonDirectAutoCommitResultWriter.class,
+                TypedJsonDirectAutoCommitResultWriter.class,
                 PlainJsonTxManagingResultWriter.class,
                 TypedJsonTxManagingResultWriter.class,
                 TypedJsonTxInfoWriter.class,
@@ -26,6 +26,7 @@ import static org.neo4j.server.queryapi.response.HttpErrorResponse.fromDriverExc
 import static org.neo4j.server.queryapi.response.HttpErrorResponse.singleError;
 import static org.neo4j.server.queryapi.response.QueryResponseBookmarks.fromBookmarks;
 import static org.neo4j.server.queryapi.response.QueryResponseTxInfo.fromQueryAPITransaction;
+import static org.neo4j.server.rest.dbms.AuthorizedRequestWrapper.getLoginContextFromHttpServletRequest;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -36,6 +37,7 @@ import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Response;
+import org.neo4j.bolt.protocol.common.message.Error;
 import org.neo4j.driver.AuthToken;
 import org.neo4j.driver.AuthTokens;
 import org.neo4j.driver.Bookmark;
@@ -50,9 +52,11 @@ import org.neo4j.driver.exceptions.TransientException;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.server.queryapi.direct.DirectQueryExecutor;
 import org.neo4j.server.queryapi.request.AutoCommitResultContainer;
 import org.neo4j.server.queryapi.request.QueryRequest;
 import org.neo4j.server.queryapi.request.TxManagedResultContainer;
+import org.neo4j.server.queryapi.response.HttpErrorResponse;
 import org.neo4j.server.queryapi.tx.Transaction;
 import org.neo4j.server.queryapi.tx.TransactionConcurrentAccessException;
 import org.neo4j.server.queryapi.tx.TransactionIdCollisionException;
@@ -62,27 +66,40 @@ import org.neo4j.server.queryapi.tx.WrongUserException;
 import org.neo4j.server.rest.dbms.AuthorizationHeaders;
 
 public class QueryController {
+    private static final String RESOURCE_EXHAUSTION =
+            Status.Request.ResourceExhaustion.code().serialize();
 
     private final Driver driver;
     private final InternalLog log;
     private final Duration defaultTimeout;
     private final TransactionManager transactionManager;
     private final Integer txIdLength;
+    private final DirectQueryExecutor directQueryExecutor;
 
+    /**
+     * @param directQueryExecutor executes auto-commit requests without going through the driver, or {@code null} if
+     * all requests should be executed by the driver.
+     */
     public QueryController(
             Driver driver,
             InternalLogProvider logProvider,
             Duration defaultTimeout,
             TransactionManager transactionManager,
-            Integer txIdLength) {
+            Integer txIdLength,
+            DirectQueryExecutor directQueryExecutor) {
         this.transactionManager = transactionManager;
         this.driver = driver;
         this.defaultTimeout = defaultTimeout;
         this.txIdLength = txIdLength;
+        this.directQueryExecutor = directQueryExecutor;
         this.log = logProvider.getLog(QueryController.class);
     }
 
     public Response executeQuery(QueryRequest request, HttpServletRequest rawRequest, String databaseName) {
+        if (directQueryExecutor != null) {
+            return executeQueryDirectly(request, rawRequest, databaseName);
+        }
+
         var sessionConfig = buildSessionConfig(request, databaseName);
         // The session will be closed after the result set has been serialized, it must not be closed in a
         // try-with-resources block here. It must be closed only in an exceptional state
@@ -106,6 +123,29 @@ public class QueryController {
         }
     }
 
+    private Response executeQueryDirectly(QueryRequest request, HttpServletRequest rawRequest, String databaseName) {
+        try {
+            // The transaction will be committed or rolled back once the result has been serialized
+            var resultContainer = directQueryExecutor.execute(
+                    request, getLoginContextFromHttpServletRequest(rawRequest), databaseName);
+            return Response.accepted(resultContainer).build();
+        } catch (Exception exception) {
+            var error = Error.from(exception);
+            var code = error.status().code();
+            if (error.status() == Status.Database.DatabaseNotFound) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(singleError(code.serialize(), error.message()))
+                        .build();
+            }
+            if (code.classification() == Status.Classification.ClientError
+                    || code.classification() == Status.Classification.TransientError) {
+                return clientError(code.serialize(), singleError(code.serialize(), error.message()));
+            }
+            log.error("Failed to execute query", exception);
+            return serverError();
+        }
+    }
+
     public Response beginTransaction(QueryRequest request, HttpServletRequest rawRequest, String databaseName) {
         var sessionConfig = buildSessionConfig(request, databaseName);
         var txId = randomTxId(txIdLength);
@@ -321,9 +361,17 @@ public class QueryController {
     }
 
     private static Response clientError(Neo4jException clientException) {
-        return Response.status(Response.Status.BAD_REQUEST)
-                .entity(fromDriverException(clientException))
-                .build();
+        return clientError(clientException.code(), fromDriverException(clientException));
+    }
+
+    private static Response clientError(String code, HttpErrorResponse errorResponse) {
+        if (RESOURCE_EXHAUSTION.equals(code)) {
+            // the request was shed by admission control before it started a transaction, and can be retried
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(errorResponse)
+                    .build();
+        }
+        return Response.status(Response.Status.BAD_REQUEST).entity(errorResponse).build();
     }
 
     private static Response notFoundDiscoveryResponse(FatalDiscoveryException ex) {
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.queryapi.direct;
+
+import static org.neo4j.server.queryapi.request.AccessMode.toBoltAccessMode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.neo4j.bolt.fsm.error.AdmissionControlException;
+import org.neo4j.bolt.protocol.common.connector.tx.TransactionOwner;
+import org.neo4j.bolt.protocol.common.message.request.connection.RoutingContext;
+import org.neo4j.bolt.tx.Transaction;
+import org.neo4j.bolt.tx.TransactionManager;
+import org.neo4j.bolt.tx.TransactionType;
+import org.neo4j.bolt.tx.error.TransactionException;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlResponse;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlService;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlToken;
+import org.neo4j.driver.types.IsoDuration;
+import org.neo4j.driver.types.Point;
+import org.neo4j.internal.kernel.api.connectioninfo.ClientConnectionInfo;
+import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.kernel.api.security.AuthManager;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryPool;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.server.queryapi.request.AccessMode;
+import org.neo4j.server.queryapi.request.DirectAutoCommitResultContainer;
+import org.neo4j.server.queryapi.request.QueryRequest;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.ListValueBuilder;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+/**
+ * Executes auto-commit Query API requests through the transaction layer of the server, the same way the HTTP
+ * transactional endpoint does, instead of sending them to the Bolt server over the local channel using a driver.
+ * <p>
+ * The returned statement has not been consumed yet, its results are streamed and the transaction is committed while
+ * the response is written. Requests are subject to admission control like Bolt requests are, and the memory of each
+ * request is tracked against the HTTP transaction memory pool.
+ */
+public class DirectQueryExecutor {
+    private final TransactionManager transactionManager;
+    private final Supplier<AuthManager> authManager;
+    private final AdmissionControlService admissionControl;
+    private final MemoryPool memoryPool;
+    private final InternalLog log;
+
+    public DirectQueryExecutor(
+            TransactionManager transactionManager,
+            Supplier<AuthManager> authManager,
+            AdmissionControlService admissionControl,
+            MemoryPool memoryPool,
+            InternalLogProvider logProvider) {
+        this.transactionManager = transactionManager;
+        this.authManager = authManager;
+        this.admissionControl = admissionControl;
+        this.memoryPool = memoryPool;
+        this.log = logProvider.getLog(DirectQueryExecutor.class);
+    }
+
+    public DirectAutoCommitResultContainer execute(QueryRequest request, LoginContext loginContext, String databaseName)
+            throws TransactionException, AdmissionControlException {
+        var admissionControlToken = admit();
+        var memoryTracker = new LocalMemoryTracker(memoryPool, 0, 64, null);
+        Runnable release = () -> {
+            memoryTracker.close();
+            if (admissionControlToken != null) {
+                admissionControl.requestCompleted(admissionControlToken);
+            }
+        };
+
+        try {
+            var owner = new RequestTransactionOwner(
+                    databaseName, impersonate(loginContext, request.impersonatedUser()), memoryTracker);
+            var accessMode = request.accessMode() == null ? AccessMode.WRITE : request.accessMode();
+            var bookmarks = request.bookmarks() == null ? List.<String>of() : request.bookmarks();
+
+            var transaction = transactionManager.create(
+                    TransactionType.IMPLICIT,
+                    owner,
+                    databaseName,
+                    toBoltAccessMode(accessMode),
+                    bookmarks,
+                    null,
+                    Map.of(),
+                    null);
+            try {
+                var statement = transaction.run(request.statement(), asParameterMapValue(request.parameters()));
+                return new DirectAutoCommitResultContainer(transaction, statement, request, release);
+            } catch (TransactionException | RuntimeException ex) {
+                rollbackAndClose(transaction);
+                throw ex;
+            }
+        } catch (TransactionException | RuntimeException ex) {
+            release.run();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return the token to hand back once the request has finished, or {@code null} if admission control is disabled.
+     */
+    private AdmissionControlToken admit() throws AdmissionControlException {
+        if (!admissionControl.enabled()) {
+            return null;
+        }
+        var token = admissionControl.requestToken();
+        if (admissionControl.awaitRelease(token) != AdmissionControlResponse.RELEASED) {
+            admissionControl.requestCompleted(token);
+            throw new AdmissionControlException();
+        }
+        return token;
+    }
+
+    private LoginContext impersonate(LoginContext loginContext, String impersonatedUser) {
+        if (impersonatedUser == null || impersonatedUser.isBlank()) {
+            return loginContext;
+        }
+        return authManager.get().impersonate(loginContext, impersonatedUser.trim());
+    }
+
+    private void rollbackAndClose(Transaction transaction) {
+        try {
+            if (transaction.isOpen()) {
+                transaction.rollback();
+            }
+            transaction.close();
+        } catch (TransactionException ex) {
+            log.warn("Failed to clean up transaction " + transaction.id(), ex);
+        }
+    }
+
+    /**
+     * Parameters are deserialized into driver values for the typed format and into plain java types otherwise, both
+     * need to end up as kernel values here.
+     */
+    private static MapValue asParameterMapValue(Map<String, Object> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return MapValue.EMPTY;
+        }
+        var builder = new MapValueBuilder(parameters.size());
+        parameters.forEach((key, value) -> builder.add(key, asValue(value)));
+        return builder.build();
+    }
+
+    private static AnyValue asValue(Object value) {
+        if (value instanceof org.neo4j.driver.Value driverValue) {
+            return asValue(driverValue.asObject());
+        } else if (value instanceof IsoDuration duration) {
+            return DurationValue.duration(duration.months(), duration.days(), duration.seconds(), duration.nanoseconds());
+        } else if (value instanceof Point point) {
+            var crs = CoordinateReferenceSystem.get(point.srid());
+            return Double.isNaN(point.z())
+                    ? Values.pointValue(crs, point.x(), point.y())
+                    : Values.pointValue(crs, point.x(), point.y(), point.z());
+        } else if (value instanceof Map<?, ?> map) {
+            var builder = new MapValueBuilder(map.size());
+            map.forEach((key, entry) -> builder.add(String.valueOf(key), asValue(entry)));
+            return builder.build();
+        } else if (value instanceof List<?> list) {
+            var builder = ListValueBuilder.newListBuilder(list.size());
+            for (Object element : list) {
+                builder.add(asValue(element));
+            }
+            return builder.build();
+        }
+        return ValueUtils.of(value);
+    }
+
+    private record RequestTransactionOwner(
+            String selectedDefaultDatabase, LoginContext loginContext, MemoryTracker memoryTracker)
+            implements TransactionOwner {
+
+        @Override
+        public ClientConnectionInfo info() {
+            return loginContext.connectionInfo();
+        }
+
+        @Override
+        public RoutingContext routingContext() {
+            return new RoutingContext(true, Map.of());
+        }
+    }
+}
@@ -31,4 +31,11 @@ public enum AccessMode {
         }
         return org.neo4j.driver.AccessMode.WRITE;
     }
+
+    public static org.neo4j.bolt.protocol.common.message.AccessMode toBoltAccessMode(AccessMode accessMode) {
+        if (Objects.requireNonNull(accessMode) == AccessMode.READ) {
+            return org.neo4j.bolt.protocol.common.message.AccessMode.READ;
+        }
+        return org.neo4j.bolt.protocol.common.message.AccessMode.WRITE;
+    }
 }
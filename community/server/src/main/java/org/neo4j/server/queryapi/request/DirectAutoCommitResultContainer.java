@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.queryapi.request;
+
+import org.neo4j.bolt.tx.Transaction;
+import org.neo4j.bolt.tx.statement.Statement;
+
+/**
+ * A wrapper for an implicit transaction and the statement running in it when a query is executed without going through
+ * the driver. Needed so that the serialization logic can commit the transaction once all results have been consumed,
+ * or roll it back when an error has occurred. {@code release} must be run once the transaction has been closed, it
+ * hands back the admission control token and the memory of the request.
+ */
+public record DirectAutoCommitResultContainer(
+        Transaction transaction, Statement statement, QueryRequest queryRequest, Runnable release) {}
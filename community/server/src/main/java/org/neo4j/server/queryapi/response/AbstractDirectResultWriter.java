@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.queryapi.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
+import org.neo4j.bolt.protocol.common.message.Error;
+import org.neo4j.bolt.tx.Transaction;
+import org.neo4j.bolt.tx.error.TransactionException;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.server.http.cypher.format.api.ConnectionException;
+import org.neo4j.server.queryapi.request.DirectAutoCommitResultContainer;
+
+abstract class AbstractDirectResultWriter implements MessageBodyWriter<DirectAutoCommitResultContainer> {
+
+    private final InternalLog log;
+
+    public AbstractDirectResultWriter(InternalLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return DirectAutoCommitResultContainer.class.isAssignableFrom(type);
+    }
+
+    public void writeDirectResult(
+            JsonFactory factory,
+            DirectAutoCommitResultContainer result,
+            OutputStream outputStream)
+            throws IOException {
+        var jsonGenerator = factory.createGenerator(outputStream);
+        var resultSerializer = new DirectResultSerializer(jsonGenerator);
+        var transaction = result.transaction();
+
+        try {
+            resultSerializer.writeRecords(result.statement());
+            var bookmark = transaction.commit();
+            resultSerializer.finish(bookmark, result.queryRequest().includeCounters());
+        } catch (TransactionException ex) {
+            rollback(transaction);
+            try {
+                resultSerializer.writeError(Error.from(ex));
+            } catch (IOException errorWritingException) {
+                // We have errored during writing an error implying the connection has disappeared during writing.
+                // We simply log in this case.
+                log.warn("An error was thrown whilst attempting to write an error.", errorWritingException);
+            }
+        } catch (IOException ex) {
+            rollback(transaction);
+            throw new ConnectionException("Failed to write to the connection", ex);
+        } finally {
+            close(transaction);
+            result.release().run();
+            jsonGenerator.flush();
+        }
+    }
+
+    private void rollback(Transaction transaction) {
+        if (!transaction.isOpen()) {
+            return;
+        }
+        try {
+            transaction.rollback();
+        } catch (TransactionException ex) {
+            log.warn("Failed to roll back transaction " + transaction.id(), ex);
+        }
+    }
+
+    private void close(Transaction transaction) {
+        try {
+            transaction.close();
+        } catch (TransactionException ex) {
+            log.warn("Failed to close transaction " + transaction.id(), ex);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.queryapi.response;
+
+import static org.neo4j.server.queryapi.response.format.DriverValueConverter.toDriverValue;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.BOOKMARKS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.COUNTERS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.DATA_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.ERRORS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.FIELDS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.NOTIFICATIONS_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.PROFILE_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.QUERY_PLAN_KEY;
+import static org.neo4j.server.queryapi.response.format.Fieldnames.VALUES_KEY;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.neo4j.bolt.protocol.common.fsm.response.RecordHandler;
+import org.neo4j.bolt.protocol.common.fsm.response.ResponseHandler;
+import org.neo4j.bolt.protocol.common.message.Error;
+import org.neo4j.bolt.tx.TransactionType;
+import org.neo4j.bolt.tx.error.statement.StatementException;
+import org.neo4j.bolt.tx.statement.Statement;
+import org.neo4j.driver.Values;
+import org.neo4j.graphdb.ExecutionPlanDescription;
+import org.neo4j.graphdb.GqlStatusObject;
+import org.neo4j.graphdb.InputPosition;
+import org.neo4j.graphdb.Notification;
+import org.neo4j.graphdb.NotificationCategory;
+import org.neo4j.graphdb.QueryExecutionType;
+import org.neo4j.graphdb.QueryStatistics;
+import org.neo4j.kernel.database.DatabaseReference;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.virtual.MapValue;
+
+/**
+ * Counterpart of {@link DriverResultSerializer} for statements executed directly against the transaction layer. Records
+ * are written to the response as they are produced by the query. Their values are serialized by the codec of the
+ * generator, the same way the driver based writers do it.
+ */
+public class DirectResultSerializer implements ResponseHandler {
+
+    private final JsonGenerator jsonGenerator;
+    private State currentState = State.ROOT;
+    private IOException writeFailure;
+
+    private QueryStatistics statistics;
+    private Iterable<Notification> notifications;
+    private ExecutionPlanDescription plan;
+
+    public DirectResultSerializer(JsonGenerator jsonGenerator) {
+        this.jsonGenerator = jsonGenerator;
+    }
+
+    public void writeRecords(Statement statement) throws IOException, StatementException {
+        jsonGenerator.writeStartObject();
+
+        try {
+            statement.consume(this, -1);
+        } catch (StatementException ex) {
+            rethrowWriteFailure();
+            throw ex;
+        }
+        rethrowWriteFailure();
+
+        if (currentState == State.ROOT) {
+            writeFieldNames(statement.fieldNames());
+        }
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeEndObject();
+        currentState = State.ROOT;
+    }
+
+    public void writeError(Error error) throws IOException {
+        ensureResultSetClosedForErrorsWriting();
+
+        jsonGenerator.writeFieldName(ERRORS_KEY);
+        jsonGenerator.writeStartArray();
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeStringField("code", error.status().code().serialize());
+        jsonGenerator.writeStringField("message", error.message());
+        jsonGenerator.writeEndObject();
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeEndObject();
+    }
+
+    public void finish(String bookmark, boolean requireCounters) throws IOException {
+        writeNotifications();
+
+        if (requireCounters) {
+            writeCounters();
+        }
+
+        if (plan != null) {
+            jsonGenerator.writeFieldName(plan.hasProfilerStatistics() ? PROFILE_KEY : QUERY_PLAN_KEY);
+            writePlan(plan);
+        }
+
+        if (bookmark != null) {
+            jsonGenerator.writeArrayFieldStart(BOOKMARKS_KEY);
+            jsonGenerator.writeString(bookmark);
+            jsonGenerator.writeEndArray();
+        }
+
+        jsonGenerator.writeEndObject();
+        jsonGenerator.flush();
+    }
+
+    /**
+     * @return {@code true} if writing to the response failed, which means the connection to the client is gone.
+     */
+    public boolean hasWriteFailure() {
+        return writeFailure != null;
+    }
+
+    @Override
+    public RecordHandler onBeginStreaming(List<String> fieldNames) {
+        try {
+            writeFieldNames(fieldNames);
+        } catch (IOException ex) {
+            throw writeFailed(ex);
+        }
+        return new RecordWriter();
+    }
+
+    @Override
+    public void onStreamingMetadata(
+            long timeSpentStreaming,
+            QueryExecutionType executionType,
+            DatabaseReference database,
+            QueryStatistics statistics,
+            Iterable<Notification> notifications,
+            Iterable<GqlStatusObject> statuses) {
+        this.statistics = statistics;
+        this.notifications = notifications;
+    }
+
+    @Override
+    public void onStreamingExecutionPlan(ExecutionPlanDescription plan) {
+        this.plan = plan;
+    }
+
+    @Override
+    public void onMetadata(String key, AnyValue value) {}
+
+    @Override
+    public void onStatementPrepared(
+            TransactionType transactionType,
+            long statementId,
+            long timeSpentPreparingResults,
+            List<String> fieldNames) {}
+
+    @Override
+    public void onTransactionDatabase(String database) {}
+
+    @Override
+    public void onCompleteStreaming(boolean hasRemaining) {}
+
+    @Override
+    public void onBookmark(String encodedBookmark) {}
+
+    @Override
+    public void onRoutingTable(String databaseName, MapValue routingTable) {}
+
+    @Override
+    public void onFailure(Error error) {
+        // Bolt-only event
+    }
+
+    @Override
+    public void onIgnored() {
+        // Bolt-only event
+    }
+
+    @Override
+    public void onSuccess() {
+        // Bolt-only event
+    }
+
+    private void writeFieldNames(List<String> keys) throws IOException {
+        jsonGenerator.writeFieldName(DATA_KEY);
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeArrayFieldStart(FIELDS_KEY);
+        for (String key : keys) {
+            jsonGenerator.writeString(key);
+        }
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeArrayFieldStart(VALUES_KEY);
+        currentState = State.IN_VALUES;
+    }
+
+    @SuppressWarnings("removal")
+    private void writeNotifications() throws IOException {
+        if (notifications == null || !notifications.iterator().hasNext()) {
+            return;
+        }
+        jsonGenerator.writeArrayFieldStart(NOTIFICATIONS_KEY);
+        for (Notification notification : notifications) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("code", notification.getCode());
+            jsonGenerator.writeStringField("description", notification.getDescription());
+            jsonGenerator.writeStringField("severity", notification.getSeverity().name());
+            jsonGenerator.writeStringField("title", notification.getTitle());
+            writePosition(notification.getPosition());
+            if (notification.getCategory() != NotificationCategory.UNKNOWN) {
+                jsonGenerator.writeStringField(
+                        "category", notification.getCategory().name());
+            }
+            jsonGenerator.writeEndObject();
+        }
+        jsonGenerator.writeEndArray();
+    }
+
+    private void writePosition(InputPosition position) throws IOException {
+        if (position == null || position.equals(InputPosition.empty)) {
+            jsonGenerator.writeNullField("position");
+            return;
+        }
+        jsonGenerator.writeObjectFieldStart("position");
+        jsonGenerator.writeNumberField("column", position.getColumn());
+        jsonGenerator.writeNumberField("line", position.getLine());
+        jsonGenerator.writeNumberField("offset", position.getOffset());
+        jsonGenerator.writeEndObject();
+    }
+
+    private void writeCounters() throws IOException {
+        jsonGenerator.writeFieldName(COUNTERS_KEY);
+        if (statistics == null) {
+            jsonGenerator.writeNull();
+            return;
+        }
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeBooleanField("containsUpdates", statistics.containsUpdates());
+        jsonGenerator.writeNumberField("nodesCreated", statistics.getNodesCreated());
+        jsonGenerator.writeNumberField("nodesDeleted", statistics.getNodesDeleted());
+        jsonGenerator.writeNumberField("propertiesSet", statistics.getPropertiesSet());
+        jsonGenerator.writeNumberField("relationshipsCreated", statistics.getRelationshipsCreated());
+        jsonGenerator.writeNumberField("relationshipsDeleted", statistics.getRelationshipsDeleted());
+        jsonGenerator.writeNumberField("labelsAdded", statistics.getLabelsAdded());
+        jsonGenerator.writeNumberField("labelsRemoved", statistics.getLabelsRemoved());
+        jsonGenerator.writeNumberField("indexesAdded", statistics.getIndexesAdded());
+        jsonGenerator.writeNumberField("indexesRemoved", statistics.getIndexesRemoved());
+        jsonGenerator.writeNumberField("constraintsAdded", statistics.getConstraintsAdded());
+        jsonGenerator.writeNumberField("constraintsRemoved", statistics.getConstraintsRemoved());
+        jsonGenerator.writeBooleanField("containsSystemUpdates", statistics.containsSystemUpdates());
+        jsonGenerator.writeNumberField("systemUpdates", statistics.getSystemUpdates());
+        jsonGenerator.writeEndObject();
+    }
+
+    private void writePlan(ExecutionPlanDescription plan) throws IOException {
+        jsonGenerator.writeStartObject();
+        if (plan.hasProfilerStatistics()) {
+            var profile = plan.getProfilerStatistics();
+            var hasPageCacheStats = profile.hasPageCacheStats();
+            jsonGenerator.writeNumberField("dbHits", profile.hasDbHits() ? profile.getDbHits() : 0);
+            jsonGenerator.writeNumberField("records", profile.hasRows() ? profile.getRows() : 0);
+            jsonGenerator.writeBooleanField("hasPageCacheStats", hasPageCacheStats);
+            jsonGenerator.writeNumberField("pageCacheHits", hasPageCacheStats ? profile.getPageCacheHits() : 0);
+            jsonGenerator.writeNumberField("pageCacheMisses", hasPageCacheStats ? profile.getPageCacheMisses() : 0);
+            jsonGenerator.writeNumberField(
+                    "pageCacheHitRatio", hasPageCacheStats ? profile.getPageCacheHitRatio() : 0);
+            jsonGenerator.writeNumberField("time", profile.hasTime() ? profile.getTime() : 0);
+        }
+        jsonGenerator.writeStringField("operatorType", plan.getName());
+        jsonGenerator.writeFieldName("arguments");
+        jsonGenerator.writeStartObject();
+        for (var argument : plan.getArguments().entrySet()) {
+            jsonGenerator.writeFieldName(argument.getKey());
+            jsonGenerator.writeObject(Values.value(argument.getValue()));
+        }
+        jsonGenerator.writeEndObject();
+        jsonGenerator.writeArrayFieldStart("identifiers");
+        for (String identifier : plan.getIdentifiers()) {
+            jsonGenerator.writeString(identifier);
+        }
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeArrayFieldStart("children");
+        for (var child : plan.getChildren()) {
+            writePlan(child);
+        }
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeEndObject();
+    }
+
+    private void ensureResultSetClosedForErrorsWriting() throws IOException {
+        if (currentState == State.IN_RECORD) {
+            jsonGenerator.writeEndArray();
+            currentState = State.IN_VALUES;
+        }
+        if (currentState == State.IN_VALUES) {
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeEndObject();
+            currentState = State.ROOT;
+        }
+    }
+
+    private void rethrowWriteFailure() throws IOException {
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    private UncheckedIOException writeFailed(IOException ex) {
+        writeFailure = ex;
+        return new UncheckedIOException(ex);
+    }
+
+    private class RecordWriter implements RecordHandler {
+
+        @Override
+        public void onBegin() {
+            try {
+                jsonGenerator.writeStartArray();
+                currentState = State.IN_RECORD;
+            } catch (IOException ex) {
+                throw writeFailed(ex);
+            }
+        }
+
+        @Override
+        public void onField(AnyValue value) {
+            try {
+                jsonGenerator.writeObject(toDriverValue(value));
+            } catch (IOException ex) {
+                throw writeFailed(ex);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            try {
+                jsonGenerator.writeEndArray();
+                currentState = State.IN_VALUES;
+            } catch (IOException ex) {
+                throw writeFailed(ex);
+            }
+        }
+
+        @Override
+        public void onFailure() {}
+    }
+
+    private enum State {
+        ROOT,
+        IN_VALUES,
+        IN_RECORD
+    }
+}
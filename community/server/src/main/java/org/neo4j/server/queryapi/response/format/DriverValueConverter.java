@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.queryapi.response.format;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static java.time.temporal.ChronoUnit.MONTHS;
+import static java.time.temporal.ChronoUnit.NANOS;
+import static java.time.temporal.ChronoUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.value.ListValue;
+import org.neo4j.driver.internal.value.MapValue;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.PathValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.types.Entity;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.SequenceValue;
+import org.neo4j.values.storable.ByteArray;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.NoValue;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.TextArray;
+
+/**
+ * Converts kernel {@link AnyValue values} to the driver values that {@link DefaultResponseModule} serializes, so that
+ * results executed directly against the transaction layer are written exactly like results read through the driver.
+ */
+public final class DriverValueConverter {
+
+    private DriverValueConverter() {}
+
+    public static Value toDriverValue(AnyValue value) {
+        if (value instanceof NoValue) {
+            return Values.NULL;
+        } else if (value instanceof ByteArray bytes) {
+            return Values.value(bytes.asObjectCopy());
+        } else if (value instanceof SequenceValue sequence) {
+            var elements = new ArrayList<Value>(sequence.intSize());
+            for (AnyValue element : sequence) {
+                elements.add(toDriverValue(element));
+            }
+            return new ListValue(elements.toArray(Value[]::new));
+        } else if (value instanceof org.neo4j.values.virtual.MapValue map) {
+            return new MapValue(toDriverValues(map));
+        } else if (value instanceof org.neo4j.values.virtual.NodeValue node) {
+            return new NodeValue(toDriverNode(node));
+        } else if (value instanceof org.neo4j.values.virtual.RelationshipValue relationship) {
+            return new RelationshipValue(toDriverRelationship(relationship));
+        } else if (value instanceof org.neo4j.values.virtual.PathValue path) {
+            return new PathValue(toDriverPath(path));
+        } else if (value instanceof PointValue point) {
+            var coordinate = point.coordinate();
+            var srid = point.getCoordinateReferenceSystem().getCode();
+            return coordinate.length > 2
+                    ? Values.point(srid, coordinate[0], coordinate[1], coordinate[2])
+                    : Values.point(srid, coordinate[0], coordinate[1]);
+        } else if (value instanceof DurationValue duration) {
+            return Values.isoDuration(
+                    duration.get(MONTHS), duration.get(DAYS), duration.get(SECONDS), (int) duration.get(NANOS));
+        } else if (value instanceof org.neo4j.values.storable.Value storable) {
+            // booleans, numbers, text and the temporal types map to the same java types in both type systems
+            return Values.value(storable.asObjectCopy());
+        }
+        throw new IllegalArgumentException("Type " + value.getTypeName() + " is not supported as a column value");
+    }
+
+    private static Map<String, Value> toDriverValues(org.neo4j.values.virtual.MapValue map) {
+        var values = new HashMap<String, Value>(map.size());
+        map.foreach((key, entry) -> values.put(key, toDriverValue(entry)));
+        return values;
+    }
+
+    private static InternalNode toDriverNode(org.neo4j.values.virtual.NodeValue node) {
+        return new InternalNode(node.id(), node.elementId(), labels(node.labels()), toDriverValues(node.properties()));
+    }
+
+    private static List<String> labels(TextArray labels) {
+        var result = new ArrayList<String>(labels.intSize());
+        for (int i = 0; i < labels.intSize(); i++) {
+            result.add(labels.stringValue(i));
+        }
+        return result;
+    }
+
+    private static InternalRelationship toDriverRelationship(org.neo4j.values.virtual.RelationshipValue relationship) {
+        return new InternalRelationship(
+                relationship.id(),
+                relationship.elementId(),
+                relationship.startNodeId(),
+                relationship.startNodeElementId(),
+                relationship.endNodeId(),
+                relationship.endNodeElementId(),
+                relationship.type().stringValue(),
+                toDriverValues(relationship.properties()));
+    }
+
+    private static InternalPath toDriverPath(org.neo4j.values.virtual.PathValue path) {
+        var nodes = path.nodes();
+        var relationships = path.relationships();
+        var entities = new ArrayList<Entity>(nodes.length + relationships.length);
+        for (int i = 0; i < relationships.length; i++) {
+            entities.add(toDriverNode(nodes[i]));
+            entities.add(toDriverRelationship(relationships[i]));
+        }
+        entities.add(toDriverNode(nodes[nodes.length - 1]));
+        return new InternalPath(entities);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.queryapi.direct;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.neo4j.bolt.fsm.error.AdmissionControlException;
+import org.neo4j.bolt.protocol.common.connector.tx.TransactionOwner;
+import org.neo4j.bolt.tx.Transaction;
+import org.neo4j.bolt.tx.TransactionManager;
+import org.neo4j.bolt.tx.statement.Statement;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlResponse;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlService;
+import org.neo4j.dbms.admissioncontrol.AdmissionControlToken;
+import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.kernel.api.security.AuthManager;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.MemoryPool;
+import org.neo4j.server.queryapi.request.QueryRequest;
+import org.neo4j.values.virtual.MapValue;
+
+class DirectQueryExecutorTest {
+    private final TransactionManager transactionManager = mock(TransactionManager.class);
+    private final AdmissionControlService admissionControl = mock(AdmissionControlService.class);
+    private final MemoryPool memoryPool = mock(MemoryPool.class);
+    private final DirectQueryExecutor executor = new DirectQueryExecutor(
+            transactionManager,
+            () -> mock(AuthManager.class),
+            admissionControl,
+            memoryPool,
+            NullLogProvider.getInstance());
+
+    @Test
+    void shouldRejectRequestsShedByAdmissionControl() {
+        var token = AdmissionControlToken.UNABLE_TO_QUEUE_NEW_TOKEN;
+        when(admissionControl.enabled()).thenReturn(true);
+        when(admissionControl.requestToken()).thenReturn(token);
+        when(admissionControl.awaitRelease(token)).thenReturn(AdmissionControlResponse.UNABLE_TO_ALLOCATE_NEW_TOKEN);
+
+        assertThatThrownBy(() -> executor.execute(new QueryRequest("RETURN 1"), mock(LoginContext.class), "neo4j"))
+                .isInstanceOf(AdmissionControlException.class);
+
+        verify(admissionControl).requestCompleted(token);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void shouldNotRequestTokensWhenAdmissionControlIsDisabled() throws Exception {
+        givenTransaction();
+
+        executor.execute(new QueryRequest("RETURN 1"), mock(LoginContext.class), "neo4j")
+                .release()
+                .run();
+
+        verify(admissionControl, never()).requestToken();
+        verify(admissionControl, never()).requestCompleted(any());
+    }
+
+    @Test
+    void shouldHandBackTokenAndMemoryOnceReleased() throws Exception {
+        var token = AdmissionControlToken.RELEASED;
+        when(admissionControl.enabled()).thenReturn(true);
+        when(admissionControl.requestToken()).thenReturn(token);
+        when(admissionControl.awaitRelease(token)).thenReturn(AdmissionControlResponse.RELEASED);
+        var owner = givenTransaction();
+
+        var result = executor.execute(new QueryRequest("RETURN 1"), mock(LoginContext.class), "neo4j");
+        owner.getValue().memoryTracker().allocateHeap(1024);
+
+        verify(memoryPool).reserveHeap(anyLong());
+        verify(admissionControl, never()).requestCompleted(any());
+
+        result.release().run();
+
+        verify(memoryPool).releaseHeap(anyLong());
+        verify(admissionControl).requestCompleted(token);
+    }
+
+    @Test
+    void shouldHandBackTokenWhenTransactionCannotBeStarted() throws Exception {
+        var token = AdmissionControlToken.RELEASED;
+        when(admissionControl.enabled()).thenReturn(true);
+        when(admissionControl.requestToken()).thenReturn(token);
+        when(admissionControl.awaitRelease(token)).thenReturn(AdmissionControlResponse.RELEASED);
+        when(transactionManager.create(any(), any(), anyString(), any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("no transaction for you"));
+
+        assertThatThrownBy(() -> executor.execute(new QueryRequest("RETURN 1"), mock(LoginContext.class), "neo4j"))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(admissionControl).requestCompleted(token);
+    }
+
+    private ArgumentCaptor<TransactionOwner> givenTransaction() throws Exception {
+        var owner = ArgumentCaptor.forClass(TransactionOwner.class);
+        var transaction = mock(Transaction.class);
+        when(transaction.run(anyString(), any(MapValue.class))).thenReturn(mock(Statement.class));
+        when(transactionManager.create(any(), owner.capture(), anyString(), any(), any(), any(), any(), any()))
+                .thenReturn(transaction);
+        return owner;
+    }
+}
@@ -40,12 +40,20 @@ import org.neo4j.io.pagecache.PageCursor;
  *      {@link IndexStatisticsValue#INDEX_USAGE_LAST_READ},
  *      {@link IndexStatisticsValue#INDEX_USAGE_READ_COUNT}
  *      {@link IndexStatisticsValue#INDEX_USAGE_TRACKED_SINCE}
+ * - {@link #TYPE_HISTOGRAM} and all types above it: Value contains a chunk of a serialized property histogram,
+ *      where the chunk number is the type minus {@link #TYPE_HISTOGRAM}. Only written from
+ *      {@link org.neo4j.kernel.KernelVersion#VERSION_INDEX_HISTOGRAMS_INTRODUCED}, since older versions fail on
+ *      unknown types.
  */
 @SuppressWarnings({"NonFinalFieldReferenceInEquals", "NonFinalFieldReferencedInHashCode"})
 class IndexStatisticsKey implements Comparable<IndexStatisticsKey> {
     static final int SIZE = Long.SIZE;
     static final byte TYPE_SAMPLE = 0;
     static final byte TYPE_USAGE = 1;
+    static final byte TYPE_HISTOGRAM = 2;
+    // Keys are compared as signed longs, so the highest type is the highest positive byte
+    static final byte TYPE_HIGHEST = Byte.MAX_VALUE;
+    static final int MAX_HISTOGRAM_CHUNKS = TYPE_HIGHEST - TYPE_HISTOGRAM + 1;
 
     private static final int NUM_TYPE_BITS = Byte.SIZE;
     private static final int NUM_INDEX_ID_BITS = SIZE - NUM_TYPE_BITS;
@@ -68,6 +76,10 @@ class IndexStatisticsKey implements Comparable<IndexStatisticsKey> {
         return key & MASK_INDEX_ID;
     }
 
+    int getHistogramChunk() {
+        return getType() - TYPE_HISTOGRAM;
+    }
+
     byte getType() {
         return (byte) ((key >>> SHIFT_TYPE_BITS) & MASK_TYPE);
     }
@@ -113,7 +125,7 @@ class IndexStatisticsKey implements Comparable<IndexStatisticsKey> {
     }
 
     void initializeAsHighest() {
-        set(IndexStatisticsKey.MAX_INDEX_ID, IndexStatisticsKey.TYPE_USAGE);
+        set(IndexStatisticsKey.MAX_INDEX_ID, IndexStatisticsKey.TYPE_HIGHEST);
     }
 
     void write(PageCursor cursor) {
@@ -20,15 +20,20 @@
 package org.neo4j.kernel.impl.api.index.stats;
 
 import static org.neo4j.index.internal.gbptree.DataTree.W_BATCHED_SINGLE_THREADED;
+import static org.neo4j.kernel.impl.api.index.stats.IndexStatisticsKey.MAX_HISTOGRAM_CHUNKS;
+import static org.neo4j.kernel.impl.api.index.stats.IndexStatisticsKey.TYPE_HISTOGRAM;
 import static org.neo4j.kernel.impl.api.index.stats.IndexStatisticsKey.TYPE_SAMPLE;
 import static org.neo4j.kernel.impl.api.index.stats.IndexStatisticsKey.TYPE_USAGE;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -49,8 +54,10 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexUsageStats;
+import org.neo4j.kernel.api.index.PropertyHistogram;
 import org.neo4j.kernel.impl.index.schema.ConsistencyCheckable;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -64,6 +71,7 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 public class IndexStatisticsStore extends LifecycleAdapter
         implements IndexStatisticsVisitor.Visitable, ConsistencyCheckable, IndexUsageStatsConsumer {
     private static final IndexStatisticsValue EMPTY_STATISTICS = new IndexStatisticsValue();
+    private static final int HISTOGRAM_CHUNK_SIZE = IndexStatisticsValue.NUM_LONGS * Long.BYTES;
 
     private final PageCache pageCache;
     private final FileSystemAbstraction fileSystem;
@@ -77,6 +85,8 @@ public class IndexStatisticsStore extends LifecycleAdapter
     // Let IndexStatisticsValue be immutable in this map so that checkpoint doesn't have to coordinate with concurrent
     // writers. It's assumed that the data in this map will be so small that everything can just be in it always.
     private final ConcurrentHashMap<IndexStatisticsKey, IndexStatisticsValue> cache = new ConcurrentHashMap<>();
+    // Histograms are kept deserialized and are written to the tree in chunks, one entry per chunk.
+    private final ConcurrentHashMap<Long, PropertyHistogram> histograms = new ConcurrentHashMap<>();
 
     public IndexStatisticsStore(
             PageCache pageCache,
@@ -140,7 +150,24 @@ public class IndexStatisticsStore extends LifecycleAdapter
                     contextFactory,
                     pageCacheTracer);
             try (var cursorContext = contextFactory.create("indexStatisticScan")) {
-                scanTree(cache::put, cursorContext);
+                Map<Long, List<IndexStatisticsValue>> histogramChunks = new HashMap<>();
+                scanTree(
+                        (key, value) -> {
+                            if (isHistogramChunk(key)) {
+                                histogramChunks
+                                        .computeIfAbsent(key.getIndexId(), id -> new ArrayList<>())
+                                        .add(value);
+                            } else {
+                                cache.put(key, value);
+                            }
+                        },
+                        cursorContext);
+                histogramChunks.forEach((indexId, chunks) -> {
+                    PropertyHistogram histogram = readHistogram(chunks);
+                    if (histogram != null) {
+                        histograms.put(indexId, histogram);
+                    }
+                });
             }
         } catch (TreeFileNotFoundException e) {
             throw new IllegalStateException(
@@ -212,7 +239,8 @@ public class IndexStatisticsStore extends LifecycleAdapter
                         stats.get(IndexStatisticsValue.INDEX_SAMPLE_INDEX_SIZE),
                         stats.get(IndexStatisticsValue.INDEX_SAMPLE_UNIQUE_VALUES),
                         stats.get(IndexStatisticsValue.INDEX_SAMPLE_SIZE),
-                        stats.get(IndexStatisticsValue.INDEX_SAMPLE_UPDATES_COUNT)));
+                        stats.get(IndexStatisticsValue.INDEX_SAMPLE_UPDATES_COUNT),
+                        histograms.get(indexId)));
     }
 
     private <T> T get(long indexId, byte type, Function<IndexStatisticsValue, T> converter) {
@@ -227,11 +255,17 @@ public class IndexStatisticsStore extends LifecycleAdapter
         value.set(IndexStatisticsValue.INDEX_SAMPLE_UPDATES_COUNT, sample.updates());
         value.set(IndexStatisticsValue.INDEX_SAMPLE_INDEX_SIZE, sample.indexSize());
         cache.put(new IndexStatisticsKey(indexId, TYPE_SAMPLE), value);
+        if (sample.histogram() != null) {
+            histograms.put(indexId, sample.histogram());
+        } else {
+            histograms.remove(indexId);
+        }
     }
 
     public void removeIndex(long indexId) {
         cache.remove(new IndexStatisticsKey(indexId, TYPE_SAMPLE));
         cache.remove(new IndexStatisticsKey(indexId, TYPE_USAGE));
+        histograms.remove(indexId);
     }
 
     public void incrementIndexUpdates(long indexId, long delta) {
@@ -249,6 +283,9 @@ public class IndexStatisticsStore extends LifecycleAdapter
         try {
             scanTree(
                     (key, value) -> {
+                        if (isHistogramChunk(key)) {
+                            return;
+                        }
                         switch (key.getType()) {
                             case TYPE_SAMPLE -> visitor.visitSampleStatistics(
                                     key.getIndexId(),
@@ -271,9 +308,19 @@ public class IndexStatisticsStore extends LifecycleAdapter
     }
 
     public void checkpoint(FileFlushEvent flushEvent, CursorContext cursorContext) throws IOException {
+        checkpoint(flushEvent, cursorContext, true);
+    }
+
+    /**
+     * @param includeHistograms whether to write the property histograms of the samples. They must not be written for
+     * databases on a kernel version before {@link KernelVersion#VERSION_INDEX_HISTOGRAMS_INTRODUCED}, which older
+     * versions are able to open. The histograms are still kept in memory.
+     */
+    public void checkpoint(FileFlushEvent flushEvent, CursorContext cursorContext, boolean includeHistograms)
+            throws IOException {
         // There's an assumption that there will never be concurrent calls to checkpoint. This is guarded outside.
         clearTree(cursorContext);
-        writeCacheContentsIntoTree(cursorContext);
+        writeCacheContentsIntoTree(cursorContext, includeHistograms);
         tree.checkpoint(flushEvent, cursorContext);
     }
 
@@ -316,13 +363,75 @@ public class IndexStatisticsStore extends LifecycleAdapter
         }
     }
 
-    private void writeCacheContentsIntoTree(CursorContext cursorContext) throws IOException {
+    private void writeCacheContentsIntoTree(CursorContext cursorContext, boolean includeHistograms)
+            throws IOException {
         try (Writer<IndexStatisticsKey, IndexStatisticsValue> writer =
                 tree.writer(W_BATCHED_SINGLE_THREADED, cursorContext)) {
             for (var entry : cache.entrySet()) {
                 writer.put(entry.getKey(), entry.getValue());
             }
+            if (includeHistograms) {
+                for (var entry : histograms.entrySet()) {
+                    writeHistogram(writer, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static boolean isHistogramChunk(IndexStatisticsKey key) {
+        return key.getHistogramChunk() >= 0;
+    }
+
+    /**
+     * Histograms are written as a length prefixed byte array, split into chunks that each fit one value. Histograms
+     * that don't fit in the available chunks, e.g. because of long text bounds, are written with fewer buckets.
+     */
+    private static void writeHistogram(
+            Writer<IndexStatisticsKey, IndexStatisticsValue> writer, long indexId, PropertyHistogram histogram) {
+        byte[] bytes = histogram.toBytes();
+        int chunks = histogramChunks(bytes);
+        while (chunks > MAX_HISTOGRAM_CHUNKS) {
+            PropertyHistogram coarser = histogram.mergeBuckets();
+            if (coarser == histogram) {
+                return;
+            }
+            histogram = coarser;
+            bytes = histogram.toBytes();
+            chunks = histogramChunks(bytes);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(chunks * HISTOGRAM_CHUNK_SIZE);
+        buffer.putInt(bytes.length).put(bytes).rewind();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            var value = new IndexStatisticsValue();
+            for (int i = 0; i < IndexStatisticsValue.NUM_LONGS; i++) {
+                value.set(i, buffer.getLong());
+            }
+            writer.put(new IndexStatisticsKey(indexId, (byte) (TYPE_HISTOGRAM + chunk)), value);
+        }
+    }
+
+    private static int histogramChunks(byte[] bytes) {
+        return (Integer.BYTES + bytes.length + HISTOGRAM_CHUNK_SIZE - 1) / HISTOGRAM_CHUNK_SIZE;
+    }
+
+    /**
+     * @param chunks all chunks of a histogram, in chunk order which is the order they are scanned in.
+     */
+    private static PropertyHistogram readHistogram(List<IndexStatisticsValue> chunks) {
+        ByteBuffer buffer = ByteBuffer.allocate(chunks.size() * HISTOGRAM_CHUNK_SIZE);
+        for (IndexStatisticsValue chunk : chunks) {
+            for (int i = 0; i < IndexStatisticsValue.NUM_LONGS; i++) {
+                buffer.putLong(chunk.get(i));
+            }
+        }
+        buffer.flip();
+        int length = buffer.getInt();
+        if (length > buffer.remaining()) {
+            return null;
         }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return PropertyHistogram.fromBytes(bytes);
     }
 
     public Path storeFile() {
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.LongConsumer;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
@@ -118,6 +119,11 @@ public class DelegatingPagedFile implements PagedFile {
         return delegate.touch(pageId, count, cursorContext);
     }
 
+    @Override
+    public void visitLoadedPages(LongConsumer visitor) {
+        delegate.visitLoadedPages(visitor);
+    }
+
     @Override
     public boolean preAllocateSupported() {
         return delegate.preAllocateSupported();
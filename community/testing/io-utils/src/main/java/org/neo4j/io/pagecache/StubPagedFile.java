@@ -24,6 +24,7 @@ import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.file.Path;
+import java.util.function.LongConsumer;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
@@ -126,6 +127,9 @@ public class StubPagedFile implements PagedFile {
         return 0;
     }
 
+    @Override
+    public void visitLoadedPages(LongConsumer visitor) {}
+
     @Override
     public boolean preAllocateSupported() {
         return false;
@@ -52,6 +52,12 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
      */
     AppendTransactionEvent beginAppendTransaction(int appendItems);
 
+    /**
+     * Notify that a batch of transactions has been appended and is about to be forced to the log as one group.
+     * @param batchSize number of transactions in the batch
+     */
+    void appendedBatch(int batchSize);
+
     class Empty implements LogAppendEvent {
         @Override
         public void appendedBytes(long bytes) {}
@@ -62,6 +68,9 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
         @Override
         public void setLogRotated(boolean logRotated) {}
 
+        @Override
+        public void appendedBatch(int batchSize) {}
+
         @Override
         public LogRotateEvent beginLogRotate() {
             return LogRotateEvent.NULL;
@@ -88,6 +88,16 @@ public interface LogTracers extends TransactionLogCounters {
         public long rolledbackBatchedTransactions() {
             return 0;
         }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitSizes() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram logForceTimeMicros() {
+            return new PowerOfTwoHistogram();
+        }
     };
 
     LogFileCreateEvent createLogFile();
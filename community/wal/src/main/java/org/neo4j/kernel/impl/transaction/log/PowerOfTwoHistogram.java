@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.util.Preconditions;
+
+/**
+ * Thread safe histogram of non-negative values with buckets of exponentially growing size: bucket {@code 0} holds
+ * the value {@code 0} and bucket {@code n} holds the values in {@code [2^(n-1), 2^n)}. Coarse, but cheap enough to
+ * record into on every transaction log force.
+ */
+public class PowerOfTwoHistogram {
+    public static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    public void record(long value) {
+        int bucket = bucket(Math.max(value, 0));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        total.add(value);
+    }
+
+    /**
+     * @return number of recorded values.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return sum of all recorded values.
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * @return number of recorded values that fell into the given bucket.
+     */
+    public long bucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * @return the exclusive upper bound of the values in the given bucket.
+     */
+    public static long bucketUpperBound(int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return upper bound of the bucket where the given percentile of the recorded values falls, or {@code 0} if
+     * nothing has been recorded.
+     */
+    public long percentile(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Invalid percentile %s", percentile);
+        long[] snapshot = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            recorded += snapshot[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(recorded * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && seen > 0) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(BUCKETS - 1);
+    }
+
+    static int bucket(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+}
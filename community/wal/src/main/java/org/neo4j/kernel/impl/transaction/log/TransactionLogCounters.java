@@ -70,4 +70,16 @@ public interface TransactionLogCounters {
      * Total number of rolled back batched transactions
      */
     long rolledbackBatchedTransactions();
+
+    /**
+     * Distribution of the number of transactions appended together before a single force of the transaction log
+     * @return histogram of group commit sizes
+     */
+    PowerOfTwoHistogram groupCommitSizes();
+
+    /**
+     * Distribution of the time it takes to force the transaction log, in microseconds
+     * @return histogram of log force times
+     */
+    PowerOfTwoHistogram logForceTimeMicros();
 }
@@ -65,6 +65,13 @@ public record LogEnvelopeHeader(
 
     public static final byte IGNORE_KERNEL_VERSION = -1;
 
+    /**
+     * Set in the envelope type byte when the payload of the envelope is compressed. A compressed payload starts
+     * with the uncompressed length as an int, followed by the zstd compressed bytes. The payload length and the
+     * checksum of such an envelope both refer to the compressed form.
+     */
+    public static final byte COMPRESSED_FLAG = 0x40;
+
     /**
      * Describes the type of envelope data written within the log file
      */
@@ -87,7 +94,8 @@ public record LogEnvelopeHeader(
         BEGIN((byte) 2),
         /**
          * An envelope of this type describes a subsection of a transaction that would not fully fit within a segment
-         * block of a log file but would span the entire segment. Example:
+         * block of a log file but would span the entire segment, or the rest of it after a compressed envelope.
+         * Example:
          * <pre>
          * | <--- segment ---> | <--- segment ---> | <--- segment ---> | <--- segment ---> |
          * | <- file header -> | [###][##########] | [###############] | [####]            |
@@ -123,7 +131,15 @@ public record LogEnvelopeHeader(
         }
 
         public static EnvelopeType of(byte type) {
-            return VALUES[type];
+            int typeValue = type & ~COMPRESSED_FLAG;
+            if (typeValue < 0 || typeValue >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown envelope type: " + type);
+            }
+            return VALUES[typeValue];
+        }
+
+        public static boolean isCompressed(byte type) {
+            return (type & COMPRESSED_FLAG) != 0;
         }
     }
 }
@@ -297,47 +297,54 @@ public enum LogFormat {
             LogSegments.DEFAULT_LOG_SEGMENT_SIZE) {
         @Override
         public LogHeader deserializeHeader(long logVersion, ByteBuffer buffer) throws IOException {
-            long lastAppendIndex = buffer.getLong();
-            StoreId storeId = StoreIdSerialization.deserializeWithFixedSize(buffer);
-            int segmentBlockSize = buffer.getInt();
-            int previousChecksum = buffer.getInt();
-            long lastTerm = buffer.getLong();
-            byte kernelVersion = buffer.get();
-            buffer.position(getHeaderSize()); // rest is reserved
-            return new LogHeader(
-                    getVersionByte(),
+            return deserializeEnvelopedHeader(this, logVersion, buffer);
+        }
+
+        @Override
+        public void serializeHeader(ByteBuffer buffer, LogHeader logHeader) throws IOException {
+            serializeEnvelopedHeader(buffer, logHeader);
+        }
+
+        @Override
+        public LogHeader newHeader(
+                long logVersion,
+                long appendIndex,
+                long lastTerm,
+                StoreId storeId,
+                int segmentBlockSize,
+                int previousLogFileChecksum,
+                KernelVersion kernelVersion) {
+            return newEnvelopedHeader(
+                    this,
                     logVersion,
-                    lastAppendIndex,
+                    appendIndex,
                     lastTerm,
                     storeId,
-                    getHeaderSize(),
                     segmentBlockSize,
-                    previousChecksum,
-                    KernelVersion.getForVersion(kernelVersion));
+                    previousLogFileChecksum,
+                    kernelVersion);
         }
+    },
 
+    /**
+     * Same header layout as {@link #V10}. The envelopes in the file may have compressed payloads, see
+     * {@link LogEnvelopeHeader#COMPRESSED_FLAG}. Binaries that do not know about compressed envelopes refuse
+     * the file on its format version instead of misreading the envelope types.
+     */
+    V11(
+            (byte) 11,
+            128,
+            KernelVersion.VERSION_COMPRESSED_LOG_ENVELOPES_INTRODUCED,
+            KernelVersion.GLORIOUS_FUTURE,
+            LogSegments.DEFAULT_LOG_SEGMENT_SIZE) {
         @Override
-        public void serializeHeader(ByteBuffer buffer, LogHeader logHeader) throws IOException {
-            ByteOrder originalOrder = buffer.order();
-            try {
-                buffer.order(ByteOrder.BIG_ENDIAN);
-                buffer.putLong(encodeLogVersion(
-                        logHeader.getLogVersion(),
-                        logHeader.getLogFormatVersion().getVersionByte()));
-                buffer.putLong(logHeader.getLastAppendIndex());
-                StoreIdSerialization.serializeWithFixedSize(logHeader.getStoreId(), buffer);
-                buffer.putInt(logHeader.getSegmentBlockSize());
-                buffer.putInt(logHeader.getPreviousLogFileChecksum());
-                buffer.putLong(logHeader.getLastTerm());
-                buffer.put(logHeader.getKernelVersion().version());
+        public LogHeader deserializeHeader(long logVersion, ByteBuffer buffer) throws IOException {
+            return deserializeEnvelopedHeader(this, logVersion, buffer);
+        }
 
-                // Pad rest with zeroes
-                while (buffer.position() < logHeader.getStartPosition().getByteOffset()) {
-                    buffer.put((byte) 0);
-                }
-            } finally {
-                buffer.order(originalOrder);
-            }
+        @Override
+        public void serializeHeader(ByteBuffer buffer, LogHeader logHeader) throws IOException {
+            serializeEnvelopedHeader(buffer, logHeader);
         }
 
         @Override
@@ -349,17 +356,21 @@ public enum LogFormat {
                 int segmentBlockSize,
                 int previousLogFileChecksum,
                 KernelVersion kernelVersion) {
-            return new LogHeader(
-                    getVersionByte(),
+            return newEnvelopedHeader(
+                    this,
                     logVersion,
                     appendIndex,
                     lastTerm,
                     storeId,
-                    getHeaderSize(),
                     segmentBlockSize,
                     previousLogFileChecksum,
                     kernelVersion);
         }
+
+        @Override
+        public boolean usesCompressedEnvelopes() {
+            return true;
+        }
     };
 
     public static final int BIGGEST_HEADER;
@@ -430,6 +441,10 @@ public enum LogFormat {
         return defaultSegmentBlockSize != UNKNOWN_LOG_SEGMENT_SIZE;
     }
 
+    public boolean usesCompressedEnvelopes() {
+        return false;
+    }
+
     public static LogHeader parseHeader(ByteBuffer buffer, boolean strict, Path sourceFile) throws IOException {
         if (buffer.remaining() == 0) {
             // Empty file
@@ -498,7 +513,8 @@ public enum LogFormat {
             KERNEL_VERSION_TO_LOG_FORMAT.put(kernelVersion, logFormats[i]);
         }
         for (LogFormat logFormat : logFormats) {
-            if (logFormat.toKernelVersion == KernelVersion.GLORIOUS_FUTURE) {
+            // Compressed envelopes are only used when asked for, see fromKernelVersion(KernelVersion, boolean)
+            if (logFormat.toKernelVersion == KernelVersion.GLORIOUS_FUTURE && !logFormat.usesCompressedEnvelopes()) {
                 KERNEL_VERSION_TO_LOG_FORMAT.put(KernelVersion.GLORIOUS_FUTURE, logFormat);
             }
         }
@@ -508,12 +524,83 @@ public enum LogFormat {
         return KERNEL_VERSION_TO_LOG_FORMAT.get(kernelVersion);
     }
 
+    public static LogFormat fromKernelVersion(KernelVersion kernelVersion, boolean compressedEnvelopes) {
+        if (compressedEnvelopes && kernelVersion.isAtLeast(KernelVersion.VERSION_COMPRESSED_LOG_ENVELOPES_INTRODUCED)) {
+            return V11;
+        }
+        return fromKernelVersion(kernelVersion);
+    }
+
     public static LogFormat fromByteVersion(byte versionByte) {
         LogFormat logFormat = BY_VERSION_BYTE[versionByte];
         checkArgument(logFormat != null, "Unknown log format byte version: %d".formatted(versionByte));
         return logFormat;
     }
 
+    private static LogHeader deserializeEnvelopedHeader(LogFormat logFormat, long logVersion, ByteBuffer buffer)
+            throws IOException {
+        long lastAppendIndex = buffer.getLong();
+        StoreId storeId = StoreIdSerialization.deserializeWithFixedSize(buffer);
+        int segmentBlockSize = buffer.getInt();
+        int previousChecksum = buffer.getInt();
+        long lastTerm = buffer.getLong();
+        byte kernelVersion = buffer.get();
+        buffer.position(logFormat.getHeaderSize()); // rest is reserved
+        return new LogHeader(
+                logFormat.getVersionByte(),
+                logVersion,
+                lastAppendIndex,
+                lastTerm,
+                storeId,
+                logFormat.getHeaderSize(),
+                segmentBlockSize,
+                previousChecksum,
+                KernelVersion.getForVersion(kernelVersion));
+    }
+
+    private static void serializeEnvelopedHeader(ByteBuffer buffer, LogHeader logHeader) throws IOException {
+        ByteOrder originalOrder = buffer.order();
+        try {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            buffer.putLong(encodeLogVersion(
+                    logHeader.getLogVersion(), logHeader.getLogFormatVersion().getVersionByte()));
+            buffer.putLong(logHeader.getLastAppendIndex());
+            StoreIdSerialization.serializeWithFixedSize(logHeader.getStoreId(), buffer);
+            buffer.putInt(logHeader.getSegmentBlockSize());
+            buffer.putInt(logHeader.getPreviousLogFileChecksum());
+            buffer.putLong(logHeader.getLastTerm());
+            buffer.put(logHeader.getKernelVersion().version());
+
+            // Pad rest with zeroes
+            while (buffer.position() < logHeader.getStartPosition().getByteOffset()) {
+                buffer.put((byte) 0);
+            }
+        } finally {
+            buffer.order(originalOrder);
+        }
+    }
+
+    private static LogHeader newEnvelopedHeader(
+            LogFormat logFormat,
+            long logVersion,
+            long appendIndex,
+            long lastTerm,
+            StoreId storeId,
+            int segmentBlockSize,
+            int previousLogFileChecksum,
+            KernelVersion kernelVersion) {
+        return new LogHeader(
+                logFormat.getVersionByte(),
+                logVersion,
+                appendIndex,
+                lastTerm,
+                storeId,
+                logFormat.getHeaderSize(),
+                segmentBlockSize,
+                previousLogFileChecksum,
+                kernelVersion);
+    }
+
     private static boolean checkUnderflow(
             ByteBuffer buffer, int require, boolean strict, Path fileForAdditionalErrorInformationOrNull)
             throws IncompleteLogHeaderException {
@@ -30,6 +30,7 @@ import static org.neo4j.util.Preconditions.checkState;
 import static org.neo4j.util.Preconditions.requireNonNegative;
 import static org.neo4j.util.Preconditions.requirePowerOfTwo;
 
+import com.github.luben.zstd.Zstd;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
@@ -81,6 +82,15 @@ import org.neo4j.memory.MemoryTracker;
  *               payloadStartOffset     payloadEndOffset
  * </pre>
  *
+ * Envelopes flagged with {@link LogEnvelopeHeader#COMPRESSED_FLAG} are decompressed as soon as their header has been
+ * read and validated, and their payload is then served from a separate buffer. Such envelopes are only accepted in
+ * files of a log format that {@link LogFormat#usesCompressedEnvelopes() uses compressed envelopes}. A decompressed
+ * payload is larger than its part of the file, so positions strictly inside it have no counterpart in the file.
+ * {@link #position()} is exact at the start and at the end of such a payload, and is the start of the enclosing
+ * envelope anywhere in between. Positioning the channel there re-reads the envelope from its start, which is what
+ * a reader rewinding to the start of an entry that it failed to read needs. Positioning the channel at any other
+ * offset strictly inside a compressed payload is refused.
+ *
  * @see LogEnvelopeHeader
  * @see EnvelopeType
  * @see EnvelopeWriteChannel
@@ -98,6 +108,10 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     private final ByteBuffer checksumView;
     private final int segmentShift;
     private final int segmentMask;
+    private byte[] compressedPayload;
+    private ByteBuffer decompressedPayload;
+    // The buffer the payload of the current envelope is read from, either 'buffer' or 'decompressedPayload'
+    private ByteBuffer payload;
     private LogVersionedStoreChannel channel;
     // The log file header of the current file.
     private LogHeader logHeader;
@@ -147,6 +161,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         this.scopedBuffer = scopedBuffer;
         try {
             this.buffer = scopedBuffer.getBuffer();
+            this.payload = buffer;
             this.checksumView = buffer.duplicate().order(buffer.order());
 
             long startPosition = channel.position();
@@ -177,7 +192,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
             if (payloadType == null) {
                 readEnvelopeHeader();
             } else {
-                buffer.position(payloadStartOffset);
+                positionInPayload(payloadStartOffset);
             }
             if (payloadType != EnvelopeType.FULL && payloadType != EnvelopeType.BEGIN) {
                 goToNextEntry();
@@ -208,7 +223,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
      */
     @Override
     public long position() {
-        return (currentSegment * segmentBlockSize) + buffer.position();
+        return (currentSegment * segmentBlockSize) + bufferPosition();
     }
 
     @Override
@@ -256,15 +271,13 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
             }
         } else {
             loadSegmentIntoBuffer(newSegment);
-            // Even if we're on offset 0, on the first segment we need to invoke this to make sure
-            // we're skipping the START_OFFSET envelope if it is present.
-            if (newBufferOffset != 0 || newSegment == 1) {
-                readAllEnvelopesUpToIncluding(newBufferOffset, false);
-            }
+            // Even if we're on offset 0 we need to invoke this, to skip the START_OFFSET envelope on the first segment,
+            // and to forget the checksum of the envelope we were at before, which doesn't precede the new position.
+            readAllEnvelopesUpToIncluding(newBufferOffset, false);
         }
         checkState(newBufferOffset == 0 || newBufferOffset <= payloadEndOffset, "Invalid end of payload.");
 
-        buffer.position(Math.max(newBufferOffset, payloadStartOffset));
+        positionInPayload(Math.max(newBufferOffset, payloadStartOffset));
     }
 
     /**
@@ -295,7 +308,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         readAllEnvelopesUpToIncluding(newBufferOffset, true);
         checkState(newBufferOffset == 0 || newBufferOffset <= payloadEndOffset, "Invalid end of payload.");
 
-        buffer.position(Math.max(newBufferOffset, payloadStartOffset));
+        positionInPayload(Math.max(newBufferOffset, payloadStartOffset));
         return previousChecksum;
     }
 
@@ -350,37 +363,37 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     @Override
     public byte get() throws IOException {
         ensureDataExists(Byte.BYTES);
-        return buffer.get();
+        return payload.get();
     }
 
     @Override
     public short getShort() throws IOException {
         ensureDataExists(Short.BYTES);
-        return buffer.getShort();
+        return payload.getShort();
     }
 
     @Override
     public int getInt() throws IOException {
         ensureDataExists(Integer.BYTES);
-        return buffer.getInt();
+        return payload.getInt();
     }
 
     @Override
     public long getLong() throws IOException {
         ensureDataExists(Long.BYTES);
-        return buffer.getLong();
+        return payload.getLong();
     }
 
     @Override
     public float getFloat() throws IOException {
         ensureDataExists(Float.BYTES);
-        return buffer.getFloat();
+        return payload.getFloat();
     }
 
     @Override
     public double getDouble() throws IOException {
         ensureDataExists(Double.BYTES);
-        return buffer.getDouble();
+        return payload.getDouble();
     }
 
     @Override
@@ -394,8 +407,8 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
                     readEnvelopeHeader();
                 }
 
-                final var chunkSize = min(payloadEndOffset - buffer.position(), length - bytesRead);
-                buffer.get(bytes, bytesRead, chunkSize);
+                final var chunkSize = min(payloadRemaining(), length - bytesRead);
+                payload.get(bytes, bytesRead, chunkSize);
                 bytesRead += chunkSize;
             }
         } catch (ClosedChannelException e) {
@@ -464,6 +477,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         // We need to skip the first checksum chain check as we don't know the previous checksum.
         enforceChecksumChain = false;
         payloadVersion = IGNORE_KERNEL_VERSION;
+        payload = buffer;
         buffer.position(0);
         payloadStartOffset = 0;
         payloadEndOffset = 0;
@@ -527,6 +541,9 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
 
     private void skipToNextEnvelope() {
         buffer.position(payloadEndOffset);
+        if (payload != buffer) {
+            payload.position(payload.limit());
+        }
     }
 
     private void ensureDataExists(int requestedNumberOfBytes) throws IOException {
@@ -555,16 +572,62 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     }
 
     private void bufferCheck(int requestedNumberOfBytes) throws IOException {
-        if (buffer.remaining() < requestedNumberOfBytes) {
+        if (payload.remaining() < requestedNumberOfBytes) {
             throw new InvalidLogEnvelopeReadException(
                     "Entry underflow. %d bytes was requested but only %d are available."
-                            .formatted(requestedNumberOfBytes, buffer.remaining()));
+                            .formatted(requestedNumberOfBytes, payload.remaining()));
         }
     }
 
     private boolean checkForEndOfEnvelope() {
         assert buffer.position() <= payloadEndOffset : "Should not read past envelope";
-        return buffer.position() == payloadEndOffset;
+        return payloadRemaining() == 0;
+    }
+
+    private int payloadRemaining() {
+        return payload == buffer ? payloadEndOffset - buffer.position() : payload.remaining();
+    }
+
+    /**
+     * @return the offset in the segment of the current read position. Inside a compressed payload this is only exact
+     * before the first and after the last byte of the payload has been read, anything in between is mapped to the
+     * start of the enclosing envelope. Positioning there reads the whole envelope again.
+     */
+    private int bufferPosition() {
+        if (payload == buffer) {
+            return buffer.position();
+        }
+        if (payload.position() == 0) {
+            return payloadStartOffset;
+        }
+        if (!payload.hasRemaining()) {
+            return payloadEndOffset;
+        }
+        return payloadStartOffset - HEADER_SIZE;
+    }
+
+    /**
+     * Positions the read position at an offset in the segment that is within the current payload.
+     * The inverse of {@link #bufferPosition()} where that is exact.
+     *
+     * @throws IllegalArgumentException if the offset is strictly inside a compressed payload.
+     */
+    private void positionInPayload(int bufferOffset) {
+        if (payload == buffer) {
+            buffer.position(bufferOffset);
+        } else if (bufferOffset <= payloadStartOffset) {
+            payload.position(0);
+        } else if (bufferOffset >= payloadEndOffset) {
+            payload.position(payload.limit());
+        } else {
+            long segmentStart = currentSegment * segmentBlockSize;
+            throw new IllegalArgumentException(
+                    "Position %d is inside the compressed envelope payload between %d and %d, only the start and end of such a payload can be positioned at"
+                            .formatted(
+                                    segmentStart + bufferOffset,
+                                    segmentStart + payloadStartOffset,
+                                    segmentStart + payloadEndOffset));
+        }
     }
 
     private void enforceTerminalZeros() throws IOException {
@@ -610,8 +673,11 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
 
     protected void readEnvelopeHeader() throws IOException {
         int nextEnvelopeChecksum;
+        byte nextEnvelopeTypeValue;
         EnvelopeType nextEnvelopeType;
 
+        payload = buffer;
+
         // Loop until we find the next header, or throws read past end exception
         while (true) {
 
@@ -623,7 +689,8 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
 
             // Optimistically read the beginning of the header
             nextEnvelopeChecksum = buffer.getInt();
-            nextEnvelopeType = EnvelopeType.of(buffer.get());
+            nextEnvelopeTypeValue = buffer.get();
+            nextEnvelopeType = EnvelopeType.of(nextEnvelopeTypeValue);
 
             if (nextEnvelopeType == EnvelopeType.START_OFFSET) {
                 // If we're on the first segment, we should have read and skipped the START_OFFSET envelope before
@@ -688,6 +755,48 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         if (readChecksum != nextEnvelopeChecksum) {
             throw new ChecksumMismatchException(nextEnvelopeChecksum, readChecksum);
         }
+
+        if (EnvelopeType.isCompressed(nextEnvelopeTypeValue)) {
+            // The checksum matched, so this is not a torn or corrupt envelope that a reader may truncate away
+            if (logHeader == null || !logHeader.getLogFormatVersion().usesCompressedEnvelopes()) {
+                throw new IllegalStateException(
+                        "Compressed envelope at position %d in a log file of format %s, which does not support compressed envelopes"
+                                .formatted(
+                                        currentSegment * segmentBlockSize + payloadStartOffset - HEADER_SIZE,
+                                        logHeader == null ? null : logHeader.getLogFormatVersion()));
+            }
+            decompressPayload();
+        }
+    }
+
+    private void decompressPayload() throws IOException {
+        if (decompressedPayload == null) {
+            compressedPayload = new byte[segmentBlockSize];
+            decompressedPayload = ByteBuffer.wrap(new byte[segmentBlockSize]).order(buffer.order());
+        }
+
+        int uncompressedLength = buffer.getInt();
+        int compressedLength = payloadEndOffset - buffer.position();
+        if (uncompressedLength < 0 || uncompressedLength > segmentBlockSize || compressedLength < 0) {
+            throw new InvalidLogEnvelopeReadException(
+                    "Invalid compressed envelope: uncompressed length=%d, compressed length=%d, segmentBlockSize=%d"
+                            .formatted(uncompressedLength, compressedLength, segmentBlockSize));
+        }
+        buffer.get(compressedPayload, 0, compressedLength);
+
+        long decompressedLength = Zstd.decompressByteArray(
+                decompressedPayload.array(), 0, uncompressedLength, compressedPayload, 0, compressedLength);
+        if (Zstd.isError(decompressedLength) || decompressedLength != uncompressedLength) {
+            throw new InvalidLogEnvelopeReadException("Unable to decompress envelope payload at position %d: %s"
+                    .formatted(
+                            position(),
+                            Zstd.isError(decompressedLength)
+                                    ? Zstd.getErrorName(decompressedLength)
+                                    : "decompressed to " + decompressedLength + " bytes instead of "
+                                            + uncompressedLength));
+        }
+        decompressedPayload.clear().limit(uncompressedLength);
+        payload = decompressedPayload;
     }
 
     private void nextSegment() throws IOException {
@@ -758,10 +867,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         }
 
         checkState(segmentBlockSize == logHeader.getSegmentBlockSize(), "Changing segmentBlockSize not supported");
-        checkState(
-                LogFormat.V10.getVersionByte()
-                        >= logHeader.getLogFormatVersion().getVersionByte(),
-                "Envelopes are not supported in old versions");
+        checkState(logHeader.getLogFormatVersion().usesSegments(), "Envelopes are not supported in old versions");
         checkState(
                 previousChecksum == logHeader.getPreviousLogFileChecksum(),
                 "Checksum chain broken. " + previousChecksum + " " + logHeader.getPreviousLogFileChecksum());
@@ -788,6 +894,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
 
         // Update state
         currentSegment = newSegment;
+        payload = buffer;
         payloadStartOffset = 0;
         payloadEndOffset = 0;
 
@@ -804,10 +911,10 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
                     readEnvelopeHeader();
                 }
 
-                final var chunkSize = min(payloadEndOffset - buffer.position(), length - bytesRead);
-                dst.put(dst.position(), buffer, buffer.position(), chunkSize);
+                final var chunkSize = min(payloadRemaining(), length - bytesRead);
+                dst.put(dst.position(), payload, payload.position(), chunkSize);
                 dst.position(dst.position() + chunkSize);
-                buffer.position(buffer.position() + chunkSize);
+                payload.position(payload.position() + chunkSize);
                 bytesRead += chunkSize;
             }
         } catch (ClosedChannelException e) {
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log.enveloped;
 
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.COMPRESSED_FLAG;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.IGNORE_KERNEL_VERSION;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.MAX_ZERO_PADDING_SIZE;
@@ -31,6 +32,7 @@ import static org.neo4j.util.Preconditions.requireMultipleOf;
 import static org.neo4j.util.Preconditions.requireNonNegative;
 import static org.neo4j.util.Preconditions.requirePowerOfTwo;
 
+import com.github.luben.zstd.Zstd;
 import java.io.Flushable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -78,6 +80,11 @@ import org.neo4j.util.VisibleForTesting;
  * <p/>
  * Since we write the envelope header as part of completing an envelope, calling {@link #prepareForFlush()} will
  * <strong>only</strong> flush up until the <em>last completed envelope</em>.
+ * <p/>
+ * When payload compression is enabled, every envelope with a large enough payload is compressed in place as it is
+ * completed, provided that makes it smaller. Its type is then marked with {@link LogEnvelopeHeader#COMPRESSED_FLAG}.
+ * A compressed envelope that does not end its entry usually leaves room in its segment, so the entry continues
+ * with a new envelope directly after it instead of padding out the segment.
  */
 public class EnvelopeWriteChannel implements PhysicalLogChannel {
 
@@ -100,6 +107,9 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
 
     public static final long START_INDEX = 0;
     private static final byte[] PADDING_ZEROES = new byte[MAX_ZERO_PADDING_SIZE];
+    // Below this size the zstd frame overhead eats most of what can be saved
+    private static final int MIN_COMPRESSIBLE_PAYLOAD_SIZE = 256;
+    private static final int COMPRESSION_LEVEL = 1;
 
     private final Checksum checksum = CHECKSUM_FACTORY.get();
     private final ScopedBuffer scopedBuffer;
@@ -108,6 +118,8 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
     private final ByteBuffer buffer;
     private final ByteBuffer checksumView;
     private final int segmentBlockSize;
+    private final byte[] uncompressedPayload;
+    private final byte[] compressedPayload;
 
     private StoreChannel channel;
     private int currentEnvelopeStart;
@@ -132,6 +144,27 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
             LogTracers logTracers,
             LogRotation logRotation)
             throws IOException {
+        this(
+                channel,
+                scopedBuffer,
+                segmentBlockSize,
+                initialChecksum,
+                currentIndex,
+                logTracers,
+                logRotation,
+                false);
+    }
+
+    public EnvelopeWriteChannel(
+            StoreChannel channel,
+            ScopedBuffer scopedBuffer,
+            int segmentBlockSize,
+            int initialChecksum,
+            long currentIndex,
+            LogTracers logTracers,
+            LogRotation logRotation,
+            boolean compressPayloads)
+            throws IOException {
         this.channel = requireNonNull(channel);
         this.scopedBuffer = requireNonNull(scopedBuffer);
         this.previousChecksum = initialChecksum;
@@ -143,6 +176,8 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
         this.checksumView = buffer.duplicate().order(buffer.order());
         this.currentIndex = currentIndex;
         requireMultipleOf("Buffer", buffer.capacity(), "segment block size", segmentBlockSize);
+        this.uncompressedPayload = compressPayloads ? new byte[segmentBlockSize] : null;
+        this.compressedPayload = compressPayloads ? new byte[(int) Zstd.compressBound(segmentBlockSize)] : null;
 
         initialPositions(channel.position());
     }
@@ -461,15 +496,19 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
     }
 
     private void completeEnvelopeAndGoToNextSegment() throws IOException {
-        completeEnvelope(false);
-        padSegmentAndGoToNext();
+        boolean compressed = completeEnvelope(false);
+        // A compressed envelope has most likely freed up space, let the entry continue in this segment if it can
+        if (!compressed || (nextSegmentOffset - buffer.position()) < MAX_ZERO_PADDING_SIZE) {
+            padSegmentAndGoToNext();
+        }
         beginNewEnvelope();
     }
 
     /**
      * @param end if this is the last entry
+     * @return {@code true} if the payload of the completed envelope was compressed
      */
-    private void completeEnvelope(boolean end) {
+    private boolean completeEnvelope(boolean end) {
         EnvelopeType type = completedEnvelopeType(begin, end);
         final int payLoadLength = currentPayloadLength();
         if (payLoadLength == 0) {
@@ -479,13 +518,38 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
             // Nothing to complete. This will be the case when we try to start a new entry at the end of the segment.
             // Reset back position to last start and let the padding zero out the rest.
             buffer.position(currentEnvelopeStart);
-            return;
+            return false;
         }
-        writeHeader(type, payLoadLength);
+        boolean compressed = uncompressedPayload != null
+                && payLoadLength >= MIN_COMPRESSIBLE_PAYLOAD_SIZE
+                && compressPayload(payLoadLength);
+        writeHeader(type, compressed, currentPayloadLength());
         begin = end;
+        return compressed;
+    }
+
+    /**
+     * Replaces the payload of the current envelope with its compressed form, if that is smaller.
+     *
+     * @param payloadLength length of the uncompressed payload
+     * @return {@code true} if the payload was replaced
+     */
+    private boolean compressPayload(int payloadLength) {
+        final int payloadStartOffset = currentEnvelopeStart + HEADER_SIZE;
+        buffer.get(payloadStartOffset, uncompressedPayload, 0, payloadLength);
+        long compressedLength = Zstd.compressByteArray(
+                compressedPayload, 0, compressedPayload.length, uncompressedPayload, 0, payloadLength, COMPRESSION_LEVEL);
+        if (Zstd.isError(compressedLength) || compressedLength + Integer.BYTES >= payloadLength) {
+            return false;
+        }
+
+        buffer.putInt(payloadStartOffset, payloadLength)
+                .put(payloadStartOffset + Integer.BYTES, compressedPayload, 0, (int) compressedLength)
+                .position(payloadStartOffset + Integer.BYTES + (int) compressedLength);
+        return true;
     }
 
-    private void writeHeader(EnvelopeType type, int payloadLength) {
+    private void writeHeader(EnvelopeType type, boolean compressed, int payloadLength) {
         final int payloadEndOffset = buffer.position();
 
         if (begin) {
@@ -496,7 +560,7 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
         final int checksumStartOffset = currentEnvelopeStart + Integer.BYTES;
         buffer.position(checksumStartOffset);
         assert currentVersion != IGNORE_KERNEL_VERSION || type == EnvelopeType.START_OFFSET;
-        buffer.put(type.typeValue)
+        buffer.put(compressed ? (byte) (type.typeValue | COMPRESSED_FLAG) : type.typeValue)
                 .putInt(payloadLength)
                 // START_OFFSET envelopes do not have an index, as they are skipped automatically when reading
                 .putLong(type != EnvelopeType.START_OFFSET ? currentIndex : 0)
@@ -615,7 +679,7 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
 
         final int payloadLength = size - HEADER_SIZE;
         put(new byte[payloadLength], payloadLength);
-        writeHeader(EnvelopeType.START_OFFSET, payloadLength);
+        writeHeader(EnvelopeType.START_OFFSET, false, payloadLength);
         prepareNextEnvelope();
     }
 
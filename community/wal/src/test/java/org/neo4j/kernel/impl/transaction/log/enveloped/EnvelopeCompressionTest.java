@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.enveloped;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.COMPRESSED_FLAG;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.AppendIndexProvider.BASE_APPEND_INDEX;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.memory.HeapScopedBuffer;
+import org.neo4j.kernel.impl.transaction.log.ChannelNativeAccessor;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.LogTracers;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.EnvelopeType;
+import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.storageengine.api.StoreId;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@TestDirectoryExtension
+@ExtendWith(RandomExtension.class)
+class EnvelopeCompressionTest {
+    private static final int ENTRIES = 50;
+    private static final byte ENTRY_MARKER = 42;
+
+    @Inject
+    private RandomSupport random;
+
+    @Inject
+    private DefaultFileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory directory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {512, 1024, 4096})
+    void shouldReadBackCompressedEntries(int segmentSize) throws IOException {
+        byte[][] entries = new byte[ENTRIES][];
+        long[] entryValues = new long[ENTRIES];
+        long[] entryPositions = new long[ENTRIES];
+        long payloadBytes = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            entries[i] = compressibleBytes(random.intBetween(1, segmentSize * 5));
+            entryValues[i] = random.nextLong();
+            payloadBytes += Byte.BYTES + Long.BYTES + Integer.BYTES + entries[i].length;
+        }
+
+        long endPosition;
+        try (var channel = writeChannel(segmentSize, true)) {
+            for (int i = 0; i < ENTRIES; i++) {
+                entryPositions[i] = channel.position();
+                writeEntry(channel, entries[i], entryValues[i]);
+            }
+            endPosition = channel.position();
+        }
+        assertThat(endPosition - segmentSize)
+                .as("compressed log should be smaller than its payload")
+                .isLessThan(payloadBytes);
+
+        try (var channel = readChannel(segmentSize)) {
+            LogPositionMarker marker = new LogPositionMarker();
+            for (int i = 0; i < ENTRIES; i++) {
+                channel.markAndGetVersion(marker);
+                assertThat(marker.getByteOffset() - HEADER_SIZE).isEqualTo(entryPositions[i]);
+                assertEntry(channel, entries[i], entryValues[i]);
+            }
+            assertThatThrownBy(channel::get).isInstanceOf(ReadPastEndException.class);
+        }
+
+        try (var channel = readChannel(segmentSize)) {
+            for (int i = ENTRIES - 1; i >= 0; i--) {
+                channel.position(entryPositions[i]);
+                assertEntry(channel, entries[i], entryValues[i]);
+            }
+        }
+    }
+
+    @Test
+    void shouldPositionAtEndOfCompressedPayloads() throws IOException {
+        int segmentSize = 1024;
+        byte[][] entries = new byte[ENTRIES][];
+        long[] entryValues = new long[ENTRIES];
+        try (var channel = writeChannel(segmentSize, true)) {
+            for (int i = 0; i < ENTRIES; i++) {
+                entries[i] = compressibleBytes(random.intBetween(segmentSize / 2, segmentSize * 3));
+                entryValues[i] = random.nextLong();
+                writeEntry(channel, entries[i], entryValues[i]);
+            }
+        }
+
+        long[] endPositions = new long[ENTRIES];
+        try (var channel = readChannel(segmentSize)) {
+            for (int i = 0; i < ENTRIES; i++) {
+                assertEntry(channel, entries[i], entryValues[i]);
+                endPositions[i] = channel.position();
+            }
+        }
+
+        try (var channel = readChannel(segmentSize)) {
+            for (int i = ENTRIES - 2; i >= 0; i--) {
+                channel.position(endPositions[i]);
+                assertEntry(channel, entries[i + 1], entryValues[i + 1]);
+                assertThat(channel.position()).isEqualTo(endPositions[i + 1]);
+            }
+        }
+    }
+
+    @Test
+    void shouldReportEnvelopeStartInsideCompressedPayload() throws IOException {
+        int segmentSize = 1024;
+        byte[] first = compressibleBytes(segmentSize / 2);
+        byte[] second = compressibleBytes(segmentSize / 2);
+        long secondPosition;
+        try (var channel = writeChannel(segmentSize, true)) {
+            writeEntry(channel, first, 1);
+            secondPosition = channel.position();
+            writeEntry(channel, second, 2);
+        }
+
+        try (var channel = readChannel(segmentSize)) {
+            assertThat(channel.get()).isEqualTo(ENTRY_MARKER);
+            assertThat(channel.getLong()).isEqualTo(1);
+            assertThat(channel.position()).isEqualTo(segmentSize);
+
+            // Positioning at the reported position reads the envelope again from its start
+            channel.position(channel.position());
+            assertThat(channel.position()).isEqualTo(segmentSize);
+            assertEntry(channel, first, 1);
+            assertThat(channel.position()).isEqualTo(secondPosition);
+
+            assertThat(channel.get()).isEqualTo(ENTRY_MARKER);
+            assertThat(channel.position()).isEqualTo(secondPosition);
+            channel.position(channel.position());
+            assertEntry(channel, second, 2);
+        }
+    }
+
+    @Test
+    void shouldRefusePositionsInsideCompressedPayload() throws IOException {
+        int segmentSize = 1024;
+        byte[] first = compressibleBytes(segmentSize / 2);
+        byte[] second = compressibleBytes(segmentSize / 2);
+        long secondPosition;
+        try (var channel = writeChannel(segmentSize, true)) {
+            writeEntry(channel, first, 1);
+            secondPosition = channel.position();
+            writeEntry(channel, second, 2);
+        }
+
+        long insidePayload = segmentSize + HEADER_SIZE + 1;
+        try (var channel = readChannel(segmentSize)) {
+            assertThat(channel.get()).isEqualTo(ENTRY_MARKER);
+            // Inside the envelope that is currently read
+            assertThatThrownBy(() -> channel.position(insidePayload))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("inside the compressed envelope payload");
+            // The refused position must leave the channel usable from a boundary
+            channel.position(secondPosition);
+            assertEntry(channel, second, 2);
+
+            // Inside another envelope than the one that is currently read
+            assertThatThrownBy(() -> channel.position(insidePayload))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("inside the compressed envelope payload");
+            channel.position(segmentSize);
+            assertEntry(channel, first, 1);
+        }
+    }
+
+    @Test
+    void shouldRewindToStartOfTornCompressedEnvelope() throws IOException {
+        int segmentSize = 1024;
+        byte[] first = compressibleBytes(segmentSize / 4);
+        byte[] second = compressibleBytes(segmentSize * 10);
+        long secondPosition;
+        try (var channel = writeChannel(segmentSize, true)) {
+            writeEntry(channel, first, 1);
+            secondPosition = channel.position();
+            writeEntry(channel, second, 2);
+            assertThat(channel.position()).isGreaterThan(segmentSize * 3L);
+        }
+
+        // The second entry starts with a compressed BEGIN envelope in the first segment, tear off the rest of it
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(LITTLE_ENDIAN);
+        try (var channel = fileSystem.write(logPath())) {
+            channel.position(secondPosition);
+            channel.readAll(header);
+            channel.position(segmentSize * 2L);
+            channel.writeAll(ByteBuffer.allocate((int) (channel.size() - segmentSize * 2L)));
+        }
+        byte type = header.get(Integer.BYTES);
+        assertThat(EnvelopeType.of(type)).isEqualTo(EnvelopeType.BEGIN);
+        assertThat(EnvelopeType.isCompressed(type)).isTrue();
+
+        try (var channel = readChannel(segmentSize)) {
+            assertEntry(channel, first, 1);
+            assertThat(channel.get()).isEqualTo(ENTRY_MARKER);
+            // Where a reader would take the start of the next entry, which is inside the compressed payload
+            long entryStart = channel.position();
+            assertThat(entryStart).isEqualTo(secondPosition);
+            assertThat(channel.getLong()).isEqualTo(2);
+            assertThat(channel.getInt()).isEqualTo(second.length);
+            assertThatThrownBy(() -> channel.get(new byte[second.length], second.length))
+                    .isInstanceOf(ReadPastEndException.class);
+
+            channel.position(entryStart);
+            assertThat(channel.position()).isEqualTo(secondPosition);
+            assertThat(channel.get()).isEqualTo(ENTRY_MARKER);
+            assertThat(channel.getLong()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldRefuseCompressedEnvelopesInLogFormatWithoutCompression() throws IOException {
+        int segmentSize = 1024;
+        byte[] data = compressibleBytes(segmentSize / 2);
+        try (var channel = writeChannel(segmentSize, LogFormat.V10, true)) {
+            writeEntry(channel, data, 1);
+        }
+
+        try (var channel = readChannel(segmentSize)) {
+            assertThatThrownBy(() -> assertEntry(channel, data, 1))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("does not support compressed envelopes");
+        }
+    }
+
+    @Test
+    void shouldRefuseUnknownEnvelopeTypes() {
+        assertThatThrownBy(() -> EnvelopeType.of((byte) (COMPRESSED_FLAG | 0x02 | 0x10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown envelope type");
+        assertThatThrownBy(() -> EnvelopeType.of((byte) -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown envelope type");
+    }
+
+    @Test
+    void shouldNotCompressIncompressiblePayloads() throws IOException {
+        int segmentSize = 1024;
+        byte[] data = new byte[segmentSize / 2];
+        random.nextBytes(data);
+        long value = random.nextLong();
+
+        try (var channel = writeChannel(segmentSize, true)) {
+            writeEntry(channel, data, value);
+            assertThat(channel.position())
+                    .isEqualTo(segmentSize + HEADER_SIZE + Byte.BYTES + Long.BYTES + Integer.BYTES + data.length);
+        }
+
+        try (var channel = readChannel(segmentSize)) {
+            assertEntry(channel, data, value);
+        }
+    }
+
+    @Test
+    void shouldMarkCompressedEnvelopes() throws IOException {
+        int segmentSize = 1024;
+        byte[] data = compressibleBytes(segmentSize / 2);
+
+        try (var channel = writeChannel(segmentSize, true)) {
+            writeEntry(channel, data, 1);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(LITTLE_ENDIAN);
+        try (var channel = fileSystem.read(logPath())) {
+            channel.position(segmentSize);
+            channel.readAll(header);
+        }
+        byte type = header.get(Integer.BYTES);
+        assertThat(EnvelopeType.isCompressed(type)).isTrue();
+        assertThat(EnvelopeType.of(type)).isEqualTo(EnvelopeType.FULL);
+        assertThat(type & ~COMPRESSED_FLAG).isEqualTo(EnvelopeType.FULL.typeValue);
+    }
+
+    private static void writeEntry(EnvelopeWriteChannel channel, byte[] data, long value) throws IOException {
+        channel.putVersion(LatestVersions.LATEST_KERNEL_VERSION.version());
+        // A single byte first, so that the entry is guaranteed to start where the channel position says it does
+        channel.put(ENTRY_MARKER);
+        channel.putLong(value);
+        channel.putInt(data.length);
+        channel.put(data, data.length);
+        channel.endCurrentEntry();
+    }
+
+    private static void assertEntry(EnvelopeReadChannel channel, byte[] data, long value) throws IOException {
+        assertThat(channel.get()).isEqualTo(ENTRY_MARKER);
+        assertThat(channel.getLong()).isEqualTo(value);
+        assertThat(channel.getInt()).isEqualTo(data.length);
+        byte[] read = new byte[data.length];
+        channel.get(read, read.length);
+        assertThat(read).isEqualTo(data);
+    }
+
+    private byte[] compressibleBytes(int length) {
+        byte[] alphabet = new byte[8];
+        random.nextBytes(alphabet);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return bytes;
+    }
+
+    private EnvelopeWriteChannel writeChannel(int segmentSize, boolean compress) throws IOException {
+        return writeChannel(segmentSize, compress ? LogFormat.V11 : LogFormat.V10, compress);
+    }
+
+    private EnvelopeWriteChannel writeChannel(int segmentSize, LogFormat logFormat, boolean compress)
+            throws IOException {
+        var storeChannel = storeChannel();
+        LogHeader logHeader = logFormat.newHeader(
+                1,
+                BASE_APPEND_INDEX,
+                LogHeader.UNKNOWN_TERM,
+                StoreId.UNKNOWN,
+                segmentSize,
+                BASE_TX_CHECKSUM,
+                LatestVersions.LATEST_KERNEL_VERSION);
+        writeLogHeader(storeChannel, logHeader, INSTANCE);
+        storeChannel.position(segmentSize);
+        return new EnvelopeWriteChannel(
+                storeChannel,
+                new HeapScopedBuffer(segmentSize * 4, LITTLE_ENDIAN, INSTANCE),
+                segmentSize,
+                BASE_TX_CHECKSUM,
+                EnvelopeWriteChannel.START_INDEX,
+                LogTracers.NULL,
+                NO_ROTATION,
+                compress);
+    }
+
+    private EnvelopeReadChannel readChannel(int segmentSize) throws IOException {
+        return new EnvelopeReadChannel(storeChannel(), segmentSize, NO_MORE_CHANNELS, INSTANCE, false);
+    }
+
+    private PhysicalLogVersionedStoreChannel storeChannel() throws IOException {
+        return new PhysicalLogVersionedStoreChannel(
+                fileSystem.write(logPath()),
+                1,
+                LatestVersions.LATEST_LOG_FORMAT,
+                logPath(),
+                ChannelNativeAccessor.EMPTY_ACCESSOR,
+                LogTracers.NULL);
+    }
+
+    private Path logPath() {
+        return directory.homePath().resolve("log.1");
+    }
+}
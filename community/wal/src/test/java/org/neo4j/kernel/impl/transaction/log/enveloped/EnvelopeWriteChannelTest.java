@@ -56,6 +56,7 @@ import org.neo4j.kernel.impl.transaction.log.LogForceWaitEvent;
 import org.neo4j.kernel.impl.transaction.log.LogTracers;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.EnvelopeType;
 import org.neo4j.kernel.impl.transaction.log.rotation.CountingLogRotateEvent;
@@ -935,6 +936,9 @@ class EnvelopeWriteChannelTest {
                 return null;
             }
 
+            @Override
+            public void appendedBatch(int batchSize) {}
+
             @Override
             public LogForceWaitEvent beginLogForceWait() {
                 return null;
@@ -1017,6 +1021,16 @@ class EnvelopeWriteChannelTest {
         public long rolledbackBatchedTransactions() {
             return 0;
         }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitSizes() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram logForceTimeMicros() {
+            return new PowerOfTwoHistogram();
+        }
     }
 
     private static Stream<Arguments> provideStartOffsetParameters() {